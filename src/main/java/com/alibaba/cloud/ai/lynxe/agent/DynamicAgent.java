@@ -15,6 +15,7 @@
  */
 package com.alibaba.cloud.ai.lynxe.agent;
 
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
@@ -23,9 +24,11 @@ import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 import org.slf4j.Logger;
@@ -56,6 +59,7 @@ import com.alibaba.cloud.ai.lynxe.event.PlanExceptionClearedEvent;
 import com.alibaba.cloud.ai.lynxe.exception.TokenLimitExceededException;
 import com.alibaba.cloud.ai.lynxe.llm.ConversationMemoryLimitService;
 import com.alibaba.cloud.ai.lynxe.llm.LlmService;
+import com.alibaba.cloud.ai.lynxe.llm.MessageTokenCounter;
 import com.alibaba.cloud.ai.lynxe.llm.StreamingResponseHandler;
 import com.alibaba.cloud.ai.lynxe.llm.TokenCountService;
 import com.alibaba.cloud.ai.lynxe.llm.TokenLimitService;
@@ -84,6 +88,9 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 
 import io.micrometer.common.util.StringUtils;
 import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
 
 public class DynamicAgent extends ReActAgent {
 
@@ -175,6 +182,13 @@ public class DynamicAgent extends ReActAgent {
 	 */
 	private Integer currentModelContextLimit = null;
 
+	/**
+	 * Per-message token counts of the prompt, so each think step only tokenizes messages
+	 * added since the previous step. Created lazily from the LlmService's
+	 * TokenCountService.
+	 */
+	private MessageTokenCounter messageTokenCounter;
+
 	public void clearUp(String planId) {
 		Map<String, ToolCallBackContext> toolCallBackContext = toolCallbackProvider.getToolCallBackContext();
 		for (ToolCallBackContext toolCallBack : toolCallBackContext.values()) {
@@ -229,6 +243,25 @@ public class DynamicAgent extends ReActAgent {
 
 	@Override
 	protected boolean think() {
+		try {
+			return thinkAsync().join();
+		}
+		catch (CompletionException e) {
+			if (e.getCause() instanceof TaskInterruptionCheckerService.TaskInterruptedException interrupted) {
+				throw interrupted;
+			}
+			throw e;
+		}
+	}
+
+	/**
+	 * Non-blocking think phase. The LLM response is streamed without parking a thread and
+	 * retry backoff is scheduled on a timer; the continuation (recording, tool
+	 * preparation) runs on the executor of this agent's plan depth.
+	 * @return CompletableFuture that completes with true if tools were selected, false
+	 * otherwise (latestLlmException is set when all retries failed)
+	 */
+	protected CompletableFuture<Boolean> thinkAsync() {
 		// Check for interruption before starting thinking process
 		if (agentInterruptionHelper != null && !agentInterruptionHelper.checkInterruptionAndContinue(getRootPlanId())) {
 			log.info("Agent {} thinking process interrupted for rootPlanId: {}", getName(), getRootPlanId());
@@ -239,287 +272,369 @@ public class DynamicAgent extends ReActAgent {
 
 		collectAndSetEnvDataForTools();
 
-		try {
-			boolean result = executeWithRetry(3);
-			// If retries exhausted and we have exceptions, the result will be false
-			// and latestLlmException will be set
-			return result;
-		}
-		catch (TaskInterruptionCheckerService.TaskInterruptedException e) {
-			log.info("Agent {} thinking process interrupted: {}", getName(), e.getMessage());
-			throw e; // Re-throw the interruption exception
-		}
-		catch (Exception e) {
-			log.error(String.format("🚨 Oops! The %s's thinking process hit a snag: %s", getName(), e.getMessage()), e);
-			log.info("Exception occurred", e);
+		return executeWithRetry(3).toFuture().handle((result, ex) -> {
+			if (ex == null) {
+				// If retries exhausted and we have exceptions, the result will be false
+				// and latestLlmException will be set
+				return result;
+			}
+			Throwable cause = ex instanceof CompletionException && ex.getCause() != null ? ex.getCause() : ex;
+			if (cause instanceof TaskInterruptionCheckerService.TaskInterruptedException interrupted) {
+				log.info("Agent {} thinking process interrupted: {}", getName(), interrupted.getMessage());
+				throw interrupted; // Re-throw the interruption exception
+			}
+			log.error(String.format("🚨 Oops! The %s's thinking process hit a snag: %s", getName(), cause.getMessage()),
+					cause);
 			// Record this exception as well
-			latestLlmException = e;
-			llmCallExceptions.add(e);
+			Exception exception = cause instanceof Exception e ? e : new RuntimeException(cause);
+			latestLlmException = exception;
+			llmCallExceptions.add(exception);
 			return false;
-		}
+		});
 	}
 
-	private boolean executeWithRetry(int maxRetries) throws Exception {
-		int attempt = 0;
-		Exception lastException = null;
+	/**
+	 * Mutable state shared by the attempts of one think retry cycle
+	 */
+	private static class ThinkRetryState {
+
+		private int attempt;
+
 		// Track no-tool-selected count to add IMPORTANT hints when repeated
-		int noToolSelectedCount = 0;
+		private int noToolSelectedCount;
+
+		private Exception lastException;
+
+	}
+
+	/**
+	 * Prepared LLM request of a single think attempt
+	 */
+	private static class ThinkRequest {
+
+		private final String thinkInput;
+
+		private final String toolcallId;
+
+		private final int inputTokenCount;
+
+		private final Flux<ChatResponse> responseFlux;
+
+		ThinkRequest(String thinkInput, String toolcallId, int inputTokenCount, Flux<ChatResponse> responseFlux) {
+			this.thinkInput = thinkInput;
+			this.toolcallId = toolcallId;
+			this.inputTokenCount = inputTokenCount;
+			this.responseFlux = responseFlux;
+		}
+
+	}
+
+	private Mono<Boolean> executeWithRetry(int maxRetries) {
 		// Clear exception list at the start of retry cycle
 		llmCallExceptions.clear();
 		latestLlmException = null;
+		return executeThinkAttempt(new ThinkRetryState(), maxRetries);
+	}
 
-		while (attempt < maxRetries) {
-			attempt++;
+	/**
+	 * Run one think attempt and chain the next one if it did not produce tool calls or
+	 * failed with a retryable error.
+	 * @param state Retry state of the current cycle
+	 * @param maxRetries Maximum number of attempts
+	 * @return Mono emitting true if tools were selected, false if all attempts failed
+	 */
+	private Mono<Boolean> executeThinkAttempt(ThinkRetryState state, int maxRetries) {
+		if (state.attempt >= maxRetries) {
+			return Mono.fromSupplier(() -> onRetriesExhausted(state, maxRetries));
+		}
+		state.attempt++;
+		int attempt = state.attempt;
 
+		return Mono.defer(() -> {
 			// Check for interruption before each retry attempt
 			if (agentInterruptionHelper != null
 					&& !agentInterruptionHelper.checkInterruptionAndContinue(getRootPlanId())) {
 				log.info("Agent {} retry process interrupted at attempt {}/{} for rootPlanId: {}", getName(), attempt,
 						maxRetries, getRootPlanId());
-				throw new TaskInterruptionCheckerService.TaskInterruptedException(
-						"Agent thinking interrupted at attempt " + attempt);
-			}
+				return Mono.error(new TaskInterruptionCheckerService.TaskInterruptedException(
+						"Agent thinking interrupted at attempt " + attempt));
+			}
+
+			log.info("Attempt {}/{}: Executing agent thinking process", attempt, maxRetries);
+			ThinkRequest request = prepareThinkRequest(state);
+			boolean isDebugModel = lynxeProperties.getDebugDetail() != null && lynxeProperties.getDebugDetail();
+			// Enable early termination for agent thinking (should have tool calls)
+			// Pass token count directly to StreamingResponseHandler
+			// Cancel the LLM stream as soon as the task is interrupted
+			Flux<ChatResponse> responseFlux = agentInterruptionHelper != null
+					? agentInterruptionHelper.cancelOnInterrupt(request.responseFlux, getRootPlanId())
+					: request.responseFlux;
+			// The merged result is built, recorded and turned into tool calls off the
+			// HTTP client event loop
+			return streamingResponseHandler
+				.processStreamingResponseAsync(responseFlux, "Agent " + getName() + " thinking", getCurrentPlanId(),
+						isDebugModel, true, request.inputTokenCount, getThinkContinuationScheduler())
+				.map(result -> handleThinkResponse(request, result, state));
+		})
+			.onErrorResume(e -> handleThinkAttemptFailure(e, state, maxRetries))
+			.flatMap(toolsSelected -> toolsSelected ? Mono.just(true) : executeThinkAttempt(state, maxRetries));
+	}
 
-			try {
-				log.info("Attempt {}/{}: Executing agent thinking process", attempt, maxRetries);
-
-				Message systemMessage = getThinkMessage();
-				// Use current env as user message
-				Message currentStepEnvMessage = currentStepEnvMessage();
-
-				// If no tools were selected in previous attempts, add explicit tool call
-				// requirement
-				if (noToolSelectedCount > 0) {
-					String toolCallRequirement = String.format(
-							"\n\n IMPORTANT: You must call at least one tool to proceed. "
-									+ "Previous %d attempt(s) did not select any tools. "
-									+ "Do not provide explanations or reasoning - call a tool immediately.",
-							noToolSelectedCount);
-					// Append requirement to current step env message
-					String enhancedEnvText = currentStepEnvMessage.getText() + toolCallRequirement;
-					// Create new UserMessage with enhanced text, preserving metadata
-					UserMessage enhancedMessage = new UserMessage(enhancedEnvText);
-					if (currentStepEnvMessage.getMetadata() != null) {
-						enhancedMessage.getMetadata().putAll(currentStepEnvMessage.getMetadata());
-					}
-					currentStepEnvMessage = enhancedMessage;
-					log.info("Added explicit tool call requirement to retry message (no tool selected count: {})",
-							noToolSelectedCount);
-				}
-				// Record think message
-				List<Message> thinkMessages = Arrays.asList(systemMessage, currentStepEnvMessage);
-				String thinkInput = thinkMessages.toString();
-
-				// Merge extraMessage into agentMessages at the first round
-				if (getCurrentStep() == 1 && extraMessage != null && !extraMessage.isEmpty()) {
-					log.debug("First round: merging {} extra messages into agentMessages for conversationId: {}",
-							extraMessage.size(), getConversationId());
-					agentMessages.addAll(0, extraMessage);
-					// Clear extraMessage after merging to avoid duplicate processing
-					extraMessage.clear();
-				}
+	/**
+	 * Build the prompt of a think attempt, compressing memory if needed, and create the
+	 * (not yet subscribed) LLM response stream.
+	 */
+	private ThinkRequest prepareThinkRequest(ThinkRetryState state) {
+		Message systemMessage = getThinkMessage();
+		// Use current env as user message
+		Message currentStepEnvMessage = currentStepEnvMessage();
+
+		// If no tools were selected in previous attempts, add explicit tool call
+		// requirement
+		if (state.noToolSelectedCount > 0) {
+			String toolCallRequirement = String.format(
+					"\n\n IMPORTANT: You must call at least one tool to proceed. "
+							+ "Previous %d attempt(s) did not select any tools. "
+							+ "Do not provide explanations or reasoning - call a tool immediately.",
+					state.noToolSelectedCount);
+			// Append requirement to current step env message
+			String enhancedEnvText = currentStepEnvMessage.getText() + toolCallRequirement;
+			// Create new UserMessage with enhanced text, preserving metadata
+			UserMessage enhancedMessage = new UserMessage(enhancedEnvText);
+			if (currentStepEnvMessage.getMetadata() != null) {
+				enhancedMessage.getMetadata().putAll(currentStepEnvMessage.getMetadata());
+			}
+			currentStepEnvMessage = enhancedMessage;
+			log.info("Added explicit tool call requirement to retry message (no tool selected count: {})",
+					state.noToolSelectedCount);
+		}
+		// Record think message
+		List<Message> thinkMessages = Arrays.asList(systemMessage, currentStepEnvMessage);
+		String thinkInput = thinkMessages.toString();
+
+		// Merge extraMessage into agentMessages at the first round
+		if (getCurrentStep() == 1 && extraMessage != null && !extraMessage.isEmpty()) {
+			log.debug("First round: merging {} extra messages into agentMessages for conversationId: {}",
+					extraMessage.size(), getConversationId());
+			agentMessages.addAll(0, extraMessage);
+			// Clear extraMessage after merging to avoid duplicate processing
+			extraMessage.clear();
+		}
+
+		// Check and compress memory after merging extraMessage (if first round)
+		// and before building prompt
+		// This calculates the full prompt token count, compresses if needed, and
+		// checks against model context limit
+		int inputTokenCount = checkAndCompressMemoryIfNeeded(systemMessage, currentStepEnvMessage);
+
+		// Validate inputTokenCount
+		if (inputTokenCount <= 0) {
+			throw new IllegalStateException(
+					"Failed to calculate input token count. TokenCountService or ConversationMemoryLimitService must be available.");
+		}
+
+		// log.debug("Messages prepared for the prompt: {}", thinkMessages);
+		// Build current prompt. System message is the first message
+		List<Message> messages = new ArrayList<>();
+		// Add history message from agent memory (already contains extraMessage if
+		// first round, and may be compressed)
+		List<Message> historyMem = agentMessages;
+
+		messages.addAll(Collections.singletonList(systemMessage));
+		// Add historyMem (agent memory) in every round
+		messages.addAll(historyMem);
+		log.debug("Added {} history messages from agent memory for round {}", historyMem.size(), getCurrentStep());
+
+		messages.add(currentStepEnvMessage);
+
+		String toolcallId = planIdDispatcher.generateToolCallId();
+		// Call the LLM
+		Map<String, Object> toolContextMap = new HashMap<>();
+		toolContextMap.put("toolcallId", toolcallId);
+		toolContextMap.put("planDepth", getPlanDepth());
+		// NOTE: Do NOT add recursive call chain here - it should only be in tool
+		// execution contexts
+		// Adding it here can cause serialization issues with Spring AI
+		ToolCallingChatOptions chatOptions = ToolCallingChatOptions.builder()
+			.internalToolExecutionEnabled(false)
+			.toolContext(toolContextMap)
+			// can't support by toocall options :
+			// .parallelToolCalls(lynxeProperties.getParallelToolCalls())
+			.build();
+		userPrompt = new Prompt(messages, chatOptions);
+		List<ToolCallback> callbacks = getToolCallList();
+		ChatClient chatClient;
+		if (modelName == null || modelName.isEmpty()) {
+			chatClient = llmService.getDefaultDynamicAgentChatClient();
+		}
+		else {
+			chatClient = llmService.getDynamicAgentChatClient(modelName);
+		}
 
-				// Check and compress memory after merging extraMessage (if first round)
-				// and before building prompt
-				// This calculates the full prompt token count, compresses if needed, and
-				// checks against model context limit
-				int inputTokenCount = checkAndCompressMemoryIfNeeded(systemMessage, currentStepEnvMessage);
+		// Use streaming response handler for better user experience and content
+		// merging
+		Flux<ChatResponse> responseFlux = chatClient.prompt(userPrompt)
+			.toolCallbacks(callbacks)
+			.stream()
+			.chatResponse();
 
-				// Validate inputTokenCount
-				if (inputTokenCount <= 0) {
-					throw new IllegalStateException(
-							"Failed to calculate input token count. TokenCountService or ConversationMemoryLimitService must be available.");
-				}
+		return new ThinkRequest(thinkInput, toolcallId, inputTokenCount, responseFlux);
+	}
 
-				// log.debug("Messages prepared for the prompt: {}", thinkMessages);
-				// Build current prompt. System message is the first message
-				List<Message> messages = new ArrayList<>();
-				// Add history message from agent memory (already contains extraMessage if
-				// first round, and may be compressed)
-				List<Message> historyMem = agentMessages;
-
-				messages.addAll(Collections.singletonList(systemMessage));
-				// Add historyMem (agent memory) in every round
-				messages.addAll(historyMem);
-				log.debug("Added {} history messages from agent memory for round {}", historyMem.size(),
-						getCurrentStep());
-
-				messages.add(currentStepEnvMessage);
-
-				String toolcallId = planIdDispatcher.generateToolCallId();
-				// Call the LLM
-				Map<String, Object> toolContextMap = new HashMap<>();
-				toolContextMap.put("toolcallId", toolcallId);
-				toolContextMap.put("planDepth", getPlanDepth());
-				// NOTE: Do NOT add recursive call chain here - it should only be in tool
-				// execution contexts
-				// Adding it here can cause serialization issues with Spring AI
-				ToolCallingChatOptions chatOptions = ToolCallingChatOptions.builder()
-					.internalToolExecutionEnabled(false)
-					.toolContext(toolContextMap)
-					// can't support by toocall options :
-					// .parallelToolCalls(lynxeProperties.getParallelToolCalls())
-					.build();
-				userPrompt = new Prompt(messages, chatOptions);
-				List<ToolCallback> callbacks = getToolCallList();
-				ChatClient chatClient;
-				if (modelName == null || modelName.isEmpty()) {
-					chatClient = llmService.getDefaultDynamicAgentChatClient();
-				}
-				else {
-					chatClient = llmService.getDynamicAgentChatClient(modelName);
-				}
+	/**
+	 * Process the merged LLM response of a think attempt.
+	 * @return true if tool calls were prepared, false if the attempt should be repeated
+	 */
+	private boolean handleThinkResponse(ThinkRequest request, StreamingResponseHandler.StreamingResult result,
+			ThinkRetryState state) {
+		streamResult = result;
 
-				// Use streaming response handler for better user experience and content
-				// merging
-				Flux<ChatResponse> responseFlux = chatClient.prompt(userPrompt)
-					.toolCallbacks(callbacks)
-					.stream()
-					.chatResponse();
-				boolean isDebugModel = lynxeProperties.getDebugDetail() != null && lynxeProperties.getDebugDetail();
-				// Enable early termination for agent thinking (should have tool calls)
-				// Pass token count directly to StreamingResponseHandler
-				streamResult = streamingResponseHandler.processStreamingResponse(responseFlux,
-						"Agent " + getName() + " thinking", getCurrentPlanId(), isDebugModel, true, inputTokenCount);
-
-				// Extract commonly used data into AgentStreamingResult
-				List<ToolCall> toolCalls = streamResult.getEffectiveToolCalls();
-				String responseByLLm = streamResult.getEffectiveText();
-				int finalInputTokenCount = streamResult.getInputTokenCount();
-				int finalOutputTokenCount = streamResult.getOutputTokenCount();
-
-				agentStreamingResult = new AgentStreamingResult(toolCalls, responseByLLm, finalInputTokenCount,
-						finalOutputTokenCount);
-
-				// Keep response for backward compatibility (used in
-				// extractAssistantMessageFromResponse)
-				response = streamResult.getLastResponse();
-
-				log.info("Input token count: {}, Output token count: {}", agentStreamingResult.getInputTokenCount(),
-						agentStreamingResult.getOutputTokenCount());
-
-				log.info(String.format("✨ %s's thoughts: %s", getName(), agentStreamingResult.getResponseText()));
-				log.info(String.format("🛠️ %s selected %d tools to use", getName(),
-						agentStreamingResult.getToolCalls().size()));
-
-				// If no tools selected, wrap message in ThinkTool and create a ToolCall
-				if (!agentStreamingResult.hasToolCalls()) {
-					noToolSelectedCount++;
-					log.warn("Attempt {}: No tools selected. Creating ThinkTool call... (no tool selected count: {})",
-							attempt, noToolSelectedCount);
+		// Extract commonly used data into AgentStreamingResult
+		List<ToolCall> toolCalls = streamResult.getEffectiveToolCalls();
+		String responseByLLm = streamResult.getEffectiveText();
+		int finalInputTokenCount = streamResult.getInputTokenCount();
+		int finalOutputTokenCount = streamResult.getOutputTokenCount();
 
-					try {
-						// Prepare ThinkTool input
-						Map<String, Object> thinkToolInput = new HashMap<>();
-						thinkToolInput.put("message", agentStreamingResult.getResponseText() != null
-								? agentStreamingResult.getResponseText() : "No response from LLM");
-
-						// Create ThinkTool ToolCall
-						String thinkToolCallId = planIdDispatcher.generateToolCallId();
-						String thinkToolArguments = objectMapper.writeValueAsString(thinkToolInput);
-						ToolCall thinkToolCall = new ToolCall(thinkToolCallId, "function",
-								ThinkTool.SERVICE_GROUP + "-" + ThinkTool.name, thinkToolArguments);
-
-						// Add ThinkTool call to agentStreamingResult
-						List<ToolCall> toolCallsWithThink = new ArrayList<>();
-						toolCallsWithThink.add(thinkToolCall);
-						agentStreamingResult.setToolCalls(toolCallsWithThink);
-
-						log.info("Created ThinkTool call, will be executed in unified tool processing flow");
-					}
-					catch (Exception e) {
-						log.error("Failed to create ThinkTool call: {}", e.getMessage(), e);
-						// Continue with normal retry flow if ThinkTool creation fails
-					}
-				}
+		agentStreamingResult = new AgentStreamingResult(toolCalls, responseByLLm, finalInputTokenCount,
+				finalOutputTokenCount);
 
-				// Unified tool processing flow (handles both regular tools and ThinkTool)
-				if (agentStreamingResult.hasToolCalls()) {
-					// Reset no-tool-selected count on successful tool call
-					noToolSelectedCount = 0;
-					log.info(String.format("🧰 Tools being prepared: %s",
-							agentStreamingResult.getToolCalls()
-								.stream()
-								.map(ToolCall::name)
-								.collect(Collectors.toList())));
-
-					String stepId = super.step.getStepId();
-					String thinkActId = planIdDispatcher.generateThinkActId();
-
-					actToolInfoList = new ArrayList<>();
-					// Generate unique toolCallId for each tool when multiple tools are
-					// present
-					// This ensures each tool has its own toolCallId for proper sub-plan
-					// linkage
-					for (ToolCall toolCall : agentStreamingResult.getToolCalls()) {
-						String toolCallIdForTool = (agentStreamingResult.getToolCalls().size() > 1)
-								? planIdDispatcher.generateToolCallId() : toolcallId;
-						ActToolParam actToolInfo = new ActToolParam(toolCall.name(), toolCall.arguments(),
-								toolCallIdForTool);
-						actToolInfoList.add(actToolInfo);
-					}
+		// Keep response for backward compatibility (used in
+		// extractAssistantMessageFromResponse)
+		response = streamResult.getLastResponse();
 
-					ThinkActRecordParams paramsN = new ThinkActRecordParams(thinkActId, stepId, thinkInput,
-							agentStreamingResult.getResponseText(), null, agentStreamingResult.getInputTokenCount(),
-							agentStreamingResult.getOutputTokenCount(), currentModelContextLimit, actToolInfoList);
-					planExecutionRecorder.recordThinkingAndAction(step, paramsN);
-					// Reset after recording
-					currentModelContextLimit = null;
-
-					// Clear exception cache if this was a retry attempt
-					if (attempt > 1 && lynxeEventPublisher != null) {
-						log.info("Retry successful for planId: {}, clearing exception cache", getCurrentPlanId());
-						lynxeEventPublisher.publish(new PlanExceptionClearedEvent(getCurrentPlanId()));
-					}
+		log.info("Input token count: {}, Output token count: {}", agentStreamingResult.getInputTokenCount(),
+				agentStreamingResult.getOutputTokenCount());
 
-					return true;
-				}
+		log.info(String.format("✨ %s's thoughts: %s", getName(), agentStreamingResult.getResponseText()));
+		log.info(String.format("🛠️ %s selected %d tools to use", getName(),
+				agentStreamingResult.getToolCalls().size()));
+
+		// If no tools selected, wrap message in ThinkTool and create a ToolCall
+		if (!agentStreamingResult.hasToolCalls()) {
+			state.noToolSelectedCount++;
+			log.warn("Attempt {}: No tools selected. Creating ThinkTool call... (no tool selected count: {})",
+					state.attempt, state.noToolSelectedCount);
+
+			try {
+				// Prepare ThinkTool input
+				Map<String, Object> thinkToolInput = new HashMap<>();
+				thinkToolInput.put("message", agentStreamingResult.getResponseText() != null
+						? agentStreamingResult.getResponseText() : "No response from LLM");
+
+				// Create ThinkTool ToolCall
+				String thinkToolCallId = planIdDispatcher.generateToolCallId();
+				String thinkToolArguments = objectMapper.writeValueAsString(thinkToolInput);
+				ToolCall thinkToolCall = new ToolCall(thinkToolCallId, "function",
+						ThinkTool.SERVICE_GROUP + "-" + ThinkTool.name, thinkToolArguments);
+
+				// Add ThinkTool call to agentStreamingResult
+				List<ToolCall> toolCallsWithThink = new ArrayList<>();
+				toolCallsWithThink.add(thinkToolCall);
+				agentStreamingResult.setToolCalls(toolCallsWithThink);
 
+				log.info("Created ThinkTool call, will be executed in unified tool processing flow");
 			}
 			catch (Exception e) {
-				lastException = e;
-				latestLlmException = e;
-				// Record exception to the list (record all exceptions, even non-retryable
-				// ones)
-				llmCallExceptions.add(e);
-				log.warn("Attempt {} failed: {}", attempt, e.getMessage());
-				log.debug("Exception details for attempt {}: {}", attempt, e.getMessage(), e);
-
-				// Check if this is a network-related error that should be retried
-				if (isRetryableException(e)) {
-					if (attempt < maxRetries) {
-						long waitTime = calculateBackoffDelay(attempt);
-						log.info("Retrying in {}ms due to retryable error: {}", waitTime, e.getMessage());
-						try {
-							Thread.sleep(waitTime);
-						}
-						catch (InterruptedException ie) {
-							Thread.currentThread().interrupt();
-							throw new Exception("Retry interrupted", ie);
-						}
-						continue;
-					}
-				}
-				else {
-					// Non-retryable error - still record it, but throw immediately
-					log.error("Non-retryable error encountered at attempt {}/{}: {}", attempt, maxRetries,
-							e.getMessage());
-					throw e;
-				}
+				log.error("Failed to create ThinkTool call: {}", e.getMessage(), e);
+				// Continue with normal retry flow if ThinkTool creation fails
 			}
 		}
 
-		// All retries exhausted
-		if (lastException != null) {
+		// Unified tool processing flow (handles both regular tools and ThinkTool)
+		if (agentStreamingResult.hasToolCalls()) {
+			// Reset no-tool-selected count on successful tool call
+			state.noToolSelectedCount = 0;
+			log.info(String.format("🧰 Tools being prepared: %s",
+					agentStreamingResult.getToolCalls().stream().map(ToolCall::name).collect(Collectors.toList())));
+
+			String stepId = super.step.getStepId();
+			String thinkActId = planIdDispatcher.generateThinkActId();
+
+			actToolInfoList = new ArrayList<>();
+			// Generate unique toolCallId for each tool when multiple tools are
+			// present
+			// This ensures each tool has its own toolCallId for proper sub-plan
+			// linkage
+			for (ToolCall toolCall : agentStreamingResult.getToolCalls()) {
+				String toolCallIdForTool = (agentStreamingResult.getToolCalls().size() > 1)
+						? planIdDispatcher.generateToolCallId() : request.toolcallId;
+				ActToolParam actToolInfo = new ActToolParam(toolCall.name(), toolCall.arguments(), toolCallIdForTool);
+				actToolInfoList.add(actToolInfo);
+			}
+
+			ThinkActRecordParams paramsN = new ThinkActRecordParams(thinkActId, stepId, request.thinkInput,
+					agentStreamingResult.getResponseText(), null, agentStreamingResult.getInputTokenCount(),
+					agentStreamingResult.getOutputTokenCount(), currentModelContextLimit, actToolInfoList);
+			planExecutionRecorder.recordThinkingAndAction(step, paramsN);
+			// Reset after recording
+			currentModelContextLimit = null;
+
+			// Clear exception cache if this was a retry attempt
+			if (state.attempt > 1 && lynxeEventPublisher != null) {
+				log.info("Retry successful for planId: {}, clearing exception cache", getCurrentPlanId());
+				lynxeEventPublisher.publish(new PlanExceptionClearedEvent(getCurrentPlanId()));
+			}
+
+			return true;
+		}
+
+		return false;
+	}
+
+	/**
+	 * Record a failed think attempt and decide whether to retry. Retryable errors are
+	 * delayed on the reactor timer instead of sleeping on a worker thread.
+	 * @return Mono emitting false to trigger the next attempt, or an error to abort
+	 */
+	private Mono<Boolean> handleThinkAttemptFailure(Throwable error, ThinkRetryState state, int maxRetries) {
+		if (error instanceof TaskInterruptionCheckerService.TaskInterruptedException || !(error instanceof Exception)) {
+			return Mono.error(error);
+		}
+		Exception e = (Exception) error;
+		int attempt = state.attempt;
+		state.lastException = e;
+		latestLlmException = e;
+		// Record exception to the list (record all exceptions, even non-retryable ones)
+		llmCallExceptions.add(e);
+		log.warn("Attempt {} failed: {}", attempt, e.getMessage());
+		log.debug("Exception details for attempt {}: {}", attempt, e.getMessage(), e);
+
+		// Check if this is a network-related error that should be retried
+		if (!isRetryableException(e)) {
+			// Non-retryable error - still record it, but throw immediately
+			log.error("Non-retryable error encountered at attempt {}/{}: {}", attempt, maxRetries, e.getMessage());
+			return Mono.error(e);
+		}
+		if (attempt >= maxRetries) {
+			return Mono.just(false);
+		}
+		long waitTime = calculateBackoffDelay(attempt);
+		log.info("Retrying in {}ms due to retryable error: {}", waitTime, e.getMessage());
+		return Mono.delay(Duration.ofMillis(waitTime)).publishOn(getThinkContinuationScheduler()).thenReturn(false);
+	}
+
+	private boolean onRetriesExhausted(ThinkRetryState state, int maxRetries) {
+		if (state.lastException != null) {
 			log.error("All {} retry attempts failed. Total exceptions recorded: {}. Latest exception: {}", maxRetries,
 					llmCallExceptions.size(), latestLlmException != null ? latestLlmException.getMessage() : "N/A");
-			// Store the latest exception for use in step() method
 			// Don't throw exception here, let think() return false and step() handle it
-			return false;
 		}
 		return false;
 	}
 
+	/**
+	 * Scheduler the think continuation runs on: the tool executor of this agent's plan
+	 * depth, so a small fixed pool serves many concurrent agents. When that pool is
+	 * saturated the continuation moves to the bounded elastic scheduler rather than
+	 * blocking the thread that completed the LLM call.
+	 */
+	private Scheduler getThinkContinuationScheduler() {
+		if (parallelExecutionService != null && parallelExecutionService.getExecutorPoolProvider() != null) {
+			return parallelExecutionService.getExecutorPoolProvider().getSchedulerForLevel(getPlanDepth());
+		}
+		return Schedulers.boundedElastic();
+	}
+
 	/**
 	 * Check if the exception is retryable (network issues, timeouts, etc.)
 	 */
@@ -545,8 +660,36 @@ public class DynamicAgent extends ReActAgent {
 
 	@Override
 	public CompletableFuture<AgentExecResult> step() {
+		CompletableFuture<Boolean> thinkFuture;
+		try {
+			thinkFuture = thinkAsync();
+		}
+		catch (TaskInterruptionCheckerService.TaskInterruptedException e) {
+			// Agent was interrupted, return INTERRUPTED state to stop execution
+			return CompletableFuture.completedFuture(
+					new AgentExecResult("Agent execution interrupted: " + e.getMessage(), AgentState.INTERRUPTED));
+		}
+		catch (Exception e) {
+			log.error("Unexpected exception in step()", e);
+			return CompletableFuture.completedFuture(handleExceptionWithSystemErrorReport(e, new ArrayList<>()));
+		}
+
+		return thinkFuture.handle((shouldAct, ex) -> {
+			if (ex == null) {
+				return actAfterThink(shouldAct);
+			}
+			Throwable cause = ex instanceof CompletionException && ex.getCause() != null ? ex.getCause() : ex;
+			if (cause instanceof TaskInterruptionCheckerService.TaskInterruptedException) {
+				return CompletableFuture.completedFuture(new AgentExecResult(
+						"Agent execution interrupted: " + cause.getMessage(), AgentState.INTERRUPTED));
+			}
+			log.error("Unexpected exception in step()", cause);
+			return CompletableFuture.completedFuture(handleExceptionWithSystemErrorReport(cause, new ArrayList<>()));
+		}).thenCompose(Function.identity());
+	}
+
+	private CompletableFuture<AgentExecResult> actAfterThink(boolean shouldAct) {
 		try {
-			boolean shouldAct = think();
 			if (!shouldAct) {
 				// Check if we have a latest exception from LLM calls (max retries
 				// reached)
@@ -1897,6 +2040,13 @@ public class DynamicAgent extends ReActAgent {
 		}
 	}
 
+	private MessageTokenCounter getMessageTokenCounter(TokenCountService tokenCountService) {
+		if (messageTokenCounter == null) {
+			messageTokenCounter = new MessageTokenCounter(tokenCountService);
+		}
+		return messageTokenCounter;
+	}
+
 	/**
 	 * Check and compress memory if needed based on the full prompt token count. This
 	 * method calculates the token count of the complete prompt (systemMessage +
@@ -1925,7 +2075,7 @@ public class DynamicAgent extends ReActAgent {
 		// ConversationMemoryLimitService
 		int totalTokens;
 		if (tokenCountService != null) {
-			totalTokens = tokenCountService.countTokens(tempMessages);
+			totalTokens = getMessageTokenCounter(tokenCountService).countTokens(tempMessages);
 		}
 		else {
 			if (conversationMemoryLimitService == null) {
@@ -1984,7 +2134,7 @@ public class DynamicAgent extends ReActAgent {
 
 					// Recalculate token count after compression
 					if (tokenCountService != null) {
-						totalTokens = tokenCountService.countTokens(tempMessages);
+						totalTokens = getMessageTokenCounter(tokenCountService).countTokens(tempMessages);
 					}
 					else {
 						totalTokens = conversationMemoryLimitService.calculateTotalTokens(tempMessages);
@@ -2029,7 +2179,7 @@ public class DynamicAgent extends ReActAgent {
 
 					// Recalculate token count after aggressive compression
 					if (tokenCountService != null) {
-						totalTokens = tokenCountService.countTokens(tempMessages);
+						totalTokens = getMessageTokenCounter(tokenCountService).countTokens(tempMessages);
 					}
 					else {
 						totalTokens = conversationMemoryLimitService.calculateTotalTokens(tempMessages);
@@ -2265,10 +2415,41 @@ public class DynamicAgent extends ReActAgent {
 		UserMessage thinkMessage = new UserMessage("""
 				%s
 				%s
-				""".formatted(baseThinkPrompt.getText(), nextStepWithEnvMessage.getText()));
+				""".formatted(baseThinkPrompt.getText(), nextStepWithEnvMessage.getText()) + referenceEnvText());
 		return thinkMessage;
 	}
 
+	/**
+	 * Baseline states of tools whose current step environment information only describes
+	 * the changes since. They stay the same across steps until the tool lists its state
+	 * in full again, so they are sent with the think message rather than the current step
+	 * environment.
+	 * @return Reference environment information, or an empty string if there is none
+	 */
+	private String referenceEnvText() {
+		@SuppressWarnings("unchecked")
+		Map<String, ToolStateInfo> deduplicatedStates = (Map<String, ToolStateInfo>) getEnvData()
+			.get("_deduplicated_states");
+		if (deduplicatedStates == null || deduplicatedStates.isEmpty()) {
+			return "";
+		}
+		StringBuilder referenceBuilder = new StringBuilder();
+		for (Map.Entry<String, ToolStateInfo> entry : deduplicatedStates.entrySet()) {
+			String baseline = entry.getValue() != null ? entry.getValue().getBaselineStateString() : null;
+			if (baseline != null && !baseline.trim().isEmpty()) {
+				referenceBuilder.append(entry.getKey()).append(" reference information:\n");
+				referenceBuilder.append("    ").append(baseline).append("\n");
+			}
+		}
+		if (referenceBuilder.isEmpty()) {
+			return "";
+		}
+		return """
+				- Reference environment information (the current step environment information may only describe changes to it):
+				"""
+				+ referenceBuilder;
+	}
+
 	/**
 	 * Current step env data
 	 * @return User message for current step environment data
@@ -367,6 +367,29 @@ public class LynxeProperties {
 		this.executorPoolSize = executorPoolSize;
 	}
 
+	@ConfigProperty(group = "lynxe", subGroup = "agent", key = "executorVirtualThreads",
+			path = "lynxe.agent.executorVirtualThreads", description = "lynxe.agent.executorVirtualThreads.description",
+			defaultValue = "false", inputType = ConfigInputType.CHECKBOX,
+			options = { @ConfigOption(value = "true", label = "lynxe.agent.executorVirtualThreads.option.true"),
+					@ConfigOption(value = "false", label = "lynxe.agent.executorVirtualThreads.option.false") })
+	private volatile Boolean executorVirtualThreads;
+
+	public Boolean getExecutorVirtualThreads() {
+		String configPath = "lynxe.agent.executorVirtualThreads";
+		String value = configService.getConfigValue(configPath);
+		if (value != null) {
+			executorVirtualThreads = Boolean.valueOf(value);
+		}
+		if (executorVirtualThreads == null) {
+			executorVirtualThreads = false;
+		}
+		return executorVirtualThreads;
+	}
+
+	public void setExecutorVirtualThreads(Boolean executorVirtualThreads) {
+		this.executorVirtualThreads = executorVirtualThreads;
+	}
+
 	@ConfigProperty(group = "lynxe", subGroup = "agent", key = "llmReadTimeout", path = "lynxe.agent.llmReadTimeout",
 			description = "lynxe.agent.llmReadTimeout.description", defaultValue = "120",
 			inputType = ConfigInputType.NUMBER)
@@ -20,6 +20,7 @@ import java.util.Map;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.ai.chat.memory.ChatMemoryRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
@@ -28,6 +29,7 @@ import com.alibaba.cloud.ai.lynxe.recorder.repository.ActToolInfoRepository;
 import com.alibaba.cloud.ai.lynxe.recorder.repository.AgentExecutionRecordRepository;
 import com.alibaba.cloud.ai.lynxe.recorder.repository.PlanExecutionRecordRepository;
 import com.alibaba.cloud.ai.lynxe.recorder.repository.ThinkActRecordRepository;
+import com.alibaba.cloud.ai.lynxe.workspace.conversation.repository.JdbcChatMemoryRepository;
 
 /**
  * Service for database cleanup operations
@@ -54,6 +56,9 @@ public class DatabaseCleanupService {
 	@Autowired
 	private JdbcTemplate jdbcTemplate;
 
+	@Autowired(required = false)
+	private ChatMemoryRepository chatMemoryRepository;
+
 	/**
 	 * Get row counts for all monitored tables
 	 * @return Map with table names as keys and row counts as values
@@ -128,6 +133,10 @@ public class DatabaseCleanupService {
 					Long.class);
 			if (chatMemoryCount != null && chatMemoryCount > 0) {
 				jdbcTemplate.update("DELETE FROM " + AI_CHAT_MEMORY_TABLE);
+				// Rows were deleted behind the repository's conversation cache
+				if (chatMemoryRepository instanceof JdbcChatMemoryRepository jdbcChatMemoryRepository) {
+					jdbcChatMemoryRepository.clearCache();
+				}
 				deletedCounts.put("ai_chat_memory", chatMemoryCount);
 				logger.info("Deleted {} rows from ai_chat_memory", chatMemoryCount);
 			}
@@ -0,0 +1,43 @@
+/*
+ * Copyright 2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.lynxe.event;
+
+import com.alibaba.cloud.ai.lynxe.recorder.entity.vo.PlanExecutionDelta;
+
+/**
+ * Published by the plan execution recorder after each record write, carrying the change
+ * as an unsequenced delta.
+ */
+public class PlanExecutionUpdateEvent implements LynxeEvent {
+
+	private PlanExecutionDelta delta;
+
+	private long createTime;
+
+	public PlanExecutionUpdateEvent(PlanExecutionDelta delta) {
+		this.delta = delta;
+		this.createTime = System.currentTimeMillis();
+	}
+
+	public PlanExecutionDelta getDelta() {
+		return delta;
+	}
+
+	public long getCreateTime() {
+		return createTime;
+	}
+
+}
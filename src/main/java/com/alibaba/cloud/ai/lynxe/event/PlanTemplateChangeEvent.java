@@ -0,0 +1,44 @@
+/*
+ * Copyright 2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.lynxe.event;
+
+/**
+ * A plan template or its coordinator tool was created, updated or deleted. Published
+ * after the change is committed.
+ */
+public class PlanTemplateChangeEvent implements LynxeEvent {
+
+	private final String planTemplateId;
+
+	private final long createTime;
+
+	public PlanTemplateChangeEvent(String planTemplateId) {
+		this.planTemplateId = planTemplateId;
+		this.createTime = System.currentTimeMillis();
+	}
+
+	/**
+	 * @return Changed plan template, or null if several templates may have changed
+	 */
+	public String getPlanTemplateId() {
+		return planTemplateId;
+	}
+
+	public long getCreateTime() {
+		return createTime;
+	}
+
+}
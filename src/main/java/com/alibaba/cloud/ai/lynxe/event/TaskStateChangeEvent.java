@@ -0,0 +1,53 @@
+/*
+ * Copyright 2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.lynxe.event;
+
+import com.alibaba.cloud.ai.lynxe.runtime.entity.po.RootTaskManagerEntity;
+
+/**
+ * Desired state of a root task changed (started, stopped, paused, cancelled, resumed or
+ * completed)
+ */
+public class TaskStateChangeEvent implements LynxeEvent {
+
+	private final String rootPlanId;
+
+	private final RootTaskManagerEntity.DesiredTaskState desiredState;
+
+	private final long createTime;
+
+	public TaskStateChangeEvent(String rootPlanId, RootTaskManagerEntity.DesiredTaskState desiredState) {
+		this.rootPlanId = rootPlanId;
+		this.desiredState = desiredState;
+		this.createTime = System.currentTimeMillis();
+	}
+
+	public String getRootPlanId() {
+		return rootPlanId;
+	}
+
+	/**
+	 * @return New desired state, or null if the task no longer exists
+	 */
+	public RootTaskManagerEntity.DesiredTaskState getDesiredState() {
+		return desiredState;
+	}
+
+	public long getCreateTime() {
+		return createTime;
+	}
+
+}
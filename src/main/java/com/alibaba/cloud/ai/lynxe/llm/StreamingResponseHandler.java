@@ -44,6 +44,9 @@ import com.alibaba.cloud.ai.lynxe.event.LynxeEventPublisher;
 import com.alibaba.cloud.ai.lynxe.event.PlanExceptionEvent;
 
 import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
 
 /**
  * A utility class for handling streaming chat responses with periodic progress logging.
@@ -169,221 +172,265 @@ public class StreamingResponseHandler {
 	 */
 	public StreamingResult processStreamingResponse(Flux<ChatResponse> responseFlux, String contextName, String planId,
 			boolean isDebugModel, boolean enableEarlyTermination, int inputTokenCount) {
+		try {
+			return processStreamingResponseAsync(responseFlux, contextName, planId, isDebugModel,
+					enableEarlyTermination, inputTokenCount)
+				.block();
+		}
+		catch (Exception e) {
+			// Final error handling - log and re-throw
+			if (e instanceof org.springframework.web.reactive.function.client.WebClientResponseException webClientException) {
+				String responseBody = webClientException.getResponseBodyAsString();
+				log.error(
+						"❌ Final API Error - Status: {}, Response Body: {}. Full request details logged in LLM_REQUEST_LOGGER.",
+						webClientException.getStatusCode(),
+						responseBody != null && !responseBody.isEmpty() ? responseBody : "(empty)", webClientException);
+			}
+			throw e;
+		}
+	}
+
+	/**
+	 * Non-blocking variant of
+	 * {@link #processStreamingResponse(Flux, String, String, boolean, boolean, int)}. The
+	 * returned Mono subscribes to the response flux without parking a thread while the
+	 * model is generating; chunks are merged on the thread that delivers them (usually an
+	 * HTTP client event loop) and the merged result is built and emitted on the bounded
+	 * elastic scheduler.
+	 * @param responseFlux The streaming chat response flux
+	 * @param contextName A descriptive name for logging context
+	 * @param planId The plan ID for event publishing
+	 * @param isDebugModel Whether debug mode is enabled
+	 * @param enableEarlyTermination Whether to enable early termination for thinking-only
+	 * responses
+	 * @param inputTokenCount The input token count from the request
+	 * @return Mono emitting the StreamingResult once the stream completes
+	 */
+	public Mono<StreamingResult> processStreamingResponseAsync(Flux<ChatResponse> responseFlux, String contextName,
+			String planId, boolean isDebugModel, boolean enableEarlyTermination, int inputTokenCount) {
+		return processStreamingResponseAsync(responseFlux, contextName, planId, isDebugModel, enableEarlyTermination,
+				inputTokenCount, Schedulers.boundedElastic());
+	}
+
+	/**
+	 * Non-blocking variant of
+	 * {@link #processStreamingResponse(Flux, String, String, boolean, boolean, int)} that
+	 * builds the merged result on the given scheduler. Token counting and trace recording
+	 * of the merged response run there, so the thread delivering the stream is released
+	 * as soon as the last chunk is merged.
+	 * @param responseFlux The streaming chat response flux
+	 * @param contextName A descriptive name for logging context
+	 * @param planId The plan ID for event publishing
+	 * @param isDebugModel Whether debug mode is enabled
+	 * @param enableEarlyTermination Whether to enable early termination for thinking-only
+	 * responses
+	 * @param inputTokenCount The input token count from the request
+	 * @param completionScheduler Scheduler the merged result is built and emitted on
+	 * @return Mono emitting the StreamingResult once the stream completes
+	 */
+	public Mono<StreamingResult> processStreamingResponseAsync(Flux<ChatResponse> responseFlux, String contextName,
+			String planId, boolean isDebugModel, boolean enableEarlyTermination, int inputTokenCount,
+			Scheduler completionScheduler) {
+		// Defer so that every subscription (e.g. a retry) aggregates into fresh state
+		return Mono.defer(() -> aggregateStreamingResponse(responseFlux, contextName, planId, inputTokenCount,
+				completionScheduler));
+	}
+
+	private Mono<StreamingResult> aggregateStreamingResponse(Flux<ChatResponse> responseFlux, String contextName,
+			String planId, int inputTokenCount, Scheduler completionScheduler) {
 		// Create a new LlmTraceRecorder instance for this request
 		LlmTraceRecorder llmTraceRecorder = new LlmTraceRecorder(objectMapper, tokenCountService);
 		// Set input token count (calculated from messages in DynamicAgent/PlanFinalizer)
 		llmTraceRecorder.setInputTokenCount(inputTokenCount);
 		AtomicReference<Integer> inputTokenCountRef = new AtomicReference<>(inputTokenCount);
-		try {
-			AtomicReference<Long> lastLogTime = new AtomicReference<>(System.currentTimeMillis());
-
-			// Assistant Message
-			AtomicReference<StringBuilder> messageTextContentRef = new AtomicReference<>(new StringBuilder());
-			AtomicReference<List<ToolCall>> messageToolCallRef = new AtomicReference<>(
-					Collections.synchronizedList(new ArrayList<>()));
-			AtomicReference<Map<String, Object>> messageMetadataMapRef = new AtomicReference<>();
-
-			// ChatGeneration Metadata
-			AtomicReference<ChatGenerationMetadata> generationMetadataRef = new AtomicReference<>(
-					ChatGenerationMetadata.NULL);
-
-			// Usage
-			AtomicReference<Integer> metadataUsagePromptTokensRef = new AtomicReference<Integer>(0);
-			AtomicReference<Integer> metadataUsageGenerationTokensRef = new AtomicReference<Integer>(0);
-			AtomicReference<Integer> metadataUsageTotalTokensRef = new AtomicReference<Integer>(0);
-
-			AtomicReference<PromptMetadata> metadataPromptMetadataRef = new AtomicReference<>(PromptMetadata.empty());
-			AtomicReference<RateLimit> metadataRateLimitRef = new AtomicReference<>(new EmptyRateLimit());
-
-			AtomicReference<String> metadataIdRef = new AtomicReference<>("");
-			AtomicReference<String> metadataModelRef = new AtomicReference<>("");
-			AtomicReference<ChatResponse> finalChatResponseRef = new AtomicReference<>(null);
-
-			AtomicInteger responseCounter = new AtomicInteger(0);
-			long startTime = System.currentTimeMillis();
-
-			// Store output token count for retrieval after stream completes
-			AtomicReference<Integer> outputTokenCountRef = new AtomicReference<>(0);
-
-			// Early termination is disabled - always process the full stream
-			Flux<ChatResponse> finalFlux = responseFlux.doOnSubscribe(subscription -> {
-				messageTextContentRef.set(new StringBuilder());
-				messageMetadataMapRef.set(new HashMap<>());
-				metadataIdRef.set("");
-				metadataModelRef.set("");
-				metadataUsagePromptTokensRef.set(0);
-				metadataUsageGenerationTokensRef.set(0);
-				metadataUsageTotalTokensRef.set(0);
-				metadataPromptMetadataRef.set(PromptMetadata.empty());
-				metadataRateLimitRef.set(new EmptyRateLimit());
-
-			}).doOnNext(chatResponse -> {
-				responseCounter.incrementAndGet();
-
-				if (chatResponse.getResult() != null) {
-					if (chatResponse.getResult().getMetadata() != null
-							&& chatResponse.getResult().getMetadata() != ChatGenerationMetadata.NULL) {
-						generationMetadataRef.set(chatResponse.getResult().getMetadata());
-					}
-					if (chatResponse.getResult().getOutput().getText() != null) {
-						messageTextContentRef.get().append(chatResponse.getResult().getOutput().getText());
-					}
-
-					messageToolCallRef.get().addAll(chatResponse.getResult().getOutput().getToolCalls());
-					messageMetadataMapRef.get().putAll(chatResponse.getResult().getOutput().getMetadata());
+		AtomicReference<Long> lastLogTime = new AtomicReference<>(System.currentTimeMillis());
+
+		// Assistant Message
+		AtomicReference<StringBuilder> messageTextContentRef = new AtomicReference<>(new StringBuilder());
+		AtomicReference<List<ToolCall>> messageToolCallRef = new AtomicReference<>(
+				Collections.synchronizedList(new ArrayList<>()));
+		AtomicReference<Map<String, Object>> messageMetadataMapRef = new AtomicReference<>();
+
+		// ChatGeneration Metadata
+		AtomicReference<ChatGenerationMetadata> generationMetadataRef = new AtomicReference<>(
+				ChatGenerationMetadata.NULL);
+
+		// Usage
+		AtomicReference<Integer> metadataUsagePromptTokensRef = new AtomicReference<Integer>(0);
+		AtomicReference<Integer> metadataUsageGenerationTokensRef = new AtomicReference<Integer>(0);
+		AtomicReference<Integer> metadataUsageTotalTokensRef = new AtomicReference<Integer>(0);
+
+		AtomicReference<PromptMetadata> metadataPromptMetadataRef = new AtomicReference<>(PromptMetadata.empty());
+		AtomicReference<RateLimit> metadataRateLimitRef = new AtomicReference<>(new EmptyRateLimit());
+
+		AtomicReference<String> metadataIdRef = new AtomicReference<>("");
+		AtomicReference<String> metadataModelRef = new AtomicReference<>("");
+		AtomicReference<ChatResponse> finalChatResponseRef = new AtomicReference<>(null);
+
+		AtomicInteger responseCounter = new AtomicInteger(0);
+		long startTime = System.currentTimeMillis();
+
+		// Store output token count for retrieval after stream completes
+		AtomicReference<Integer> outputTokenCountRef = new AtomicReference<>(0);
+
+		// Early termination is disabled - always process the full stream
+		Flux<ChatResponse> finalFlux = responseFlux.doOnSubscribe(subscription -> {
+			messageTextContentRef.set(new StringBuilder());
+			messageMetadataMapRef.set(new HashMap<>());
+			metadataIdRef.set("");
+			metadataModelRef.set("");
+			metadataUsagePromptTokensRef.set(0);
+			metadataUsageGenerationTokensRef.set(0);
+			metadataUsageTotalTokensRef.set(0);
+			metadataPromptMetadataRef.set(PromptMetadata.empty());
+			metadataRateLimitRef.set(new EmptyRateLimit());
+
+		}).doOnNext(chatResponse -> {
+			responseCounter.incrementAndGet();
+
+			if (chatResponse.getResult() != null) {
+				if (chatResponse.getResult().getMetadata() != null
+						&& chatResponse.getResult().getMetadata() != ChatGenerationMetadata.NULL) {
+					generationMetadataRef.set(chatResponse.getResult().getMetadata());
 				}
-
-				// Early termination is disabled - always process the full stream
-				if (chatResponse.getMetadata() != null) {
-					if (chatResponse.getMetadata().getUsage() != null) {
-						Usage usage = chatResponse.getMetadata().getUsage();
-						metadataUsagePromptTokensRef.set(usage.getPromptTokens() > 0 ? usage.getPromptTokens()
-								: metadataUsagePromptTokensRef.get());
-						metadataUsageGenerationTokensRef.set(usage.getCompletionTokens() > 0
-								? usage.getCompletionTokens() : metadataUsageGenerationTokensRef.get());
-						metadataUsageTotalTokensRef.set(usage.getTotalTokens() > 0 ? usage.getTotalTokens()
-								: metadataUsageTotalTokensRef.get());
-					}
-					if (chatResponse.getMetadata().getPromptMetadata() != null
-							&& chatResponse.getMetadata().getPromptMetadata().iterator().hasNext()) {
-						metadataPromptMetadataRef.set(chatResponse.getMetadata().getPromptMetadata());
-					}
-					if (chatResponse.getMetadata().getRateLimit() != null
-							&& !(metadataRateLimitRef.get() instanceof EmptyRateLimit)) {
-						metadataRateLimitRef.set(chatResponse.getMetadata().getRateLimit());
-					}
-					if (StringUtils.hasText(chatResponse.getMetadata().getId())) {
-						metadataIdRef.set(chatResponse.getMetadata().getId());
-					}
-					if (StringUtils.hasText(chatResponse.getMetadata().getModel())) {
-						metadataModelRef.set(chatResponse.getMetadata().getModel());
-					}
+				if (chatResponse.getResult().getOutput().getText() != null) {
+					messageTextContentRef.get().append(chatResponse.getResult().getOutput().getText());
 				}
 
-				// Check if 10 seconds have passed since last log output
-				long currentTime = System.currentTimeMillis();
-				long timeSinceLastLog = currentTime - lastLogTime.get();
-				if (timeSinceLastLog >= 10000) { // 10 seconds = 10000 milliseconds
-					logProgress(contextName, messageTextContentRef.get().toString(), messageToolCallRef.get(),
-							responseCounter.get(), startTime);
-					lastLogTime.set(currentTime);
+				messageToolCallRef.get().addAll(chatResponse.getResult().getOutput().getToolCalls());
+				messageMetadataMapRef.get().putAll(chatResponse.getResult().getOutput().getMetadata());
+			}
+
+			// Early termination is disabled - always process the full stream
+			if (chatResponse.getMetadata() != null) {
+				if (chatResponse.getMetadata().getUsage() != null) {
+					Usage usage = chatResponse.getMetadata().getUsage();
+					metadataUsagePromptTokensRef.set(
+							usage.getPromptTokens() > 0 ? usage.getPromptTokens() : metadataUsagePromptTokensRef.get());
+					metadataUsageGenerationTokensRef.set(usage.getCompletionTokens() > 0 ? usage.getCompletionTokens()
+							: metadataUsageGenerationTokensRef.get());
+					metadataUsageTotalTokensRef
+						.set(usage.getTotalTokens() > 0 ? usage.getTotalTokens() : metadataUsageTotalTokensRef.get());
 				}
-			}).doOnComplete(() -> {
-
-				var usage = new MessageAggregator.DefaultUsage(metadataUsagePromptTokensRef.get(),
-						metadataUsageGenerationTokensRef.get(), metadataUsageTotalTokensRef.get());
-
-				var chatResponseMetadata = ChatResponseMetadata.builder()
-					.id(metadataIdRef.get())
-					.model(metadataModelRef.get())
-					.rateLimit(metadataRateLimitRef.get())
-					.usage(usage)
-					.promptMetadata(metadataPromptMetadataRef.get())
-					.build();
-
-				// Calculate output token count BEFORE clearing the StringBuilder
-				int outputTokenCount = 0;
-				if (messageTextContentRef.get() != null && tokenCountService != null) {
-					outputTokenCount = tokenCountService.countTokens(messageTextContentRef.get().toString());
+				if (chatResponse.getMetadata().getPromptMetadata() != null
+						&& chatResponse.getMetadata().getPromptMetadata().iterator().hasNext()) {
+					metadataPromptMetadataRef.set(chatResponse.getMetadata().getPromptMetadata());
 				}
-				else if (messageTextContentRef.get() != null) {
-					// Fallback to approximate character-based estimation if
-					// TokenCountService not available
-					outputTokenCount = (int) Math.ceil(messageTextContentRef.get().length() / 4.0);
+				if (chatResponse.getMetadata().getRateLimit() != null
+						&& !(metadataRateLimitRef.get() instanceof EmptyRateLimit)) {
+					metadataRateLimitRef.set(chatResponse.getMetadata().getRateLimit());
 				}
-				// Store it in AtomicReference for later retrieval
-				outputTokenCountRef.set(outputTokenCount);
-
-				finalChatResponseRef.set(new ChatResponse(List.of(new Generation(AssistantMessage.builder()
-					.content(messageTextContentRef.get().toString())
-					.properties(messageMetadataMapRef.get())
-					.toolCalls(messageToolCallRef.get())
-					.media(List.of())
-					.build(), generationMetadataRef.get())), chatResponseMetadata));
-				logCompletion(contextName, messageTextContentRef.get().toString(), messageToolCallRef.get().size(),
-						responseCounter.get(), startTime, usage);
-
-				messageTextContentRef.set(new StringBuilder());
-				messageToolCallRef.set(Collections.synchronizedList(new ArrayList<>()));
-				messageMetadataMapRef.set(new HashMap<>());
-				metadataIdRef.set("");
-				metadataModelRef.set("");
-				metadataUsagePromptTokensRef.set(0);
-				metadataUsageGenerationTokensRef.set(0);
-				metadataUsageTotalTokensRef.set(0);
-				metadataPromptMetadataRef.set(PromptMetadata.empty());
-				metadataRateLimitRef.set(new EmptyRateLimit());
-
-			}).doOnError(e -> {
-				// Record error in trace logger
-				llmTraceRecorder.recordError(e);
-
-				// Enhanced error logging for API errors
-				if (e instanceof org.springframework.web.reactive.function.client.WebClientResponseException webClientException) {
-					String responseBody = webClientException.getResponseBodyAsString();
-					log.error(
-							"❌ API Error - Status: {}, Response Body: {}, Request URL: {}, Request Method: {}. Check LLM_REQUEST_LOGGER for full request details.",
-							webClientException.getStatusCode(),
-							responseBody != null && !responseBody.isEmpty() ? responseBody : "(empty)",
-							webClientException.getRequest() != null ? webClientException.getRequest().getURI() : "N/A",
-							webClientException.getRequest() != null ? webClientException.getRequest().getMethod()
-									: "N/A",
-							webClientException);
+				if (StringUtils.hasText(chatResponse.getMetadata().getId())) {
+					metadataIdRef.set(chatResponse.getMetadata().getId());
 				}
-				else {
-					log.error("Aggregation Error: {}", e.getMessage(), e);
+				if (StringUtils.hasText(chatResponse.getMetadata().getModel())) {
+					metadataModelRef.set(chatResponse.getMetadata().getModel());
 				}
-				lynxeEventPublisher.publish(new PlanExceptionEvent(planId, e));
-			}).doOnCancel(() -> {
-				// Early termination is disabled - no special handling needed
-				log.debug("Stream cancelled");
-			});
-
-			try {
-				finalFlux.blockLast();
 			}
-			catch (Exception e) {
-				// Record error in trace logger
-				llmTraceRecorder.recordError(e);
-
-				// Enhanced error logging for API errors
-				if (e instanceof org.springframework.web.reactive.function.client.WebClientResponseException webClientException) {
-					String responseBody = webClientException.getResponseBodyAsString();
-					log.error(
-							"❌ API Error during blockLast() - Status: {}, Response Body: {}, Request URL: {}. Check LLM_REQUEST_LOGGER for full request details.",
-							webClientException.getStatusCode(),
-							responseBody != null && !responseBody.isEmpty() ? responseBody : "(empty)",
-							webClientException.getRequest() != null ? webClientException.getRequest().getURI() : "N/A",
-							webClientException);
-				}
-				else {
-					log.error("Error during blockLast(): {}", e.getMessage(), e);
-				}
-				// Re-throw to be handled by outer try-catch
-				throw e;
+
+			// Check if 10 seconds have passed since last log output
+			long currentTime = System.currentTimeMillis();
+			long timeSinceLastLog = currentTime - lastLogTime.get();
+			if (timeSinceLastLog >= 10000) { // 10 seconds = 10000 milliseconds
+				logProgress(contextName, messageTextContentRef.get().toString(), messageToolCallRef.get(),
+						responseCounter.get(), startTime);
+				lastLogTime.set(currentTime);
 			}
+		}).doOnError(e -> {
+			// Record error in trace logger
+			llmTraceRecorder.recordError(e);
 
-			if (llmTraceRecorder != null) {
-				llmTraceRecorder.recordResponse(finalChatResponseRef.get());
-				// Get token counts from the recorder (it now uses token counting)
-				outputTokenCountRef.set(llmTraceRecorder.getOutputTokenCount());
-				inputTokenCountRef.set(llmTraceRecorder.getInputTokenCount());
+			// Enhanced error logging for API errors
+			if (e instanceof org.springframework.web.reactive.function.client.WebClientResponseException webClientException) {
+				String responseBody = webClientException.getResponseBodyAsString();
+				log.error(
+						"❌ API Error - Status: {}, Response Body: {}, Request URL: {}, Request Method: {}. Check LLM_REQUEST_LOGGER for full request details.",
+						webClientException.getStatusCode(),
+						responseBody != null && !responseBody.isEmpty() ? responseBody : "(empty)",
+						webClientException.getRequest() != null ? webClientException.getRequest().getURI() : "N/A",
+						webClientException.getRequest() != null ? webClientException.getRequest().getMethod() : "N/A",
+						webClientException);
 			}
+			else {
+				log.error("Aggregation Error: {}", e.getMessage(), e);
+			}
+			lynxeEventPublisher.publish(new PlanExceptionEvent(planId, e));
+		}).doOnCancel(() -> {
+			// Early termination is disabled - no special handling needed
+			log.debug("Stream cancelled");
+		});
+
+		// Leave the thread delivering the stream before tokenizing the merged response
+		return finalFlux.then().publishOn(completionScheduler).then(Mono.fromCallable(() -> {
+			var usage = new MessageAggregator.DefaultUsage(metadataUsagePromptTokensRef.get(),
+					metadataUsageGenerationTokensRef.get(), metadataUsageTotalTokensRef.get());
+
+			var chatResponseMetadata = ChatResponseMetadata.builder()
+				.id(metadataIdRef.get())
+				.model(metadataModelRef.get())
+				.rateLimit(metadataRateLimitRef.get())
+				.usage(usage)
+				.promptMetadata(metadataPromptMetadataRef.get())
+				.build();
+
+			// Calculate output token count BEFORE clearing the StringBuilder
+			int outputTokenCount = 0;
+			if (messageTextContentRef.get() != null && tokenCountService != null) {
+				outputTokenCount = tokenCountService.countTokens(messageTextContentRef.get().toString());
+			}
+			else if (messageTextContentRef.get() != null) {
+				// Fallback to approximate character-based estimation if
+				// TokenCountService not available
+				outputTokenCount = (int) Math.ceil(messageTextContentRef.get().length() / 4.0);
+			}
+			// Store it in AtomicReference for later retrieval
+			outputTokenCountRef.set(outputTokenCount);
+
+			finalChatResponseRef.set(new ChatResponse(List.of(new Generation(AssistantMessage.builder()
+				.content(messageTextContentRef.get().toString())
+				.properties(messageMetadataMapRef.get())
+				.toolCalls(messageToolCallRef.get())
+				.media(List.of())
+				.build(), generationMetadataRef.get())), chatResponseMetadata));
+			logCompletion(contextName, messageTextContentRef.get().toString(), messageToolCallRef.get().size(),
+					responseCounter.get(), startTime, usage);
+
+			messageTextContentRef.set(new StringBuilder());
+			messageToolCallRef.set(Collections.synchronizedList(new ArrayList<>()));
+			messageMetadataMapRef.set(new HashMap<>());
+			metadataIdRef.set("");
+			metadataModelRef.set("");
+			metadataUsagePromptTokensRef.set(0);
+			metadataUsageGenerationTokensRef.set(0);
+			metadataUsageTotalTokensRef.set(0);
+			metadataPromptMetadataRef.set(PromptMetadata.empty());
+			metadataRateLimitRef.set(new EmptyRateLimit());
+
+			llmTraceRecorder.recordResponse(finalChatResponseRef.get());
+			// Get token counts from the recorder (it now uses token counting)
+			outputTokenCountRef.set(llmTraceRecorder.getOutputTokenCount());
+			inputTokenCountRef.set(llmTraceRecorder.getInputTokenCount());
 			// Early termination is always disabled - always return false
 			return new StreamingResult(finalChatResponseRef.get(), false, outputTokenCountRef.get(),
 					inputTokenCountRef.get());
-		}
-		catch (Exception e) {
-			// Final error handling - log and re-throw
+		})).doOnError(e -> {
+			// Record error in trace logger
+			llmTraceRecorder.recordError(e);
+
+			// Enhanced error logging for API errors
 			if (e instanceof org.springframework.web.reactive.function.client.WebClientResponseException webClientException) {
 				String responseBody = webClientException.getResponseBodyAsString();
 				log.error(
-						"❌ Final API Error - Status: {}, Response Body: {}. Full request details logged in LLM_REQUEST_LOGGER.",
+						"❌ API Error while streaming - Status: {}, Response Body: {}, Request URL: {}. Check LLM_REQUEST_LOGGER for full request details.",
 						webClientException.getStatusCode(),
-						responseBody != null && !responseBody.isEmpty() ? responseBody : "(empty)", webClientException);
+						responseBody != null && !responseBody.isEmpty() ? responseBody : "(empty)",
+						webClientException.getRequest() != null ? webClientException.getRequest().getURI() : "N/A",
+						webClientException);
 			}
-			throw e;
-		}
+			else {
+				log.error("Error while streaming: {}", e.getMessage(), e);
+			}
+		});
 	}
 
 	/**
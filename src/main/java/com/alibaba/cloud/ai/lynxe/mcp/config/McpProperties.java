@@ -90,6 +90,19 @@ public class McpProperties {
 	 */
 	private long connectionRebuildDelayMillis = 100;
 
+	/**
+	 * Time after which a connection that no plan has leased and that received no requests
+	 * is closed. It is reopened on next use. Zero disables closing. Default: 30 minutes
+	 */
+	private Duration connectionIdleTimeout = Duration.ofMinutes(30);
+
+	/**
+	 * Maximum age of a server's cached tool listing. Listings are refreshed in the
+	 * background after this time or when the server reports a tool list change. Zero
+	 * refreshes only on change notifications. Default: 10 minutes
+	 */
+	private Duration toolListTtl = Duration.ofMinutes(10);
+
 	// Getters and Setters
 	public int getMaxRetries() {
 		return maxRetries;
@@ -187,4 +200,20 @@ public class McpProperties {
 		this.connectionRebuildDelayMillis = connectionRebuildDelayMillis;
 	}
 
+	public Duration getConnectionIdleTimeout() {
+		return connectionIdleTimeout;
+	}
+
+	public void setConnectionIdleTimeout(Duration connectionIdleTimeout) {
+		this.connectionIdleTimeout = connectionIdleTimeout;
+	}
+
+	public Duration getToolListTtl() {
+		return toolListTtl;
+	}
+
+	public void setToolListTtl(Duration toolListTtl) {
+		this.toolListTtl = toolListTtl;
+	}
+
 }
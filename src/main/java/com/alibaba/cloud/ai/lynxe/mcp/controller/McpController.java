@@ -37,6 +37,7 @@ import org.springframework.web.bind.annotation.RestController;
 
 import java.io.IOException;
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/mcp")
@@ -77,6 +78,16 @@ public class McpController {
 		return ResponseEntity.ok(vos);
 	}
 
+	/**
+	 * Per-server connection statistics: state, leases held by plans, pending requests,
+	 * idle time and tool call latency
+	 * @return Map of server name to connection stats
+	 */
+	@GetMapping("/connection-stats")
+	public ResponseEntity<Map<String, McpCacheManager.ConnectionStats>> connectionStats() {
+		return ResponseEntity.ok(mcpCacheManager.getConnectionStats());
+	}
+
 	/**
 	 * Batch import MCP servers (JSON method)
 	 * @param requestVO Batch import request VO
@@ -15,6 +15,8 @@
  */
 package com.alibaba.cloud.ai.lynxe.mcp.model.vo;
 
+import java.util.concurrent.atomic.AtomicLong;
+
 import io.modelcontextprotocol.client.McpAsyncClient;
 import org.springframework.ai.mcp.AsyncMcpToolCallbackProvider;
 
@@ -26,6 +28,11 @@ public class McpServiceEntity {
 
 	private String serviceGroup;
 
+	/**
+	 * Number of tools/list_changed notifications received from the server
+	 */
+	private final AtomicLong toolsChangedCount = new AtomicLong();
+
 	/**
 	 * Creates a McpServiceEntity instance
 	 * @param mcpAsyncClient MCP async client
@@ -63,4 +70,15 @@ public class McpServiceEntity {
 		this.serviceGroup = serviceGroup;
 	}
 
+	/**
+	 * Record a tools/list_changed notification from the server
+	 */
+	public void markToolsChanged() {
+		toolsChangedCount.incrementAndGet();
+	}
+
+	public long getToolsChangedCount() {
+		return toolsChangedCount.get();
+	}
+
 }
@@ -19,6 +19,7 @@ import java.util.Map;
 
 import org.springframework.ai.tool.ToolCallback;
 
+import com.alibaba.cloud.ai.lynxe.mcp.service.IMcpService;
 import com.alibaba.cloud.ai.lynxe.tool.AbstractBaseTool;
 import com.alibaba.cloud.ai.lynxe.tool.ToolStateInfo;
 import com.alibaba.cloud.ai.lynxe.tool.code.ToolExecuteResult;
@@ -36,13 +37,16 @@ public class McpTool extends AbstractBaseTool<Map<String, Object>> {
 
 	private SmartContentSavingService smartContentSavingService;
 
+	private final IMcpService mcpService;
+
 	public McpTool(ToolCallback toolCallback, String serviceNameString, String planId,
-			SmartContentSavingService smartContentSavingService, ObjectMapper objectMapper) {
+			SmartContentSavingService smartContentSavingService, ObjectMapper objectMapper, IMcpService mcpService) {
 		this.toolCallback = toolCallback;
 		this.objectMapper = objectMapper;
 		this.serviceNameString = serviceNameString;
 		this.currentPlanId = planId;
 		this.smartContentSavingService = smartContentSavingService;
+		this.mcpService = mcpService;
 	}
 
 	@Override
@@ -82,7 +86,8 @@ public class McpTool extends AbstractBaseTool<Map<String, Object>> {
 			return new ToolExecuteResult("Error: Failed to serialize input to JSON - " + e.getMessage());
 		}
 
-		String result = toolCallback.call(jsonInput, null);
+		String result = mcpService != null ? mcpService.callTool(serviceNameString, toolCallback, jsonInput)
+				: toolCallback.call(jsonInput, null);
 		if (result == null) {
 			result = "";
 		}
@@ -99,7 +104,7 @@ public class McpTool extends AbstractBaseTool<Map<String, Object>> {
 
 	@Override
 	public void cleanup(String planId) {
-
+		// Connection leases are released by plan ID when the plan completes
 	}
 
 	@Override
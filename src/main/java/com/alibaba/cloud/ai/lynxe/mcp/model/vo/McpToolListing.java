@@ -0,0 +1,91 @@
+/*
+ * Copyright 2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.lynxe.mcp.model.vo;
+
+import java.util.List;
+
+import org.springframework.ai.tool.ToolCallback;
+
+/**
+ * Immutable snapshot of the tools offered by one MCP server. A new snapshot with a new
+ * version replaces it when the tool list is refreshed, so plans can share the callbacks
+ * and any definitions derived from them for as long as the version is unchanged.
+ */
+public class McpToolListing {
+
+	private final String serverName;
+
+	private final long version;
+
+	private final List<ToolCallback> toolCallbacks;
+
+	private final long fetchedAt;
+
+	private final long toolsChangedCount;
+
+	private final McpServiceEntity serviceEntity;
+
+	/**
+	 * Creates a McpToolListing instance
+	 * @param serverName MCP server name
+	 * @param version Listing version, unique per refresh
+	 * @param toolCallbacks Tool callbacks of the server
+	 * @param toolsChangedCount Change notification count of the entity when fetched
+	 * @param serviceEntity Connection the listing was fetched from
+	 */
+	public McpToolListing(String serverName, long version, List<ToolCallback> toolCallbacks, long toolsChangedCount,
+			McpServiceEntity serviceEntity) {
+		this.serverName = serverName;
+		this.version = version;
+		this.toolCallbacks = List.copyOf(toolCallbacks);
+		this.fetchedAt = System.currentTimeMillis();
+		this.toolsChangedCount = toolsChangedCount;
+		this.serviceEntity = serviceEntity;
+	}
+
+	public String getServerName() {
+		return serverName;
+	}
+
+	public long getVersion() {
+		return version;
+	}
+
+	public List<ToolCallback> getToolCallbacks() {
+		return toolCallbacks;
+	}
+
+	public long getFetchedAt() {
+		return fetchedAt;
+	}
+
+	public long getToolsChangedCount() {
+		return toolsChangedCount;
+	}
+
+	public McpServiceEntity getServiceEntity() {
+		return serviceEntity;
+	}
+
+	/**
+	 * @return Whether the listing was fetched from the given connection and no tool list
+	 * change has been reported since
+	 */
+	public boolean isCurrentFor(McpServiceEntity entity) {
+		return serviceEntity == entity && toolsChangedCount == entity.getToolsChangedCount();
+	}
+
+}
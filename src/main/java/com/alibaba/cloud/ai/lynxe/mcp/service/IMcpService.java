@@ -19,10 +19,13 @@ import java.io.IOException;
 import java.util.List;
 import java.util.Optional;
 
+import org.springframework.ai.tool.ToolCallback;
+
 import com.alibaba.cloud.ai.lynxe.mcp.model.po.McpConfigEntity;
 import com.alibaba.cloud.ai.lynxe.mcp.model.po.McpConfigStatus;
 import com.alibaba.cloud.ai.lynxe.mcp.model.vo.McpServerRequestVO;
 import com.alibaba.cloud.ai.lynxe.mcp.model.vo.McpServiceEntity;
+import com.alibaba.cloud.ai.lynxe.mcp.model.vo.McpToolListing;
 
 /**
  * MCP service interface (refactored) defining core business methods for MCP services
@@ -71,18 +74,35 @@ public interface IMcpService {
 	Optional<McpConfigEntity> findById(Long id);
 
 	/**
-	 * Get MCP service entity list
+	 * Get MCP service entity list, leasing their connections for the plan
 	 * @param planId Plan ID
 	 * @return MCP service entity list
 	 */
 	List<McpServiceEntity> getFunctionCallbacks(String planId);
 
 	/**
-	 * Close MCP services for specified plan
+	 * Get the cached tool listings of all MCP servers, leasing their connections for the
+	 * plan
+	 * @param planId Plan ID
+	 * @return Tool listing per connected server
+	 */
+	List<McpToolListing> getToolListings(String planId);
+
+	/**
+	 * Release the connections leased by the specified plan
 	 * @param planId Plan ID
 	 */
 	void close(String planId);
 
+	/**
+	 * Call an MCP tool, tracking the request on its server's connection
+	 * @param serverName MCP server name
+	 * @param toolCallback Tool callback of the server
+	 * @param input Tool input as JSON
+	 * @return Tool result
+	 */
+	String callTool(String serverName, ToolCallback toolCallback, String input);
+
 	/**
 	 * Update MCP server status
 	 * @param id MCP server ID
@@ -17,21 +17,28 @@ package com.alibaba.cloud.ai.lynxe.mcp.service;
 
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.ai.mcp.AsyncMcpToolCallbackProvider;
+import org.springframework.ai.tool.ToolCallback;
 import org.springframework.stereotype.Component;
 
 import com.alibaba.cloud.ai.lynxe.mcp.config.McpProperties;
@@ -40,6 +47,7 @@ import com.alibaba.cloud.ai.lynxe.mcp.model.po.McpConfigStatus;
 import com.alibaba.cloud.ai.lynxe.mcp.model.vo.ConnectionStatusInfo;
 import com.alibaba.cloud.ai.lynxe.mcp.model.vo.McpConnectionStatus;
 import com.alibaba.cloud.ai.lynxe.mcp.model.vo.McpServiceEntity;
+import com.alibaba.cloud.ai.lynxe.mcp.model.vo.McpToolListing;
 import com.alibaba.cloud.ai.lynxe.mcp.repository.McpConfigRepository;
 
 import io.modelcontextprotocol.client.McpAsyncClient;
@@ -52,6 +60,14 @@ import jakarta.annotation.PreDestroy;
  * Key features: - Single connection per server - Fail-fast: main thread returns
  * immediately, background tasks handle connection operations - Automatic health check and
  * connection rebuild - No blocking operations on main/EventLoop threads
+ *
+ * Plans lease the connections they use. Ending a plan only releases that plan's leases;
+ * connections stay open for other plans and are closed by the idle sweep once no plan
+ * holds a lease and no request has been made for the configured idle timeout.
+ *
+ * Tool lists are kept as versioned snapshots per server. A snapshot is fetched once per
+ * connection and refreshed in the background when the server reports a tool list change
+ * or the snapshot outlives the configured TTL; until then plans read the existing one.
  */
 @Component
 public class McpCacheManager {
@@ -70,7 +86,7 @@ public class McpCacheManager {
 	/**
 	 * Connection wrapper with state management
 	 */
-	private static class ConnectionWrapper {
+	static class ConnectionWrapper {
 
 		private final AtomicReference<ConnectionState> state;
 
@@ -80,6 +96,19 @@ public class McpCacheManager {
 
 		private final AtomicInteger pendingRequests;
 
+		/**
+		 * Plans currently holding a lease on this connection
+		 */
+		private final Set<String> leaseHolders = ConcurrentHashMap.newKeySet();
+
+		private volatile long lastUsedAt = System.currentTimeMillis();
+
+		private final AtomicLong completedRequests = new AtomicLong();
+
+		private final AtomicLong totalRequestMillis = new AtomicLong();
+
+		private final AtomicLong maxRequestMillis = new AtomicLong();
+
 		public ConnectionWrapper(McpServiceEntity serviceEntity) {
 			this.serviceEntity = serviceEntity;
 			this.state = new AtomicReference<>(
@@ -88,6 +117,29 @@ public class McpCacheManager {
 			this.pendingRequests = new AtomicInteger(0);
 		}
 
+		public Set<String> getLeaseHolders() {
+			return leaseHolders;
+		}
+
+		public long getLastUsedAt() {
+			return lastUsedAt;
+		}
+
+		public void touch() {
+			this.lastUsedAt = System.currentTimeMillis();
+		}
+
+		public void recordRequest(long requestMillis) {
+			completedRequests.incrementAndGet();
+			totalRequestMillis.addAndGet(requestMillis);
+			maxRequestMillis.accumulateAndGet(requestMillis, Math::max);
+			touch();
+		}
+
+		public boolean isIdle() {
+			return leaseHolders.isEmpty() && pendingRequests.get() == 0;
+		}
+
 		public ConnectionState getState() {
 			return state.get();
 		}
@@ -163,6 +215,25 @@ public class McpCacheManager {
 	 */
 	private final Map<String, ScheduledFuture<?>> healthCheckTasks = new ConcurrentHashMap<>();
 
+	/**
+	 * Servers leased by each plan (planId -> serverNames)
+	 */
+	private final Map<String, Set<String>> planLeases = new ConcurrentHashMap<>();
+
+	private ScheduledFuture<?> idleSweepTask;
+
+	/**
+	 * Current tool listing per server
+	 */
+	private final Map<String, McpToolListing> toolListings = new ConcurrentHashMap<>();
+
+	/**
+	 * Servers whose tool listing is being refreshed in the background
+	 */
+	private final Set<String> refreshingListings = ConcurrentHashMap.newKeySet();
+
+	private final AtomicLong listingVersions = new AtomicLong();
+
 	/**
 	 * Track connection status for each server (serverName -> ConnectionStatusInfo)
 	 */
@@ -216,6 +287,11 @@ public class McpCacheManager {
 	 */
 	private static final long HEALTH_CHECK_INTERVAL_SECONDS = 5;
 
+	/**
+	 * Interval of the idle connection sweep in seconds
+	 */
+	private static final long IDLE_SWEEP_INTERVAL_SECONDS = 60;
+
 	public McpCacheManager(McpConnectionFactory connectionFactory, McpConfigRepository mcpConfigRepository,
 			McpProperties mcpProperties) {
 		this.connectionFactory = connectionFactory;
@@ -240,6 +316,14 @@ public class McpCacheManager {
 		catch (Exception e) {
 			logger.error("Failed to initialize cache", e);
 		}
+		idleSweepTask = healthCheckExecutor.scheduleWithFixedDelay(() -> {
+			try {
+				evictIdleConnections();
+			}
+			catch (Exception e) {
+				logger.error("Error during idle MCP connection sweep", e);
+			}
+		}, IDLE_SWEEP_INTERVAL_SECONDS, IDLE_SWEEP_INTERVAL_SECONDS, TimeUnit.SECONDS);
 	}
 
 	/**
@@ -293,7 +377,10 @@ public class McpCacheManager {
 		// Create placeholder wrapper with RECONNECTING state
 		ConnectionWrapper placeholder = new ConnectionWrapper(null);
 		placeholder.setState(ConnectionState.CONNECTED, ConnectionState.RECONNECTING);
-		connections.putIfAbsent(serverName, placeholder);
+		if (connections.putIfAbsent(serverName, placeholder) != null) {
+			// Created concurrently; its state decides whether a rebuild is needed
+			return;
+		}
 
 		// Trigger background creation task
 		connectionExecutor.execute(() -> {
@@ -754,6 +841,7 @@ public class McpCacheManager {
 
 		// Remove from connections map (will be done by caller)
 		// Remove from tracking maps
+		toolListings.remove(serverName);
 		lastRebuildAttemptTimeMap.remove(serverName);
 		consecutiveFailureCountMap.remove(serverName);
 		lastErrorLogTimeMap.remove(serverName);
@@ -857,24 +945,241 @@ public class McpCacheManager {
 	}
 
 	/**
-	 * Get MCP services (maintains interface compatibility)
-	 * @param planId Plan ID (not used, maintained for compatibility)
+	 * Get MCP services and lease their connections for a plan
+	 * @param planId Plan ID holding the leases until {@link #releaseLeases(String)}, may
+	 * be null for callers that do not lease
 	 * @return MCP service entity mapping
 	 */
 	public Map<String, McpServiceEntity> getOrLoadServices(String planId) {
 		Map<String, McpServiceEntity> result = new ConcurrentHashMap<>();
 		for (String serverName : configCache.keySet()) {
+			McpServiceEntity entity = leaseConnection(planId, serverName);
+			if (entity != null) {
+				result.put(serverName, entity);
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Lease the connection of a server before checking that it is connected. The idle
+	 * sweep checks for leases again after moving a connection to CLOSING, so it either
+	 * sees this lease and keeps the connection, or this check sees the connection is no
+	 * longer CONNECTED and the current connection is looked up again.
+	 * @param planId Plan ID to lease for, may be null
+	 * @param serverName Server name
+	 * @return Service entity of the connected server, or null if none is available yet
+	 */
+	private McpServiceEntity leaseConnection(String planId, String serverName) {
+		for (int attempt = 0; attempt < 2; attempt++) {
 			ConnectionWrapper wrapper = getConnectionWithRetry(serverName);
-			if (wrapper != null && wrapper.getState() == ConnectionState.CONNECTED) {
+			if (wrapper == null) {
+				return null;
+			}
+			boolean leased = planId != null && acquireLease(planId, serverName, wrapper);
+			if (wrapper.getState() == ConnectionState.CONNECTED) {
 				McpServiceEntity entity = wrapper.getServiceEntity();
 				if (entity != null) {
-					result.put(serverName, entity);
+					wrapper.touch();
+					return entity;
 				}
 			}
+			if (leased) {
+				wrapper.getLeaseHolders().remove(planId);
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Get the tool listings of all connected servers and lease their connections for a
+	 * plan. Listings are fetched only on first use of a connection; stale ones are
+	 * returned while a background refresh replaces them.
+	 * @param planId Plan ID holding the leases until {@link #releaseLeases(String)}
+	 * @return Tool listings, one per connected server
+	 */
+	public List<McpToolListing> getToolListings(String planId) {
+		List<McpToolListing> result = new ArrayList<>();
+		for (Map.Entry<String, McpServiceEntity> entry : getOrLoadServices(planId).entrySet()) {
+			McpToolListing listing = getToolListing(entry.getKey(), entry.getValue());
+			if (listing != null) {
+				result.add(listing);
+			}
 		}
 		return result;
 	}
 
+	private McpToolListing getToolListing(String serverName, McpServiceEntity entity) {
+		McpToolListing listing = toolListings.get(serverName);
+		if (listing == null || listing.getServiceEntity() != entity) {
+			// New connection: fetch synchronously, the plan needs its tools
+			try {
+				return loadToolListing(serverName, entity, false);
+			}
+			catch (Exception e) {
+				logger.warn("Failed to list tools for MCP server {}: {}", serverName, e.getMessage());
+				return null;
+			}
+		}
+		if (!listing.isCurrentFor(entity) || isListingExpired(listing)) {
+			triggerListingRefresh(serverName, entity);
+		}
+		return listing;
+	}
+
+	private boolean isListingExpired(McpToolListing listing) {
+		long ttlMillis = mcpProperties.getToolListTtl() != null ? mcpProperties.getToolListTtl().toMillis() : 0;
+		return ttlMillis > 0 && System.currentTimeMillis() - listing.getFetchedAt() >= ttlMillis;
+	}
+
+	/**
+	 * Fetch a server's tools and publish them as a new listing version
+	 * @param refresh Whether to bypass the callback provider's own cache
+	 */
+	private McpToolListing loadToolListing(String serverName, McpServiceEntity entity, boolean refresh) {
+		synchronized (entity) {
+			McpToolListing current = toolListings.get(serverName);
+			if (!refresh && current != null && current.getServiceEntity() == entity) {
+				return current;
+			}
+			// Read before fetching so a change reported during the fetch triggers
+			// another refresh
+			long toolsChangedCount = entity.getToolsChangedCount();
+			AsyncMcpToolCallbackProvider provider = entity.getAsyncMcpToolCallbackProvider();
+			if (refresh) {
+				provider.invalidateCache();
+			}
+			ToolCallback[] callbacks = trackRequest(serverName, provider::getToolCallbacks);
+			McpToolListing listing = new McpToolListing(serverName, listingVersions.incrementAndGet(),
+					Arrays.asList(callbacks), toolsChangedCount, entity);
+			toolListings.put(serverName, listing);
+			logger.debug("Loaded {} tools for MCP server {} (listing version {})", callbacks.length, serverName,
+					listing.getVersion());
+			return listing;
+		}
+	}
+
+	/**
+	 * Refresh a server's tool listing in the background, at most once at a time
+	 */
+	private void triggerListingRefresh(String serverName, McpServiceEntity entity) {
+		if (!refreshingListings.add(serverName)) {
+			return;
+		}
+		try {
+			connectionExecutor.execute(() -> {
+				try {
+					McpToolListing listing = loadToolListing(serverName, entity, true);
+					logger.info("Refreshed tool listing for MCP server {}: {} tools (version {})", serverName,
+							listing.getToolCallbacks().size(), listing.getVersion());
+				}
+				catch (Exception e) {
+					logger.warn("Failed to refresh tool listing for MCP server {}, keeping current one: {}", serverName,
+							e.getMessage());
+				}
+				finally {
+					refreshingListings.remove(serverName);
+				}
+			});
+		}
+		catch (RejectedExecutionException e) {
+			refreshingListings.remove(serverName);
+		}
+	}
+
+	/**
+	 * Record that a plan uses a connection. A plan holds at most one lease per server.
+	 * @return true if the plan did not hold a lease on this connection yet
+	 */
+	private boolean acquireLease(String planId, String serverName, ConnectionWrapper wrapper) {
+		planLeases.computeIfAbsent(planId, k -> ConcurrentHashMap.newKeySet()).add(serverName);
+		return wrapper.getLeaseHolders().add(planId);
+	}
+
+	/**
+	 * Release all connection leases held by a plan. Connections stay open for other
+	 * plans; idle ones are closed later by the idle sweep.
+	 * @param planId Plan ID
+	 */
+	public void releaseLeases(String planId) {
+		if (planId == null) {
+			return;
+		}
+		Set<String> serverNames = planLeases.remove(planId);
+		if (serverNames == null) {
+			return;
+		}
+		for (String serverName : serverNames) {
+			ConnectionWrapper wrapper = connections.get(serverName);
+			if (wrapper != null) {
+				wrapper.getLeaseHolders().remove(planId);
+				wrapper.touch();
+			}
+		}
+		logger.debug("Released {} MCP connection leases for plan: {}", serverNames.size(), planId);
+	}
+
+	/**
+	 * Run a request on a server's connection, tracking pending requests and request
+	 * latency
+	 * @param serverName Server name
+	 * @param request Request to run
+	 * @return Result of the request
+	 * @param <T> Return type
+	 */
+	public <T> T trackRequest(String serverName, Supplier<T> request) {
+		ConnectionWrapper wrapper = serverName != null ? connections.get(serverName) : null;
+		if (wrapper == null) {
+			return request.get();
+		}
+		long start = System.currentTimeMillis();
+		wrapper.getPendingRequests().incrementAndGet();
+		try {
+			return request.get();
+		}
+		finally {
+			wrapper.getPendingRequests().decrementAndGet();
+			wrapper.recordRequest(System.currentTimeMillis() - start);
+		}
+	}
+
+	/**
+	 * Close connections that no plan has leased and that have not been used for the
+	 * configured idle timeout
+	 */
+	void evictIdleConnections() {
+		long idleTimeoutMillis = mcpProperties.getConnectionIdleTimeout() != null
+				? mcpProperties.getConnectionIdleTimeout().toMillis() : 0;
+		if (idleTimeoutMillis <= 0) {
+			return;
+		}
+		long now = System.currentTimeMillis();
+		for (Map.Entry<String, ConnectionWrapper> entry : connections.entrySet()) {
+			String serverName = entry.getKey();
+			ConnectionWrapper wrapper = entry.getValue();
+			if (!wrapper.isIdle() || now - wrapper.getLastUsedAt() < idleTimeoutMillis) {
+				continue;
+			}
+			if (!wrapper.setState(ConnectionState.CONNECTED, ConnectionState.CLOSING)) {
+				continue;
+			}
+			// A plan may have leased the connection between the check and the state
+			// change
+			if (!wrapper.isIdle()) {
+				wrapper.setState(ConnectionState.CLOSING, ConnectionState.CONNECTED);
+				continue;
+			}
+			logger.info("Closing idle MCP connection for server: {} (idle for {} ms)", serverName,
+					now - wrapper.getLastUsedAt());
+			cancelHealthCheck(serverName);
+			connections.remove(serverName, wrapper);
+			toolListings.remove(serverName);
+			markConnectionDisconnected(serverName);
+			McpServiceEntity entity = wrapper.getServiceEntity();
+			rebuildExecutor.execute(() -> closeClientSafely(entity, serverName));
+		}
+	}
+
 	/**
 	 * Get MCP service entity list (maintains interface compatibility)
 	 * @param planId Plan ID
@@ -885,18 +1190,12 @@ public class McpCacheManager {
 	}
 
 	/**
-	 * Invalidate cache for a plan (triggers connection rebuild)
-	 * @param planId Plan ID (not used, maintained for compatibility)
+	 * Invalidate cache for a plan. Only releases the plan's connection leases; other
+	 * plans keep using the same connections.
+	 * @param planId Plan ID
 	 */
 	public void invalidateCache(String planId) {
-		logger.info("Cache invalidation requested, triggering connection rebuild for all servers");
-		for (String serverName : connections.keySet()) {
-			ConnectionWrapper wrapper = connections.get(serverName);
-			if (wrapper != null) {
-				wrapper.setState(ConnectionState.CONNECTED, ConnectionState.CLOSED);
-				triggerBackgroundRebuild(serverName);
-			}
-		}
+		releaseLeases(planId);
 	}
 
 	/**
@@ -1050,10 +1349,26 @@ public class McpCacheManager {
 
 		private final boolean hasEntity;
 
-		public ConnectionStats(String state, int pendingRequests, boolean hasEntity) {
+		private final int activeLeases;
+
+		private final long idleMillis;
+
+		private final long completedRequests;
+
+		private final long totalRequestMillis;
+
+		private final long maxRequestMillis;
+
+		public ConnectionStats(String state, int pendingRequests, boolean hasEntity, int activeLeases, long idleMillis,
+				long completedRequests, long totalRequestMillis, long maxRequestMillis) {
 			this.state = state;
 			this.pendingRequests = pendingRequests;
 			this.hasEntity = hasEntity;
+			this.activeLeases = activeLeases;
+			this.idleMillis = idleMillis;
+			this.completedRequests = completedRequests;
+			this.totalRequestMillis = totalRequestMillis;
+			this.maxRequestMillis = maxRequestMillis;
 		}
 
 		public String getState() {
@@ -1068,6 +1383,39 @@ public class McpCacheManager {
 			return hasEntity;
 		}
 
+		/**
+		 * @return Number of plans holding a lease on the connection
+		 */
+		public int getActiveLeases() {
+			return activeLeases;
+		}
+
+		/**
+		 * @return Time since the connection was last used, 0 while it is in use
+		 */
+		public long getIdleMillis() {
+			return idleMillis;
+		}
+
+		public long getCompletedRequests() {
+			return completedRequests;
+		}
+
+		/**
+		 * @return Total duration of completed tool calls, from submission to result
+		 */
+		public long getTotalRequestMillis() {
+			return totalRequestMillis;
+		}
+
+		public long getMaxRequestMillis() {
+			return maxRequestMillis;
+		}
+
+		public long getAverageRequestMillis() {
+			return completedRequests == 0 ? 0 : totalRequestMillis / completedRequests;
+		}
+
 	}
 
 	/**
@@ -1076,10 +1424,13 @@ public class McpCacheManager {
 	 */
 	public Map<String, ConnectionStats> getConnectionStats() {
 		Map<String, ConnectionStats> stats = new ConcurrentHashMap<>();
+		long now = System.currentTimeMillis();
 		for (Map.Entry<String, ConnectionWrapper> entry : connections.entrySet()) {
 			ConnectionWrapper wrapper = entry.getValue();
 			ConnectionStats stat = new ConnectionStats(wrapper.getState().name(), wrapper.getPendingRequests().get(),
-					wrapper.getServiceEntity() != null);
+					wrapper.getServiceEntity() != null, wrapper.getLeaseHolders().size(),
+					wrapper.isIdle() ? now - wrapper.getLastUsedAt() : 0, wrapper.completedRequests.get(),
+					wrapper.totalRequestMillis.get(), wrapper.maxRequestMillis.get());
 			stats.put(entry.getKey(), stat);
 		}
 		return stats;
@@ -1203,6 +1554,11 @@ public class McpCacheManager {
 		}
 		connections.clear();
 		configCache.clear();
+		planLeases.clear();
+		toolListings.clear();
+		if (idleSweepTask != null) {
+			idleSweepTask.cancel(false);
+		}
 
 		// Cancel all health check tasks
 		for (String serverName : new ArrayList<>(healthCheckTasks.keySet())) {
@@ -19,6 +19,7 @@ import java.io.IOException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicReference;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -36,6 +37,7 @@ import io.modelcontextprotocol.client.McpAsyncClient;
 import io.modelcontextprotocol.client.McpClient;
 import io.modelcontextprotocol.spec.McpClientTransport;
 import io.modelcontextprotocol.spec.McpSchema;
+import reactor.core.publisher.Mono;
 import reactor.core.scheduler.Schedulers;
 
 /**
@@ -139,6 +141,10 @@ public class McpConnectionFactory {
 					throw new IOException("Failed to build transport for server: " + mcpServerName);
 				}
 
+				// The entity is created after the client, so change notifications reach
+				// it through this holder
+				AtomicReference<McpServiceEntity> entityHolder = new AtomicReference<>();
+
 				// Create new client with fresh transport
 				// Use separate initialization timeout which may be longer than request
 				// timeout
@@ -146,6 +152,14 @@ public class McpConnectionFactory {
 					.requestTimeout(mcpProperties.getTimeout())
 					.initializationTimeout(mcpProperties.getInitializationTimeout())
 					.clientInfo(new McpSchema.Implementation(mcpServerName, "1.0.0"))
+					.toolsChangeConsumer(tools -> {
+						McpServiceEntity entity = entityHolder.get();
+						if (entity != null) {
+							logger.info("Tool list changed on MCP server: {}", mcpServerName);
+							entity.markToolsChanged();
+						}
+						return Mono.empty();
+					})
 					.build();
 
 				logger.info("Attempting to initialize MCP transport for: {} (attempt {}/{}) with timeout: {}s",
@@ -166,7 +180,9 @@ public class McpConnectionFactory {
 				logger.info("MCP transport configured successfully for: {} (attempt {})", mcpServerName, attempt);
 
 				AsyncMcpToolCallbackProvider callbackProvider = new AsyncMcpToolCallbackProvider(mcpAsyncClient);
-				return new McpServiceEntity(mcpAsyncClient, callbackProvider, mcpServerName);
+				McpServiceEntity serviceEntity = new McpServiceEntity(mcpAsyncClient, callbackProvider, mcpServerName);
+				entityHolder.set(serviceEntity);
+				return serviceEntity;
 			}
 			catch (Exception e) {
 				lastException = e;
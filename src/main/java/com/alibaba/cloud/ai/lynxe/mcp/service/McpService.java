@@ -23,6 +23,7 @@ import java.util.Optional;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.ai.tool.ToolCallback;
 import org.springframework.stereotype.Component;
 
 import com.alibaba.cloud.ai.lynxe.mcp.model.po.McpConfigEntity;
@@ -31,6 +32,7 @@ import com.alibaba.cloud.ai.lynxe.mcp.model.po.McpConfigType;
 import com.alibaba.cloud.ai.lynxe.mcp.model.vo.McpServerConfig;
 import com.alibaba.cloud.ai.lynxe.mcp.model.vo.McpServerRequestVO;
 import com.alibaba.cloud.ai.lynxe.mcp.model.vo.McpServiceEntity;
+import com.alibaba.cloud.ai.lynxe.mcp.model.vo.McpToolListing;
 import com.alibaba.cloud.ai.lynxe.mcp.repository.McpConfigRepository;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.JsonNode;
@@ -286,13 +288,23 @@ public class McpService implements IMcpService {
 		return cacheManager.getServiceEntities(planId);
 	}
 
+	@Override
+	public List<McpToolListing> getToolListings(String planId) {
+		return cacheManager.getToolListings(planId);
+	}
+
 	/**
-	 * Close MCP service for specified plan
+	 * Release the connections leased by the specified plan
 	 * @param planId Plan ID
 	 */
 	@Override
 	public void close(String planId) {
-		cacheManager.invalidateCache(planId);
+		cacheManager.releaseLeases(planId);
+	}
+
+	@Override
+	public String callTool(String serverName, ToolCallback toolCallback, String input) {
+		return cacheManager.trackRequest(serverName, () -> toolCallback.call(input, null));
 	}
 
 	/**
@@ -18,6 +18,7 @@ package com.alibaba.cloud.ai.lynxe.planning;
 
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.TimeUnit;
@@ -30,8 +31,6 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.ai.model.tool.ToolCallingManager;
 import org.springframework.ai.tool.ToolCallback;
-import org.springframework.ai.tool.function.FunctionToolCallback;
-import org.springframework.ai.tool.metadata.ToolMetadata;
 import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
@@ -48,8 +47,8 @@ import com.alibaba.cloud.ai.lynxe.agent.ToolCallbackProvider;
 import com.alibaba.cloud.ai.lynxe.config.LynxeProperties;
 import com.alibaba.cloud.ai.lynxe.llm.LlmService;
 import com.alibaba.cloud.ai.lynxe.llm.StreamingResponseHandler;
-import com.alibaba.cloud.ai.lynxe.mcp.model.vo.McpServiceEntity;
 import com.alibaba.cloud.ai.lynxe.mcp.model.vo.McpTool;
+import com.alibaba.cloud.ai.lynxe.mcp.model.vo.McpToolListing;
 import com.alibaba.cloud.ai.lynxe.mcp.service.McpService;
 import com.alibaba.cloud.ai.lynxe.model.repository.DynamicModelRepository;
 import com.alibaba.cloud.ai.lynxe.planning.service.PlanFinalizer;
@@ -82,7 +81,7 @@ import com.alibaba.cloud.ai.lynxe.tool.browser.browserOperators.UploadFileViaCho
 import com.alibaba.cloud.ai.lynxe.tool.browser.browserOperators.UploadFileViaChooserExternalLinkBrowserTool;
 import com.alibaba.cloud.ai.lynxe.tool.browser.service.BrowserUseCommonService;
 import com.alibaba.cloud.ai.lynxe.tool.browser.service.ChromeDriverService;
-import com.alibaba.cloud.ai.lynxe.tool.code.ToolExecuteResult;
+import com.alibaba.cloud.ai.lynxe.tool.convertToMarkdown.ConversionResultCache;
 import com.alibaba.cloud.ai.lynxe.tool.convertToMarkdown.ImageOcrProcessor;
 import com.alibaba.cloud.ai.lynxe.tool.convertToMarkdown.MarkdownConverterTool;
 import com.alibaba.cloud.ai.lynxe.tool.convertToMarkdown.PdfOcrProcessor;
@@ -93,17 +92,18 @@ import com.alibaba.cloud.ai.lynxe.tool.database.databaseOperators.ExecuteReadSql
 import com.alibaba.cloud.ai.lynxe.tool.database.databaseOperators.GetDatasourceInfoTool;
 import com.alibaba.cloud.ai.lynxe.tool.database.databaseOperators.GetTableMetaTool;
 import com.alibaba.cloud.ai.lynxe.tool.database.databaseOperators.UuidGenerateTool;
+import com.alibaba.cloud.ai.lynxe.tool.database.meta.SchemaMetadataCache;
 import com.alibaba.cloud.ai.lynxe.tool.database.service.DataSourceService;
 import com.alibaba.cloud.ai.lynxe.tool.dirOperator.dirOperators.GlobExternalLinkFilesTool;
 import com.alibaba.cloud.ai.lynxe.tool.dirOperator.dirOperators.GlobFilesTool;
 import com.alibaba.cloud.ai.lynxe.tool.dirOperator.dirOperators.ListExternalLinkFilesTool;
 import com.alibaba.cloud.ai.lynxe.tool.dirOperator.dirOperators.ListFilesTool;
 import com.alibaba.cloud.ai.lynxe.tool.excelProcessor.IExcelProcessingService;
-import com.alibaba.cloud.ai.lynxe.tool.filesystem.GitIgnoreMatcher;
 import com.alibaba.cloud.ai.lynxe.tool.filesystem.SmartContentSavingService;
 import com.alibaba.cloud.ai.lynxe.tool.filesystem.SymbolicLinkDetector;
 import com.alibaba.cloud.ai.lynxe.tool.filesystem.TextFileService;
 import com.alibaba.cloud.ai.lynxe.tool.filesystem.UnifiedDirectoryManager;
+import com.alibaba.cloud.ai.lynxe.tool.filesystem.WorkspaceFileIndexService;
 import com.alibaba.cloud.ai.lynxe.tool.i18n.ToolI18nService;
 import com.alibaba.cloud.ai.lynxe.tool.image.ImageGenerationProvider;
 import com.alibaba.cloud.ai.lynxe.tool.image.ImageGenerationTool;
@@ -135,6 +135,8 @@ import com.alibaba.cloud.ai.lynxe.tool.textOperator.fileOperators.WriteFileOpera
 import com.alibaba.cloud.ai.lynxe.workspace.conversation.service.MemoryService;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
+import jakarta.annotation.PostConstruct;
+
 /**
  * @author yuluo
  * @author <a href="mailto:yuluo08290126@gmail.com">yuluo</a>
@@ -223,7 +225,7 @@ public class PlanningFactory {
 	private SymbolicLinkDetector symlinkDetector;
 
 	@Autowired
-	private GitIgnoreMatcher gitIgnoreMatcher;
+	private WorkspaceFileIndexService workspaceFileIndexService;
 
 	@Autowired
 	private DynamicModelRepository dynamicModelRepository;
@@ -237,6 +239,23 @@ public class PlanningFactory {
 	@Autowired
 	private TodoStorageService todoStorageService;
 
+	@Autowired
+	private ToolCatalog toolCatalog;
+
+	@Autowired
+	private ImageRecognitionExecutorPool imageRecognitionExecutorPool;
+
+	@Autowired
+	private ConversionResultCache conversionResultCache;
+
+	@Autowired
+	private SchemaMetadataCache schemaMetadataCache;
+
+	// OCR processors hold no plan state and share one executor pool
+	private PdfOcrProcessor pdfOcrProcessor;
+
+	private ImageOcrProcessor imageOcrProcessor;
+
 	public PlanningFactory(ChromeDriverService chromeDriverService, PlanExecutionRecorder recorder,
 			LynxeProperties lynxeProperties, TextFileService textFileService, McpService mcpService,
 			SmartContentSavingService innerStorageService, UnifiedDirectoryManager unifiedDirectoryManager,
@@ -252,6 +271,16 @@ public class PlanningFactory {
 		this.excelProcessingService = excelProcessingService;
 	}
 
+	@PostConstruct
+	public void initSharedProcessors() {
+		this.pdfOcrProcessor = new PdfOcrProcessor(unifiedDirectoryManager, llmService, lynxeProperties,
+				imageRecognitionExecutorPool);
+		this.pdfOcrProcessor.setConversionResultCache(conversionResultCache);
+		this.imageOcrProcessor = new ImageOcrProcessor(unifiedDirectoryManager, llmService, lynxeProperties,
+				imageRecognitionExecutorPool);
+		this.imageOcrProcessor.setConversionResultCache(conversionResultCache);
+	}
+
 	/**
 	 * Create a PlanFinalizer instance
 	 * @return configured PlanFinalizer instance
@@ -282,11 +311,22 @@ public class PlanningFactory {
 
 	}
 
+	/**
+	 * Release what {@link #toolCallbackMap} acquired for a plan: the MCP connection
+	 * leases of every server listed for it, including servers that expose no tools
+	 * @param planId Plan ID passed to {@link #toolCallbackMap}
+	 */
+	public void releasePlanResources(String planId) {
+		mcpService.close(planId);
+	}
+
 	public Map<String, ToolCallBackContext> toolCallbackMap(String planId, String rootPlanId,
 			String expectedReturnInfo) {
 
 		Map<String, ToolCallBackContext> toolCallbackMap = new HashMap<>();
 		List<ToolCallBiFunctionDef<?>> toolDefinitions = new ArrayList<>();
+		// Tools whose description or schema depends on this plan bypass the catalog
+		List<ToolCallBiFunctionDef<?>> planSpecificDefinitions = new ArrayList<>();
 		if (chromeDriverService == null) {
 			log.error("ChromeDriverService is null, skipping BrowserUseTool registration");
 			return toolCallbackMap;
@@ -329,13 +369,15 @@ public class PlanningFactory {
 			// toolDefinitions.add(DatabaseReadTool.getInstance(dataSourceService,
 			// objectMapper, unifiedDirectoryManager,
 			// toolI18nService));
-			toolDefinitions.add(DatabaseWriteTool.getInstance(dataSourceService, objectMapper, toolI18nService));
-			toolDefinitions.add(GetTableMetaTool.getInstance(dataSourceService, objectMapper, toolI18nService));
+			toolDefinitions.add(DatabaseWriteTool.getInstance(dataSourceService, schemaMetadataCache, objectMapper,
+					toolI18nService));
+			toolDefinitions.add(GetTableMetaTool.getInstance(dataSourceService, schemaMetadataCache, objectMapper,
+					toolI18nService));
 			toolDefinitions.add(GetDatasourceInfoTool.getInstance(dataSourceService, objectMapper, toolI18nService));
 			toolDefinitions.add(DatabaseTableToExcelTool.getInstance(lynxeProperties, dataSourceService,
 					excelProcessingService, unifiedDirectoryManager, toolI18nService));
 			toolDefinitions.add(UuidGenerateTool.getInstance(objectMapper, toolI18nService));
-			toolDefinitions.add(new TerminateTool(planId, expectedReturnInfo, objectMapper, shortUrlService,
+			planSpecificDefinitions.add(new TerminateTool(planId, expectedReturnInfo, objectMapper, shortUrlService,
 					lynxeProperties, toolI18nService));
 			toolDefinitions.add(new DebugTool(toolI18nService));
 			toolDefinitions.add(new SendAssistantMessageTool(toolI18nService, llmService, lynxeProperties));
@@ -367,10 +409,11 @@ public class PlanningFactory {
 			toolDefinitions.add(new CountExternalLinkFileTool(textFileService, toolI18nService));
 			toolDefinitions.add(new ListExternalLinkFilesTool(unifiedDirectoryManager, toolI18nService));
 			toolDefinitions.add(new GlobExternalLinkFilesTool(unifiedDirectoryManager, symlinkDetector, toolI18nService,
-					gitIgnoreMatcher, lynxeProperties));
+					workspaceFileIndexService, lynxeProperties));
+			toolDefinitions.add(new EnhanceExternalLinkGrep(textFileService, toolI18nService, workspaceFileIndexService,
+					lynxeProperties));
 			toolDefinitions
-				.add(new EnhanceExternalLinkGrep(textFileService, toolI18nService, gitIgnoreMatcher, lynxeProperties));
-			toolDefinitions.add(new EnhancedGrep(textFileService, toolI18nService, gitIgnoreMatcher, lynxeProperties));
+				.add(new EnhancedGrep(textFileService, toolI18nService, workspaceFileIndexService, lynxeProperties));
 			// Refactored file splitter (split action only, count removed)
 			toolDefinitions.add(new SplitFileTool(textFileService, toolI18nService));
 			// File count tool for counting lines and characters
@@ -378,7 +421,7 @@ public class PlanningFactory {
 			// Refactored directory operators (split from DirectoryOperator)
 			toolDefinitions.add(new ListFilesTool(unifiedDirectoryManager, toolI18nService));
 			toolDefinitions.add(new GlobFilesTool(unifiedDirectoryManager, symlinkDetector, toolI18nService,
-					gitIgnoreMatcher, lynxeProperties));
+					workspaceFileIndexService, lynxeProperties));
 			// toolDefinitions.add(new FileSplitterTool(textFileService, objectMapper,
 			// toolI18nService));
 			// toolDefinitions.add(new DirectoryOperator(unifiedDirectoryManager,
@@ -407,12 +450,8 @@ public class PlanningFactory {
 			// the toolCallbackMap creation loop below completes
 			toolDefinitions.add(new FileBasedParallelExecutionTool(objectMapper, toolCallbackMap,
 					unifiedDirectoryManager, parallelExecutionService, toolI18nService));
-			toolDefinitions.add(new MarkdownConverterTool(unifiedDirectoryManager,
-					new PdfOcrProcessor(unifiedDirectoryManager, llmService, lynxeProperties,
-							new ImageRecognitionExecutorPool(lynxeProperties)),
-					new ImageOcrProcessor(unifiedDirectoryManager, llmService, lynxeProperties,
-							new ImageRecognitionExecutorPool(lynxeProperties)),
-					excelProcessingService, objectMapper, toolI18nService));
+			toolDefinitions.add(new MarkdownConverterTool(unifiedDirectoryManager, pdfOcrProcessor, imageOcrProcessor,
+					excelProcessingService, objectMapper, toolI18nService, conversionResultCache));
 			toolDefinitions.add(new MarkdownToDocxTool(textFileService, unifiedDirectoryManager, toolI18nService));
 			toolDefinitions.add(new ImageGenerationTool(dynamicModelRepository, restClientBuilderProvider, objectMapper,
 					toolI18nService, lynxeProperties, imageGenerationProviders));
@@ -421,21 +460,33 @@ public class PlanningFactory {
 			// toolDefinitions.add(new ExcelProcessorTool(excelProcessingService));
 		}
 		else {
-			toolDefinitions.add(new TerminateTool(planId, expectedReturnInfo, objectMapper, shortUrlService,
+			planSpecificDefinitions.add(new TerminateTool(planId, expectedReturnInfo, objectMapper, shortUrlService,
 					lynxeProperties, toolI18nService));
 		}
 
-		List<McpServiceEntity> functionCallbacks = mcpService.getFunctionCallbacks(planId);
-		for (McpServiceEntity toolCallback : functionCallbacks) {
-			String serviceGroup = toolCallback.getServiceGroup();
-			ToolCallback[] tCallbacks = toolCallback.getAsyncMcpToolCallbackProvider().getToolCallbacks();
-			for (ToolCallback tCallback : tCallbacks) {
-				// The serviceGroup is the name of the tool
-				toolDefinitions.add(new McpTool(tCallback, serviceGroup, planId, innerStorageService, objectMapper));
+		// MCP tools come from cached tool listings; their definitions are shared per
+		// listing version
+		Map<ToolCallBiFunctionDef<?>, String> mcpListingVersions = new IdentityHashMap<>();
+		List<ToolCallBiFunctionDef<?>> mcpDefinitions = new ArrayList<>();
+		for (McpToolListing listing : mcpService.getToolListings(planId)) {
+			// The server name is the service group of its tools
+			String serviceGroup = listing.getServerName();
+			String listingVersion = "mcp-" + listing.getVersion();
+			for (ToolCallback tCallback : listing.getToolCallbacks()) {
+				McpTool mcpTool = new McpTool(tCallback, serviceGroup, planId, innerStorageService, objectMapper,
+						mcpService);
+				mcpDefinitions.add(mcpTool);
+				mcpListingVersions.put(mcpTool, listingVersion);
 			}
 		}
+		// Resolve the language once instead of once per tool description
+		String language = toolI18nService.getCurrentLanguage();
+		int catalogToolCount = toolDefinitions.size();
+		toolDefinitions.addAll(planSpecificDefinitions);
+		toolDefinitions.addAll(mcpDefinitions);
 		// Create FunctionToolCallback for each tool
-		for (ToolCallBiFunctionDef<?> toolDefinition : toolDefinitions) {
+		for (int i = 0; i < toolDefinitions.size(); i++) {
+			ToolCallBiFunctionDef<?> toolDefinition = toolDefinitions.get(i);
 
 			try {
 				toolDefinition.setCurrentPlanId(planId);
@@ -455,15 +506,12 @@ public class PlanningFactory {
 
 				// Build FunctionToolCallback with qualified name so LLM calls tools with
 				// qualified names
-				FunctionToolCallback<?, ToolExecuteResult> functionToolcallback = FunctionToolCallback
-					.builder(qualifiedKey, toolDefinition)
-					.description(toolDefinition.getDescriptionWithServiceGroup())
-					.inputSchema(toolDefinition.getParameters())
-					.inputType(toolDefinition.getInputType())
-					.toolMetadata(ToolMetadata.builder().returnDirect(toolDefinition.isReturnDirect()).build())
-					.build();
-
-				log.info("Registering tool: {} with qualified key: {}", toolName, qualifiedKey);
+				String variant = i < catalogToolCount ? language : mcpListingVersions.get(toolDefinition);
+				ToolCallback functionToolcallback = variant != null
+						? toolCatalog.bind(qualifiedKey, toolDefinition, variant)
+						: ToolCatalog.build(qualifiedKey, toolDefinition);
+
+				log.debug("Registering tool: {} with qualified key: {}", toolName, qualifiedKey);
 				ToolCallBackContext functionToolcallbackContext = new ToolCallBackContext(functionToolcallback,
 						toolDefinition);
 				toolCallbackMap.put(qualifiedKey, functionToolcallbackContext);
@@ -473,6 +521,8 @@ public class PlanningFactory {
 			}
 		}
 
+		log.info("Registered {} tools for plan {}", toolCallbackMap.size(), planId);
+
 		// Add subplan tool registration
 		if (subplanToolService != null) {
 			try {
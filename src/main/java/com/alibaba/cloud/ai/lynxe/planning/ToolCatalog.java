@@ -0,0 +1,154 @@
+/*
+ * Copyright 2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.lynxe.planning;
+
+import java.lang.reflect.Type;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.ai.tool.ToolCallback;
+import org.springframework.ai.tool.definition.ToolDefinition;
+import org.springframework.ai.tool.function.FunctionToolCallback;
+import org.springframework.ai.tool.metadata.ToolMetadata;
+import org.springframework.stereotype.Component;
+
+import com.alibaba.cloud.ai.lynxe.tool.ToolCallBiFunctionDef;
+import com.alibaba.cloud.ai.lynxe.tool.code.ToolExecuteResult;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+/**
+ * Catalog of tool definitions shared by all agents. The description, JSON schema and
+ * metadata of a tool depend only on the tool class and the user language, so they are
+ * resolved once and reused; binding a tool for a plan then only wraps the plan's tool
+ * instance around the cached definition.
+ *
+ * MCP tools are bound under the version of the tool listing they come from, so their
+ * definitions are shared until the server's tool list changes; entries of replaced
+ * versions expire once unused. Tools whose definition depends on plan input (terminate
+ * tool) must not be bound through the catalog.
+ */
+@Component
+public class ToolCatalog {
+
+	private final Cache<String, CatalogEntry> entries = CacheBuilder.newBuilder()
+		.maximumSize(5000)
+		.expireAfterAccess(1, TimeUnit.HOURS)
+		.build();
+
+	private final AtomicLong hits = new AtomicLong();
+
+	private final AtomicLong misses = new AtomicLong();
+
+	/**
+	 * Immutable definition of one tool in one language or listing version
+	 */
+	static class CatalogEntry {
+
+		private final ToolDefinition toolDefinition;
+
+		private final ToolMetadata toolMetadata;
+
+		private final Type inputType;
+
+		CatalogEntry(ToolDefinition toolDefinition, ToolMetadata toolMetadata, Type inputType) {
+			this.toolDefinition = toolDefinition;
+			this.toolMetadata = toolMetadata;
+			this.inputType = inputType;
+		}
+
+	}
+
+	/**
+	 * Build a callback for a plan's tool instance, resolving its definition only when it
+	 * is not in the catalog yet
+	 * @param qualifiedKey Name the tool is exposed under (serviceGroup-toolName)
+	 * @param toolDefinition Tool instance bound to the plan
+	 * @param variant Language the definition is resolved in, or the MCP tool listing
+	 * version it comes from
+	 * @return Callback using the cached definition
+	 */
+	public ToolCallback bind(String qualifiedKey, ToolCallBiFunctionDef<?> toolDefinition, String variant) {
+		String key = variant + "|" + toolDefinition.getClass().getName() + "|" + qualifiedKey;
+		CatalogEntry entry = entries.getIfPresent(key);
+		if (entry != null) {
+			hits.incrementAndGet();
+		}
+		else {
+			try {
+				entry = entries.get(key, () -> {
+					misses.incrementAndGet();
+					return resolve(qualifiedKey, toolDefinition);
+				});
+			}
+			catch (ExecutionException e) {
+				throw new IllegalStateException("Failed to resolve tool definition: " + qualifiedKey, e.getCause());
+			}
+		}
+		return create(entry, toolDefinition);
+	}
+
+	/**
+	 * Build a callback without the catalog, for tools whose definition differs per plan
+	 * @param qualifiedKey Name the tool is exposed under (serviceGroup-toolName)
+	 * @param toolDefinition Tool instance bound to the plan
+	 * @return Callback with a freshly resolved definition
+	 */
+	public static ToolCallback build(String qualifiedKey, ToolCallBiFunctionDef<?> toolDefinition) {
+		return FunctionToolCallback.builder(qualifiedKey, toolDefinition)
+			.description(toolDefinition.getDescriptionWithServiceGroup())
+			.inputSchema(toolDefinition.getParameters())
+			.inputType(toolDefinition.getInputType())
+			.toolMetadata(ToolMetadata.builder().returnDirect(toolDefinition.isReturnDirect()).build())
+			.build();
+	}
+
+	/**
+	 * @return Number of cached definitions and lookup counters
+	 */
+	public Map<String, Object> getMetrics() {
+		Map<String, Object> metrics = new LinkedHashMap<>();
+		metrics.put("entries", entries.size());
+		metrics.put("hits", hits.get());
+		metrics.put("misses", misses.get());
+		return metrics;
+	}
+
+	/**
+	 * Drop all cached definitions, e.g. after tool descriptions were changed
+	 */
+	public void invalidateAll() {
+		entries.invalidateAll();
+	}
+
+	private CatalogEntry resolve(String qualifiedKey, ToolCallBiFunctionDef<?> toolDefinition) {
+		// Resolve through the builder so defaults (generated schema, description from
+		// name) stay identical to building the callback directly
+		ToolCallback callback = build(qualifiedKey, toolDefinition);
+		return new CatalogEntry(callback.getToolDefinition(), callback.getToolMetadata(),
+				toolDefinition.getInputType());
+	}
+
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	private ToolCallback create(CatalogEntry entry, ToolCallBiFunctionDef<?> toolDefinition) {
+		return new FunctionToolCallback<Object, ToolExecuteResult>(entry.toolDefinition, entry.toolMetadata,
+				entry.inputType, (ToolCallBiFunctionDef) toolDefinition, null);
+	}
+
+}
@@ -43,6 +43,7 @@ import com.alibaba.cloud.ai.lynxe.planning.service.PlanTemplateService;
 import com.alibaba.cloud.ai.lynxe.runtime.entity.vo.ExecutionStep;
 import com.alibaba.cloud.ai.lynxe.runtime.entity.vo.PlanInterface;
 import com.alibaba.cloud.ai.lynxe.runtime.service.PlanIdDispatcher;
+import com.alibaba.cloud.ai.lynxe.subplan.service.SubplanToolRegistry;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
 /**
@@ -73,6 +74,9 @@ public class PlanTemplateController {
 	@Autowired
 	private PlanIdDispatcher planIdDispatcher;
 
+	@Autowired
+	private SubplanToolRegistry subplanToolRegistry;
+
 	/**
 	 * Save version history
 	 * @param planJson Plan JSON data
@@ -633,4 +637,13 @@ public class PlanTemplateController {
 		}
 	}
 
+	/**
+	 * Get counters of the subplan tool registry
+	 * @return Registry version, registered tools and lookup counters
+	 */
+	@GetMapping("/tool-registry/metrics")
+	public ResponseEntity<Map<String, Object>> getToolRegistryMetrics() {
+		return ResponseEntity.ok(subplanToolRegistry.getMetrics());
+	}
+
 }
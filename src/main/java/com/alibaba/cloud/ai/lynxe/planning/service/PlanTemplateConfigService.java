@@ -27,7 +27,11 @@ import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import com.alibaba.cloud.ai.lynxe.event.LynxeEventPublisher;
+import com.alibaba.cloud.ai.lynxe.event.PlanTemplateChangeEvent;
 import com.alibaba.cloud.ai.lynxe.planning.exception.PlanTemplateConfigException;
 import com.alibaba.cloud.ai.lynxe.planning.model.enums.PlanTemplateAccessLevel;
 import com.alibaba.cloud.ai.lynxe.planning.model.po.FuncAgentToolEntity;
@@ -66,6 +70,9 @@ public class PlanTemplateConfigService {
 	@Autowired
 	private com.alibaba.cloud.ai.lynxe.runtime.service.VersionService versionService;
 
+	@Autowired
+	private LynxeEventPublisher lynxeEventPublisher;
+
 	/**
 	 * Prepare PlanTemplateConfigVO with toolConfig This method ensures toolConfig is
 	 * properly set with input schema
@@ -293,6 +300,7 @@ public class PlanTemplateConfigService {
 								"Found existing template with same serviceGroup '{}' and toolName '{}' but different planTemplateId (old: {}, new: {}). Deleting old template for compatibility.",
 								serviceGroup, title, oldTemplate.getPlanTemplateId(), planTemplateId);
 						funcAgentToolRepository.deleteById(oldTemplate.getId());
+						publishTemplateChange(oldTemplate.getPlanTemplateId());
 						// Clear the list to proceed with creating new template
 						existingTemplates.clear();
 					}
@@ -455,6 +463,7 @@ public class PlanTemplateConfigService {
 				resultVO.setUpdateTime(savedTemplate.getUpdateTime().toString());
 			}
 
+			publishTemplateChange(planTemplateId);
 			log.info("Successfully created PlanTemplate with ID: {}", planTemplateId);
 			return resultVO;
 
@@ -713,6 +722,7 @@ public class PlanTemplateConfigService {
 			log.debug("Updated version to '{}' for coordinator tool ID: {}", currentVersion, id);
 
 			FuncAgentToolEntity savedEntity = funcAgentToolRepository.save(existingEntity);
+			publishTemplateChange(savedEntity.getPlanTemplateId());
 			log.info("Successfully updated FuncAgentToolEntity: {} with ID: {}", savedEntity.getToolDescription(),
 					savedEntity.getId());
 
@@ -747,6 +757,7 @@ public class PlanTemplateConfigService {
 
 			// Delete entity
 			funcAgentToolRepository.deleteById(id);
+			publishTemplateChange(null);
 			log.info("Successfully deleted CoordinatorToolEntity with ID: {}", id);
 
 		}
@@ -769,6 +780,7 @@ public class PlanTemplateConfigService {
 		try {
 			log.info("Deleting coordinator tools for plan template ID: {}", planTemplateId);
 			funcAgentToolRepository.deleteByPlanTemplateId(planTemplateId);
+			publishTemplateChange(planTemplateId);
 			log.info("Successfully deleted coordinator tools for plan template ID: {}", planTemplateId);
 		}
 		catch (Exception e) {
@@ -812,6 +824,7 @@ public class PlanTemplateConfigService {
 								"Found existing coordinator tool with same serviceGroup '{}' and toolName '{}' but different planTemplateId (existing: {}, new: {}). Deleting old tool.",
 								serviceGroup, toolName, existing.getPlanTemplateId(), configVO.getPlanTemplateId());
 						funcAgentToolRepository.deleteById(existing.getId());
+						publishTemplateChange(existing.getPlanTemplateId());
 					}
 					else {
 						log.warn(
@@ -833,6 +846,7 @@ public class PlanTemplateConfigService {
 									"Found existing coordinator tool with same toolName '{}' but different planTemplateId (existing: {}, new: {}). Deleting old tool.",
 									toolName, existingTool.getPlanTemplateId(), configVO.getPlanTemplateId());
 							funcAgentToolRepository.deleteById(existingTool.getId());
+							publishTemplateChange(existingTool.getPlanTemplateId());
 						}
 						else {
 							log.warn(
@@ -873,6 +887,7 @@ public class PlanTemplateConfigService {
 			log.debug("Set version '{}' for new coordinator tool: {}", currentVersion, configVO.getPlanTemplateId());
 
 			FuncAgentToolEntity savedEntity = funcAgentToolRepository.save(entity);
+			publishTemplateChange(savedEntity.getPlanTemplateId());
 			log.info("Successfully saved FuncAgentToolEntity: {} with ID: {}", savedEntity.getToolDescription(),
 					savedEntity.getId());
 
@@ -973,22 +988,7 @@ public class PlanTemplateConfigService {
 		try {
 			List<FuncAgentToolEntity> entities = funcAgentToolRepository.findByPlanTemplateId(planTemplateId);
 			if (!entities.isEmpty()) {
-				FuncAgentToolEntity entity = entities.get(0);
-				PlanTemplateConfigVO configVO = new PlanTemplateConfigVO();
-				configVO.setPlanTemplateId(entity.getPlanTemplateId());
-				configVO.setTitle(entity.getToolName());
-				configVO.setServiceGroup(entity.getServiceGroup());
-				PlanTemplateAccessLevel entityAccessLevel = entity.getAccessLevel();
-				if (entityAccessLevel != null) {
-					configVO.setAccessLevel(entityAccessLevel.getValue());
-				}
-				if (entity.getCreateTime() != null) {
-					configVO.setCreateTime(entity.getCreateTime().toString());
-				}
-				if (entity.getUpdateTime() != null) {
-					configVO.setUpdateTime(entity.getUpdateTime().toString());
-				}
-				return Optional.of(configVO);
+				return Optional.of(convertEntityToPlanTemplateSummary(entities.get(0)));
 			}
 			return Optional.empty();
 		}
@@ -1047,6 +1047,7 @@ public class PlanTemplateConfigService {
 
 			// Then delete the template itself
 			funcAgentToolRepository.deleteByPlanTemplateId(planTemplateId);
+			publishTemplateChange(planTemplateId);
 
 			log.info("Deleted plan template {} and all its versions and coordinator tools", planTemplateId);
 			return true;
@@ -1217,12 +1218,36 @@ public class PlanTemplateConfigService {
 		return result;
 	}
 
+	/**
+	 * Convert FuncAgentToolEntity to the plan template view returned by
+	 * {@link #getPlanTemplate(String)}
+	 * @param entity FuncAgentToolEntity
+	 * @return PlanTemplateConfigVO without toolConfig
+	 */
+	public PlanTemplateConfigVO convertEntityToPlanTemplateSummary(FuncAgentToolEntity entity) {
+		PlanTemplateConfigVO configVO = new PlanTemplateConfigVO();
+		configVO.setPlanTemplateId(entity.getPlanTemplateId());
+		configVO.setTitle(entity.getToolName());
+		configVO.setServiceGroup(entity.getServiceGroup());
+		PlanTemplateAccessLevel entityAccessLevel = entity.getAccessLevel();
+		if (entityAccessLevel != null) {
+			configVO.setAccessLevel(entityAccessLevel.getValue());
+		}
+		if (entity.getCreateTime() != null) {
+			configVO.setCreateTime(entity.getCreateTime().toString());
+		}
+		if (entity.getUpdateTime() != null) {
+			configVO.setUpdateTime(entity.getUpdateTime().toString());
+		}
+		return configVO;
+	}
+
 	/**
 	 * Convert FuncAgentToolEntity to PlanTemplateConfigVO
 	 * @param entity FuncAgentToolEntity
 	 * @return PlanTemplateConfigVO with toolConfig populated
 	 */
-	private PlanTemplateConfigVO convertEntityToPlanTemplateConfigVO(FuncAgentToolEntity entity) {
+	public PlanTemplateConfigVO convertEntityToPlanTemplateConfigVO(FuncAgentToolEntity entity) {
 		PlanTemplateConfigVO configVO = new PlanTemplateConfigVO();
 		configVO.setPlanTemplateId(entity.getPlanTemplateId());
 		configVO.setTitle(entity.getToolName());
@@ -1280,4 +1305,24 @@ public class PlanTemplateConfigService {
 		return configVO;
 	}
 
+	/**
+	 * Notify listeners (e.g. the subplan tool registry) that coordinator tools changed.
+	 * Inside a transaction the event is published only once it is committed, so listeners
+	 * never reload uncommitted state.
+	 * @param planTemplateId Changed plan template, or null if unknown
+	 */
+	private void publishTemplateChange(String planTemplateId) {
+		PlanTemplateChangeEvent event = new PlanTemplateChangeEvent(planTemplateId);
+		if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+			lynxeEventPublisher.publish(event);
+			return;
+		}
+		TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+			@Override
+			public void afterCommit() {
+				lynxeEventPublisher.publish(event);
+			}
+		});
+	}
+
 }
@@ -100,9 +100,11 @@ public class AgentExecutionRecordEntity {
 	@Column(name = "status")
 	private ExecutionStatusEntity status;
 
-	// Record list of think-act steps, existing as sub-steps
+	// Record list of think-act steps, existing as sub-steps. The join column is owned by
+	// ThinkActRecordEntity.agentExecutionRecordId, so saving this record never rewrites
+	// or clears the link of its steps
 	@OneToMany(cascade = CascadeType.ALL, fetch = FetchType.LAZY)
-	@JoinColumn(name = "agent_execution_record_id")
+	@JoinColumn(name = "agent_execution_record_id", insertable = false, updatable = false)
 	private List<ThinkActRecordEntity> thinkActSteps;
 
 	// Request content for agent execution
@@ -138,13 +140,15 @@ public class AgentExecutionRecordEntity {
 	}
 
 	/**
-	 * Add a ThinkActRecordEntity as execution step
+	 * Add a ThinkActRecordEntity as execution step. This record must already be saved,
+	 * its id is what links the step to it.
 	 * @param record ThinkActRecordEntity instance
 	 */
 	public void addThinkActStep(ThinkActRecordEntity record) {
 		if (this.thinkActSteps == null) {
 			this.thinkActSteps = new ArrayList<>();
 		}
+		record.setAgentExecutionRecordId(this.id);
 		this.thinkActSteps.add(record);
 		this.currentStep = this.thinkActSteps.size();
 	}
@@ -67,6 +67,12 @@ public class ThinkActRecordEntity {
 	@Column(name = "parent_execution_id")
 	private Long parentExecutionId;
 
+	// Join column of AgentExecutionRecordEntity.thinkActSteps and its only writable
+	// mapping, so a record can be linked to its agent execution without loading that
+	// collection
+	@Column(name = "agent_execution_record_id")
+	private Long agentExecutionRecordId;
+
 	// Input context for the thinking process
 	@Column(name = "think_input", columnDefinition = "LONGTEXT")
 	private String thinkInput;
@@ -120,6 +126,14 @@ public class ThinkActRecordEntity {
 		this.id = id;
 	}
 
+	public Long getAgentExecutionRecordId() {
+		return agentExecutionRecordId;
+	}
+
+	public void setAgentExecutionRecordId(Long agentExecutionRecordId) {
+		this.agentExecutionRecordId = agentExecutionRecordId;
+	}
+
 	public String getThinkActId() {
 		return thinkActId;
 	}
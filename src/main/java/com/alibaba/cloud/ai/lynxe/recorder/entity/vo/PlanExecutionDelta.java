@@ -0,0 +1,225 @@
+/*
+ * Copyright 2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.lynxe.recorder.entity.vo;
+
+import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * Incremental change of a plan execution tree, pushed to subscribers of the plan
+ * execution stream instead of re-reading the whole tree on every poll.
+ *
+ * Every delta belongs to exactly one root plan. The sequence number is assigned per root
+ * plan and is strictly increasing, so a client can resume a stream by sending the last
+ * sequence it has seen (SSE Last-Event-ID). Only the fields relevant to the delta type
+ * are populated.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class PlanExecutionDelta {
+
+	/**
+	 * Type of change carried by a delta.
+	 */
+	public enum DeltaType {
+
+		/** A plan (root or sub-plan) was created or restarted */
+		PLAN_STARTED,
+		/** An agent step started running */
+		STEP_STARTED,
+		/** An agent step finished running */
+		STEP_FINISHED,
+		/** A new think-act record was written for a step */
+		THINK_ACT_RECORDED,
+		/** A tool call result was written */
+		TOOL_RESULT,
+		/** A plan (root or sub-plan) completed */
+		PLAN_COMPLETED,
+		/**
+		 * The requested resume point is no longer buffered, the client should reload the
+		 * full tree from /api/executor/details/{planId}
+		 */
+		RESYNC_REQUIRED
+
+	}
+
+	// Sequence number within the root plan stream, assigned on publication
+	private long sequence;
+
+	private DeltaType type;
+
+	private String rootPlanId;
+
+	private String currentPlanId;
+
+	private String parentPlanId;
+
+	private String stepId;
+
+	private String toolCallId;
+
+	private String title;
+
+	// Step IDs of a started plan, used to route later step level deltas
+	private List<String> stepIds;
+
+	private ExecutionStatus status;
+
+	private ThinkActRecord thinkActRecord;
+
+	private ActToolInfo actToolInfo;
+
+	private String result;
+
+	private String errorMessage;
+
+	private long timestamp;
+
+	public PlanExecutionDelta() {
+	}
+
+	public PlanExecutionDelta(DeltaType type) {
+		this.type = type;
+		this.timestamp = System.currentTimeMillis();
+	}
+
+	public long getSequence() {
+		return sequence;
+	}
+
+	public void setSequence(long sequence) {
+		this.sequence = sequence;
+	}
+
+	public DeltaType getType() {
+		return type;
+	}
+
+	public void setType(DeltaType type) {
+		this.type = type;
+	}
+
+	public String getRootPlanId() {
+		return rootPlanId;
+	}
+
+	public void setRootPlanId(String rootPlanId) {
+		this.rootPlanId = rootPlanId;
+	}
+
+	public String getCurrentPlanId() {
+		return currentPlanId;
+	}
+
+	public void setCurrentPlanId(String currentPlanId) {
+		this.currentPlanId = currentPlanId;
+	}
+
+	public String getParentPlanId() {
+		return parentPlanId;
+	}
+
+	public void setParentPlanId(String parentPlanId) {
+		this.parentPlanId = parentPlanId;
+	}
+
+	public String getStepId() {
+		return stepId;
+	}
+
+	public void setStepId(String stepId) {
+		this.stepId = stepId;
+	}
+
+	public String getToolCallId() {
+		return toolCallId;
+	}
+
+	public void setToolCallId(String toolCallId) {
+		this.toolCallId = toolCallId;
+	}
+
+	public String getTitle() {
+		return title;
+	}
+
+	public void setTitle(String title) {
+		this.title = title;
+	}
+
+	public List<String> getStepIds() {
+		return stepIds;
+	}
+
+	public void setStepIds(List<String> stepIds) {
+		this.stepIds = stepIds;
+	}
+
+	public ExecutionStatus getStatus() {
+		return status;
+	}
+
+	public void setStatus(ExecutionStatus status) {
+		this.status = status;
+	}
+
+	public ThinkActRecord getThinkActRecord() {
+		return thinkActRecord;
+	}
+
+	public void setThinkActRecord(ThinkActRecord thinkActRecord) {
+		this.thinkActRecord = thinkActRecord;
+	}
+
+	public ActToolInfo getActToolInfo() {
+		return actToolInfo;
+	}
+
+	public void setActToolInfo(ActToolInfo actToolInfo) {
+		this.actToolInfo = actToolInfo;
+	}
+
+	public String getResult() {
+		return result;
+	}
+
+	public void setResult(String result) {
+		this.result = result;
+	}
+
+	public String getErrorMessage() {
+		return errorMessage;
+	}
+
+	public void setErrorMessage(String errorMessage) {
+		this.errorMessage = errorMessage;
+	}
+
+	public long getTimestamp() {
+		return timestamp;
+	}
+
+	public void setTimestamp(long timestamp) {
+		this.timestamp = timestamp;
+	}
+
+	@Override
+	public String toString() {
+		return "PlanExecutionDelta{sequence=" + sequence + ", type=" + type + ", rootPlanId='" + rootPlanId
+				+ "', currentPlanId='" + currentPlanId + "', stepId='" + stepId + "', toolCallId='" + toolCallId + "'}";
+	}
+
+}
@@ -16,10 +16,15 @@
 package com.alibaba.cloud.ai.lynxe.recorder.repository;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import com.alibaba.cloud.ai.lynxe.recorder.entity.po.ActToolInfoEntity;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -30,6 +35,11 @@ public interface ActToolInfoRepository extends JpaRepository<ActToolInfoEntity,
 	 */
 	Optional<ActToolInfoEntity> findByToolCallId(String toolCallId);
 
+	/**
+	 * Find ActToolInfoEntity records by a set of tool call IDs
+	 */
+	List<ActToolInfoEntity> findByToolCallIdIn(Collection<String> toolCallIds);
+
 	/**
 	 * Check if ActToolInfoEntity exists by tool call ID
 	 */
@@ -40,4 +50,13 @@ public interface ActToolInfoRepository extends JpaRepository<ActToolInfoEntity,
 	 */
 	void deleteByToolCallId(String toolCallId);
 
+	/**
+	 * Update the non-null fields of an ActToolInfoEntity without loading it
+	 * @return Number of updated rows
+	 */
+	@Modifying
+	@Query("UPDATE ActToolInfoEntity a SET a.name = COALESCE(:name, a.name), a.parameters = COALESCE(:parameters, a.parameters), a.result = COALESCE(:result, a.result) WHERE a.id = :id")
+	int updateById(@Param("id") Long id, @Param("name") String name, @Param("parameters") String parameters,
+			@Param("result") String result);
+
 }
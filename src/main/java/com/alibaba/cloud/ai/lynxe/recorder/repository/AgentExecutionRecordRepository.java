@@ -16,6 +16,9 @@
 package com.alibaba.cloud.ai.lynxe.recorder.repository;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import com.alibaba.cloud.ai.lynxe.recorder.entity.po.AgentExecutionRecordEntity;
@@ -40,4 +43,12 @@ public interface AgentExecutionRecordRepository extends JpaRepository<AgentExecu
 	 */
 	void deleteByStepId(String stepId);
 
+	/**
+	 * Set the current step of an agent execution to its number of think-act records, as
+	 * done when a record is added to thinkActSteps
+	 */
+	@Modifying
+	@Query("UPDATE AgentExecutionRecordEntity a SET a.currentStep = (SELECT COUNT(t) FROM ThinkActRecordEntity t WHERE t.parentExecutionId = :id) WHERE a.id = :id")
+	int updateCurrentStepToThinkActCount(@Param("id") Long id);
+
 }
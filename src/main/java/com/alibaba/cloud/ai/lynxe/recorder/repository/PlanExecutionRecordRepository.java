@@ -16,6 +16,8 @@
 package com.alibaba.cloud.ai.lynxe.recorder.repository;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import com.alibaba.cloud.ai.lynxe.recorder.entity.po.PlanExecutionRecordEntity;
@@ -41,6 +43,13 @@ public interface PlanExecutionRecordRepository extends JpaRepository<PlanExecuti
 	 */
 	List<PlanExecutionRecordEntity> findByRootPlanId(String rootPlanId);
 
+	/**
+	 * Find all plan execution records by root plan ID with eagerly fetched agent
+	 * execution records, loading the whole plan level of a tree in a single query
+	 */
+	@Query("SELECT DISTINCT p FROM PlanExecutionRecordEntity p LEFT JOIN FETCH p.agentExecutionSequence a WHERE p.rootPlanId = :rootPlanId ORDER BY p.id, a.id")
+	List<PlanExecutionRecordEntity> findByRootPlanIdWithAgentExecutions(@Param("rootPlanId") String rootPlanId);
+
 	/**
 	 * Check if a plan execution record exists by current plan ID
 	 */
@@ -15,6 +15,7 @@
  */
 package com.alibaba.cloud.ai.lynxe.recorder.repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -51,4 +52,12 @@ public interface ThinkActRecordRepository extends JpaRepository<ThinkActRecordEn
 	List<ThinkActRecordEntity> findByParentExecutionIdWithActToolInfo(
 			@Param("parentExecutionId") Long parentExecutionId);
 
+	/**
+	 * Find think-act records of several agent executions with eagerly fetched
+	 * actToolInfoList, ordered by record ID
+	 */
+	@Query("SELECT DISTINCT t FROM ThinkActRecordEntity t LEFT JOIN FETCH t.actToolInfoList a WHERE t.parentExecutionId IN :parentExecutionIds ORDER BY t.id, a.id")
+	List<ThinkActRecordEntity> findByParentExecutionIdInWithActToolInfo(
+			@Param("parentExecutionIds") Collection<Long> parentExecutionIds);
+
 }
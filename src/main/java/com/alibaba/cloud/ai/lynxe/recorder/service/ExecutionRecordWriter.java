@@ -0,0 +1,314 @@
+/*
+ * Copyright 2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.lynxe.recorder.service;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.google.common.util.concurrent.Uninterruptibles;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Write-behind queue for execution records. Writes submitted by the recorder are taken
+ * off the agent thread and run by a single writer thread, several per transaction, in
+ * submission order; so records of a plan are always written in the order they were
+ * recorded.
+ *
+ * The queue is bounded: when it is full, submitting blocks until the writer catches up.
+ * {@link #flush()} waits until everything submitted before it is committed, and the queue
+ * is drained on shutdown.
+ */
+@Component
+public class ExecutionRecordWriter {
+
+	private static final Logger log = LoggerFactory.getLogger(ExecutionRecordWriter.class);
+
+	private static final long FLUSH_TIMEOUT_SECONDS = 30;
+
+	/**
+	 * A queued write
+	 */
+	interface WriteTask {
+
+		/**
+		 * Run the write inside the batch transaction. Called again in a transaction of
+		 * its own when the batch fails, so entities must be created here and not reused.
+		 */
+		void write();
+
+		/**
+		 * Called once the write is committed, e.g. to publish events or remember
+		 * generated IDs
+		 */
+		default void afterCommit() {
+		}
+
+	}
+
+	/**
+	 * Completes once all writes queued before it are done
+	 */
+	private static class FlushBarrier implements WriteTask {
+
+		private final CompletableFuture<Void> done = new CompletableFuture<>();
+
+		@Override
+		public void write() {
+		}
+
+		@Override
+		public void afterCommit() {
+			done.complete(null);
+		}
+
+	}
+
+	private final TransactionTemplate transactionTemplate;
+
+	private final boolean enabled;
+
+	private final int batchSize;
+
+	private final BlockingQueue<WriteTask> queue;
+
+	private final Thread writerThread;
+
+	private volatile boolean running = true;
+
+	// Submitted writes not completed yet, barriers excluded
+	private final AtomicInteger pending = new AtomicInteger();
+
+	private final AtomicLong submitted = new AtomicLong();
+
+	private final AtomicLong written = new AtomicLong();
+
+	private final AtomicLong failed = new AtomicLong();
+
+	private final AtomicLong batches = new AtomicLong();
+
+	private final AtomicLong retriedBatches = new AtomicLong();
+
+	private final AtomicLong blockedSubmits = new AtomicLong();
+
+	private final AtomicLong flushes = new AtomicLong();
+
+	private final AtomicLong totalBatchMillis = new AtomicLong();
+
+	/**
+	 * @param transactionManager Transaction manager of the record repositories
+	 * @param enabled Whether writes are queued; when disabled they run on the calling
+	 * thread
+	 * @param queueCapacity Maximum number of queued writes before submitting blocks
+	 * @param batchSize Maximum number of writes per transaction
+	 */
+	@Autowired
+	public ExecutionRecordWriter(PlatformTransactionManager transactionManager,
+			@Value("${lynxe.recorder.write-behind.enabled:true}") boolean enabled,
+			@Value("${lynxe.recorder.write-behind.queue-capacity:10000}") int queueCapacity,
+			@Value("${lynxe.recorder.write-behind.batch-size:200}") int batchSize) {
+		this.transactionTemplate = new TransactionTemplate(transactionManager);
+		this.enabled = enabled;
+		this.batchSize = Math.max(1, batchSize);
+		this.queue = new ArrayBlockingQueue<>(Math.max(1, queueCapacity));
+		this.writerThread = new Thread(this::drainLoop, "execution-record-writer");
+		this.writerThread.setDaemon(true);
+		if (enabled) {
+			this.writerThread.start();
+		}
+		log.info("Execution record write-behind {} (queue capacity: {}, batch size: {})",
+				enabled ? "enabled" : "disabled", queueCapacity, this.batchSize);
+	}
+
+	/**
+	 * Queue a write; blocks while the queue is full
+	 * @param task Write to run
+	 */
+	void submit(WriteTask task) {
+		submitted.incrementAndGet();
+		pending.incrementAndGet();
+		if (!enabled || !running || Thread.currentThread() == writerThread) {
+			runBatch(List.of(task));
+			return;
+		}
+		if (!queue.offer(task)) {
+			// Backpressure: the agent waits for the writer instead of dropping records
+			blockedSubmits.incrementAndGet();
+			Uninterruptibles.putUninterruptibly(queue, task);
+		}
+	}
+
+	/**
+	 * Wait until all writes submitted before this call are committed. Returns right away
+	 * when nothing is pending.
+	 */
+	public void flush() {
+		if (pending.get() == 0 || !enabled || !running || Thread.currentThread() == writerThread) {
+			return;
+		}
+		flushes.incrementAndGet();
+		FlushBarrier barrier = new FlushBarrier();
+		Uninterruptibles.putUninterruptibly(queue, barrier);
+		try {
+			Uninterruptibles.getUninterruptibly(barrier.done, FLUSH_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+		}
+		catch (TimeoutException e) {
+			log.warn("Execution record flush timed out after {}s with {} writes pending", FLUSH_TIMEOUT_SECONDS,
+					pending.get());
+		}
+		catch (Exception e) {
+			log.warn("Execution record flush failed", e);
+		}
+	}
+
+	/**
+	 * @return Queue depth and write counters
+	 */
+	public Map<String, Object> getMetrics() {
+		long batchCount = batches.get();
+		Map<String, Object> metrics = new LinkedHashMap<>();
+		metrics.put("enabled", enabled);
+		metrics.put("queued", queue.size());
+		metrics.put("pending", pending.get());
+		metrics.put("remainingCapacity", queue.remainingCapacity());
+		metrics.put("submitted", submitted.get());
+		metrics.put("written", written.get());
+		metrics.put("failed", failed.get());
+		metrics.put("batches", batchCount);
+		metrics.put("retriedBatches", retriedBatches.get());
+		metrics.put("averageBatchSize", batchCount == 0 ? 0.0 : (double) written.get() / batchCount);
+		metrics.put("averageBatchMillis", batchCount == 0 ? 0 : totalBatchMillis.get() / batchCount);
+		metrics.put("blockedSubmits", blockedSubmits.get());
+		metrics.put("flushes", flushes.get());
+		return metrics;
+	}
+
+	/**
+	 * Write everything still queued and stop the writer thread
+	 */
+	@PreDestroy
+	public void shutdown() {
+		if (!running) {
+			return;
+		}
+		// Not interrupted: an interrupt during a write can close the database file
+		// channel of embedded databases
+		running = false;
+		try {
+			writerThread.join(TimeUnit.SECONDS.toMillis(FLUSH_TIMEOUT_SECONDS));
+		}
+		catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		if (pending.get() > 0) {
+			log.warn("Execution record writer stopped with {} writes pending", pending.get());
+		}
+	}
+
+	private void drainLoop() {
+		List<WriteTask> batch = new ArrayList<>(batchSize);
+		while (running || !queue.isEmpty()) {
+			try {
+				if (running) {
+					WriteTask first = queue.poll(1, TimeUnit.SECONDS);
+					if (first == null) {
+						continue;
+					}
+					batch.add(first);
+				}
+				queue.drainTo(batch, batchSize - batch.size());
+				runBatch(batch);
+			}
+			catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				return;
+			}
+			catch (Exception e) {
+				log.error("Unexpected error in execution record writer", e);
+			}
+			finally {
+				batch.clear();
+			}
+		}
+	}
+
+	/**
+	 * Run writes in one transaction, falling back to one transaction per write so that a
+	 * single bad record does not lose the others
+	 */
+	private void runBatch(List<WriteTask> batch) {
+		if (batch.isEmpty()) {
+			return;
+		}
+		long start = System.nanoTime();
+		try {
+			transactionTemplate.executeWithoutResult(status -> batch.forEach(WriteTask::write));
+			batch.forEach(this::complete);
+		}
+		catch (Exception e) {
+			retriedBatches.incrementAndGet();
+			log.warn("Batch of {} execution record writes failed, retrying one by one", batch.size(), e);
+			for (WriteTask task : batch) {
+				try {
+					transactionTemplate.executeWithoutResult(status -> task.write());
+					complete(task);
+				}
+				catch (Exception taskException) {
+					log.error("Failed to write execution record", taskException);
+					countDone(task, false);
+				}
+			}
+		}
+		batches.incrementAndGet();
+		totalBatchMillis.addAndGet((System.nanoTime() - start) / 1_000_000);
+	}
+
+	private void complete(WriteTask task) {
+		try {
+			task.afterCommit();
+		}
+		catch (Exception e) {
+			log.warn("Execution record post-commit action failed", e);
+		}
+		countDone(task, true);
+	}
+
+	private void countDone(WriteTask task, boolean success) {
+		if (task instanceof FlushBarrier) {
+			return;
+		}
+		(success ? written : failed).incrementAndGet();
+		pending.decrementAndGet();
+	}
+
+}
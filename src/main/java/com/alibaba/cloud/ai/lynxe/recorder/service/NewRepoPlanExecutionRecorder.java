@@ -19,14 +19,20 @@ package com.alibaba.cloud.ai.lynxe.recorder.service;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.TimeUnit;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import com.alibaba.cloud.ai.lynxe.agent.AgentState;
+import com.alibaba.cloud.ai.lynxe.event.LynxeEventPublisher;
+import com.alibaba.cloud.ai.lynxe.event.PlanExecutionUpdateEvent;
 import com.alibaba.cloud.ai.lynxe.recorder.entity.po.ActToolInfoEntity;
 import com.alibaba.cloud.ai.lynxe.recorder.entity.po.AgentExecutionRecordEntity;
 import com.alibaba.cloud.ai.lynxe.recorder.entity.po.ExecutionStatusEntity;
@@ -35,12 +41,16 @@ import com.alibaba.cloud.ai.lynxe.recorder.entity.po.ThinkActRecordEntity;
 import com.alibaba.cloud.ai.lynxe.recorder.entity.vo.ActToolInfo;
 import com.alibaba.cloud.ai.lynxe.recorder.entity.vo.AgentExecutionRecord;
 import com.alibaba.cloud.ai.lynxe.recorder.entity.vo.ExecutionStatus;
+import com.alibaba.cloud.ai.lynxe.recorder.entity.vo.PlanExecutionDelta;
+import com.alibaba.cloud.ai.lynxe.recorder.entity.vo.PlanExecutionDelta.DeltaType;
 import com.alibaba.cloud.ai.lynxe.recorder.entity.vo.ThinkActRecord;
 import com.alibaba.cloud.ai.lynxe.recorder.repository.ActToolInfoRepository;
 import com.alibaba.cloud.ai.lynxe.recorder.repository.AgentExecutionRecordRepository;
 import com.alibaba.cloud.ai.lynxe.recorder.repository.PlanExecutionRecordRepository;
 import com.alibaba.cloud.ai.lynxe.recorder.repository.ThinkActRecordRepository;
 import com.alibaba.cloud.ai.lynxe.runtime.entity.vo.ExecutionStep;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 
 import jakarta.annotation.Resource;
 
@@ -59,8 +69,26 @@ public class NewRepoPlanExecutionRecorder implements PlanExecutionRecorder {
 	@Resource
 	private ActToolInfoRepository actToolInfoRepository;
 
+	@Resource
+	private LynxeEventPublisher lynxeEventPublisher;
+
+	@Resource
+	private ExecutionRecordWriter executionRecordWriter;
+
 	private static final Logger logger = LoggerFactory.getLogger(NewRepoPlanExecutionRecorder.class);
 
+	// Record IDs remembered by the writer so that think-act records and tool results are
+	// written without looking up their parent rows each time
+	private final Cache<String, Long> agentRecordIdsByStepId = CacheBuilder.newBuilder()
+		.maximumSize(10000)
+		.expireAfterAccess(1, TimeUnit.HOURS)
+		.build();
+
+	private final Cache<String, Long> actToolInfoIdsByToolCallId = CacheBuilder.newBuilder()
+		.maximumSize(10000)
+		.expireAfterAccess(1, TimeUnit.HOURS)
+		.build();
+
 	/**
 	 * Record plan execution start with hierarchy information.
 	 * @param currentPlanId The unique identifier for the current plan
@@ -76,6 +104,9 @@ public class NewRepoPlanExecutionRecorder implements PlanExecutionRecorder {
 	public Long recordPlanExecutionStart(String currentPlanId, String title, String userRequset,
 			List<ExecutionStep> executionSteps, String parentPlanId, String rootPlanId, String toolcallId) {
 		try {
+			// Sub-plans link to the tool call that started them
+			executionRecordWriter.flush();
+
 			// Check if plan already exists
 			Optional<PlanExecutionRecordEntity> existingPlanOpt = planExecutionRecordRepository
 				.findByCurrentPlanId(currentPlanId);
@@ -144,6 +175,17 @@ public class NewRepoPlanExecutionRecorder implements PlanExecutionRecorder {
 						currentPlanId);
 			}
 
+			PlanExecutionDelta delta = new PlanExecutionDelta(DeltaType.PLAN_STARTED);
+			delta.setCurrentPlanId(currentPlanId);
+			delta.setRootPlanId(rootPlanId);
+			delta.setParentPlanId(parentPlanId);
+			delta.setToolCallId(toolcallId);
+			delta.setTitle(title);
+			if (executionSteps != null) {
+				delta.setStepIds(executionSteps.stream().map(ExecutionStep::getStepId).toList());
+			}
+			publishDelta(delta);
+
 			logger.info("Successfully saved plan execution record for ID: {} with {} steps", currentPlanId,
 					executionSteps != null ? executionSteps.size() : 0);
 			return savedEntity.getId();
@@ -296,6 +338,7 @@ public class NewRepoPlanExecutionRecorder implements PlanExecutionRecorder {
 				logger.warn("ExecutionStep, stepId, or currentPlanId is null, skipping step start recording");
 				return;
 			}
+			executionRecordWriter.flush();
 
 			// 1. Query by stepId in ExecutionStep
 			Optional<AgentExecutionRecordEntity> agentRecordOpt = agentExecutionRecordRepository
@@ -327,6 +370,8 @@ public class NewRepoPlanExecutionRecorder implements PlanExecutionRecorder {
 			// Save the updated entity
 			agentExecutionRecordRepository.save(agentRecord);
 
+			publishStepDelta(DeltaType.STEP_STARTED, agentRecord, currentPlanId);
+
 			logger.info("Successfully recorded step start for stepId: {}, planId: {}, status: RUNNING",
 					step.getStepId(), currentPlanId);
 
@@ -344,6 +389,7 @@ public class NewRepoPlanExecutionRecorder implements PlanExecutionRecorder {
 				logger.warn("ExecutionStep, stepId, or currentPlanId is null, skipping step end recording");
 				return;
 			}
+			executionRecordWriter.flush();
 
 			// 1. Query by stepId in ExecutionStep
 			Optional<AgentExecutionRecordEntity> agentRecordOpt = agentExecutionRecordRepository
@@ -375,6 +421,8 @@ public class NewRepoPlanExecutionRecorder implements PlanExecutionRecorder {
 			// Save the updated entity
 			agentExecutionRecordRepository.save(agentRecord);
 
+			publishStepDelta(DeltaType.STEP_FINISHED, agentRecord, currentPlanId);
+
 			logger.info("Successfully recorded step end for stepId: {}, planId: {}, status: FINISHED", step.getStepId(),
 					currentPlanId);
 
@@ -386,138 +434,187 @@ public class NewRepoPlanExecutionRecorder implements PlanExecutionRecorder {
 	}
 
 	@Override
-	@Transactional
 	public Long recordThinkingAndAction(ExecutionStep step, ThinkActRecordParams params) {
-		try {
-			if (step == null || step.getStepId() == null || params == null) {
-				logger.warn(
-						"ExecutionStep, stepId, or ThinkActRecordParams is null, skipping thinking and action recording");
-				return null;
-			}
-
-			// 1. Query by stepId in ExecutionStep to get the agent execution record
-			Optional<AgentExecutionRecordEntity> agentRecordOpt = agentExecutionRecordRepository
-				.findByStepId(step.getStepId());
+		if (step == null || step.getStepId() == null || params == null) {
+			logger
+				.warn("ExecutionStep, stepId, or ThinkActRecordParams is null, skipping thinking and action recording");
+			return null;
+		}
+		String stepId = step.getStepId();
+		// The agent fills in tool results after this call, so record the current values
+		List<ActToolParam> actToolParams = copyActToolParams(params.getActToolInfoList());
 
-			if (!agentRecordOpt.isPresent()) {
-				logger.error("Agent execution record not found for stepId: {}", step.getStepId());
-				return null;
-			}
+		executionRecordWriter.submit(new ExecutionRecordWriter.WriteTask() {
 
-			// 2. Get the agent execution record entity
-			AgentExecutionRecordEntity agentRecord = agentRecordOpt.get();
-			logger.debug("Found existing AgentExecutionRecordEntity for stepId: {}", step.getStepId());
+			private ThinkActRecordEntity savedThinkActRecord;
 
-			// 3. Create new ThinkActRecordEntity
-			ThinkActRecordEntity thinkActRecord = new ThinkActRecordEntity();
-			thinkActRecord.setParentExecutionId(agentRecord.getId());
-			thinkActRecord.setThinkActId(params.getThinkActId());
-			thinkActRecord.setThinkInput(params.getThinkInput());
-			thinkActRecord.setThinkOutput(params.getThinkOutput());
-			thinkActRecord.setErrorMessage(params.getErrorMessage());
-			thinkActRecord.setInputCharCount(params.getInputCharCount());
-			thinkActRecord.setOutputCharCount(params.getOutputCharCount());
-			thinkActRecord.setModelContextLimit(params.getModelContextLimit());
-
-			// Convert ActToolParam to ActToolInfoEntity and set the list
-			if (params.getActToolInfoList() != null && !params.getActToolInfoList().isEmpty()) {
-				List<ActToolInfoEntity> actToolInfoEntities = params.getActToolInfoList()
-					.stream()
-					.map(this::convertToActToolInfoEntity)
-					.collect(java.util.stream.Collectors.toList());
-				thinkActRecord.setActToolInfoList(actToolInfoEntities);
-			}
-
-			// 4. Save the think-act record
-			ThinkActRecordEntity savedThinkActRecord = thinkActRecordRepository.save(thinkActRecord);
-
-			// 5. Add the think-act record to the agent execution record's list to
-			// maintain the relationship
-			agentRecord.addThinkActStep(savedThinkActRecord);
-			agentExecutionRecordRepository.save(agentRecord);
+			@Override
+			public void write() {
+				savedThinkActRecord = writeThinkActRecord(stepId, params, actToolParams);
+			}
 
-			logger.info(
-					"Successfully recorded thinking and action for stepId: {}, thinkActRecordId: {}, added to agentRecord.thinkActSteps",
-					step.getStepId(), savedThinkActRecord.getId());
+			@Override
+			public void afterCommit() {
+				if (savedThinkActRecord == null) {
+					return;
+				}
+				if (savedThinkActRecord.getActToolInfoList() != null) {
+					for (ActToolInfoEntity actToolInfo : savedThinkActRecord.getActToolInfoList()) {
+						if (actToolInfo.getToolCallId() != null) {
+							actToolInfoIdsByToolCallId.put(actToolInfo.getToolCallId(), actToolInfo.getId());
+						}
+					}
+				}
+				PlanExecutionDelta delta = new PlanExecutionDelta(DeltaType.THINK_ACT_RECORDED);
+				delta.setStepId(stepId);
+				delta.setThinkActRecord(convertToThinkActRecord(savedThinkActRecord));
+				publishDelta(delta);
+				logger.debug("Recorded thinking and action for stepId: {}, thinkActRecordId: {}", stepId,
+						savedThinkActRecord.getId());
+			}
 
-			return savedThinkActRecord.getId();
+		});
+		return null;
+	}
 
+	/**
+	 * Insert a think-act record with its tool calls and update the step counter of the
+	 * agent execution, without loading its thinkActSteps collection
+	 * @param stepId Step the record belongs to
+	 * @param params Recorded thinking and action
+	 * @param actToolParams Tool calls as they were when recorded
+	 * @return Saved record, or null if the agent execution record does not exist
+	 */
+	private ThinkActRecordEntity writeThinkActRecord(String stepId, ThinkActRecordParams params,
+			List<ActToolParam> actToolParams) {
+		Long agentRecordId = agentRecordIdsByStepId.getIfPresent(stepId);
+		if (agentRecordId == null) {
+			Optional<AgentExecutionRecordEntity> agentRecordOpt = agentExecutionRecordRepository.findByStepId(stepId);
+			if (!agentRecordOpt.isPresent()) {
+				logger.error("Agent execution record not found for stepId: {}", stepId);
+				return null;
+			}
+			agentRecordId = agentRecordOpt.get().getId();
+			agentRecordIdsByStepId.put(stepId, agentRecordId);
 		}
-		catch (Exception e) {
-			logger.error("Failed to record thinking and action for stepId: {}",
-					step != null ? step.getStepId() : "null", e);
-			return null;
+
+		ThinkActRecordEntity thinkActRecord = new ThinkActRecordEntity();
+		thinkActRecord.setParentExecutionId(agentRecordId);
+		thinkActRecord.setAgentExecutionRecordId(agentRecordId);
+		thinkActRecord.setThinkActId(params.getThinkActId());
+		thinkActRecord.setThinkInput(params.getThinkInput());
+		thinkActRecord.setThinkOutput(params.getThinkOutput());
+		thinkActRecord.setErrorMessage(params.getErrorMessage());
+		thinkActRecord.setInputCharCount(params.getInputCharCount());
+		thinkActRecord.setOutputCharCount(params.getOutputCharCount());
+		thinkActRecord.setModelContextLimit(params.getModelContextLimit());
+		if (!actToolParams.isEmpty()) {
+			thinkActRecord.setActToolInfoList(actToolParams.stream()
+				.map(this::convertToActToolInfoEntity)
+				.collect(java.util.stream.Collectors.toList()));
 		}
+
+		ThinkActRecordEntity savedThinkActRecord = thinkActRecordRepository.save(thinkActRecord);
+		agentExecutionRecordRepository.updateCurrentStepToThinkActCount(agentRecordId);
+		return savedThinkActRecord;
 	}
 
 	@Override
 	public void recordActionResult(List<ActToolParam> actToolParamList) {
-		try {
-			if (actToolParamList == null || actToolParamList.isEmpty()) {
-				logger.warn("ActToolParamList is null/empty, skipping action result recording");
-				return;
-			}
-
-			// 1. Get List of ActToolParam
-			logger.debug("Processing {} ActToolParam entries", actToolParamList.size());
-
-			// 2. Find each entity by using toolCallId and refresh with new data
-			for (ActToolParam actToolParam : actToolParamList) {
-				if (actToolParam.getToolCallId() == null) {
-					logger.warn("ActToolParam has null toolCallId, skipping: {}", actToolParam);
-					continue;
-				}
+		if (actToolParamList == null || actToolParamList.isEmpty()) {
+			logger.warn("ActToolParamList is null/empty, skipping action result recording");
+			return;
+		}
+		List<ActToolParam> actToolParams = copyActToolParams(actToolParamList);
 
-				try {
-					// Find existing ActToolInfoEntity by toolCallId
-					Optional<ActToolInfoEntity> existingEntityOpt = actToolInfoRepository
-						.findByToolCallId(actToolParam.getToolCallId());
-
-					if (existingEntityOpt.isPresent()) {
-						// 3. Refresh the entity with new data from ActToolParam
-						ActToolInfoEntity existingEntity = existingEntityOpt.get();
-						logger.debug("Found existing ActToolInfoEntity with toolCallId: {}, updating with new data",
-								actToolParam.getToolCallId());
-
-						// Update fields with new data
-						if (actToolParam.getName() != null) {
-							existingEntity.setName(actToolParam.getName());
-						}
-						if (actToolParam.getParameters() != null) {
-							existingEntity.setParameters(actToolParam.getParameters());
-						}
-						if (actToolParam.getResult() != null) {
-							existingEntity.setResult(actToolParam.getResult());
-						}
+		executionRecordWriter.submit(new ExecutionRecordWriter.WriteTask() {
 
-						// Save the updated entity
-						actToolInfoRepository.save(existingEntity);
-						logger.debug("Successfully updated ActToolInfoEntity with toolCallId: {}",
-								actToolParam.getToolCallId());
+			private final List<ActToolInfoEntity> savedEntities = new ArrayList<>();
 
+			@Override
+			public void write() {
+				savedEntities.clear();
+				for (ActToolParam actToolParam : actToolParams) {
+					if (actToolParam.getToolCallId() == null) {
+						logger.warn("ActToolParam has null toolCallId, skipping: {}", actToolParam);
+						continue;
 					}
-					else {
-						logger.warn("No ActToolInfoEntity found with toolCallId: {}, creating new entity",
-								actToolParam.getToolCallId());
-
-						// Create new entity if not found
-						ActToolInfoEntity newEntity = convertToActToolInfoEntity(actToolParam);
-						actToolInfoRepository.save(newEntity);
-						logger.debug("Created new ActToolInfoEntity with toolCallId: {}", actToolParam.getToolCallId());
-					}
-
+					savedEntities.add(writeActionResult(actToolParam));
 				}
-				catch (Exception e) {
-					logger.error("Failed to process ActToolParam with toolCallId: {}", actToolParam.getToolCallId(), e);
+			}
+
+			@Override
+			public void afterCommit() {
+				for (ActToolInfoEntity entity : savedEntities) {
+					if (entity.getId() != null) {
+						actToolInfoIdsByToolCallId.put(entity.getToolCallId(), entity.getId());
+					}
+					publishToolResultDelta(entity);
 				}
+				logger.debug("Processed action results, processed {} tools", savedEntities.size());
 			}
 
-			logger.info("Successfully processed action results, processed {} tools", actToolParamList.size());
+		});
+	}
 
+	/**
+	 * Update the tool call recorded with the think-act record, or create it if it was not
+	 * recorded
+	 * @param actToolParam Tool call with its result
+	 * @return Entity holding the values the delta is published with
+	 */
+	private ActToolInfoEntity writeActionResult(ActToolParam actToolParam) {
+		Long id = actToolInfoIdsByToolCallId.getIfPresent(actToolParam.getToolCallId());
+		if (id != null && actToolInfoRepository.updateById(id, actToolParam.getName(), actToolParam.getParameters(),
+				actToolParam.getResult()) > 0) {
+			// Updated in place; the delta carries the values just written
+			ActToolInfoEntity updated = convertToActToolInfoEntity(actToolParam);
+			updated.setId(id);
+			return updated;
 		}
-		catch (Exception e) {
-			logger.error("Failed to record action result", e);
+
+		Optional<ActToolInfoEntity> existingEntityOpt = actToolInfoRepository
+			.findByToolCallId(actToolParam.getToolCallId());
+		if (existingEntityOpt.isPresent()) {
+			ActToolInfoEntity existingEntity = existingEntityOpt.get();
+			if (actToolParam.getName() != null) {
+				existingEntity.setName(actToolParam.getName());
+			}
+			if (actToolParam.getParameters() != null) {
+				existingEntity.setParameters(actToolParam.getParameters());
+			}
+			if (actToolParam.getResult() != null) {
+				existingEntity.setResult(actToolParam.getResult());
+			}
+			return actToolInfoRepository.save(existingEntity);
 		}
+
+		logger.warn("No ActToolInfoEntity found with toolCallId: {}, creating new entity",
+				actToolParam.getToolCallId());
+		return actToolInfoRepository.save(convertToActToolInfoEntity(actToolParam));
+	}
+
+	/**
+	 * Copy tool params so queued writes are not affected by later changes
+	 * @param actToolParams Params to copy, may be null
+	 * @return Copied params
+	 */
+	private List<ActToolParam> copyActToolParams(List<ActToolParam> actToolParams) {
+		List<ActToolParam> copies = new ArrayList<>();
+		if (actToolParams != null) {
+			for (ActToolParam actToolParam : actToolParams) {
+				copies.add(new ActToolParam(actToolParam.getName(), actToolParam.getParameters(),
+						actToolParam.getResult(), actToolParam.getToolCallId()));
+			}
+		}
+		return copies;
+	}
+
+	/**
+	 * @return Counters of the write-behind queue
+	 */
+	public Map<String, Object> getWriteBehindMetrics() {
+		return executionRecordWriter.getMetrics();
 	}
 
 	@Override
@@ -527,6 +624,8 @@ public class NewRepoPlanExecutionRecorder implements PlanExecutionRecorder {
 				logger.warn("ExecutionStep or stepId is null, skipping complete agent execution recording");
 				return;
 			}
+			// Think-act records of the step are written before it is completed
+			executionRecordWriter.flush();
 
 			// 1. Query by stepId in ExecutionStep
 			Optional<AgentExecutionRecordEntity> agentRecordOpt = agentExecutionRecordRepository
@@ -593,6 +692,7 @@ public class NewRepoPlanExecutionRecorder implements PlanExecutionRecorder {
 
 			// Save the updated entity
 			agentExecutionRecordRepository.save(agentRecord);
+			publishStepDelta(DeltaType.STEP_FINISHED, agentRecord, null);
 
 			logger.info("Successfully recorded complete agent execution for stepId: {}, final status: {}",
 					step.getStepId(), agentRecord.getStatus());
@@ -611,6 +711,7 @@ public class NewRepoPlanExecutionRecorder implements PlanExecutionRecorder {
 				logger.warn("currentPlanId is null or empty, skipping plan completion recording");
 				return;
 			}
+			executionRecordWriter.flush();
 
 			// 1. Find existing plan execution record by currentPlanId
 			Optional<PlanExecutionRecordEntity> existingPlanOpt = planExecutionRecordRepository
@@ -636,6 +737,12 @@ public class NewRepoPlanExecutionRecorder implements PlanExecutionRecorder {
 			// 4. Save the updated plan execution record
 			planExecutionRecordRepository.save(planExecutionRecord);
 
+			PlanExecutionDelta delta = new PlanExecutionDelta(DeltaType.PLAN_COMPLETED);
+			delta.setCurrentPlanId(currentPlanId);
+			delta.setRootPlanId(planExecutionRecord.getRootPlanId());
+			delta.setResult(summary);
+			publishDelta(delta);
+
 			logger.info("Successfully recorded plan completion for currentPlanId: {}, completed: {}, endTime: {}",
 					currentPlanId, planExecutionRecord.isCompleted(), planExecutionRecord.getEndTime());
 
@@ -657,6 +764,7 @@ public class NewRepoPlanExecutionRecorder implements PlanExecutionRecorder {
 				logger.warn("StepId is null or empty, cannot fetch agent execution detail");
 				return null;
 			}
+			executionRecordWriter.flush();
 
 			// Find the agent execution record by stepId
 			Optional<AgentExecutionRecordEntity> agentRecordOpt = agentExecutionRecordRepository.findByStepId(stepId);
@@ -712,29 +820,7 @@ public class NewRepoPlanExecutionRecorder implements PlanExecutionRecorder {
 			List<ThinkActRecord> thinkActRecords = new ArrayList<>();
 
 			for (ThinkActRecordEntity entity : thinkActEntities) {
-				ThinkActRecord record = new ThinkActRecord(entity.getParentExecutionId());
-				record.setId(entity.getId());
-				record.setThinkInput(entity.getThinkInput());
-				record.setThinkOutput(entity.getThinkOutput());
-				record.setErrorMessage(entity.getErrorMessage());
-				record.setInputCharCount(entity.getInputCharCount());
-				record.setOutputCharCount(entity.getOutputCharCount());
-				record.setModelContextLimit(entity.getModelContextLimit());
-
-				// Convert ActToolInfoEntity to ActToolInfo if available
-				if (entity.getActToolInfoList() != null && !entity.getActToolInfoList().isEmpty()) {
-					List<ActToolInfo> actToolInfoList = new ArrayList<>();
-					for (ActToolInfoEntity toolInfoEntity : entity.getActToolInfoList()) {
-						ActToolInfo actToolInfo = new ActToolInfo(toolInfoEntity.getName(),
-								toolInfoEntity.getParameters(), toolInfoEntity.getToolCallId());
-						actToolInfo.setResult(toolInfoEntity.getResult());
-						actToolInfoList.add(actToolInfo);
-					}
-					record.setActToolInfoList(actToolInfoList);
-					record.setActionNeeded(true);
-				}
-
-				thinkActRecords.add(record);
+				thinkActRecords.add(convertToThinkActRecord(entity));
 			}
 
 			return thinkActRecords;
@@ -745,6 +831,93 @@ public class NewRepoPlanExecutionRecorder implements PlanExecutionRecorder {
 		}
 	}
 
+	/**
+	 * Convert ThinkActRecordEntity to ThinkActRecord VO object, including
+	 * actToolInfoList.
+	 * @param entity The PO entity to convert
+	 * @return Converted VO object
+	 */
+	private ThinkActRecord convertToThinkActRecord(ThinkActRecordEntity entity) {
+		ThinkActRecord record = new ThinkActRecord(entity.getParentExecutionId());
+		record.setId(entity.getId());
+		record.setThinkInput(entity.getThinkInput());
+		record.setThinkOutput(entity.getThinkOutput());
+		record.setErrorMessage(entity.getErrorMessage());
+		record.setInputCharCount(entity.getInputCharCount());
+		record.setOutputCharCount(entity.getOutputCharCount());
+		record.setModelContextLimit(entity.getModelContextLimit());
+
+		// Convert ActToolInfoEntity to ActToolInfo if available
+		if (entity.getActToolInfoList() != null && !entity.getActToolInfoList().isEmpty()) {
+			List<ActToolInfo> actToolInfoList = new ArrayList<>();
+			for (ActToolInfoEntity toolInfoEntity : entity.getActToolInfoList()) {
+				ActToolInfo actToolInfo = new ActToolInfo(toolInfoEntity.getName(), toolInfoEntity.getParameters(),
+						toolInfoEntity.getToolCallId());
+				actToolInfo.setResult(toolInfoEntity.getResult());
+				actToolInfoList.add(actToolInfo);
+			}
+			record.setActToolInfoList(actToolInfoList);
+			record.setActionNeeded(true);
+		}
+		return record;
+	}
+
+	/**
+	 * Publish a step level delta for the plan execution stream
+	 * @param type Delta type
+	 * @param agentRecord The agent execution record that was written
+	 * @param currentPlanId Current plan ID if known, used for routing
+	 */
+	private void publishStepDelta(DeltaType type, AgentExecutionRecordEntity agentRecord, String currentPlanId) {
+		PlanExecutionDelta delta = new PlanExecutionDelta(type);
+		delta.setCurrentPlanId(currentPlanId);
+		delta.setStepId(agentRecord.getStepId());
+		delta.setStatus(convertToExecutionStatus(agentRecord.getStatus()));
+		delta.setResult(agentRecord.getResult());
+		delta.setErrorMessage(agentRecord.getErrorMessage());
+		publishDelta(delta);
+	}
+
+	private void publishToolResultDelta(ActToolInfoEntity entity) {
+		PlanExecutionDelta delta = new PlanExecutionDelta(DeltaType.TOOL_RESULT);
+		delta.setToolCallId(entity.getToolCallId());
+		ActToolInfo actToolInfo = new ActToolInfo(entity.getName(), entity.getParameters(), entity.getToolCallId());
+		actToolInfo.setResult(entity.getResult());
+		delta.setActToolInfo(actToolInfo);
+		publishDelta(delta);
+	}
+
+	/**
+	 * Publish a delta to stream subscribers. Inside a transaction the delta is published
+	 * only once it is committed, so subscribers that re-read the plan see the recorded
+	 * rows and never a rolled back change. Publication failures never affect recording.
+	 * @param delta The unsequenced delta
+	 */
+	private void publishDelta(PlanExecutionDelta delta) {
+		if (lynxeEventPublisher == null) {
+			return;
+		}
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+				@Override
+				public void afterCommit() {
+					publishDeltaNow(delta);
+				}
+			});
+			return;
+		}
+		publishDeltaNow(delta);
+	}
+
+	private void publishDeltaNow(PlanExecutionDelta delta) {
+		try {
+			lynxeEventPublisher.publish(new PlanExecutionUpdateEvent(delta));
+		}
+		catch (Exception e) {
+			logger.warn("Failed to publish plan execution delta {}", delta, e);
+		}
+	}
+
 	/**
 	 * Convert ExecutionStatusEntity to ExecutionStatus
 	 * @param statusEntity The entity status
@@ -82,9 +82,11 @@ public interface PlanExecutionRecorder {
 	/**
 	 * Interface 1: Record thinking and action execution process. This method handles
 	 * ThinkActRecord creation and thinking process without exposing internal record
-	 * objects.
+	 * objects. The record may be written asynchronously; it is written before the step is
+	 * completed.
 	 * @param params Encapsulated parameters for plan execution
-	 * @return ThinkActRecord ID for subsequent action recording
+	 * @return ThinkActRecord ID for subsequent action recording, or null when the record
+	 * is written asynchronously
 	 */
 	Long recordThinkingAndAction(ExecutionStep step, ThinkActRecordParams params);
 
@@ -0,0 +1,266 @@
+/*
+ * Copyright 2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.lynxe.recorder.service;
+
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import com.alibaba.cloud.ai.lynxe.event.LynxeListener;
+import com.alibaba.cloud.ai.lynxe.event.PlanExecutionUpdateEvent;
+import com.alibaba.cloud.ai.lynxe.recorder.entity.po.PlanExecutionRecordEntity;
+import com.alibaba.cloud.ai.lynxe.recorder.entity.vo.ExecutionStatus;
+import com.alibaba.cloud.ai.lynxe.recorder.entity.vo.PlanExecutionDelta;
+import com.alibaba.cloud.ai.lynxe.recorder.entity.vo.PlanExecutionDelta.DeltaType;
+import com.alibaba.cloud.ai.lynxe.recorder.repository.PlanExecutionRecordRepository;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+
+/**
+ * Push based view of plan execution progress.
+ *
+ * Listens to {@link PlanExecutionUpdateEvent}s published by the recorder, resolves the
+ * root plan each delta belongs to, assigns a per-root-plan sequence number and fans the
+ * delta out to all subscribers of that root plan. Each root plan keeps a bounded replay
+ * buffer so clients can resume from the last sequence they have seen.
+ *
+ * All state is partitioned by root plan: publishing to or subscribing to one plan never
+ * blocks readers of another plan. Streams are only created by published deltas; a
+ * subscriber of a plan without a live stream is answered from the persisted plan record.
+ */
+@Service
+public class PlanExecutionStreamService implements LynxeListener<PlanExecutionUpdateEvent> {
+
+	private static final Logger logger = LoggerFactory.getLogger(PlanExecutionStreamService.class);
+
+	// Number of deltas retained per root plan for resumption
+	private static final int REPLAY_BUFFER_SIZE = 1000;
+
+	// Streams, routing entries and their replay buffers are dropped after this idle time
+	private static final long IDLE_EXPIRE_MINUTES = 30;
+
+	private static final long MAX_ROUTING_ENTRIES = 200_000;
+
+	private final Cache<String, PlanStream> streams = CacheBuilder.newBuilder()
+		.expireAfterAccess(IDLE_EXPIRE_MINUTES, TimeUnit.MINUTES)
+		.build();
+
+	// currentPlanId / stepId / toolCallId -> rootPlanId
+	private final Cache<String, String> planToRoot = newRoutingCache();
+
+	private final Cache<String, String> stepToRoot = newRoutingCache();
+
+	private final Cache<String, String> toolCallToRoot = newRoutingCache();
+
+	private final PlanExecutionRecordRepository planExecutionRecordRepository;
+
+	public PlanExecutionStreamService(PlanExecutionRecordRepository planExecutionRecordRepository) {
+		this.planExecutionRecordRepository = planExecutionRecordRepository;
+	}
+
+	private static Cache<String, String> newRoutingCache() {
+		return CacheBuilder.newBuilder()
+			.expireAfterAccess(IDLE_EXPIRE_MINUTES, TimeUnit.MINUTES)
+			.maximumSize(MAX_ROUTING_ENTRIES)
+			.build();
+	}
+
+	@Override
+	public void onEvent(PlanExecutionUpdateEvent event) {
+		PlanExecutionDelta delta = event.getDelta();
+		if (delta == null || delta.getType() == null) {
+			return;
+		}
+		String rootPlanId = resolveRootPlanId(delta);
+		if (rootPlanId == null) {
+			logger.debug("Cannot resolve root plan for delta {}, skipping stream publication", delta);
+			return;
+		}
+		delta.setRootPlanId(rootPlanId);
+		registerRoutes(delta, rootPlanId);
+		getOrCreateStream(rootPlanId).publish(delta);
+	}
+
+	/**
+	 * Subscribe to the delta stream of a root plan.
+	 * @param rootPlanId Root plan ID
+	 * @param lastSequence Last sequence the client has already seen, or null to receive
+	 * all buffered deltas
+	 * @return Flux of deltas in sequence order; completes when the root plan completes.
+	 * For a plan without a live stream (finished or evicted) a single RESYNC_REQUIRED
+	 * delta is emitted before completing, and an unknown plan completes immediately.
+	 */
+	public Flux<PlanExecutionDelta> subscribe(String rootPlanId, Long lastSequence) {
+		PlanStream stream = streams.getIfPresent(rootPlanId);
+		if (stream != null) {
+			return stream.subscribe(lastSequence);
+		}
+		return Flux.defer(() -> {
+			Optional<PlanExecutionRecordEntity> planRecord = planExecutionRecordRepository
+				.findByCurrentPlanId(rootPlanId);
+			if (planRecord.isEmpty()) {
+				logger.debug("No plan stream or plan record for rootPlanId: {}", rootPlanId);
+				return Flux.<PlanExecutionDelta>empty();
+			}
+			PlanExecutionRecordEntity entity = planRecord.get();
+			if (!entity.isCompleted()) {
+				// Still running but evicted while idle: a new stream carries its next
+				// deltas, the resync makes the client reload what it missed
+				PlanStream liveStream = getOrCreateStream(rootPlanId);
+				return Flux.concat(Flux.just(resyncDelta(entity, ExecutionStatus.RUNNING)), liveStream.subscribe(null));
+			}
+			return Flux.just(resyncDelta(entity, ExecutionStatus.FINISHED));
+		});
+	}
+
+	private static PlanExecutionDelta resyncDelta(PlanExecutionRecordEntity entity, ExecutionStatus status) {
+		PlanExecutionDelta resync = new PlanExecutionDelta(DeltaType.RESYNC_REQUIRED);
+		resync.setRootPlanId(entity.getCurrentPlanId());
+		resync.setCurrentPlanId(entity.getCurrentPlanId());
+		resync.setTitle(entity.getTitle());
+		resync.setStatus(status);
+		return resync;
+	}
+
+	private PlanStream getOrCreateStream(String rootPlanId) {
+		try {
+			return streams.get(rootPlanId, () -> new PlanStream(rootPlanId));
+		}
+		catch (ExecutionException e) {
+			throw new IllegalStateException("Failed to create plan stream for rootPlanId: " + rootPlanId, e);
+		}
+	}
+
+	private String resolveRootPlanId(PlanExecutionDelta delta) {
+		if (delta.getRootPlanId() != null && !delta.getRootPlanId().isEmpty()) {
+			return delta.getRootPlanId();
+		}
+		String rootPlanId = null;
+		if (delta.getCurrentPlanId() != null) {
+			rootPlanId = planToRoot.getIfPresent(delta.getCurrentPlanId());
+		}
+		if (rootPlanId == null && delta.getStepId() != null) {
+			rootPlanId = stepToRoot.getIfPresent(delta.getStepId());
+		}
+		if (rootPlanId == null && delta.getToolCallId() != null) {
+			rootPlanId = toolCallToRoot.getIfPresent(delta.getToolCallId());
+		}
+		if (rootPlanId == null && delta.getType() == DeltaType.PLAN_STARTED) {
+			// A plan without hierarchy information is its own root
+			rootPlanId = delta.getCurrentPlanId();
+		}
+		return rootPlanId;
+	}
+
+	private void registerRoutes(PlanExecutionDelta delta, String rootPlanId) {
+		if (delta.getCurrentPlanId() != null) {
+			planToRoot.put(delta.getCurrentPlanId(), rootPlanId);
+		}
+		if (delta.getStepId() != null) {
+			stepToRoot.put(delta.getStepId(), rootPlanId);
+		}
+		if (delta.getStepIds() != null) {
+			for (String stepId : delta.getStepIds()) {
+				if (stepId != null) {
+					stepToRoot.put(stepId, rootPlanId);
+				}
+			}
+		}
+		if (delta.getToolCallId() != null) {
+			toolCallToRoot.put(delta.getToolCallId(), rootPlanId);
+		}
+		if (delta.getThinkActRecord() != null && delta.getThinkActRecord().getActToolInfoList() != null) {
+			delta.getThinkActRecord().getActToolInfoList().forEach(toolInfo -> {
+				if (toolInfo.getId() != null) {
+					toolCallToRoot.put(toolInfo.getId(), rootPlanId);
+				}
+			});
+		}
+	}
+
+	/**
+	 * Delta stream of a single root plan. Sequence assignment and emission are guarded by
+	 * the stream's own monitor, so ordering is preserved per plan without a global lock.
+	 */
+	private static final class PlanStream {
+
+		private final String rootPlanId;
+
+		private long sequence;
+
+		// Last sequence published before the current sink was created
+		private long sinkStartSequence;
+
+		private Sinks.Many<PlanExecutionDelta> sink;
+
+		private boolean completed;
+
+		PlanStream(String rootPlanId) {
+			this.rootPlanId = rootPlanId;
+			this.sink = newSink();
+		}
+
+		private static Sinks.Many<PlanExecutionDelta> newSink() {
+			return Sinks.many().replay().limit(REPLAY_BUFFER_SIZE);
+		}
+
+		synchronized void publish(PlanExecutionDelta delta) {
+			if (completed) {
+				// The root plan was restarted (e.g. after user input), continue the
+				// sequence on a fresh sink so resumed clients see no gap
+				completed = false;
+				sink = newSink();
+				sinkStartSequence = sequence;
+			}
+			delta.setSequence(++sequence);
+			Sinks.EmitResult result = sink.tryEmitNext(delta);
+			if (result.isFailure()) {
+				logger.warn("Failed to emit delta {} for rootPlanId: {}, result: {}", delta.getSequence(), rootPlanId,
+						result);
+			}
+			if (delta.getType() == DeltaType.PLAN_COMPLETED && rootPlanId.equals(delta.getCurrentPlanId())) {
+				completed = true;
+				sink.tryEmitComplete();
+			}
+		}
+
+		synchronized Flux<PlanExecutionDelta> subscribe(Long lastSequence) {
+			Flux<PlanExecutionDelta> flux = sink.asFlux();
+			if (lastSequence == null) {
+				return flux;
+			}
+			long oldestBuffered = Math.max(sinkStartSequence + 1, sequence - REPLAY_BUFFER_SIZE + 1);
+			Flux<PlanExecutionDelta> resumed = flux.filter(delta -> delta.getSequence() > lastSequence);
+			if (lastSequence + 1 < oldestBuffered || lastSequence > sequence) {
+				// Gap (or a sequence from a previous server instance): client must reload
+				PlanExecutionDelta resync = new PlanExecutionDelta(DeltaType.RESYNC_REQUIRED);
+				resync.setRootPlanId(rootPlanId);
+				resync.setSequence(sequence);
+				return Flux.concat(Flux.just(resync), flux.filter(delta -> delta.getSequence() > resync.getSequence()));
+			}
+			return resumed;
+		}
+
+	}
+
+}
@@ -17,9 +17,16 @@
 package com.alibaba.cloud.ai.lynxe.recorder.service;
 
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 import org.slf4j.Logger;
@@ -51,12 +58,21 @@ import jakarta.annotation.Resource;
  * This service handles: 1. Reading plans by rootPlanId 2. Converting PO entities to VO
  * objects 3. Building hierarchy relationships 4. Simplifying agent execution records
  * (without ThinkActRecord and ActToolInfo details)
+ *
+ * A tree is loaded with a fixed number of set-based queries regardless of its size: one
+ * for all plans with their agent records, one per {@link #MAX_IN_LIST_SIZE} agent records
+ * for think-act records with their tool infos, and at most one more for parent tool calls
+ * that live outside the tree. The toolCallId to parent-execution mapping is then resolved
+ * in memory.
  */
 @Service
 public class PlanHierarchyReaderService {
 
 	private static final Logger logger = LoggerFactory.getLogger(PlanHierarchyReaderService.class);
 
+	// Upper bound of IN-list parameters per query, kept well below database limits
+	static final int MAX_IN_LIST_SIZE = 500;
+
 	@Resource
 	private PlanExecutionRecordRepository planExecutionRecordRepository;
 
@@ -89,20 +105,10 @@ public class PlanHierarchyReaderService {
 				return null;
 			}
 
-			// Step 1: Find the root plan itself
-			// Root plan's currentPlanId should equal rootPlanId
-			Optional<PlanExecutionRecordEntity> rootPlanEntityOpt = planExecutionRecordRepository
-				.findByCurrentPlanId(rootPlanId);
-
-			if (!rootPlanEntityOpt.isPresent()) {
-				logger.debug("Root plan not found for rootPlanId: {}", rootPlanId);
-				return null;
-			}
-
-			// Step 2: Find all plans that have this rootPlanId (including the root plan
-			// itself)
-			// This includes the root plan and all its sub-plans
-			List<PlanExecutionRecordEntity> planEntities = planExecutionRecordRepository.findByRootPlanId(rootPlanId);
+			// Step 1: Find all plans that have this rootPlanId (including the root plan
+			// itself) together with their agent execution records in one query
+			List<PlanExecutionRecordEntity> planEntities = planExecutionRecordRepository
+				.findByRootPlanIdWithAgentExecutions(rootPlanId);
 
 			if (planEntities.isEmpty()) {
 				logger.debug("No plans found for rootPlanId: {}", rootPlanId);
@@ -111,16 +117,20 @@ public class PlanHierarchyReaderService {
 
 			logger.debug("Found {} plans for rootPlanId: {}", planEntities.size(), rootPlanId);
 
-			// Step 3: Convert to VO objects and build hierarchy
+			// Step 2: Load think-act records and tool infos of the whole tree in batches
+			// and index them in memory
+			PlanTreeIndex index = loadPlanTreeIndex(planEntities);
+
+			// Step 3: Convert to VO objects
 			List<PlanExecutionRecord> planRecords = new ArrayList<>();
 
 			for (PlanExecutionRecordEntity planEntity : planEntities) {
-				PlanExecutionRecord planRecord = convertToPlanExecutionRecord(planEntity);
+				PlanExecutionRecord planRecord = convertToPlanExecutionRecord(planEntity, index);
 				planRecords.add(planRecord);
 			}
 
 			// Step 4: Build hierarchy relationships between plans
-			buildHierarchyRelationships(planRecords);
+			buildHierarchyRelationships(planRecords, index);
 
 			// Step 5: Find and return the root plan from the converted records
 			// Root plan's currentPlanId should equal the input rootPlanId
@@ -169,7 +179,8 @@ public class PlanHierarchyReaderService {
 			}
 
 			PlanExecutionRecordEntity planEntity = planEntityOpt.get();
-			PlanExecutionRecord planRecord = convertToPlanExecutionRecord(planEntity);
+			PlanExecutionRecord planRecord = convertToPlanExecutionRecord(planEntity,
+					loadPlanTreeIndex(List.of(planEntity)));
 
 			logger.debug("Successfully converted plan to VO object for currentPlanId: {}", currentPlanId);
 
@@ -182,12 +193,86 @@ public class PlanHierarchyReaderService {
 		}
 	}
 
+	/**
+	 * Load think-act records and tool infos for the given plans with set-based queries
+	 * and index them by agent execution ID and tool call ID.
+	 * @param planEntities Plans whose agent execution records are already loaded
+	 * @return In-memory index of the plan tree
+	 */
+	PlanTreeIndex loadPlanTreeIndex(Collection<PlanExecutionRecordEntity> planEntities) {
+		PlanTreeIndex index = new PlanTreeIndex();
+
+		List<Long> agentExecutionIds = new ArrayList<>();
+		for (PlanExecutionRecordEntity planEntity : planEntities) {
+			if (planEntity.getAgentExecutionSequence() != null) {
+				for (AgentExecutionRecordEntity agentEntity : planEntity.getAgentExecutionSequence()) {
+					if (agentEntity.getId() != null) {
+						agentExecutionIds.add(agentEntity.getId());
+					}
+				}
+			}
+		}
+
+		List<ThinkActRecordEntity> thinkActEntities = queryInBatches(agentExecutionIds,
+				thinkActRecordRepository::findByParentExecutionIdInWithActToolInfo);
+		for (ThinkActRecordEntity thinkActEntity : thinkActEntities) {
+			index.thinkActsByAgentId.computeIfAbsent(thinkActEntity.getParentExecutionId(), id -> new ArrayList<>())
+				.add(thinkActEntity);
+			if (thinkActEntity.getActToolInfoList() != null) {
+				for (ActToolInfoEntity toolInfoEntity : thinkActEntity.getActToolInfoList()) {
+					if (toolInfoEntity.getToolCallId() != null) {
+						index.toolInfoByCallId.putIfAbsent(toolInfoEntity.getToolCallId(), toolInfoEntity);
+						if (thinkActEntity.getParentExecutionId() != null) {
+							index.parentExecutionIdByCallId.putIfAbsent(toolInfoEntity.getToolCallId(),
+									thinkActEntity.getParentExecutionId());
+						}
+					}
+				}
+			}
+		}
+
+		// Parent tool calls are normally made by an agent inside the same tree; only
+		// look up the ones that were not found there
+		Set<String> missingToolCallIds = new LinkedHashSet<>();
+		for (PlanExecutionRecordEntity planEntity : planEntities) {
+			String toolCallId = planEntity.getToolCallId();
+			if (toolCallId != null && !toolCallId.trim().isEmpty() && !index.toolInfoByCallId.containsKey(toolCallId)) {
+				missingToolCallIds.add(toolCallId);
+			}
+		}
+		if (!missingToolCallIds.isEmpty()) {
+			for (ActToolInfoEntity toolInfoEntity : queryInBatches(new ArrayList<>(missingToolCallIds),
+					actToolInfoRepository::findByToolCallIdIn)) {
+				index.toolInfoByCallId.putIfAbsent(toolInfoEntity.getToolCallId(), toolInfoEntity);
+			}
+		}
+
+		logger.debug("Indexed {} think-act records and {} tool calls for {} agent executions", thinkActEntities.size(),
+				index.toolInfoByCallId.size(), agentExecutionIds.size());
+		return index;
+	}
+
+	/**
+	 * Run an IN-list query in chunks of {@link #MAX_IN_LIST_SIZE}.
+	 */
+	private <K, T> List<T> queryInBatches(List<K> keys, Function<Collection<K>, List<T>> query) {
+		if (keys.isEmpty()) {
+			return Collections.emptyList();
+		}
+		List<T> results = new ArrayList<>();
+		for (int from = 0; from < keys.size(); from += MAX_IN_LIST_SIZE) {
+			results.addAll(query.apply(keys.subList(from, Math.min(from + MAX_IN_LIST_SIZE, keys.size()))));
+		}
+		return results;
+	}
+
 	/**
 	 * Convert PlanExecutionRecordEntity to PlanExecutionRecord VO object.
 	 * @param entity The PO entity to convert
+	 * @param index Preloaded think-act records and tool infos of the tree
 	 * @return Converted VO object
 	 */
-	private PlanExecutionRecord convertToPlanExecutionRecord(PlanExecutionRecordEntity entity) {
+	private PlanExecutionRecord convertToPlanExecutionRecord(PlanExecutionRecordEntity entity, PlanTreeIndex index) {
 		PlanExecutionRecord vo = new PlanExecutionRecord();
 
 		// Set basic properties
@@ -212,28 +297,21 @@ public class PlanHierarchyReaderService {
 		if (entity.getAgentExecutionSequence() != null && !entity.getAgentExecutionSequence().isEmpty()) {
 			List<AgentExecutionRecord> agentRecords = entity.getAgentExecutionSequence()
 				.stream()
-				.map(this::convertToAgentExecutionRecord)
+				.map(agentEntity -> convertToAgentExecutionRecord(agentEntity,
+						index.thinkActsByAgentId.getOrDefault(agentEntity.getId(), Collections.emptyList())))
 				.collect(Collectors.toList());
 			vo.setAgentExecutionSequence(agentRecords);
 		}
 
-		// Query parent ActToolInfo by toolCallId for sub-plan detail displaying
+		// Resolve parent ActToolInfo by toolCallId for sub-plan detail displaying
 		if (entity.getToolCallId() != null && !entity.getToolCallId().trim().isEmpty()) {
-			try {
-				Optional<ActToolInfoEntity> actToolInfoEntityOpt = actToolInfoRepository
-					.findByToolCallId(entity.getToolCallId());
-				if (actToolInfoEntityOpt.isPresent()) {
-					ActToolInfoEntity actToolInfoEntity = actToolInfoEntityOpt.get();
-					ActToolInfo parentActToolCall = convertToActToolInfo(actToolInfoEntity);
-					vo.setParentActToolCall(parentActToolCall);
-					logger.debug("Found parent ActToolInfo for toolCallId: {}", entity.getToolCallId());
-				}
-				else {
-					logger.debug("No parent ActToolInfo found for toolCallId: {}", entity.getToolCallId());
-				}
+			ActToolInfoEntity actToolInfoEntity = index.toolInfoByCallId.get(entity.getToolCallId());
+			if (actToolInfoEntity != null) {
+				vo.setParentActToolCall(convertToActToolInfo(actToolInfoEntity));
+				logger.debug("Found parent ActToolInfo for toolCallId: {}", entity.getToolCallId());
 			}
-			catch (Exception e) {
-				logger.error("Failed to query parent ActToolInfo for toolCallId: {}", entity.getToolCallId(), e);
+			else {
+				logger.debug("No parent ActToolInfo found for toolCallId: {}", entity.getToolCallId());
 			}
 		}
 
@@ -243,9 +321,11 @@ public class PlanHierarchyReaderService {
 	/**
 	 * Convert AgentExecutionRecordEntity to AgentExecutionRecord VO object.
 	 * @param entity The PO entity to convert
+	 * @param thinkActEntities Think-act records of this agent execution, ordered by ID
 	 * @return Converted VO object
 	 */
-	private AgentExecutionRecord convertToAgentExecutionRecord(AgentExecutionRecordEntity entity) {
+	private AgentExecutionRecord convertToAgentExecutionRecord(AgentExecutionRecordEntity entity,
+			List<ThinkActRecordEntity> thinkActEntities) {
 		AgentExecutionRecord vo = new AgentExecutionRecord(entity.getStepId(), entity.getAgentName(),
 				entity.getAgentDescription());
 
@@ -294,12 +374,9 @@ public class PlanHierarchyReaderService {
 			vo.setErrorMessage(null);
 		}
 
-		// Fetch ThinkActRecords and set thinkActSteps (including actToolInfoList) on
-		// AgentExecutionRecord
+		// Set thinkActSteps (including actToolInfoList) on AgentExecutionRecord from the
+		// preloaded think-act records
 		try {
-			List<ThinkActRecordEntity> thinkActEntities = thinkActRecordRepository
-				.findByParentExecutionIdWithActToolInfo(entity.getId());
-
 			// Compute latestRoundNumber (count of think-act cycles)
 			vo.setLatestRoundNumber(thinkActEntities != null ? thinkActEntities.size() : 0);
 
@@ -360,128 +437,61 @@ public class PlanHierarchyReaderService {
 	 * method establishes parent-child relationships by populating the
 	 * subPlanExecutionRecords field in AgentExecutionRecord objects.
 	 *
-	 * Hierarchy logic: - For each plan, look through its agent execution sequence - For
-	 * each agent, find sub-plans where parentPlanId = current plan's currentPlanId - This
-	 * creates a tree structure: Root Plan -> Agents -> Sub Plans
+	 * Hierarchy logic: a sub-plan carries the toolCallId that triggered it; the
+	 * ThinkActRecord owning that tool call gives the parentExecutionId, which is the ID
+	 * of the AgentExecutionRecord the sub-plan belongs to. Both lookups are hash index
+	 * lookups on the preloaded tree, so this is linear in the number of plans and agents.
+	 * This creates a tree structure: Root Plan -> Agents -> Sub Plans
 	 * @param planRecords List of plan records to build hierarchy for
+	 * @param index Preloaded think-act records and tool infos of the tree
 	 */
-	private void buildHierarchyRelationships(List<PlanExecutionRecord> planRecords) {
+	private void buildHierarchyRelationships(List<PlanExecutionRecord> planRecords, PlanTreeIndex index) {
 		if (planRecords == null || planRecords.isEmpty()) {
 			return;
 		}
 
-		// Create a map for quick lookup by currentPlanId
-		java.util.Map<String, PlanExecutionRecord> planMap = planRecords.stream()
-			.collect(Collectors.toMap(PlanExecutionRecord::getCurrentPlanId, plan -> plan));
-
-		// Build hierarchy relationships for each plan
+		// Index agent execution records by ID
+		Map<Long, AgentExecutionRecord> agentRecordsById = new HashMap<>();
 		for (PlanExecutionRecord plan : planRecords) {
 			if (plan.getAgentExecutionSequence() != null) {
 				for (AgentExecutionRecord agentRecord : plan.getAgentExecutionSequence()) {
-					// Find sub-plans for this specific agent using enhanced SQL-based
-					// approach
-					List<PlanExecutionRecord> subPlans = findSubPlansForAgent(agentRecord, planMap);
-
-					if (!subPlans.isEmpty()) {
-						agentRecord.setSubPlanExecutionRecords(subPlans);
-						logger.debug("Found {} sub-plans for agent {} (ID: {}) in plan {}", subPlans.size(),
-								agentRecord.getAgentName(), agentRecord.getId(), plan.getCurrentPlanId());
-					}
-					else {
-						logger.debug("No sub-plans found for agent {} (ID: {}) in plan {}", agentRecord.getAgentName(),
-								agentRecord.getId(), plan.getCurrentPlanId());
+					if (agentRecord.getId() != null) {
+						agentRecordsById.put(agentRecord.getId(), agentRecord);
 					}
 				}
 			}
 		}
 
-		logger.debug("Successfully built hierarchy relationships for {} plans", planRecords.size());
-	}
-
-	/**
-	 * Find sub-plans for a specific agent execution record using enhanced SQL-based
-	 * approach.
-	 *
-	 * This method uses the following logic: 1. Query ActToolInfo by toolCallId from
-	 * sub-plans 2. Query ThinkActRecord by ActToolInfo relationship 3. Get
-	 * parentExecutionId from ThinkActRecord 4. Match parentExecutionId with
-	 * AgentExecutionRecord.id in the current plan's agent sequence
-	 * @param agentRecord The agent execution record to find sub-plans for
-	 * @param planMap Map of all plans for quick lookup
-	 * @return List of sub-plans that belong to the specified agent execution record
-	 */
-	private List<PlanExecutionRecord> findSubPlansForAgent(AgentExecutionRecord agentRecord,
-			java.util.Map<String, PlanExecutionRecord> planMap) {
-		if (agentRecord == null || agentRecord.getId() == null) {
-			logger.debug("Agent record or ID is null, returning empty sub-plans list");
-			return new ArrayList<>();
-		}
-		List<PlanExecutionRecord> matchingSubPlans = new ArrayList<>();
-		Long agentExecutionId = agentRecord.getId();
-
-		// Find all sub-plans (plans with non-null toolCallId)
-		List<PlanExecutionRecord> subPlans = planMap.values()
-			.stream()
-			.filter(plan -> plan.getToolCallId() != null && !plan.getToolCallId().trim().isEmpty())
-			.collect(Collectors.toList());
-
-		logger.debug("Found {} sub-plans with toolCallId for agent execution ID: {}", subPlans.size(),
-				agentExecutionId);
-
-		// For each sub-plan, check if it was triggered by this agent
-		for (PlanExecutionRecord subPlan : subPlans) {
-			try {
-				// Step 1: Query ActToolInfo by toolCallId
-				Optional<ActToolInfoEntity> actToolInfoOpt = actToolInfoRepository
-					.findByToolCallId(subPlan.getToolCallId());
-
-				if (!actToolInfoOpt.isPresent()) {
-					logger.debug("No ActToolInfo found for toolCallId: {}", subPlan.getToolCallId());
-					continue;
-				}
-
-				// Step 2: Query ThinkActRecord by ActToolInfo relationship
-				Optional<ThinkActRecordEntity> thinkActRecordOpt = thinkActRecordRepository
-					.findByActToolInfoToolCallId(subPlan.getToolCallId());
-
-				if (!thinkActRecordOpt.isPresent()) {
-					logger.debug("No ThinkActRecord found for toolCallId: {}", subPlan.getToolCallId());
-					continue;
-				}
-
-				// Step 3: Get parentExecutionId from ThinkActRecord
-				ThinkActRecordEntity thinkActRecord = thinkActRecordOpt.get();
-				Long parentExecutionId = thinkActRecord.getParentExecutionId();
-
-				if (parentExecutionId == null) {
-					logger.debug("ThinkActRecord has null parentExecutionId for toolCallId: {}",
-							subPlan.getToolCallId());
-					continue;
-				}
-
-				// Step 4: Match parentExecutionId with AgentExecutionRecord.id
-				if (agentExecutionId.equals(parentExecutionId)) {
-					matchingSubPlans.add(subPlan);
-					logger.debug("Found matching sub-plan {} for agent execution ID: {} via toolCallId: {}",
-							subPlan.getCurrentPlanId(), agentExecutionId, subPlan.getToolCallId());
-				}
-
+		// Attach each sub-plan to the agent execution that issued its tool call
+		Map<Long, List<PlanExecutionRecord>> subPlansByAgentId = new HashMap<>();
+		for (PlanExecutionRecord subPlan : planRecords) {
+			String toolCallId = subPlan.getToolCallId();
+			if (toolCallId == null || toolCallId.trim().isEmpty()) {
+				continue;
 			}
-			catch (Exception e) {
-				logger.error("Error processing sub-plan {} for agent execution ID: {}", subPlan.getCurrentPlanId(),
-						agentExecutionId, e);
+			Long parentExecutionId = index.parentExecutionIdByCallId.get(toolCallId);
+			if (parentExecutionId == null) {
+				logger.debug("No ThinkActRecord found for toolCallId: {}", toolCallId);
+				continue;
+			}
+			if (agentRecordsById.containsKey(parentExecutionId)) {
+				subPlansByAgentId.computeIfAbsent(parentExecutionId, id -> new ArrayList<>()).add(subPlan);
 			}
 		}
 
-		logger.debug("Found {} matching sub-plans for agent execution ID: {}", matchingSubPlans.size(),
-				agentExecutionId);
-
-		// Sort sub-plans by startTime in ascending order (earliest first)
-		// Sub-plans with null startTime will be placed at the end
-		matchingSubPlans.sort(Comparator.comparing(PlanExecutionRecord::getStartTime,
-				Comparator.nullsLast(Comparator.naturalOrder())));
+		for (Map.Entry<Long, List<PlanExecutionRecord>> entry : subPlansByAgentId.entrySet()) {
+			List<PlanExecutionRecord> subPlans = entry.getValue();
+			// Sort sub-plans by startTime in ascending order (earliest first)
+			// Sub-plans with null startTime will be placed at the end
+			subPlans.sort(Comparator.comparing(PlanExecutionRecord::getStartTime,
+					Comparator.nullsLast(Comparator.naturalOrder())));
+			AgentExecutionRecord agentRecord = agentRecordsById.get(entry.getKey());
+			agentRecord.setSubPlanExecutionRecords(subPlans);
+			logger.debug("Found {} sub-plans for agent {} (ID: {})", subPlans.size(), agentRecord.getAgentName(),
+					agentRecord.getId());
+		}
 
-		return matchingSubPlans;
+		logger.debug("Successfully built hierarchy relationships for {} plans", planRecords.size());
 	}
 
 	/**
@@ -524,4 +534,17 @@ public class PlanHierarchyReaderService {
 		return vo;
 	}
 
+	/**
+	 * In-memory index of the think-act records and tool infos of one plan tree.
+	 */
+	static final class PlanTreeIndex {
+
+		private final Map<Long, List<ThinkActRecordEntity>> thinkActsByAgentId = new HashMap<>();
+
+		private final Map<String, ActToolInfoEntity> toolInfoByCallId = new HashMap<>();
+
+		private final Map<String, Long> parentExecutionIdByCallId = new HashMap<>();
+
+	}
+
 }
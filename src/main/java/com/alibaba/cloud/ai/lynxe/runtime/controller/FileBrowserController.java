@@ -43,6 +43,7 @@ import org.springframework.web.bind.annotation.RestController;
 
 import com.alibaba.cloud.ai.lynxe.tool.filesystem.SymbolicLinkDetector;
 import com.alibaba.cloud.ai.lynxe.tool.filesystem.UnifiedDirectoryManager;
+import com.alibaba.cloud.ai.lynxe.tool.filesystem.WorkspaceFileIndexService;
 
 @RestController
 @RequestMapping("/api/file-browser")
@@ -57,6 +58,9 @@ public class FileBrowserController {
 	@Autowired
 	private SymbolicLinkDetector symlinkDetector;
 
+	@Autowired
+	private WorkspaceFileIndexService workspaceFileIndexService;
+
 	/**
 	 * File tree node representation
 	 */
@@ -332,6 +336,15 @@ public class FileBrowserController {
 		}
 	}
 
+	/**
+	 * Get usage counters of the workspace file index used by glob and grep tools
+	 * @return Build times, hit counts and hit rate
+	 */
+	@GetMapping("/index/metrics")
+	public ResponseEntity<Map<String, Object>> getFileIndexMetrics() {
+		return ResponseEntity.ok(workspaceFileIndexService.getMetrics());
+	}
+
 	/**
 	 * Download file
 	 * @param planId The plan ID
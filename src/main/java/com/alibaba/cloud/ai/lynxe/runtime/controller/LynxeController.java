@@ -18,6 +18,7 @@ package com.alibaba.cloud.ai.lynxe.runtime.controller;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
@@ -44,15 +45,18 @@ import org.springframework.core.io.Resource;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.context.request.async.AsyncRequestNotUsableException;
+import org.springframework.web.server.ResponseStatusException;
 import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import com.alibaba.cloud.ai.lynxe.config.LynxeProperties;
@@ -70,9 +74,11 @@ import com.alibaba.cloud.ai.lynxe.planning.service.PlanTemplateConfigService;
 import com.alibaba.cloud.ai.lynxe.planning.service.PlanTemplateService;
 import com.alibaba.cloud.ai.lynxe.recorder.entity.vo.ActToolInfo;
 import com.alibaba.cloud.ai.lynxe.recorder.entity.vo.AgentExecutionRecord;
+import com.alibaba.cloud.ai.lynxe.recorder.entity.vo.PlanExecutionDelta;
 import com.alibaba.cloud.ai.lynxe.recorder.entity.vo.PlanExecutionRecord;
 import com.alibaba.cloud.ai.lynxe.recorder.entity.vo.ThinkActRecord;
 import com.alibaba.cloud.ai.lynxe.recorder.service.NewRepoPlanExecutionRecorder;
+import com.alibaba.cloud.ai.lynxe.recorder.service.PlanExecutionStreamService;
 import com.alibaba.cloud.ai.lynxe.recorder.service.PlanHierarchyReaderService;
 import com.alibaba.cloud.ai.lynxe.runtime.entity.po.RootTaskManagerEntity;
 import com.alibaba.cloud.ai.lynxe.runtime.entity.vo.ExecutionStep;
@@ -104,6 +110,8 @@ public class LynxeController implements LynxeListener<PlanExceptionEvent> {
 
 	private static final Logger logger = LoggerFactory.getLogger(LynxeController.class);
 
+	private static final Duration SSE_HEARTBEAT_INTERVAL = Duration.ofSeconds(15);
+
 	private final ObjectMapper objectMapper;
 
 	private final Cache<String, Throwable> exceptionCache;
@@ -115,6 +123,9 @@ public class LynxeController implements LynxeListener<PlanExceptionEvent> {
 	@Autowired
 	private PlanHierarchyReaderService planHierarchyReaderService;
 
+	@Autowired
+	private PlanExecutionStreamService planExecutionStreamService;
+
 	@Autowired
 	private PlanIdDispatcher planIdDispatcher;
 
@@ -166,6 +177,12 @@ public class LynxeController implements LynxeListener<PlanExceptionEvent> {
 	@Autowired
 	private com.alibaba.cloud.ai.lynxe.tool.filesystem.UnifiedDirectoryManager unifiedDirectoryManager;
 
+	@Autowired
+	private com.alibaba.cloud.ai.lynxe.runtime.executor.ImageRecognitionExecutorPool imageRecognitionExecutorPool;
+
+	@Autowired
+	private com.alibaba.cloud.ai.lynxe.tool.convertToMarkdown.ConversionResultCache conversionResultCache;
+
 	// Store active chat stream subscriptions for cancellation (key: streamId)
 	private final Map<String, Disposable> activeChatStreams = new ConcurrentHashMap<>();
 
@@ -399,15 +416,16 @@ public class LynxeController implements LynxeListener<PlanExceptionEvent> {
 	 * @return JSON representation of execution record overview
 	 */
 	@GetMapping("/details/{planId}")
-	public synchronized ResponseEntity<?> getExecutionDetails(@PathVariable("planId") String planId) {
+	public ResponseEntity<?> getExecutionDetails(@PathVariable("planId") String planId) {
 		if (planId == null || planId.trim().isEmpty()) {
 			return ResponseEntity.badRequest().body("Plan ID cannot be null or empty");
 		}
-		Throwable throwable = this.exceptionCache.getIfPresent(planId);
+		// Atomically consume the cached exception so that it is reported exactly once,
+		// even when several clients poll the same plan concurrently
+		Throwable throwable = this.exceptionCache.asMap().remove(planId);
 		if (throwable != null) {
 			logger.error("Exception found in exception cache for planId: {}", planId, throwable);
-			logger.error("Invalidating exception cache for planId: {}", planId);
-			this.exceptionCache.invalidate(planId);
+			logger.error("Invalidated exception cache for planId: {}", planId);
 			throw new PlanException(throwable);
 		}
 		PlanExecutionRecord planRecord = planHierarchyReaderService.readPlanTreeByRootId(planId);
@@ -463,6 +481,39 @@ public class LynxeController implements LynxeListener<PlanExceptionEvent> {
 		}
 	}
 
+	/**
+	 * Subscribe to incremental execution updates of a root plan as Server-Sent Events.
+	 * Each event carries a {@link PlanExecutionDelta} whose sequence number is used as
+	 * the SSE event id, so a reconnecting EventSource resumes automatically through the
+	 * Last-Event-ID header. Clients should load the full tree once from /details/{planId}
+	 * and then apply deltas; a RESYNC_REQUIRED delta asks the client to reload the full
+	 * tree. The stream completes when the root plan completes.
+	 * @param planId Root plan ID
+	 * @param lastEventId Last sequence seen by the client (SSE Last-Event-ID header)
+	 * @param fromSequence Alternative to Last-Event-ID for clients that cannot set
+	 * headers
+	 * @return Stream of plan execution deltas
+	 */
+	@GetMapping(value = "/details/{planId}/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+	public Flux<ServerSentEvent<PlanExecutionDelta>> streamExecutionDetails(@PathVariable("planId") String planId,
+			@RequestHeader(value = "Last-Event-ID", required = false) Long lastEventId,
+			@RequestParam(value = "fromSequence", required = false) Long fromSequence) {
+		if (planId == null || planId.trim().isEmpty()) {
+			throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Plan ID cannot be null or empty");
+		}
+		Long resumeFrom = lastEventId != null ? lastEventId : fromSequence;
+		// Keep idle connections alive through proxies while the plan is running
+		Flux<ServerSentEvent<PlanExecutionDelta>> heartbeats = Flux.interval(SSE_HEARTBEAT_INTERVAL)
+			.map(tick -> ServerSentEvent.<PlanExecutionDelta>builder().comment("heartbeat").build());
+		return planExecutionStreamService.subscribe(planId, resumeFrom)
+			.map(delta -> ServerSentEvent.<PlanExecutionDelta>builder()
+				.id(String.valueOf(delta.getSequence()))
+				.event(delta.getType().name())
+				.data(delta)
+				.build())
+			.publish(events -> Flux.merge(events, heartbeats.takeUntilOther(events.then())));
+	}
+
 	/**
 	 * Delete execution record for specified plan ID
 	 * @param planId Plan ID
@@ -733,6 +784,15 @@ public class LynxeController implements LynxeListener<PlanExceptionEvent> {
 		}
 	}
 
+	/**
+	 * Get counters of the execution record write-behind queue
+	 * @return Queue depth, batch and backpressure counters
+	 */
+	@GetMapping("/recorder/metrics")
+	public ResponseEntity<Map<String, Object>> getRecorderMetrics() {
+		return ResponseEntity.ok(planExecutionRecorder.getWriteBehindMetrics());
+	}
+
 	/**
 	 * Extract the last tool call result from the plan execution record. This method
 	 * traverses through the execution hierarchy: PlanExecutionRecord ->
@@ -1291,14 +1351,15 @@ public class LynxeController implements LynxeListener<PlanExceptionEvent> {
 
 			// Initialize processors if needed
 			if (llmService != null && lynxeProperties != null) {
-				com.alibaba.cloud.ai.lynxe.runtime.executor.ImageRecognitionExecutorPool executorPool = new com.alibaba.cloud.ai.lynxe.runtime.executor.ImageRecognitionExecutorPool(
-						lynxeProperties);
+				com.alibaba.cloud.ai.lynxe.runtime.executor.ImageRecognitionExecutorPool executorPool = imageRecognitionExecutorPool;
 				com.alibaba.cloud.ai.lynxe.tool.convertToMarkdown.PdfOcrProcessor pdfOcrProcessor = new com.alibaba.cloud.ai.lynxe.tool.convertToMarkdown.PdfOcrProcessor(
 						unifiedDirectoryManager, llmService, lynxeProperties, executorPool);
+				pdfOcrProcessor.setConversionResultCache(conversionResultCache);
 				pdfProcessor = new com.alibaba.cloud.ai.lynxe.tool.convertToMarkdown.PdfToMarkdownProcessor(
 						unifiedDirectoryManager, pdfOcrProcessor);
 				imageProcessor = new com.alibaba.cloud.ai.lynxe.tool.convertToMarkdown.ImageOcrProcessor(
 						unifiedDirectoryManager, llmService, lynxeProperties, executorPool);
+				imageProcessor.setConversionResultCache(conversionResultCache);
 			}
 
 			// Text processor is always available
@@ -28,6 +28,8 @@ import org.slf4j.LoggerFactory;
 import org.springframework.context.annotation.Primary;
 import org.springframework.stereotype.Component;
 
+import reactor.core.scheduler.Scheduler;
+
 /**
  * Example custom executor pool provider implementation. This is a simple example - you
  * can create your own implementation with custom logic.
@@ -49,6 +51,10 @@ public class CustomExecutorPoolProvider implements ExecutorPoolProvider {
 	// You can customize this to have different executors per level
 	private final ExecutorService sharedExecutor;
 
+	// Scheduler over the shared executor; rejected tasks go to the bounded elastic
+	// scheduler
+	private final Scheduler sharedScheduler;
+
 	public CustomExecutorPoolProvider() {
 		// Create your custom executor pool here
 		// Example: Fixed thread pool with 20 threads
@@ -62,6 +68,7 @@ public class CustomExecutorPoolProvider implements ExecutorPoolProvider {
 				return thread;
 			}
 		});
+		this.sharedScheduler = ExecutorSchedulers.fromExecutor(() -> sharedExecutor);
 		log.info("Created custom executor pool provider with shared executor (20 threads)");
 	}
 
@@ -73,6 +80,11 @@ public class CustomExecutorPoolProvider implements ExecutorPoolProvider {
 		return sharedExecutor;
 	}
 
+	@Override
+	public Scheduler getSchedulerForLevel(int depthLevel) {
+		return sharedScheduler;
+	}
+
 	@Override
 	public <T> CompletableFuture<T> submitTask(int depthLevel, Callable<T> task) {
 		ExecutorService executor = getExecutorForLevel(depthLevel);
@@ -112,6 +112,17 @@ public class DynamicToolPlanExecutor extends AbstractPlanExecutor {
 		this.serviceGroupIndexService = serviceGroupIndexService;
 	}
 
+	/**
+	 * Also releases the MCP connections leased while building the plan's tools.
+	 */
+	@Override
+	protected void performCleanup(ExecutionContext context, BaseAgent lastExecutor) {
+		super.performCleanup(context, lastExecutor);
+		if (planningFactory != null) {
+			planningFactory.releasePlanResources(context.getCurrentPlanId());
+		}
+	}
+
 	protected String getStepFromStepReq(String stepRequirement) {
 		String stepType = super.getStepFromStepReq(stepRequirement);
 		if ("DEFAULT_AGENT".equals(stepType)) {
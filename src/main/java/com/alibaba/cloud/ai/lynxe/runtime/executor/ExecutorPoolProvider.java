@@ -19,6 +19,8 @@ import java.util.concurrent.Callable;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutorService;
 
+import reactor.core.scheduler.Scheduler;
+
 /**
  * Interface for providing executor pools for task execution. Allows custom
  * implementations to provide their own executor pools.
@@ -32,6 +34,19 @@ public interface ExecutorPoolProvider {
 	 */
 	ExecutorService getExecutorForLevel(int depthLevel);
 
+	/**
+	 * Get a Reactor scheduler backed by the executor of the specified depth level. Tasks
+	 * never run on the thread that schedules them: tasks the executor rejects or would
+	 * run on the caller are moved to the bounded elastic scheduler. The default
+	 * implementation creates a new scheduler on every call; implementations should return
+	 * one shared scheduler per level.
+	 * @param depthLevel The depth level (0 is root level)
+	 * @return Scheduler for the specified level
+	 */
+	default Scheduler getSchedulerForLevel(int depthLevel) {
+		return ExecutorSchedulers.fromExecutor(() -> getExecutorForLevel(depthLevel));
+	}
+
 	/**
 	 * Submit a task to the executor for the specified depth level
 	 * @param depthLevel The depth level
@@ -0,0 +1,76 @@
+/*
+ * Copyright 2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.lynxe.runtime.executor;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Reactor schedulers over the executor pools of {@link ExecutorPoolProvider}.
+ *
+ * Tasks are scheduled from Reactor signal threads such as the reactor-netty event loop,
+ * so they must never run on the scheduling thread. A task the executor rejects, or runs
+ * inline through {@link java.util.concurrent.ThreadPoolExecutor.CallerRunsPolicy} when
+ * its queue is full, is moved to {@link Schedulers#boundedElastic()} instead.
+ */
+final class ExecutorSchedulers {
+
+	private static final Logger log = LoggerFactory.getLogger(ExecutorSchedulers.class);
+
+	private ExecutorSchedulers() {
+	}
+
+	/**
+	 * @param executor Executor to run tasks on, looked up for every task so that pools
+	 * recreated later are picked up
+	 */
+	static Scheduler fromExecutor(Supplier<? extends Executor> executor) {
+		return Schedulers.fromExecutor(task -> execute(executor.get(), task));
+	}
+
+	private static void execute(Executor executor, Runnable task) {
+		Thread caller = Thread.currentThread();
+		boolean[] submitting = { true };
+		try {
+			executor.execute(() -> {
+				// Only a caller-runs rejection policy runs the task on the caller inside
+				// execute()
+				if (Thread.currentThread() == caller && submitting[0]) {
+					log.debug("Executor is saturated, moving task to the bounded elastic scheduler");
+					Schedulers.boundedElastic().schedule(task);
+				}
+				else {
+					task.run();
+				}
+			});
+		}
+		catch (RejectedExecutionException e) {
+			log.debug("Executor rejected a task, moving it to the bounded elastic scheduler");
+			Schedulers.boundedElastic().schedule(task);
+		}
+		finally {
+			submitting[0] = false;
+		}
+	}
+
+}
@@ -17,17 +17,21 @@ package com.alibaba.cloud.ai.lynxe.runtime.executor;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
 
 import com.alibaba.cloud.ai.lynxe.config.LynxeProperties;
 
+import jakarta.annotation.PreDestroy;
+
 import java.util.concurrent.*;
 import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Dedicated executor pool for image recognition and OCR processing tasks. This pool is
  * specifically designed for handling image processing workloads with configurable thread
- * pool size and retry mechanisms.
+ * pool size and retry mechanisms. A single shared instance is used by all OCR processors.
  */
+@Component
 public class ImageRecognitionExecutorPool {
 
 	private static final Logger log = LoggerFactory.getLogger(ImageRecognitionExecutorPool.class);
@@ -227,6 +231,7 @@ public class ImageRecognitionExecutorPool {
 	/**
 	 * Shutdown the executor pool gracefully
 	 */
+	@PreDestroy
 	public void shutdown() {
 		if (executorService != null && !executorService.isShutdown()) {
 			executorService.shutdown();
@@ -39,11 +39,16 @@ import com.alibaba.cloud.ai.lynxe.config.LynxeProperties;
 
 import jakarta.annotation.PostConstruct;
 import jakarta.annotation.PreDestroy;
+import reactor.core.scheduler.Scheduler;
 
 /**
  * Level-based executor common pool that manages thread pools by depth level. Each depth
  * level has its own thread pool to execute tasks at that hierarchy level. Maximum depth
  * level is 10.
+ *
+ * When lynxe.agent.executorVirtualThreads is enabled and the runtime is JDK 21+, each
+ * level is backed by a virtual-thread-per-task executor whose concurrency is capped by a
+ * semaphore of the configured pool size instead of a bounded queue.
  */
 @Component
 public class LevelBasedExecutorPool implements ExecutorPoolProvider {
@@ -60,10 +65,14 @@ public class LevelBasedExecutorPool implements ExecutorPoolProvider {
 
 	private final Map<Integer, ExecutorService> levelPools = new ConcurrentHashMap<>();
 
+	private final Map<Integer, Scheduler> levelSchedulers = new ConcurrentHashMap<>();
+
 	private final AtomicInteger poolCounter = new AtomicInteger(0);
 
 	private volatile int currentPoolSize = -1;
 
+	private volatile boolean currentVirtualThreads = false;
+
 	private ScheduledExecutorService poolSizeMonitor;
 
 	@Autowired(required = false)
@@ -102,6 +111,23 @@ public class LevelBasedExecutorPool implements ExecutorPoolProvider {
 				level -> createLevelPool(level, corePoolSize, maxPoolSize, queueCapacity));
 	}
 
+	/**
+	 * Get the scheduler for the specified depth level. It looks up the level pool for
+	 * every task, so it stays valid when pools are recreated; tasks a full level pool
+	 * would run on the calling thread go to the bounded elastic scheduler instead.
+	 * @param depthLevel The depth level (0-9)
+	 * @return Scheduler for the specified level
+	 */
+	public Scheduler getSchedulerForLevel(int depthLevel) {
+		if (depthLevel < 0 || depthLevel >= MAX_DEPTH_LEVEL) {
+			log.warn("Invalid depth level: {}. Using root level (0) instead.", depthLevel);
+			depthLevel = 0;
+		}
+
+		return levelSchedulers.computeIfAbsent(depthLevel,
+				level -> ExecutorSchedulers.fromExecutor(() -> getExecutorForLevel(level)));
+	}
+
 	/**
 	 * Submit a task to the executor for the specified depth level
 	 * @param depthLevel The depth level (0-9)
@@ -152,9 +178,24 @@ public class LevelBasedExecutorPool implements ExecutorPoolProvider {
 			int level = entry.getKey();
 			ExecutorService executor = entry.getValue();
 
-			if (executor instanceof ThreadPoolExecutor) {
+			if (executor instanceof VirtualThreadLevelExecutor vte) {
+				// Same metrics as a platform pool: the concurrency cap is the pool size,
+				// tasks waiting for a permit are the queue
+				Map<String, Object> levelStats = new ConcurrentHashMap<>();
+				levelStats.put("mode", "virtual");
+				levelStats.put("corePoolSize", vte.getMaxConcurrency());
+				levelStats.put("maximumPoolSize", vte.getMaxConcurrency());
+				levelStats.put("currentPoolSize", vte.getActiveCount() + vte.getWaitingCount());
+				levelStats.put("activeThreads", vte.getActiveCount());
+				levelStats.put("queueSize", vte.getWaitingCount());
+				levelStats.put("completedTasks", vte.getCompletedTaskCount());
+				levelStats.put("totalTasks", vte.getTaskCount());
+				stats.put("level_" + level, levelStats);
+			}
+			else if (executor instanceof ThreadPoolExecutor) {
 				ThreadPoolExecutor tpe = (ThreadPoolExecutor) executor;
 				Map<String, Object> levelStats = new ConcurrentHashMap<>();
+				levelStats.put("mode", "platform");
 				levelStats.put("corePoolSize", tpe.getCorePoolSize());
 				levelStats.put("maximumPoolSize", tpe.getMaximumPoolSize());
 				levelStats.put("currentPoolSize", tpe.getPoolSize());
@@ -187,8 +228,10 @@ public class LevelBasedExecutorPool implements ExecutorPoolProvider {
 	 */
 	@PostConstruct
 	public void init() {
-		// Initialize current pool size
+		// Initialize current pool size and execution mode
 		currentPoolSize = getConfiguredPoolSize();
+		currentVirtualThreads = isVirtualThreadsConfigured();
+		log.info("Level-based executor pools use {} threads", currentVirtualThreads ? "virtual" : "platform");
 
 		// Start the periodic pool size monitor
 		poolSizeMonitor = new ScheduledThreadPoolExecutor(1, r -> {
@@ -208,6 +251,15 @@ public class LevelBasedExecutorPool implements ExecutorPoolProvider {
 	 */
 	private void checkAndAdjustPoolSizes() {
 		try {
+			boolean configuredVirtualThreads = isVirtualThreadsConfigured();
+			if (configuredVirtualThreads != currentVirtualThreads) {
+				log.info("Executor mode changed from {} to {} threads. Recreating all level pools...",
+						currentVirtualThreads ? "virtual" : "platform",
+						configuredVirtualThreads ? "virtual" : "platform");
+				currentVirtualThreads = configuredVirtualThreads;
+				recreateAllPools();
+			}
+
 			int configuredSize = getConfiguredPoolSize();
 			// Validate configured size before using it
 			if (configuredSize <= 0) {
@@ -237,6 +289,24 @@ public class LevelBasedExecutorPool implements ExecutorPoolProvider {
 			if (executor instanceof ThreadPoolExecutor) {
 				adjustPoolSize(level, (ThreadPoolExecutor) executor, newPoolSize);
 			}
+			else if (executor instanceof VirtualThreadLevelExecutor vte) {
+				int oldSize = vte.getMaxConcurrency();
+				vte.setMaxConcurrency(newPoolSize);
+				log.info("Adjusted virtual thread concurrency for level {}: {} -> {}", level, oldSize, newPoolSize);
+			}
+		}
+	}
+
+	/**
+	 * Replace every level pool with one of the current execution mode. Old pools stop
+	 * accepting tasks but finish the ones already submitted.
+	 */
+	private void recreateAllPools() {
+		for (Integer level : levelPools.keySet()) {
+			ExecutorService oldExecutor = levelPools.put(level, createLevelPool(level));
+			if (oldExecutor != null) {
+				oldExecutor.shutdown();
+			}
 		}
 	}
 
@@ -331,6 +401,27 @@ public class LevelBasedExecutorPool implements ExecutorPoolProvider {
 		return 5; // Default value
 	}
 
+	/**
+	 * Whether level pools should use virtual threads. Falls back to platform threads when
+	 * the runtime does not support virtual threads.
+	 */
+	private boolean isVirtualThreadsConfigured() {
+		try {
+			if (lynxeProperties != null && Boolean.TRUE.equals(lynxeProperties.getExecutorVirtualThreads())) {
+				if (VirtualThreadLevelExecutor.isSupported()) {
+					return true;
+				}
+				log.warn("Virtual thread executor mode requires JDK 21+, running on {}. Using platform threads.",
+						System.getProperty("java.version"));
+			}
+		}
+		catch (Exception e) {
+			log.warn("Error getting executor thread mode from LynxeProperties: {}. Using platform threads.",
+					e.getMessage());
+		}
+		return false;
+	}
+
 	/**
 	 * Create a new thread pool for the specified depth level with default configuration
 	 */
@@ -354,6 +445,14 @@ public class LevelBasedExecutorPool implements ExecutorPoolProvider {
 					corePoolSize, maxPoolSize, unifiedPoolSize, depthLevel);
 		}
 
+		if (currentVirtualThreads) {
+			// Pool size becomes the concurrency cap, the queue is unbounded
+			VirtualThreadLevelExecutor executor = new VirtualThreadLevelExecutor(unifiedPoolSize);
+			log.info("Created virtual thread executor for depth level {}: {} (max concurrency: {})", depthLevel,
+					poolName, unifiedPoolSize);
+			return executor;
+		}
+
 		ThreadPoolExecutor executor = new ThreadPoolExecutor(unifiedPoolSize, unifiedPoolSize, DEFAULT_KEEP_ALIVE_TIME,
 				TimeUnit.SECONDS, new LinkedBlockingQueue<>(queueCapacity), new ThreadFactory() {
 					private final AtomicInteger threadCounter = new AtomicInteger(1);
@@ -0,0 +1,211 @@
+/*
+ * Copyright 2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.lynxe.runtime.executor;
+
+import java.lang.reflect.Method;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Executor for one depth level of {@link LevelBasedExecutorPool} in virtual thread mode.
+ *
+ * Every task runs on its own virtual thread. The level's concurrency cap is enforced by a
+ * semaphore instead of a pool size, so tasks waiting for a permit park a virtual thread
+ * rather than filling a bounded queue. Requires a JDK 21+ runtime; the virtual thread
+ * executor is looked up reflectively so the class still loads on JDK 17.
+ */
+final class VirtualThreadLevelExecutor extends AbstractExecutorService {
+
+	private static final Method NEW_VIRTUAL_THREAD_PER_TASK_EXECUTOR = findVirtualThreadFactoryMethod();
+
+	private final ExecutorService delegate;
+
+	private final ResizableSemaphore permits;
+
+	private int maxConcurrency;
+
+	private final AtomicInteger activeCount = new AtomicInteger(0);
+
+	private final AtomicInteger waitingCount = new AtomicInteger(0);
+
+	private final AtomicLong completedTaskCount = new AtomicLong(0);
+
+	private final AtomicLong taskCount = new AtomicLong(0);
+
+	VirtualThreadLevelExecutor(int maxConcurrency) {
+		if (!isSupported()) {
+			throw new UnsupportedOperationException("Virtual threads require a JDK 21+ runtime");
+		}
+		try {
+			this.delegate = (ExecutorService) NEW_VIRTUAL_THREAD_PER_TASK_EXECUTOR.invoke(null);
+		}
+		catch (ReflectiveOperationException e) {
+			throw new IllegalStateException("Failed to create virtual thread executor", e);
+		}
+		this.maxConcurrency = maxConcurrency;
+		this.permits = new ResizableSemaphore(maxConcurrency);
+	}
+
+	/**
+	 * Check whether the running JDK supports virtual threads
+	 * @return true on JDK 21+
+	 */
+	static boolean isSupported() {
+		return NEW_VIRTUAL_THREAD_PER_TASK_EXECUTOR != null;
+	}
+
+	private static Method findVirtualThreadFactoryMethod() {
+		try {
+			return Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+		}
+		catch (NoSuchMethodException e) {
+			return null;
+		}
+	}
+
+	@Override
+	public void execute(Runnable command) {
+		Objects.requireNonNull(command, "command");
+		taskCount.incrementAndGet();
+		waitingCount.incrementAndGet();
+		try {
+			delegate.execute(() -> runWithPermit(command));
+		}
+		catch (RejectedExecutionException e) {
+			waitingCount.decrementAndGet();
+			taskCount.decrementAndGet();
+			throw e;
+		}
+	}
+
+	private void runWithPermit(Runnable command) {
+		boolean acquired = false;
+		try {
+			permits.acquire();
+			acquired = true;
+			waitingCount.decrementAndGet();
+			activeCount.incrementAndGet();
+			command.run();
+		}
+		catch (InterruptedException e) {
+			// Executor shut down while the task was waiting for a permit
+			Thread.currentThread().interrupt();
+		}
+		finally {
+			if (acquired) {
+				activeCount.decrementAndGet();
+				completedTaskCount.incrementAndGet();
+				permits.release();
+			}
+			else {
+				waitingCount.decrementAndGet();
+			}
+		}
+	}
+
+	/**
+	 * Change the number of tasks allowed to run at the same time. Running tasks are not
+	 * affected; a lower cap takes effect as they complete.
+	 * @param newMaxConcurrency New concurrency cap (must be greater than 0)
+	 */
+	synchronized void setMaxConcurrency(int newMaxConcurrency) {
+		if (newMaxConcurrency <= 0) {
+			throw new IllegalArgumentException("Max concurrency must be greater than 0: " + newMaxConcurrency);
+		}
+		int delta = newMaxConcurrency - maxConcurrency;
+		if (delta > 0) {
+			permits.release(delta);
+		}
+		else if (delta < 0) {
+			permits.reducePermits(-delta);
+		}
+		maxConcurrency = newMaxConcurrency;
+	}
+
+	synchronized int getMaxConcurrency() {
+		return maxConcurrency;
+	}
+
+	int getActiveCount() {
+		return activeCount.get();
+	}
+
+	/**
+	 * @return Number of submitted tasks waiting for a permit (the equivalent of the
+	 * platform pool's queue size)
+	 */
+	int getWaitingCount() {
+		return waitingCount.get();
+	}
+
+	long getCompletedTaskCount() {
+		return completedTaskCount.get();
+	}
+
+	long getTaskCount() {
+		return taskCount.get();
+	}
+
+	@Override
+	public void shutdown() {
+		delegate.shutdown();
+	}
+
+	@Override
+	public List<Runnable> shutdownNow() {
+		return delegate.shutdownNow();
+	}
+
+	@Override
+	public boolean isShutdown() {
+		return delegate.isShutdown();
+	}
+
+	@Override
+	public boolean isTerminated() {
+		return delegate.isTerminated();
+	}
+
+	@Override
+	public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+		return delegate.awaitTermination(timeout, unit);
+	}
+
+	/**
+	 * Semaphore exposing {@link Semaphore#reducePermits(int)} for runtime resizing
+	 */
+	private static final class ResizableSemaphore extends Semaphore {
+
+		ResizableSemaphore(int permits) {
+			super(permits, true);
+		}
+
+		@Override
+		protected void reducePermits(int reduction) {
+			super.reducePermits(reduction);
+		}
+
+	}
+
+}
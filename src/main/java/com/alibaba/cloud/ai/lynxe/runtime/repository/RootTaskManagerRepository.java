@@ -44,6 +44,13 @@ public interface RootTaskManagerRepository extends JpaRepository<RootTaskManager
 	 */
 	boolean existsByRootPlanId(String rootPlanId);
 
+	/**
+	 * Find tasks by root plan IDs
+	 * @param rootPlanIds The root plan IDs
+	 * @return List of RootTaskManagerEntity
+	 */
+	java.util.List<RootTaskManagerEntity> findByRootPlanIdIn(java.util.Collection<String> rootPlanIds);
+
 	/**
 	 * Delete task by root plan ID
 	 * @param rootPlanId The root plan ID
@@ -22,6 +22,8 @@ import org.springframework.stereotype.Component;
 
 import com.alibaba.cloud.ai.lynxe.runtime.entity.po.RootTaskManagerEntity;
 
+import reactor.core.publisher.Flux;
+
 /**
  * Utility component for integrating task interruption checking into agent execution This
  * component provides convenient methods for agents to check interruption signals during
@@ -35,6 +37,9 @@ public class AgentInterruptionHelper {
 	@Autowired
 	private TaskInterruptionCheckerService interruptionCheckerService;
 
+	@Autowired
+	private TaskSignalRegistry taskSignalRegistry;
+
 	/**
 	 * Check if execution should be interrupted and handle it appropriately This method
 	 * should be called at key points during agent execution
@@ -72,6 +77,17 @@ public class AgentInterruptionHelper {
 		return interruptionCheckerService.shouldInterruptExecution(rootPlanId);
 	}
 
+	/**
+	 * Cancel a stream, e.g. an LLM response, as soon as the task is interrupted
+	 * @param flux Stream to guard
+	 * @param rootPlanId The root plan ID
+	 * @return Stream failing with TaskInterruptedException on interruption
+	 * @param <T> Element type
+	 */
+	public <T> Flux<T> cancelOnInterrupt(Flux<T> flux, String rootPlanId) {
+		return taskSignalRegistry.cancelOnInterrupt(flux, rootPlanId);
+	}
+
 	/**
 	 * Get the current interruption status
 	 * @param rootPlanId The root plan ID
@@ -20,7 +20,11 @@ import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import com.alibaba.cloud.ai.lynxe.event.LynxeEventPublisher;
+import com.alibaba.cloud.ai.lynxe.event.TaskStateChangeEvent;
 import com.alibaba.cloud.ai.lynxe.runtime.entity.po.RootTaskManagerEntity;
 import com.alibaba.cloud.ai.lynxe.runtime.repository.RootTaskManagerRepository;
 
@@ -39,6 +43,9 @@ public class RootTaskManagerService {
 	@Autowired
 	private RootTaskManagerRepository rootTaskManagerRepository;
 
+	@Autowired
+	private LynxeEventPublisher lynxeEventPublisher;
+
 	/**
 	 * Create or update a root task manager entity
 	 * @param rootPlanId The root plan ID
@@ -67,7 +74,9 @@ public class RootTaskManagerService {
 			}
 
 			logger.info("Updated task state for planId {} to {}", rootPlanId, desiredTaskState);
-			return rootTaskManagerRepository.save(task);
+			RootTaskManagerEntity saved = rootTaskManagerRepository.save(task);
+			publishStateChange(rootPlanId, desiredTaskState);
+			return saved;
 		}
 		else {
 			RootTaskManagerEntity newTask = new RootTaskManagerEntity(rootPlanId);
@@ -79,7 +88,9 @@ public class RootTaskManagerService {
 			}
 
 			logger.info("Created new task for planId {} with state {}", rootPlanId, desiredTaskState);
-			return rootTaskManagerRepository.save(newTask);
+			RootTaskManagerEntity saved = rootTaskManagerRepository.save(newTask);
+			publishStateChange(rootPlanId, desiredTaskState);
+			return saved;
 		}
 	}
 
@@ -145,6 +156,7 @@ public class RootTaskManagerService {
 	 */
 	public void deleteTask(String rootPlanId) {
 		rootTaskManagerRepository.deleteByRootPlanId(rootPlanId);
+		publishStateChange(rootPlanId, null);
 		logger.info("Deleted task for planId {}", rootPlanId);
 	}
 
@@ -190,7 +202,9 @@ public class RootTaskManagerService {
 			task.setLastUpdated(LocalDateTime.now());
 			logger.info("Completed task for planId {} with state {}", rootPlanId,
 					isSuccess ? "STOP (success)" : "CANCEL (failed)");
-			return rootTaskManagerRepository.save(task);
+			RootTaskManagerEntity saved = rootTaskManagerRepository.save(task);
+			publishStateChange(rootPlanId, task.getDesiredTaskState());
+			return saved;
 		}
 		else {
 			logger.warn("Task not found for planId {} when completing task", rootPlanId);
@@ -198,4 +212,23 @@ public class RootTaskManagerService {
 		}
 	}
 
+	/**
+	 * Publish a task state change. Inside a transaction the event is published only once
+	 * the new state is committed, so the signal registry never applies a rolled back
+	 * state and a concurrent reconcile cannot read the old row after the event.
+	 */
+	private void publishStateChange(String rootPlanId, RootTaskManagerEntity.DesiredTaskState desiredState) {
+		TaskStateChangeEvent event = new TaskStateChangeEvent(rootPlanId, desiredState);
+		if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+			lynxeEventPublisher.publish(event);
+			return;
+		}
+		TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+			@Override
+			public void afterCommit() {
+				lynxeEventPublisher.publish(event);
+			}
+		});
+	}
+
 }
@@ -19,7 +19,6 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
 import com.alibaba.cloud.ai.lynxe.runtime.entity.po.RootTaskManagerEntity;
 
@@ -27,9 +26,10 @@ import com.alibaba.cloud.ai.lynxe.runtime.entity.po.RootTaskManagerEntity;
  * Service for checking task interruption signals during agent execution This service is
  * used by DynamicAgent instances running on different machines to check if they should
  * interrupt their execution based on database state
+ *
+ * Checks read the in-memory {@link TaskSignalRegistry} and do not open a transaction.
  */
 @Service
-@Transactional(readOnly = true)
 public class TaskInterruptionCheckerService {
 
 	private static final Logger logger = LoggerFactory.getLogger(TaskInterruptionCheckerService.class);
@@ -75,8 +75,7 @@ public class TaskInterruptionCheckerService {
 	 */
 	public void checkAndThrowIfInterrupted(String rootPlanId) throws TaskInterruptedException {
 		if (shouldInterruptExecution(rootPlanId)) {
-			RootTaskManagerEntity.DesiredTaskState desiredState = taskInterruptionManager
-				.getTaskInterruptionStatus(rootPlanId);
+			RootTaskManagerEntity.DesiredTaskState desiredState = getInterruptionStatus(rootPlanId);
 			throw new TaskInterruptedException("Task " + rootPlanId + " was interrupted with state: " + desiredState);
 		}
 	}
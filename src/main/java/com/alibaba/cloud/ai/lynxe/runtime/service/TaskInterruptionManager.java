@@ -19,8 +19,13 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import com.alibaba.cloud.ai.lynxe.event.LynxeEventPublisher;
+import com.alibaba.cloud.ai.lynxe.event.TaskStateChangeEvent;
 import com.alibaba.cloud.ai.lynxe.runtime.entity.po.RootTaskManagerEntity;
 import com.alibaba.cloud.ai.lynxe.runtime.repository.RootTaskManagerRepository;
 
@@ -31,6 +36,10 @@ import java.util.Optional;
 /**
  * Service for managing task interruption using database-driven coordination This approach
  * works in distributed/multi-machine environments where agents run on stateless machines
+ *
+ * State changes are published as {@link TaskStateChangeEvent}s; interruption checks are
+ * answered from the in-memory {@link TaskSignalRegistry}, which is reconciled with the
+ * database periodically.
  */
 @Service
 @Transactional
@@ -41,29 +50,30 @@ public class TaskInterruptionManager {
 	@Autowired
 	private RootTaskManagerRepository rootTaskManagerRepository;
 
+	@Autowired
+	private TaskSignalRegistry taskSignalRegistry;
+
+	@Autowired
+	private LynxeEventPublisher lynxeEventPublisher;
+
 	/**
-	 * Check if a task should be interrupted based on database state
+	 * Check if a task should be interrupted, from the in-memory signal table
 	 * @param rootPlanId The root plan ID
 	 * @return true if task should be interrupted, false otherwise
 	 */
-	@Transactional(readOnly = true)
+	@Transactional(propagation = Propagation.SUPPORTS)
 	public boolean shouldInterruptTask(String rootPlanId) {
-		Optional<RootTaskManagerEntity> taskEntity = rootTaskManagerRepository.findByRootPlanId(rootPlanId);
-
-		if (taskEntity.isPresent()) {
-			RootTaskManagerEntity.DesiredTaskState desiredState = taskEntity.get().getDesiredTaskState();
-			boolean shouldInterrupt = (desiredState == RootTaskManagerEntity.DesiredTaskState.STOP
-					|| desiredState == RootTaskManagerEntity.DesiredTaskState.CANCEL
-					|| desiredState == RootTaskManagerEntity.DesiredTaskState.PAUSE);
-
-			if (shouldInterrupt) {
-				logger.debug("Task {} should be interrupted due to desired state: {}", rootPlanId, desiredState);
-			}
-			return shouldInterrupt;
+		RootTaskManagerEntity.DesiredTaskState desiredState = taskSignalRegistry.getDesiredState(rootPlanId);
+		if (desiredState == null) {
+			logger.debug("No task entity found for planId: {}, assuming no interruption needed", rootPlanId);
+			return false;
 		}
 
-		logger.debug("No task entity found for planId: {}, assuming no interruption needed", rootPlanId);
-		return false;
+		boolean shouldInterrupt = TaskSignalRegistry.isInterruptState(desiredState);
+		if (shouldInterrupt) {
+			logger.debug("Task {} should be interrupted due to desired state: {}", rootPlanId, desiredState);
+		}
+		return shouldInterrupt;
 	}
 
 	/**
@@ -110,6 +120,7 @@ public class TaskInterruptionManager {
 			}
 
 			rootTaskManagerRepository.save(task);
+			publishStateChange(rootPlanId, desiredState);
 			logger.info("Marked task {} for interruption with state: {}", rootPlanId, desiredState);
 			return true;
 		}
@@ -163,6 +174,7 @@ public class TaskInterruptionManager {
 			task.setEndTime(null);
 
 			rootTaskManagerRepository.save(task);
+			publishStateChange(rootPlanId, RootTaskManagerEntity.DesiredTaskState.RESUME);
 			logger.info("Marked task {} for resume", rootPlanId);
 			return true;
 		}
@@ -195,14 +207,13 @@ public class TaskInterruptionManager {
 	}
 
 	/**
-	 * Get task interruption status
+	 * Get task interruption status, from the in-memory signal table
 	 * @param rootPlanId The root plan ID
 	 * @return The desired task state, or null if task not found
 	 */
-	@Transactional(readOnly = true)
+	@Transactional(propagation = Propagation.SUPPORTS)
 	public RootTaskManagerEntity.DesiredTaskState getTaskInterruptionStatus(String rootPlanId) {
-		Optional<RootTaskManagerEntity> taskEntity = rootTaskManagerRepository.findByRootPlanId(rootPlanId);
-		return taskEntity.map(RootTaskManagerEntity::getDesiredTaskState).orElse(null);
+		return taskSignalRegistry.getDesiredState(rootPlanId);
 	}
 
 	/**
@@ -228,4 +239,22 @@ public class TaskInterruptionManager {
 		return completedTasks.size();
 	}
 
+	/**
+	 * Publish a task state change after the transaction writing it commits, or right away
+	 * outside a transaction
+	 */
+	private void publishStateChange(String rootPlanId, RootTaskManagerEntity.DesiredTaskState desiredState) {
+		TaskStateChangeEvent event = new TaskStateChangeEvent(rootPlanId, desiredState);
+		if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+			lynxeEventPublisher.publish(event);
+			return;
+		}
+		TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+			@Override
+			public void afterCommit() {
+				lynxeEventPublisher.publish(event);
+			}
+		});
+	}
+
 }
@@ -0,0 +1,278 @@
+/*
+ * Copyright 2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.lynxe.runtime.service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.alibaba.cloud.ai.lynxe.event.LynxeListener;
+import com.alibaba.cloud.ai.lynxe.event.TaskStateChangeEvent;
+import com.alibaba.cloud.ai.lynxe.runtime.entity.po.RootTaskManagerEntity;
+import com.alibaba.cloud.ai.lynxe.runtime.entity.po.RootTaskManagerEntity.DesiredTaskState;
+import com.alibaba.cloud.ai.lynxe.runtime.repository.RootTaskManagerRepository;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+
+/**
+ * In-process table of the desired state of each root plan, so the interruption checks
+ * made before every think attempt and tool call read memory instead of the database.
+ *
+ * The table follows the {@link TaskStateChangeEvent}s published when a task changes state
+ * on this node. A plan not seen yet is loaded from the database once. For multi-node
+ * deployments a low-frequency reconciliation reads the states of all tracked plans back
+ * from the database and applies the changes made by other nodes, unless the plan's signal
+ * changed on this node while the states were read. Interrupting a plan also cancels the
+ * LLM streams wrapped with {@link #cancelOnInterrupt(Flux, String)}.
+ */
+@Component
+public class TaskSignalRegistry implements LynxeListener<TaskStateChangeEvent> {
+
+	private static final Logger logger = LoggerFactory.getLogger(TaskSignalRegistry.class);
+
+	/**
+	 * Interval for reading tracked states back from the database
+	 */
+	private static final long RECONCILE_INTERVAL_MS = 30 * 1000L;
+
+	/**
+	 * Plans not checked for this long and without guarded streams are dropped and
+	 * reloaded on next use
+	 */
+	private static final long IDLE_EVICTION_MS = 30 * 60 * 1000L;
+
+	private static final int RECONCILE_BATCH_SIZE = 500;
+
+	@Autowired
+	private RootTaskManagerRepository rootTaskManagerRepository;
+
+	private final Map<String, Signal> signals = new ConcurrentHashMap<>();
+
+	/**
+	 * Desired state of one root plan and the sink that fires when it is interrupted
+	 */
+	private static class Signal {
+
+		private volatile DesiredTaskState state;
+
+		private volatile Sinks.One<DesiredTaskState> interruption = Sinks.one();
+
+		private boolean interrupted;
+
+		private volatile long lastAccessedAt = System.currentTimeMillis();
+
+		// Incremented on every change, so a reconciliation can tell whether the state
+		// changed while it read the database
+		private long version;
+
+		// Subscribed streams guarded by this signal; the signal is kept while any is
+		// live so their interruption sink still fires
+		private final AtomicInteger streams = new AtomicInteger();
+
+		synchronized void apply(DesiredTaskState newState) {
+			version++;
+			state = newState;
+			if (isInterruptState(newState)) {
+				interrupted = true;
+				interruption.tryEmitValue(newState);
+			}
+			else if (interrupted) {
+				// Resumed: later streams wait for the next interruption
+				interrupted = false;
+				interruption = Sinks.one();
+			}
+		}
+
+		synchronized long version() {
+			return version;
+		}
+
+		/**
+		 * Apply a state read from the database unless the signal changed since
+		 * {@code expectedVersion} was taken
+		 * @return true if the state was applied
+		 */
+		synchronized boolean applyIfUnchanged(long expectedVersion, DesiredTaskState newState) {
+			if (version != expectedVersion) {
+				return false;
+			}
+			apply(newState);
+			return true;
+		}
+
+		boolean isEvictable(long now) {
+			return streams.get() == 0 && now - lastAccessedAt > IDLE_EVICTION_MS;
+		}
+
+	}
+
+	/**
+	 * @param state Desired task state
+	 * @return true for STOP, CANCEL and PAUSE
+	 */
+	public static boolean isInterruptState(DesiredTaskState state) {
+		return state == DesiredTaskState.STOP || state == DesiredTaskState.CANCEL || state == DesiredTaskState.PAUSE;
+	}
+
+	/**
+	 * Get the desired state of a root plan
+	 * @param rootPlanId The root plan ID
+	 * @return The desired task state, or null if the task does not exist
+	 */
+	public DesiredTaskState getDesiredState(String rootPlanId) {
+		return signal(rootPlanId).state;
+	}
+
+	/**
+	 * Check whether a root plan should be interrupted
+	 * @param rootPlanId The root plan ID
+	 * @return true if the desired state is STOP, CANCEL or PAUSE
+	 */
+	public boolean isInterrupted(String rootPlanId) {
+		return isInterruptState(getDesiredState(rootPlanId));
+	}
+
+	/**
+	 * Cancel a stream as soon as its root plan is interrupted instead of at the next
+	 * check. The upstream subscription is cancelled and the returned flux fails with
+	 * {@link TaskInterruptionCheckerService.TaskInterruptedException}.
+	 * @param flux Stream to guard, e.g. an LLM response
+	 * @param rootPlanId The root plan ID, may be null to leave the stream unguarded
+	 * @return Guarded stream
+	 * @param <T> Element type
+	 */
+	public <T> Flux<T> cancelOnInterrupt(Flux<T> flux, String rootPlanId) {
+		if (rootPlanId == null || rootPlanId.isEmpty()) {
+			return flux;
+		}
+		return Flux.defer(() -> {
+			Signal signal = retain(rootPlanId);
+			return flux.takeUntilOther(signal.interruption.asMono()).concatWith(Flux.defer(() -> {
+				DesiredTaskState state = signal.state;
+				return isInterruptState(state) ? Flux.error(new TaskInterruptionCheckerService.TaskInterruptedException(
+						"Task " + rootPlanId + " was interrupted with state: " + state)) : Flux.empty();
+			})).doFinally(signalType -> signal.streams.decrementAndGet());
+		});
+	}
+
+	@Override
+	public void onEvent(TaskStateChangeEvent event) {
+		if (event.getRootPlanId() == null) {
+			return;
+		}
+		signals.computeIfAbsent(event.getRootPlanId(), k -> new Signal()).apply(event.getDesiredState());
+		logger.debug("Task signal for {} set to {}", event.getRootPlanId(), event.getDesiredState());
+	}
+
+	/**
+	 * Read the states of all tracked plans back from the database, applying changes made
+	 * by other nodes, and drop idle plans without guarded streams
+	 */
+	@Scheduled(fixedDelay = RECONCILE_INTERVAL_MS, initialDelay = RECONCILE_INTERVAL_MS)
+	public void reconcile() {
+		long now = System.currentTimeMillis();
+		for (String rootPlanId : signals.keySet()) {
+			// Atomic with retain(), so a stream subscribing now keeps its signal
+			signals.computeIfPresent(rootPlanId, (key, signal) -> signal.isEvictable(now) ? null : signal);
+		}
+
+		List<String> rootPlanIds = new ArrayList<>(signals.keySet());
+		int changed = 0;
+		try {
+			for (int from = 0; from < rootPlanIds.size(); from += RECONCILE_BATCH_SIZE) {
+				List<String> batch = rootPlanIds.subList(from,
+						Math.min(from + RECONCILE_BATCH_SIZE, rootPlanIds.size()));
+				// Versions are taken before the read: a state changed on this node while
+				// the database is read is newer than what the read returns
+				Map<String, Signal> batchSignals = new HashMap<>();
+				Map<String, Long> versions = new HashMap<>();
+				for (String rootPlanId : batch) {
+					Signal signal = signals.get(rootPlanId);
+					if (signal != null) {
+						batchSignals.put(rootPlanId, signal);
+						versions.put(rootPlanId, signal.version());
+					}
+				}
+				Map<String, DesiredTaskState> stored = new HashMap<>();
+				for (RootTaskManagerEntity task : rootTaskManagerRepository.findByRootPlanIdIn(batch)) {
+					stored.put(task.getRootPlanId(), task.getDesiredTaskState());
+				}
+				for (Map.Entry<String, Signal> entry : batchSignals.entrySet()) {
+					Signal signal = entry.getValue();
+					DesiredTaskState state = stored.get(entry.getKey());
+					if (signal.state != state && signal.applyIfUnchanged(versions.get(entry.getKey()), state)) {
+						changed++;
+					}
+				}
+			}
+		}
+		catch (Exception e) {
+			logger.warn("Failed to reconcile task signals with the database: {}", e.getMessage());
+			return;
+		}
+		if (changed > 0) {
+			logger.info("Reconciled {} task signals changed outside this node", changed);
+		}
+	}
+
+	/**
+	 * @return Number of tracked root plans
+	 */
+	public int size() {
+		return signals.size();
+	}
+
+	/**
+	 * Get the signal of a root plan for a subscribing stream, counting the stream so the
+	 * signal is not evicted until the stream ends
+	 */
+	private Signal retain(String rootPlanId) {
+		Signal loaded = signal(rootPlanId);
+		return signals.compute(rootPlanId, (key, current) -> {
+			Signal retained = current != null ? current : loaded;
+			retained.streams.incrementAndGet();
+			return retained;
+		});
+	}
+
+	private Signal signal(String rootPlanId) {
+		Signal signal = signals.get(rootPlanId);
+		if (signal == null) {
+			Signal loaded = new Signal();
+			loaded.apply(rootTaskManagerRepository.findByRootPlanId(rootPlanId)
+				.map(RootTaskManagerEntity::getDesiredTaskState)
+				.orElse(null));
+			// An event may have registered the plan while it was loaded
+			signal = signals.putIfAbsent(rootPlanId, loaded);
+			if (signal == null) {
+				signal = loaded;
+			}
+		}
+		signal.lastAccessedAt = System.currentTimeMillis();
+		return signal;
+	}
+
+}
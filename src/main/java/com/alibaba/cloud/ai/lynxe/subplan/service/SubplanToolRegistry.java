@@ -0,0 +1,248 @@
+/*
+ * Copyright 2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.lynxe.subplan.service;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.ai.tool.ToolCallback;
+import org.springframework.ai.tool.definition.ToolDefinition;
+import org.springframework.ai.tool.function.FunctionToolCallback;
+import org.springframework.ai.tool.metadata.ToolMetadata;
+import org.springframework.stereotype.Component;
+
+import com.alibaba.cloud.ai.lynxe.event.LynxeListener;
+import com.alibaba.cloud.ai.lynxe.event.PlanTemplateChangeEvent;
+import com.alibaba.cloud.ai.lynxe.planning.model.po.FuncAgentToolEntity;
+import com.alibaba.cloud.ai.lynxe.planning.model.vo.PlanTemplateConfigVO;
+import com.alibaba.cloud.ai.lynxe.planning.repository.FuncAgentToolRepository;
+import com.alibaba.cloud.ai.lynxe.planning.service.PlanTemplateConfigService;
+import com.alibaba.cloud.ai.lynxe.subplan.model.vo.SubplanToolWrapper;
+import com.alibaba.cloud.ai.lynxe.tool.code.ToolExecuteResult;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * In-memory registry of coordinator tools exposed to agents as subplan tools. The
+ * template configs, qualified names and tool definitions (description and input schema)
+ * are loaded with a single query and reused by every agent until a
+ * {@link PlanTemplateChangeEvent} bumps the registry version; the next lookup then
+ * reloads them. Binding the tools for a plan only creates the plan's wrappers around the
+ * shared definitions.
+ */
+@Component
+public class SubplanToolRegistry implements LynxeListener<PlanTemplateChangeEvent> {
+
+	private static final Logger logger = LoggerFactory.getLogger(SubplanToolRegistry.class);
+
+	private final FuncAgentToolRepository funcAgentToolRepository;
+
+	private final PlanTemplateConfigService planTemplateConfigService;
+
+	private final ObjectMapper objectMapper;
+
+	// Bumped on every change; a snapshot is current while its version matches
+	private final AtomicLong version = new AtomicLong();
+
+	private final AtomicLong hits = new AtomicLong();
+
+	private final AtomicLong reloads = new AtomicLong();
+
+	private volatile Snapshot snapshot;
+
+	/**
+	 * Immutable definition of one coordinator tool, shared by all plans
+	 */
+	public static class RegisteredTool {
+
+		private final String qualifiedKey;
+
+		private final PlanTemplateConfigVO planTemplateConfig;
+
+		private final PlanTemplateConfigVO coordinatorToolConfig;
+
+		private final ToolDefinition toolDefinition;
+
+		private final ToolMetadata toolMetadata;
+
+		RegisteredTool(String qualifiedKey, PlanTemplateConfigVO planTemplateConfig,
+				PlanTemplateConfigVO coordinatorToolConfig, ToolDefinition toolDefinition, ToolMetadata toolMetadata) {
+			this.qualifiedKey = qualifiedKey;
+			this.planTemplateConfig = planTemplateConfig;
+			this.coordinatorToolConfig = coordinatorToolConfig;
+			this.toolDefinition = toolDefinition;
+			this.toolMetadata = toolMetadata;
+		}
+
+		/**
+		 * @return Name the tool is exposed under (serviceGroup-toolName)
+		 */
+		public String getQualifiedKey() {
+			return qualifiedKey;
+		}
+
+		public PlanTemplateConfigVO getPlanTemplateConfig() {
+			return planTemplateConfig;
+		}
+
+		public PlanTemplateConfigVO getCoordinatorToolConfig() {
+			return coordinatorToolConfig;
+		}
+
+		public ToolDefinition getToolDefinition() {
+			return toolDefinition;
+		}
+
+		/**
+		 * Build a callback for a plan's wrapper around the shared definition
+		 * @param toolWrapper Wrapper bound to the plan
+		 * @return Callback exposing the wrapper under the qualified key
+		 */
+		public ToolCallback bind(SubplanToolWrapper toolWrapper) {
+			return new FunctionToolCallback<Map<String, Object>, ToolExecuteResult>(toolDefinition, toolMetadata,
+					Map.class, toolWrapper, null);
+		}
+
+	}
+
+	private static class Snapshot {
+
+		private final long version;
+
+		private final List<RegisteredTool> tools;
+
+		Snapshot(long version, List<RegisteredTool> tools) {
+			this.version = version;
+			this.tools = tools;
+		}
+
+	}
+
+	public SubplanToolRegistry(FuncAgentToolRepository funcAgentToolRepository,
+			PlanTemplateConfigService planTemplateConfigService, ObjectMapper objectMapper) {
+		this.funcAgentToolRepository = funcAgentToolRepository;
+		this.planTemplateConfigService = planTemplateConfigService;
+		this.objectMapper = objectMapper;
+	}
+
+	/**
+	 * @return Coordinator tools with internal tool calls enabled, reloaded only after a
+	 * change
+	 */
+	public List<RegisteredTool> getTools() {
+		Snapshot current = snapshot;
+		if (current != null && current.version == version.get()) {
+			hits.incrementAndGet();
+			return current.tools;
+		}
+		synchronized (this) {
+			// Read the version before loading so a change during the load triggers
+			// another reload on the next lookup
+			long loadVersion = version.get();
+			current = snapshot;
+			if (current != null && current.version == loadVersion) {
+				hits.incrementAndGet();
+				return current.tools;
+			}
+			List<RegisteredTool> tools = load();
+			snapshot = new Snapshot(loadVersion, tools);
+			reloads.incrementAndGet();
+			logger.info("Loaded {} coordinator tools into subplan tool registry (version {})", tools.size(),
+					loadVersion);
+			return tools;
+		}
+	}
+
+	@Override
+	public void onEvent(PlanTemplateChangeEvent event) {
+		logger.debug("Plan template {} changed, invalidating subplan tool registry", event.getPlanTemplateId());
+		invalidateAll();
+	}
+
+	/**
+	 * Reload all tools on the next lookup
+	 */
+	public void invalidateAll() {
+		version.incrementAndGet();
+	}
+
+	/**
+	 * @return Registry version, number of registered tools and lookup counters
+	 */
+	public Map<String, Object> getMetrics() {
+		Snapshot current = snapshot;
+		Map<String, Object> metrics = new LinkedHashMap<>();
+		metrics.put("version", version.get());
+		metrics.put("loadedVersion", current != null ? current.version : -1);
+		metrics.put("tools", current != null ? current.tools.size() : 0);
+		metrics.put("hits", hits.get());
+		metrics.put("reloads", reloads.get());
+		return metrics;
+	}
+
+	private List<RegisteredTool> load() {
+		List<RegisteredTool> tools = new ArrayList<>();
+		for (FuncAgentToolEntity entity : funcAgentToolRepository.findAll()) {
+			if (entity.getEnableInternalToolcall() == null || !entity.getEnableInternalToolcall()
+					|| entity.getPlanTemplateId() == null) {
+				continue;
+			}
+			try {
+				tools.add(register(entity));
+			}
+			catch (Exception e) {
+				logger.error("Failed to register coordinator tool for planTemplateId: {}", entity.getPlanTemplateId(),
+						e);
+			}
+		}
+		return Collections.unmodifiableList(tools);
+	}
+
+	private RegisteredTool register(FuncAgentToolEntity entity) {
+		PlanTemplateConfigVO planTemplateConfig = planTemplateConfigService.convertEntityToPlanTemplateSummary(entity);
+		PlanTemplateConfigVO coordinatorToolConfig = planTemplateConfigService
+			.convertEntityToPlanTemplateConfigVO(entity);
+
+		// A wrapper without a plan only serves to derive name and input schema
+		SubplanToolWrapper template = new SubplanToolWrapper(coordinatorToolConfig, planTemplateConfig, null, null,
+				null, null, null, objectMapper, null);
+		String toolName = template.getName();
+		String serviceGroup = entity.getServiceGroup();
+		String qualifiedKey = serviceGroup != null && !serviceGroup.isEmpty() ? serviceGroup + "-" + toolName
+				: toolName;
+
+		String description = "";
+		if (coordinatorToolConfig.getToolConfig() != null) {
+			description = coordinatorToolConfig.getToolConfig().getToolDescription();
+		}
+
+		// Resolve through the builder so the definition matches a directly built callback
+		ToolCallback callback = FunctionToolCallback.builder(qualifiedKey, template)
+			.description(description)
+			.inputSchema(template.getParameters())
+			.inputType(Map.class) // Map input type for coordinator tools
+			.toolMetadata(ToolMetadata.builder().returnDirect(false).build())
+			.build();
+		return new RegisteredTool(qualifiedKey, planTemplateConfig, coordinatorToolConfig, callback.getToolDefinition(),
+				callback.getToolMetadata());
+	}
+
+}
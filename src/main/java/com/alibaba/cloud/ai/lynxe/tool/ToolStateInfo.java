@@ -30,6 +30,12 @@ public class ToolStateInfo {
 	 */
 	private String stateString;
 
+	/**
+	 * Earlier state the state string only describes changes to, or null if the state
+	 * string is complete
+	 */
+	private String baselineStateString;
+
 	public ToolStateInfo() {
 	}
 
@@ -38,6 +44,12 @@ public class ToolStateInfo {
 		this.stateString = stateString;
 	}
 
+	public ToolStateInfo(String key, String stateString, String baselineStateString) {
+		this.key = key;
+		this.stateString = stateString;
+		this.baselineStateString = baselineStateString;
+	}
+
 	public String getKey() {
 		return key;
 	}
@@ -54,6 +66,14 @@ public class ToolStateInfo {
 		this.stateString = stateString;
 	}
 
+	public String getBaselineStateString() {
+		return baselineStateString;
+	}
+
+	public void setBaselineStateString(String baselineStateString) {
+		this.baselineStateString = baselineStateString;
+	}
+
 	@Override
 	public String toString() {
 		return stateString != null ? stateString : "";
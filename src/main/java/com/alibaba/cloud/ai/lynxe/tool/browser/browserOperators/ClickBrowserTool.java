@@ -239,8 +239,7 @@ public class ClickBrowserTool extends AbstractBrowserTool<ClickBrowserTool.Click
 
 	@Override
 	public ToolStateInfo getCurrentToolStateString() {
-		String stateString = browserUseTool.getCurrentToolStateString(getCurrentPlanId(), getRootPlanId());
-		return new ToolStateInfo("bw", stateString);
+		return browserUseTool.getCurrentToolState("bw", getCurrentPlanId(), getRootPlanId());
 	}
 
 }
@@ -292,8 +292,7 @@ public class CloseTabBrowserTool extends AbstractBrowserTool<CloseTabBrowserTool
 
 	@Override
 	public ToolStateInfo getCurrentToolStateString() {
-		String stateString = browserUseTool.getCurrentToolStateString(getCurrentPlanId(), getRootPlanId());
-		return new ToolStateInfo("bw", stateString);
+		return browserUseTool.getCurrentToolState("bw", getCurrentPlanId(), getRootPlanId());
 	}
 
 }
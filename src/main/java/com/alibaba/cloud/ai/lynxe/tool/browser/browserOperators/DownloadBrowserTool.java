@@ -504,8 +504,7 @@ public class DownloadBrowserTool extends AbstractBrowserTool<DownloadBrowserTool
 
 	@Override
 	public ToolStateInfo getCurrentToolStateString() {
-		String stateString = browserUseTool.getCurrentToolStateString(getCurrentPlanId(), getRootPlanId());
-		return new ToolStateInfo("bw", stateString);
+		return browserUseTool.getCurrentToolState("bw", getCurrentPlanId(), getRootPlanId());
 	}
 
 }
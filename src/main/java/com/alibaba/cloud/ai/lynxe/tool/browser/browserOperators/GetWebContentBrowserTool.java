@@ -230,8 +230,7 @@ public class GetWebContentBrowserTool extends AbstractBrowserTool<GetWebContentB
 
 	@Override
 	public ToolStateInfo getCurrentToolStateString() {
-		String stateString = browserUseTool.getCurrentToolStateString(getCurrentPlanId(), getRootPlanId());
-		return new ToolStateInfo("bw", stateString);
+		return browserUseTool.getCurrentToolState("bw", getCurrentPlanId(), getRootPlanId());
 	}
 
 }
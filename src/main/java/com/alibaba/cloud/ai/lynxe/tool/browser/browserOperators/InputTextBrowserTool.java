@@ -180,8 +180,7 @@ public class InputTextBrowserTool extends AbstractBrowserTool<InputTextBrowserTo
 
 	@Override
 	public ToolStateInfo getCurrentToolStateString() {
-		String stateString = browserUseTool.getCurrentToolStateString(getCurrentPlanId(), getRootPlanId());
-		return new ToolStateInfo("bw", stateString);
+		return browserUseTool.getCurrentToolState("bw", getCurrentPlanId(), getRootPlanId());
 	}
 
 }
@@ -15,6 +15,8 @@
  */
 package com.alibaba.cloud.ai.lynxe.tool.browser.service;
 
+import java.util.Map;
+
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -45,6 +47,112 @@ public class AriaSnapshot {
 
 	private static final Logger log = LoggerFactory.getLogger(AriaSnapshot.class);
 
+	/**
+	 * Installs a change tracker in the document (once per document) and labels elements
+	 * without an aria-id. Ids already assigned are kept, so an element keeps its index
+	 * across snapshots of the same document. The tracker counts DOM mutations and form
+	 * input; labeling itself is not counted.
+	 */
+	private static final String TRACK_CHANGES_JS = """
+			(() => {
+				const ID_PATTERN = /^aria-id-(\\d+)$/;
+				let tracker = window.__lynxeAriaTracker;
+				if (!tracker || tracker.doc !== document) {
+					tracker = {
+						doc: document,
+						token: Date.now().toString(36) + '-' + Math.random().toString(36).slice(2),
+						next: 1,
+						version: 1,
+						labeled: 0
+					};
+					const onRecords = (records) => {
+						for (const record of records) {
+							// Ids assigned below are not page changes
+							if (record.type === 'attributes' && record.attributeName === 'aria-label'
+									&& ID_PATTERN.test(record.target.getAttribute('aria-label') || '')) {
+								continue;
+							}
+							tracker.version++;
+							return;
+						}
+					};
+					tracker.observer = new MutationObserver(onRecords);
+					tracker.observer.observe(document, { subtree: true, childList: true, attributes: true, characterData: true });
+					// Form values change without DOM mutations
+					for (const type of ['input', 'change']) {
+						document.addEventListener(type, () => tracker.version++, true);
+					}
+					tracker.flush = () => onRecords(tracker.observer.takeRecords());
+					window.__lynxeAriaTracker = tracker;
+				}
+				tracker.flush();
+				if (tracker.labeled !== tracker.version) {
+					const elements = document.querySelectorAll('*');
+					const seen = new Set();
+					const unlabeled = [];
+					elements.forEach((el) => {
+						const match = ID_PATTERN.exec(el.getAttribute('aria-label') || '');
+						// Cloned nodes carry the id of their original
+						if (match && !seen.has(match[1])) {
+							seen.add(match[1]);
+							tracker.next = Math.max(tracker.next, Number(match[1]) + 1);
+						}
+						else {
+							unlabeled.push(el);
+						}
+					});
+					unlabeled.forEach((el) => el.setAttribute('aria-label', 'aria-id-' + tracker.next++));
+					tracker.flush();
+					tracker.labeled = tracker.version;
+				}
+				return { token: tracker.token, version: tracker.version };
+			})();
+			""";
+
+	/**
+	 * Document a snapshot was taken of and its change counter at that time
+	 */
+	public static class PageChange {
+
+		private final String documentToken;
+
+		private final long version;
+
+		public PageChange(String documentToken, long version) {
+			this.documentToken = documentToken;
+			this.version = version;
+		}
+
+		public String getDocumentToken() {
+			return documentToken;
+		}
+
+		public long getVersion() {
+			return version;
+		}
+
+		/**
+		 * @param other Earlier state of the page
+		 * @return Whether both refer to the same document
+		 */
+		public boolean isSameDocument(PageChange other) {
+			return other != null && documentToken.equals(other.documentToken);
+		}
+
+	}
+
+	/**
+	 * Label new elements of the page and report its document and change counter. Calling
+	 * this again without page changes does not touch the DOM.
+	 * @param page The page to track
+	 * @return Current document and change counter
+	 */
+	@SuppressWarnings("unchecked")
+	public static PageChange trackChanges(Page page) {
+		Map<String, Object> result = (Map<String, Object>) page.evaluate(TRACK_CHANGES_JS);
+		return new PageChange(String.valueOf(result.get("token")), ((Number) result.get("version")).longValue());
+	}
+
 	/**
 	 * Generate ARIA snapshot of a page using default options
 	 * @param page The page to snapshot
@@ -75,18 +183,9 @@ public class AriaSnapshot {
 			log.debug("Generating ARIA snapshot with selector: {}, timeout: {}", options.getSelector(),
 					options.getTimeout());
 
-			// Inject unique data-aria-id IDs into all elements before taking snapshot
-			// Force replace data-aria-id to ensure consistent IDs
-			page.evaluate("""
-					(() => {
-						const elements = document.querySelectorAll('*');
-						let counter = 1;
-						elements.forEach((el) => {
-							el.setAttribute('aria-label', 'aria-id-' + counter);
-							counter++;
-						});
-					})();
-					""");
+			// Label elements without an aria-id before taking snapshot; existing ids
+			// are kept so indexes stay stable while the document is the same
+			trackChanges(page);
 
 			// Wait for selector if timeout is specified (similar to frame.timeout in
 			// Playwright)
@@ -0,0 +1,181 @@
+/*
+ * Copyright 2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.lynxe.tool.browser.service;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import com.microsoft.playwright.Page;
+
+/**
+ * Remembers, for each page of a plan, the ARIA snapshot last listed in full and the
+ * element changes of the latest snapshot since that listing. A page whose document has
+ * not changed since is not snapshotted again, and while a page keeps its document only
+ * the added, removed and changed elements are described, by their stable index. A new
+ * full listing is needed for a page not seen before, after a navigation, when the changes
+ * are too many to list, and after {@link #clear()}.
+ */
+public class AriaSnapshotTracker {
+
+	private static final Pattern ELEMENT_INDEX = Pattern.compile("\\[idx=(\\d+)\\]");
+
+	/**
+	 * Maximum number of element lines listed in a change description; more changes need a
+	 * new full listing
+	 */
+	static final int MAX_CHANGE_LINES = 20;
+
+	static final String NO_CHANGES = "No changes since the full listing.";
+
+	private final Map<Page, Entry> entries = new WeakHashMap<>();
+
+	private static class Entry {
+
+		private final AriaSnapshot.PageChange change;
+
+		private final String listing;
+
+		private final String changes;
+
+		Entry(AriaSnapshot.PageChange change, String listing, String changes) {
+			this.change = change;
+			this.listing = listing;
+			this.changes = changes;
+		}
+
+	}
+
+	/**
+	 * Get the element changes of a page since its full listing if the page has not
+	 * changed since the latest snapshot
+	 * @param page The page
+	 * @param change Current document and change counter of the page
+	 * @return Changes since {@link #getListing(Page)}, or null if a new snapshot has to
+	 * be taken
+	 */
+	public synchronized String getChangesIfUnchanged(Page page, AriaSnapshot.PageChange change) {
+		Entry entry = entries.get(page);
+		if (entry != null && change.isSameDocument(entry.change) && change.getVersion() == entry.change.getVersion()) {
+			return entry.changes;
+		}
+		return null;
+	}
+
+	/**
+	 * Remember a new snapshot of a page
+	 * @param page The page
+	 * @param change Document and change counter the snapshot was taken at
+	 * @param snapshot Processed snapshot, with [idx=N] element references
+	 * @return Description of the element changes since {@link #getListing(Page)}, or null
+	 * if the snapshot has to be listed in full; it is then the listing later changes are
+	 * described against
+	 */
+	public synchronized String update(Page page, AriaSnapshot.PageChange change, String snapshot) {
+		Entry previous = entries.get(page);
+		if (previous != null && change.isSameDocument(previous.change)) {
+			String changes = describeChanges(previous.listing, snapshot);
+			if (changes != null) {
+				entries.put(page, new Entry(change, previous.listing, changes));
+				return changes;
+			}
+		}
+		entries.put(page, new Entry(change, snapshot, NO_CHANGES));
+		return null;
+	}
+
+	/**
+	 * @param page The page
+	 * @return Snapshot of the page last listed in full, or null if there is none
+	 */
+	public synchronized String getListing(Page page) {
+		Entry entry = entries.get(page);
+		return entry != null ? entry.listing : null;
+	}
+
+	/**
+	 * Forget all snapshots, e.g. when the browser context is closed
+	 */
+	public synchronized void clear() {
+		entries.clear();
+	}
+
+	/**
+	 * Compare the element lines of two snapshots of the same document
+	 * @param previous Earlier snapshot
+	 * @param current Later snapshot
+	 * @return Added (+), removed (-) and changed (~) element lines, or null if there are
+	 * more than {@link #MAX_CHANGE_LINES}
+	 */
+	static String describeChanges(String previous, String current) {
+		Map<String, String> before = indexElements(previous);
+		Map<String, String> after = indexElements(current);
+		List<String> lines = new ArrayList<>();
+		int added = 0;
+		int removed = 0;
+		int changed = 0;
+		for (Map.Entry<String, String> element : after.entrySet()) {
+			String old = before.get(element.getKey());
+			if (old == null) {
+				added++;
+				lines.add("+ " + element.getValue());
+			}
+			else if (!old.equals(element.getValue())) {
+				changed++;
+				lines.add("~ " + element.getValue());
+			}
+		}
+		for (Map.Entry<String, String> element : before.entrySet()) {
+			if (!after.containsKey(element.getKey())) {
+				removed++;
+				lines.add("- " + element.getValue());
+			}
+		}
+		if (lines.isEmpty()) {
+			return NO_CHANGES;
+		}
+		if (lines.size() > MAX_CHANGE_LINES) {
+			return null;
+		}
+		StringBuilder result = new StringBuilder();
+		result.append(String.format("%d added, %d removed, %d changed (same page, indexes unchanged)", added, removed,
+				changed));
+		for (String line : lines) {
+			result.append('\n').append(line);
+		}
+		return result.toString();
+	}
+
+	private static Map<String, String> indexElements(String snapshot) {
+		Map<String, String> elements = new LinkedHashMap<>();
+		if (snapshot == null) {
+			return elements;
+		}
+		for (String line : snapshot.split("\n")) {
+			Matcher matcher = ELEMENT_INDEX.matcher(line);
+			if (matcher.find()) {
+				String text = line.trim();
+				elements.put(matcher.group(1), text.startsWith("- ") ? text.substring(2) : text);
+			}
+		}
+		return elements;
+	}
+
+}
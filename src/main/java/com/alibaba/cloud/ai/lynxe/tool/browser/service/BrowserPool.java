@@ -0,0 +1,380 @@
+/*
+ * Copyright 2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.lynxe.tool.browser.service;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.BlockingDeque;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.microsoft.playwright.Browser;
+import com.microsoft.playwright.Playwright;
+
+/**
+ * Pool of launched browser processes.
+ *
+ * Launching Playwright and a browser takes seconds, so processes are kept running between
+ * plans and a few are launched ahead of demand. A browser is leased to one plan at a time
+ * (Playwright objects must not be used from several threads at once); the plan works in
+ * its own BrowserContext, which is closed when the lease is returned. Browsers are closed
+ * instead of reused after a number of leases, when they are disconnected, or when they
+ * were launched with settings that no longer apply (e.g. headless mode was toggled).
+ *
+ * The browser limit is soft: when every browser is leased and none is returned within the
+ * acquire timeout, another browser is launched above the limit instead of failing the
+ * plan. Browsers above the limit are closed when they are returned, so the pool shrinks
+ * back once the burst of concurrent plans is over.
+ */
+public class BrowserPool {
+
+	private static final Logger log = LoggerFactory.getLogger(BrowserPool.class);
+
+	/**
+	 * A launched browser process with its Playwright instance
+	 */
+	public static class PooledBrowser {
+
+		private final Playwright playwright;
+
+		private final Browser browser;
+
+		private final String settings;
+
+		private int uses;
+
+		public PooledBrowser(Playwright playwright, Browser browser, String settings) {
+			this.playwright = playwright;
+			this.browser = browser;
+			this.settings = settings;
+		}
+
+		public Playwright getPlaywright() {
+			return playwright;
+		}
+
+		public Browser getBrowser() {
+			return browser;
+		}
+
+		public String getSettings() {
+			return settings;
+		}
+
+		public int getUses() {
+			return uses;
+		}
+
+		void close() {
+			try {
+				if (browser.isConnected()) {
+					browser.close();
+				}
+			}
+			catch (Exception e) {
+				log.warn("Error closing pooled browser: {}", e.getMessage());
+			}
+			try {
+				playwright.close();
+			}
+			catch (Exception e) {
+				log.warn("Error closing pooled Playwright instance: {}", e.getMessage());
+			}
+		}
+
+	}
+
+	private final Supplier<PooledBrowser> launcher;
+
+	private final Supplier<String> currentSettings;
+
+	private final int maxBrowsers;
+
+	private final int warmSize;
+
+	private final int maxUses;
+
+	// Idle browsers, most recently returned first
+	private final BlockingDeque<PooledBrowser> idle = new LinkedBlockingDeque<>();
+
+	// Browsers launched or being launched and not closed yet
+	private final AtomicInteger liveBrowsers = new AtomicInteger();
+
+	private final AtomicInteger warming = new AtomicInteger();
+
+	private final ExecutorService warmExecutor;
+
+	private volatile boolean closed;
+
+	private final AtomicLong leases = new AtomicLong();
+
+	private final AtomicLong totalWaitNanos = new AtomicLong();
+
+	private final AtomicLong maxWaitNanos = new AtomicLong();
+
+	private final AtomicLong launches = new AtomicLong();
+
+	private final AtomicLong launchFailures = new AtomicLong();
+
+	private final AtomicLong totalLaunchNanos = new AtomicLong();
+
+	private final AtomicLong lastLaunchNanos = new AtomicLong();
+
+	private final AtomicLong recycled = new AtomicLong();
+
+	private final AtomicLong overflowLaunches = new AtomicLong();
+
+	/**
+	 * @param launcher Launches a new browser process
+	 * @param currentSettings Launch settings currently in effect; idle browsers launched
+	 * with other settings are closed instead of leased
+	 * @param maxBrowsers Number of browser processes kept in the pool; more are launched
+	 * only while all of them are leased
+	 * @param warmSize Number of idle browsers kept launched ahead of demand
+	 * @param maxUses Number of leases after which a browser is closed
+	 */
+	public BrowserPool(Supplier<PooledBrowser> launcher, Supplier<String> currentSettings, int maxBrowsers,
+			int warmSize, int maxUses) {
+		this.launcher = launcher;
+		this.currentSettings = currentSettings;
+		this.maxBrowsers = Math.max(1, maxBrowsers);
+		this.warmSize = Math.max(0, Math.min(warmSize, this.maxBrowsers));
+		this.maxUses = Math.max(1, maxUses);
+		this.warmExecutor = Executors.newFixedThreadPool(Math.max(1, this.warmSize), runnable -> {
+			Thread thread = new Thread(runnable, "browser-pool-warmer");
+			thread.setDaemon(true);
+			return thread;
+		});
+	}
+
+	/**
+	 * Lease a browser: an idle one if available, otherwise a newly launched one when
+	 * below the limit, otherwise the first one returned within the timeout, otherwise a
+	 * browser launched above the limit
+	 * @param timeoutMillis Maximum time to wait for a returned browser once the limit is
+	 * reached
+	 * @return Leased browser, to be returned with {@link #release}
+	 */
+	public PooledBrowser acquire(long timeoutMillis) throws InterruptedException {
+		if (closed) {
+			throw new IllegalStateException("Browser pool is closed");
+		}
+		long start = System.nanoTime();
+		long deadline = start + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+		try {
+			while (true) {
+				PooledBrowser browser = idle.pollFirst();
+				if (browser == null) {
+					if (reserveSlot()) {
+						return launch();
+					}
+					long remaining = deadline - System.nanoTime();
+					if (remaining <= 0) {
+						// Launch above the limit rather than failing the plan
+						liveBrowsers.incrementAndGet();
+						overflowLaunches.incrementAndGet();
+						log.info("All {} pooled browsers are leased, launching one above the limit", maxBrowsers);
+						return launch();
+					}
+					browser = idle.pollFirst(Math.min(remaining, TimeUnit.MILLISECONDS.toNanos(500)),
+							TimeUnit.NANOSECONDS);
+					if (browser == null) {
+						continue;
+					}
+				}
+				if (isReusable(browser)) {
+					return browser;
+				}
+				discard(browser);
+			}
+		}
+		finally {
+			long waited = System.nanoTime() - start;
+			leases.incrementAndGet();
+			totalWaitNanos.addAndGet(waited);
+			maxWaitNanos.accumulateAndGet(waited, Math::max);
+			replenish();
+		}
+	}
+
+	/**
+	 * Return a leased browser. It is kept for the next plan unless it is broken, has
+	 * reached its use limit or the pool is above its limit.
+	 * @param browser Browser returned by {@link #acquire}
+	 * @param reusable False if the plan saw the browser misbehave
+	 */
+	public void release(PooledBrowser browser, boolean reusable) {
+		browser.uses++;
+		if (!reusable || browser.uses >= maxUses || closed || !isReusable(browser)) {
+			log.info("Recycling browser after {} uses", browser.uses);
+			discard(browser);
+			replenish();
+			return;
+		}
+		if (releaseOverflowSlot()) {
+			log.info("Closing browser returned while the pool is above its limit of {}", maxBrowsers);
+			browser.close();
+			return;
+		}
+		idle.offerFirst(browser);
+	}
+
+	/**
+	 * @return Pool size, lease wait times and launch latency
+	 */
+	public Map<String, Object> getMetrics() {
+		Map<String, Object> metrics = new LinkedHashMap<>();
+		long leaseCount = leases.get();
+		long launchCount = launches.get();
+		int live = liveBrowsers.get();
+		int idleCount = idle.size();
+		metrics.put("maxBrowsers", maxBrowsers);
+		metrics.put("warmSize", warmSize);
+		metrics.put("liveBrowsers", live);
+		metrics.put("idleBrowsers", idleCount);
+		metrics.put("leasedBrowsers", Math.max(0, live - idleCount - warming.get()));
+		metrics.put("leases", leaseCount);
+		metrics.put("avgWaitMillis", leaseCount > 0 ? totalWaitNanos.get() / leaseCount / 1_000_000 : 0);
+		metrics.put("maxWaitMillis", maxWaitNanos.get() / 1_000_000);
+		metrics.put("launches", launchCount);
+		metrics.put("launchFailures", launchFailures.get());
+		metrics.put("avgLaunchMillis", launchCount > 0 ? totalLaunchNanos.get() / launchCount / 1_000_000 : 0);
+		metrics.put("lastLaunchMillis", lastLaunchNanos.get() / 1_000_000);
+		metrics.put("recycled", recycled.get());
+		metrics.put("overflowLaunches", overflowLaunches.get());
+		return metrics;
+	}
+
+	/**
+	 * Close all idle browsers and stop launching new ones. Leased browsers are closed
+	 * when they are returned.
+	 */
+	public void close() {
+		closed = true;
+		warmExecutor.shutdownNow();
+		PooledBrowser browser;
+		while ((browser = idle.pollFirst()) != null) {
+			discard(browser);
+		}
+	}
+
+	private boolean isReusable(PooledBrowser browser) {
+		try {
+			return browser.getBrowser().isConnected() && browser.getSettings().equals(currentSettings.get());
+		}
+		catch (Exception e) {
+			return false;
+		}
+	}
+
+	/**
+	 * Launch a browser in a slot reserved with {@link #reserveSlot}
+	 */
+	private PooledBrowser launch() {
+		long start = System.nanoTime();
+		try {
+			PooledBrowser browser = launcher.get();
+			long elapsed = System.nanoTime() - start;
+			launches.incrementAndGet();
+			totalLaunchNanos.addAndGet(elapsed);
+			lastLaunchNanos.set(elapsed);
+			log.info("Launched pooled browser in {} ms", elapsed / 1_000_000);
+			return browser;
+		}
+		catch (RuntimeException e) {
+			liveBrowsers.decrementAndGet();
+			launchFailures.incrementAndGet();
+			throw e;
+		}
+	}
+
+	private boolean reserveSlot() {
+		while (true) {
+			int current = liveBrowsers.get();
+			if (closed || current >= maxBrowsers) {
+				return false;
+			}
+			if (liveBrowsers.compareAndSet(current, current + 1)) {
+				return true;
+			}
+		}
+	}
+
+	/**
+	 * Give up one slot if more browsers are live than the limit
+	 * @return True if the caller must close its browser instead of keeping it idle
+	 */
+	private boolean releaseOverflowSlot() {
+		while (true) {
+			int current = liveBrowsers.get();
+			if (current <= maxBrowsers) {
+				return false;
+			}
+			if (liveBrowsers.compareAndSet(current, current - 1)) {
+				return true;
+			}
+		}
+	}
+
+	/**
+	 * Launch browsers in the background until the warm size is idle again
+	 */
+	private void replenish() {
+		while (idle.size() + warming.get() < warmSize && reserveSlot()) {
+			warming.incrementAndGet();
+			try {
+				warmExecutor.execute(() -> {
+					try {
+						PooledBrowser browser = launch();
+						if (closed) {
+							discard(browser);
+						}
+						else {
+							idle.offerLast(browser);
+						}
+					}
+					catch (RuntimeException e) {
+						log.warn("Failed to launch warm browser: {}", e.getMessage());
+					}
+					finally {
+						warming.decrementAndGet();
+					}
+				});
+			}
+			catch (RuntimeException e) {
+				// Executor already shut down
+				warming.decrementAndGet();
+				liveBrowsers.decrementAndGet();
+				return;
+			}
+		}
+	}
+
+	private void discard(PooledBrowser browser) {
+		liveBrowsers.decrementAndGet();
+		recycled.incrementAndGet();
+		browser.close();
+	}
+
+}
@@ -24,6 +24,7 @@ import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 
 import com.alibaba.cloud.ai.lynxe.config.LynxeProperties;
+import com.alibaba.cloud.ai.lynxe.tool.ToolStateInfo;
 import com.alibaba.cloud.ai.lynxe.tool.filesystem.SmartContentSavingService;
 import com.alibaba.cloud.ai.lynxe.tool.filesystem.TextFileService;
 import com.alibaba.cloud.ai.lynxe.tool.filesystem.UnifiedDirectoryManager;
@@ -133,6 +134,22 @@ public class BrowserUseCommonService {
 	 * @return Map containing browser state information
 	 */
 	public Map<String, Object> getCurrentState(Page page, String rootPlanId) {
+		return getCurrentState(page, rootPlanId, null);
+	}
+
+	/**
+	 * Get current browser state for a page, without a new ARIA snapshot if the page has
+	 * not changed since the previous one
+	 * @param page the Playwright Page instance
+	 * @param rootPlanId the root plan ID for short URL resolution
+	 * @param snapshotTracker tracker of the previous snapshots, or null to always list
+	 * all interactive elements
+	 * @return Map containing browser state information. While the page keeps the document
+	 * last listed in full, "interactive_elements" is left out;
+	 * "interactive_elements_changes" then describes the changes since that listing, which
+	 * is under "interactive_elements_listing"
+	 */
+	public Map<String, Object> getCurrentState(Page page, String rootPlanId, AriaSnapshotTracker snapshotTracker) {
 		Map<String, Object> state = new HashMap<>();
 
 		try {
@@ -220,6 +237,23 @@ public class BrowserUseCommonService {
 				state.put("tabs", List.of(Map.of("error", "Failed to get tabs: " + e.getMessage())));
 			}
 
+			// Skip the snapshot if nothing changed in the document since the previous one
+			AriaSnapshot.PageChange pageChange = null;
+			if (snapshotTracker != null) {
+				try {
+					pageChange = AriaSnapshot.trackChanges(page);
+					String changes = snapshotTracker.getChangesIfUnchanged(page, pageChange);
+					if (changes != null) {
+						state.put("interactive_elements_changes", changes);
+						state.put("interactive_elements_listing", snapshotTracker.getListing(page));
+						return state;
+					}
+				}
+				catch (Exception e) {
+					log.debug("Failed to track page changes, taking a full snapshot: {}", e.getMessage());
+				}
+			}
+
 			// Wait a bit more before generating ARIA snapshot to ensure all dynamic
 			// content
 			// (like search results) is fully rendered
@@ -249,8 +283,16 @@ public class BrowserUseCommonService {
 						shortUrlService, rootPlanId);
 				if (snapshot != null && !snapshot.trim().isEmpty()) {
 					// Snapshot may contain error message if timeout occurred, which is
-					// fine
-					state.put("interactive_elements", snapshot);
+					// fine. Only element listings are tracked, not error messages
+					String changes = pageChange != null && snapshot.contains("[idx=")
+							? snapshotTracker.update(page, pageChange, snapshot) : null;
+					if (changes != null) {
+						state.put("interactive_elements_changes", changes);
+						state.put("interactive_elements_listing", snapshotTracker.getListing(page));
+					}
+					else {
+						state.put("interactive_elements", snapshot);
+					}
 				}
 				else {
 					state.put("interactive_elements", "No interactive elements found or snapshot is empty");
@@ -278,27 +320,31 @@ public class BrowserUseCommonService {
 	}
 
 	/**
-	 * Get the current browser state as a string. Does not create a browser session; if no
-	 * session exists for the plan, returns a no-session message so env collection does
-	 * not start the browser automatically.
+	 * Get the current browser state. Does not create a browser session; if no session
+	 * exists for the plan, returns a no-session message so env collection does not start
+	 * the browser automatically. While the page keeps the document last listed in full,
+	 * the state only describes the element changes since, and that listing is the
+	 * baseline state.
+	 * @param key the tool state key
 	 * @param planId the plan ID
 	 * @param rootPlanId the root plan ID
-	 * @return String representation of the current browser state
+	 * @return Current browser state
 	 */
 	@SuppressWarnings("unchecked")
-	public String getCurrentToolStateString(String planId, String rootPlanId) {
+	public ToolStateInfo getCurrentToolState(String key, String planId, String rootPlanId) {
 		try {
 			// Use getDriverIfPresent so we do not start the browser when only collecting
 			// tool state (e.g. during agent think()). Browser starts only when a browser
 			// tool is actually executed (which calls getDriver(planId)).
 			DriverWrapper driver = chromeDriverService.getDriverIfPresent(planId);
 			if (driver == null) {
-				return """
+				return new ToolStateInfo(key, """
 						No browser session for this plan.
 						Use browser tools (e.g. navigate) to open a page first.
-						""";
+						""");
 			}
-			Map<String, Object> state = getCurrentState(driver.getCurrentPage(), rootPlanId);
+			Map<String, Object> state = getCurrentState(driver.getCurrentPage(), rootPlanId,
+					driver.getAriaSnapshotTracker());
 			// Build URL and title information
 			String urlInfo = String.format("\n   URL: %s\n   Title: %s", state.get("url"), state.get("title"));
 
@@ -332,8 +378,19 @@ public class BrowserUseCommonService {
 				}
 			}
 
-			// Get interactive element information
+			// Get interactive element information; without a full listing only the
+			// changes since the listing of the baseline state are given
 			String elementsInfo = (String) state.get("interactive_elements");
+			Object elementChanges = state.get("interactive_elements_changes");
+			Object elementListing = state.get("interactive_elements_listing");
+			String baseline = null;
+			if (elementsInfo == null && elementChanges != null && elementListing != null) {
+				elementsInfo = String.format(
+						"Same page and indexes as the full listing in the reference information. Changes since that listing:\n%s",
+						elementChanges);
+				baseline = String.format("Interactive elements and their indices, as last listed in full:\n%s",
+						elementListing);
+			}
 
 			// Build final status string
 			String retString = String.format("""
@@ -354,16 +411,16 @@ public class BrowserUseCommonService {
 					""", urlInfo, tabsInfo, elementsInfo != null ? elementsInfo : "", contentAbove, contentBelow,
 					state.containsKey("error") ? state.get("error") : "");
 
-			return retString;
+			return new ToolStateInfo(key, retString, baseline);
 		}
 		catch (Exception e) {
 			// Handle any unexpected errors gracefully - return a valid state string
 			// This ensures the flow continues even if state retrieval fails
 			log.warn("Error getting browser tool state string (non-fatal): {}", e.getMessage(), e);
-			return String.format("""
+			return new ToolStateInfo(key, String.format("""
 					Browser tool state retrieval encountered an error: %s
 					You can continue with available browser information or try again.
-					""", e.getMessage());
+					""", e.getMessage()));
 		}
 	}
 
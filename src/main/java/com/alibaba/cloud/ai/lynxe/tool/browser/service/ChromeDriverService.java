@@ -17,6 +17,7 @@ package com.alibaba.cloud.ai.lynxe.tool.browser.service;
 
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 import java.util.Random;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
@@ -26,14 +27,13 @@ import java.util.concurrent.locks.ReentrantLock;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Primary;
 import org.springframework.stereotype.Service;
 
 import com.alibaba.cloud.ai.lynxe.config.LynxeProperties;
 import com.alibaba.cloud.ai.lynxe.tool.filesystem.SmartContentSavingService;
 import com.alibaba.cloud.ai.lynxe.tool.filesystem.UnifiedDirectoryManager;
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import com.microsoft.playwright.Browser;
 import com.microsoft.playwright.BrowserContext;
 import com.microsoft.playwright.BrowserType;
@@ -53,9 +53,13 @@ public class ChromeDriverService {
 
 	private final ConcurrentHashMap<String, DriverWrapper> drivers = new ConcurrentHashMap<>();
 
-	private final ConcurrentHashMap<String, Boolean> initialCleanupDone = new ConcurrentHashMap<>();
+	// Per-plan locks, so creating a driver for one plan does not block other plans
+	private final ConcurrentHashMap<String, Lock> planLocks = new ConcurrentHashMap<>();
 
-	private final Lock driverLock = new ReentrantLock();
+	private final BrowserPool browserPool;
+
+	// Time to wait for a returned browser before launching one above the pool limit
+	private final long browserAcquireWaitMillis;
 
 	private LynxeProperties lynxeProperties;
 
@@ -66,9 +70,6 @@ public class ChromeDriverService {
 	@Autowired(required = false)
 	private SpringBootPlaywrightInitializer playwrightInitializer;
 
-	/**
-	 * Shared directory for storing cookies
-	 */
 	/**
 	 * Shared directory for storing cookies
 	 */
@@ -82,7 +83,11 @@ public class ChromeDriverService {
 	}
 
 	public ChromeDriverService(LynxeProperties lynxeProperties, SmartContentSavingService innerStorageService,
-			UnifiedDirectoryManager unifiedDirectoryManager) {
+			UnifiedDirectoryManager unifiedDirectoryManager,
+			@Value("${lynxe.browser.pool.max-browsers:8}") int maxBrowsers,
+			@Value("${lynxe.browser.pool.warm-size:1}") int warmSize,
+			@Value("${lynxe.browser.pool.max-uses:20}") int maxUses,
+			@Value("${lynxe.browser.pool.acquire-wait-millis:5000}") long browserAcquireWaitMillis) {
 		this.lynxeProperties = lynxeProperties;
 		this.innerStorageService = innerStorageService;
 		this.unifiedDirectoryManager = unifiedDirectoryManager;
@@ -96,6 +101,9 @@ public class ChromeDriverService {
 			log.error("Failed to create playwright directory", e);
 			this.sharedDir = unifiedDirectoryManager.getWorkingDirectory().resolve("playwright").toString();
 		}
+		this.browserAcquireWaitMillis = browserAcquireWaitMillis;
+		this.browserPool = new BrowserPool(this::launchBrowser, this::getLaunchSettings, maxBrowsers, warmSize,
+				maxUses);
 		Runtime.getRuntime().addShutdownHook(new Thread(() -> {
 			log.info("JVM shutting down - cleaning up Playwright processes");
 			cleanupAllPlaywrightProcesses();
@@ -108,31 +116,30 @@ public class ChromeDriverService {
 		}
 
 		DriverWrapper currentDriver = drivers.get(planId);
-		if (currentDriver != null) {
-			// Check if the existing driver is still healthy
-			if (isDriverHealthy(currentDriver)) {
-				return currentDriver;
-			}
-			else {
-				log.warn("Existing driver for planId {} is unhealthy, recreating", planId);
-				closeDriverForPlan(planId);
-				currentDriver = null;
-			}
+		if (currentDriver != null && isDriverHealthy(currentDriver)) {
+			return currentDriver;
 		}
 
 		try {
-			if (!driverLock.tryLock(30, TimeUnit.SECONDS)) {
-				throw new RuntimeException("Failed to acquire driver lock within 30 seconds for planId: " + planId);
-			}
+			Lock planLock = lockPlan(planId);
 			try {
 				currentDriver = drivers.get(planId);
-				if (currentDriver != null && isDriverHealthy(currentDriver)) {
-					return currentDriver;
+				if (currentDriver != null) {
+					if (isDriverHealthy(currentDriver)) {
+						return currentDriver;
+					}
+					log.warn("Existing driver for planId {} is unhealthy, recreating", planId);
+					drivers.remove(planId, currentDriver);
+					closeQuietly(planId, currentDriver);
 				}
-				log.info("Creating new Playwright Browser instance for planId: {}", planId);
+				log.info("Creating new browser context for planId: {}", planId);
 				currentDriver = createNewDriverWithRetry(planId);
 				if (currentDriver != null) {
-					drivers.put(planId, currentDriver);
+					DriverWrapper replaced = drivers.put(planId, currentDriver);
+					if (replaced != null && replaced != currentDriver) {
+						// Release the browser lease of a driver cached without the lock
+						closeQuietly(planId, replaced);
+					}
 					log.info("Successfully created and cached new driver for planId: {}", planId);
 				}
 				else {
@@ -141,7 +148,7 @@ public class ChromeDriverService {
 				}
 			}
 			finally {
-				driverLock.unlock();
+				planLock.unlock();
 			}
 		}
 		catch (InterruptedException e) {
@@ -156,6 +163,36 @@ public class ChromeDriverService {
 		return currentDriver;
 	}
 
+	/**
+	 * Acquire the lock of a plan. A lock is only removed by its holder, so a lock taken
+	 * after it was removed from the map is released and the current one is taken instead;
+	 * two threads can never create a driver for the same plan at once.
+	 * @param planId the plan ID
+	 * @return the held lock, to be unlocked by the caller
+	 */
+	private Lock lockPlan(String planId) throws InterruptedException {
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+		while (true) {
+			Lock planLock = planLocks.computeIfAbsent(planId, id -> new ReentrantLock());
+			if (!planLock.tryLock(deadline - System.nanoTime(), TimeUnit.NANOSECONDS)) {
+				throw new RuntimeException("Failed to acquire driver lock within 30 seconds for planId: " + planId);
+			}
+			if (planLocks.get(planId) == planLock) {
+				return planLock;
+			}
+			planLock.unlock();
+		}
+	}
+
+	private void closeQuietly(String planId, DriverWrapper driver) {
+		try {
+			driver.close();
+		}
+		catch (Exception e) {
+			log.warn("Error closing driver for planId {}: {}", planId, e.getMessage());
+		}
+	}
+
 	/**
 	 * Return the existing driver for the plan if one exists and is healthy. Does not
 	 * create a new driver. Use this when only reading state (e.g. env collection) to
@@ -177,10 +214,7 @@ public class ChromeDriverService {
 	private void cleanupAllPlaywrightProcesses() {
 		log.info("Starting cleanup of all Playwright processes and drivers");
 		try {
-			// Close all drivers first before clearing the map
-			// This ensures browser processes and I/O threads are properly terminated
-			// DriverWrapper.close() will handle closing pages, browsers, contexts, and
-			// Playwright instances
+			// Close all plan contexts first, then the pooled browser processes
 			for (String planId : drivers.keySet()) {
 				DriverWrapper driver = drivers.get(planId);
 				if (driver != null) {
@@ -196,7 +230,8 @@ public class ChromeDriverService {
 
 			// Now clear the map after all resources are closed
 			drivers.clear();
-			initialCleanupDone.clear();
+			planLocks.clear();
+			browserPool.close();
 			log.info("Successfully cleaned up all Playwright processes and drivers");
 		}
 		catch (Exception e) {
@@ -205,48 +240,32 @@ public class ChromeDriverService {
 	}
 
 	public void closeDriverForPlan(String planId) {
-		DriverWrapper driver = drivers.remove(planId);
-		if (driver != null) {
-			driver.close();
+		Lock planLock;
+		try {
+			planLock = lockPlan(planId);
 		}
-		// Remove cleanup flag when driver is closed, so next time it will do cleanup
-		// again
-		initialCleanupDone.remove(planId);
-
-		// Clean up planId-specific userDataDir after browser is closed
-		// This prevents accumulation of browser profile directories
-		if (planId != null && sharedDir != null) {
-			try {
-				java.nio.file.Path planIdUserDataDir = java.nio.file.Paths.get(sharedDir, "planId-" + planId);
-				if (java.nio.file.Files.exists(planIdUserDataDir)) {
-					// Delete the planId-specific directory
-					// Use a recursive delete utility if available, or delete files
-					// manually
-					try {
-						java.nio.file.Files.walk(planIdUserDataDir)
-							.sorted(java.util.Comparator.reverseOrder())
-							.forEach(path -> {
-								try {
-									java.nio.file.Files.delete(path);
-								}
-								catch (java.io.IOException e) {
-									log.warn("Failed to delete file/directory during cleanup: {}", path, e);
-								}
-							});
-						log.info("Successfully cleaned up planId-specific userDataDir: {}", planIdUserDataDir);
-					}
-					catch (java.io.IOException e) {
-						log.warn("Failed to clean up planId-specific userDataDir for planId {}: {}", planId,
-								e.getMessage());
-					}
-				}
-			}
-			catch (Exception e) {
-				log.warn("Error during cleanup of planId-specific userDataDir for planId {}: {}", planId,
-						e.getMessage());
-				// Don't fail the close operation if cleanup fails
+		catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new RuntimeException("Interrupted while waiting for driver lock for planId: " + planId, e);
+		}
+		try {
+			DriverWrapper driver = drivers.remove(planId);
+			if (driver != null) {
+				driver.close();
 			}
 		}
+		finally {
+			// Removed while held, so no other thread is creating a driver under it
+			planLocks.remove(planId, planLock);
+			planLock.unlock();
+		}
+	}
+
+	/**
+	 * @return Size, lease wait times and launch latency of the browser pool
+	 */
+	public Map<String, Object> getPoolMetrics() {
+		return browserPool.getMetrics();
 	}
 
 	/**
@@ -369,515 +388,226 @@ public class ChromeDriverService {
 	}
 
 	/**
-	 * Create browser driver instance with comprehensive error handling Uses
-	 * browser.newContext() for better isolation and resource management
-	 * @param planId Plan ID to track initial cleanup per plan
+	 * Create the plan's driver: lease a launched browser from the pool and open a new
+	 * BrowserContext in it. Cookies and local storage are copied into the context from
+	 * the shared storage state file instead of keeping a profile directory per plan.
+	 * @param planId Plan ID the context is created for
 	 */
 	private DriverWrapper createDriverInstance(String planId) {
-		Playwright playwright = null;
-		Browser browser = null;
-		BrowserContext browserContext = null;
-		Page page = null;
-		String userDataDir = null;
-
+		BrowserPool.PooledBrowser pooledBrowser;
 		try {
-			// Set system properties for Playwright configuration
-			System.setProperty("playwright.browsers.path", System.getProperty("user.home") + "/.cache/ms-playwright");
-			System.setProperty("playwright.driver.tmpdir", System.getProperty("java.io.tmpdir"));
-			System.setProperty("PLAYWRIGHT_SKIP_BROWSER_DOWNLOAD", "1");
-
-			// Create Playwright instance with error handling
-			try {
-				if (playwrightInitializer != null && playwrightInitializer.canInitialize()) {
-					log.info("Using SpringBootPlaywrightInitializer");
-					playwright = playwrightInitializer.createPlaywright();
-				}
-				else {
-					log.info("Using standard Playwright initialization");
-					playwright = Playwright.create();
-				}
-				log.info("Successfully created Playwright instance");
-			}
-			catch (PlaywrightException e) {
-				log.error("Playwright initialization failed: {}", e.getMessage(), e);
-				throw new RuntimeException("Failed to initialize Playwright: " + e.getMessage(), e);
-			}
-			catch (Exception e) {
-				log.error("Unexpected error during Playwright initialization: {}", e.getMessage(), e);
-				throw new RuntimeException("Unexpected error during Playwright initialization", e);
-			}
-
-			// Get browser type with error handling
-			BrowserType browserType;
-			try {
-				browserType = getBrowserTypeFromEnv(playwright);
-				log.info("Using browser type: {}", browserType.name());
-			}
-			catch (Exception e) {
-				log.error("Failed to get browser type: {}", e.getMessage(), e);
-				throw new RuntimeException("Failed to get browser type", e);
-			}
-
-			// Validate browser binaries exist before launching (helps prevent crashes)
-			try {
-				String browserPath = System.getProperty("playwright.browsers.path");
-				if (browserPath != null) {
-					java.nio.file.Path browsersDir = java.nio.file.Paths.get(browserPath);
-					if (!java.nio.file.Files.exists(browsersDir)) {
-						log.debug(
-								"Browser binaries directory does not exist: {}. Playwright will download browsers on first use.",
-								browserPath);
-					}
-					else {
-						log.debug("Browser binaries directory exists: {}", browserPath);
-					}
-				}
-			}
-			catch (Exception e) {
-				log.warn("Could not validate browser binaries path: {}", e.getMessage());
-				// Continue anyway - Playwright will handle missing binaries
-			}
+			pooledBrowser = browserPool.acquire(browserAcquireWaitMillis);
+		}
+		catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new RuntimeException("Interrupted while waiting for a browser for planId: " + planId, e);
+		}
 
-			// Use planId-specific userDataDir to allow multiple browser processes
-			// Each planId gets its own isolated userDataDir:
-			// extensions/playwright/planId-{planId}
-			// This prevents Chromium from locking the directory and allows multiple
-			// browsers
-			// Using launchPersistentContext() is the recommended Playwright way to handle
-			// persistent profiles
-			java.nio.file.Path userDataDirPath = java.nio.file.Paths.get(sharedDir, "planId-" + planId);
+		BrowserContext browserContext = null;
+		try {
+			Browser browser = pooledBrowser.getBrowser();
+			String userAgent;
 			try {
-				// Ensure the planId-specific directory exists
-				unifiedDirectoryManager.ensureDirectoryExists(userDataDirPath);
-				userDataDir = userDataDirPath.toString();
-				log.info("Configured planId-specific persistent userDataDir: {}", userDataDir);
+				userAgent = getRandomUserAgent();
 			}
 			catch (Exception e) {
-				log.warn("Failed to setup userDataDir, browser will use temporary profile: {}", e.getMessage());
-				// Continue without persistent userDataDir - history cleaning won't work
-				// but browser will still function
+				log.warn("Failed to get random user agent, using default: {}", e.getMessage());
+				userAgent = "Mozilla/5.0 (Windows NT 10.0; Win64; x64) AppleWebKit/537.36 (KHTML, like Gecko) Chrome/120.0.0.0 Safari/537.36";
 			}
 
-			// Configure launch persistent context options with optimizations for faster
-			// startup
-			// Store configuration values for use in both persistent and fallback modes
-			BrowserType.LaunchPersistentContextOptions launchOptions = new BrowserType.LaunchPersistentContextOptions();
-			List<String> args = null;
-			String userAgent = null;
-			boolean headlessMode = false;
-			java.nio.file.Path storageStatePath = null;
-			boolean hasStorageState = false;
-
-			try {
-				// Basic configuration with error handling for user agent
-				try {
-					userAgent = getRandomUserAgent();
-				}
-				catch (Exception e) {
-					log.warn("Failed to get random user agent, using default: {}", e.getMessage());
-					userAgent = "Mozilla/5.0 (Windows NT 10.0; Win64; x64) AppleWebKit/537.36 (KHTML, like Gecko) Chrome/120.0.0.0 Safari/537.36";
-				}
-
-				// Build optimized arguments list for faster startup
-				// Critical: disable background networking to prevent unnecessary network
-				// requests
-				// Note: Browser runs in normal mode (not incognito) to preserve cookies
-				// and history
-				args = new java.util.ArrayList<>(Arrays.asList(
-						// Essential arguments
-						"--remote-allow-origins=*", "--disable-blink-features=AutomationControlled",
-						"--disable-infobars", "--disable-notifications", "--disable-dev-shm-usage", "--no-sandbox",
-						"--disable-gpu", "--lang=zh-CN,zh,en-US,en", "--user-agent=" + userAgent,
-						"--window-size=800,600",
-						// Ensure normal mode (not incognito) - do not add --incognito
-						// flag
-						// Performance optimizations - disable background network requests
-						"--disable-background-networking", // Critical: prevents
-															// background network requests
-						"--disable-background-timer-throttling", "--disable-backgrounding-occluded-windows",
-						"--disable-breakpad", "--disable-client-side-phishing-detection",
-						"--disable-component-extensions-with-background-pages", "--disable-component-update", // Disables
-																												// component
-																												// updates
-						"--disable-default-apps", // Disables default apps
-						"--disable-domain-reliability", // Disables domain reliability
-														// service
-						"--disable-extensions", // Disables extensions
-						"--disable-features=TranslateUI", // Disables translate UI
-						"--disable-hang-monitor", "--disable-ipc-flooding-protection", "--disable-popup-blocking",
-						"--disable-prompt-on-repost", "--disable-renderer-backgrounding", "--disable-sync", // Disables
-																											// sync
-																											// service
-						"--disable-translate", "--metrics-recording-only", "--no-first-run", // Skips
-																								// first
-																								// run
-																								// tasks
-						"--safebrowsing-disable-auto-update", // Disables safe browsing
-																// updates
-						"--enable-automation", "--password-store=basic", "--use-mock-keychain",
-						// macOS-specific crash prevention flags
-						"--disable-software-rasterizer", // Prevents GPU-related crashes
-															// on macOS
-						"--disable-accelerated-2d-canvas", // Prevents canvas rendering
-															// crashes
-						"--disable-accelerated-video-decode", // Prevents video decode
-																// crashes
-						"--disable-features=UseChromeOSDirectVideoDecoder", // Prevents
-																			// video
-																			// decoder
-																			// crashes
-						"--disable-features=MediaFoundationRenderer", // Prevents media
-																		// foundation
-																		// crashes
-						"--js-flags=--max-old-space-size=4096")); // Limits JS memory to
-																	// prevent OOM crashes
-
-				launchOptions.setArgs(args);
-
-				// Set viewport size
-				launchOptions.setViewportSize(800, 600);
+			Browser.NewContextOptions contextOptions = new Browser.NewContextOptions();
+			contextOptions.setViewportSize(800, 600);
+			contextOptions.setUserAgent(userAgent);
+			contextOptions.setLocale("zh-CN");
+			// Disable service workers to prevent network requests during startup
+			contextOptions.setServiceWorkers(ServiceWorkerPolicy.BLOCK);
 
-				// Set user agent
-				launchOptions.setUserAgent(userAgent);
-
-				// Set locale
-				launchOptions.setLocale("zh-CN");
-
-				// Disable service workers to prevent network requests during startup
+			// Check for storage state (cookies, localStorage, etc.) for persistence
+			java.nio.file.Path storageStatePath = java.nio.file.Paths.get(sharedDir, "storage-state.json");
+			if (java.nio.file.Files.exists(storageStatePath)) {
 				try {
-					launchOptions.setServiceWorkers(ServiceWorkerPolicy.BLOCK);
-					log.debug("Service workers disabled for faster startup");
-				}
-				catch (Exception e) {
-					log.warn("Failed to disable service workers: {}", e.getMessage());
-				}
-
-				// Set headless mode based on configuration
-				headlessMode = lynxeProperties.getBrowserHeadless();
-				if (headlessMode) {
-					log.info("Enable Playwright headless mode");
-					launchOptions.setHeadless(true);
-				}
-				else {
-					log.info("Enable Playwright non-headless mode");
-					launchOptions.setHeadless(false);
-				}
-
-				// Set timeout for browser launch
-				launchOptions.setTimeout(60000); // 60 seconds timeout for browser launch
-
-				// Check for storage state (cookies, localStorage, etc.) for persistence
-				storageStatePath = java.nio.file.Paths.get(sharedDir, "storage-state.json");
-				hasStorageState = java.nio.file.Files.exists(storageStatePath);
-				if (hasStorageState) {
-					log.info("Storage state file found: {}", storageStatePath);
+					browserContext = browser.newContext(contextOptions.setStorageStatePath(storageStatePath));
+					log.info("Loaded browser storage state from: {}", storageStatePath);
 				}
-				else {
-					log.debug("Storage state file not found, creating new context without storage state: {}",
-							storageStatePath);
+				catch (PlaywrightException e) {
+					log.warn("Failed to load storage state: {}. Continuing without shared cookies.", e.getMessage());
 				}
-
 			}
-			catch (Exception e) {
-				log.error("Failed to configure browser launch options: {}", e.getMessage(), e);
-				throw new RuntimeException("Failed to configure browser launch options", e);
+			if (browserContext == null) {
+				browserContext = browser.newContext(contextOptions.setStorageStatePath(null));
 			}
 
-			// Launch persistent context with error handling
-			// Using launchPersistentContext() is the recommended Playwright way to handle
-			// persistent profiles with userDataDir
-			try {
-				if (userDataDir != null && !userDataDir.isEmpty()) {
-					// Use persistent context with userDataDir for history cleaning
-					browserContext = browserType.launchPersistentContext(userDataDirPath, launchOptions);
-					log.info("Successfully launched Playwright persistent context with userDataDir: {}", userDataDir);
-					// Get browser instance from context (browser is automatically managed
-					// by Playwright)
-					browser = browserContext.browser();
-					if (browser == null) {
-						throw new RuntimeException("Browser context created but browser is null");
-					}
-
-					// Load shared cookies from storage-state.json if it exists
-					// This allows multiple browser instances to share cookies
-					if (hasStorageState && storageStatePath != null) {
-						try {
-							// Read and parse storage state JSON file
-							ObjectMapper objectMapper = new ObjectMapper();
-							JsonNode storageStateJson = objectMapper.readTree(storageStatePath.toFile());
-							JsonNode cookiesNode = storageStateJson.get("cookies");
-							if (cookiesNode != null && cookiesNode.isArray() && cookiesNode.size() > 0) {
-								// Convert JSON cookies to Playwright Cookie objects
-								List<com.microsoft.playwright.options.Cookie> cookies = new java.util.ArrayList<>();
-								for (JsonNode cookieNode : cookiesNode) {
-									com.microsoft.playwright.options.Cookie cookie = new com.microsoft.playwright.options.Cookie(
-											cookieNode.get("name").asText(), cookieNode.get("value").asText());
-									if (cookieNode.has("domain")) {
-										cookie.setDomain(cookieNode.get("domain").asText());
-									}
-									if (cookieNode.has("path")) {
-										cookie.setPath(cookieNode.get("path").asText());
-									}
-									if (cookieNode.has("expires")) {
-										cookie.setExpires(cookieNode.get("expires").asDouble());
-									}
-									if (cookieNode.has("httpOnly")) {
-										cookie.setHttpOnly(cookieNode.get("httpOnly").asBoolean());
-									}
-									if (cookieNode.has("secure")) {
-										cookie.setSecure(cookieNode.get("secure").asBoolean());
-									}
-									// Note: sameSite is typically handled automatically
-									// by Playwright
-									// when loading from storage state, so we skip manual
-									// setting
-									cookies.add(cookie);
-								}
-								if (!cookies.isEmpty()) {
-									browserContext.addCookies(cookies);
-									log.info("Loaded {} cookies from shared storage state: {}", cookies.size(),
-											storageStatePath);
-								}
-							}
-						}
-						catch (Exception e) {
-							log.warn(
-									"Failed to load shared cookies from storage state: {}. Continuing without shared cookies.",
-									e.getMessage());
-							// Continue without shared cookies - browser will still
-							// function
-						}
-					}
-				}
-				else {
-					// Fallback: use regular launch if userDataDir creation failed
-					log.warn("userDataDir not available, falling back to regular launch");
-					BrowserType.LaunchOptions regularLaunchOptions = new BrowserType.LaunchOptions();
-					if (args != null) {
-						regularLaunchOptions.setArgs(args);
-					}
-					regularLaunchOptions.setHeadless(headlessMode);
-					regularLaunchOptions.setTimeout(60000); // 60 seconds timeout
-					browser = browserType.launch(regularLaunchOptions);
-					log.info("Successfully launched Playwright Browser instance (fallback mode)");
-
-					// Create context with the same options
-					Browser.NewContextOptions contextOptions = new Browser.NewContextOptions();
-					contextOptions.setViewportSize(800, 600);
-					if (userAgent != null) {
-						contextOptions.setUserAgent(userAgent);
-					}
-					contextOptions.setLocale("zh-CN");
-					contextOptions.setServiceWorkers(ServiceWorkerPolicy.BLOCK);
-					if (hasStorageState && storageStatePath != null) {
-						contextOptions.setStorageStatePath(storageStatePath);
-						log.info("Loading browser storage state from: {}", storageStatePath);
-					}
-					browserContext = browser.newContext(contextOptions);
-					log.info("Successfully created browser context (fallback mode)");
-				}
-
-				// Verify browser connection
-				if (browser != null && !browser.isConnected()) {
-					throw new RuntimeException("Browser launched but is not connected");
-				}
-
-				// Verify context is valid
-				if (browserContext == null) {
-					throw new RuntimeException("Browser context was created but is null");
-				}
-
-				// Set up browser disconnect listener for cleanup
-				// Note: This event fires both on normal close and unexpected crashes
-				if (browser != null) {
-					browser.onDisconnected((Browser disconnectedBrowser) -> {
-						// Use DEBUG level since this is expected during normal browser
-						// shutdown
-						log.debug("Browser disconnected for planId: {}", findPlanIdForBrowser(disconnectedBrowser));
-						// Mark driver as unhealthy for this planId
-						String disconnectedPlanId = findPlanIdForBrowser(disconnectedBrowser);
-						if (disconnectedPlanId != null) {
-							log.debug("Removing disconnected browser driver for planId: {}", disconnectedPlanId);
-							drivers.remove(disconnectedPlanId);
-						}
-					});
-					log.debug("Browser disconnect listener registered");
-				}
-
-			}
-			catch (PlaywrightException e) {
-				log.error("Failed to launch browser context: {}", e.getMessage(), e);
-				throw new RuntimeException("Failed to launch browser context: " + e.getMessage(), e);
-			}
-			catch (Exception e) {
-				log.error("Unexpected error during browser context launch: {}", e.getMessage(), e);
-				throw new RuntimeException("Unexpected error during browser context launch", e);
-			}
-
-			// Create new page from context with error handling
-			// According to Playwright call tree: context.newPage() ->
-			// sendMessage("newPage")
-			// -> [driver process] creates new page and initializes page environment
-			try {
-				// browserContext is guaranteed to be non-null here due to previous
-				// validation
-
-				// Check if there are existing pages from storage state
-				// When storage state is loaded, context.newContext() may restore existing
-				// pages
-				// We preserve them instead of closing, as they may contain important
-				// state
-				// Use cached hasStorageState flag to avoid duplicate file system check
-				if (hasStorageState) {
-					try {
-						// Check for existing pages restored from storage state
-						List<Page> existingPages = browserContext.pages();
-						if (!existingPages.isEmpty()) {
-							log.info("Found {} existing page(s) from storage state for planId {}, preserving them",
-									existingPages.size(), planId);
-							// Use the first existing page if available
-							page = existingPages.get(0);
-							log.info("Using existing page from storage state: {}", page.url());
-						}
-						else {
-							// No existing pages restored, create a new one
-							page = browserContext.newPage();
-							log.info("Successfully created new page from context");
-						}
-					}
-					catch (Exception e) {
-						log.warn("Failed to check existing pages from storage state, creating new page: {}",
-								e.getMessage());
-						// Fallback: create new page if we can't check existing pages
-						page = browserContext.newPage();
-						log.info("Successfully created new page from context (fallback)");
-					}
-				}
-				else {
-					// No storage state, directly create new page without checking
-					// existing pages
-					// This avoids unnecessary browserContext.pages() call when we know
-					// there are no pages
-					page = browserContext.newPage();
-					log.info("Successfully created new page from context (no storage state)");
-				}
-
-				// Verify page is not closed
-				if (page.isClosed()) {
-					throw new RuntimeException("Page was created but is already closed");
-				}
-
-			}
-			catch (PlaywrightException e) {
-				log.error("Failed to create new page from context: {}", e.getMessage(), e);
-				// Check if context was closed
-				if (e.getMessage() != null && (e.getMessage().contains("Target closed")
-						|| e.getMessage().contains("Context has been closed"))) {
-					throw new RuntimeException("Browser context was closed while creating page: " + e.getMessage(), e);
-				}
-				throw new RuntimeException("Failed to create new page: " + e.getMessage(), e);
-			}
-			catch (Exception e) {
-				log.error("Unexpected error during page creation: {}", e.getMessage(), e);
-				throw new RuntimeException("Unexpected error during page creation", e);
+			Page page = browserContext.newPage();
+			if (page.isClosed()) {
+				throw new RuntimeException("Page was created but is already closed");
 			}
 
 			// Configure page timeouts with error handling
 			try {
 				Integer timeout = lynxeProperties.getBrowserRequestTimeout();
-				if (timeout != null && timeout > 0) {
-					log.info("Setting browser page timeout to {} seconds", timeout);
-					page.setDefaultTimeout(timeout * 1000); // Convert to milliseconds
-					page.setDefaultNavigationTimeout(timeout * 1000);
-					// Also set context-level timeout
-					browserContext.setDefaultTimeout(timeout * 1000);
-					browserContext.setDefaultNavigationTimeout(timeout * 1000);
-				}
-				else {
-					// Set reasonable default timeouts
-					log.info("Setting default browser timeouts (30 seconds)");
-					page.setDefaultTimeout(30000);
-					page.setDefaultNavigationTimeout(30000);
-					browserContext.setDefaultTimeout(30000);
-					browserContext.setDefaultNavigationTimeout(30000);
-				}
+				int timeoutMillis = timeout != null && timeout > 0 ? timeout * 1000 : 30000;
+				log.info("Setting browser page timeout to {} ms", timeoutMillis);
+				page.setDefaultTimeout(timeoutMillis);
+				page.setDefaultNavigationTimeout(timeoutMillis);
+				browserContext.setDefaultTimeout(timeoutMillis);
+				browserContext.setDefaultNavigationTimeout(timeoutMillis);
 			}
 			catch (Exception e) {
 				log.warn("Failed to set page/context timeouts, continuing with defaults: {}", e.getMessage());
 			}
 
-			// Create and return DriverWrapper with error handling
-			// Following best practices: Browser -> BrowserContext -> Page
-			try {
-				DriverWrapper wrapper = new DriverWrapper(playwright, browser, browserContext, page, this.sharedDir,
-						userDataDir);
-				log.info("Successfully created DriverWrapper instance with browser context");
-				return wrapper;
-			}
-			catch (Exception e) {
-				log.error("Failed to create DriverWrapper: {}", e.getMessage(), e);
-				throw new RuntimeException("Failed to create DriverWrapper", e);
-			}
-
+			log.info("Created browser context for planId: {} (browser used {} times before)", planId,
+					pooledBrowser.getUses());
+			return new DriverWrapper(browserPool, pooledBrowser, browserContext, page, this.sharedDir);
 		}
 		catch (Exception e) {
-			// Comprehensive cleanup on any error
-			// Follow Playwright best practices: Context -> Browser -> Playwright
-			// According to call tree: context.close() automatically closes all pages
-			log.error("Driver creation failed, performing cleanup: {}", e.getMessage(), e);
-
-			// Step 1: Close browser context first (best practice)
-			// This will automatically close all pages in the context
-			// According to call tree: context.close() -> sendMessage("close")
-			// -> [driver process] closes all pages and cleans up all resources
+			log.error("Browser context creation failed for planId: {}: {}", planId, e.getMessage(), e);
 			if (browserContext != null) {
 				try {
-					// Check if browser is still connected before closing context
-					if (browser != null && browser.isConnected()) {
-						browserContext.close();
-						log.debug("Cleaned up browser context after error (pages closed automatically)");
-					}
-					else {
-						log.debug("Browser disconnected, skipping context close");
-					}
+					browserContext.close();
 				}
 				catch (Exception ex) {
 					log.warn("Failed to close browser context during cleanup: {}", ex.getMessage());
 				}
 			}
-			// Note: No need to close page separately - context.close() handles it
-
-			// Step 2: Close browser (after contexts are closed)
-			if (browser != null && browser.isConnected()) {
-				try {
-					browser.close();
-					log.debug("Cleaned up browser after error");
-				}
-				catch (Exception ex) {
-					log.warn("Failed to close browser during cleanup: {}", ex.getMessage());
-				}
+			// A browser that failed to open a context is not handed out again
+			browserPool.release(pooledBrowser, false);
+			if (e instanceof RuntimeException) {
+				throw (RuntimeException) e;
 			}
+			throw new RuntimeException("Failed to create browser context", e);
+		}
+	}
 
-			// Step 3: Close Playwright instance (terminates I/O threads)
-			if (playwright != null) {
-				try {
-					playwright.close();
-					log.debug("Cleaned up playwright after error");
-				}
-				catch (Exception ex) {
-					log.warn("Failed to close playwright during cleanup: {}", ex.getMessage());
-				}
+	/**
+	 * Launch a browser process for the pool. Called on the thread that first needs it or
+	 * on a pool warmer thread, never under a global lock.
+	 */
+	private BrowserPool.PooledBrowser launchBrowser() {
+		// Set system properties for Playwright configuration
+		System.setProperty("playwright.browsers.path", System.getProperty("user.home") + "/.cache/ms-playwright");
+		System.setProperty("playwright.driver.tmpdir", System.getProperty("java.io.tmpdir"));
+		System.setProperty("PLAYWRIGHT_SKIP_BROWSER_DOWNLOAD", "1");
+
+		String settings = getLaunchSettings();
+		Playwright playwright;
+		try {
+			if (playwrightInitializer != null && playwrightInitializer.canInitialize()) {
+				log.info("Using SpringBootPlaywrightInitializer");
+				playwright = playwrightInitializer.createPlaywright();
 			}
+			else {
+				log.info("Using standard Playwright initialization");
+				playwright = Playwright.create();
+			}
+		}
+		catch (Exception e) {
+			log.error("Playwright initialization failed: {}", e.getMessage(), e);
+			throw new RuntimeException("Failed to initialize Playwright: " + e.getMessage(), e);
+		}
 
-			if (e instanceof RuntimeException) {
-				throw (RuntimeException) e;
+		try {
+			BrowserType browserType = getBrowserTypeFromEnv(playwright);
+			boolean headlessMode = Boolean.TRUE.equals(lynxeProperties.getBrowserHeadless());
+			log.info("Launching {} browser (headless: {})", browserType.name(), headlessMode);
+			BrowserType.LaunchOptions launchOptions = new BrowserType.LaunchOptions();
+			launchOptions.setArgs(buildLaunchArgs());
+			launchOptions.setHeadless(headlessMode);
+			launchOptions.setTimeout(60000); // 60 seconds timeout for browser launch
+			Browser browser = browserType.launch(launchOptions);
+			if (!browser.isConnected()) {
+				throw new RuntimeException("Browser launched but is not connected");
+			}
+
+			// Note: This event fires both on normal close and unexpected crashes
+			browser.onDisconnected((Browser disconnectedBrowser) -> {
+				String disconnectedPlanId = findPlanIdForBrowser(disconnectedBrowser);
+				if (disconnectedPlanId != null) {
+					log.debug("Removing disconnected browser driver for planId: {}", disconnectedPlanId);
+					drivers.remove(disconnectedPlanId);
+				}
+			});
+			return new BrowserPool.PooledBrowser(playwright, browser, settings);
+		}
+		catch (RuntimeException e) {
+			try {
+				playwright.close();
 			}
-			else {
-				throw new RuntimeException("Failed to initialize Playwright Browser", e);
+			catch (Exception ex) {
+				log.warn("Failed to close playwright during cleanup: {}", ex.getMessage());
 			}
+			throw e;
 		}
 	}
 
+	/**
+	 * Settings a pooled browser was launched with; browsers launched with other settings
+	 * are recycled
+	 */
+	private String getLaunchSettings() {
+		String browserName = System.getenv("BROWSER");
+		return (browserName != null ? browserName.toLowerCase() : "chromium") + "|headless="
+				+ Boolean.TRUE.equals(lynxeProperties.getBrowserHeadless());
+	}
+
+	/**
+	 * Build browser arguments optimized for fast startup. The user agent is set per
+	 * context, so plans sharing a browser process can still differ.
+	 */
+	private List<String> buildLaunchArgs() {
+		// Critical: disable background networking to prevent unnecessary network
+		// requests
+		// Note: Browser runs in normal mode (not incognito) to preserve cookies
+		// and history
+		return new java.util.ArrayList<>(Arrays.asList(
+				// Essential arguments
+				"--remote-allow-origins=*", "--disable-blink-features=AutomationControlled", "--disable-infobars",
+				"--disable-notifications", "--disable-dev-shm-usage", "--no-sandbox", "--disable-gpu",
+				"--lang=zh-CN,zh,en-US,en", "--window-size=800,600",
+				// Ensure normal mode (not incognito) - do not add --incognito
+				// flag
+				// Performance optimizations - disable background network requests
+				"--disable-background-networking", // Critical: prevents
+													// background network requests
+				"--disable-background-timer-throttling", "--disable-backgrounding-occluded-windows",
+				"--disable-breakpad", "--disable-client-side-phishing-detection",
+				"--disable-component-extensions-with-background-pages", "--disable-component-update", // Disables
+																										// component
+																										// updates
+				"--disable-default-apps", // Disables default apps
+				"--disable-domain-reliability", // Disables domain reliability
+												// service
+				"--disable-extensions", // Disables extensions
+				"--disable-features=TranslateUI", // Disables translate UI
+				"--disable-hang-monitor", "--disable-ipc-flooding-protection", "--disable-popup-blocking",
+				"--disable-prompt-on-repost", "--disable-renderer-backgrounding", "--disable-sync", // Disables
+																									// sync
+																									// service
+				"--disable-translate", "--metrics-recording-only", "--no-first-run", // Skips
+																						// first
+																						// run
+																						// tasks
+				"--safebrowsing-disable-auto-update", // Disables safe browsing
+														// updates
+				"--enable-automation", "--password-store=basic", "--use-mock-keychain",
+				// macOS-specific crash prevention flags
+				"--disable-software-rasterizer", // Prevents GPU-related crashes
+													// on macOS
+				"--disable-accelerated-2d-canvas", // Prevents canvas rendering
+													// crashes
+				"--disable-accelerated-video-decode", // Prevents video decode
+														// crashes
+				"--disable-features=UseChromeOSDirectVideoDecoder", // Prevents
+																	// video
+																	// decoder
+																	// crashes
+				"--disable-features=MediaFoundationRenderer", // Prevents media
+																// foundation
+																// crashes
+				"--js-flags=--max-old-space-size=4096")); // Limits JS memory to
+															// prevent OOM crashes
+	}
+
 	/**
 	 * Get browser type, supports environment variable configuration
 	 */
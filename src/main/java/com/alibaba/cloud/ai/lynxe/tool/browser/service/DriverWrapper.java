@@ -15,8 +15,11 @@
  */
 package com.alibaba.cloud.ai.lynxe.tool.browser.service;
 
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
@@ -30,17 +33,18 @@ import com.microsoft.playwright.Page;
 import com.microsoft.playwright.Playwright;
 
 /**
- * Wrapper for Playwright browser resources following best practices. Uses Storage State
- * for persistence (cookies, localStorage, sessionStorage). Ensures proper cleanup order:
- * BrowserContext -> Browser -> Playwright
+ * Wrapper for the Playwright resources of one plan: its own BrowserContext in a browser
+ * leased from the {@link BrowserPool}. Uses Storage State for persistence (cookies,
+ * localStorage, sessionStorage). Closing saves the storage state, closes the context and
+ * returns the browser to the pool.
  */
 public class DriverWrapper {
 
 	private static final Logger log = LoggerFactory.getLogger(DriverWrapper.class);
 
-	private final Playwright playwright;
+	private final BrowserPool browserPool;
 
-	private final Browser browser;
+	private final BrowserPool.PooledBrowser pooledBrowser;
 
 	private final BrowserContext browserContext;
 
@@ -48,25 +52,25 @@ public class DriverWrapper {
 
 	private final Path storageStatePath;
 
-	private final String userDataDir;
+	private volatile boolean closed;
+
+	private final AriaSnapshotTracker ariaSnapshotTracker = new AriaSnapshotTracker();
 
 	/**
 	 * Create a new DriverWrapper with Playwright resources. Following best practices:
 	 * Browser -> BrowserContext -> Page
-	 * @param playwright Playwright instance
-	 * @param browser Browser instance
-	 * @param browserContext Browser context instance
+	 * @param browserPool Pool the browser is returned to on close
+	 * @param pooledBrowser Browser leased for this plan
+	 * @param browserContext Browser context of this plan
 	 * @param currentPage Current page instance
 	 * @param storageStateDir Directory for storing storage state
-	 * @param userDataDir Path to the Chrome user data directory (for history cleaning)
 	 */
-	public DriverWrapper(Playwright playwright, Browser browser, BrowserContext browserContext, Page currentPage,
-			String storageStateDir, String userDataDir) {
-		this.playwright = playwright;
-		this.browser = browser;
+	public DriverWrapper(BrowserPool browserPool, BrowserPool.PooledBrowser pooledBrowser,
+			BrowserContext browserContext, Page currentPage, String storageStateDir) {
+		this.browserPool = browserPool;
+		this.pooledBrowser = pooledBrowser;
 		this.browserContext = browserContext;
 		this.currentPage = currentPage;
-		this.userDataDir = userDataDir;
 
 		// Set storage state path
 		if (storageStateDir == null || storageStateDir.trim().isEmpty()) {
@@ -78,9 +82,6 @@ public class DriverWrapper {
 		}
 
 		log.info("DriverWrapper created with storage state path: {}", this.storageStatePath.toAbsolutePath());
-		if (userDataDir != null && !userDataDir.isEmpty()) {
-			log.info("DriverWrapper configured with userDataDir for history cleaning: {}", userDataDir);
-		}
 	}
 
 	/**
@@ -108,14 +109,14 @@ public class DriverWrapper {
 	 * Get the browser
 	 */
 	public Browser getBrowser() {
-		return browser;
+		return pooledBrowser.getBrowser();
 	}
 
 	/**
 	 * Get the Playwright instance
 	 */
 	public Playwright getPlaywright() {
-		return playwright;
+		return pooledBrowser.getPlaywright();
 	}
 
 	/**
@@ -125,10 +126,18 @@ public class DriverWrapper {
 		return storageStatePath;
 	}
 
+	/**
+	 * Get the tracker of the last ARIA snapshot of each page
+	 */
+	public AriaSnapshotTracker getAriaSnapshotTracker() {
+		return ariaSnapshotTracker;
+	}
+
 	/**
 	 * Save storage state (cookies, localStorage, sessionStorage) asynchronously with
 	 * timeout. This is the recommended way to persist browser state according to
-	 * Playwright best practices.
+	 * Playwright best practices. The state is written to a temporary file first, since
+	 * contexts of several plans save to the same shared file.
 	 */
 	public void saveStorageState() {
 		if (browserContext == null) {
@@ -141,7 +150,10 @@ public class DriverWrapper {
 			// shutdown
 			CompletableFuture<Void> saveFuture = CompletableFuture.runAsync(() -> {
 				try {
-					browserContext.storageState(new BrowserContext.StorageStateOptions().setPath(storageStatePath));
+					Path tempPath = storageStatePath.resolveSibling("storage-state-" + UUID.randomUUID() + ".json.tmp");
+					browserContext.storageState(new BrowserContext.StorageStateOptions().setPath(tempPath));
+					Files.move(tempPath, storageStatePath, StandardCopyOption.REPLACE_EXISTING,
+							StandardCopyOption.ATOMIC_MOVE);
 					log.info("Storage state saved successfully to: {}", storageStatePath.toAbsolutePath());
 				}
 				catch (Exception e) {
@@ -167,21 +179,14 @@ public class DriverWrapper {
 	}
 
 	/**
-	 * Close all resources following Playwright best practices.
-	 *
-	 * <p>
-	 * According to Playwright documentation, BrowserContext should be explicitly closed
-	 * before calling Browser.close() to ensure graceful cleanup and proper event
-	 * handling.
+	 * Close the plan's resources following Playwright best practices.
 	 *
 	 * <p>
 	 * Cleanup order:
 	 * <ol>
 	 * <li>Save storage state (preserves cookies, localStorage, sessionStorage)</li>
 	 * <li>Close BrowserContext (closes all pages and ensures artifacts are flushed)</li>
-	 * <li>Clean browsing history from userDataDir (if configured, preserves cookies)</li>
-	 * <li>Close Browser (after all contexts are closed)</li>
-	 * <li>Close Playwright (terminates I/O threads)</li>
+	 * <li>Return the browser to the pool, which closes it if it is no longer usable</li>
 	 * </ol>
 	 *
 	 * <p>
@@ -191,7 +196,11 @@ public class DriverWrapper {
 	 * and before calling Browser.close()"
 	 */
 	public void close() {
-		log.info("Closing DriverWrapper and all associated resources");
+		if (closed) {
+			return;
+		}
+		closed = true;
+		log.info("Closing DriverWrapper and releasing its browser");
 
 		// Step 1: Save storage state before closing anything
 		// This preserves cookies, localStorage, sessionStorage, and other browser state
@@ -202,14 +211,13 @@ public class DriverWrapper {
 			log.warn("Failed to save storage state during close: {}", e.getMessage());
 		}
 
-		// Step 2: Close BrowserContext first (best practice)
-		// This will close all pages in the context and ensure proper event handling
-		// History files may be locked while context is open, so we must close context
-		// first
+		// Step 2: Close BrowserContext so the next plan starts from a clean state
+		boolean reusable = true;
 		if (browserContext != null) {
 			try {
-				if (!browserContext.browser().isConnected()) {
+				if (!pooledBrowser.getBrowser().isConnected()) {
 					log.debug("Browser already disconnected, skipping context close");
+					reusable = false;
 				}
 				else {
 					browserContext.close();
@@ -218,66 +226,16 @@ public class DriverWrapper {
 			}
 			catch (Exception e) {
 				log.warn("Error closing browser context: {}", e.getMessage());
+				reusable = false;
 			}
 		}
 
-		// Step 2.5: Clean browsing history after context is closed
-		// This must happen after context.close() to ensure history files are not locked
-		// Cookies are preserved because they're saved separately via storage state
-		if (userDataDir != null && !userDataDir.isEmpty()) {
-			try {
-				log.info("Cleaning browsing history from userDataDir: {}", userDataDir);
-				boolean cleaned = ChromeHistoryCleaner.cleanHistory(userDataDir);
-				if (cleaned) {
-					log.info("Successfully cleaned browsing history");
-					// Verify cookies are still preserved
-					if (ChromeHistoryCleaner.verifyCookiesPreserved(userDataDir)) {
-						log.info("Cookies verified after history cleaning");
-					}
-					else {
-						log.warn(
-								"Cookies file not found after history cleaning - this is expected if using storage-state.json");
-					}
-				}
-				else {
-					log.warn("History cleaning completed with some errors");
-				}
-			}
-			catch (Exception e) {
-				log.warn("Failed to clean browsing history: {}", e.getMessage(), e);
-				// Don't fail the close operation if history cleaning fails
-			}
-		}
-
-		// Step 3: Close Browser (after contexts are closed)
-		if (browser != null) {
-			try {
-				if (browser.isConnected()) {
-					browser.close();
-					log.debug("Successfully closed browser");
-				}
-				else {
-					log.debug("Browser was already disconnected");
-				}
-			}
-			catch (Exception e) {
-				log.warn("Error closing browser: {}", e.getMessage());
-			}
-		}
-
-		// Step 4: Close Playwright instance (terminates I/O threads)
-		if (playwright != null) {
-			try {
-				playwright.close();
-				log.debug("Successfully closed Playwright instance");
-			}
-			catch (Exception e) {
-				log.warn("Error closing Playwright instance: {}", e.getMessage());
-			}
-		}
+		// Step 3: Return the browser to the pool
+		browserPool.release(pooledBrowser, reusable);
 
 		// Clear current page reference
 		currentPage = null;
+		ariaSnapshotTracker.clear();
 
 		log.info("DriverWrapper close operation completed");
 	}
@@ -34,6 +34,7 @@ import com.alibaba.cloud.ai.lynxe.mcp.service.McpService;
 import com.alibaba.cloud.ai.lynxe.planning.PlanningFactory;
 import com.alibaba.cloud.ai.lynxe.planning.PlanningFactory.ToolCallBackContext;
 import com.alibaba.cloud.ai.lynxe.tool.ToolCallBiFunctionDef;
+import com.alibaba.cloud.ai.lynxe.tool.browser.service.ChromeDriverService;
 
 /**
  * Tool Controller - Provides API endpoints for tool management
@@ -51,6 +52,9 @@ public class ToolController {
 	@Autowired
 	private McpService mcpService;
 
+	@Autowired
+	private ChromeDriverService chromeDriverService;
+
 	/**
 	 * Get all available tools
 	 * @return List of available tools
@@ -109,4 +113,13 @@ public class ToolController {
 		}
 	}
 
+	/**
+	 * Get usage counters of the browser pool used by browser tools
+	 * @return Pool size, lease wait times and launch latency
+	 */
+	@GetMapping("/browser-pool/metrics")
+	public ResponseEntity<Map<String, Object>> getBrowserPoolMetrics() {
+		return ResponseEntity.ok(chromeDriverService.getPoolMetrics());
+	}
+
 }
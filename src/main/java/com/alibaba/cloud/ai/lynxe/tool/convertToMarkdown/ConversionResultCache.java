@@ -0,0 +1,259 @@
+/*
+ * Copyright 2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.lynxe.tool.convertToMarkdown;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.alibaba.cloud.ai.lynxe.tool.filesystem.UnifiedDirectoryManager;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+
+/**
+ * Content-addressed cache of conversion results shared by all plans.
+ *
+ * Entries are keyed by the SHA-256 of the converted content together with the converter,
+ * model and additional requirement, so the same file uploaded to different plans is
+ * converted once. PDF OCR additionally stores one entry per rendered page, so a document
+ * with a few changed pages only sends those pages to the model again. Entries are plain
+ * text files under the working directory; when their total size exceeds the limit, the
+ * least recently used ones are deleted.
+ */
+@Component
+public class ConversionResultCache {
+
+	private static final Logger log = LoggerFactory.getLogger(ConversionResultCache.class);
+
+	private static final String CACHE_DIR = "conversion_cache";
+
+	private final UnifiedDirectoryManager directoryManager;
+
+	private final long maxSizeBytes;
+
+	// Entry key -> size in bytes, in access order (eldest first)
+	private final LinkedHashMap<String, Long> index = new LinkedHashMap<>(256, 0.75f, true);
+
+	private long totalBytes;
+
+	private boolean indexLoaded;
+
+	public ConversionResultCache(UnifiedDirectoryManager directoryManager,
+			@Value("${lynxe.conversion-cache.max-size-mb:1024}") long maxSizeMb) {
+		this.directoryManager = directoryManager;
+		this.maxSizeBytes = maxSizeMb * 1024 * 1024;
+	}
+
+	/**
+	 * Hash the content of a file
+	 * @param file File to hash
+	 * @return Hex encoded SHA-256 of the file content
+	 */
+	public static String hashFile(Path file) throws IOException {
+		return com.google.common.io.Files.asByteSource(file.toFile()).hash(Hashing.sha256()).toString();
+	}
+
+	/**
+	 * Hash in-memory content, e.g. a rendered page image
+	 * @param content Bytes to hash
+	 * @return Hex encoded SHA-256 of the content
+	 */
+	public static String hashBytes(byte[] content) {
+		return Hashing.sha256().hashBytes(content).toString();
+	}
+
+	/**
+	 * Build the key of a conversion result
+	 * @param converter Converter type, e.g. "pdf" or "pdf-ocr-page"
+	 * @param contentHash Hash of the converted content
+	 * @param modelName Model used for the conversion, or null for the default model
+	 * @param additionalRequirement Additional requirement passed to the model, or null
+	 * @return Hex encoded key
+	 */
+	public static String key(String converter, String contentHash, String modelName, String additionalRequirement) {
+		Hasher hasher = Hashing.sha256().newHasher();
+		for (String part : new String[] { converter, contentHash, modelName, additionalRequirement }) {
+			// Separate parts so that adjacent values cannot be shifted into each other
+			String value = part != null ? part.trim() : "";
+			hasher.putInt(value.length()).putString(value, StandardCharsets.UTF_8);
+		}
+		return hasher.hash().toString();
+	}
+
+	/**
+	 * Look up a conversion result
+	 * @param key Key built by {@link #key}
+	 * @return Cached result, or empty if not cached
+	 */
+	public Optional<String> get(String key) {
+		synchronized (this) {
+			loadIndex();
+			if (index.get(key) == null) {
+				return Optional.empty();
+			}
+		}
+		Path entry = entryFile(key);
+		try {
+			String content = Files.readString(entry, StandardCharsets.UTF_8);
+			// Keep the access order across restarts
+			Files.setLastModifiedTime(entry, FileTime.fromMillis(System.currentTimeMillis()));
+			return Optional.of(content);
+		}
+		catch (NoSuchFileException e) {
+			remove(key);
+			return Optional.empty();
+		}
+		catch (IOException e) {
+			log.warn("Failed to read conversion cache entry {}: {}", key, e.getMessage());
+			return Optional.empty();
+		}
+	}
+
+	/**
+	 * Store a conversion result, evicting least recently used entries beyond the size
+	 * limit
+	 * @param key Key built by {@link #key}
+	 * @param content Conversion result
+	 */
+	public void put(String key, String content) {
+		byte[] bytes = content.getBytes(StandardCharsets.UTF_8);
+		if (bytes.length > maxSizeBytes) {
+			return;
+		}
+		Path entry = entryFile(key);
+		try {
+			Files.createDirectories(entry.getParent());
+			// Write to a temp file first so readers never see a partial entry
+			Path temp = Files.createTempFile(entry.getParent(), key, ".tmp");
+			Files.write(temp, bytes);
+			Files.move(temp, entry, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		}
+		catch (IOException e) {
+			log.warn("Failed to write conversion cache entry {}: {}", key, e.getMessage());
+			return;
+		}
+		List<String> evicted;
+		synchronized (this) {
+			loadIndex();
+			Long previous = index.put(key, (long) bytes.length);
+			totalBytes += bytes.length - (previous != null ? previous : 0);
+			evicted = evictOverLimit();
+		}
+		for (String evictedKey : evicted) {
+			try {
+				Files.deleteIfExists(entryFile(evictedKey));
+			}
+			catch (IOException e) {
+				log.warn("Failed to delete conversion cache entry {}: {}", evictedKey, e.getMessage());
+			}
+		}
+		if (!evicted.isEmpty()) {
+			log.info("Evicted {} conversion cache entries, cache size now {} bytes", evicted.size(), getTotalBytes());
+		}
+	}
+
+	/**
+	 * @return Total size of all cached results in bytes
+	 */
+	public synchronized long getTotalBytes() {
+		loadIndex();
+		return totalBytes;
+	}
+
+	private synchronized void remove(String key) {
+		Long size = index.remove(key);
+		if (size != null) {
+			totalBytes -= size;
+		}
+	}
+
+	private List<String> evictOverLimit() {
+		List<String> evicted = new ArrayList<>();
+		Iterator<Map.Entry<String, Long>> eldest = index.entrySet().iterator();
+		while (totalBytes > maxSizeBytes && eldest.hasNext()) {
+			Map.Entry<String, Long> entry = eldest.next();
+			totalBytes -= entry.getValue();
+			evicted.add(entry.getKey());
+			eldest.remove();
+		}
+		return evicted;
+	}
+
+	/**
+	 * Rebuild the index from the entries on disk, oldest access first
+	 */
+	private void loadIndex() {
+		if (indexLoaded) {
+			return;
+		}
+		indexLoaded = true;
+		Path root = getCacheRoot();
+		if (!Files.isDirectory(root)) {
+			return;
+		}
+		try (Stream<Path> files = Files.walk(root, 2)) {
+			List<Path> entries = files.filter(Files::isRegularFile)
+				.filter(file -> !file.getFileName().toString().endsWith(".tmp"))
+				.sorted(Comparator.comparing(this::lastModified))
+				.collect(Collectors.toList());
+			for (Path entry : entries) {
+				long size = Files.size(entry);
+				index.put(entry.getFileName().toString(), size);
+				totalBytes += size;
+			}
+			log.info("Loaded {} conversion cache entries ({} bytes)", index.size(), totalBytes);
+		}
+		catch (IOException e) {
+			log.warn("Failed to load conversion cache index: {}", e.getMessage());
+		}
+	}
+
+	private FileTime lastModified(Path file) {
+		try {
+			return Files.getLastModifiedTime(file);
+		}
+		catch (IOException e) {
+			return FileTime.fromMillis(0);
+		}
+	}
+
+	private Path entryFile(String key) {
+		return getCacheRoot().resolve(key.substring(0, 2)).resolve(key);
+	}
+
+	private Path getCacheRoot() {
+		return directoryManager.getWorkingDirectory().resolve(CACHE_DIR);
+	}
+
+}
@@ -21,6 +21,7 @@ import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.StandardOpenOption;
+import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
 
@@ -58,6 +59,9 @@ public class ImageOcrProcessor {
 
 	private final ImageRecognitionExecutorPool imageRecognitionExecutorPool;
 
+	// Shared OCR results by image content, null when caching is disabled
+	private ConversionResultCache conversionResultCache;
+
 	// Image format name for consistency across all image operations
 	private String imageFormatName = "JPEG";
 
@@ -298,6 +302,17 @@ public class ImageOcrProcessor {
 			else {
 				log.debug("Using configured model name: {}", finalModelName);
 			}
+			// Identical images OCRed with the same settings are served from the cache
+			String cacheKey = null;
+			if (conversionResultCache != null) {
+				cacheKey = ConversionResultCache.key("image-ocr", ConversionResultCache.hashBytes(imageBytes),
+						finalModelName, additionalRequirement);
+				Optional<String> cached = conversionResultCache.get(cacheKey);
+				if (cached.isPresent()) {
+					log.debug("Using cached OCR result for image");
+					return cached.get();
+				}
+			}
 			ChatOptions chatOptions = ChatOptions.builder().model(finalModelName).build();
 
 			// Use ChatClient to process the image with OCR
@@ -333,6 +348,9 @@ public class ImageOcrProcessor {
 			if (extractedText != null && !extractedText.trim().isEmpty()
 					&& !extractedText.toLowerCase().contains("no text detected")) {
 				log.debug("Successfully extracted text from image with OCR: {} characters", extractedText.length());
+				if (cacheKey != null) {
+					conversionResultCache.put(cacheKey, extractedText);
+				}
 				return extractedText;
 			}
 			else {
@@ -443,6 +461,14 @@ public class ImageOcrProcessor {
 		}
 	}
 
+	/**
+	 * Set the cache OCR results are shared through
+	 * @param conversionResultCache Shared cache, or null to disable caching
+	 */
+	public void setConversionResultCache(ConversionResultCache conversionResultCache) {
+		this.conversionResultCache = conversionResultCache;
+	}
+
 	/**
 	 * Set the image format name for all image operations
 	 * @param imageFormatName The image format name (e.g., "JPEG", "PNG", "BMP")
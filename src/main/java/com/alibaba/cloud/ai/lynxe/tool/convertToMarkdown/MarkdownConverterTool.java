@@ -17,6 +17,8 @@ package com.alibaba.cloud.ai.lynxe.tool.convertToMarkdown;
 
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.Optional;
+import java.util.concurrent.Callable;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -55,15 +57,18 @@ public class MarkdownConverterTool extends AbstractBaseTool<MarkdownConverterToo
 
 	private final ToolI18nService toolI18nService;
 
+	private final ConversionResultCache conversionResultCache;
+
 	public MarkdownConverterTool(UnifiedDirectoryManager directoryManager, PdfOcrProcessor ocrProcessor,
 			ImageOcrProcessor imageOcrProcessor, IExcelProcessingService excelProcessingService,
-			ObjectMapper objectMapper, ToolI18nService toolI18nService) {
+			ObjectMapper objectMapper, ToolI18nService toolI18nService, ConversionResultCache conversionResultCache) {
 		this.directoryManager = directoryManager;
 		this.ocrProcessor = ocrProcessor;
 		this.imageOcrProcessor = imageOcrProcessor;
 		this.excelProcessingService = excelProcessingService;
 		this.objectMapper = objectMapper;
 		this.toolI18nService = toolI18nService;
+		this.conversionResultCache = conversionResultCache;
 	}
 
 	/**
@@ -207,7 +212,8 @@ public class MarkdownConverterTool extends AbstractBaseTool<MarkdownConverterToo
 		try {
 			PdfToMarkdownProcessor processor = new PdfToMarkdownProcessor(directoryManager, ocrProcessor);
 			boolean forceLlm = forceLlmForPdf != null && forceLlmForPdf;
-			return processor.convertToMarkdown(sourceFile, additionalRequirement, rootPlanId, forceLlm, modelName);
+			return convertWithCache(forceLlm ? "pdf-llm" : "pdf", sourceFile, additionalRequirement, modelName,
+					() -> processor.convert(sourceFile, additionalRequirement, rootPlanId, forceLlm, modelName));
 		}
 		catch (Exception e) {
 			log.error("PDF to Markdown conversion failed: {}", sourceFile.getFileName(), e);
@@ -215,6 +221,56 @@ public class MarkdownConverterTool extends AbstractBaseTool<MarkdownConverterToo
 		}
 	}
 
+	/**
+	 * Run a conversion whose result only depends on the file content and settings through
+	 * the shared result cache, so the same document uploaded to another plan is copied
+	 * instead of converted again
+	 * @param converter Converter type the result is cached under
+	 * @param sourceFile The source file
+	 * @param additionalRequirement Optional additional requirements for conversion
+	 * @param modelName Optional model name to override default configuration
+	 * @param conversion Conversion writing the markdown file into the root plan
+	 * directory; it throws when the conversion fails, and only results of conversions
+	 * that returned are cached
+	 * @return Result of the conversion, or of the copy on a cache hit
+	 */
+	private ToolExecuteResult convertWithCache(String converter, Path sourceFile, String additionalRequirement,
+			String modelName, Callable<ToolExecuteResult> conversion) throws Exception {
+		String markdownFilename = generateMarkdownFilename(sourceFile.getFileName().toString());
+		Path outputFile = directoryManager.getRootPlanDirectory(rootPlanId).resolve(markdownFilename);
+		if (conversionResultCache == null || Files.exists(outputFile)) {
+			// Existing output is reported by the processor itself
+			return conversion.call();
+		}
+
+		String cacheKey = ConversionResultCache.key(converter, ConversionResultCache.hashFile(sourceFile), modelName,
+				additionalRequirement);
+		Optional<String> cached = conversionResultCache.get(cacheKey);
+		if (cached.isPresent()) {
+			Files.createDirectories(outputFile.getParent());
+			Files.writeString(outputFile, cached.get());
+			log.info("Reused cached conversion result: {} -> {}", sourceFile.getFileName(), markdownFilename);
+			String content = cached.get();
+			String result = String.format(
+					"Successfully converted file to Markdown (reused cached result)\n\n" + "**Output File**: %s\n\n",
+					markdownFilename);
+			if (content.length() < 1000) {
+				result += "**Content Preview**:\n\n" + content;
+			}
+			else {
+				result += "**Content Preview**:\n\n" + content.substring(0, 1000)
+						+ "...\n\n*[Content truncated - see full result in output file]*";
+			}
+			return new ToolExecuteResult(result);
+		}
+
+		ToolExecuteResult result = conversion.call();
+		if (Files.exists(outputFile)) {
+			conversionResultCache.put(cacheKey, Files.readString(outputFile));
+		}
+		return result;
+	}
+
 	/**
 	 * Process image files to Markdown using OCR
 	 */
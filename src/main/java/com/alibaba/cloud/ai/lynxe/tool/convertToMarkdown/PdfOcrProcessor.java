@@ -18,13 +18,23 @@ package com.alibaba.cloud.ai.lynxe.tool.convertToMarkdown;
 import java.awt.image.BufferedImage;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
 import java.nio.file.StandardOpenOption;
-import java.util.ArrayList;
-import java.util.List;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Properties;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutionException;
 
 import javax.imageio.ImageIO;
@@ -49,7 +59,9 @@ import com.alibaba.cloud.ai.lynxe.tool.filesystem.UnifiedDirectoryManager;
  * PDF OCR Processor using OpenAI Image Model
  *
  * Converts PDF files to text using OCR processing with OpenAI's image models. This
- * processor renders PDF pages as images and uses OCR to extract text content.
+ * processor renders PDF pages as images and uses OCR to extract text content. Pages are
+ * rendered, recognized and written as a bounded pipeline, so memory does not grow with
+ * the page count and an interrupted conversion resumes where it stopped.
  */
 public class PdfOcrProcessor {
 
@@ -67,6 +79,9 @@ public class PdfOcrProcessor {
 	// folder
 	private boolean saveImagesToTempFolder = true;
 
+	// Shared OCR results by image content, null when caching is disabled
+	private ConversionResultCache conversionResultCache;
+
 	// Image format name for consistency across all image operations
 	private String imageFormatName = "JPEG";
 
@@ -92,253 +107,384 @@ public class PdfOcrProcessor {
 	public ToolExecuteResult convertPdfToTextWithOcr(Path sourceFile, String additionalRequirement,
 			String currentPlanId, String targetFilename, String modelName) {
 		try {
-			log.info("Starting OCR processing for PDF file: {}", sourceFile.getFileName());
+			return ocrPdfToText(sourceFile, additionalRequirement, currentPlanId, targetFilename, modelName);
+		}
+		catch (Exception e) {
+			log.error("Error processing PDF with OCR: {}", sourceFile.getFileName(), e);
+			return new ToolExecuteResult("Error: " + e.getMessage());
+		}
+	}
 
-			// Step 1: Check if OCR result already exists
-			String originalFilename = sourceFile.getFileName().toString();
-			String ocrFilename = (targetFilename != null) ? targetFilename : generateOcrFilename(originalFilename);
-			if (ocrFileExists(currentPlanId, ocrFilename)) {
-				log.info("OCR result file already exists, skipping processing: {}", ocrFilename);
-				return new ToolExecuteResult("Skipped OCR processing - result file already exists: " + ocrFilename);
-			}
+	/**
+	 * Convert PDF file to text using OCR processing, failing with an exception instead of
+	 * an error result
+	 * @param sourceFile The source PDF file
+	 * @param additionalRequirement Optional additional requirements for OCR processing
+	 * @param currentPlanId Current plan ID for file operations
+	 * @param targetFilename Optional target filename (if null, will generate _ocr.txt
+	 * filename)
+	 * @param modelName Optional model name to override default configuration
+	 * @return ToolExecuteResult with OCR processing status and extracted text
+	 * @throws IOException if no text could be extracted or the result file could not be
+	 * written
+	 */
+	ToolExecuteResult ocrPdfToText(Path sourceFile, String additionalRequirement, String currentPlanId,
+			String targetFilename, String modelName) throws IOException, InterruptedException {
+		log.info("Starting OCR processing for PDF file: {}", sourceFile.getFileName());
+
+		// Step 1: Check if OCR result already exists
+		String originalFilename = sourceFile.getFileName().toString();
+		String ocrFilename = (targetFilename != null) ? targetFilename : generateOcrFilename(originalFilename);
+		if (ocrFileExists(currentPlanId, ocrFilename)) {
+			log.info("OCR result file already exists, skipping processing: {}", ocrFilename);
+			return new ToolExecuteResult("Skipped OCR processing - result file already exists: " + ocrFilename);
+		}
 
-			// Step 2: Convert PDF pages to images
-			List<BufferedImage> pageImages = convertPdfToImages(sourceFile);
-			if (pageImages.isEmpty()) {
-				return new ToolExecuteResult("Error: Could not convert PDF pages to images");
-			}
+		// Step 2: Render and OCR pages in a bounded pipeline, appending each page
+		// to the output as soon as all earlier pages are done
+		Path currentPlanDir = directoryManager.getRootPlanDirectory(currentPlanId);
+		Path outputFile = currentPlanDir.resolve(ocrFilename);
+		OcrOutcome outcome = runOcrPipeline(sourceFile, outputFile, additionalRequirement, modelName);
+		if (outcome.pageCount == 0) {
+			throw new IOException("Could not convert PDF pages to images");
+		}
+		if (outcome.processedPages == 0) {
+			deleteProgress(outputFile);
+			throw new IOException("No text could be extracted from any page using OCR");
+		}
+
+		// Step 3: Append the footer and publish the result file
+		StringBuilder footer = new StringBuilder();
+		if (targetFilename != null && targetFilename.endsWith(".md")) {
+			// Format as markdown
+			footer.append("\n---\n\n");
+			footer.append(
+					"*This document was automatically converted from PDF to Markdown format using OCR processing.*\n");
+		}
+		else {
+			// Format as plain text
+			footer.append("---\n\n");
+			footer.append("*This document was processed using OCR with OpenAI Image Model.*\n");
+			footer.append("*Total pages processed: ")
+				.append(outcome.processedPages)
+				.append(" of ")
+				.append(outcome.pageCount)
+				.append("*\n");
+		}
+		Path partialFile = partialFile(outputFile);
+		Files.write(partialFile, footer.toString().getBytes(StandardCharsets.UTF_8), StandardOpenOption.APPEND);
+		Files.move(partialFile, outputFile, StandardCopyOption.REPLACE_EXISTING);
+		deleteProgress(outputFile);
+		log.info("OCR result file saved: {}", outputFile);
+
+		// Step 4: Return success result
+		// Normalize filename to remove any ./ prefix for consistent output
+		String normalizedFilename = normalizeFilename(ocrFilename);
+		String result;
+		if (targetFilename != null && targetFilename.endsWith(".md")) {
+			result = String.format("Successfully converted PDF file to Markdown using OCR\n\n"
+					+ "**Output File**: %s\n\n" + "**Processing Method**: OCR with OpenAI Image Model\n\n",
+					normalizedFilename);
+		}
+		else {
+			result = String.format(
+					"Successfully processed PDF with OCR\n\n" + "**Output File**: %s\n\n"
+							+ "**Pages Processed**: %d of %d\n\n",
+					normalizedFilename, outcome.processedPages, outcome.pageCount);
+		}
+
+		// Add content preview if less than 1000 characters
+		String content = readPreview(outputFile, 1000);
+		if (content.length() <= 1000) {
+			result += "**Content Preview**:\n\n" + content;
+		}
+		else {
+			result += "**Content Preview**:\n\n" + content.substring(0, 1000)
+					+ "...\n\n*[Content truncated - see full result in output file]*";
+		}
+
+		log.info("PDF OCR processing completed: {} -> {}", originalFilename, ocrFilename);
+		return new ToolExecuteResult(result);
+	}
+
+	/**
+	 * Pages and extracted pages of one conversion
+	 */
+	private static class OcrOutcome {
+
+		private final int pageCount;
 
-			// Step 3: Process each page with OCR using parallel execution
-			StringBuilder extractedText = new StringBuilder();
+		private final int processedPages;
 
-			int processedPages = 0;
-			List<CompletableFuture<String>> ocrTasks = new ArrayList<>();
+		OcrOutcome(int pageCount, int processedPages) {
+			this.pageCount = pageCount;
+			this.processedPages = processedPages;
+		}
+
+	}
 
-			// Submit all OCR tasks to the dedicated executor pool
-			if (imageRecognitionExecutorPool != null) {
-				final String finalModelName = modelName; // Make effectively final for
-															// lambda
-				for (int i = 0; i < pageImages.size(); i++) {
-					final int pageIndex = i;
-					final BufferedImage pageImage = pageImages.get(i);
+	/**
+	 * Render and OCR all pages, writing page texts in order to the partial output file.
+	 *
+	 * At most two pages per OCR worker are in flight; the next page is submitted only
+	 * when the oldest one has been written, so memory stays bounded regardless of the
+	 * page count and rendering of later pages overlaps with OCR of earlier ones. Each
+	 * worker thread renders from its own PDDocument. Progress is recorded after every
+	 * page, so a conversion that was interrupted resumes after the last written page.
+	 * @param sourceFile The source PDF file
+	 * @param outputFile Final output file; pages are written to its partial file
+	 * @param additionalRequirement Optional additional requirements for OCR processing
+	 * @param modelName Optional model name to override default configuration
+	 * @return Page count and number of pages with extracted text
+	 */
+	private OcrOutcome runOcrPipeline(Path sourceFile, Path outputFile, String additionalRequirement, String modelName)
+			throws IOException, InterruptedException {
+		if (imageRecognitionExecutorPool == null) {
+			// Throw exception if executor pool is not available
+			String errorMessage = "ImageRecognitionExecutorPool not available - OCR processing cannot continue";
+			log.error(errorMessage);
+			throw new IllegalStateException(errorMessage);
+		}
 
-					CompletableFuture<String> ocrTask = imageRecognitionExecutorPool.submitTask(() -> {
-						log.info("Processing page {} of {} with OCR", pageIndex + 1, pageImages.size());
-						return processImageWithOcrWithRetry(pageImage, pageIndex + 1, additionalRequirement,
-								finalModelName);
-					});
+		int pageCount;
+		try (PDDocument document = PDDocument.load(sourceFile.toFile())) {
+			pageCount = document.getNumberOfPages();
+		}
+		if (pageCount == 0) {
+			return new OcrOutcome(0, 0);
+		}
+
+		Path partialFile = partialFile(outputFile);
+		Path progressFile = progressFile(outputFile);
+		Properties progress = loadProgress(progressFile, sourceFile, partialFile);
+		int startPage = Integer.parseInt(progress.getProperty("completedPages"));
+		int processedPages = Integer.parseInt(progress.getProperty("processedPages"));
+		long writtenBytes = Long.parseLong(progress.getProperty("bytes"));
+		if (startPage > 0) {
+			log.info("Resuming OCR of {} at page {} of {}", sourceFile.getFileName(), startPage + 1, pageCount);
+		}
+
+		int maxInFlight = Math.max(1, getConfiguredPoolSize()) * 2;
+		log.info("Converting {} pages with OCR, at most {} pages in flight", pageCount - startPage, maxInFlight);
+
+		// Create temp folder if image saving is enabled
+		final Path tempFolder = saveImagesToTempFolder ? createTempImageFolder(sourceFile.getFileName().toString())
+				: null;
+		// One document handle per worker thread, closed when the conversion ends
+		Map<Thread, PDDocument> documents = new ConcurrentHashMap<>();
+		Deque<CompletableFuture<String>> inFlight = new ArrayDeque<>();
+		int nextPage = startPage;
+
+		try (FileChannel out = FileChannel.open(partialFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+			out.truncate(writtenBytes);
+			out.position(writtenBytes);
+
+			while (nextPage < pageCount && inFlight.size() < maxInFlight) {
+				inFlight.add(submitPage(sourceFile, documents, nextPage++, pageCount, tempFolder, additionalRequirement,
+						modelName));
+			}
+			for (int page = startPage; page < pageCount; page++) {
+				String pageText = null;
+				try {
+					pageText = inFlight.poll().get();
+				}
+				catch (ExecutionException e) {
+					log.error("Error processing page {} with OCR: {}", page + 1, e.getMessage());
+					// Continue with next page instead of failing completely
+				}
+				if (nextPage < pageCount) {
+					inFlight.add(submitPage(sourceFile, documents, nextPage++, pageCount, tempFolder,
+							additionalRequirement, modelName));
+				}
 
-					ocrTasks.add(ocrTask);
+				if (pageText != null && !pageText.trim().isEmpty()) {
+					String pageContent = "## Page " + (page + 1) + "\n\n" + pageText + "\n\n";
+					ByteBuffer buffer = ByteBuffer.wrap(pageContent.getBytes(StandardCharsets.UTF_8));
+					while (buffer.hasRemaining()) {
+						out.write(buffer);
+					}
+					processedPages++;
 				}
+				writtenBytes = out.position();
+				saveProgress(progressFile, progress, page + 1, processedPages, writtenBytes);
 			}
-			else {
-				// Throw exception if executor pool is not available
-				String errorMessage = "ImageRecognitionExecutorPool not available - OCR processing cannot continue";
-				log.error(errorMessage);
-				throw new IllegalStateException(errorMessage);
+		}
+		finally {
+			// Let running pages finish before their documents are closed
+			for (CompletableFuture<String> pending : inFlight) {
+				try {
+					pending.join();
+				}
+				catch (Exception e) {
+					// Already abandoned
+				}
 			}
-
-			// Wait for all OCR tasks to complete
-			for (int i = 0; i < ocrTasks.size(); i++) {
+			for (PDDocument document : documents.values()) {
 				try {
-					String pageText = ocrTasks.get(i).get();
-					if (pageText != null && !pageText.trim().isEmpty()) {
-						extractedText.append("## Page ").append(i + 1).append("\n\n");
-						extractedText.append(pageText).append("\n\n");
-						processedPages++;
-					}
+					document.close();
 				}
-				catch (InterruptedException | ExecutionException e) {
-					log.error("Error processing page {} with OCR: {}", i + 1, e.getMessage());
-					// Continue with next page instead of failing completely
+				catch (IOException e) {
+					log.warn("Failed to close PDF document: {}", e.getMessage());
 				}
 			}
+		}
 
-			if (processedPages == 0) {
-				return new ToolExecuteResult("Error: No text could be extracted from any page using OCR");
-			}
+		if (saveImagesToTempFolder && tempFolder != null) {
+			log.info("All converted images saved to temp folder: {}", tempFolder);
+		}
+		return new OcrOutcome(pageCount, processedPages);
+	}
 
-			// Format content based on target filename
-			if (targetFilename != null && targetFilename.endsWith(".md")) {
-				// Format as markdown
-				extractedText.append("\n---\n\n");
-				extractedText.append(
-						"*This document was automatically converted from PDF to Markdown format using OCR processing.*\n");
-			}
-			else {
-				// Format as plain text
-				extractedText.append("---\n\n");
-				extractedText.append("*This document was processed using OCR with OpenAI Image Model.*\n");
-				extractedText.append("*Total pages processed: ")
-					.append(processedPages)
-					.append(" of ")
-					.append(pageImages.size())
-					.append("*\n");
-			}
-
-			// Step 4: Save OCR result
-			Path outputFile = saveOcrResult(extractedText.toString(), ocrFilename, currentPlanId);
-			if (outputFile == null) {
-				return new ToolExecuteResult("Error: Failed to save OCR result file");
-			}
-
-			// Step 5: Return success result
-			// Normalize filename to remove any ./ prefix for consistent output
-			String normalizedFilename = normalizeFilename(ocrFilename);
-			String result;
-			if (targetFilename != null && targetFilename.endsWith(".md")) {
-				result = String.format("Successfully converted PDF file to Markdown using OCR\n\n"
-						+ "**Output File**: %s\n\n" + "**Processing Method**: OCR with OpenAI Image Model\n\n",
-						normalizedFilename);
+	/**
+	 * Submit one page: render it with the worker's own document handle, then run OCR. The
+	 * page image is released as soon as OCR is done.
+	 */
+	private CompletableFuture<String> submitPage(Path sourceFile, Map<Thread, PDDocument> documents, int pageIndex,
+			int pageCount, Path tempFolder, String additionalRequirement, String modelName) {
+		return imageRecognitionExecutorPool.submitTask(() -> {
+			PDDocument document = documents.get(Thread.currentThread());
+			if (document == null) {
+				document = PDDocument.load(sourceFile.toFile());
+				documents.put(Thread.currentThread(), document);
 			}
-			else {
-				result = String.format(
-						"Successfully processed PDF with OCR\n\n" + "**Output File**: %s\n\n"
-								+ "**Pages Processed**: %d of %d\n\n",
-						normalizedFilename, processedPages, pageImages.size());
+			BufferedImage pageImage = renderPage(document, pageIndex, tempFolder);
+			if (pageImage == null) {
+				log.warn("Failed to convert page {} to image", pageIndex + 1);
+				return null;
 			}
+			log.info("Processing page {} of {} with OCR", pageIndex + 1, pageCount);
+			return processImageWithOcrWithRetry(pageImage, pageIndex + 1, additionalRequirement, modelName);
+		});
+	}
 
-			// Add content preview if less than 1000 characters
-			String content = extractedText.toString();
-			if (content.length() < 1000) {
-				result += "**Content Preview**:\n\n" + content;
+	/**
+	 * Render one PDF page to an image optimized for OCR
+	 * @param document Document handle owned by the calling worker
+	 * @param pageIndex Page index to render
+	 * @param tempFolder Folder to save the image to, or null
+	 * @return Rendered image, or null if the page could not be rendered
+	 */
+	private BufferedImage renderPage(PDDocument document, int pageIndex, Path tempFolder) {
+		try {
+			if (document.isEncrypted()) {
+				log.warn("Document is encrypted, page {} may not render correctly", pageIndex + 1);
 			}
-			else {
-				result += "**Content Preview**:\n\n" + content.substring(0, 1000)
-						+ "...\n\n*[Content truncated - see full result in output file]*";
+
+			PDFRenderer pdfRenderer = new PDFRenderer(document);
+
+			// Use optimized DPI and image type from LynxeProperties
+			float dpi = getOptimizedDpi();
+			ImageType imageType = getConfiguredImageType();
+
+			// Render page with retry logic and fallback settings
+			BufferedImage image = renderPageWithRetry(pdfRenderer, pageIndex, dpi, imageType);
+
+			if (image == null) {
+				log.error("Failed to render page {} after all retry attempts", pageIndex + 1);
+				return null;
 			}
 
-			log.info("PDF OCR processing completed: {} -> {}", originalFilename, ocrFilename);
-			return new ToolExecuteResult(result);
+			// Optimize the image for OCR processing
+			BufferedImage optimizedImage = optimizeImageForOcr(image);
+
+			log.debug("Converted page {} to image ({}x{}) with DPI: {}, Type: {}", pageIndex + 1,
+					optimizedImage.getWidth(), optimizedImage.getHeight(), dpi, imageType);
+
+			// Save image to temp folder if enabled (with optimization)
+			if (tempFolder != null) {
+				try {
+					saveImageToTempFolderOptimized(optimizedImage, pageIndex + 1, tempFolder);
+				}
+				catch (IOException e) {
+					log.error("Failed to save page {} image to temp folder: {}", pageIndex + 1, e.getMessage(), e);
+				}
+			}
 
+			return optimizedImage;
 		}
 		catch (Exception e) {
-			log.error("Error processing PDF with OCR: {}", sourceFile.getFileName(), e);
-			return new ToolExecuteResult("Error: " + e.getMessage());
+			log.error("Error converting page {} to image: {}", pageIndex + 1, e.getMessage(), e);
+			return null; // Return null for failed conversions
 		}
 	}
 
 	/**
-	 * Convert PDF pages to images using PDFBox with optimized settings and parallel
-	 * processing
-	 * @param sourceFile The source PDF file
-	 * @return List of BufferedImage objects representing PDF pages
+	 * Load the progress of an earlier, interrupted conversion of the same source file.
+	 * Progress of another source file version starts the conversion over.
 	 */
-	private List<BufferedImage> convertPdfToImages(Path sourceFile) {
-		List<BufferedImage> images = new ArrayList<>();
-
-		try (PDDocument document = PDDocument.load(sourceFile.toFile())) {
-			int pageCount = document.getNumberOfPages();
-			log.info("Converting {} pages to images with parallel processing", pageCount);
-
-			// Use parallel processing for PDF to image conversion
-			List<CompletableFuture<BufferedImage>> conversionTasks = new ArrayList<>();
-
-			// Create temp folder if image saving is enabled
-			final Path tempFolder = saveImagesToTempFolder ? createTempImageFolder(sourceFile.getFileName().toString())
-					: null;
-
-			// Submit all conversion tasks to the executor pool
-			if (imageRecognitionExecutorPool != null) {
-				for (int pageIndex = 0; pageIndex < pageCount; pageIndex++) {
-					final int currentPageIndex = pageIndex;
-					final PDDocument docRef = document; // Reference for the task
-
-					CompletableFuture<BufferedImage> conversionTask = imageRecognitionExecutorPool.submitTask(() -> {
-						try {
-							// Validate page index and document state
-							if (currentPageIndex < 0 || currentPageIndex >= docRef.getNumberOfPages()) {
-								log.error("Invalid page index {} for document with {} pages", currentPageIndex + 1,
-										docRef.getNumberOfPages());
-								return null;
-							}
-
-							if (docRef.isEncrypted()) {
-								log.warn("Document is encrypted, page {} may not render correctly",
-										currentPageIndex + 1);
-							}
-
-							PDFRenderer pdfRenderer = new PDFRenderer(docRef);
-
-							// Use optimized DPI and image type from LynxeProperties
-							float dpi = getOptimizedDpi();
-							ImageType imageType = getConfiguredImageType();
-
-							// Render page with retry logic and fallback settings
-							BufferedImage image = renderPageWithRetry(pdfRenderer, currentPageIndex, dpi, imageType);
-
-							if (image == null) {
-								log.error("Failed to render page {} after all retry attempts", currentPageIndex + 1);
-								return null;
-							}
-
-							// Optimize the image for OCR processing
-							BufferedImage optimizedImage = optimizeImageForOcr(image);
-
-							log.debug("Converted page {} to image ({}x{}) with DPI: {}, Type: {}", currentPageIndex + 1,
-									optimizedImage.getWidth(), optimizedImage.getHeight(), dpi, imageType);
-
-							// Save image to temp folder if enabled (with optimization)
-							if (saveImagesToTempFolder && tempFolder != null) {
-								try {
-									saveImageToTempFolderOptimized(optimizedImage, currentPageIndex + 1, tempFolder);
-								}
-								catch (IOException e) {
-									log.error("Failed to save page {} image to temp folder: {}", currentPageIndex + 1,
-											e.getMessage(), e);
-								}
-							}
-
-							return optimizedImage;
-						}
-						catch (IllegalArgumentException e) {
-							log.error("Invalid argument error converting page {} to image: {}", currentPageIndex + 1,
-									e.getMessage(), e);
-							return null;
-						}
-						catch (Exception e) {
-							log.error("Error converting page {} to image: {}", currentPageIndex + 1, e.getMessage(), e);
-							return null; // Return null for failed conversions
-						}
-					});
-
-					conversionTasks.add(conversionTask);
-				}
+	private Properties loadProgress(Path progressFile, Path sourceFile, Path partialFile) throws IOException {
+		String sourceStamp = Files.size(sourceFile) + ":" + Files.getLastModifiedTime(sourceFile).toMillis();
+		Properties progress = new Properties();
+		if (Files.exists(progressFile) && Files.exists(partialFile)) {
+			try (Reader reader = Files.newBufferedReader(progressFile, StandardCharsets.UTF_8)) {
+				progress.load(reader);
 			}
-			else {
-				// Throw exception if executor pool is not available
-				String errorMessage = "ImageRecognitionExecutorPool not available - PDF conversion cannot continue";
-				log.error(errorMessage);
-				throw new IllegalStateException(errorMessage);
+			catch (IOException | IllegalArgumentException e) {
+				log.warn("Ignoring unreadable OCR progress file {}: {}", progressFile, e.getMessage());
+				progress.clear();
 			}
-
-			// Wait for all conversion tasks to complete
-			for (int i = 0; i < conversionTasks.size(); i++) {
-				try {
-					BufferedImage image = conversionTasks.get(i).get();
-					if (image != null) {
-						images.add(image);
-					}
-					else {
-						log.warn("Failed to convert page {} to image", i + 1);
-					}
-				}
-				catch (InterruptedException | ExecutionException e) {
-					log.error("Error processing page {} conversion: {}", i + 1, e.getMessage());
-					// Continue with next page instead of failing completely
-				}
-			}
-
-			if (saveImagesToTempFolder && tempFolder != null) {
-				log.info("All converted images saved to temp folder: {}", tempFolder);
+			if (sourceStamp.equals(progress.getProperty("source"))
+					&& Long.parseLong(progress.getProperty("bytes", "-1")) <= Files.size(partialFile)) {
+				return progress;
 			}
+		}
+		progress.clear();
+		progress.setProperty("source", sourceStamp);
+		progress.setProperty("completedPages", "0");
+		progress.setProperty("processedPages", "0");
+		progress.setProperty("bytes", "0");
+		return progress;
+	}
 
+	private void saveProgress(Path progressFile, Properties progress, int completedPages, int processedPages,
+			long bytes) throws IOException {
+		progress.setProperty("completedPages", String.valueOf(completedPages));
+		progress.setProperty("processedPages", String.valueOf(processedPages));
+		progress.setProperty("bytes", String.valueOf(bytes));
+		try (Writer writer = Files.newBufferedWriter(progressFile, StandardCharsets.UTF_8)) {
+			progress.store(writer, null);
 		}
-		catch (IOException e) {
-			log.error("Error converting PDF to images: {}", e.getMessage(), e);
+	}
+
+	private void deleteProgress(Path outputFile) throws IOException {
+		Files.deleteIfExists(progressFile(outputFile));
+		Files.deleteIfExists(partialFile(outputFile));
+	}
+
+	private Path partialFile(Path outputFile) {
+		return outputFile.resolveSibling(outputFile.getFileName() + ".partial");
+	}
+
+	private Path progressFile(Path outputFile) {
+		return outputFile.resolveSibling(outputFile.getFileName() + ".progress");
+	}
+
+	/**
+	 * Read up to maxChars + 1 characters from the start of a file
+	 */
+	private String readPreview(Path file, int maxChars) throws IOException {
+		char[] buffer = new char[maxChars + 1];
+		int length = 0;
+		try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+			int read;
+			while (length < buffer.length && (read = reader.read(buffer, length, buffer.length - length)) != -1) {
+				length += read;
+			}
 		}
+		return new String(buffer, 0, length);
+	}
 
-		return images;
+	/**
+	 * Get the configured OCR worker count
+	 */
+	private int getConfiguredPoolSize() {
+		if (lynxeProperties != null) {
+			Integer poolSize = lynxeProperties.getImageRecognitionPoolSize();
+			if (poolSize != null && poolSize > 0) {
+				return poolSize;
+			}
+		}
+		return 4;
 	}
 
 	/**
@@ -471,6 +617,17 @@ public class PdfOcrProcessor {
 			else {
 				log.debug("Using configured model name: {}", finalModelName);
 			}
+			// Identical pages OCRed with the same settings are served from the cache
+			String cacheKey = null;
+			if (conversionResultCache != null) {
+				cacheKey = ConversionResultCache.key("pdf-ocr-page", ConversionResultCache.hashBytes(imageBytes),
+						finalModelName, additionalRequirement);
+				Optional<String> cached = conversionResultCache.get(cacheKey);
+				if (cached.isPresent()) {
+					log.debug("Using cached OCR result for page {}", pageNumber);
+					return cached.get();
+				}
+			}
 			ChatOptions chatOptions = ChatOptions.builder().model(finalModelName).build();
 
 			// Use ChatClient to process the image with OCR
@@ -507,6 +664,9 @@ public class PdfOcrProcessor {
 					&& !extractedText.toLowerCase().contains("no text detected")) {
 				log.debug("Successfully extracted text from page {} with OCR: {} characters", pageNumber,
 						extractedText.length());
+				if (cacheKey != null) {
+					conversionResultCache.put(cacheKey, extractedText);
+				}
 				return extractedText;
 			}
 			else {
@@ -611,26 +771,6 @@ public class PdfOcrProcessor {
 		return filename;
 	}
 
-	/**
-	 * Save OCR result to file
-	 */
-	private Path saveOcrResult(String content, String filename, String currentPlanId) {
-		try {
-			Path currentPlanDir = directoryManager.getRootPlanDirectory(currentPlanId);
-			Path outputFile = currentPlanDir.resolve(filename);
-
-			Files.write(outputFile, content.getBytes("UTF-8"), StandardOpenOption.CREATE,
-					StandardOpenOption.TRUNCATE_EXISTING);
-
-			log.info("OCR result file saved: {}", outputFile);
-			return outputFile;
-		}
-		catch (IOException e) {
-			log.error("Error saving OCR result file: {}", filename, e);
-			return null;
-		}
-	}
-
 	/**
 	 * Set whether to save converted images to temporary folder
 	 * @param saveImagesToTempFolder true to save images to temp folder, false otherwise
@@ -684,6 +824,14 @@ public class PdfOcrProcessor {
 		return saveImagesToTempFolder;
 	}
 
+	/**
+	 * Set the cache OCR results are shared through
+	 * @param conversionResultCache Shared cache, or null to disable caching
+	 */
+	public void setConversionResultCache(ConversionResultCache conversionResultCache) {
+		this.conversionResultCache = conversionResultCache;
+	}
+
 	/**
 	 * Set the image format name for all image operations
 	 * @param imageFormatName The image format name (e.g., "JPEG", "PNG", "BMP")
@@ -59,32 +59,21 @@ public class PdfToMarkdownProcessor {
 	 * @return ToolExecuteResult with OCR conversion status
 	 */
 	private ToolExecuteResult convertToMarkdownWithOcr(Path sourceFile, String additionalRequirement,
-			String currentPlanId, String modelName) {
-		try {
-			log.info("Converting PDF file to Markdown using OCR: {}", sourceFile.getFileName());
-
-			// Generate output filename first
-			String originalFilename = sourceFile.getFileName().toString();
-			String markdownFilename = generateMarkdownFilename(originalFilename);
+			String currentPlanId, String modelName) throws IOException, InterruptedException {
+		log.info("Converting PDF file to Markdown using OCR: {}", sourceFile.getFileName());
 
-			// Use OCR processor to extract text directly to markdown file
-			ToolExecuteResult ocrResult = ocrProcessor.convertPdfToTextWithOcr(sourceFile, additionalRequirement,
-					currentPlanId, markdownFilename, modelName);
+		// Generate output filename first
+		String originalFilename = sourceFile.getFileName().toString();
+		String markdownFilename = generateMarkdownFilename(originalFilename);
 
-			if (!ocrResult.getOutput().toLowerCase().contains("successfully")) {
-				return ocrResult; // Return OCR error
-			}
+		// Use OCR processor to extract text directly to markdown file
+		ToolExecuteResult ocrResult = ocrProcessor.ocrPdfToText(sourceFile, additionalRequirement, currentPlanId,
+				markdownFilename, modelName);
 
-			// OCR processor has already saved the markdown file, so we can return the
-			// result directly
-			log.info("PDF to Markdown OCR conversion completed: {} -> {}", originalFilename, markdownFilename);
-			return ocrResult;
-
-		}
-		catch (Exception e) {
-			log.error("Error converting PDF file to Markdown with OCR: {}", sourceFile.getFileName(), e);
-			return new ToolExecuteResult("Error: " + e.getMessage());
-		}
+		// OCR processor has already saved the markdown file, so we can return the
+		// result directly
+		log.info("PDF to Markdown OCR conversion completed: {} -> {}", originalFilename, markdownFilename);
+		return ocrResult;
 	}
 
 	/**
@@ -99,61 +88,76 @@ public class PdfToMarkdownProcessor {
 	public ToolExecuteResult convertToMarkdown(Path sourceFile, String additionalRequirement, String currentPlanId,
 			boolean forceLlm, String modelName) {
 		try {
-			log.info("Converting PDF file to Markdown: {}, forceLlm: {}, modelName: {}", sourceFile.getFileName(),
-					forceLlm, modelName);
-
-			// Step 0: Check if content.md already exists
-			String originalFilename = sourceFile.getFileName().toString();
-			String markdownFilename = generateMarkdownFilename(originalFilename);
-			if (markdownFileExists(currentPlanId, markdownFilename)) {
-				log.info("Markdown file already exists, skipping conversion: {}", markdownFilename);
-				return new ToolExecuteResult(
-						"Skipped conversion - content.md file already exists: " + markdownFilename);
-			}
-
-			// Step 1: If forceLlm is true, directly use OCR processing
-			if (forceLlm) {
-				log.info("Force LLM/OCR processing requested for PDF: {}", sourceFile.getFileName());
-				return convertToMarkdownWithOcr(sourceFile, additionalRequirement, currentPlanId, modelName);
-			}
+			return convert(sourceFile, additionalRequirement, currentPlanId, forceLlm, modelName);
+		}
+		catch (Exception e) {
+			log.error("Error converting PDF file to Markdown: {}", sourceFile.getFileName(), e);
+			return new ToolExecuteResult("Error: " + e.getMessage());
+		}
+	}
 
-			// Step 2: Try traditional text extraction first
-			String content = extractPdfContent(sourceFile);
+	/**
+	 * Convert PDF file to Markdown using traditional text extraction or OCR, failing with
+	 * an exception instead of an error result
+	 * @param sourceFile The source PDF file
+	 * @param additionalRequirement Optional additional requirements for conversion
+	 * @param currentPlanId Current plan ID for file operations
+	 * @param forceLlm If true, force using LLM/OCR processing instead of auto-detection
+	 * @param modelName Optional model name to override default configuration
+	 * @return ToolExecuteResult with conversion status
+	 * @throws IOException if the PDF could not be converted or the Markdown file could
+	 * not be written
+	 */
+	ToolExecuteResult convert(Path sourceFile, String additionalRequirement, String currentPlanId, boolean forceLlm,
+			String modelName) throws IOException, InterruptedException {
+		log.info("Converting PDF file to Markdown: {}, forceLlm: {}, modelName: {}", sourceFile.getFileName(), forceLlm,
+				modelName);
+
+		// Step 0: Check if content.md already exists
+		String originalFilename = sourceFile.getFileName().toString();
+		String markdownFilename = generateMarkdownFilename(originalFilename);
+		if (markdownFileExists(currentPlanId, markdownFilename)) {
+			log.info("Markdown file already exists, skipping conversion: {}", markdownFilename);
+			return new ToolExecuteResult("Skipped conversion - content.md file already exists: " + markdownFilename);
+		}
 
-			// Step 3: Check if OCR processing is needed
-			if (needsOcrProcessing(sourceFile, content)) {
-				log.info("OCR processing needed for PDF: {}", sourceFile.getFileName());
-				return convertToMarkdownWithOcr(sourceFile, additionalRequirement, currentPlanId, modelName);
-			}
+		// Step 1: If forceLlm is true, directly use OCR processing
+		if (forceLlm) {
+			log.info("Force LLM/OCR processing requested for PDF: {}", sourceFile.getFileName());
+			return convertToMarkdownWithOcr(sourceFile, additionalRequirement, currentPlanId, modelName);
+		}
 
-			// Step 4: Convert content to Markdown format
-			String markdownContent = convertToMarkdownFormat(content, additionalRequirement);
+		// Step 2: Try traditional text extraction first
+		String content = extractPdfContent(sourceFile);
 
-			// Step 5: Save Markdown file
-			Path outputFile = saveMarkdownFile(markdownContent, markdownFilename, currentPlanId);
-			if (outputFile == null) {
-				return new ToolExecuteResult("Error: Failed to save Markdown file");
-			}
+		// Step 3: Check if OCR processing is needed
+		if (needsOcrProcessing(sourceFile, content)) {
+			log.info("OCR processing needed for PDF: {}", sourceFile.getFileName());
+			return convertToMarkdownWithOcr(sourceFile, additionalRequirement, currentPlanId, modelName);
+		}
 
-			// Step 6: Return success result
-			// Normalize filename to remove any ./ prefix for consistent output
-			String normalizedFilename = normalizeFilename(markdownFilename);
-			String result = String.format("Successfully converted PDF file to Markdown\n\n" + "**Output File**: %s\n\n"
-					+ "**Processing Method**: Traditional Text Extraction\n\n", normalizedFilename);
+		// Step 4: Convert content to Markdown format
+		String markdownContent = convertToMarkdownFormat(content, additionalRequirement);
 
-			// Add content if less than 1000 characters
-			if (markdownContent.length() < 1000) {
-				result += "**Content**:\n\n" + markdownContent;
-			}
+		// Step 5: Save Markdown file
+		Path outputFile = saveMarkdownFile(markdownContent, markdownFilename, currentPlanId);
+		if (outputFile == null) {
+			throw new IOException("Failed to save Markdown file");
+		}
 
-			log.info("PDF to Markdown conversion completed: {} -> {}", originalFilename, markdownFilename);
-			return new ToolExecuteResult(result);
+		// Step 6: Return success result
+		// Normalize filename to remove any ./ prefix for consistent output
+		String normalizedFilename = normalizeFilename(markdownFilename);
+		String result = String.format("Successfully converted PDF file to Markdown\n\n" + "**Output File**: %s\n\n"
+				+ "**Processing Method**: Traditional Text Extraction\n\n", normalizedFilename);
 
+		// Add content if less than 1000 characters
+		if (markdownContent.length() < 1000) {
+			result += "**Content**:\n\n" + markdownContent;
 		}
-		catch (Exception e) {
-			log.error("Error converting PDF file to Markdown: {}", sourceFile.getFileName(), e);
-			return new ToolExecuteResult("Error: " + e.getMessage());
-		}
+
+		log.info("PDF to Markdown conversion completed: {} -> {}", originalFilename, markdownFilename);
+		return new ToolExecuteResult(result);
 	}
 
 	/**
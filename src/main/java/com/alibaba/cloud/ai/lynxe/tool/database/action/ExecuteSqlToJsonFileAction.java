@@ -16,20 +16,23 @@
 
 package com.alibaba.cloud.ai.lynxe.tool.database.action;
 
+import java.io.BufferedOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.AtomicMoveNotSupportedException;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.nio.file.StandardOpenOption;
+import java.nio.file.StandardCopyOption;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.ResultSetMetaData;
 import java.sql.SQLException;
 import java.sql.Statement;
-import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.function.LongConsumer;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -38,10 +41,16 @@ import com.alibaba.cloud.ai.lynxe.tool.code.ToolExecuteResult;
 import com.alibaba.cloud.ai.lynxe.tool.database.databaseOperators.DatabaseRequest;
 import com.alibaba.cloud.ai.lynxe.tool.database.service.DataSourceService;
 import com.alibaba.cloud.ai.lynxe.tool.filesystem.UnifiedDirectoryManager;
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
 /**
- * Action to execute SQL query and save results to JSON file
+ * Action to execute SQL query and save results to JSON file.
+ *
+ * Rows are read with a database cursor and written to the file as they arrive, so the
+ * result set is never held in memory. A file name ending in .ndjson or .jsonl produces
+ * one JSON object per line instead of a JSON array.
  */
 public class ExecuteSqlToJsonFileAction extends AbstractDatabaseAction {
 
@@ -53,11 +62,27 @@ public class ExecuteSqlToJsonFileAction extends AbstractDatabaseAction {
 
 	private final String rootPlanId;
 
+	private final long maxRows;
+
+	private final LongConsumer progress;
+
 	public ExecuteSqlToJsonFileAction(UnifiedDirectoryManager directoryManager, ObjectMapper objectMapper,
 			String rootPlanId) {
+		this(directoryManager, objectMapper, rootPlanId, ResultSetStreamer.DEFAULT_MAX_ROWS, null);
+	}
+
+	/**
+	 * @param maxRows Rows written at most; further rows are dropped and reported
+	 * @param progress Receives the number of rows written while exporting and once when
+	 * done, may be null
+	 */
+	public ExecuteSqlToJsonFileAction(UnifiedDirectoryManager directoryManager, ObjectMapper objectMapper,
+			String rootPlanId, long maxRows, LongConsumer progress) {
 		this.directoryManager = directoryManager;
 		this.objectMapper = objectMapper;
 		this.rootPlanId = rootPlanId;
+		this.maxRows = maxRows;
+		this.progress = progress;
 	}
 
 	@Override
@@ -83,36 +108,73 @@ public class ExecuteSqlToJsonFileAction extends AbstractDatabaseAction {
 			return new ToolExecuteResult("Only SELECT queries are allowed in read-only mode");
 		}
 
-		// Ensure file has .json extension
-		if (!fileName.toLowerCase().endsWith(".json")) {
+		// Ensure file has a JSON extension
+		if (!isNdjson(fileName) && !fileName.toLowerCase().endsWith(".json")) {
 			fileName = fileName + ".json";
 		}
 
+		Path temp = null;
 		try {
-			// Execute SQL and get results as JSON
-			List<Map<String, Object>> jsonResults;
-			if (parameters != null && !parameters.isEmpty()) {
-				jsonResults = executePreparedStatement(query, parameters, datasourceName, dataSourceService);
+			Path filePath = resolveFilePath(fileName);
+			if (filePath == null) {
+				return new ToolExecuteResult("Datasource: " + (datasourceName != null ? datasourceName : "default")
+						+ "\nError: File path is outside root plan directory");
 			}
-			else {
-				jsonResults = executeRegularStatement(query, datasourceName, dataSourceService);
+
+			// Write next to the target and move into place, so readers never see a
+			// partial file
+			temp = Files.createTempFile(filePath.getParent(), filePath.getFileName().toString(), ".tmp");
+			ExportResult result;
+			try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(temp));
+					JsonGenerator generator = objectMapper.createGenerator(out, JsonEncoding.UTF8)) {
+				JsonRowWriter writer = new JsonRowWriter(generator, isNdjson(fileName));
+				if (parameters != null && !parameters.isEmpty()) {
+					result = executePreparedStatement(query, parameters, datasourceName, dataSourceService, writer);
+				}
+				else {
+					result = executeRegularStatement(query, datasourceName, dataSourceService, writer);
+				}
+				writer.finish();
 			}
+			moveIntoPlace(temp, filePath);
+			if (progress != null) {
+				progress.accept(result.rows);
+			}
+
+			log.info("Successfully saved SQL results to JSON file: {}, rows: {}, truncated: {}", filePath, result.rows,
+					result.truncated);
 
-			// Save to file
-			return saveToFile(jsonResults, fileName, datasourceName);
+			// Format return message consistent with other database tools
+			String resultMessage = "Datasource: " + (datasourceName != null ? datasourceName : "default") + "\n"
+					+ String.format("Successfully executed SQL query and saved %d row(s) to file: %s", result.rows,
+							fileName);
+			if (result.truncated) {
+				resultMessage += String.format(
+						"\nNote: Result was truncated at %d rows. Narrow the query (WHERE/LIMIT) or export in parts to get the remaining rows.",
+						maxRows);
+			}
+			return new ToolExecuteResult(resultMessage);
+		}
+		catch (IOException e) {
+			log.error("Error saving JSON to file: {}", fileName, e);
+			return new ToolExecuteResult("Datasource: " + (datasourceName != null ? datasourceName : "default")
+					+ "\nError saving JSON to file: " + e.getMessage());
 		}
 		catch (Exception e) {
 			log.error("ExecuteSqlToJsonFileAction failed", e);
 			return new ToolExecuteResult("Datasource: " + (datasourceName != null ? datasourceName : "default")
 					+ "\nError executing SQL and saving to file: " + e.getMessage());
 		}
+		finally {
+			deleteQuietly(temp);
+		}
 	}
 
 	/**
 	 * Execute SQL using prepared statements with parameters
 	 */
-	private List<Map<String, Object>> executePreparedStatement(String query, List<Object> parameters,
-			String datasourceName, DataSourceService dataSourceService) throws SQLException {
+	private ExportResult executePreparedStatement(String query, List<Object> parameters, String datasourceName,
+			DataSourceService dataSourceService, JsonRowWriter writer) throws SQLException, IOException {
 		// Validate parameter count matches placeholder count
 		int placeholderCount = countPlaceholders(query);
 		if (placeholderCount != parameters.size()) {
@@ -124,153 +186,155 @@ public class ExecuteSqlToJsonFileAction extends AbstractDatabaseAction {
 		}
 
 		try (Connection conn = datasourceName != null && !datasourceName.trim().isEmpty()
-				? dataSourceService.getConnection(datasourceName) : dataSourceService.getConnection();
-				PreparedStatement pstmt = conn.prepareStatement(query)) {
-
-			// Set parameters
-			for (int i = 0; i < parameters.size(); i++) {
-				Object param = parameters.get(i);
-				if (param == null) {
-					pstmt.setNull(i + 1, java.sql.Types.NULL);
-				}
-				else {
-					pstmt.setObject(i + 1, param);
+				? dataSourceService.getConnection(datasourceName) : dataSourceService.getConnection()) {
+			boolean autoCommitChanged = ResultSetStreamer.prepare(conn);
+			try (PreparedStatement pstmt = conn.prepareStatement(query)) {
+				ResultSetStreamer.configure(pstmt, conn, maxRows);
+
+				// Set parameters
+				for (int i = 0; i < parameters.size(); i++) {
+					Object param = parameters.get(i);
+					if (param == null) {
+						pstmt.setNull(i + 1, java.sql.Types.NULL);
+					}
+					else {
+						pstmt.setObject(i + 1, param);
+					}
 				}
-			}
 
-			log.info("Executing prepared statement with {} parameters", parameters.size());
-			boolean hasResultSet = pstmt.execute();
+				log.info("Executing prepared statement with {} parameters", parameters.size());
+				boolean hasResultSet = pstmt.execute();
 
-			if (hasResultSet) {
-				try (ResultSet rs = pstmt.getResultSet()) {
-					return convertResultSetToJson(rs);
+				if (hasResultSet) {
+					try (ResultSet rs = pstmt.getResultSet()) {
+						return writeResultSet(rs, writer, new ExportResult());
+					}
 				}
-			}
-			else {
-				// No result set, return empty list
+				// No result set, write an empty result
 				log.warn("Prepared statement execution returned no result set");
-				return new ArrayList<>();
+				return new ExportResult();
+			}
+			finally {
+				ResultSetStreamer.restore(conn, autoCommitChanged);
 			}
 		}
 	}
 
 	/**
-	 * Execute SQL using regular statements
+	 * Execute SQL using regular statements; rows of all statements go to the same file
 	 */
-	private List<Map<String, Object>> executeRegularStatement(String query, String datasourceName,
-			DataSourceService dataSourceService) throws SQLException {
+	private ExportResult executeRegularStatement(String query, String datasourceName,
+			DataSourceService dataSourceService, JsonRowWriter writer) throws SQLException, IOException {
 		String[] statements = query.split(";");
-		List<Map<String, Object>> allResults = new ArrayList<>();
+		ExportResult result = new ExportResult();
 
 		try (Connection conn = datasourceName != null && !datasourceName.trim().isEmpty()
-				? dataSourceService.getConnection(datasourceName) : dataSourceService.getConnection();
-				Statement stmt = conn.createStatement()) {
-			for (String sql : statements) {
-				sql = sql.trim();
-				if (sql.isEmpty())
-					continue;
-				boolean hasResultSet = stmt.execute(sql);
-				if (hasResultSet) {
-					try (ResultSet rs = stmt.getResultSet()) {
-						allResults.addAll(convertResultSetToJson(rs));
+				? dataSourceService.getConnection(datasourceName) : dataSourceService.getConnection()) {
+			boolean autoCommitChanged = ResultSetStreamer.prepare(conn);
+			try (Statement stmt = conn.createStatement()) {
+				ResultSetStreamer.configure(stmt, conn, maxRows);
+				for (String sql : statements) {
+					sql = sql.trim();
+					if (sql.isEmpty())
+						continue;
+					if (result.truncated) {
+						break;
+					}
+					boolean hasResultSet = stmt.execute(sql);
+					if (hasResultSet) {
+						try (ResultSet rs = stmt.getResultSet()) {
+							writeResultSet(rs, writer, result);
+						}
 					}
 				}
 			}
+			finally {
+				ResultSetStreamer.restore(conn, autoCommitChanged);
+			}
 		}
 
-		return allResults;
+		return result;
 	}
 
 	/**
-	 * Convert ResultSet to JSON format (List of Maps)
+	 * Write the rows of a result set as JSON objects keyed by column name
 	 */
-	private List<Map<String, Object>> convertResultSetToJson(ResultSet rs) throws SQLException {
-		List<Map<String, Object>> results = new ArrayList<>();
+	private ExportResult writeResultSet(ResultSet rs, JsonRowWriter writer, ExportResult result)
+			throws SQLException, IOException {
 		ResultSetMetaData metaData = rs.getMetaData();
 		int columnCount = metaData.getColumnCount();
 
-		// Get column names
-		List<String> columnNames = new ArrayList<>();
+		// Get column names; when names repeat only the last column is written, as a
+		// map keyed by name would keep
+		String[] columnNames = new String[columnCount];
+		Map<String, Integer> lastIndex = new HashMap<>();
 		for (int i = 1; i <= columnCount; i++) {
-			columnNames.add(metaData.getColumnName(i));
+			columnNames[i - 1] = metaData.getColumnName(i);
+			lastIndex.put(columnNames[i - 1], i);
 		}
-
-		// Convert each row to a Map
-		while (rs.next()) {
-			Map<String, Object> row = new HashMap<>();
-			for (int i = 1; i <= columnCount; i++) {
-				Object value = rs.getObject(i);
-				// Handle NULL values
-				if (value == null) {
-					row.put(columnNames.get(i - 1), null);
-				}
-				else {
-					row.put(columnNames.get(i - 1), value);
-				}
-			}
-			results.add(row);
+		boolean[] written = new boolean[columnCount];
+		for (int i = 1; i <= columnCount; i++) {
+			written[i - 1] = lastIndex.get(columnNames[i - 1]) == i;
 		}
 
-		return results;
+		ResultSetStreamer.StreamResult streamed = ResultSetStreamer.stream(rs, maxRows - result.rows, result.rows,
+				progress, row -> writer.writeRow(row, columnNames, written));
+		result.rows += streamed.getRows();
+		result.truncated |= streamed.isTruncated();
+		return result;
 	}
 
 	/**
-	 * Save JSON results to file following the common rule: save to rootPlanId/shared/
-	 * directory (same as MarkdownConverterTool)
+	 * Resolve a file name within the root plan directory (same as MarkdownConverterTool)
+	 * @return Path of the file, or null if it is outside the root plan directory
 	 */
-	private ToolExecuteResult saveToFile(List<Map<String, Object>> jsonResults, String fileName,
-			String datasourceName) {
-		try {
-			if (rootPlanId == null || rootPlanId.trim().isEmpty()) {
-				log.error("rootPlanId is required for file operations but is null or empty");
-				return new ToolExecuteResult("Datasource: " + (datasourceName != null ? datasourceName : "default")
-						+ "\nError: rootPlanId is required for saving files");
-			}
-
-			// Get root plan directory (same as MarkdownConverterTool)
-			Path rootPlanDirectory = directoryManager.getRootPlanDirectory(rootPlanId);
-
-			// Ensure root plan directory exists
-			Files.createDirectories(rootPlanDirectory);
-
-			// Resolve file path within the root plan directory
-			Path filePath = rootPlanDirectory.resolve(fileName).normalize();
-
-			// Ensure the path stays within the root plan directory
-			if (!filePath.startsWith(rootPlanDirectory)) {
-				log.warn("File path is outside root plan directory: {}", fileName);
-				return new ToolExecuteResult("Datasource: " + (datasourceName != null ? datasourceName : "default")
-						+ "\nError: File path is outside root plan directory");
-			}
+	private Path resolveFilePath(String fileName) throws IOException {
+		if (rootPlanId == null || rootPlanId.trim().isEmpty()) {
+			log.error("rootPlanId is required for file operations but is null or empty");
+			throw new IOException("rootPlanId is required for saving files");
+		}
 
-			// Convert to JSON string with pretty printing
-			String jsonContent = objectMapper.writerWithDefaultPrettyPrinter().writeValueAsString(jsonResults);
+		// Get root plan directory (same as MarkdownConverterTool)
+		Path rootPlanDirectory = directoryManager.getRootPlanDirectory(rootPlanId);
 
-			// Write to file
-			Files.writeString(filePath, jsonContent, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
-					StandardOpenOption.WRITE);
+		// Resolve file path within the root plan directory
+		Path filePath = rootPlanDirectory.resolve(fileName).normalize();
 
-			log.info("Successfully saved SQL results to JSON file: {}, rows: {}", filePath, jsonResults.size());
+		// Ensure the path stays within the root plan directory
+		if (!filePath.startsWith(rootPlanDirectory)) {
+			log.warn("File path is outside root plan directory: {}", fileName);
+			return null;
+		}
+		Files.createDirectories(filePath.getParent());
+		return filePath;
+	}
 
-			// Format return message consistent with other database tools
-			String resultMessage = "Datasource: " + (datasourceName != null ? datasourceName : "default") + "\n"
-					+ String.format("Successfully executed SQL query and saved %d row(s) to file: %s",
-							jsonResults.size(), fileName);
+	private void moveIntoPlace(Path temp, Path target) throws IOException {
+		try {
+			Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		}
+		catch (AtomicMoveNotSupportedException e) {
+			Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+		}
+	}
 
-			return new ToolExecuteResult(resultMessage);
+	private void deleteQuietly(Path temp) {
+		if (temp == null) {
+			return;
 		}
-		catch (IOException e) {
-			log.error("Error saving JSON to file: {}", fileName, e);
-			return new ToolExecuteResult("Datasource: " + (datasourceName != null ? datasourceName : "default")
-					+ "\nError saving JSON to file: " + e.getMessage());
+		try {
+			Files.deleteIfExists(temp);
 		}
-		catch (Exception e) {
-			log.error("Error converting results to JSON", e);
-			return new ToolExecuteResult("Datasource: " + (datasourceName != null ? datasourceName : "default")
-					+ "\nError converting results to JSON: " + e.getMessage());
+		catch (IOException e) {
+			log.warn("Failed to delete temporary export file: {}", temp, e);
 		}
 	}
 
+	private static boolean isNdjson(String fileName) {
+		String lower = fileName.toLowerCase();
+		return lower.endsWith(".ndjson") || lower.endsWith(".jsonl");
+	}
+
 	/**
 	 * Count the number of ? placeholders in SQL query
 	 */
@@ -287,4 +351,59 @@ public class ExecuteSqlToJsonFileAction extends AbstractDatabaseAction {
 		return count;
 	}
 
+	/**
+	 * Rows written across all statements of one export
+	 */
+	private static class ExportResult {
+
+		private long rows;
+
+		private boolean truncated;
+
+	}
+
+	/**
+	 * Writes rows either as elements of a pretty-printed array or as one object per line
+	 */
+	private static class JsonRowWriter {
+
+		private final JsonGenerator generator;
+
+		private final boolean ndjson;
+
+		JsonRowWriter(JsonGenerator generator, boolean ndjson) throws IOException {
+			this.generator = generator;
+			this.ndjson = ndjson;
+			if (ndjson) {
+				generator.setRootValueSeparator(null);
+			}
+			else {
+				generator.useDefaultPrettyPrinter();
+				generator.writeStartArray();
+			}
+		}
+
+		void writeRow(ResultSet rs, String[] columnNames, boolean[] written) throws SQLException, IOException {
+			generator.writeStartObject();
+			for (int i = 0; i < columnNames.length; i++) {
+				if (written[i]) {
+					generator.writeFieldName(columnNames[i]);
+					generator.writeObject(rs.getObject(i + 1));
+				}
+			}
+			generator.writeEndObject();
+			if (ndjson) {
+				generator.writeRaw('\n');
+			}
+		}
+
+		void finish() throws IOException {
+			if (!ndjson) {
+				generator.writeEndArray();
+			}
+			generator.flush();
+		}
+
+	}
+
 }
@@ -16,37 +16,56 @@
 
 package com.alibaba.cloud.ai.lynxe.tool.database.action;
 
-import java.sql.Connection;
-import java.sql.PreparedStatement;
-import java.sql.ResultSet;
 import java.sql.SQLException;
-import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.Map;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.alibaba.cloud.ai.lynxe.tool.code.ToolExecuteResult;
 import com.alibaba.cloud.ai.lynxe.tool.database.databaseOperators.DatabaseRequest;
-import com.alibaba.cloud.ai.lynxe.tool.database.meta.ColumnMeta;
-import com.alibaba.cloud.ai.lynxe.tool.database.meta.IndexMeta;
+import com.alibaba.cloud.ai.lynxe.tool.database.meta.SchemaMetadataCache;
 import com.alibaba.cloud.ai.lynxe.tool.database.meta.TableMeta;
 import com.alibaba.cloud.ai.lynxe.tool.database.service.DataSourceService;
-import com.alibaba.cloud.ai.lynxe.tool.database.sql.DatabaseSqlGenerator;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
+/**
+ * Looks up table metadata in the {@link SchemaMetadataCache}. With search text, tables
+ * are ranked by fuzzy name match, and when nothing matches at most the search limit of
+ * tables is listed; without, all tables are returned.
+ */
 public class GetTableMetaAction extends AbstractDatabaseAction {
 
+	/**
+	 * Tables returned at most for a search
+	 */
+	public static final int DEFAULT_SEARCH_LIMIT = 50;
+
 	private final ObjectMapper objectMapper;
 
+	private final SchemaMetadataCache schemaMetadataCache;
+
+	private final boolean compact;
+
+	private final int searchLimit;
+
 	private static final Logger log = LoggerFactory.getLogger(GetTableMetaAction.class);
 
-	public GetTableMetaAction(ObjectMapper objectMapper) {
+	public GetTableMetaAction(ObjectMapper objectMapper, SchemaMetadataCache schemaMetadataCache) {
+		this(objectMapper, schemaMetadataCache, false, DEFAULT_SEARCH_LIMIT);
+	}
+
+	/**
+	 * @param compact Whether to render tables as compact text instead of JSON
+	 * @param searchLimit Tables returned at most for a search
+	 */
+	public GetTableMetaAction(ObjectMapper objectMapper, SchemaMetadataCache schemaMetadataCache, boolean compact,
+			int searchLimit) {
 		this.objectMapper = objectMapper;
+		this.schemaMetadataCache = schemaMetadataCache;
+		this.compact = compact;
+		this.searchLimit = searchLimit;
 	}
 
 	@Override
@@ -54,48 +73,9 @@ public class GetTableMetaAction extends AbstractDatabaseAction {
 		String text = request.getText();
 		String datasourceName = request.getDatasourceName();
 
-		List<TableMeta> tableMetaList = new ArrayList<>();
-		Map<String, TableMeta> tableMetaMap = new LinkedHashMap<>();
-		// 1. Get table information
-		String databaseType = datasourceName != null && !datasourceName.trim().isEmpty()
-				? dataSourceService.getDataSourceType(datasourceName) : dataSourceService.getDataSourceType();
-
-		boolean fuzzy = text != null && !text.trim().isEmpty();
-		String tableSql = DatabaseSqlGenerator.generateTableInfoSql(databaseType, fuzzy, text);
-
-		try (Connection conn = datasourceName != null && !datasourceName.trim().isEmpty()
-				? dataSourceService.getConnection(datasourceName) : dataSourceService.getConnection();
-				PreparedStatement ps = conn.prepareStatement(tableSql)) {
-			if (fuzzy) {
-				String pattern = "%" + text + "%";
-				ps.setString(1, pattern);
-				ps.setString(2, pattern);
-			}
-			try (ResultSet rs = ps.executeQuery()) {
-				while (rs.next()) {
-					String tableName = rs.getString("TABLE_NAME");
-					// Handle different column names for table comment across databases
-					String tableComment = null;
-					try {
-						tableComment = rs.getString("TABLE_COMMENT");
-					}
-					catch (SQLException e) {
-						// Fallback: try REMARKS for H2 and other databases
-						try {
-							tableComment = rs.getString("REMARKS");
-						}
-						catch (SQLException e2) {
-							log.debug("Could not read table comment for table: {}", tableName);
-						}
-					}
-					TableMeta tableMeta = new TableMeta();
-					tableMeta.setTableName(tableName);
-					tableMeta.setTableComment(tableComment);
-					tableMeta.setColumns(new ArrayList<>());
-					tableMeta.setIndexes(new ArrayList<>());
-					tableMetaMap.put(tableName, tableMeta);
-				}
-			}
+		SchemaMetadataCache.SchemaSnapshot snapshot;
+		try {
+			snapshot = schemaMetadataCache.getSnapshot(datasourceName);
 		}
 		catch (SQLException e) {
 			log.error("GetTableMetaAction failed to fetch table info, datasourceName={}, error={}", datasourceName,
@@ -103,112 +83,31 @@ public class GetTableMetaAction extends AbstractDatabaseAction {
 			return new ToolExecuteResult("Datasource: " + (datasourceName != null ? datasourceName : "default")
 					+ "\nError getting table information: " + e.getMessage());
 		}
-		if (tableMetaMap.isEmpty()) {
-			log.warn("GetTableMetaAction found no tables, datasourceName={}, fuzzy={}", datasourceName, fuzzy);
-			return new ToolExecuteResult("Datasource: " + (datasourceName != null ? datasourceName : "default")
-					+ "\nNo matching tables found");
-		}
-		// 2. Get field information
-		StringBuilder inClause = new StringBuilder();
-		for (int i = 0; i < tableMetaMap.size(); i++) {
-			inClause.append("?");
-			if (i < tableMetaMap.size() - 1)
-				inClause.append(",");
-		}
-		String columnSql = DatabaseSqlGenerator.generateColumnInfoSql(databaseType, inClause.toString());
-		try (Connection conn = datasourceName != null && !datasourceName.trim().isEmpty()
-				? dataSourceService.getConnection(datasourceName) : dataSourceService.getConnection();
-				PreparedStatement ps = conn.prepareStatement(columnSql)) {
-			int idx = 1;
-			for (String tableName : tableMetaMap.keySet()) {
-				ps.setString(idx++, tableName);
-			}
-			try (ResultSet rs = ps.executeQuery()) {
-				while (rs.next()) {
-					String tableName = rs.getString("TABLE_NAME");
-					TableMeta tableMeta = tableMetaMap.get(tableName);
-					if (tableMeta == null)
-						continue;
-					ColumnMeta columnMeta = new ColumnMeta();
-					columnMeta.setColumnName(rs.getString("COLUMN_NAME"));
-					columnMeta.setColumnType(rs.getString("COLUMN_TYPE"));
-					columnMeta.setColumnLength(rs.getObject("CHARACTER_MAXIMUM_LENGTH") == null ? null
-							: rs.getObject("CHARACTER_MAXIMUM_LENGTH").toString());
-					columnMeta.setColumnComment(rs.getString("COLUMN_COMMENT"));
-					columnMeta.setDefaultValue(rs.getString("COLUMN_DEFAULT"));
-					columnMeta.setNotNull("NO".equals(rs.getString("IS_NULLABLE")));
-					columnMeta.setIndexes(new ArrayList<>());
-					tableMeta.getColumns().add(columnMeta);
-				}
-			}
-		}
-		catch (SQLException e) {
-			log.error("GetTableMetaAction failed to fetch column info, datasourceName={}, error={}", datasourceName,
-					e.getMessage(), e);
-			return new ToolExecuteResult("Datasource: " + (datasourceName != null ? datasourceName : "default")
-					+ "\nError getting field information: " + e.getMessage());
+
+		boolean fuzzy = text != null && !text.trim().isEmpty();
+		List<TableMeta> tableMetaList = fuzzy ? SchemaMetadataCache.search(snapshot, text, searchLimit)
+				: snapshot.getTables();
+		String header = "Datasource: " + (datasourceName != null ? datasourceName : "default") + "\n";
+		if (fuzzy && tableMetaList.isEmpty() && !snapshot.getTables().isEmpty()) {
+			// List at most the search limit so a miss does not return the whole schema
+			List<TableMeta> allTables = snapshot.getTables();
+			tableMetaList = allTables.subList(0, Math.min(searchLimit, allTables.size()));
+			header += "No tables match \"" + text.trim() + "\", listing " + tableMetaList.size() + " of "
+					+ allTables.size() + " tables\n";
 		}
-		// 3. Get index information
-		String indexSql = DatabaseSqlGenerator.generateIndexInfoSql(databaseType, inClause.toString());
-		try (Connection conn = datasourceName != null && !datasourceName.trim().isEmpty()
-				? dataSourceService.getConnection(datasourceName) : dataSourceService.getConnection();
-				PreparedStatement ps = conn.prepareStatement(indexSql)) {
-			int idx = 1;
-			for (String tableName : tableMetaMap.keySet()) {
-				ps.setString(idx++, tableName);
-			}
-			try (ResultSet rs = ps.executeQuery()) {
-				// Map<tableName, Map<indexName, IndexMeta>>
-				Map<String, Map<String, IndexMeta>> tableIndexMap = new HashMap<>();
-				while (rs.next()) {
-					String tableName = rs.getString("TABLE_NAME");
-					String indexName = rs.getString("INDEX_NAME");
-					String columnName = rs.getString("COLUMN_NAME");
-					String indexType = rs.getString("INDEX_TYPE");
-					TableMeta tableMeta = tableMetaMap.get(tableName);
-					if (tableMeta == null)
-						continue;
-					// Find the column
-					ColumnMeta refColumn = null;
-					for (ColumnMeta col : tableMeta.getColumns()) {
-						if (col.getColumnName().equals(columnName)) {
-							refColumn = col;
-							break;
-						}
-					}
-					// Group index by tableName+indexName
-					tableIndexMap.putIfAbsent(tableName, new HashMap<>());
-					Map<String, IndexMeta> indexMap = tableIndexMap.get(tableName);
-					IndexMeta indexMeta = indexMap.get(indexName);
-					if (indexMeta == null) {
-						indexMeta = new IndexMeta();
-						indexMeta.setIndexName(indexName);
-						indexMeta.setIndexType(indexType);
-						indexMeta.setRefColumnNames(new ArrayList<>());
-						indexMap.put(indexName, indexMeta);
-						tableMeta.getIndexes().add(indexMeta);
-					}
-					indexMeta.getRefColumnNames().add(columnName);
-					if (refColumn != null) {
-						refColumn.getIndexes().add(indexMeta);
-					}
-				}
-			}
+		if (tableMetaList.isEmpty()) {
+			log.warn("GetTableMetaAction found no tables, datasourceName={}, fuzzy={}", datasourceName, fuzzy);
+			return new ToolExecuteResult(header + "No matching tables found");
 		}
-		catch (SQLException e) {
-			log.error("GetTableMetaAction failed to fetch index info, datasourceName={}, error={}", datasourceName,
-					e.getMessage(), e);
-			return new ToolExecuteResult("Datasource: " + (datasourceName != null ? datasourceName : "default")
-					+ "\nError getting index information: " + e.getMessage());
+
+		log.info("GetTableMetaAction completed successfully, datasourceName={}, found {} tables, schema version {}",
+				datasourceName, tableMetaList.size(), snapshot.getVersion());
+		if (compact) {
+			return new ToolExecuteResult(header + SchemaMetadataCache.renderCompact(tableMetaList));
 		}
-		tableMetaList.addAll(tableMetaMap.values());
-		// 4. Return structured object
 		try {
 			String json = objectMapper.writeValueAsString(tableMetaList);
-			log.info("GetTableMetaAction completed successfully, datasourceName={}, found {} tables", datasourceName,
-					tableMetaList.size());
-			String resultContent = "Datasource: " + (datasourceName != null ? datasourceName : "default") + "\n" + json;
-			return new ToolExecuteResult(resultContent);
+			return new ToolExecuteResult(header + json);
 		}
 		catch (JsonProcessingException e) {
 			log.error("GetTableMetaAction failed to serialize result, datasourceName={}, error={}", datasourceName,
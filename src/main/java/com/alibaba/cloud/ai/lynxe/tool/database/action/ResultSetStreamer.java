@@ -0,0 +1,180 @@
+/*
+ * Copyright 2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.lynxe.tool.database.action;
+
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.function.LongConsumer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Reads query results with a database cursor, one row at a time, for exports that must
+ * not hold the whole result in memory.
+ *
+ * Drivers only stream when asked to: MySQL Connector/J needs a fetch size of
+ * {@link Integer#MIN_VALUE} and PostgreSQL needs auto-commit off and a positive fetch
+ * size; other drivers use the fetch size as a hint.
+ */
+public final class ResultSetStreamer {
+
+	private static final Logger log = LoggerFactory.getLogger(ResultSetStreamer.class);
+
+	/**
+	 * Rows fetched per round trip by drivers that honour the fetch size
+	 */
+	public static final int FETCH_SIZE = 1000;
+
+	/**
+	 * Rows exported at most by one tool call unless a smaller limit applies
+	 */
+	public static final long DEFAULT_MAX_ROWS = 1_000_000;
+
+	/**
+	 * Rows between two progress reports
+	 */
+	public static final long PROGRESS_INTERVAL = 10_000;
+
+	/**
+	 * Handles the current row of a result set
+	 */
+	@FunctionalInterface
+	public interface RowHandler {
+
+		void handle(ResultSet resultSet) throws SQLException, IOException;
+
+	}
+
+	/**
+	 * Rows read from a result set
+	 */
+	public static class StreamResult {
+
+		private final long rows;
+
+		private final boolean truncated;
+
+		StreamResult(long rows, boolean truncated) {
+			this.rows = rows;
+			this.truncated = truncated;
+		}
+
+		public long getRows() {
+			return rows;
+		}
+
+		/**
+		 * @return Whether rows were left unread because of the row limit
+		 */
+		public boolean isTruncated() {
+			return truncated;
+		}
+
+	}
+
+	private ResultSetStreamer() {
+	}
+
+	/**
+	 * Prepare a connection for cursor reads
+	 * @param connection Connection the query runs on
+	 * @return Whether auto-commit was turned off and must be restored with
+	 * {@link #restore}
+	 * @throws SQLException If the connection cannot be changed
+	 */
+	public static boolean prepare(Connection connection) throws SQLException {
+		if (isDriver(connection, "postgresql") && connection.getAutoCommit()) {
+			connection.setAutoCommit(false);
+			return true;
+		}
+		return false;
+	}
+
+	/**
+	 * Undo {@link #prepare}; the read-only transaction is rolled back
+	 * @param connection Connection passed to prepare
+	 * @param autoCommitChanged Value returned by prepare
+	 */
+	public static void restore(Connection connection, boolean autoCommitChanged) {
+		if (!autoCommitChanged) {
+			return;
+		}
+		try {
+			connection.rollback();
+			connection.setAutoCommit(true);
+		}
+		catch (SQLException e) {
+			log.warn("Failed to restore auto-commit after streaming read", e);
+		}
+	}
+
+	/**
+	 * Set fetch size and row limit of a statement before it is executed
+	 * @param statement Statement to configure
+	 * @param connection Connection the statement belongs to
+	 * @param maxRows Row limit; one more row is requested to detect truncation
+	 * @throws SQLException If the driver rejects the settings
+	 */
+	public static void configure(Statement statement, Connection connection, long maxRows) throws SQLException {
+		statement.setFetchSize(isDriver(connection, "mysql connector") ? Integer.MIN_VALUE : FETCH_SIZE);
+		if (maxRows > 0 && maxRows < Integer.MAX_VALUE) {
+			statement.setMaxRows((int) maxRows + 1);
+		}
+	}
+
+	/**
+	 * Hand rows to a handler until the result set or the row budget is exhausted
+	 * @param resultSet Result set positioned before its first row
+	 * @param remainingRows Rows that may still be read
+	 * @param rowsBefore Rows already read from earlier result sets, for progress
+	 * @param progress Receives the total row count every {@link #PROGRESS_INTERVAL} rows,
+	 * may be null
+	 * @param handler Row handler
+	 * @return Rows read and whether rows were left unread
+	 * @throws SQLException If reading fails
+	 * @throws IOException If the handler fails to write
+	 */
+	public static StreamResult stream(ResultSet resultSet, long remainingRows, long rowsBefore, LongConsumer progress,
+			RowHandler handler) throws SQLException, IOException {
+		long rows = 0;
+		while (resultSet.next()) {
+			if (rows >= remainingRows) {
+				return new StreamResult(rows, true);
+			}
+			handler.handle(resultSet);
+			rows++;
+			if (progress != null && rows % PROGRESS_INTERVAL == 0) {
+				progress.accept(rowsBefore + rows);
+			}
+		}
+		return new StreamResult(rows, false);
+	}
+
+	private static boolean isDriver(Connection connection, String name) {
+		try {
+			String driverName = connection.getMetaData().getDriverName();
+			return driverName != null && driverName.toLowerCase().contains(name);
+		}
+		catch (SQLException e) {
+			return false;
+		}
+	}
+
+}
@@ -30,6 +30,7 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import com.alibaba.cloud.ai.lynxe.tool.database.model.vo.DatasourceConfigVO;
@@ -186,6 +187,31 @@ public class DatasourceConfigController {
 		}
 	}
 
+	/**
+	 * Get connection pool metrics of the registered datasources
+	 */
+	@GetMapping("/pool-metrics")
+	public ResponseEntity<Map<String, Object>> getPoolMetrics() {
+		return ResponseEntity.ok(service.getPoolMetrics());
+	}
+
+	/**
+	 * Get state of the cached table metadata per datasource
+	 */
+	@GetMapping("/schema-cache")
+	public ResponseEntity<Map<String, Object>> getSchemaCacheMetrics() {
+		return ResponseEntity.ok(service.getSchemaCacheMetrics());
+	}
+
+	/**
+	 * Reload the cached table metadata of one datasource, or of all when no name is given
+	 */
+	@PostMapping("/schema-cache/invalidate")
+	public ResponseEntity<Void> invalidateSchemaCache(@RequestParam(required = false) String name) {
+		service.invalidateSchemaCache(name);
+		return ResponseEntity.ok().build();
+	}
+
 	/**
 	 * Check if datasource configuration exists by name
 	 */
@@ -15,6 +15,7 @@
  */
 package com.alibaba.cloud.ai.lynxe.tool.database.databaseOperators;
 
+import java.io.IOException;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
@@ -22,7 +23,6 @@ import java.sql.ResultSetMetaData;
 import java.sql.SQLException;
 import java.sql.Statement;
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -34,7 +34,9 @@ import com.alibaba.cloud.ai.lynxe.config.LynxeProperties;
 import com.alibaba.cloud.ai.lynxe.tool.AbstractBaseTool;
 import com.alibaba.cloud.ai.lynxe.tool.ToolStateInfo;
 import com.alibaba.cloud.ai.lynxe.tool.code.ToolExecuteResult;
+import com.alibaba.cloud.ai.lynxe.tool.database.action.ResultSetStreamer;
 import com.alibaba.cloud.ai.lynxe.tool.database.service.DataSourceService;
+import com.alibaba.cloud.ai.lynxe.tool.excelProcessor.ExcelSheetWriter;
 import com.alibaba.cloud.ai.lynxe.tool.excelProcessor.IExcelProcessingService;
 import com.alibaba.cloud.ai.lynxe.tool.filesystem.UnifiedDirectoryManager;
 import com.alibaba.cloud.ai.lynxe.tool.i18n.ToolI18nService;
@@ -59,6 +61,11 @@ public class DatabaseTableToExcelTool extends AbstractBaseTool<DatabaseTableToEx
 
 	private final ToolI18nService toolI18nService;
 
+	/**
+	 * Rows written by the running or last export, shown in the tool state
+	 */
+	private volatile String exportProgress;
+
 	public DatabaseTableToExcelTool(LynxeProperties lynxeProperties, DataSourceService dataSourceService,
 			IExcelProcessingService excelProcessingService, UnifiedDirectoryManager directoryManager,
 			ToolI18nService toolI18nService) {
@@ -204,29 +211,24 @@ public class DatabaseTableToExcelTool extends AbstractBaseTool<DatabaseTableToEx
 				return new ToolExecuteResult("Error: Plan ID is required for file operations");
 			}
 
-			// Execute query and get data
-			List<List<String>> data = executeQuery(sqlQuery, request.getDatasourceName(), request.getParameters());
-			if (data == null || data.isEmpty()) {
-				return new ToolExecuteResult("Error: No data returned from query or query execution failed");
-			}
-
-			// Extract headers (first row) and data rows
-			List<String> headers = data.get(0);
-			List<List<String>> dataRows = data.subList(1, data.size());
-
-			// Create Excel file
-			Map<String, List<String>> worksheets = new HashMap<>();
-			worksheets.put(worksheetName, headers);
-
+			// Stream query results into the worksheet
 			String filePath = getFilePath(planId, filename);
-			excelProcessingService.createExcelFile(planId, filePath, worksheets);
-			excelProcessingService.writeExcelDataWithHeaders(planId, filePath, worksheetName, dataRows, null, false);
+			exportProgress = filename + ": started";
+			ExportSummary summary = exportQuery(sqlQuery, request.getDatasourceName(), request.getParameters(), planId,
+					filePath, worksheetName, filename);
+			exportProgress = filename + ": " + summary.rows + " row(s) written";
 
 			log.info("Successfully converted table to Excel: {} -> {}", sqlQuery, filename);
-			return new ToolExecuteResult(String.format(
+			String result = String.format(
 					"Successfully converted database table to Excel\n\n" + "**Output File**: %s\n\n"
 							+ "**Worksheet**: %s\n\n" + "**Rows Exported**: %d\n\n" + "**Columns**: %s",
-					filename, worksheetName, dataRows.size(), String.join(", ", headers)));
+					filename, worksheetName, summary.rows, String.join(", ", summary.headers));
+			if (summary.truncated) {
+				result += String.format(
+						"\n\n**Note**: Result was truncated at %d rows. Narrow the query (WHERE/LIMIT) or export in parts to get the remaining rows.",
+						summary.rows);
+			}
+			return new ToolExecuteResult(result);
 
 		}
 		catch (Exception e) {
@@ -284,72 +286,96 @@ public class DatabaseTableToExcelTool extends AbstractBaseTool<DatabaseTableToEx
 	}
 
 	/**
-	 * Execute SQL query and return data as List of Lists
+	 * Rows exported by one query
 	 */
-	private List<List<String>> executeQuery(String query, String datasourceName, List<Object> parameters)
-			throws SQLException {
-		List<List<String>> result = new ArrayList<>();
-
-		try (Connection conn = datasourceName != null && !datasourceName.trim().isEmpty()
-				? dataSourceService.getConnection(datasourceName) : dataSourceService.getConnection()) {
-
-			if (parameters != null && !parameters.isEmpty()) {
-				// Use prepared statement
-				try (PreparedStatement pstmt = conn.prepareStatement(query)) {
-					// Set parameters
-					for (int i = 0; i < parameters.size(); i++) {
-						Object param = parameters.get(i);
-						if (param == null) {
-							pstmt.setNull(i + 1, java.sql.Types.NULL);
-						}
-						else {
-							pstmt.setObject(i + 1, param);
+	private static class ExportSummary {
+
+		private final List<String> headers;
+
+		private final long rows;
+
+		private final boolean truncated;
+
+		ExportSummary(List<String> headers, long rows, boolean truncated) {
+			this.headers = headers;
+			this.rows = rows;
+			this.truncated = truncated;
+		}
+
+	}
+
+	/**
+	 * Execute SQL query and write its rows to the worksheet as they are read
+	 */
+	private ExportSummary exportQuery(String query, String datasourceName, List<Object> parameters, String planId,
+			String filePath, String worksheetName, String filename) throws SQLException, IOException {
+		long maxRows = Math.min(ResultSetStreamer.DEFAULT_MAX_ROWS, ExcelSheetWriter.MAX_DATA_ROWS);
+
+		try (Connection conn = dataSourceService.getConnection(datasourceName, rootPlanId)) {
+			boolean autoCommitChanged = ResultSetStreamer.prepare(conn);
+			try {
+				if (parameters != null && !parameters.isEmpty()) {
+					// Use prepared statement
+					try (PreparedStatement pstmt = conn.prepareStatement(query)) {
+						ResultSetStreamer.configure(pstmt, conn, maxRows);
+						// Set parameters
+						for (int i = 0; i < parameters.size(); i++) {
+							Object param = parameters.get(i);
+							if (param == null) {
+								pstmt.setNull(i + 1, java.sql.Types.NULL);
+							}
+							else {
+								pstmt.setObject(i + 1, param);
+							}
 						}
-					}
 
-					try (ResultSet rs = pstmt.executeQuery()) {
-						result = convertResultSetToList(rs);
+						try (ResultSet rs = pstmt.executeQuery()) {
+							return writeResultSet(rs, maxRows, planId, filePath, worksheetName, filename);
+						}
 					}
 				}
-			}
-			else {
 				// Use regular statement
-				try (Statement stmt = conn.createStatement(); ResultSet rs = stmt.executeQuery(query)) {
-					result = convertResultSetToList(rs);
+				try (Statement stmt = conn.createStatement()) {
+					ResultSetStreamer.configure(stmt, conn, maxRows);
+					try (ResultSet rs = stmt.executeQuery(query)) {
+						return writeResultSet(rs, maxRows, planId, filePath, worksheetName, filename);
+					}
 				}
 			}
+			finally {
+				ResultSetStreamer.restore(conn, autoCommitChanged);
+			}
 		}
-
-		return result;
 	}
 
 	/**
-	 * Convert ResultSet to List of Lists (first row is headers)
+	 * Write the column names as header row followed by the rows of the result set
 	 */
-	private List<List<String>> convertResultSetToList(ResultSet rs) throws SQLException {
-		List<List<String>> result = new ArrayList<>();
+	private ExportSummary writeResultSet(ResultSet rs, long maxRows, String planId, String filePath,
+			String worksheetName, String filename) throws SQLException, IOException {
 		ResultSetMetaData metaData = rs.getMetaData();
 		int columnCount = metaData.getColumnCount();
 
-		// Add header row
 		List<String> headers = new ArrayList<>();
 		for (int i = 1; i <= columnCount; i++) {
 			headers.add(metaData.getColumnName(i));
 		}
-		result.add(headers);
-
-		// Add data rows
-		while (rs.next()) {
-			List<String> row = new ArrayList<>();
-			for (int i = 1; i <= columnCount; i++) {
-				Object value = rs.getObject(i);
-				String cellValue = (value == null) ? "" : value.toString();
-				row.add(cellValue);
-			}
-			result.add(row);
-		}
 
-		return result;
+		try (ExcelSheetWriter writer = excelProcessingService.openSheetWriter(planId, filePath, worksheetName,
+				headers)) {
+			List<String> row = new ArrayList<>(columnCount);
+			ResultSetStreamer.StreamResult streamed = ResultSetStreamer.stream(rs, maxRows, 0,
+					rows -> exportProgress = filename + ": " + rows + " row(s) written", current -> {
+						row.clear();
+						for (int i = 1; i <= columnCount; i++) {
+							Object value = current.getObject(i);
+							row.add(value == null ? "" : value.toString());
+						}
+						writer.writeRow(row);
+					});
+			writer.finish();
+			return new ExportSummary(headers, streamed.getRows(), streamed.isTruncated());
+		}
 	}
 
 	/**
@@ -410,6 +436,11 @@ public class DatabaseTableToExcelTool extends AbstractBaseTool<DatabaseTableToEx
 				}
 			}
 
+			String progress = exportProgress;
+			if (progress != null) {
+				stateBuilder.append("Last export: ").append(progress).append("\n");
+			}
+
 			stateBuilder.append("\n=== End Database Table to Excel Tool State ===\n");
 			stateString = stateBuilder.toString();
 		}
@@ -16,6 +16,7 @@
 package com.alibaba.cloud.ai.lynxe.tool.database.databaseOperators;
 
 import java.util.Map;
+import java.util.regex.Pattern;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -26,6 +27,7 @@ import com.alibaba.cloud.ai.lynxe.tool.AbstractBaseTool;
 import com.alibaba.cloud.ai.lynxe.tool.ToolStateInfo;
 import com.alibaba.cloud.ai.lynxe.tool.code.ToolExecuteResult;
 import com.alibaba.cloud.ai.lynxe.tool.database.action.ExecuteSqlAction;
+import com.alibaba.cloud.ai.lynxe.tool.database.meta.SchemaMetadataCache;
 import com.alibaba.cloud.ai.lynxe.tool.database.service.DataSourceService;
 import com.alibaba.cloud.ai.lynxe.tool.i18n.ToolI18nService;
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -35,13 +37,20 @@ public class DatabaseWriteTool extends AbstractBaseTool<DatabaseRequest> {
 
 	private static final Logger log = LoggerFactory.getLogger(DatabaseWriteTool.class);
 
+	// Statements that change table structure and so the cached schema metadata
+	private static final Pattern DDL_PATTERN = Pattern.compile("(^|;)\\s*(CREATE|ALTER|DROP|RENAME|COMMENT)\\s",
+			Pattern.CASE_INSENSITIVE);
+
 	private final DataSourceService dataSourceService;
 
 	private final ToolI18nService toolI18nService;
 
+	private final SchemaMetadataCache schemaMetadataCache;
+
 	public DatabaseWriteTool(LynxeProperties lynxeProperties, DataSourceService dataSourceService,
-			ObjectMapper objectMapper, ToolI18nService toolI18nService) {
+			SchemaMetadataCache schemaMetadataCache, ObjectMapper objectMapper, ToolI18nService toolI18nService) {
 		this.dataSourceService = dataSourceService;
+		this.schemaMetadataCache = schemaMetadataCache;
 		this.toolI18nService = toolI18nService;
 	}
 
@@ -89,7 +98,13 @@ public class DatabaseWriteTool extends AbstractBaseTool<DatabaseRequest> {
 			}
 
 			// Execute write SQL
-			return new ExecuteSqlAction().execute(request, dataSourceService);
+			ToolExecuteResult result = dataSourceService.runForPlan(rootPlanId,
+					() -> new ExecuteSqlAction().execute(request, dataSourceService));
+			if (schemaMetadataCache != null && request.getQuery() != null
+					&& DDL_PATTERN.matcher(request.getQuery()).find()) {
+				schemaMetadataCache.invalidate(request.getDatasourceName());
+			}
+			return result;
 		}
 		catch (Exception e) {
 			log.error("Database write action '" + action + "' failed", e);
@@ -137,9 +152,9 @@ public class DatabaseWriteTool extends AbstractBaseTool<DatabaseRequest> {
 		return new ToolStateInfo(null, stateString);
 	}
 
-	public static DatabaseWriteTool getInstance(DataSourceService dataSourceService, ObjectMapper objectMapper,
-			ToolI18nService toolI18nService) {
-		return new DatabaseWriteTool(null, dataSourceService, null, toolI18nService);
+	public static DatabaseWriteTool getInstance(DataSourceService dataSourceService,
+			SchemaMetadataCache schemaMetadataCache, ObjectMapper objectMapper, ToolI18nService toolI18nService) {
+		return new DatabaseWriteTool(null, dataSourceService, schemaMetadataCache, null, toolI18nService);
 	}
 
 }
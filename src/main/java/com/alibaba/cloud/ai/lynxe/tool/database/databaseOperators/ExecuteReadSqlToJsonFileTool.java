@@ -24,6 +24,7 @@ import com.alibaba.cloud.ai.lynxe.tool.AbstractBaseTool;
 import com.alibaba.cloud.ai.lynxe.tool.ToolStateInfo;
 import com.alibaba.cloud.ai.lynxe.tool.code.ToolExecuteResult;
 import com.alibaba.cloud.ai.lynxe.tool.database.action.ExecuteSqlToJsonFileAction;
+import com.alibaba.cloud.ai.lynxe.tool.database.action.ResultSetStreamer;
 import com.alibaba.cloud.ai.lynxe.tool.database.service.DataSourceService;
 import com.alibaba.cloud.ai.lynxe.tool.filesystem.UnifiedDirectoryManager;
 import com.alibaba.cloud.ai.lynxe.tool.i18n.ToolI18nService;
@@ -96,6 +97,11 @@ public class ExecuteReadSqlToJsonFileTool
 
 	private final ToolI18nService toolI18nService;
 
+	/**
+	 * Rows written by the running or last export, shown in the tool state
+	 */
+	private volatile String exportProgress;
+
 	public ExecuteReadSqlToJsonFileTool(DataSourceService dataSourceService, UnifiedDirectoryManager directoryManager,
 			ObjectMapper objectMapper, ToolI18nService toolI18nService) {
 		this.dataSourceService = dataSourceService;
@@ -130,8 +136,12 @@ public class ExecuteReadSqlToJsonFileTool
 			request.setDatasourceName(input.getDatasourceName());
 			request.setParameters(input.getParameters());
 
-			return new ExecuteSqlToJsonFileAction(directoryManager, objectMapper, rootPlanId).execute(request,
-					dataSourceService);
+			exportProgress = fileName + ": started";
+			return dataSourceService.runForPlan(rootPlanId,
+					() -> new ExecuteSqlToJsonFileAction(directoryManager, objectMapper, rootPlanId,
+							ResultSetStreamer.DEFAULT_MAX_ROWS,
+							rows -> exportProgress = fileName + ": " + rows + " row(s) written")
+						.execute(request, dataSourceService));
 		}
 		catch (Exception e) {
 			log.error("ExecuteReadSqlToJsonFileTool execution failed", e);
@@ -157,6 +167,11 @@ public class ExecuteReadSqlToJsonFileTool
 				}
 			}
 
+			String progress = exportProgress;
+			if (progress != null) {
+				stateBuilder.append("Last export: ").append(progress).append("\n");
+			}
+
 			stateBuilder.append("\n=== End Execute Read SQL to JSON File Tool State ===\n");
 			stateString = stateBuilder.toString();
 		}
@@ -103,7 +103,8 @@ public class ExecuteReadSqlTool extends AbstractBaseTool<ExecuteReadSqlTool.Exec
 			request.setDatasourceName(input.getDatasourceName());
 			request.setParameters(input.getParameters());
 
-			return new ExecuteSqlAction().execute(request, dataSourceService);
+			return dataSourceService.runForPlan(rootPlanId,
+					() -> new ExecuteSqlAction().execute(request, dataSourceService));
 		}
 		catch (Exception e) {
 			log.error("ExecuteReadSqlTool execution failed", e);
@@ -100,7 +100,8 @@ public class GetDatasourceInfoTool extends AbstractBaseTool<GetDatasourceInfoToo
 			request.setAction("get_datasource_info");
 			request.setDatasourceName(input.getDatasourceName());
 
-			return new GetDatasourceInfoAction(objectMapper).execute(request, dataSourceService);
+			return dataSourceService.runForPlan(rootPlanId,
+					() -> new GetDatasourceInfoAction(objectMapper).execute(request, dataSourceService));
 		}
 		catch (Exception e) {
 			log.error("GetDatasourceInfoTool execution failed", e);
@@ -24,6 +24,7 @@ import com.alibaba.cloud.ai.lynxe.tool.AbstractBaseTool;
 import com.alibaba.cloud.ai.lynxe.tool.ToolStateInfo;
 import com.alibaba.cloud.ai.lynxe.tool.code.ToolExecuteResult;
 import com.alibaba.cloud.ai.lynxe.tool.database.action.GetTableMetaAction;
+import com.alibaba.cloud.ai.lynxe.tool.database.meta.SchemaMetadataCache;
 import com.alibaba.cloud.ai.lynxe.tool.database.service.DataSourceService;
 import com.alibaba.cloud.ai.lynxe.tool.i18n.ToolI18nService;
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -44,6 +45,10 @@ public class GetTableMetaTool extends AbstractBaseTool<GetTableMetaTool.GetTable
 
 		private String datasourceName;
 
+		private String format;
+
+		private Integer limit;
+
 		// Getters and setters
 		public String getText() {
 			return text;
@@ -61,17 +66,36 @@ public class GetTableMetaTool extends AbstractBaseTool<GetTableMetaTool.GetTable
 			this.datasourceName = datasourceName;
 		}
 
+		public String getFormat() {
+			return format;
+		}
+
+		public void setFormat(String format) {
+			this.format = format;
+		}
+
+		public Integer getLimit() {
+			return limit;
+		}
+
+		public void setLimit(Integer limit) {
+			this.limit = limit;
+		}
+
 	}
 
 	private final DataSourceService dataSourceService;
 
+	private final SchemaMetadataCache schemaMetadataCache;
+
 	private final ObjectMapper objectMapper;
 
 	private final ToolI18nService toolI18nService;
 
 	public GetTableMetaTool(LynxeProperties lynxeProperties, DataSourceService dataSourceService,
-			ObjectMapper objectMapper, ToolI18nService toolI18nService) {
+			SchemaMetadataCache schemaMetadataCache, ObjectMapper objectMapper, ToolI18nService toolI18nService) {
 		this.dataSourceService = dataSourceService;
+		this.schemaMetadataCache = schemaMetadataCache;
 		this.objectMapper = objectMapper;
 		this.toolI18nService = toolI18nService;
 	}
@@ -111,18 +135,12 @@ public class GetTableMetaTool extends AbstractBaseTool<GetTableMetaTool.GetTable
 			request.setText(input.getText());
 			request.setDatasourceName(input.getDatasourceName());
 
-			// First search with text, if not found then search all
-			GetTableMetaAction metaAction = new GetTableMetaAction(objectMapper);
-			ToolExecuteResult result = metaAction.execute(request, dataSourceService);
-			if (result == null || result.getOutput() == null || result.getOutput().trim().isEmpty()
-					|| result.getOutput().equals("[]") || result.getOutput().contains("No matching tables found")) {
-				DatabaseRequest allReq = new DatabaseRequest();
-				allReq.setAction("get_table_meta");
-				allReq.setText(null);
-				allReq.setDatasourceName(input.getDatasourceName());
-				result = metaAction.execute(allReq, dataSourceService);
-			}
-			return result;
+			// A search without matches lists at most limit tables instead of all of them
+			boolean compact = "compact".equalsIgnoreCase(input.getFormat());
+			int limit = input.getLimit() != null && input.getLimit() > 0 ? input.getLimit()
+					: GetTableMetaAction.DEFAULT_SEARCH_LIMIT;
+			GetTableMetaAction metaAction = new GetTableMetaAction(objectMapper, schemaMetadataCache, compact, limit);
+			return dataSourceService.runForPlan(rootPlanId, () -> metaAction.execute(request, dataSourceService));
 		}
 		catch (Exception e) {
 			log.error("GetTableMetaTool execution failed", e);
@@ -147,9 +165,9 @@ public class GetTableMetaTool extends AbstractBaseTool<GetTableMetaTool.GetTable
 		return new ToolStateInfo(null, "");
 	}
 
-	public static GetTableMetaTool getInstance(DataSourceService dataSourceService, ObjectMapper objectMapper,
-			ToolI18nService toolI18nService) {
-		return new GetTableMetaTool(null, dataSourceService, objectMapper, toolI18nService);
+	public static GetTableMetaTool getInstance(DataSourceService dataSourceService,
+			SchemaMetadataCache schemaMetadataCache, ObjectMapper objectMapper, ToolI18nService toolI18nService) {
+		return new GetTableMetaTool(null, dataSourceService, schemaMetadataCache, objectMapper, toolI18nService);
 	}
 
 }
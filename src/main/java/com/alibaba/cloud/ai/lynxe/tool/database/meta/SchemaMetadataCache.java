@@ -0,0 +1,699 @@
+/*
+ * Copyright 2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.lynxe.tool.database.meta;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.alibaba.cloud.ai.lynxe.tool.database.service.DataSourceService;
+import com.alibaba.cloud.ai.lynxe.tool.database.sql.DatabaseSqlGenerator;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Table, column and index metadata of each datasource, loaded once and served from
+ * memory. A datasource is loaded in the background when it is registered; afterwards its
+ * metadata is reloaded in the background once older than the TTL, while the previous
+ * snapshot keeps being served. {@link #invalidate} makes lookups wait for metadata loaded
+ * after the invalidation, e.g. after DDL was executed.
+ *
+ * Each reload is compared with the previous snapshot; the snapshot version only increases
+ * when tables were added, removed or changed. Cached {@link TableMeta} instances are
+ * shared and must not be modified.
+ */
+@Component
+public class SchemaMetadataCache implements DataSourceService.DataSourceListener {
+
+	private static final Logger log = LoggerFactory.getLogger(SchemaMetadataCache.class);
+
+	// Table names bound per column/index query, below common parameter limits
+	private static final int IN_CLAUSE_BATCH = 500;
+
+	private final DataSourceService dataSourceService;
+
+	private final long ttlMs;
+
+	private final boolean warmOnRegistration;
+
+	private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+	private final ExecutorService loadExecutor = Executors.newFixedThreadPool(2, r -> {
+		Thread thread = new Thread(r, "schema-metadata-loader");
+		thread.setDaemon(true);
+		return thread;
+	});
+
+	private final AtomicLong hits = new AtomicLong();
+
+	private final AtomicLong loads = new AtomicLong();
+
+	private final AtomicLong loadFailures = new AtomicLong();
+
+	/**
+	 * Immutable metadata of one datasource
+	 */
+	public static class SchemaSnapshot {
+
+		private final List<TableMeta> tables;
+
+		private final Map<String, TableMeta> tablesByName;
+
+		private final long version;
+
+		private final long generation;
+
+		private final List<String> changedTables;
+
+		private final long loadedAt;
+
+		private final long loadMillis;
+
+		SchemaSnapshot(List<TableMeta> tables, long version, long generation, List<String> changedTables,
+				long loadMillis) {
+			this.tables = Collections.unmodifiableList(tables);
+			Map<String, TableMeta> byName = new HashMap<>();
+			for (TableMeta table : tables) {
+				byName.putIfAbsent(table.getTableName().toLowerCase(Locale.ROOT), table);
+			}
+			this.tablesByName = byName;
+			this.version = version;
+			this.generation = generation;
+			this.changedTables = Collections.unmodifiableList(changedTables);
+			this.loadedAt = System.currentTimeMillis();
+			this.loadMillis = loadMillis;
+		}
+
+		public List<TableMeta> getTables() {
+			return tables;
+		}
+
+		/**
+		 * @param tableName Table name, case-insensitive
+		 * @return Table, or null if not in the snapshot
+		 */
+		public TableMeta getTable(String tableName) {
+			return tableName == null ? null : tablesByName.get(tableName.toLowerCase(Locale.ROOT));
+		}
+
+		/**
+		 * @return Version increased by every reload that found changed tables
+		 */
+		public long getVersion() {
+			return version;
+		}
+
+		/**
+		 * @return Tables added, removed or changed by the reload that produced this
+		 * version
+		 */
+		public List<String> getChangedTables() {
+			return changedTables;
+		}
+
+		public long getLoadedAt() {
+			return loadedAt;
+		}
+
+	}
+
+	/**
+	 * Snapshot of one datasource. Loads hold the entry's monitor, so concurrent lookups
+	 * wait for the running load instead of starting their own.
+	 */
+	private static class Entry {
+
+		private volatile SchemaSnapshot snapshot;
+
+		// Incremented by every invalidation; a snapshot loaded before the latest
+		// invalidation is stale
+		private final AtomicLong invalidations = new AtomicLong();
+
+		private final AtomicBoolean refreshScheduled = new AtomicBoolean();
+
+		boolean isStale() {
+			SchemaSnapshot current = snapshot;
+			return current == null || current.generation < invalidations.get();
+		}
+
+	}
+
+	/**
+	 * @param dataSourceService Datasources to read metadata from
+	 * @param ttlMinutes Age after which metadata is reloaded in the background
+	 * @param warmOnRegistration Whether metadata is loaded as soon as a datasource is
+	 * registered
+	 */
+	public SchemaMetadataCache(DataSourceService dataSourceService,
+			@Value("${lynxe.database.schema-cache.ttl-minutes:30}") long ttlMinutes,
+			@Value("${lynxe.database.schema-cache.warm-on-registration:true}") boolean warmOnRegistration) {
+		this.dataSourceService = dataSourceService;
+		this.ttlMs = TimeUnit.MINUTES.toMillis(ttlMinutes);
+		this.warmOnRegistration = warmOnRegistration;
+		dataSourceService.addDataSourceListener(this);
+	}
+
+	@Override
+	public void dataSourceChanged(String name, boolean removed) {
+		if (removed) {
+			entries.remove(name);
+			return;
+		}
+		Entry entry = entries.computeIfAbsent(name, key -> new Entry());
+		entry.invalidations.incrementAndGet();
+		if (warmOnRegistration) {
+			scheduleLoad(name, entry, false);
+		}
+	}
+
+	/**
+	 * Get the metadata of a datasource, waiting only if it was never loaded or was
+	 * invalidated
+	 * @param datasourceName Datasource name, or null/blank for the default datasource
+	 * @return Metadata snapshot
+	 * @throws SQLException If no such datasource exists or loading fails
+	 */
+	public SchemaSnapshot getSnapshot(String datasourceName) throws SQLException {
+		String name = resolveName(datasourceName);
+		Entry entry = entries.computeIfAbsent(name, key -> new Entry());
+		if (entry.isStale()) {
+			return load(name, entry, false);
+		}
+		SchemaSnapshot snapshot = entry.snapshot;
+		if (isExpired(snapshot)) {
+			scheduleLoad(name, entry, true);
+		}
+		hits.incrementAndGet();
+		return snapshot;
+	}
+
+	/**
+	 * Make the next lookup of a datasource wait for freshly loaded metadata
+	 * @param datasourceName Datasource name, null/blank for the default datasource
+	 */
+	public void invalidate(String datasourceName) {
+		String name;
+		try {
+			name = resolveName(datasourceName);
+		}
+		catch (SQLException e) {
+			return;
+		}
+		Entry entry = entries.get(name);
+		if (entry != null) {
+			entry.invalidations.incrementAndGet();
+			scheduleLoad(name, entry, false);
+		}
+	}
+
+	/**
+	 * Invalidate the metadata of all datasources
+	 */
+	public void invalidateAll() {
+		for (String name : entries.keySet()) {
+			invalidate(name);
+		}
+	}
+
+	/**
+	 * Find tables by fuzzy name. Exact, prefix and substring matches of the name rank
+	 * first, then matches ignoring underscores, comment matches, column name matches and
+	 * names within a small edit distance.
+	 * @param snapshot Metadata to search
+	 * @param text Search text
+	 * @param limit Maximum number of tables returned
+	 * @return Matching tables, best match first
+	 */
+	public static List<TableMeta> search(SchemaSnapshot snapshot, String text, int limit) {
+		String query = text.trim().toLowerCase(Locale.ROOT);
+		if (query.isEmpty()) {
+			return snapshot.tables.subList(0, Math.min(limit, snapshot.tables.size()));
+		}
+		String compactQuery = query.replace("_", "");
+		List<Map.Entry<TableMeta, Integer>> scored = new ArrayList<>();
+		for (TableMeta table : snapshot.tables) {
+			int score = score(table, query, compactQuery);
+			if (score > 0) {
+				scored.add(Map.entry(table, score));
+			}
+		}
+		scored.sort(Map.Entry.<TableMeta, Integer>comparingByValue()
+			.reversed()
+			.thenComparing(e -> e.getKey().getTableName().length())
+			.thenComparing(e -> e.getKey().getTableName()));
+		List<TableMeta> result = new ArrayList<>();
+		for (int i = 0; i < scored.size() && i < limit; i++) {
+			result.add(scored.get(i).getKey());
+		}
+		return result;
+	}
+
+	/**
+	 * Render tables in a compact text form, one block per table:
+	 *
+	 * <pre>
+	 * orders -- Customer orders
+	 *   id BIGINT NN PK, user_id BIGINT NN, status VARCHAR(20) "order status"
+	 *   indexes: idx_user(user_id)
+	 * </pre>
+	 * @param tables Tables to render
+	 * @return Text with one block per table
+	 */
+	public static String renderCompact(List<TableMeta> tables) {
+		StringBuilder sb = new StringBuilder();
+		for (TableMeta table : tables) {
+			renderCompact(table, sb);
+		}
+		return sb.toString();
+	}
+
+	/**
+	 * @return Snapshot state per datasource and lookup counters
+	 */
+	public Map<String, Object> getMetrics() {
+		Map<String, Object> datasources = new LinkedHashMap<>();
+		for (Map.Entry<String, Entry> e : entries.entrySet()) {
+			SchemaSnapshot snapshot = e.getValue().snapshot;
+			Map<String, Object> state = new LinkedHashMap<>();
+			state.put("loaded", snapshot != null);
+			state.put("stale", e.getValue().isStale());
+			if (snapshot != null) {
+				state.put("tables", snapshot.tables.size());
+				state.put("version", snapshot.version);
+				state.put("changedTables", snapshot.changedTables.size());
+				state.put("ageSeconds", (System.currentTimeMillis() - snapshot.loadedAt) / 1000);
+				state.put("loadMillis", snapshot.loadMillis);
+			}
+			datasources.put(e.getKey(), state);
+		}
+		Map<String, Object> metrics = new LinkedHashMap<>();
+		metrics.put("datasources", datasources);
+		metrics.put("hits", hits.get());
+		metrics.put("loads", loads.get());
+		metrics.put("loadFailures", loadFailures.get());
+		return metrics;
+	}
+
+	@PreDestroy
+	public void shutdown() {
+		loadExecutor.shutdownNow();
+	}
+
+	private String resolveName(String datasourceName) throws SQLException {
+		if (datasourceName != null && !datasourceName.trim().isEmpty()) {
+			if (!dataSourceService.hasDataSource(datasourceName)) {
+				throw new SQLException("DataSource '" + datasourceName + "' not found");
+			}
+			return datasourceName;
+		}
+		Set<String> names = dataSourceService.getDataSourceNames();
+		if (names.isEmpty()) {
+			throw new SQLException("No datasources available");
+		}
+		return names.iterator().next();
+	}
+
+	/**
+	 * Load a datasource in the background unless a load is already waiting
+	 * @param onlyIfExpired Whether to skip the load if the snapshot is neither stale nor
+	 * expired by then
+	 */
+	private void scheduleLoad(String name, Entry entry, boolean onlyIfExpired) {
+		if (!entry.refreshScheduled.compareAndSet(false, true)) {
+			return;
+		}
+		loadExecutor.execute(() -> {
+			entry.refreshScheduled.set(false);
+			try {
+				load(name, entry, onlyIfExpired);
+			}
+			catch (SQLException e) {
+				log.warn("Failed to load schema metadata of datasource '{}': {}", name, e.getMessage());
+			}
+		});
+	}
+
+	/**
+	 * Load a datasource unless a load finished while waiting for the entry made the
+	 * snapshot current again
+	 */
+	private SchemaSnapshot load(String name, Entry entry, boolean onlyIfExpired) throws SQLException {
+		long requested = entry.invalidations.get();
+		synchronized (entry) {
+			SchemaSnapshot current = entry.snapshot;
+			if (current != null && current.generation >= requested && (!onlyIfExpired || !isExpired(current))) {
+				return current;
+			}
+			try {
+				SchemaSnapshot snapshot = read(name, current, requested);
+				entry.snapshot = snapshot;
+				return snapshot;
+			}
+			catch (SQLException e) {
+				loadFailures.incrementAndGet();
+				throw e;
+			}
+		}
+	}
+
+	private boolean isExpired(SchemaSnapshot snapshot) {
+		return System.currentTimeMillis() - snapshot.loadedAt > ttlMs;
+	}
+
+	/**
+	 * Read all tables with their columns and indexes, and compare them with the previous
+	 * snapshot
+	 */
+	private SchemaSnapshot read(String name, SchemaSnapshot previous, long generation) throws SQLException {
+		long start = System.currentTimeMillis();
+		loads.incrementAndGet();
+		String databaseType = dataSourceService.getDataSourceType(name);
+		Map<String, TableMeta> tables = new LinkedHashMap<>();
+		// Loaded outside any plan, so the plan connection cap does not apply
+		try (Connection conn = dataSourceService.getConnection(name, null)) {
+			readTables(conn, databaseType, tables);
+			List<String> names = new ArrayList<>(tables.keySet());
+			for (int from = 0; from < names.size(); from += IN_CLAUSE_BATCH) {
+				List<String> batch = names.subList(from, Math.min(from + IN_CLAUSE_BATCH, names.size()));
+				readColumns(conn, databaseType, batch, tables);
+				readIndexes(conn, databaseType, batch, tables);
+			}
+		}
+		List<TableMeta> tableList = new ArrayList<>(tables.values());
+		List<String> changed = diff(previous, tableList);
+		long version = previous == null ? 1 : (changed.isEmpty() ? previous.version : previous.version + 1);
+		long loadMillis = System.currentTimeMillis() - start;
+		log.info("Loaded schema metadata of datasource '{}': {} tables in {} ms, version {}", name, tableList.size(),
+				loadMillis, version);
+		return new SchemaSnapshot(tableList, version, generation, changed, loadMillis);
+	}
+
+	private void readTables(Connection conn, String databaseType, Map<String, TableMeta> tables) throws SQLException {
+		String tableSql = DatabaseSqlGenerator.generateTableInfoSql(databaseType, false, null);
+		try (PreparedStatement ps = conn.prepareStatement(tableSql); ResultSet rs = ps.executeQuery()) {
+			while (rs.next()) {
+				String tableName = rs.getString("TABLE_NAME");
+				// Handle different column names for table comment across databases
+				String tableComment = null;
+				try {
+					tableComment = rs.getString("TABLE_COMMENT");
+				}
+				catch (SQLException e) {
+					// Fallback: try REMARKS for H2 and other databases
+					try {
+						tableComment = rs.getString("REMARKS");
+					}
+					catch (SQLException e2) {
+						log.debug("Could not read table comment for table: {}", tableName);
+					}
+				}
+				TableMeta tableMeta = new TableMeta();
+				tableMeta.setTableName(tableName);
+				tableMeta.setTableComment(tableComment);
+				tableMeta.setColumns(new ArrayList<>());
+				tableMeta.setIndexes(new ArrayList<>());
+				tables.put(tableName, tableMeta);
+			}
+		}
+	}
+
+	private void readColumns(Connection conn, String databaseType, List<String> batch, Map<String, TableMeta> tables)
+			throws SQLException {
+		String columnSql = DatabaseSqlGenerator.generateColumnInfoSql(databaseType, placeholders(batch.size()));
+		try (PreparedStatement ps = conn.prepareStatement(columnSql)) {
+			bind(ps, batch);
+			try (ResultSet rs = ps.executeQuery()) {
+				while (rs.next()) {
+					TableMeta tableMeta = tables.get(rs.getString("TABLE_NAME"));
+					if (tableMeta == null)
+						continue;
+					ColumnMeta columnMeta = new ColumnMeta();
+					columnMeta.setColumnName(rs.getString("COLUMN_NAME"));
+					columnMeta.setColumnType(rs.getString("COLUMN_TYPE"));
+					Object length = rs.getObject("CHARACTER_MAXIMUM_LENGTH");
+					columnMeta.setColumnLength(length == null ? null : length.toString());
+					columnMeta.setColumnComment(rs.getString("COLUMN_COMMENT"));
+					columnMeta.setDefaultValue(rs.getString("COLUMN_DEFAULT"));
+					columnMeta.setNotNull("NO".equals(rs.getString("IS_NULLABLE")));
+					columnMeta.setIndexes(new ArrayList<>());
+					tableMeta.getColumns().add(columnMeta);
+				}
+			}
+		}
+	}
+
+	private void readIndexes(Connection conn, String databaseType, List<String> batch, Map<String, TableMeta> tables)
+			throws SQLException {
+		String indexSql = DatabaseSqlGenerator.generateIndexInfoSql(databaseType, placeholders(batch.size()));
+		try (PreparedStatement ps = conn.prepareStatement(indexSql)) {
+			bind(ps, batch);
+			try (ResultSet rs = ps.executeQuery()) {
+				// Map<tableName, Map<indexName, IndexMeta>>
+				Map<String, Map<String, IndexMeta>> tableIndexMap = new HashMap<>();
+				while (rs.next()) {
+					String tableName = rs.getString("TABLE_NAME");
+					String indexName = rs.getString("INDEX_NAME");
+					String columnName = rs.getString("COLUMN_NAME");
+					TableMeta tableMeta = tables.get(tableName);
+					if (tableMeta == null)
+						continue;
+					// Group index by tableName+indexName
+					IndexMeta indexMeta = tableIndexMap.computeIfAbsent(tableName, key -> new HashMap<>())
+						.get(indexName);
+					if (indexMeta == null) {
+						indexMeta = new IndexMeta();
+						indexMeta.setIndexName(indexName);
+						indexMeta.setIndexType(rs.getString("INDEX_TYPE"));
+						indexMeta.setRefColumnNames(new ArrayList<>());
+						tableIndexMap.get(tableName).put(indexName, indexMeta);
+						tableMeta.getIndexes().add(indexMeta);
+					}
+					indexMeta.getRefColumnNames().add(columnName);
+					for (ColumnMeta column : tableMeta.getColumns()) {
+						if (column.getColumnName().equals(columnName)) {
+							column.getIndexes().add(indexMeta);
+							break;
+						}
+					}
+				}
+			}
+		}
+	}
+
+	private static String placeholders(int count) {
+		return String.join(",", Collections.nCopies(count, "?"));
+	}
+
+	private static void bind(PreparedStatement ps, List<String> values) throws SQLException {
+		for (int i = 0; i < values.size(); i++) {
+			ps.setString(i + 1, values.get(i));
+		}
+	}
+
+	/**
+	 * Names of tables added, removed or changed compared with the previous snapshot
+	 */
+	private static List<String> diff(SchemaSnapshot previous, List<TableMeta> tables) {
+		if (previous == null) {
+			return List.of();
+		}
+		Set<String> changed = new LinkedHashSet<>();
+		Set<String> current = new HashSet<>();
+		for (TableMeta table : tables) {
+			current.add(table.getTableName());
+			TableMeta old = previous.getTable(table.getTableName());
+			if (old == null || !sameDefinition(old, table)) {
+				changed.add(table.getTableName());
+			}
+		}
+		for (TableMeta old : previous.tables) {
+			if (!current.contains(old.getTableName())) {
+				changed.add(old.getTableName());
+			}
+		}
+		return new ArrayList<>(changed);
+	}
+
+	/**
+	 * Compare all metadata fields of two tables, including those the compact rendering
+	 * leaves out such as column defaults
+	 */
+	private static boolean sameDefinition(TableMeta a, TableMeta b) {
+		if (!Objects.equals(a.getTableComment(), b.getTableComment()) || a.getColumns().size() != b.getColumns().size()
+				|| a.getIndexes().size() != b.getIndexes().size()) {
+			return false;
+		}
+		for (int i = 0; i < a.getColumns().size(); i++) {
+			ColumnMeta x = a.getColumns().get(i);
+			ColumnMeta y = b.getColumns().get(i);
+			if (!Objects.equals(x.getColumnName(), y.getColumnName())
+					|| !Objects.equals(x.getColumnType(), y.getColumnType())
+					|| !Objects.equals(x.getColumnLength(), y.getColumnLength())
+					|| !Objects.equals(x.getDefaultValue(), y.getDefaultValue())
+					|| !Objects.equals(x.getNotNull(), y.getNotNull())
+					|| !Objects.equals(x.getColumnComment(), y.getColumnComment())) {
+				return false;
+			}
+		}
+		// Index rows are not returned in a guaranteed order
+		Map<String, IndexMeta> indexes = new HashMap<>();
+		for (IndexMeta index : a.getIndexes()) {
+			indexes.put(index.getIndexName(), index);
+		}
+		for (IndexMeta y : b.getIndexes()) {
+			IndexMeta x = indexes.get(y.getIndexName());
+			if (x == null || !Objects.equals(x.getIndexType(), y.getIndexType())
+					|| !Objects.equals(x.getRefColumnNames(), y.getRefColumnNames())) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static int score(TableMeta table, String query, String compactQuery) {
+		String name = table.getTableName().toLowerCase(Locale.ROOT);
+		if (name.equals(query)) {
+			return 100;
+		}
+		if (name.startsWith(query)) {
+			return 80;
+		}
+		if (name.contains(query)) {
+			return 60;
+		}
+		if (!compactQuery.isEmpty() && name.replace("_", "").contains(compactQuery)) {
+			return 50;
+		}
+		String comment = table.getTableComment();
+		if (comment != null && comment.toLowerCase(Locale.ROOT).contains(query)) {
+			return 40;
+		}
+		for (ColumnMeta column : table.getColumns()) {
+			if (column.getColumnName() != null && column.getColumnName().equalsIgnoreCase(query)) {
+				return 30;
+			}
+		}
+		if (query.length() >= 4 && editDistance(name, query) <= query.length() / 4) {
+			return 20;
+		}
+		return 0;
+	}
+
+	/**
+	 * Levenshtein distance of two strings
+	 */
+	private static int editDistance(String a, String b) {
+		int[] previous = new int[b.length() + 1];
+		int[] current = new int[b.length() + 1];
+		for (int j = 0; j <= b.length(); j++) {
+			previous[j] = j;
+		}
+		for (int i = 1; i <= a.length(); i++) {
+			current[0] = i;
+			for (int j = 1; j <= b.length(); j++) {
+				int cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+				current[j] = Math.min(Math.min(current[j - 1] + 1, previous[j] + 1), previous[j - 1] + cost);
+			}
+			int[] swap = previous;
+			previous = current;
+			current = swap;
+		}
+		return previous[b.length()];
+	}
+
+	private static void renderCompact(TableMeta table, StringBuilder sb) {
+		sb.append(table.getTableName());
+		if (table.getTableComment() != null && !table.getTableComment().isBlank()) {
+			sb.append(" -- ").append(table.getTableComment().trim());
+		}
+		sb.append("\n  ");
+		Set<String> primaryKey = new HashSet<>();
+		List<IndexMeta> indexes = new ArrayList<>();
+		for (IndexMeta index : table.getIndexes()) {
+			if (isPrimary(index)) {
+				primaryKey.addAll(index.getRefColumnNames());
+			}
+			else {
+				indexes.add(index);
+			}
+		}
+		for (int i = 0; i < table.getColumns().size(); i++) {
+			ColumnMeta column = table.getColumns().get(i);
+			if (i > 0) {
+				sb.append(", ");
+			}
+			sb.append(column.getColumnName()).append(' ').append(column.getColumnType());
+			if (column.getColumnLength() != null && column.getColumnType() != null
+					&& column.getColumnType().indexOf('(') < 0) {
+				sb.append('(').append(column.getColumnLength()).append(')');
+			}
+			if (Boolean.TRUE.equals(column.getNotNull())) {
+				sb.append(" NN");
+			}
+			if (primaryKey.contains(column.getColumnName())) {
+				sb.append(" PK");
+			}
+			if (column.getColumnComment() != null && !column.getColumnComment().isBlank()) {
+				sb.append(" \"").append(column.getColumnComment().trim()).append('"');
+			}
+		}
+		sb.append('\n');
+		if (!indexes.isEmpty()) {
+			indexes.sort(Comparator.comparing(IndexMeta::getIndexName));
+			sb.append("  indexes: ");
+			for (int i = 0; i < indexes.size(); i++) {
+				IndexMeta index = indexes.get(i);
+				if (i > 0) {
+					sb.append(", ");
+				}
+				sb.append(index.getIndexName())
+					.append('(')
+					.append(String.join(",", index.getRefColumnNames()))
+					.append(')');
+			}
+			sb.append('\n');
+		}
+	}
+
+	private static boolean isPrimary(IndexMeta index) {
+		return "PRIMARY".equalsIgnoreCase(index.getIndexType()) || "PRIMARY".equalsIgnoreCase(index.getIndexName());
+	}
+
+}
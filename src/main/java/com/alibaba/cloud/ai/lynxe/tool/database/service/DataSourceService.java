@@ -16,27 +16,147 @@
 
 package com.alibaba.cloud.ai.lynxe.tool.database.service;
 
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
 import java.sql.Connection;
 import java.sql.SQLException;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
 
 import javax.sql.DataSource;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.jdbc.datasource.DriverManagerDataSource;
 import org.springframework.stereotype.Service;
 
+import com.google.common.cache.CacheBuilder;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Connection pools of the datasources used by the database tools. Each datasource gets
+ * its own pool, so tool calls reuse physical connections instead of opening one per call.
+ * Connections taken while running for a plan (see {@link #runForPlan}) are capped per
+ * plan and datasource, so one plan cannot take a whole pool.
+ *
+ * Replacing a datasource swaps the pool atomically: new calls use the new pool while the
+ * old one is closed once its borrowed connections are returned.
+ */
 @Service
 public class DataSourceService {
 
 	private static final Logger log = LoggerFactory.getLogger(DataSourceService.class);
 
-	private final Map<String, DataSource> dataSourceMap = new ConcurrentHashMap<>();
+	private static final ThreadLocal<String> CURRENT_PLAN = new ThreadLocal<>();
+
+	private static final long RETIRE_CHECK_SECONDS = 1;
+
+	private final Map<String, HikariDataSource> dataSourceMap = new ConcurrentHashMap<>();
 
 	private final Map<String, String> dataSourceTypeMap = new ConcurrentHashMap<>();
 
+	// Permits of a plan on a datasource; weak values drop a semaphore once no borrowed
+	// connection refers to it, i.e. when all its permits are back
+	private final ConcurrentMap<String, Semaphore> planPermits = CacheBuilder.newBuilder()
+		.weakValues()
+		.<String, Semaphore>build()
+		.asMap();
+
+	private final ScheduledExecutorService retireExecutor = Executors.newSingleThreadScheduledExecutor(r -> {
+		Thread thread = new Thread(r, "datasource-pool-retire");
+		thread.setDaemon(true);
+		return thread;
+	});
+
+	private final int maximumPoolSize;
+
+	private final int minimumIdle;
+
+	private final long connectionTimeoutMs;
+
+	private final long idleTimeoutMs;
+
+	private final long maxLifetimeMs;
+
+	private final long leakDetectionThresholdMs;
+
+	private final int statementCacheSize;
+
+	private final int maxConnectionsPerPlan;
+
+	private final AtomicLong planWaits = new AtomicLong();
+
+	private final AtomicLong planTimeouts = new AtomicLong();
+
+	private final AtomicLong replacedPools = new AtomicLong();
+
+	private final AtomicLong retiringPools = new AtomicLong();
+
+	private final List<DataSourceListener> listeners = new CopyOnWriteArrayList<>();
+
+	/**
+	 * Notified after a data source was added, replaced or removed
+	 */
+	public interface DataSourceListener {
+
+		/**
+		 * @param name Data source name
+		 * @param removed Whether the data source was removed rather than added or
+		 * replaced
+		 */
+		void dataSourceChanged(String name, boolean removed);
+
+	}
+
+	/**
+	 * @param maximumPoolSize Maximum connections per datasource
+	 * @param minimumIdle Idle connections kept open per datasource
+	 * @param connectionTimeoutMs Maximum wait for a connection, also for the per-plan cap
+	 * @param idleTimeoutMs Time after which idle connections above minimumIdle are closed
+	 * @param maxLifetimeMs Maximum lifetime of a connection
+	 * @param leakDetectionThresholdMs Time a connection may be borrowed before a leak is
+	 * logged, 0 to disable
+	 * @param statementCacheSize Prepared statements cached per connection by drivers that
+	 * support it (MySQL, MariaDB, PostgreSQL), 0 to disable
+	 * @param maxConnectionsPerPlan Maximum connections a plan holds at once per
+	 * datasource, 0 for no cap
+	 */
+	@Autowired
+	public DataSourceService(@Value("${lynxe.database.pool.maximum-pool-size:10}") int maximumPoolSize,
+			@Value("${lynxe.database.pool.minimum-idle:0}") int minimumIdle,
+			@Value("${lynxe.database.pool.connection-timeout-ms:30000}") long connectionTimeoutMs,
+			@Value("${lynxe.database.pool.idle-timeout-ms:600000}") long idleTimeoutMs,
+			@Value("${lynxe.database.pool.max-lifetime-ms:1800000}") long maxLifetimeMs,
+			@Value("${lynxe.database.pool.leak-detection-threshold-ms:60000}") long leakDetectionThresholdMs,
+			@Value("${lynxe.database.pool.statement-cache-size:250}") int statementCacheSize,
+			@Value("${lynxe.database.pool.max-connections-per-plan:4}") int maxConnectionsPerPlan) {
+		this.maximumPoolSize = maximumPoolSize;
+		this.minimumIdle = minimumIdle;
+		this.connectionTimeoutMs = connectionTimeoutMs;
+		this.idleTimeoutMs = idleTimeoutMs;
+		this.maxLifetimeMs = maxLifetimeMs;
+		this.leakDetectionThresholdMs = leakDetectionThresholdMs;
+		this.statementCacheSize = statementCacheSize;
+		this.maxConnectionsPerPlan = maxConnectionsPerPlan;
+	}
+
 	/**
 	 * Add data source
 	 */
@@ -45,27 +165,86 @@ public class DataSourceService {
 	}
 
 	/**
-	 * Add data source (with type information)
+	 * Add data source (with type information). An existing data source with the same name
+	 * is replaced.
 	 */
 	public void addDataSource(String name, String url, String username, String password, String driverClassName,
 			String type) {
 		try {
-			DriverManagerDataSource dataSource = new DriverManagerDataSource();
-			dataSource.setUrl(url);
-			dataSource.setUsername(username);
-			dataSource.setPassword(password);
-			dataSource.setDriverClassName(driverClassName);
-			dataSourceMap.put(name, dataSource);
+			HikariDataSource dataSource = new HikariDataSource(
+					createPoolConfig(name, url, username, password, driverClassName));
+			HikariDataSource previous = dataSourceMap.put(name, dataSource);
 			if (type != null) {
 				dataSourceTypeMap.put(name, type);
 			}
+			if (previous != null) {
+				replacedPools.incrementAndGet();
+				retire(name, previous);
+			}
 			log.info("Added datasource '{}' with url: {} and type: {}", name, url, type);
+			notifyListeners(name, false);
 		}
 		catch (Exception e) {
 			log.error("Failed to add datasource '{}'", name, e);
 		}
 	}
 
+	/**
+	 * Remove a data source; its pool is closed once borrowed connections are returned
+	 * @param name Data source name
+	 */
+	public void removeDataSource(String name) {
+		HikariDataSource previous = dataSourceMap.remove(name);
+		dataSourceTypeMap.remove(name);
+		if (previous != null) {
+			retire(name, previous);
+			log.info("Removed datasource '{}'", name);
+			notifyListeners(name, true);
+		}
+	}
+
+	/**
+	 * Register a listener for data source changes
+	 * @param listener Listener called on the thread that changed the data source
+	 */
+	public void addDataSourceListener(DataSourceListener listener) {
+		listeners.add(listener);
+	}
+
+	private void notifyListeners(String name, boolean removed) {
+		for (DataSourceListener listener : listeners) {
+			try {
+				listener.dataSourceChanged(name, removed);
+			}
+			catch (Exception e) {
+				log.warn("Data source listener failed for '{}'", name, e);
+			}
+		}
+	}
+
+	/**
+	 * Run database work on behalf of a plan. Connections taken by the work count against
+	 * the plan's cap on each datasource.
+	 * @param planId Plan the work belongs to, or null for no cap
+	 * @param work Work using this service
+	 * @return Result of the work
+	 */
+	public <T> T runForPlan(String planId, Supplier<T> work) {
+		String previous = CURRENT_PLAN.get();
+		CURRENT_PLAN.set(planId);
+		try {
+			return work.get();
+		}
+		finally {
+			if (previous == null) {
+				CURRENT_PLAN.remove();
+			}
+			else {
+				CURRENT_PLAN.set(previous);
+			}
+		}
+	}
+
 	/**
 	 * Get default data source connection (use first available data source)
 	 */
@@ -80,14 +259,34 @@ public class DataSourceService {
 	}
 
 	/**
-	 * Get connection by name
+	 * Get connection by name. The connection is borrowed from the pool and returned when
+	 * closed.
 	 */
 	public Connection getConnection(String datasourceName) throws SQLException {
+		return getConnection(datasourceName, CURRENT_PLAN.get());
+	}
+
+	/**
+	 * Get connection by name on behalf of a plan, within the plan's cap
+	 * @param datasourceName Data source name, or null/blank for the default data source
+	 * @param planId Plan the connection is used for, or null for no cap
+	 */
+	public Connection getConnection(String datasourceName, String planId) throws SQLException {
+		if (datasourceName == null || datasourceName.trim().isEmpty()) {
+			java.util.Set<String> names = getDataSourceNames();
+			if (names.isEmpty()) {
+				throw new SQLException("No datasources available");
+			}
+			datasourceName = names.iterator().next();
+		}
 		DataSource dataSource = getDataSource(datasourceName);
 		if (dataSource == null) {
 			throw new SQLException("DataSource '" + datasourceName + "' not found");
 		}
-		return dataSource.getConnection();
+		if (planId == null || maxConnectionsPerPlan <= 0) {
+			return dataSource.getConnection();
+		}
+		return getPlanConnection(datasourceName, dataSource, planId);
 	}
 
 	/**
@@ -163,20 +362,57 @@ public class DataSourceService {
 	}
 
 	/**
-	 * Close resources if needed (no-op for DriverManagerDataSource)
+	 * Close all connection pools
 	 */
+	@PreDestroy
 	public void close() {
-		log.info("Closing DataSourceService resources (no-op)");
+		log.info("Closing {} datasource pools", dataSourceMap.size());
+		retireExecutor.shutdownNow();
+		for (HikariDataSource dataSource : dataSourceMap.values()) {
+			dataSource.close();
+		}
+		dataSourceMap.clear();
 	}
 
 	/**
-	 * Close all data source connections
+	 * Close idle connections of all pools; borrowed connections are closed when returned
 	 */
 	public void closeAllConnections() {
 		log.info("Closing all datasource connections");
-		// DriverManagerDataSource automatically manages connections, mainly for logging
-		// here
-		// If need to force close connection pool, can add logic here
+		for (HikariDataSource dataSource : dataSourceMap.values()) {
+			HikariPoolMXBean pool = dataSource.getHikariPoolMXBean();
+			if (pool != null) {
+				pool.softEvictConnections();
+			}
+		}
+	}
+
+	/**
+	 * @return Connection counts of each pool and per-plan cap counters
+	 */
+	public Map<String, Object> getPoolMetrics() {
+		Map<String, Object> pools = new LinkedHashMap<>();
+		for (Map.Entry<String, HikariDataSource> entry : dataSourceMap.entrySet()) {
+			HikariPoolMXBean pool = entry.getValue().getHikariPoolMXBean();
+			if (pool == null) {
+				continue;
+			}
+			Map<String, Object> poolMetrics = new LinkedHashMap<>();
+			poolMetrics.put("active", pool.getActiveConnections());
+			poolMetrics.put("idle", pool.getIdleConnections());
+			poolMetrics.put("total", pool.getTotalConnections());
+			poolMetrics.put("awaiting", pool.getThreadsAwaitingConnection());
+			poolMetrics.put("maximumPoolSize", entry.getValue().getMaximumPoolSize());
+			pools.put(entry.getKey(), poolMetrics);
+		}
+		Map<String, Object> metrics = new LinkedHashMap<>();
+		metrics.put("pools", pools);
+		metrics.put("maxConnectionsPerPlan", maxConnectionsPerPlan);
+		metrics.put("planWaits", planWaits.get());
+		metrics.put("planTimeouts", planTimeouts.get());
+		metrics.put("replacedPools", replacedPools.get());
+		metrics.put("retiringPools", retiringPools.get());
+		return metrics;
 	}
 
 	/**
@@ -211,4 +447,125 @@ public class DataSourceService {
 		return false;
 	}
 
+	private HikariConfig createPoolConfig(String name, String url, String username, String password,
+			String driverClassName) {
+		HikariConfig config = new HikariConfig();
+		config.setPoolName("lynxe-datasource-" + name);
+		config.setJdbcUrl(url);
+		config.setUsername(username);
+		config.setPassword(password);
+		if (driverClassName != null && !driverClassName.isBlank()) {
+			config.setDriverClassName(driverClassName);
+		}
+		config.setMaximumPoolSize(maximumPoolSize);
+		config.setMinimumIdle(Math.min(minimumIdle, maximumPoolSize));
+		config.setConnectionTimeout(connectionTimeoutMs);
+		config.setIdleTimeout(idleTimeoutMs);
+		config.setMaxLifetime(maxLifetimeMs);
+		config.setLeakDetectionThreshold(leakDetectionThresholdMs);
+		// Like the previous unpooled datasource, an unreachable database must not fail
+		// registration; connection errors surface on first use
+		config.setInitializationFailTimeout(-1);
+		if (statementCacheSize > 0 && url != null) {
+			if (url.startsWith("jdbc:mysql:") || url.startsWith("jdbc:mariadb:")) {
+				config.addDataSourceProperty("cachePrepStmts", "true");
+				config.addDataSourceProperty("prepStmtCacheSize", String.valueOf(statementCacheSize));
+				config.addDataSourceProperty("prepStmtCacheSqlLimit", "2048");
+			}
+			else if (url.startsWith("jdbc:postgresql:")) {
+				config.addDataSourceProperty("preparedStatementCacheQueries", String.valueOf(statementCacheSize));
+			}
+		}
+		return config;
+	}
+
+	/**
+	 * Borrow a connection within the plan's cap; the permit is returned when the
+	 * connection is closed
+	 */
+	private Connection getPlanConnection(String datasourceName, DataSource dataSource, String planId)
+			throws SQLException {
+		Semaphore permits = planPermits.computeIfAbsent(datasourceName + "|" + planId,
+				key -> new Semaphore(maxConnectionsPerPlan));
+		if (!permits.tryAcquire()) {
+			planWaits.incrementAndGet();
+			try {
+				if (!permits.tryAcquire(connectionTimeoutMs, TimeUnit.MILLISECONDS)) {
+					planTimeouts.incrementAndGet();
+					throw new SQLException("Plan '" + planId + "' already holds " + maxConnectionsPerPlan
+							+ " connections to datasource '" + datasourceName + "'");
+				}
+			}
+			catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new SQLException("Interrupted while waiting for a connection to '" + datasourceName + "'", e);
+			}
+		}
+		try {
+			return releaseOnClose(dataSource.getConnection(), permits);
+		}
+		catch (SQLException | RuntimeException e) {
+			permits.release();
+			throw e;
+		}
+	}
+
+	private static Connection releaseOnClose(Connection connection, Semaphore permits) {
+		AtomicBoolean released = new AtomicBoolean();
+		return (Connection) Proxy.newProxyInstance(DataSourceService.class.getClassLoader(),
+				new Class<?>[] { Connection.class }, (proxy, method, args) -> {
+					if ("close".equals(method.getName()) && method.getParameterCount() == 0) {
+						try {
+							connection.close();
+						}
+						finally {
+							if (released.compareAndSet(false, true)) {
+								permits.release();
+							}
+						}
+						return null;
+					}
+					try {
+						return method.invoke(connection, args);
+					}
+					catch (InvocationTargetException e) {
+						throw e.getCause();
+					}
+				});
+	}
+
+	/**
+	 * Stop handing out connections of a replaced pool and close it once all borrowed
+	 * connections are returned, or after the maximum connection lifetime
+	 */
+	private void retire(String name, HikariDataSource dataSource) {
+		HikariPoolMXBean pool = dataSource.getHikariPoolMXBean();
+		if (pool != null) {
+			pool.softEvictConnections();
+		}
+		retiringPools.incrementAndGet();
+		long deadline = System.currentTimeMillis() + maxLifetimeMs;
+		Runnable closeWhenIdle = new Runnable() {
+			@Override
+			public void run() {
+				if (pool == null || pool.getActiveConnections() == 0 || System.currentTimeMillis() > deadline) {
+					dataSource.close();
+					retiringPools.decrementAndGet();
+					log.info("Closed replaced pool of datasource '{}'", name);
+				}
+				else {
+					retireExecutor.schedule(this, RETIRE_CHECK_SECONDS, TimeUnit.SECONDS);
+				}
+			}
+		};
+		try {
+			retireExecutor.execute(closeWhenIdle);
+		}
+		catch (Exception e) {
+			// Executor already shut down
+			dataSource.close();
+			retiringPools.decrementAndGet();
+		}
+	}
+
 }
@@ -17,6 +17,7 @@ package com.alibaba.cloud.ai.lynxe.tool.database.service;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.stream.Collectors;
 
@@ -27,6 +28,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.alibaba.cloud.ai.lynxe.tool.database.meta.SchemaMetadataCache;
 import com.alibaba.cloud.ai.lynxe.tool.database.model.po.DatasourceConfigEntity;
 import com.alibaba.cloud.ai.lynxe.tool.database.model.vo.DatasourceConfigVO;
 import com.alibaba.cloud.ai.lynxe.tool.database.repository.DatasourceConfigRepository;
@@ -43,10 +45,14 @@ public class DatasourceConfigService {
 
 	private final DataSourceService dataSourceService;
 
+	private final SchemaMetadataCache schemaMetadataCache;
+
 	public DatasourceConfigService(DatasourceConfigRepository repository,
-			@Autowired(required = false) DataSourceService dataSourceService) {
+			@Autowired(required = false) DataSourceService dataSourceService,
+			@Autowired(required = false) SchemaMetadataCache schemaMetadataCache) {
 		this.repository = repository;
 		this.dataSourceService = dataSourceService;
+		this.schemaMetadataCache = schemaMetadataCache;
 	}
 
 	/**
@@ -58,8 +64,7 @@ public class DatasourceConfigService {
 		}
 
 		try {
-			// Remove existing datasource if it exists
-			// Note: DataSourceService doesn't have remove method, so we'll add/update it
+			// Adding replaces the pool of an existing datasource with the same name
 			String datasourceName = entity.getName();
 			Boolean enable = entity.getEnable();
 
@@ -79,6 +84,9 @@ public class DatasourceConfigService {
 					logger.warn("Cannot refresh datasource '{}': incomplete configuration", datasourceName);
 				}
 			}
+			else {
+				dataSourceService.removeDataSource(datasourceName);
+			}
 		}
 		catch (Exception e) {
 			logger.error("Failed to refresh datasource '{}'", entity.getName(), e);
@@ -154,6 +162,7 @@ public class DatasourceConfigService {
 		}
 
 		DatasourceConfigEntity entity = entityOpt.get();
+		String previousName = entity.getName();
 		// Check if name is being changed and if new name already exists
 		if (!entity.getName().equals(vo.getName()) && repository.existsByName(vo.getName())) {
 			throw new IllegalArgumentException(
@@ -178,6 +187,9 @@ public class DatasourceConfigService {
 		logger.info("Updated datasource configuration with ID: {}", id);
 
 		// Refresh datasource in DataSourceService
+		if (dataSourceService != null && !previousName.equals(entity.getName())) {
+			dataSourceService.removeDataSource(previousName);
+		}
 		refreshDatasource(entity);
 
 		return mapToVO(entity);
@@ -189,13 +201,53 @@ public class DatasourceConfigService {
 	@Transactional
 	public void deleteConfig(Long id) {
 		logger.info("Deleting datasource configuration with ID: {}", id);
-		if (!repository.existsById(id)) {
+		Optional<DatasourceConfigEntity> entityOpt = repository.findById(id);
+		if (entityOpt.isEmpty()) {
 			throw new IllegalArgumentException("Datasource configuration with ID '" + id + "' not found");
 		}
 		repository.deleteById(id);
+		if (dataSourceService != null) {
+			dataSourceService.removeDataSource(entityOpt.get().getName());
+		}
 		logger.info("Deleted datasource configuration with ID: {}", id);
 	}
 
+	/**
+	 * Get connection pool metrics of the registered datasources
+	 */
+	public Map<String, Object> getPoolMetrics() {
+		if (dataSourceService == null) {
+			return Map.of();
+		}
+		return dataSourceService.getPoolMetrics();
+	}
+
+	/**
+	 * Reload the cached table metadata of a datasource on next use
+	 * @param name Datasource name, or null for all datasources
+	 */
+	public void invalidateSchemaCache(String name) {
+		if (schemaMetadataCache == null) {
+			return;
+		}
+		if (name == null || name.isBlank()) {
+			schemaMetadataCache.invalidateAll();
+		}
+		else {
+			schemaMetadataCache.invalidate(name);
+		}
+	}
+
+	/**
+	 * Get state of the cached table metadata per datasource
+	 */
+	public Map<String, Object> getSchemaCacheMetrics() {
+		if (schemaMetadataCache == null) {
+			return Map.of();
+		}
+		return schemaMetadataCache.getMetrics();
+	}
+
 	/**
 	 * Check if datasource configuration exists by name
 	 */
@@ -228,11 +228,11 @@ public class DatabaseSqlGenerator {
 	private static String generateH2TableInfoSql(boolean fuzzy, String fuzzyText) {
 		if (fuzzy) {
 			return "SELECT table_name as TABLE_NAME, remarks as TABLE_COMMENT " + "FROM information_schema.tables "
-					+ "WHERE table_type = 'BASE TABLE' AND table_name LIKE ?";
+					+ "WHERE table_type = 'BASE TABLE' AND table_schema <> 'INFORMATION_SCHEMA' AND table_name LIKE ?";
 		}
 		else {
 			return "SELECT table_name as TABLE_NAME, remarks as TABLE_COMMENT " + "FROM information_schema.tables "
-					+ "WHERE table_type = 'BASE TABLE'";
+					+ "WHERE table_type = 'BASE TABLE' AND table_schema <> 'INFORMATION_SCHEMA'";
 		}
 	}
 
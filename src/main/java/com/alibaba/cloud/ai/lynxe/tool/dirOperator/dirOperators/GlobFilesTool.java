@@ -17,22 +17,16 @@ package com.alibaba.cloud.ai.lynxe.tool.dirOperator.dirOperators;
 
 import java.io.IOException;
 import java.nio.file.FileSystem;
-import java.nio.file.FileSystemLoopException;
 import java.nio.file.FileSystems;
-import java.nio.file.FileVisitOption;
-import java.nio.file.FileVisitResult;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.PathMatcher;
-import java.nio.file.SimpleFileVisitor;
 import java.nio.file.attribute.BasicFileAttributes;
-import java.nio.file.attribute.FileTime;
 import java.util.ArrayList;
 import java.util.Comparator;
-import java.util.EnumSet;
-import java.util.HashSet;
+import java.util.HashMap;
 import java.util.List;
-import java.util.Set;
+import java.util.Map;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -41,9 +35,10 @@ import com.alibaba.cloud.ai.lynxe.config.LynxeProperties;
 import com.alibaba.cloud.ai.lynxe.tool.AbstractBaseTool;
 import com.alibaba.cloud.ai.lynxe.tool.ToolStateInfo;
 import com.alibaba.cloud.ai.lynxe.tool.code.ToolExecuteResult;
-import com.alibaba.cloud.ai.lynxe.tool.filesystem.GitIgnoreMatcher;
 import com.alibaba.cloud.ai.lynxe.tool.filesystem.SymbolicLinkDetector;
 import com.alibaba.cloud.ai.lynxe.tool.filesystem.UnifiedDirectoryManager;
+import com.alibaba.cloud.ai.lynxe.tool.filesystem.WorkspaceFileIndex;
+import com.alibaba.cloud.ai.lynxe.tool.filesystem.WorkspaceFileIndexService;
 import com.alibaba.cloud.ai.lynxe.tool.i18n.ToolI18nService;
 import com.fasterxml.jackson.annotation.JsonProperty;
 
@@ -57,16 +52,6 @@ public class GlobFilesTool extends AbstractBaseTool<GlobFilesTool.GlobFilesInput
 
 	private static final String TOOL_NAME = "glob-files";
 
-	/**
-	 * Maximum depth for directory traversal to prevent excessive recursion
-	 */
-	private static final int MAX_DEPTH = 100;
-
-	/**
-	 * Maximum path length to prevent path explosion issues
-	 */
-	private static final int MAX_PATH_LENGTH = 1000;
-
 	/**
 	 * Input class for glob files operations
 	 */
@@ -101,17 +86,18 @@ public class GlobFilesTool extends AbstractBaseTool<GlobFilesTool.GlobFilesInput
 
 	private final ToolI18nService toolI18nService;
 
-	private final GitIgnoreMatcher gitIgnoreMatcher;
+	private final WorkspaceFileIndexService workspaceFileIndexService;
 
 	private final LynxeProperties lynxeProperties;
 
 	public GlobFilesTool(UnifiedDirectoryManager unifiedDirectoryManager, SymbolicLinkDetector symlinkDetector,
-			ToolI18nService toolI18nService, GitIgnoreMatcher gitIgnoreMatcher, LynxeProperties lynxeProperties) {
+			ToolI18nService toolI18nService, WorkspaceFileIndexService workspaceFileIndexService,
+			LynxeProperties lynxeProperties) {
 		this.unifiedDirectoryManager = unifiedDirectoryManager;
 		// Note: symlinkDetector parameter kept for backward compatibility but not used
 		// This tool now explicitly skips symbolic links (like grep/ripgrep)
 		this.toolI18nService = toolI18nService;
-		this.gitIgnoreMatcher = gitIgnoreMatcher;
+		this.workspaceFileIndexService = workspaceFileIndexService;
 		this.lynxeProperties = lynxeProperties;
 	}
 
@@ -291,215 +277,42 @@ public class GlobFilesTool extends AbstractBaseTool<GlobFilesTool.GlobFilesInput
 				wildcardPattern = null;
 			}
 
-			// Find all matching files - NOT following symbolic links (like grep/ripgrep)
-			// This avoids infinite loops from circular symlinks
-			List<Path> matchingFiles = new ArrayList<>();
-			Path rootPath = searchRoot;
-
 			// Get real path of root for relativization (handles symlink root case)
-			final Path rootRealPath = getRealPathOrFallback(rootPath);
+			final Path rootRealPath = getRealPathOrFallback(searchRoot);
 
-			// Track visited real paths to prevent circular references when following the
-			// root symlink
-			Set<Path> visitedRealPaths = new HashSet<>();
-
-			// Initialize GitIgnoreMatcher if respectGitIgnore is enabled
+			// Ignore rules are applied by the file index when respectGitIgnore is enabled
 			boolean respectGitIgnore = lynxeProperties.getRespectGitIgnore() != null
 					&& lynxeProperties.getRespectGitIgnore();
 			Path ignoreRootPath = determineIgnoreRootPath(searchRoot);
-			gitIgnoreMatcher.initialize(ignoreRootPath, respectGitIgnore);
-
-			SimpleFileVisitor<Path> visitor = new SimpleFileVisitor<Path>() {
-				@Override
-				public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) throws IOException {
-					// Get real path for cycle detection and comparison
-					Path realPath;
-					try {
-						realPath = dir.toRealPath();
-					}
-					catch (IOException e) {
-						log.warn("Cannot resolve real path for directory: {}, skipping", dir);
-						return FileVisitResult.SKIP_SUBTREE;
-					}
-
-					// Check for cycles using real paths
-					if (visitedRealPaths.contains(realPath)) {
-						log.warn("Cycle detected: already visited {}, skipping", realPath);
-						return FileVisitResult.SKIP_SUBTREE;
-					}
-					visitedRealPaths.add(realPath);
-
-					// Allow the root directory even if it's a symlink (e.g.,
-					// linked_external)
-					// But skip other symlink directories to prevent circular references
-					if (Files.isSymbolicLink(dir)) {
-						// Check if this is the root (by comparing both original and real
-						// paths)
-						boolean isRoot = dir.equals(rootPath) || realPath.equals(rootRealPath);
-						if (!isRoot) {
-							return FileVisitResult.SKIP_SUBTREE;
-						}
-						// Root is a symlink - allow but track to prevent cycles
-					}
-
-					// Check path depth relative to root
-					try {
-						int depth = rootRealPath.relativize(dir.toRealPath()).getNameCount();
-						if (depth > MAX_DEPTH) {
-							log.warn("Path depth {} exceeds maximum ({}). Skipping directory: {}", depth, MAX_DEPTH,
-									dir);
-							return FileVisitResult.SKIP_SUBTREE;
-						}
-					}
-					catch (IOException | IllegalArgumentException e) {
-						log.warn("Cannot calculate depth for directory: {}, skipping", dir);
-						return FileVisitResult.SKIP_SUBTREE;
-					}
-
-					// Check path length to prevent path explosion
-					String pathString = dir.toString();
-					if (pathString.length() > MAX_PATH_LENGTH) {
-						log.warn("Path length {} exceeds maximum ({}). Skipping directory: {}", pathString.length(),
-								MAX_PATH_LENGTH, dir);
-						return FileVisitResult.SKIP_SUBTREE;
-					}
-
-					// Check if directory should be skipped based on ignore rules
-					if (respectGitIgnore && gitIgnoreMatcher.shouldSkipDirectory(dir)) {
-						return FileVisitResult.SKIP_SUBTREE;
-					}
-
-					return FileVisitResult.CONTINUE;
-				}
-
-				@Override
-				public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) throws IOException {
-					// Skip symbolic links (do not follow them, like grep/ripgrep)
-					if (Files.isSymbolicLink(file)) {
-						return FileVisitResult.CONTINUE;
-					}
-
-					// Check path length for files as well
-					String pathString = file.toString();
-					if (pathString.length() > MAX_PATH_LENGTH) {
-						log.warn("File path length {} exceeds maximum ({}). Skipping file: {}", pathString.length(),
-								MAX_PATH_LENGTH, file);
-						return FileVisitResult.CONTINUE;
-					}
-
-					// Skip if not a regular file
-					if (!Files.isRegularFile(file)) {
-						return FileVisitResult.CONTINUE;
-					}
-
-					// Check if file should be ignored based on ignore rules
-					if (respectGitIgnore && gitIgnoreMatcher.isIgnored(file)) {
-						return FileVisitResult.CONTINUE;
-					}
-
-					// Check if file matches the pattern
-					// Use real paths for relativization to handle symlink root case
-					try {
-						Path fileRealPath = file.toRealPath();
-						Path relativePath = rootRealPath.relativize(fileRealPath);
-						// Normalize path separators to forward slashes for consistent
-						// matching
-						String relativePathStr = relativePath.toString().replace('\\', '/');
-
-						// Java's PathMatcher works on Path objects
-						// Try matching with the relative path directly first
-						boolean matches = matcher.matches(relativePath);
-
-						// If that doesn't work, try with a Path created from normalized
-						// string
-						// This ensures consistent separator handling across platforms
-						if (!matches) {
-							Path normalizedRelativePath = fileSystem.getPath(relativePathStr);
-							matches = matcher.matches(normalizedRelativePath);
-						}
-
-						// Also try directory matcher if available (for patterns like
-						// **/*tools*)
-						if (!matches && directoryMatcher != null) {
-							matches = directoryMatcher.matches(relativePath);
-							if (!matches) {
-								Path normalizedRelativePath = fileSystem.getPath(relativePathStr);
-								matches = directoryMatcher.matches(normalizedRelativePath);
-							}
-						}
-
-						// Manual check: if pattern has wildcard (e.g., *tools*), check if
-						// any path component contains it
-						if (!matches && wildcardPattern != null) {
-							// Check each component of the path
-							for (Path component : relativePath) {
-								if (component.toString().contains(wildcardPattern)) {
-									matches = true;
-									break;
-								}
-							}
-						}
 
-						if (matches) {
-							matchingFiles.add(file);
-						}
-					}
-					catch (IOException | IllegalArgumentException e) {
-						log.warn("Cannot relativize file path: {}, skipping pattern matching", file);
-						// Still try to match using the original path as fallback
-						try {
-							Path relativePath = rootPath.relativize(file);
-							if (matcher.matches(relativePath)) {
-								matchingFiles.add(file);
-							}
-						}
-						catch (IllegalArgumentException e2) {
-							log.warn("Cannot relativize file path even with original root: {}, skipping", file);
-						}
-					}
-
-					return FileVisitResult.CONTINUE;
-				}
-
-				@Override
-				public FileVisitResult visitFileFailed(Path file, IOException exc) throws IOException {
-					// Handle circular symlinks by skipping the problematic directory
-					// (This should rarely happen now since we don't follow symlinks, but
-					// kept for safety)
-					if (exc instanceof FileSystemLoopException) {
-						log.warn("Circular symlink detected: {}. Skipping this directory and continuing.", file);
-						return FileVisitResult.SKIP_SUBTREE;
-					}
-
-					// Check if path is too long (might cause issues)
-					String pathString = file.toString();
-					if (pathString.length() > MAX_PATH_LENGTH) {
-						log.warn("Path too long ({} chars): {}. Skipping and continuing.", pathString.length(), file);
-						return FileVisitResult.SKIP_SUBTREE;
-					}
-
-					// For other IO errors, log and continue
-					log.warn("Error accessing file/directory: {}. Skipping and continuing.", file, exc);
-					return FileVisitResult.SKIP_SUBTREE;
+			// Files come from the workspace index, which applies the same rules as a
+			// tree walk (symbolic links below the root are not followed, ignored
+			// entries are skipped) and only lists directories changed since last call
+			List<WorkspaceFileIndex.IndexedFile> indexedFiles = workspaceFileIndexService.listFiles(rootRealPath,
+					ignoreRootPath, respectGitIgnore);
+			List<Path> matchingFiles = new ArrayList<>();
+			for (WorkspaceFileIndex.IndexedFile indexedFile : indexedFiles) {
+				Path relativePath = fileSystem.getPath(indexedFile.getRelativePath());
+				if (matchesGlob(fileSystem, matcher, directoryMatcher, wildcardPattern, relativePath)) {
+					matchingFiles.add(indexedFile.resolveAgainst(rootRealPath));
 				}
-			};
-
-			// Walk the directory tree with depth limit
-			// Follow links to allow root symlink (e.g., linked_external) but cycle
-			// detection
-			// prevents infinite loops from circular symlinks
-			Files.walkFileTree(searchRoot, EnumSet.of(FileVisitOption.FOLLOW_LINKS), MAX_DEPTH, visitor);
+			}
 
-			// Sort by modification time (most recently modified first)
-			matchingFiles.sort(Comparator.comparing((Path path) -> {
+			// Only matched files are stat'ed for sorting and display
+			Map<Path, BasicFileAttributes> attributesByFile = new HashMap<>();
+			for (Path path : matchingFiles) {
 				try {
-					FileTime lastModified = Files.getLastModifiedTime(path);
-					return lastModified.toInstant();
+					attributesByFile.put(path, Files.readAttributes(path, BasicFileAttributes.class));
 				}
 				catch (IOException e) {
 					log.warn("Error getting modification time for file: {}", path, e);
-					return java.time.Instant.EPOCH;
 				}
+			}
+
+			// Sort by modification time (most recently modified first)
+			matchingFiles.sort(Comparator.comparing((Path path) -> {
+				BasicFileAttributes attributes = attributesByFile.get(path);
+				return attributes != null ? attributes.lastModifiedTime().toInstant() : java.time.Instant.EPOCH;
 			}).reversed());
 
 			// Build result
@@ -516,41 +329,14 @@ public class GlobFilesTool extends AbstractBaseTool<GlobFilesTool.GlobFilesInput
 			else {
 				result.append(String.format("Found %d file(s):\n\n", matchingFiles.size()));
 				for (Path path : matchingFiles) {
-					try {
-						// Use real paths for relativization to handle symlink root case
-						Path relativePath;
-						try {
-							relativePath = rootRealPath.relativize(path.toRealPath());
-						}
-						catch (IOException | IllegalArgumentException e) {
-							// Fallback to original path if real path resolution fails
-							relativePath = rootPath.relativize(path);
-						}
-						String relativePathStr = relativePath.toString().replace('\\', '/');
-						long size = Files.size(path);
-						String sizeStr = formatFileSize(size);
-						FileTime lastModified = Files.getLastModifiedTime(path);
-						result.append(String.format("%s (%s, modified: %s)\n", relativePathStr, sizeStr,
-								lastModified.toString()));
+					String relativePathStr = rootRealPath.relativize(path).toString().replace('\\', '/');
+					BasicFileAttributes attributes = attributesByFile.get(path);
+					if (attributes != null) {
+						result.append(String.format("%s (%s, modified: %s)\n", relativePathStr,
+								formatFileSize(attributes.size()), attributes.lastModifiedTime().toString()));
 					}
-					catch (IOException e) {
-						log.warn("Error reading file info: {}", path, e);
-						// Try to get relative path for display even if file info read
-						// fails
-						try {
-							Path relativePath;
-							try {
-								relativePath = rootRealPath.relativize(path.toRealPath());
-							}
-							catch (IOException | IllegalArgumentException e2) {
-								relativePath = rootPath.relativize(path);
-							}
-							String relativePathStr = relativePath.toString().replace('\\', '/');
-							result.append(String.format("%s (error reading file info)\n", relativePathStr));
-						}
-						catch (IllegalArgumentException e2) {
-							result.append(String.format("%s (error reading file info)\n", path.getFileName()));
-						}
+					else {
+						result.append(String.format("%s (error reading file info)\n", relativePathStr));
 					}
 				}
 			}
@@ -563,6 +349,39 @@ public class GlobFilesTool extends AbstractBaseTool<GlobFilesTool.GlobFilesInput
 		}
 	}
 
+	/**
+	 * Check a path relative to the search base against the glob pattern. Patterns like
+	 * with a *word* wildcard also match files inside directories whose name contains it.
+	 */
+	private boolean matchesGlob(FileSystem fileSystem, PathMatcher matcher, PathMatcher directoryMatcher,
+			String wildcardPattern, Path relativePath) {
+		// Normalize path separators to forward slashes for consistent matching
+		String relativePathStr = relativePath.toString().replace('\\', '/');
+
+		// Java's PathMatcher works on Path objects
+		// Try matching with the relative path directly first
+		if (matcher.matches(relativePath) || matcher.matches(fileSystem.getPath(relativePathStr))) {
+			return true;
+		}
+
+		// Also try directory matcher if available (for patterns like **/*tools*)
+		if (directoryMatcher != null && (directoryMatcher.matches(relativePath)
+				|| directoryMatcher.matches(fileSystem.getPath(relativePathStr)))) {
+			return true;
+		}
+
+		// Manual check: if pattern has wildcard (e.g., *tools*), check if any path
+		// component contains it
+		if (wildcardPattern != null) {
+			for (Path component : relativePath) {
+				if (component.toString().contains(wildcardPattern)) {
+					return true;
+				}
+			}
+		}
+		return false;
+	}
+
 	/**
 	 * Normalize glob pattern by auto-prefixing with recursive pattern if needed. Patterns
 	 * are automatically prefixed for recursive search.
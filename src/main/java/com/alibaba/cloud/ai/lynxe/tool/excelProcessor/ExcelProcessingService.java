@@ -67,6 +67,8 @@ import com.alibaba.excel.context.AnalysisContext;
 import com.alibaba.excel.read.listener.PageReadListener;
 import com.alibaba.excel.read.listener.ReadListener;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 
 @Service
 public class ExcelProcessingService implements IExcelProcessingService {
@@ -83,6 +85,11 @@ public class ExcelProcessingService implements IExcelProcessingService {
 
 	private static final int SXSSF_WINDOW_SIZE = 1000; // Keep 1000 rows in memory
 
+	// Search cache limits, in cells
+	private static final long MAX_CACHED_SHEET_CELLS = 1_000_000;
+
+	private static final long MAX_CACHED_SEARCH_CELLS = 4_000_000;
+
 	private final UnifiedDirectoryManager unifiedDirectoryManager;
 
 	// Plan processing status tracking
@@ -97,6 +104,33 @@ public class ExcelProcessingService implements IExcelProcessingService {
 	// JSON mapper for export
 	private final ObjectMapper jsonMapper = new ObjectMapper();
 
+	// Columnar copies of searched sheets, keyed by plan, file and sheet
+	private final Cache<String, CachedSheet> searchCache = CacheBuilder.newBuilder()
+		.concurrencyLevel(1)
+		.maximumWeight(MAX_CACHED_SEARCH_CELLS)
+		.<String, CachedSheet>weigher((key, cached) -> (int) cached.sheet.cellCount() + 1)
+		.expireAfterAccess(30, TimeUnit.MINUTES)
+		.build();
+
+	/**
+	 * Sheet columns together with the file version they were read from
+	 */
+	private static class CachedSheet {
+
+		private final long lastModified;
+
+		private final long size;
+
+		private final StreamingSheetEngine.ColumnarSheet sheet;
+
+		CachedSheet(long lastModified, long size, StreamingSheetEngine.ColumnarSheet sheet) {
+			this.lastModified = lastModified;
+			this.size = size;
+			this.sheet = sheet;
+		}
+
+	}
+
 	public ExcelProcessingService(UnifiedDirectoryManager unifiedDirectoryManager) {
 		this.unifiedDirectoryManager = unifiedDirectoryManager;
 	}
@@ -415,6 +449,14 @@ public class ExcelProcessingService implements IExcelProcessingService {
 		log.info("Wrote {} rows to worksheet: {} in file: {}", data.size(), worksheetName, absolutePath);
 	}
 
+	@Override
+	public ExcelSheetWriter openSheetWriter(String planId, String filePath, String worksheetName, List<String> headers)
+			throws IOException {
+		Path absolutePath = validateFilePath(planId, filePath);
+		return new ExcelSheetWriter(absolutePath, worksheetName, headers, SXSSF_WINDOW_SIZE, this::setCellValue,
+				() -> updateFileState(planId, filePath, "large_data_written"));
+	}
+
 	private void writeLargeExcelDataWithHeaders(String planId, Path absolutePath, String worksheetName,
 			List<List<String>> data, List<String> headers, boolean appendMode) throws IOException {
 		// For large data, we need to handle existing workbooks differently
@@ -424,9 +466,18 @@ public class ExcelProcessingService implements IExcelProcessingService {
 		boolean fileExists = Files.exists(absolutePath);
 		Workbook existingWorkbook = null;
 		Map<String, Sheet> existingSheets = new HashMap<>();
-
-		// If file exists and we need to preserve other sheets, read them first
-		if (fileExists) {
+		List<String> streamedSheets = new ArrayList<>();
+
+		// If file exists and we need to preserve other sheets, read them first. Sheets of
+		// .xlsx files are streamed into the new workbook instead of being loaded
+		if (fileExists && isOfficeOpenXml(absolutePath)) {
+			for (String sheetName : StreamingSheetEngine.sheetNames(absolutePath)) {
+				if (!sheetName.equals(worksheetName)) {
+					streamedSheets.add(sheetName);
+				}
+			}
+		}
+		else if (fileExists) {
 			try (FileInputStream fis = new FileInputStream(absolutePath.toFile())) {
 				existingWorkbook = WorkbookFactory.create(fis);
 				// Store all sheets except the target one
@@ -442,6 +493,13 @@ public class ExcelProcessingService implements IExcelProcessingService {
 		// Use SXSSFWorkbook for memory-efficient writing
 		try (SXSSFWorkbook workbook = new SXSSFWorkbook(SXSSF_WINDOW_SIZE)) {
 			// Copy existing sheets to new workbook (except target sheet)
+			for (String sheetName : streamedSheets) {
+				Sheet newSheet = workbook.createSheet(sheetName);
+				StreamingSheetEngine.scan(absolutePath, sheetName, (rowIndex, cells) -> {
+					Row targetRow = newSheet.createRow(rowIndex);
+					cells.forEach((column, value) -> setCellValue(targetRow.createCell(column), value));
+				});
+			}
 			if (existingWorkbook != null) {
 				for (Map.Entry<String, Sheet> entry : existingSheets.entrySet()) {
 					Sheet newSheet = workbook.createSheet(entry.getKey());
@@ -1038,6 +1096,24 @@ public class ExcelProcessingService implements IExcelProcessingService {
 			throw new IOException("File does not exist: " + absolutePath);
 		}
 
+		if (isLargeOfficeOpenXml(absolutePath)) {
+			Map<Integer, Map<Integer, String>> rowUpdates = new HashMap<>();
+			for (Map.Entry<String, String> entry : updates.entrySet()) {
+				int[] coordinates = parseCellAddress(entry.getKey());
+				rowUpdates.computeIfAbsent(coordinates[0], k -> new HashMap<>()).put(coordinates[1], entry.getValue());
+			}
+			try {
+				StreamingSheetEngine.rewrite(absolutePath, worksheetName, rowUpdates, Set.of());
+				updateFileState(planId, filePath, "cells_updated");
+				log.info("Updated {} cells in worksheet: {} in file: {} (streaming)", updates.size(), worksheetName,
+						absolutePath);
+				return;
+			}
+			catch (StreamingSheetEngine.UnsupportedContentException e) {
+				log.info("Updating {} through the workbook model: {}", absolutePath, e.getMessage());
+			}
+		}
+
 		try (FileInputStream fis = new FileInputStream(absolutePath.toFile());
 				Workbook workbook = WorkbookFactory.create(fis)) {
 
@@ -1091,74 +1167,80 @@ public class ExcelProcessingService implements IExcelProcessingService {
 
 		List<Map<String, Object>> results = new ArrayList<>();
 
-		try (FileInputStream fis = new FileInputStream(absolutePath.toFile());
-				Workbook workbook = WorkbookFactory.create(fis)) {
+		if (isOfficeOpenXml(absolutePath)) {
+			results.addAll(searchOfficeOpenXml(planId, absolutePath, worksheetName, keywords, searchColumns));
+		}
+		else {
+			try (FileInputStream fis = new FileInputStream(absolutePath.toFile());
+					Workbook workbook = WorkbookFactory.create(fis)) {
 
-			Sheet sheet = workbook.getSheet(worksheetName);
-			if (sheet == null) {
-				throw new IOException("Worksheet not found: " + worksheetName);
-			}
+				Sheet sheet = workbook.getSheet(worksheetName);
+				if (sheet == null) {
+					throw new IOException("Worksheet not found: " + worksheetName);
+				}
 
-			// Get header row to map column names
-			Row headerRow = sheet.getRow(0);
-			if (headerRow == null) {
-				return results; // No data to search
-			}
+				// Get header row to map column names
+				Row headerRow = sheet.getRow(0);
+				if (headerRow == null) {
+					return results; // No data to search
+				}
 
-			List<String> headers = new ArrayList<>();
-			for (Cell cell : headerRow) {
-				headers.add(getCellValueAsString(cell));
-			}
+				List<String> headers = new ArrayList<>();
+				for (Cell cell : headerRow) {
+					headers.add(getCellValueAsString(cell));
+				}
 
-			// Determine which columns to search
-			Set<Integer> searchColumnIndices = new HashSet<>();
-			if (searchColumns == null || searchColumns.isEmpty()) {
-				// Search all columns
-				for (int i = 0; i < headers.size(); i++) {
-					searchColumnIndices.add(i);
+				// Determine which columns to search
+				Set<Integer> searchColumnIndices = new HashSet<>();
+				if (searchColumns == null || searchColumns.isEmpty()) {
+					// Search all columns
+					for (int i = 0; i < headers.size(); i++) {
+						searchColumnIndices.add(i);
+					}
 				}
-			}
-			else {
-				// Search specified columns
-				for (String columnName : searchColumns) {
-					int index = headers.indexOf(columnName);
-					if (index >= 0) {
-						searchColumnIndices.add(index);
+				else {
+					// Search specified columns
+					for (String columnName : searchColumns) {
+						int index = headers.indexOf(columnName);
+						if (index >= 0) {
+							searchColumnIndices.add(index);
+						}
 					}
 				}
-			}
-
-			// Search through data rows
-			for (int rowIndex = 1; rowIndex <= sheet.getLastRowNum(); rowIndex++) {
-				Row row = sheet.getRow(rowIndex);
-				if (row == null)
-					continue;
-
-				boolean matchFound = false;
-				Map<String, Object> rowData = new HashMap<>();
 
-				// Build row data map
-				for (int colIndex = 0; colIndex < headers.size(); colIndex++) {
-					Cell cell = row.getCell(colIndex);
-					String cellValue = getCellValueAsString(cell);
-					rowData.put(headers.get(colIndex), cellValue);
-
-					// Check if this cell matches any keyword (if it's a search column)
-					if (searchColumnIndices.contains(colIndex)) {
-						for (String keyword : keywords) {
-							if (cellValue.toLowerCase().contains(keyword.toLowerCase())) {
-								matchFound = true;
-								break;
+				// Search through data rows
+				for (int rowIndex = 1; rowIndex <= sheet.getLastRowNum(); rowIndex++) {
+					Row row = sheet.getRow(rowIndex);
+					if (row == null)
+						continue;
+
+					boolean matchFound = false;
+					Map<String, Object> rowData = new HashMap<>();
+
+					// Build row data map
+					for (int colIndex = 0; colIndex < headers.size(); colIndex++) {
+						Cell cell = row.getCell(colIndex);
+						String cellValue = getCellValueAsString(cell);
+						rowData.put(headers.get(colIndex), cellValue);
+
+						// Check if this cell matches any keyword (if it's a search
+						// column)
+						if (searchColumnIndices.contains(colIndex)) {
+							for (String keyword : keywords) {
+								if (cellValue.toLowerCase().contains(keyword.toLowerCase())) {
+									matchFound = true;
+									break;
+								}
 							}
 						}
+						if (matchFound)
+							break;
 					}
-					if (matchFound)
-						break;
-				}
 
-				if (matchFound) {
-					rowData.put("_rowIndex", rowIndex);
-					results.add(rowData);
+					if (matchFound) {
+						rowData.put("_rowIndex", rowIndex);
+						results.add(rowData);
+					}
 				}
 			}
 		}
@@ -1169,6 +1251,29 @@ public class ExcelProcessingService implements IExcelProcessingService {
 		return results;
 	}
 
+	/**
+	 * Search an .xlsx sheet through its cached columns, reading them on first use. Sheets
+	 * too large for the cache are searched row by row.
+	 */
+	private List<Map<String, Object>> searchOfficeOpenXml(String planId, Path absolutePath, String worksheetName,
+			List<String> keywords, List<String> searchColumns) throws IOException {
+		String cacheKey = planId + "|" + absolutePath + "|" + worksheetName;
+		long lastModified = Files.getLastModifiedTime(absolutePath).toMillis();
+		long size = Files.size(absolutePath);
+		CachedSheet cached = searchCache.getIfPresent(cacheKey);
+		if (cached == null || cached.lastModified != lastModified || cached.size != size) {
+			StreamingSheetEngine.ColumnarSheet sheet = StreamingSheetEngine.readColumns(absolutePath, worksheetName,
+					MAX_CACHED_SHEET_CELLS);
+			if (sheet == null) {
+				searchCache.invalidate(cacheKey);
+				return StreamingSheetEngine.search(absolutePath, worksheetName, keywords, searchColumns);
+			}
+			cached = new CachedSheet(lastModified, size, sheet);
+			searchCache.put(cacheKey, cached);
+		}
+		return cached.sheet.search(keywords, searchColumns);
+	}
+
 	@Override
 	public void deleteExcelRows(String planId, String filePath, String worksheetName, List<Integer> rowIndices)
 			throws IOException {
@@ -1182,6 +1287,20 @@ public class ExcelProcessingService implements IExcelProcessingService {
 			return; // Nothing to delete
 		}
 
+		if (isLargeOfficeOpenXml(absolutePath)) {
+			Set<Integer> deletedRows = rowIndices.stream().filter(index -> index >= 0).collect(Collectors.toSet());
+			try {
+				StreamingSheetEngine.rewrite(absolutePath, worksheetName, Map.of(), deletedRows);
+				updateFileState(planId, filePath, "rows_deleted");
+				log.info("Deleted {} rows from worksheet: {} in file: {} (streaming)", rowIndices.size(), worksheetName,
+						absolutePath);
+				return;
+			}
+			catch (StreamingSheetEngine.UnsupportedContentException e) {
+				log.info("Deleting rows of {} through the workbook model: {}", absolutePath, e.getMessage());
+			}
+		}
+
 		try (FileInputStream fis = new FileInputStream(absolutePath.toFile());
 				Workbook workbook = WorkbookFactory.create(fis)) {
 
@@ -1463,9 +1582,21 @@ public class ExcelProcessingService implements IExcelProcessingService {
 	public void cleanupPlanResources(String planId) {
 		planProcessingStatus.remove(planId);
 		planFileStates.remove(planId);
+		searchCache.asMap().keySet().removeIf(key -> key.startsWith(planId + "|"));
 		log.debug("Cleaned up resources for plan: {}", planId);
 	}
 
+	private boolean isOfficeOpenXml(Path absolutePath) {
+		return ".xlsx".equalsIgnoreCase(getFileExtension(absolutePath.toString()));
+	}
+
+	/**
+	 * Whether a file is rewritten by streaming its sheet instead of loading the workbook
+	 */
+	private boolean isLargeOfficeOpenXml(Path absolutePath) throws IOException {
+		return isOfficeOpenXml(absolutePath) && Files.size(absolutePath) >= LARGE_FILE_THRESHOLD;
+	}
+
 	private void updateFileState(String planId, String filePath, String state) {
 		planFileStates.computeIfAbsent(planId, k -> new ConcurrentHashMap<>())
 			.put(filePath, Map.of("state", state, "timestamp", System.currentTimeMillis()));
@@ -0,0 +1,149 @@
+/*
+ * Copyright 2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.lynxe.tool.excelProcessor;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+import java.util.function.BiConsumer;
+
+import org.apache.poi.ss.SpreadsheetVersion;
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.Font;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+
+/**
+ * Writes one worksheet of a new .xlsx file row by row. Rows are kept in memory only up to
+ * the SXSSF window and flushed to a temporary file, so the number of rows does not affect
+ * heap use. {@link #finish()} replaces the target file; closing without finishing
+ * discards what was written.
+ */
+public class ExcelSheetWriter implements Closeable {
+
+	/**
+	 * Data rows a sheet can hold below the header row
+	 */
+	public static final int MAX_DATA_ROWS = SpreadsheetVersion.EXCEL2007.getMaxRows() - 1;
+
+	private final Path target;
+
+	private final SXSSFWorkbook workbook;
+
+	private final Sheet sheet;
+
+	private final BiConsumer<Cell, String> cellWriter;
+
+	private final Runnable onFinish;
+
+	private int nextRow;
+
+	private long dataRows;
+
+	private boolean finished;
+
+	ExcelSheetWriter(Path target, String worksheetName, List<String> headers, int windowSize,
+			BiConsumer<Cell, String> cellWriter, Runnable onFinish) {
+		this.target = target;
+		this.workbook = new SXSSFWorkbook(windowSize);
+		this.sheet = workbook.createSheet(worksheetName);
+		this.cellWriter = cellWriter;
+		this.onFinish = onFinish;
+		if (headers != null && !headers.isEmpty()) {
+			CellStyle headerStyle = workbook.createCellStyle();
+			Font headerFont = workbook.createFont();
+			headerFont.setBold(true);
+			headerStyle.setFont(headerFont);
+			Row headerRow = sheet.createRow(nextRow++);
+			for (int i = 0; i < headers.size(); i++) {
+				Cell cell = headerRow.createCell(i);
+				cell.setCellValue(headers.get(i));
+				cell.setCellStyle(headerStyle);
+			}
+		}
+	}
+
+	/**
+	 * Append a data row
+	 * @param values Cell values; numbers and booleans are stored as such
+	 * @throws IOException If the sheet is full or rows cannot be flushed
+	 */
+	public void writeRow(List<String> values) throws IOException {
+		if (nextRow >= SpreadsheetVersion.EXCEL2007.getMaxRows()) {
+			throw new IOException("Worksheet row limit reached: " + SpreadsheetVersion.EXCEL2007.getMaxRows());
+		}
+		Row row = sheet.createRow(nextRow++);
+		for (int i = 0; i < values.size(); i++) {
+			cellWriter.accept(row.createCell(i), values.get(i));
+		}
+		dataRows++;
+	}
+
+	/**
+	 * @return Number of data rows written so far
+	 */
+	public long getDataRowCount() {
+		return dataRows;
+	}
+
+	/**
+	 * Write the workbook to a temporary file next to the target and move it in place
+	 * @throws IOException If writing or moving fails
+	 */
+	public void finish() throws IOException {
+		Path temp = Files.createTempFile(target.toAbsolutePath().getParent(), target.getFileName().toString(), ".tmp");
+		try {
+			try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(temp))) {
+				workbook.write(out);
+			}
+			try {
+				Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+			}
+			catch (AtomicMoveNotSupportedException e) {
+				Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+			}
+		}
+		finally {
+			Files.deleteIfExists(temp);
+		}
+		finished = true;
+		onFinish.run();
+	}
+
+	/**
+	 * Release the temporary row data
+	 */
+	@Override
+	public void close() throws IOException {
+		workbook.close();
+	}
+
+	/**
+	 * @return Whether {@link #finish()} completed
+	 */
+	public boolean isFinished() {
+		return finished;
+	}
+
+}
@@ -112,6 +112,19 @@ public interface IExcelProcessingService {
 	void writeExcelDataWithHeaders(String planId, String filePath, String worksheetName, List<List<String>> data,
 			List<String> headers, boolean appendMode) throws IOException;
 
+	/**
+	 * Open a writer that streams rows into a single worksheet of a new .xlsx file. The
+	 * file is replaced when the writer is finished.
+	 * @param planId plan identifier
+	 * @param filePath path to the Excel file
+	 * @param worksheetName name of the worksheet
+	 * @param headers optional headers written in bold as first row (null to skip)
+	 * @return writer to fill, finish and close
+	 * @throws IOException if the file path is invalid
+	 */
+	ExcelSheetWriter openSheetWriter(String planId, String filePath, String worksheetName, List<String> headers)
+			throws IOException;
+
 	/**
 	 * Update specific cells in a worksheet
 	 * @param planId plan identifier
@@ -0,0 +1,947 @@
+/*
+ * Copyright 2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.lynxe.tool.excelProcessor;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+import java.util.regex.Pattern;
+import java.util.zip.ZipOutputStream;
+
+import javax.xml.XMLConstants;
+import javax.xml.namespace.QName;
+import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.stream.XMLEventFactory;
+import javax.xml.stream.XMLEventReader;
+import javax.xml.stream.XMLEventWriter;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import javax.xml.stream.events.Attribute;
+import javax.xml.stream.events.StartElement;
+import javax.xml.stream.events.XMLEvent;
+
+import org.apache.poi.openxml4j.exceptions.OpenXML4JException;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackageAccess;
+import org.apache.poi.ss.usermodel.DateUtil;
+import org.apache.poi.ss.util.CellReference;
+import org.apache.poi.util.XMLHelper;
+import org.apache.poi.xssf.eventusermodel.ReadOnlySharedStringsTable;
+import org.apache.poi.xssf.eventusermodel.XSSFReader;
+import org.apache.poi.xssf.model.StylesTable;
+import org.apache.poi.xssf.usermodel.XSSFCellStyle;
+import org.xml.sax.Attributes;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+import org.xml.sax.XMLReader;
+import org.xml.sax.helpers.DefaultHandler;
+
+/**
+ * Reads and rewrites single sheets of .xlsx files without building the workbook in
+ * memory. Used by {@link ExcelProcessingService} for search and row-level changes.
+ *
+ * Reading parses the sheet XML with SAX and hands out one row at a time. Cell values are
+ * rendered the same way the service renders {@link org.apache.poi.ss.usermodel.Cell}s of
+ * a loaded workbook. Rewriting copies the package entry by entry and transforms only the
+ * sheet part with StAX: updated cells are written as inline strings, numbers or booleans
+ * keeping their style, and deleted rows are dropped with the following rows moved up.
+ * Sheets whose content would need references adjusted (formulas, merged cells, defined
+ * names, formulas on other sheets referring to the sheet and the like) are rejected with
+ * {@link UnsupportedContentException} so the caller can use the workbook model instead.
+ */
+final class StreamingSheetEngine {
+
+	/**
+	 * Sheet elements after sheetData that refer to rows; present ones prevent deleting
+	 * rows, since their references would have to be moved as well
+	 */
+	private static final Set<String> ROW_REFERENCING_ELEMENTS = Set.of("mergeCells", "conditionalFormatting",
+			"dataValidations", "hyperlinks", "autoFilter", "sortState", "drawing", "legacyDrawing", "tableParts",
+			"rowBreaks", "protectedRanges");
+
+	private static final int IO_BUFFER_SIZE = 64 * 1024;
+
+	/**
+	 * Reference to a range of sheets such as Sheet1:Sheet3!A1 or 'Sheet 1:Sheet 3'!A1,
+	 * which covers the sheets between the two named ones as well
+	 */
+	private static final Pattern SHEET_RANGE_REFERENCE = Pattern
+		.compile("[\\p{L}\\p{N}_.]+:[\\p{L}\\p{N}_.]+!|'(?:[^']|'')*:(?:[^']|'')*'!");
+
+	/**
+	 * Receives the rows of a sheet in document order
+	 */
+	interface RowHandler {
+
+		/**
+		 * @param rowIndex 0-based row index
+		 * @param cells Cell values by 0-based column index, in column order
+		 */
+		void row(int rowIndex, Map<Integer, String> cells);
+
+	}
+
+	/**
+	 * The sheet needs changes the streaming rewrite does not make
+	 */
+	static class UnsupportedContentException extends IOException {
+
+		UnsupportedContentException(String message) {
+			super(message);
+		}
+
+	}
+
+	/**
+	 * Data rows of a sheet stored by column, with the header row as column names
+	 */
+	static final class ColumnarSheet {
+
+		final List<String> headers;
+
+		/**
+		 * 0-based row index of each stored row
+		 */
+		final int[] rowIndices;
+
+		/**
+		 * Values by column, then by position in {@link #rowIndices}
+		 */
+		final String[][] columns;
+
+		ColumnarSheet(List<String> headers, int[] rowIndices, String[][] columns) {
+			this.headers = headers;
+			this.rowIndices = rowIndices;
+			this.columns = columns;
+		}
+
+		long cellCount() {
+			return (long) rowIndices.length * columns.length;
+		}
+
+		/**
+		 * Find rows where a searched column contains one of the keywords, ignoring case
+		 * @param keywords Keywords to look for
+		 * @param searchColumns Header names to search, or null/empty for all columns
+		 * @return Matching rows by header name, with "_rowIndex"
+		 */
+		List<Map<String, Object>> search(List<String> keywords, List<String> searchColumns) {
+			List<String> lowerKeywords = lowerCase(keywords);
+			List<Integer> searched = searchColumnIndices(headers, searchColumns);
+			List<Map<String, Object>> results = new ArrayList<>();
+			for (int position = 0; position < rowIndices.length; position++) {
+				boolean matchFound = false;
+				for (int column : searched) {
+					if (matches(columns[column][position], lowerKeywords)) {
+						matchFound = true;
+						break;
+					}
+				}
+				if (matchFound) {
+					Map<String, Object> rowData = new HashMap<>();
+					for (int column = 0; column < headers.size(); column++) {
+						rowData.put(headers.get(column), columns[column][position]);
+					}
+					rowData.put("_rowIndex", rowIndices[position]);
+					results.add(rowData);
+				}
+			}
+			return results;
+		}
+
+	}
+
+	/**
+	 * Stops a scan early
+	 */
+	private static class ScanLimitReached extends RuntimeException {
+
+		ScanLimitReached() {
+			super(null, null, false, false);
+		}
+
+	}
+
+	private StreamingSheetEngine() {
+	}
+
+	/**
+	 * @param file Workbook file
+	 * @return Sheet names in workbook order
+	 * @throws IOException If the file cannot be read
+	 */
+	static List<String> sheetNames(Path file) throws IOException {
+		try (OPCPackage pkg = OPCPackage.open(file.toFile(), PackageAccess.READ)) {
+			List<String> names = new ArrayList<>();
+			XSSFReader.SheetIterator sheets = new XSSFReader(pkg).getSheetIterator();
+			while (sheets.hasNext()) {
+				sheets.next().close();
+				names.add(sheets.getSheetName());
+			}
+			return names;
+		}
+		catch (OpenXML4JException e) {
+			throw new IOException("Failed to open workbook: " + file, e);
+		}
+	}
+
+	/**
+	 * Read all rows of a sheet, one at a time
+	 * @param file Workbook file
+	 * @param sheetName Sheet to read
+	 * @param handler Receives each row
+	 * @throws IOException If the file or sheet cannot be read
+	 */
+	static void scan(Path file, String sheetName, RowHandler handler) throws IOException {
+		try (OPCPackage pkg = OPCPackage.open(file.toFile(), PackageAccess.READ)) {
+			XSSFReader reader = new XSSFReader(pkg);
+			ReadOnlySharedStringsTable strings = new ReadOnlySharedStringsTable(pkg);
+			StylesTable styles = reader.getStylesTable();
+			XSSFReader.SheetIterator sheets = reader.getSheetIterator();
+			while (sheets.hasNext()) {
+				try (InputStream sheet = sheets.next()) {
+					if (sheets.getSheetName().equals(sheetName)) {
+						XMLReader parser = XMLHelper.newXMLReader();
+						parser.setContentHandler(new SheetHandler(strings, styles, handler));
+						parser.parse(new InputSource(sheet));
+						return;
+					}
+				}
+			}
+			throw new IOException("Worksheet not found: " + sheetName);
+		}
+		catch (OpenXML4JException | SAXException | ParserConfigurationException e) {
+			throw new IOException("Failed to read worksheet " + sheetName + " of " + file, e);
+		}
+	}
+
+	/**
+	 * Search a sheet row by row, keeping only the matching rows
+	 * @param file Workbook file
+	 * @param sheetName Sheet to search; its first row holds the column names
+	 * @param keywords Keywords to look for, ignoring case
+	 * @param searchColumns Header names to search, or null/empty for all columns
+	 * @return Matching rows by header name, with "_rowIndex"
+	 * @throws IOException If the file or sheet cannot be read
+	 */
+	static List<Map<String, Object>> search(Path file, String sheetName, List<String> keywords,
+			List<String> searchColumns) throws IOException {
+		List<String> lowerKeywords = lowerCase(keywords);
+		List<Map<String, Object>> results = new ArrayList<>();
+		List<String> headers = new ArrayList<>();
+		List<List<Integer>> searched = new ArrayList<>();
+		RowHandler matcher = (rowIndex, cells) -> {
+			if (searched.isEmpty()) {
+				// The first row is the header only if it is row 0
+				if (rowIndex != 0) {
+					throw new ScanLimitReached();
+				}
+				headers.addAll(cells.values());
+				searched.add(searchColumnIndices(headers, searchColumns));
+				return;
+			}
+			boolean matchFound = false;
+			for (int column : searched.get(0)) {
+				if (matches(cells.getOrDefault(column, ""), lowerKeywords)) {
+					matchFound = true;
+					break;
+				}
+			}
+			if (matchFound) {
+				Map<String, Object> rowData = new HashMap<>();
+				for (int column = 0; column < headers.size(); column++) {
+					rowData.put(headers.get(column), cells.getOrDefault(column, ""));
+				}
+				rowData.put("_rowIndex", rowIndex);
+				results.add(rowData);
+			}
+		};
+		try {
+			scan(file, sheetName, matcher);
+		}
+		catch (ScanLimitReached e) {
+			// No header row, nothing to search
+		}
+		return results;
+	}
+
+	/**
+	 * Read a sheet into columns, giving up once it has more cells than allowed
+	 * @param file Workbook file
+	 * @param sheetName Sheet to read; its first row holds the column names
+	 * @param maxCells Maximum number of data cells to keep
+	 * @return Sheet columns, or null if the sheet is larger than maxCells
+	 * @throws IOException If the file or sheet cannot be read
+	 */
+	static ColumnarSheet readColumns(Path file, String sheetName, long maxCells) throws IOException {
+		ColumnCollector collector = new ColumnCollector(maxCells);
+		try {
+			scan(file, sheetName, collector);
+		}
+		catch (ScanLimitReached e) {
+			if (collector.columns != null) {
+				return null;
+			}
+		}
+		return collector.toSheet();
+	}
+
+	/**
+	 * Collects data rows by column once the header row is known
+	 */
+	private static class ColumnCollector implements RowHandler {
+
+		private final long maxCells;
+
+		private final List<String> headers = new ArrayList<>();
+
+		private final List<Integer> rowIndices = new ArrayList<>();
+
+		private List<List<String>> columns;
+
+		ColumnCollector(long maxCells) {
+			this.maxCells = maxCells;
+		}
+
+		@Override
+		public void row(int rowIndex, Map<Integer, String> cells) {
+			if (columns == null) {
+				// The first row is the header only if it is row 0
+				if (rowIndex != 0) {
+					throw new ScanLimitReached();
+				}
+				headers.addAll(cells.values());
+				columns = new ArrayList<>();
+				for (int column = 0; column < headers.size(); column++) {
+					columns.add(new ArrayList<>());
+				}
+				return;
+			}
+			if ((long) (rowIndices.size() + 1) * headers.size() > maxCells) {
+				throw new ScanLimitReached();
+			}
+			rowIndices.add(rowIndex);
+			for (int column = 0; column < headers.size(); column++) {
+				columns.get(column).add(cells.getOrDefault(column, ""));
+			}
+		}
+
+		ColumnarSheet toSheet() {
+			if (columns == null) {
+				return new ColumnarSheet(List.of(), new int[0], new String[0][]);
+			}
+			String[][] values = new String[headers.size()][];
+			for (int column = 0; column < headers.size(); column++) {
+				values[column] = columns.get(column).toArray(new String[0]);
+				columns.set(column, null);
+			}
+			return new ColumnarSheet(List.copyOf(headers), rowIndices.stream().mapToInt(Integer::intValue).toArray(),
+					values);
+		}
+
+	}
+
+	/**
+	 * Rewrite one sheet of a workbook. Only the sheet part is transformed; all other
+	 * entries are copied unchanged. The file is replaced once the new one is complete.
+	 * @param file Workbook file
+	 * @param sheetName Sheet to change
+	 * @param updates New cell values by 0-based row, then 0-based column
+	 * @param deletedRows 0-based rows to delete; existing rows below move up
+	 * @throws UnsupportedContentException If the sheet cannot be changed this way; the
+	 * file is left unchanged
+	 * @throws IOException If the file cannot be read or written
+	 */
+	static void rewrite(Path file, String sheetName, Map<Integer, Map<Integer, String>> updates,
+			Set<Integer> deletedRows) throws IOException {
+		String sheetEntry = null;
+		boolean hasDefinedNames = false;
+		String referringSheet = null;
+		try (OPCPackage pkg = OPCPackage.open(file.toFile(), PackageAccess.READ)) {
+			XSSFReader reader = new XSSFReader(pkg);
+			XSSFReader.SheetIterator sheets = reader.getSheetIterator();
+			// Deleting rows needs every sheet: formulas on the others may refer to them
+			while (sheets.hasNext() && (sheetEntry == null || !deletedRows.isEmpty())) {
+				try (InputStream sheet = sheets.next()) {
+					if (sheets.getSheetName().equals(sheetName)) {
+						sheetEntry = sheets.getSheetPart().getPartName().getName().substring(1);
+					}
+					else if (!deletedRows.isEmpty() && referringSheet == null
+							&& hasFormulaReferringTo(sheet, sheetName)) {
+						referringSheet = sheets.getSheetName();
+					}
+				}
+			}
+			if (!deletedRows.isEmpty()) {
+				try (InputStream workbook = reader.getWorkbookData()) {
+					hasDefinedNames = new String(workbook.readAllBytes(), StandardCharsets.UTF_8)
+						.contains("definedName");
+				}
+			}
+		}
+		catch (OpenXML4JException e) {
+			throw new IOException("Failed to open workbook: " + file, e);
+		}
+		if (sheetEntry == null) {
+			throw new IOException("Worksheet not found: " + sheetName);
+		}
+		if (hasDefinedNames) {
+			throw new UnsupportedContentException("Workbook has defined names");
+		}
+		if (referringSheet != null) {
+			throw new UnsupportedContentException("Formulas on sheet " + referringSheet + " refer to " + sheetName);
+		}
+
+		Path target = Files.createTempFile(file.toAbsolutePath().getParent(), file.getFileName().toString(), ".tmp");
+		try {
+			try (ZipFile zip = new ZipFile(file.toFile());
+					OutputStream fileOut = Files.newOutputStream(target);
+					ZipOutputStream out = new ZipOutputStream(fileOut)) {
+				Enumeration<? extends ZipEntry> entries = zip.entries();
+				while (entries.hasMoreElements()) {
+					ZipEntry entry = entries.nextElement();
+					// Formulas elsewhere may refer to the deleted rows
+					if (!deletedRows.isEmpty() && entry.getName().endsWith("calcChain.xml")) {
+						throw new UnsupportedContentException("Workbook has formulas");
+					}
+					out.putNextEntry(new ZipEntry(entry.getName()));
+					try (InputStream in = zip.getInputStream(entry)) {
+						if (entry.getName().equals(sheetEntry)) {
+							// StAX writes small chunks; each would go to the deflater
+							BufferedOutputStream buffered = new BufferedOutputStream(out, IO_BUFFER_SIZE);
+							new SheetRewriter(updates, deletedRows).rewrite(new BufferedInputStream(in, IO_BUFFER_SIZE),
+									buffered);
+							buffered.flush();
+						}
+						else {
+							in.transferTo(out);
+						}
+					}
+					out.closeEntry();
+				}
+			}
+			Files.move(target, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		}
+		finally {
+			Files.deleteIfExists(target);
+		}
+	}
+
+	/**
+	 * Stream a sheet part looking for a formula that may refer to another sheet. Errs on
+	 * the side of a match: any mention of the sheet name before "!" counts, and so does
+	 * any reference to a range of sheets.
+	 * @param sheet Sheet part to scan
+	 * @param sheetName Name of the referred sheet
+	 * @return Whether a formula of the part may refer to the sheet
+	 * @throws IOException If the part cannot be parsed
+	 */
+	static boolean hasFormulaReferringTo(InputStream sheet, String sheetName) throws IOException {
+		String lowerName = sheetName.toLowerCase(Locale.ROOT);
+		// Names with special characters are quoted, with quotes doubled
+		String quotedName = lowerName.replace("'", "''") + "'!";
+		String unquotedName = lowerName + "!";
+		try {
+			XMLStreamReader reader = XMLHelper.newXMLInputFactory()
+				.createXMLStreamReader(new BufferedInputStream(sheet, IO_BUFFER_SIZE));
+			try {
+				while (reader.hasNext()) {
+					if (reader.next() == XMLStreamConstants.START_ELEMENT && "f".equals(reader.getLocalName())) {
+						String formula = reader.getElementText();
+						String lowerFormula = formula.toLowerCase(Locale.ROOT);
+						if (lowerFormula.contains(unquotedName) || lowerFormula.contains(quotedName)
+								|| SHEET_RANGE_REFERENCE.matcher(formula).find()) {
+							return true;
+						}
+					}
+				}
+				return false;
+			}
+			finally {
+				reader.close();
+			}
+		}
+		catch (XMLStreamException e) {
+			throw new IOException("Failed to scan formulas", e);
+		}
+	}
+
+	private static List<String> lowerCase(List<String> keywords) {
+		List<String> lower = new ArrayList<>(keywords.size());
+		for (String keyword : keywords) {
+			lower.add(keyword.toLowerCase());
+		}
+		return lower;
+	}
+
+	private static boolean matches(String value, List<String> lowerKeywords) {
+		String lowerValue = value.toLowerCase();
+		for (String keyword : lowerKeywords) {
+			if (lowerValue.contains(keyword)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private static List<Integer> searchColumnIndices(List<String> headers, List<String> searchColumns) {
+		List<Integer> indices = new ArrayList<>();
+		if (searchColumns == null || searchColumns.isEmpty()) {
+			for (int i = 0; i < headers.size(); i++) {
+				indices.add(i);
+			}
+		}
+		else {
+			for (String columnName : searchColumns) {
+				int index = headers.indexOf(columnName);
+				if (index >= 0 && !indices.contains(index)) {
+					indices.add(index);
+				}
+			}
+		}
+		return indices;
+	}
+
+	/**
+	 * SAX handler turning sheet XML into rows of rendered cell values
+	 */
+	private static class SheetHandler extends DefaultHandler {
+
+		private final ReadOnlySharedStringsTable strings;
+
+		private final StylesTable styles;
+
+		private final RowHandler handler;
+
+		private final Map<Integer, Boolean> dateStyles = new HashMap<>();
+
+		private final StringBuilder value = new StringBuilder();
+
+		private final StringBuilder formula = new StringBuilder();
+
+		private Map<Integer, String> cells;
+
+		private int rowIndex = -1;
+
+		private int column;
+
+		private int nextColumn;
+
+		private String type;
+
+		private int style;
+
+		private boolean hasFormula;
+
+		private boolean inValue;
+
+		private boolean inFormula;
+
+		private boolean inInlineString;
+
+		SheetHandler(ReadOnlySharedStringsTable strings, StylesTable styles, RowHandler handler) {
+			this.strings = strings;
+			this.styles = styles;
+			this.handler = handler;
+		}
+
+		@Override
+		public void startElement(String uri, String localName, String qName, Attributes attributes) {
+			switch (localName) {
+				case "row" -> {
+					String ref = attributes.getValue("r");
+					rowIndex = ref != null ? Integer.parseInt(ref) - 1 : rowIndex + 1;
+					cells = new LinkedHashMap<>();
+					nextColumn = 0;
+				}
+				case "c" -> {
+					String ref = attributes.getValue("r");
+					column = ref != null ? new CellReference(ref).getCol() : nextColumn;
+					type = attributes.getValue("t");
+					String styleRef = attributes.getValue("s");
+					style = styleRef != null ? Integer.parseInt(styleRef) : 0;
+					hasFormula = false;
+					value.setLength(0);
+					formula.setLength(0);
+				}
+				case "v" -> inValue = true;
+				case "f" -> {
+					inFormula = true;
+					hasFormula = true;
+				}
+				case "is" -> inInlineString = true;
+				default -> {
+				}
+			}
+		}
+
+		@Override
+		public void endElement(String uri, String localName, String qName) {
+			switch (localName) {
+				case "v" -> inValue = false;
+				case "f" -> inFormula = false;
+				case "is" -> inInlineString = false;
+				case "c" -> {
+					cells.put(column, cellValue());
+					nextColumn = column + 1;
+				}
+				case "row" -> handler.row(rowIndex, cells);
+				default -> {
+				}
+			}
+		}
+
+		@Override
+		public void characters(char[] ch, int start, int length) {
+			if (inValue || (inInlineString && !inFormula)) {
+				value.append(ch, start, length);
+			}
+			else if (inFormula) {
+				formula.append(ch, start, length);
+			}
+		}
+
+		/**
+		 * Same rendering as ExcelProcessingService#getCellValueAsString
+		 */
+		private String cellValue() {
+			String text = value.toString();
+			if (hasFormula) {
+				// Cached numeric result, else the formula itself
+				if (type == null || "n".equals(type)) {
+					try {
+						return String.valueOf(Double.parseDouble(text));
+					}
+					catch (NumberFormatException e) {
+						return formula.toString();
+					}
+				}
+				return formula.toString();
+			}
+			if (type == null || "n".equals(type)) {
+				if (text.isEmpty()) {
+					return "";
+				}
+				double number = Double.parseDouble(text);
+				if (isDateStyle(style) && DateUtil.isValidExcelDate(number)) {
+					return DateUtil.getJavaDate(number).toString();
+				}
+				return String.valueOf(number);
+			}
+			return switch (type) {
+				case "s" -> strings.getItemAt(Integer.parseInt(text)).getString();
+				case "b" -> String.valueOf("1".equals(text));
+				case "e" -> "";
+				default -> text;
+			};
+		}
+
+		private boolean isDateStyle(int styleIndex) {
+			return dateStyles.computeIfAbsent(styleIndex, index -> {
+				if (styles == null || index >= styles.getNumCellStyles()) {
+					return false;
+				}
+				XSSFCellStyle cellStyle = styles.getStyleAt(index);
+				return cellStyle != null
+						&& DateUtil.isADateFormat(cellStyle.getDataFormat(), cellStyle.getDataFormatString());
+			});
+		}
+
+	}
+
+	/**
+	 * StAX transformation of one sheet part
+	 */
+	private static class SheetRewriter {
+
+		private final XMLEventFactory events = XMLHelper.newXMLEventFactory();
+
+		private final TreeMap<Integer, TreeMap<Integer, String>> pendingRows = new TreeMap<>();
+
+		private final Set<Integer> deletedRows;
+
+		private XMLEventWriter writer;
+
+		private QName rowName;
+
+		/**
+		 * Number of rows removed so far; rows below move up by this
+		 */
+		private int removed;
+
+		private int lastRowIndex = -1;
+
+		SheetRewriter(Map<Integer, Map<Integer, String>> updates, Set<Integer> deletedRows) {
+			updates.forEach((row, cells) -> pendingRows.put(row, new TreeMap<>(cells)));
+			this.deletedRows = deletedRows;
+		}
+
+		void rewrite(InputStream in, OutputStream out) throws IOException {
+			try {
+				XMLEventReader reader = XMLHelper.newXMLInputFactory().createXMLEventReader(in);
+				writer = XMLHelper.newXMLOutputFactory().createXMLEventWriter(out, "UTF-8");
+				boolean inSheetData = false;
+				boolean afterSheetData = false;
+				while (reader.hasNext()) {
+					XMLEvent event = reader.nextEvent();
+					if (event.isStartElement()) {
+						StartElement start = event.asStartElement();
+						String name = start.getName().getLocalPart();
+						if (inSheetData && "row".equals(name)) {
+							rewriteRow(start, reader);
+							continue;
+						}
+						if ("sheetData".equals(name)) {
+							inSheetData = true;
+							rowName = new QName(start.getName().getNamespaceURI(), "row", start.getName().getPrefix());
+						}
+						else if (afterSheetData && !deletedRows.isEmpty() && ROW_REFERENCING_ELEMENTS.contains(name)) {
+							throw new UnsupportedContentException("Sheet has " + name);
+						}
+					}
+					else if (event.isEndElement() && inSheetData
+							&& "sheetData".equals(event.asEndElement().getName().getLocalPart())) {
+						writePendingRows(Integer.MAX_VALUE);
+						inSheetData = false;
+						afterSheetData = true;
+					}
+					writer.add(event);
+				}
+				writer.flush();
+				writer.close();
+			}
+			catch (XMLStreamException e) {
+				throw new IOException("Failed to rewrite sheet", e);
+			}
+		}
+
+		private void rewriteRow(StartElement start, XMLEventReader reader) throws XMLStreamException, IOException {
+			String ref = attribute(start, "r");
+			int rowIndex = ref != null ? Integer.parseInt(ref) - 1 : lastRowIndex + 1;
+			lastRowIndex = rowIndex;
+			writePendingRows(rowIndex);
+			if (deletedRows.contains(rowIndex)) {
+				pendingRows.remove(rowIndex);
+				skipElement(reader);
+				removed++;
+				return;
+			}
+			TreeMap<Integer, String> updates = pendingRows.remove(rowIndex);
+			int shift = removed;
+			if (updates == null && shift == 0) {
+				// Untouched row: copied as is; formulas are only safe while no row moves
+				writer.add(start);
+				copyContent(reader, !deletedRows.isEmpty());
+				return;
+			}
+			writer.add(withAttribute(start, "r", String.valueOf(rowIndex - shift + 1), "spans"));
+			int nextColumn = 0;
+			while (true) {
+				XMLEvent event = reader.nextEvent();
+				if (event.isEndElement()) {
+					if (updates != null) {
+						writeCells(rowIndex - shift, updates, Integer.MAX_VALUE);
+					}
+					writer.add(event);
+					return;
+				}
+				if (event.isStartElement() && "c".equals(event.asStartElement().getName().getLocalPart())) {
+					StartElement cell = event.asStartElement();
+					String cellRef = attribute(cell, "r");
+					int column = cellRef != null ? new CellReference(cellRef).getCol() : nextColumn;
+					nextColumn = column + 1;
+					if (updates != null) {
+						writeCells(rowIndex - shift, updates, column);
+						if (updates.containsKey(column)) {
+							String value = updates.remove(column);
+							// Replacing a formula would leave the calculation chain
+							// pointing at a plain value
+							skipElement(reader);
+							writeCell(rowIndex - shift, column, attribute(cell, "s"), value);
+							continue;
+						}
+					}
+					String newRef = new CellReference(rowIndex - shift, column).formatAsString(false);
+					writer.add(withAttribute(cell, "r", newRef, null));
+					copyContent(reader, !deletedRows.isEmpty());
+					continue;
+				}
+				if (event.isStartElement()) {
+					writer.add(event);
+					copyContent(reader, !deletedRows.isEmpty());
+					continue;
+				}
+				writer.add(event);
+			}
+		}
+
+		/**
+		 * Write rows that only exist as updates, up to (excluding) a row index
+		 */
+		private void writePendingRows(int limit) throws XMLStreamException {
+			while (!pendingRows.isEmpty() && pendingRows.firstKey() < limit) {
+				Map.Entry<Integer, TreeMap<Integer, String>> row = pendingRows.pollFirstEntry();
+				if (deletedRows.contains(row.getKey())) {
+					continue;
+				}
+				int newIndex = row.getKey() - removed;
+				List<Attribute> attributes = List.of(events.createAttribute("r", String.valueOf(newIndex + 1)));
+				writer.add(events.createStartElement(rowName, attributes.iterator(), null));
+				writeCells(newIndex, row.getValue(), Integer.MAX_VALUE);
+				writer.add(events.createEndElement(rowName, null));
+			}
+		}
+
+		/**
+		 * Write new cells of a row, up to (excluding) a column
+		 */
+		private void writeCells(int rowIndex, TreeMap<Integer, String> cells, int limit) throws XMLStreamException {
+			while (!cells.isEmpty() && cells.firstKey() < limit) {
+				Map.Entry<Integer, String> cell = cells.pollFirstEntry();
+				writeCell(rowIndex, cell.getKey(), null, cell.getValue());
+			}
+		}
+
+		/**
+		 * Write a cell the way ExcelProcessingService#setCellValue types its value
+		 */
+		private void writeCell(int rowIndex, int column, String style, String value) throws XMLStreamException {
+			String ns = rowName.getNamespaceURI();
+			String prefix = rowName.getPrefix();
+			List<Attribute> attributes = new ArrayList<>();
+			attributes.add(events.createAttribute("r", new CellReference(rowIndex, column).formatAsString(false)));
+			if (style != null) {
+				attributes.add(events.createAttribute("s", style));
+			}
+			String text = value != null ? value : "";
+			String number = null;
+			if (!text.isEmpty()) {
+				try {
+					double parsed = Double.parseDouble(text);
+					if (Double.isFinite(parsed)) {
+						number = String.valueOf(parsed);
+					}
+				}
+				catch (NumberFormatException e) {
+					// Not a number
+				}
+			}
+			if (number != null || "true".equalsIgnoreCase(text) || "false".equalsIgnoreCase(text)) {
+				if (number == null) {
+					attributes.add(events.createAttribute("t", "b"));
+					number = "true".equalsIgnoreCase(text) ? "1" : "0";
+				}
+				writer.add(events.createStartElement(prefix, ns, "c", attributes.iterator(), null));
+				writer.add(events.createStartElement(prefix, ns, "v"));
+				writer.add(events.createCharacters(number));
+				writer.add(events.createEndElement(prefix, ns, "v"));
+			}
+			else {
+				attributes.add(events.createAttribute("t", "inlineStr"));
+				writer.add(events.createStartElement(prefix, ns, "c", attributes.iterator(), null));
+				writer.add(events.createStartElement(prefix, ns, "is"));
+				Iterator<Attribute> space = List
+					.of(events.createAttribute(new QName(XMLConstants.XML_NS_URI, "space", "xml"), "preserve"))
+					.iterator();
+				writer.add(events.createStartElement(prefix, ns, "t", space, null));
+				writer.add(events.createCharacters(text));
+				writer.add(events.createEndElement(prefix, ns, "t"));
+				writer.add(events.createEndElement(prefix, ns, "is"));
+			}
+			writer.add(events.createEndElement(prefix, ns, "c"));
+		}
+
+		/**
+		 * Copy the rest of the current element, including its end tag
+		 */
+		private void copyContent(XMLEventReader reader, boolean rejectFormulas) throws XMLStreamException, IOException {
+			int depth = 1;
+			while (depth > 0) {
+				XMLEvent event = reader.nextEvent();
+				if (event.isStartElement()) {
+					if (rejectFormulas && "f".equals(event.asStartElement().getName().getLocalPart())) {
+						throw new UnsupportedContentException("Sheet has formulas");
+					}
+					depth++;
+				}
+				else if (event.isEndElement()) {
+					depth--;
+				}
+				writer.add(event);
+			}
+		}
+
+		/**
+		 * Skip the rest of the current element, including its end tag. Formulas are
+		 * rejected, as references to skipped content would break.
+		 */
+		private void skipElement(XMLEventReader reader) throws XMLStreamException, IOException {
+			int depth = 1;
+			while (depth > 0) {
+				XMLEvent event = reader.nextEvent();
+				if (event.isStartElement()) {
+					if ("f".equals(event.asStartElement().getName().getLocalPart())) {
+						throw new UnsupportedContentException("Sheet has formulas");
+					}
+					depth++;
+				}
+				else if (event.isEndElement()) {
+					depth--;
+				}
+			}
+		}
+
+		private StartElement withAttribute(StartElement start, String name, String value, String dropped) {
+			List<Attribute> attributes = new ArrayList<>();
+			Iterator<Attribute> existing = start.getAttributes();
+			while (existing.hasNext()) {
+				Attribute attribute = existing.next();
+				String localName = attribute.getName().getLocalPart();
+				if (!localName.equals(name) && !localName.equals(dropped)) {
+					attributes.add(attribute);
+				}
+			}
+			attributes.add(events.createAttribute(name, value));
+			return events.createStartElement(start.getName(), attributes.iterator(), start.getNamespaces());
+		}
+
+		private static String attribute(StartElement start, String name) {
+			Attribute attribute = start.getAttributeByName(new QName(name));
+			return attribute != null ? attribute.getValue() : null;
+		}
+
+	}
+
+}
@@ -0,0 +1,263 @@
+/*
+ * Copyright 2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.lynxe.tool.filesystem;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Sparse line-offset index of a UTF-8 text file.
+ *
+ * Built with a single streaming pass over the file. The byte offset of every
+ * {@value #CHECKPOINT_INTERVAL}th line is kept, so a window of lines can be read by
+ * seeking to the nearest checkpoint and decoding only from there, without loading the
+ * file into memory. Line splitting follows {@link BufferedReader#readLine()} ("\n", "\r"
+ * and "\r\n" terminate a line), the same as {@link java.nio.file.Files#readAllLines}.
+ *
+ * The index is bound to the size and modification time of the file when it was built; use
+ * {@link #isStale(BasicFileAttributes)} to detect changes.
+ */
+public final class FileLineIndex {
+
+	static final int CHECKPOINT_INTERVAL = 256;
+
+	private static final int BUFFER_SIZE = 64 * 1024;
+
+	private final long size;
+
+	private final long lastModifiedMillis;
+
+	private final long[] checkpoints;
+
+	private final int lineCount;
+
+	private final long charCountWithoutNewlines;
+
+	private final long wordCount;
+
+	private FileLineIndex(long size, long lastModifiedMillis, long[] checkpoints, int lineCount,
+			long charCountWithoutNewlines, long wordCount) {
+		this.size = size;
+		this.lastModifiedMillis = lastModifiedMillis;
+		this.checkpoints = checkpoints;
+		this.lineCount = lineCount;
+		this.charCountWithoutNewlines = charCountWithoutNewlines;
+		this.wordCount = wordCount;
+	}
+
+	/**
+	 * Scan a file and build its index
+	 * @param file File to index
+	 * @param attributes Attributes of the file read before the scan
+	 * @return Line index of the file
+	 * @throws IOException If the file cannot be read or is not valid UTF-8
+	 */
+	public static FileLineIndex build(Path file, BasicFileAttributes attributes) throws IOException {
+		long[] checkpoints = new long[16];
+		int checkpointCount = 1; // line 0 always starts at offset 0
+		int terminatedLines = 0;
+		long lastLineStart = 0;
+		boolean previousWasCr = false;
+		long charCount = 0;
+		long wordCount = 0;
+		boolean inWord = false;
+
+		CharsetDecoder decoder = StandardCharsets.UTF_8.newDecoder();
+		ByteBuffer bytes = ByteBuffer.allocate(BUFFER_SIZE);
+		CharBuffer chars = CharBuffer.allocate(BUFFER_SIZE);
+		long position = 0;
+
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+			boolean endOfInput = false;
+			while (!endOfInput) {
+				// Bytes before this mark are an undecoded tail carried over by
+				// compact() and have already been scanned for line boundaries
+				int newBytesStart = bytes.position();
+				int read = channel.read(bytes);
+				endOfInput = read < 0;
+				bytes.flip();
+
+				// Line boundaries are located on raw bytes: CR and LF never occur
+				// inside a multi-byte UTF-8 sequence
+				for (int i = newBytesStart; i < bytes.limit(); i++, position++) {
+					byte b = bytes.get(i);
+					long nextLineStart = -1;
+					if (b == '\n') {
+						nextLineStart = position + 1;
+						previousWasCr = false;
+					}
+					else if (previousWasCr) {
+						// A lone CR ended the previous line
+						nextLineStart = position;
+						previousWasCr = b == '\r';
+					}
+					else if (b == '\r') {
+						previousWasCr = true;
+					}
+					if (nextLineStart >= 0) {
+						terminatedLines++;
+						lastLineStart = nextLineStart;
+						if (terminatedLines % CHECKPOINT_INTERVAL == 0) {
+							if (checkpointCount == checkpoints.length) {
+								checkpoints = Arrays.copyOf(checkpoints, checkpointCount * 2);
+							}
+							checkpoints[checkpointCount++] = nextLineStart;
+						}
+					}
+				}
+
+				// Character and word statistics are taken from the decoded text
+				CoderResult result = decoder.decode(bytes, chars, endOfInput);
+				while (true) {
+					if (result.isError()) {
+						result.throwException();
+					}
+					chars.flip();
+					while (chars.hasRemaining()) {
+						char c = chars.get();
+						if (c == '\n' || c == '\r') {
+							inWord = false;
+							continue;
+						}
+						charCount++;
+						if (isWhitespace(c)) {
+							inWord = false;
+						}
+						else if (!inWord) {
+							inWord = true;
+							wordCount++;
+						}
+					}
+					chars.clear();
+					if (!result.isOverflow()) {
+						break;
+					}
+					result = decoder.decode(bytes, chars, endOfInput);
+				}
+				bytes.compact();
+			}
+			CoderResult flush = decoder.flush(chars);
+			if (flush.isError()) {
+				flush.throwException();
+			}
+		}
+
+		if (previousWasCr) {
+			// Trailing lone CR
+			terminatedLines++;
+			lastLineStart = position;
+		}
+		int lineCount = lastLineStart < position ? terminatedLines + 1 : terminatedLines;
+		return new FileLineIndex(attributes.size(), attributes.lastModifiedTime().toMillis(),
+				Arrays.copyOf(checkpoints, checkpointCount), lineCount, charCount, wordCount);
+	}
+
+	/**
+	 * Same character class as the regex {@code \s}
+	 */
+	private static boolean isWhitespace(char c) {
+		return c == ' ' || c == '\t' || c == '\n' || c == 0x0B || c == '\f' || c == '\r';
+	}
+
+	/**
+	 * Read a window of lines, decoding only from the nearest checkpoint onwards
+	 * @param file Indexed file
+	 * @param startLine First line to read (0-based)
+	 * @param maxLines Maximum number of lines to read
+	 * @return Lines without terminators; fewer than maxLines at the end of the file
+	 * @throws IOException If the file cannot be read or is not valid UTF-8
+	 */
+	public List<String> readLines(Path file, int startLine, int maxLines) throws IOException {
+		if (startLine < 0 || startLine >= lineCount || maxLines <= 0) {
+			return List.of();
+		}
+		int checkpoint = startLine / CHECKPOINT_INTERVAL;
+		int linesToSkip = startLine - checkpoint * CHECKPOINT_INTERVAL;
+		int linesToRead = Math.min(maxLines, lineCount - startLine);
+
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+			channel.position(checkpoints[checkpoint]);
+			BufferedReader reader = new BufferedReader(
+					Channels.newReader(channel, StandardCharsets.UTF_8.newDecoder(), BUFFER_SIZE), BUFFER_SIZE);
+			for (int i = 0; i < linesToSkip; i++) {
+				if (reader.readLine() == null) {
+					return List.of();
+				}
+			}
+			List<String> lines = new ArrayList<>(Math.min(linesToRead, 1024));
+			for (int i = 0; i < linesToRead; i++) {
+				String line = reader.readLine();
+				if (line == null) {
+					break;
+				}
+				lines.add(line);
+			}
+			return lines;
+		}
+	}
+
+	/**
+	 * Check whether the file changed since the index was built
+	 * @param attributes Current attributes of the file
+	 * @return true if size or modification time differ
+	 */
+	public boolean isStale(BasicFileAttributes attributes) {
+		return attributes.size() != size || attributes.lastModifiedTime().toMillis() != lastModifiedMillis;
+	}
+
+	public int getLineCount() {
+		return lineCount;
+	}
+
+	/**
+	 * @return Size of the file in bytes when the index was built
+	 */
+	public long getSize() {
+		return size;
+	}
+
+	/**
+	 * @return Number of characters excluding line terminators
+	 */
+	public long getCharCountWithoutNewlines() {
+		return charCountWithoutNewlines;
+	}
+
+	/**
+	 * @return Number of whitespace separated words
+	 */
+	public long getWordCount() {
+		return wordCount;
+	}
+
+	int getCheckpointCount() {
+		return checkpoints.length;
+	}
+
+}
@@ -19,24 +19,34 @@ import java.io.BufferedReader;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 import java.util.regex.Pattern;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Component;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
 /**
  * Utility for parsing and matching .gitignore patterns. Supports common gitignore syntax
  * including wildcards, directory patterns, negation, and path-relative matching.
  *
  * This component provides: - Parsing of .gitignore files from directory trees - Pattern
- * matching for files and directories - Caching of parsed patterns for performance -
+ * matching for files and directories - A cache of compiled patterns shared by all tools
+ * and plans, revalidated against the modification time and size of the ignore files -
  * Support for multiple ignore files (.gitignore, .ignore) - Path-relative pattern
  * matching (patterns in subdir/.gitignore only apply to that subdir)
+ *
+ * The component holds no per-search state and is thread-safe. Matching is done through an
+ * {@link IgnoreScope} obtained from {@link #forRoot(Path, boolean)}.
  */
 @Component
 public class GitIgnoreMatcher {
@@ -49,19 +59,12 @@ public class GitIgnoreMatcher {
 	private static final String[] IGNORE_FILE_NAMES = { ".gitignore", ".ignore" };
 
 	/**
-	 * Cache of parsed patterns per directory
-	 */
-	private final Map<Path, List<IgnorePattern>> patternCache = new HashMap<>();
-
-	/**
-	 * Root path for this matcher instance
+	 * Compiled rules per directory, shared across scopes
 	 */
-	private Path rootPath;
-
-	/**
-	 * Whether ignore checking is enabled
-	 */
-	private boolean enabled = true;
+	private final Cache<Path, DirectoryRules> ruleCache = CacheBuilder.newBuilder()
+		.maximumSize(10_000)
+		.expireAfterAccess(30, TimeUnit.MINUTES)
+		.build();
 
 	/**
 	 * Create a new GitIgnoreMatcher instance
@@ -70,219 +73,93 @@ public class GitIgnoreMatcher {
 	}
 
 	/**
-	 * Initialize the matcher with a root path and load ignore files
+	 * Create a scope for matching paths below a root. Ignore files are read lazily, once
+	 * per directory and scope, and parsed only if they changed since they were cached.
 	 * @param rootPath The root path to search for ignore files
 	 * @param enabled Whether ignore checking is enabled
+	 * @return Scope for matching paths below the root
 	 */
-	public void initialize(Path rootPath, boolean enabled) {
-		this.rootPath = rootPath != null ? rootPath.toAbsolutePath().normalize() : null;
-		this.enabled = enabled;
-		if (enabled && this.rootPath != null) {
-			loadIgnoreFiles(this.rootPath);
-		}
-	}
-
-	/**
-	 * Check if a file or directory should be ignored
-	 * @param filePath The file or directory path to check
-	 * @return true if the file/directory should be ignored
-	 */
-	public boolean isIgnored(Path filePath) {
-		if (!enabled || rootPath == null || filePath == null) {
-			return false;
-		}
-
-		try {
-			// Resolve symlinks to get the real path for consistent comparison
-			Path absolutePath;
+	public IgnoreScope forRoot(Path rootPath, boolean enabled) {
+		Path root = null;
+		if (rootPath != null) {
 			try {
-				absolutePath = filePath.toRealPath();
+				root = rootPath.toRealPath();
 			}
 			catch (IOException e) {
-				// If symlink resolution fails, fall back to absolute path
-				absolutePath = filePath.toAbsolutePath().normalize();
-			}
-
-			if (!absolutePath.startsWith(rootPath)) {
-				// File is outside root, don't apply ignore rules
-				return false;
+				root = rootPath.toAbsolutePath().normalize();
 			}
-
-			Path relativePath = rootPath.relativize(absolutePath);
-			return isIgnored(relativePath, absolutePath);
-		}
-		catch (Exception e) {
-			log.debug("Error checking if path is ignored: {}", filePath, e);
-			return false;
 		}
+		return new IgnoreScope(root, enabled);
 	}
 
 	/**
-	 * Check if a directory should be skipped entirely
-	 * @param dirPath The directory path to check
-	 * @return true if the directory should be skipped
+	 * Clear the pattern cache (useful for testing)
 	 */
-	public boolean shouldSkipDirectory(Path dirPath) {
-		if (!enabled || rootPath == null || dirPath == null) {
-			return false;
-		}
-
-		try {
-			// Resolve symlinks to get the real path for consistent comparison
-			Path absolutePath;
-			try {
-				absolutePath = dirPath.toRealPath();
-			}
-			catch (IOException e) {
-				// If symlink resolution fails, fall back to absolute path
-				absolutePath = dirPath.toAbsolutePath().normalize();
-			}
-
-			if (!absolutePath.startsWith(rootPath)) {
-				return false;
-			}
-
-			Path relativePath = rootPath.relativize(absolutePath);
-			// Check if directory name itself matches an ignore pattern
-			return isIgnored(relativePath, absolutePath);
-		}
-		catch (Exception e) {
-			log.debug("Error checking if directory should be skipped: {}", dirPath, e);
-			return false;
-		}
+	public void clearCache() {
+		ruleCache.invalidateAll();
 	}
 
 	/**
-	 * Internal method to check if a path is ignored
-	 * @param relativePath Path relative to root
-	 * @param absolutePath Absolute path
-	 * @return true if ignored
+	 * Get the rules of a directory, reusing the cached rules if its ignore files did not
+	 * change
+	 * @param dirPath Directory path
+	 * @return Rules of the directory (possibly empty)
 	 */
-	private boolean isIgnored(Path relativePath, Path absolutePath) {
-		// Check patterns from root down to the file's directory
-		boolean ignored = false;
-
-		// Check root patterns first
-		List<IgnorePattern> rootPatterns = getPatternsForDirectory(rootPath);
-		if (!rootPatterns.isEmpty()) {
-			String pathString = relativePath.toString().replace('\\', '/');
-			ignored = checkPatterns(pathString, relativePath, rootPatterns, rootPath, ignored);
+	private DirectoryRules loadRules(Path dirPath) {
+		long[] stamp = stampIgnoreFiles(dirPath);
+		DirectoryRules cached = ruleCache.getIfPresent(dirPath);
+		if (cached != null && Arrays.equals(cached.stamp, stamp)) {
+			return cached;
 		}
 
-		// Check patterns in each parent directory (where .gitignore files might exist)
-		Path currentPath = rootPath;
-		for (Path segment : relativePath) {
-			Path nextPath = currentPath.resolve(segment);
-
-			// Check patterns in the current directory (which might contain a .gitignore)
-			List<IgnorePattern> dirPatterns = getPatternsForDirectory(currentPath);
-			if (!dirPatterns.isEmpty()) {
-				// Get relative path from current directory
-				Path dirRelativePath = currentPath.relativize(absolutePath);
-				String dirRelativeString = dirRelativePath.toString().replace('\\', '/');
-				ignored = checkPatterns(dirRelativeString, dirRelativePath, dirPatterns, currentPath, ignored);
+		List<IgnorePattern> patterns = new ArrayList<>();
+		for (int i = 0; i < IGNORE_FILE_NAMES.length; i++) {
+			if (stamp[i * 2] < 0) {
+				continue;
 			}
-
-			currentPath = nextPath;
-		}
-
-		return ignored;
-	}
-
-	/**
-	 * Check patterns against a path
-	 * @param pathString Path string to check
-	 * @param relativePath Path object for directory checks
-	 * @param patterns Patterns to check
-	 * @param baseDir Directory containing the .gitignore file
-	 * @param currentState Current ignored state
-	 * @return New ignored state after applying patterns
-	 */
-	private boolean checkPatterns(String pathString, Path relativePath, List<IgnorePattern> patterns, Path baseDir,
-			boolean currentState) {
-		boolean result = currentState;
-
-		for (IgnorePattern pattern : patterns) {
-			if (pattern.matches(pathString, relativePath, baseDir)) {
-				if (pattern.isNegation()) {
-					result = false; // Negation un-ignores
-				}
-				else {
-					result = true; // Pattern matches, ignore it
-				}
+			Path ignoreFile = dirPath.resolve(IGNORE_FILE_NAMES[i]);
+			try {
+				patterns.addAll(parseIgnoreFile(ignoreFile));
 			}
-		}
-
-		return result;
-	}
-
-	/**
-	 * Get patterns for a directory (with caching)
-	 * @param dirPath Directory path
-	 * @return List of ignore patterns
-	 */
-	private List<IgnorePattern> getPatternsForDirectory(Path dirPath) {
-		return patternCache.computeIfAbsent(dirPath, this::loadPatternsForDirectory);
-	}
-
-	/**
-	 * Load patterns from ignore files in a directory
-	 * @param dirPath Directory to check for ignore files
-	 * @return List of parsed patterns
-	 */
-	private List<IgnorePattern> loadPatternsForDirectory(Path dirPath) {
-		List<IgnorePattern> patterns = new ArrayList<>();
-
-		for (String ignoreFileName : IGNORE_FILE_NAMES) {
-			Path ignoreFile = dirPath.resolve(ignoreFileName);
-			if (Files.exists(ignoreFile) && Files.isRegularFile(ignoreFile)) {
-				try {
-					List<IgnorePattern> filePatterns = parseIgnoreFile(ignoreFile, dirPath);
-					patterns.addAll(filePatterns);
-				}
-				catch (IOException e) {
-					log.warn("Error reading ignore file: {}", ignoreFile, e);
-				}
+			catch (IOException e) {
+				log.warn("Error reading ignore file: {}", ignoreFile, e);
 			}
 		}
-
-		return patterns;
+		DirectoryRules rules = new DirectoryRules(stamp, patterns);
+		ruleCache.put(dirPath, rules);
+		return rules;
 	}
 
 	/**
-	 * Load all ignore files from the root directory tree
-	 * @param rootPath Root path to search
+	 * Modification time and size of each ignore file in a directory, -1 when missing
 	 */
-	private void loadIgnoreFiles(Path rootPath) {
-		if (!Files.exists(rootPath) || !Files.isDirectory(rootPath)) {
-			return;
-		}
-
-		try {
-			// Load ignore files recursively
-			Files.walkFileTree(rootPath, new java.nio.file.SimpleFileVisitor<Path>() {
-				@Override
-				public java.nio.file.FileVisitResult preVisitDirectory(Path dir,
-						java.nio.file.attribute.BasicFileAttributes attrs) throws IOException {
-					// Load patterns for this directory (will cache them)
-					getPatternsForDirectory(dir);
-					return java.nio.file.FileVisitResult.CONTINUE;
+	private static long[] stampIgnoreFiles(Path dirPath) {
+		long[] stamp = new long[IGNORE_FILE_NAMES.length * 2];
+		for (int i = 0; i < IGNORE_FILE_NAMES.length; i++) {
+			stamp[i * 2] = -1;
+			stamp[i * 2 + 1] = -1;
+			try {
+				BasicFileAttributes attributes = Files.readAttributes(dirPath.resolve(IGNORE_FILE_NAMES[i]),
+						BasicFileAttributes.class);
+				if (attributes.isRegularFile()) {
+					stamp[i * 2] = attributes.lastModifiedTime().toMillis();
+					stamp[i * 2 + 1] = attributes.size();
 				}
-			});
-		}
-		catch (IOException e) {
-			log.warn("Error loading ignore files from: {}", rootPath, e);
+			}
+			catch (IOException e) {
+				// No ignore file with this name
+			}
 		}
+		return stamp;
 	}
 
 	/**
 	 * Parse an ignore file and return patterns
 	 * @param ignoreFile Path to ignore file
-	 * @param baseDir Directory containing the ignore file (for relative patterns)
 	 * @return List of parsed patterns
 	 * @throws IOException If file cannot be read
 	 */
-	private List<IgnorePattern> parseIgnoreFile(Path ignoreFile, Path baseDir) throws IOException {
+	private List<IgnorePattern> parseIgnoreFile(Path ignoreFile) throws IOException {
 		List<IgnorePattern> patterns = new ArrayList<>();
 
 		try (BufferedReader reader = Files.newBufferedReader(ignoreFile)) {
@@ -298,8 +175,7 @@ public class GitIgnoreMatcher {
 				}
 
 				try {
-					IgnorePattern pattern = new IgnorePattern(line, baseDir, rootPath);
-					patterns.add(pattern);
+					patterns.add(new IgnorePattern(line));
 				}
 				catch (Exception e) {
 					log.debug("Error parsing ignore pattern at line {} in {}: {}", lineNumber, ignoreFile, line, e);
@@ -311,10 +187,173 @@ public class GitIgnoreMatcher {
 	}
 
 	/**
-	 * Clear the pattern cache (useful for testing or when files change)
+	 * Ignore rules below one root. Rules are looked up once per directory for the
+	 * lifetime of the scope, so a scope should be created per search or index update.
+	 * Thread-safe.
 	 */
-	public void clearCache() {
-		patternCache.clear();
+	public final class IgnoreScope {
+
+		private final Path rootPath;
+
+		private final boolean enabled;
+
+		private final Map<Path, DirectoryRules> rulesByDirectory = new ConcurrentHashMap<>();
+
+		private IgnoreScope(Path rootPath, boolean enabled) {
+			this.rootPath = rootPath;
+			this.enabled = enabled;
+		}
+
+		/**
+		 * Check if a file or directory should be ignored
+		 * @param filePath The file or directory path to check
+		 * @return true if the file/directory should be ignored
+		 */
+		public boolean isIgnored(Path filePath) {
+			return isIgnored(filePath, null);
+		}
+
+		/**
+		 * Check if a directory should be skipped entirely
+		 * @param dirPath The directory path to check
+		 * @return true if the directory should be skipped
+		 */
+		public boolean shouldSkipDirectory(Path dirPath) {
+			return isIgnored(dirPath, Boolean.TRUE);
+		}
+
+		/**
+		 * Check if a path of known type should be ignored. Avoids the file system calls
+		 * needed to resolve the path and its type when the caller already has them.
+		 * @param path The file or directory path to check
+		 * @param directory Whether the path is a directory, or null if unknown
+		 * @return true if the path should be ignored
+		 */
+		public boolean isIgnored(Path path, Boolean directory) {
+			if (!enabled || rootPath == null || path == null) {
+				return false;
+			}
+
+			try {
+				Path absolutePath = path.toAbsolutePath().normalize();
+				if (!absolutePath.startsWith(rootPath)) {
+					// Resolve symlinks to get the real path for consistent comparison
+					try {
+						absolutePath = path.toRealPath();
+					}
+					catch (IOException e) {
+						// Keep the absolute path if symlink resolution fails
+					}
+				}
+
+				if (!absolutePath.startsWith(rootPath)) {
+					// File is outside root, don't apply ignore rules
+					return false;
+				}
+
+				return isIgnored(rootPath.relativize(absolutePath), absolutePath, directory);
+			}
+			catch (Exception e) {
+				log.debug("Error checking if path is ignored: {}", path, e);
+				return false;
+			}
+		}
+
+		/**
+		 * Apply the rules of the root and of every directory down to the path's parent,
+		 * in that order; a later match overrides an earlier one
+		 */
+		private boolean isIgnored(Path relativePath, Path absolutePath, Boolean directory) {
+			boolean ignored = false;
+			Boolean regularFile = directory != null ? !directory : null;
+
+			Path currentPath = rootPath;
+			for (Path segment : relativePath) {
+				DirectoryRules rules = rulesByDirectory.computeIfAbsent(currentPath, GitIgnoreMatcher.this::loadRules);
+				if (!rules.patterns.isEmpty()) {
+					if (regularFile == null && rules.hasDirectoryOnly) {
+						regularFile = Files.isRegularFile(absolutePath);
+					}
+					String dirRelativeString = currentPath.relativize(absolutePath).toString().replace('\\', '/');
+					ignored = rules.apply(dirRelativeString, Boolean.TRUE.equals(regularFile), ignored);
+				}
+				currentPath = currentPath.resolve(segment);
+			}
+
+			return ignored;
+		}
+
+	}
+
+	/**
+	 * Patterns of the ignore files in one directory, with a combined expression per
+	 * pattern kind so that paths matching none of them are rejected in a single pass
+	 */
+	private static final class DirectoryRules {
+
+		private final long[] stamp;
+
+		private final List<IgnorePattern> patterns;
+
+		private final boolean hasDirectoryOnly;
+
+		private final Pattern anyPathPattern;
+
+		private final Pattern anyDirectoryOnlyPattern;
+
+		DirectoryRules(long[] stamp, List<IgnorePattern> patterns) {
+			this.stamp = stamp;
+			this.patterns = List.copyOf(patterns);
+			this.hasDirectoryOnly = patterns.stream().anyMatch(p -> p.directoryOnly);
+			this.anyPathPattern = combine(patterns.stream().filter(p -> !p.directoryOnly).toList());
+			this.anyDirectoryOnlyPattern = combine(patterns.stream().filter(p -> p.directoryOnly).toList());
+		}
+
+		private static Pattern combine(List<IgnorePattern> patterns) {
+			if (patterns.isEmpty()) {
+				return null;
+			}
+			StringBuilder combined = new StringBuilder();
+			for (IgnorePattern pattern : patterns) {
+				if (combined.length() > 0) {
+					combined.append('|');
+				}
+				combined.append("(?:").append(pattern.regexPattern.pattern()).append(')');
+			}
+			return Pattern.compile(combined.toString());
+		}
+
+		/**
+		 * Apply the patterns to a path relative to this directory
+		 * @param pathString Path string (with forward slashes)
+		 * @param regularFile Whether the path is a regular file; directory-only patterns
+		 * then match its parent
+		 * @param currentState Current ignored state
+		 * @return New ignored state after applying patterns
+		 */
+		boolean apply(String pathString, boolean regularFile, boolean currentState) {
+			int slash = pathString.lastIndexOf('/');
+			String parentString = slash > 0 ? pathString.substring(0, slash) : null;
+			String directoryOnlyTarget = regularFile ? parentString : pathString;
+
+			boolean candidate = (anyPathPattern != null && anyPathPattern.matcher(pathString).find())
+					|| (anyDirectoryOnlyPattern != null && directoryOnlyTarget != null
+							&& anyDirectoryOnlyPattern.matcher(directoryOnlyTarget).find());
+			if (!candidate) {
+				return currentState;
+			}
+
+			// The last matching pattern decides
+			for (int i = patterns.size() - 1; i >= 0; i--) {
+				IgnorePattern pattern = patterns.get(i);
+				String target = pattern.directoryOnly ? directoryOnlyTarget : pathString;
+				if (target != null && pattern.regexPattern.matcher(target).find()) {
+					return !pattern.negation; // Negation un-ignores
+				}
+			}
+			return currentState;
+		}
+
 	}
 
 	/**
@@ -335,10 +374,8 @@ public class GitIgnoreMatcher {
 		/**
 		 * Create an ignore pattern from a pattern string
 		 * @param pattern Pattern string from .gitignore
-		 * @param baseDir Directory containing the .gitignore file
-		 * @param rootPath Root path for the search
 		 */
-		IgnorePattern(String pattern, Path baseDir, Path rootPath) {
+		IgnorePattern(String pattern) {
 			this.originalPattern = pattern;
 
 			// Check for negation
@@ -368,72 +405,11 @@ public class GitIgnoreMatcher {
 				this.anchored = false;
 			}
 
-			// Convert to regex
+			// Convert to regex. Every form (anchored "^...", segment "(^|/)...(/|$)" and
+			// "**" patterns) is matched with find() on the relative path
 			this.regexPattern = compilePattern(pattern);
 		}
 
-		/**
-		 * Check if this pattern matches a path
-		 * @param pathString Path string (with forward slashes)
-		 * @param relativePath Path object for directory checks
-		 * @param baseDir Directory containing the .gitignore file
-		 * @return true if matches
-		 */
-		boolean matches(String pathString, Path relativePath, Path baseDir) {
-			// Check if this is a directory-only pattern and we're checking a file
-			if (directoryOnly) {
-				try {
-					Path fullPath = baseDir.resolve(relativePath);
-					if (Files.exists(fullPath) && Files.isRegularFile(fullPath)) {
-						// Pattern is directory-only but path is a file
-						// Check if any parent directory matches
-						Path parent = relativePath.getParent();
-						if (parent != null) {
-							String parentString = parent.toString().replace('\\', '/');
-							return matchesPath(parentString);
-						}
-						return false;
-					}
-				}
-				catch (Exception e) {
-					// If we can't determine, try matching anyway
-				}
-			}
-
-			return matchesPath(pathString);
-		}
-
-		/**
-		 * Check if pattern matches a path string
-		 * @param pathString Path string to match
-		 * @return true if matches
-		 */
-		private boolean matchesPath(String pathString) {
-			if (anchored) {
-				// Pattern must match from start of path
-				return regexPattern.matcher(pathString).find(0);
-			}
-			else {
-				// Pattern can match anywhere
-				// For patterns like "target", check if any segment matches
-				// For patterns like "**/node_modules/**", check full path
-				if (originalPattern.contains("**")) {
-					return regexPattern.matcher(pathString).find();
-				}
-				else {
-					// Check each segment
-					String[] segments = pathString.split("/");
-					for (String segment : segments) {
-						if (regexPattern.matcher(segment).matches()) {
-							return true;
-						}
-					}
-					// Also check full path
-					return regexPattern.matcher(pathString).find();
-				}
-			}
-		}
-
 		/**
 		 * Convert gitignore pattern to regex
 		 * @param pattern Gitignore pattern
@@ -459,8 +435,8 @@ public class GitIgnoreMatcher {
 						i += 2; // Skip * and /
 					}
 					else if (i > 0 && pattern.charAt(i - 1) == '/') {
-						// /** - matches everything under
-						regex.append("/.*");
+						// /** - matches everything under (the / is already appended)
+						regex.append(".*");
 						i++; // Skip second *
 					}
 					else {
@@ -544,10 +520,6 @@ public class GitIgnoreMatcher {
 			}
 		}
 
-		boolean isNegation() {
-			return negation;
-		}
-
 	}
 
 }
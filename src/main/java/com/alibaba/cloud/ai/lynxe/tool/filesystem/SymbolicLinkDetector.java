@@ -165,11 +165,11 @@ public class SymbolicLinkDetector {
 	 * @param rootPath The root path being traversed
 	 * @param onFile Callback for each regular file encountered
 	 * @param onDirectory Callback for each directory encountered (before entering)
-	 * @param gitIgnoreMatcher Optional GitIgnoreMatcher to respect ignore file rules
+	 * @param ignoreScope Optional ignore scope to respect ignore file rules
 	 * @return A FileVisitor that handles symlinks safely
 	 */
 	public SimpleFileVisitor<Path> createSafeFileVisitor(Path rootPath, FileCallback onFile,
-			DirectoryCallback onDirectory, GitIgnoreMatcher gitIgnoreMatcher) {
+			DirectoryCallback onDirectory, GitIgnoreMatcher.IgnoreScope ignoreScope) {
 
 		// Track visited real paths to prevent cycles
 		Set<Path> visitedRealPaths = new HashSet<>();
@@ -197,7 +197,7 @@ public class SymbolicLinkDetector {
 				visitedRealPaths.add(realPath);
 
 				// Check if directory should be skipped based on ignore rules
-				if (gitIgnoreMatcher != null && gitIgnoreMatcher.shouldSkipDirectory(dir)) {
+				if (ignoreScope != null && ignoreScope.shouldSkipDirectory(dir)) {
 					log.debug("Skipping directory due to ignore rules: {}", dir);
 					return FileVisitResult.SKIP_SUBTREE;
 				}
@@ -226,7 +226,7 @@ public class SymbolicLinkDetector {
 			@Override
 			public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) throws IOException {
 				// Check if file should be ignored based on ignore rules
-				if (gitIgnoreMatcher != null && gitIgnoreMatcher.isIgnored(file)) {
+				if (ignoreScope != null && ignoreScope.isIgnored(file)) {
 					log.debug("Skipping file due to ignore rules: {}", file);
 					return FileVisitResult.CONTINUE;
 				}
@@ -18,7 +18,10 @@ package com.alibaba.cloud.ai.lynxe.tool.filesystem;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -30,6 +33,8 @@ import org.springframework.stereotype.Service;
 
 import com.alibaba.cloud.ai.lynxe.config.LynxeProperties;
 import com.alibaba.cloud.ai.lynxe.tool.textOperator.FileState;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 
 import jakarta.annotation.PreDestroy;
 
@@ -53,6 +58,15 @@ public class TextFileService implements ApplicationRunner {
 
 	private final ConcurrentHashMap<String, FileState> fileStates = new ConcurrentHashMap<>();
 
+	/**
+	 * Line indexes shared by all file tools, keyed by absolute path. Entries are rebuilt
+	 * when the size or modification time of the file changes.
+	 */
+	private final Cache<Path, FileLineIndex> lineIndexes = CacheBuilder.newBuilder()
+		.maximumSize(256)
+		.expireAfterAccess(30, TimeUnit.MINUTES)
+		.build();
+
 	@Override
 	public void run(ApplicationArguments args) {
 		log.info("TextFileService initialized");
@@ -130,10 +144,38 @@ public class TextFileService implements ApplicationRunner {
 		return getFileState(planId).getLastOperationResult();
 	}
 
+	/**
+	 * Get the line index of a file, building it on first use or after the file changed
+	 * @param file Absolute path of a regular file
+	 * @return Up-to-date line index
+	 * @throws IOException If the file cannot be read or is not valid UTF-8
+	 */
+	public FileLineIndex getLineIndex(Path file) throws IOException {
+		Path key = file.toAbsolutePath().normalize();
+		BasicFileAttributes attributes = Files.readAttributes(key, BasicFileAttributes.class);
+		FileLineIndex cached = lineIndexes.getIfPresent(key);
+		if (cached != null && !cached.isStale(attributes)) {
+			return cached;
+		}
+		if (cached != null) {
+			lineIndexes.asMap().remove(key, cached);
+		}
+		try {
+			return lineIndexes.get(key, () -> FileLineIndex.build(key, attributes));
+		}
+		catch (ExecutionException e) {
+			if (e.getCause() instanceof IOException ioException) {
+				throw ioException;
+			}
+			throw new IOException(e.getCause());
+		}
+	}
+
 	@PreDestroy
 	public void cleanup() {
 		log.info("Cleaning up TextFileService resources");
 		fileStates.clear();
+		lineIndexes.invalidateAll();
 	}
 
 	/**
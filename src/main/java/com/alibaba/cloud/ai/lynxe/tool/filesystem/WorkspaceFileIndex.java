@@ -0,0 +1,499 @@
+/*
+ * Copyright 2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.lynxe.tool.filesystem;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.NotDirectoryException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * In-memory index of the regular files below one search root, with gitignore rules
+ * already applied.
+ *
+ * The index mirrors the walk the file tools used to do on every call: symbolic links
+ * below the root are skipped, ignored directories are not descended into, and depth and
+ * path length are capped. Freshness is kept by revalidating directory modification times:
+ * adding, removing or renaming an entry changes the mtime of its directory, so only
+ * directories whose mtime moved are listed again. File sizes and mtimes in the index are
+ * informational; callers that display them should stat the files they return.
+ *
+ * All methods are thread-safe.
+ */
+public final class WorkspaceFileIndex {
+
+	private static final Logger log = LoggerFactory.getLogger(WorkspaceFileIndex.class);
+
+	/**
+	 * Maximum depth for directory traversal to prevent excessive recursion
+	 */
+	static final int MAX_DEPTH = 100;
+
+	/**
+	 * Maximum path length to prevent path explosion issues
+	 */
+	static final int MAX_PATH_LENGTH = 1000;
+
+	/**
+	 * A directory listed less than this long after its last modification may change again
+	 * within the same timestamp tick, so it is listed again on the next refresh
+	 */
+	private static final long RACY_WINDOW_MILLIS = 2000;
+
+	private static final int SNAPSHOT_MAGIC = 0x4C584649; // "LXFI"
+
+	private static final int SNAPSHOT_VERSION = 1;
+
+	private static final String[] IGNORE_FILE_NAMES = { ".gitignore", ".ignore" };
+
+	/**
+	 * File in the index
+	 */
+	public static final class IndexedFile {
+
+		private final String relativePath;
+
+		private final long size;
+
+		private final long lastModifiedMillis;
+
+		IndexedFile(String relativePath, long size, long lastModifiedMillis) {
+			this.relativePath = relativePath;
+			this.size = size;
+			this.lastModifiedMillis = lastModifiedMillis;
+		}
+
+		/**
+		 * @return Path relative to the index root, with '/' separators
+		 */
+		public String getRelativePath() {
+			return relativePath;
+		}
+
+		public long getSize() {
+			return size;
+		}
+
+		public long getLastModifiedMillis() {
+			return lastModifiedMillis;
+		}
+
+		/**
+		 * @return File name (last path segment)
+		 */
+		public String getFileName() {
+			return relativePath.substring(relativePath.lastIndexOf('/') + 1);
+		}
+
+		/**
+		 * Resolve the file against the root the index was requested for
+		 * @param root Search root
+		 * @return Path of the file below root
+		 */
+		public Path resolveAgainst(Path root) {
+			return root.resolve(relativePath);
+		}
+
+	}
+
+	/**
+	 * Listing of one directory
+	 */
+	private static final class DirectoryState {
+
+		long lastModifiedMillis;
+
+		long listedAtMillis;
+
+		List<IndexedFile> files = List.of();
+
+		List<String> subdirectories = List.of();
+
+		/**
+		 * Ignore files in this directory and their modification times
+		 */
+		Map<String, Long> ignoreFiles = Map.of();
+
+		boolean isRacy() {
+			return listedAtMillis - lastModifiedMillis < RACY_WINDOW_MILLIS;
+		}
+
+	}
+
+	private final Path root;
+
+	private final Path ignoreRoot;
+
+	private final boolean respectGitIgnore;
+
+	/**
+	 * Directories keyed by relative path ("" for the root). Sorted so that a subtree is a
+	 * contiguous key range and parents come before their children.
+	 */
+	private final TreeMap<String, DirectoryState> directories = new TreeMap<>();
+
+	private volatile List<IndexedFile> files;
+
+	WorkspaceFileIndex(Path root, Path ignoreRoot, boolean respectGitIgnore) {
+		this.root = root;
+		this.ignoreRoot = ignoreRoot;
+		this.respectGitIgnore = respectGitIgnore;
+	}
+
+	/**
+	 * Walk the root and build the index
+	 * @param gitIgnoreMatcher Matcher used to evaluate ignore rules
+	 * @throws IOException If the root cannot be listed
+	 */
+	synchronized void build(GitIgnoreMatcher gitIgnoreMatcher) throws IOException {
+		directories.clear();
+		scanDirectory("", gitIgnoreMatcher.forRoot(ignoreRoot, respectGitIgnore));
+		files = null;
+	}
+
+	/**
+	 * Revalidate directory modification times and list changed directories again
+	 * @param gitIgnoreMatcher Matcher used to evaluate ignore rules of new entries
+	 * @return Number of directories listed again, or -1 if an ignore file changed and the
+	 * index must be rebuilt
+	 * @throws IOException If the root cannot be listed
+	 */
+	synchronized int refresh(GitIgnoreMatcher gitIgnoreMatcher) throws IOException {
+		List<String> stale = new ArrayList<>();
+		for (Map.Entry<String, DirectoryState> entry : directories.entrySet()) {
+			DirectoryState state = entry.getValue();
+			Path dir = resolve(entry.getKey());
+			for (Map.Entry<String, Long> ignoreFile : state.ignoreFiles.entrySet()) {
+				if (!ignoreFile.getValue().equals(lastModifiedOrNull(dir.resolve(ignoreFile.getKey())))) {
+					return -1;
+				}
+			}
+			Long current = lastModifiedOrNull(dir);
+			if (current == null || current != state.lastModifiedMillis || state.isRacy()) {
+				stale.add(entry.getKey());
+			}
+		}
+		if (stale.isEmpty()) {
+			return 0;
+		}
+
+		GitIgnoreMatcher.IgnoreScope ignoreScope = gitIgnoreMatcher.forRoot(ignoreRoot, respectGitIgnore);
+		int relisted = 0;
+		// Keys are sorted, so parents are handled before their children
+		for (String relativeDir : stale) {
+			DirectoryState previous = directories.get(relativeDir);
+			if (previous == null) {
+				// Removed together with a parent
+				continue;
+			}
+			if (!relistDirectory(relativeDir, previous, ignoreScope)) {
+				return -1;
+			}
+			relisted++;
+		}
+		files = null;
+		return relisted;
+	}
+
+	/**
+	 * @return All indexed files; the list is shared and must not be modified
+	 */
+	List<IndexedFile> getFiles() {
+		List<IndexedFile> current = files;
+		if (current == null) {
+			synchronized (this) {
+				current = files;
+				if (current == null) {
+					List<IndexedFile> all = new ArrayList<>();
+					for (DirectoryState state : directories.values()) {
+						all.addAll(state.files);
+					}
+					current = List.copyOf(all);
+					files = current;
+				}
+			}
+		}
+		return current;
+	}
+
+	synchronized int getDirectoryCount() {
+		return directories.size();
+	}
+
+	/**
+	 * Write the index to a snapshot file so it can be loaded after a restart
+	 * @param snapshotFile Target file; written to a temporary file first and then moved
+	 * @throws IOException If the snapshot cannot be written
+	 */
+	synchronized void writeSnapshot(Path snapshotFile) throws IOException {
+		Files.createDirectories(snapshotFile.getParent());
+		Path tempFile = snapshotFile.resolveSibling(snapshotFile.getFileName() + ".tmp");
+		try (DataOutputStream out = new DataOutputStream(
+				new BufferedOutputStream(new GZIPOutputStream(Files.newOutputStream(tempFile))))) {
+			out.writeInt(SNAPSHOT_MAGIC);
+			out.writeInt(SNAPSHOT_VERSION);
+			out.writeUTF(root.toString());
+			out.writeUTF(ignoreRoot.toString());
+			out.writeBoolean(respectGitIgnore);
+			out.writeInt(directories.size());
+			for (Map.Entry<String, DirectoryState> entry : directories.entrySet()) {
+				DirectoryState state = entry.getValue();
+				out.writeUTF(entry.getKey());
+				out.writeLong(state.lastModifiedMillis);
+				out.writeLong(state.listedAtMillis);
+				out.writeInt(state.subdirectories.size());
+				for (String subdirectory : state.subdirectories) {
+					out.writeUTF(subdirectory);
+				}
+				out.writeInt(state.ignoreFiles.size());
+				for (Map.Entry<String, Long> ignoreFile : state.ignoreFiles.entrySet()) {
+					out.writeUTF(ignoreFile.getKey());
+					out.writeLong(ignoreFile.getValue());
+				}
+				out.writeInt(state.files.size());
+				for (IndexedFile file : state.files) {
+					out.writeUTF(file.getFileName());
+					out.writeLong(file.size);
+					out.writeLong(file.lastModifiedMillis);
+				}
+			}
+		}
+		Files.move(tempFile, snapshotFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+	}
+
+	/**
+	 * Load an index from a snapshot file. The result must be refreshed before use.
+	 * @param snapshotFile Snapshot written by {@link #writeSnapshot(Path)}
+	 * @param root Expected search root
+	 * @param ignoreRoot Expected ignore root
+	 * @param respectGitIgnore Expected gitignore setting
+	 * @return Loaded index, or null if the snapshot does not exist or does not match
+	 * @throws IOException If the snapshot cannot be read
+	 */
+	static WorkspaceFileIndex readSnapshot(Path snapshotFile, Path root, Path ignoreRoot, boolean respectGitIgnore)
+			throws IOException {
+		if (!Files.isRegularFile(snapshotFile)) {
+			return null;
+		}
+		try (DataInputStream in = new DataInputStream(
+				new BufferedInputStream(new GZIPInputStream(Files.newInputStream(snapshotFile))))) {
+			if (in.readInt() != SNAPSHOT_MAGIC || in.readInt() != SNAPSHOT_VERSION
+					|| !in.readUTF().equals(root.toString()) || !in.readUTF().equals(ignoreRoot.toString())
+					|| in.readBoolean() != respectGitIgnore) {
+				return null;
+			}
+			WorkspaceFileIndex index = new WorkspaceFileIndex(root, ignoreRoot, respectGitIgnore);
+			int directoryCount = in.readInt();
+			for (int i = 0; i < directoryCount; i++) {
+				String relativeDir = in.readUTF();
+				DirectoryState state = new DirectoryState();
+				state.lastModifiedMillis = in.readLong();
+				state.listedAtMillis = in.readLong();
+				String[] subdirectories = new String[in.readInt()];
+				for (int j = 0; j < subdirectories.length; j++) {
+					subdirectories[j] = in.readUTF();
+				}
+				state.subdirectories = List.of(subdirectories);
+				int ignoreFileCount = in.readInt();
+				Map<String, Long> ignoreFiles = new HashMap<>();
+				for (int j = 0; j < ignoreFileCount; j++) {
+					ignoreFiles.put(in.readUTF(), in.readLong());
+				}
+				state.ignoreFiles = Map.copyOf(ignoreFiles);
+				IndexedFile[] dirFiles = new IndexedFile[in.readInt()];
+				for (int j = 0; j < dirFiles.length; j++) {
+					dirFiles[j] = new IndexedFile(child(relativeDir, in.readUTF()), in.readLong(), in.readLong());
+				}
+				state.files = List.of(dirFiles);
+				index.directories.put(relativeDir, state);
+			}
+			return index;
+		}
+	}
+
+	/**
+	 * List a directory that was not indexed before, and everything below it
+	 */
+	private void scanDirectory(String relativeDir, GitIgnoreMatcher.IgnoreScope ignoreScope) throws IOException {
+		DirectoryState state = listDirectory(relativeDir, ignoreScope);
+		directories.put(relativeDir, state);
+		for (String subdirectory : state.subdirectories) {
+			scanSubdirectory(child(relativeDir, subdirectory), ignoreScope);
+		}
+	}
+
+	private void scanSubdirectory(String relativeDir, GitIgnoreMatcher.IgnoreScope ignoreScope) {
+		try {
+			scanDirectory(relativeDir, ignoreScope);
+		}
+		catch (IOException e) {
+			log.warn("Error accessing directory: {}. Skipping and continuing.", relativeDir, e);
+		}
+	}
+
+	/**
+	 * List an indexed directory again. Subdirectories still present keep their own state,
+	 * new ones are scanned and vanished ones are dropped.
+	 * @return false if an ignore file was added or removed
+	 */
+	private boolean relistDirectory(String relativeDir, DirectoryState previous,
+			GitIgnoreMatcher.IgnoreScope ignoreScope) throws IOException {
+		DirectoryState current;
+		try {
+			current = listDirectory(relativeDir, ignoreScope);
+		}
+		catch (NoSuchFileException | NotDirectoryException e) {
+			if (relativeDir.isEmpty()) {
+				throw e;
+			}
+			removeSubtree(relativeDir);
+			return true;
+		}
+		if (!current.ignoreFiles.keySet().equals(previous.ignoreFiles.keySet())) {
+			return false;
+		}
+
+		directories.put(relativeDir, current);
+		for (String subdirectory : previous.subdirectories) {
+			if (!current.subdirectories.contains(subdirectory)) {
+				removeSubtree(child(relativeDir, subdirectory));
+			}
+		}
+		for (String subdirectory : current.subdirectories) {
+			if (!previous.subdirectories.contains(subdirectory)) {
+				scanSubdirectory(child(relativeDir, subdirectory), ignoreScope);
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * List the direct entries of a directory, applying the same rules as the tools' tree
+	 * walk
+	 */
+	private DirectoryState listDirectory(String relativeDir, GitIgnoreMatcher.IgnoreScope ignoreScope)
+			throws IOException {
+		Path dir = resolve(relativeDir);
+		DirectoryState state = new DirectoryState();
+		state.listedAtMillis = System.currentTimeMillis();
+		state.lastModifiedMillis = Files.getLastModifiedTime(dir).toMillis();
+		int depth = relativeDir.isEmpty() ? 0 : relativeDir.split("/").length;
+		List<IndexedFile> dirFiles = new ArrayList<>();
+		List<String> subdirectories = new ArrayList<>();
+		Map<String, Long> dirIgnoreFiles = new HashMap<>();
+
+		try (DirectoryStream<Path> entries = Files.newDirectoryStream(dir)) {
+			for (Path entry : entries) {
+				BasicFileAttributes attributes;
+				try {
+					attributes = Files.readAttributes(entry, BasicFileAttributes.class, LinkOption.NOFOLLOW_LINKS);
+				}
+				catch (IOException e) {
+					log.debug("Cannot read attributes, skipping: {}", entry);
+					continue;
+				}
+				// Do not follow symbolic links below the root (like grep/ripgrep)
+				if (attributes.isSymbolicLink()) {
+					continue;
+				}
+				String pathString = entry.toString();
+				if (pathString.length() > MAX_PATH_LENGTH) {
+					log.warn("Path length {} exceeds maximum ({}). Skipping: {}", pathString.length(), MAX_PATH_LENGTH,
+							entry);
+					continue;
+				}
+				String name = entry.getFileName().toString();
+				if (attributes.isDirectory()) {
+					if (depth + 1 >= MAX_DEPTH) {
+						log.warn("Path depth exceeds maximum ({}). Skipping directory: {}", MAX_DEPTH, entry);
+						continue;
+					}
+					if (ignoreScope.isIgnored(entry, Boolean.TRUE)) {
+						continue;
+					}
+					subdirectories.add(name);
+				}
+				else if (attributes.isRegularFile()) {
+					long lastModified = attributes.lastModifiedTime().toMillis();
+					if (isIgnoreFileName(name)) {
+						dirIgnoreFiles.put(name, lastModified);
+					}
+					if (ignoreScope.isIgnored(entry, Boolean.FALSE)) {
+						continue;
+					}
+					dirFiles.add(new IndexedFile(child(relativeDir, name), attributes.size(), lastModified));
+				}
+			}
+		}
+
+		state.files = List.copyOf(dirFiles);
+		state.subdirectories = List.copyOf(subdirectories);
+		state.ignoreFiles = Map.copyOf(dirIgnoreFiles);
+		return state;
+	}
+
+	private void removeSubtree(String relativeDir) {
+		directories.remove(relativeDir);
+		// '0' is the character after '/', so this range is exactly the descendants
+		directories.subMap(relativeDir + "/", relativeDir + "0").clear();
+	}
+
+	private static String child(String relativeDir, String name) {
+		return relativeDir.isEmpty() ? name : relativeDir + "/" + name;
+	}
+
+	private static boolean isIgnoreFileName(String name) {
+		for (String ignoreFileName : IGNORE_FILE_NAMES) {
+			if (ignoreFileName.equals(name)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private Path resolve(String relativePath) {
+		return relativePath.isEmpty() ? root : root.resolve(relativePath);
+	}
+
+	private static Long lastModifiedOrNull(Path path) {
+		try {
+			return Files.getLastModifiedTime(path).toMillis();
+		}
+		catch (IOException e) {
+			return null;
+		}
+	}
+
+}
@@ -0,0 +1,265 @@
+/*
+ * Copyright 2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.lynxe.tool.filesystem;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Keeps a {@link WorkspaceFileIndex} per search root so glob and grep tools do not walk
+ * the whole tree on every call. Indexes are revalidated on each request, written to a
+ * snapshot on shutdown and loaded from it on first use after a restart.
+ */
+@Service
+public class WorkspaceFileIndexService {
+
+	private static final Logger log = LoggerFactory.getLogger(WorkspaceFileIndexService.class);
+
+	/**
+	 * Snapshot directory below the working directory; hidden so that tools skip it
+	 */
+	private static final String SNAPSHOT_DIR = ".file_index";
+
+	private static final String SNAPSHOT_SUFFIX = ".idx";
+
+	private static final Duration SNAPSHOT_RETENTION = Duration.ofDays(7);
+
+	private final GitIgnoreMatcher gitIgnoreMatcher;
+
+	private final Path snapshotDirectory;
+
+	private final Cache<String, WorkspaceFileIndex> indexes = CacheBuilder.newBuilder()
+		.maximumSize(64)
+		.expireAfterAccess(30, TimeUnit.MINUTES)
+		.build();
+
+	private final AtomicLong hits = new AtomicLong();
+
+	private final AtomicLong refreshes = new AtomicLong();
+
+	private final AtomicLong relistedDirectories = new AtomicLong();
+
+	private final AtomicLong builds = new AtomicLong();
+
+	private final AtomicLong snapshotLoads = new AtomicLong();
+
+	private final AtomicLong totalBuildMillis = new AtomicLong();
+
+	private final AtomicLong lastBuildMillis = new AtomicLong();
+
+	@Autowired
+	public WorkspaceFileIndexService(GitIgnoreMatcher gitIgnoreMatcher,
+			UnifiedDirectoryManager unifiedDirectoryManager) {
+		this(gitIgnoreMatcher, unifiedDirectoryManager.getWorkingDirectory().resolve(SNAPSHOT_DIR));
+	}
+
+	/**
+	 * @param gitIgnoreMatcher Matcher used to evaluate ignore rules
+	 * @param snapshotDirectory Directory for index snapshots, or null to keep indexes in
+	 * memory only
+	 */
+	public WorkspaceFileIndexService(GitIgnoreMatcher gitIgnoreMatcher, Path snapshotDirectory) {
+		this.gitIgnoreMatcher = gitIgnoreMatcher;
+		this.snapshotDirectory = snapshotDirectory;
+		deleteExpiredSnapshots();
+	}
+
+	/**
+	 * List the files below a root, using the index and refreshing it first
+	 * @param root Real path of the search root
+	 * @param ignoreRoot Root used to resolve ignore files
+	 * @param respectGitIgnore Whether ignore rules are applied
+	 * @return Indexed files; the list is shared and must not be modified
+	 * @throws IOException If the root cannot be listed
+	 */
+	public List<WorkspaceFileIndex.IndexedFile> listFiles(Path root, Path ignoreRoot, boolean respectGitIgnore)
+			throws IOException {
+		Path normalizedRoot = root.toAbsolutePath().normalize();
+		Path normalizedIgnoreRoot = ignoreRoot != null ? ignoreRoot.toAbsolutePath().normalize() : normalizedRoot;
+		String key = normalizedRoot + "|" + normalizedIgnoreRoot + "|" + respectGitIgnore;
+
+		// Concurrent first requests for a root wait for a single build
+		AtomicBoolean built = new AtomicBoolean(false);
+		WorkspaceFileIndex index;
+		try {
+			index = indexes.get(key, () -> {
+				WorkspaceFileIndex loaded = loadSnapshot(key, normalizedRoot, normalizedIgnoreRoot, respectGitIgnore);
+				if (loaded != null) {
+					return loaded;
+				}
+				built.set(true);
+				return build(normalizedRoot, normalizedIgnoreRoot, respectGitIgnore);
+			});
+		}
+		catch (ExecutionException e) {
+			if (e.getCause() instanceof IOException ioException) {
+				throw ioException;
+			}
+			throw new IOException("Failed to build file index for " + normalizedRoot, e.getCause());
+		}
+		if (built.get()) {
+			return index.getFiles();
+		}
+
+		int relisted = index.refresh(gitIgnoreMatcher);
+		if (relisted < 0) {
+			// An ignore file changed: ignore status of indexed entries is stale
+			index = build(normalizedRoot, normalizedIgnoreRoot, respectGitIgnore);
+			indexes.put(key, index);
+		}
+		else if (relisted == 0) {
+			hits.incrementAndGet();
+		}
+		else {
+			refreshes.incrementAndGet();
+			relistedDirectories.addAndGet(relisted);
+		}
+		return index.getFiles();
+	}
+
+	/**
+	 * @return Counters of index usage and build times
+	 */
+	public Map<String, Object> getMetrics() {
+		long hitCount = hits.get();
+		long refreshCount = refreshes.get();
+		long buildCount = builds.get();
+		long snapshotLoadCount = snapshotLoads.get();
+		long requests = hitCount + refreshCount + buildCount;
+		Map<String, Object> metrics = new LinkedHashMap<>();
+		metrics.put("indexedRoots", indexes.size());
+		metrics.put("requests", requests);
+		metrics.put("hits", hitCount);
+		metrics.put("refreshes", refreshCount);
+		metrics.put("relistedDirectories", relistedDirectories.get());
+		metrics.put("builds", buildCount);
+		metrics.put("snapshotLoads", snapshotLoadCount);
+		// Only lookups served without relisting a directory count as hits
+		metrics.put("hitRate", requests == 0 ? 0.0 : (double) hitCount / requests);
+		metrics.put("lastBuildMillis", lastBuildMillis.get());
+		metrics.put("totalBuildMillis", totalBuildMillis.get());
+		metrics.put("averageBuildMillis", buildCount == 0 ? 0 : totalBuildMillis.get() / buildCount);
+		return metrics;
+	}
+
+	/**
+	 * Drop all in-memory indexes
+	 */
+	public void invalidateAll() {
+		indexes.invalidateAll();
+	}
+
+	/**
+	 * Write snapshots of all indexes so they survive a restart
+	 */
+	@PreDestroy
+	public void writeSnapshots() {
+		if (snapshotDirectory == null) {
+			return;
+		}
+		for (Map.Entry<String, WorkspaceFileIndex> entry : indexes.asMap().entrySet()) {
+			try {
+				entry.getValue().writeSnapshot(snapshotFile(entry.getKey()));
+			}
+			catch (IOException e) {
+				log.warn("Failed to write file index snapshot for {}", entry.getKey(), e);
+			}
+		}
+	}
+
+	private WorkspaceFileIndex build(Path root, Path ignoreRoot, boolean respectGitIgnore) throws IOException {
+		long start = System.currentTimeMillis();
+		WorkspaceFileIndex index = new WorkspaceFileIndex(root, ignoreRoot, respectGitIgnore);
+		index.build(gitIgnoreMatcher);
+		long elapsed = System.currentTimeMillis() - start;
+		builds.incrementAndGet();
+		lastBuildMillis.set(elapsed);
+		totalBuildMillis.addAndGet(elapsed);
+		log.debug("Built file index for {} in {} ms ({} files, {} directories)", root, elapsed, index.getFiles().size(),
+				index.getDirectoryCount());
+		return index;
+	}
+
+	private WorkspaceFileIndex loadSnapshot(String key, Path root, Path ignoreRoot, boolean respectGitIgnore) {
+		if (snapshotDirectory == null) {
+			return null;
+		}
+		try {
+			WorkspaceFileIndex index = WorkspaceFileIndex.readSnapshot(snapshotFile(key), root, ignoreRoot,
+					respectGitIgnore);
+			if (index != null) {
+				snapshotLoads.incrementAndGet();
+			}
+			return index;
+		}
+		catch (IOException e) {
+			log.warn("Ignoring unreadable file index snapshot for {}", root, e);
+			return null;
+		}
+	}
+
+	private Path snapshotFile(String key) {
+		try {
+			byte[] digest = MessageDigest.getInstance("SHA-256").digest(key.getBytes(StandardCharsets.UTF_8));
+			return snapshotDirectory.resolve(HexFormat.of().formatHex(digest) + SNAPSHOT_SUFFIX);
+		}
+		catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException("SHA-256 not available", e);
+		}
+	}
+
+	private void deleteExpiredSnapshots() {
+		if (snapshotDirectory == null || !Files.isDirectory(snapshotDirectory)) {
+			return;
+		}
+		long cutoff = System.currentTimeMillis() - SNAPSHOT_RETENTION.toMillis();
+		try (DirectoryStream<Path> snapshots = Files.newDirectoryStream(snapshotDirectory, "*" + SNAPSHOT_SUFFIX)) {
+			for (Path snapshot : snapshots) {
+				if (Files.getLastModifiedTime(snapshot).toMillis() < cutoff) {
+					Files.deleteIfExists(snapshot);
+				}
+			}
+		}
+		catch (IOException e) {
+			log.warn("Failed to clean up file index snapshots in {}", snapshotDirectory, e);
+		}
+	}
+
+}
@@ -119,16 +119,25 @@ public class ToolI18nService {
 	}
 
 	/**
-	 * Load tool content from YAML file based on current language
-	 * @param toolName Tool name (e.g., "file-splitter-tool")
-	 * @return Map containing description and parameters, or null if not found
+	 * Get the language tool descriptions are currently resolved in
+	 * @return Language code of the current user, "zh" if not set
 	 */
-	private Map<String, Object> loadToolContent(String toolName) {
+	public String getCurrentLanguage() {
 		// Get current language from UserService
 		String language = userService.getLanguage();
 		if (language == null || language.trim().isEmpty()) {
 			language = "zh"; // Default to Chinese
 		}
+		return language;
+	}
+
+	/**
+	 * Load tool content from YAML file based on current language
+	 * @param toolName Tool name (e.g., "file-splitter-tool")
+	 * @return Map containing description and parameters, or null if not found
+	 */
+	private Map<String, Object> loadToolContent(String toolName) {
+		String language = getCurrentLanguage();
 
 		// Build cache key
 		String cacheKey = toolName + "-" + language;
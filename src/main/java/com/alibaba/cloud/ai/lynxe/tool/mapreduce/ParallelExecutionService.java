@@ -61,6 +61,14 @@ public class ParallelExecutionService {
 		this.serviceGroupIndexService = serviceGroupIndexService;
 	}
 
+	/**
+	 * Get the executor pool provider tools are executed on
+	 * @return ExecutorPoolProvider instance
+	 */
+	public ExecutorPoolProvider getExecutorPoolProvider() {
+		return executorPoolProvider;
+	}
+
 	/**
 	 * Look up tool context using qualified key conversion This method handles the
 	 * conversion from raw tool name to qualified key format (serviceGroup-toolName) based
@@ -16,10 +16,8 @@
 package com.alibaba.cloud.ai.lynxe.tool.textOperator.fileOperators;
 
 import java.io.IOException;
-import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.util.List;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -27,6 +25,7 @@ import org.slf4j.LoggerFactory;
 import com.alibaba.cloud.ai.lynxe.tool.AbstractBaseTool;
 import com.alibaba.cloud.ai.lynxe.tool.ToolStateInfo;
 import com.alibaba.cloud.ai.lynxe.tool.code.ToolExecuteResult;
+import com.alibaba.cloud.ai.lynxe.tool.filesystem.FileLineIndex;
 import com.alibaba.cloud.ai.lynxe.tool.filesystem.TextFileService;
 import com.alibaba.cloud.ai.lynxe.tool.filesystem.UnifiedDirectoryManager;
 import com.alibaba.cloud.ai.lynxe.tool.i18n.ToolI18nService;
@@ -188,29 +187,21 @@ public class CountFileTool extends AbstractBaseTool<CountFileTool.CountFileInput
 		try {
 			Path sourceFile = validateFilePath(filePath);
 
-			// Read all lines from the source file
-			List<String> allLines = Files.readAllLines(sourceFile, StandardCharsets.UTF_8);
+			// Counts come from the shared line index, built in one streaming pass and
+			// reused until the file changes
+			FileLineIndex lineIndex = textFileService.getLineIndex(sourceFile);
 
 			// Count total lines
-			int totalLines = allLines.size();
+			int totalLines = lineIndex.getLineCount();
 
 			// Count total characters (including newlines)
-			long totalCharacters = Files.size(sourceFile);
+			long totalCharacters = lineIndex.getSize();
 
-			// Count characters excluding newlines (sum of all line lengths)
-			int charactersWithoutNewlines = 0;
-			for (String line : allLines) {
-				charactersWithoutNewlines += line.length();
-			}
+			// Count characters excluding newlines
+			long charactersWithoutNewlines = lineIndex.getCharCountWithoutNewlines();
 
 			// Count words (split by whitespace)
-			int wordCount = 0;
-			for (String line : allLines) {
-				if (line != null && !line.trim().isEmpty()) {
-					String[] words = line.trim().split("\\s+");
-					wordCount += words.length;
-				}
-			}
+			long wordCount = lineIndex.getWordCount();
 
 			// Build result message
 			StringBuilder result = new StringBuilder();
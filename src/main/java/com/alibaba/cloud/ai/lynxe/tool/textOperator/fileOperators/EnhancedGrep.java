@@ -15,24 +15,10 @@
  */
 package com.alibaba.cloud.ai.lynxe.tool.textOperator.fileOperators;
 
-import java.io.BufferedReader;
 import java.io.IOException;
-import java.nio.file.FileSystemLoopException;
-import java.nio.file.FileVisitOption;
-import java.nio.file.FileVisitResult;
-import java.nio.file.FileVisitor;
-import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.nio.file.SimpleFileVisitor;
-import java.nio.file.attribute.BasicFileAttributes;
-import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.HashSet;
 import java.util.List;
-import java.util.Map;
-import java.util.Set;
-import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 import org.slf4j.Logger;
@@ -42,10 +28,10 @@ import com.alibaba.cloud.ai.lynxe.config.LynxeProperties;
 import com.alibaba.cloud.ai.lynxe.tool.AbstractBaseTool;
 import com.alibaba.cloud.ai.lynxe.tool.ToolStateInfo;
 import com.alibaba.cloud.ai.lynxe.tool.code.ToolExecuteResult;
-import com.alibaba.cloud.ai.lynxe.tool.filesystem.GitIgnoreMatcher;
 import com.alibaba.cloud.ai.lynxe.tool.filesystem.SmartContentSavingService;
 import com.alibaba.cloud.ai.lynxe.tool.filesystem.TextFileService;
 import com.alibaba.cloud.ai.lynxe.tool.filesystem.UnifiedDirectoryManager;
+import com.alibaba.cloud.ai.lynxe.tool.filesystem.WorkspaceFileIndexService;
 import com.alibaba.cloud.ai.lynxe.tool.i18n.ToolI18nService;
 import com.fasterxml.jackson.annotation.JsonProperty;
 
@@ -88,42 +74,6 @@ public class EnhancedGrep extends AbstractBaseTool<EnhancedGrep.GrepInput> {
 	 */
 	private static final int DEFAULT_MAX_RESULTS = 1000;
 
-	/**
-	 * Predefined file type mappings (similar to ripgrep)
-	 */
-	private static final Map<String, List<String>> FILE_TYPE_EXTENSIONS = new HashMap<>();
-	static {
-		FILE_TYPE_EXTENSIONS.put("java", List.of(".java"));
-		FILE_TYPE_EXTENSIONS.put("py", List.of(".py"));
-		FILE_TYPE_EXTENSIONS.put("js", List.of(".js", ".jsx"));
-		FILE_TYPE_EXTENSIONS.put("ts", List.of(".ts", ".tsx"));
-		FILE_TYPE_EXTENSIONS.put("rust", List.of(".rs"));
-		FILE_TYPE_EXTENSIONS.put("go", List.of(".go"));
-		FILE_TYPE_EXTENSIONS.put("cpp", List.of(".cpp", ".cc", ".cxx", ".c", ".h", ".hpp"));
-		FILE_TYPE_EXTENSIONS.put("md", List.of(".md", ".markdown"));
-		FILE_TYPE_EXTENSIONS.put("json", List.of(".json"));
-		FILE_TYPE_EXTENSIONS.put("xml", List.of(".xml"));
-		FILE_TYPE_EXTENSIONS.put("yaml", List.of(".yaml", ".yml"));
-		FILE_TYPE_EXTENSIONS.put("sql", List.of(".sql"));
-		FILE_TYPE_EXTENSIONS.put("sh", List.of(".sh", ".bash"));
-		FILE_TYPE_EXTENSIONS.put("css", List.of(".css", ".scss", ".sass", ".less"));
-		FILE_TYPE_EXTENSIONS.put("html", List.of(".html", ".htm"));
-		FILE_TYPE_EXTENSIONS.put("vue", List.of(".vue"));
-		FILE_TYPE_EXTENSIONS.put("txt", List.of(".txt"));
-		FILE_TYPE_EXTENSIONS.put("properties", List.of(".properties"));
-		FILE_TYPE_EXTENSIONS.put("log", List.of(".log"));
-		FILE_TYPE_EXTENSIONS.put("conf", List.of(".conf"));
-	}
-
-	/**
-	 * Unified set of all text file extensions (derived from FILE_TYPE_EXTENSIONS)
-	 */
-	private static final Set<String> TEXT_FILE_EXTENSIONS = new HashSet<>();
-	static {
-		// Add all extensions from FILE_TYPE_EXTENSIONS
-		FILE_TYPE_EXTENSIONS.values().forEach(TEXT_FILE_EXTENSIONS::addAll);
-	}
-
 	/**
 	 * Output mode enumeration
 	 */
@@ -263,39 +213,17 @@ public class EnhancedGrep extends AbstractBaseTool<EnhancedGrep.GrepInput> {
 
 	}
 
-	/**
-	 * Match result for a single line
-	 */
-	private static class MatchResult {
-
-		int lineNumber;
-
-		String lineContent;
-
-		boolean isMatchLine; // true for match, false for context
-
-		public MatchResult(String filePath, int lineNumber, String lineContent, boolean isMatchLine) {
-			this.lineNumber = lineNumber;
-			this.lineContent = lineContent;
-			this.isMatchLine = isMatchLine;
-		}
-
-	}
-
 	private final TextFileService textFileService;
 
 	private final ToolI18nService toolI18nService;
 
-	private final GitIgnoreMatcher gitIgnoreMatcher;
-
-	private final LynxeProperties lynxeProperties;
+	private final GrepSearchEngine searchEngine;
 
 	public EnhancedGrep(TextFileService textFileService, ToolI18nService toolI18nService,
-			GitIgnoreMatcher gitIgnoreMatcher, LynxeProperties lynxeProperties) {
+			WorkspaceFileIndexService workspaceFileIndexService, LynxeProperties lynxeProperties) {
 		this.textFileService = textFileService;
 		this.toolI18nService = toolI18nService;
-		this.gitIgnoreMatcher = gitIgnoreMatcher;
-		this.lynxeProperties = lynxeProperties;
+		this.searchEngine = new GrepSearchEngine(workspaceFileIndexService, lynxeProperties);
 	}
 
 	@Override
@@ -341,18 +269,22 @@ public class EnhancedGrep extends AbstractBaseTool<EnhancedGrep.GrepInput> {
 			// Compile regex pattern
 			Pattern regexPattern = compilePattern(pattern, caseInsensitive, multiline);
 
-			// Search files
-			List<Path> filesToSearch = findFilesToSearch(searchRoot, glob, type);
+			// Stop scanning early only when the caller limited the content output
+			int matchLimit = (mode == OutputMode.CONTENT && headLimit != null) ? headLimit : Integer.MAX_VALUE;
 
-			if (filesToSearch.isEmpty()) {
+			// Walk and search files in parallel
+			GrepSearchEngine.SearchResult searchResult = searchEngine.search(searchRoot, glob, type, regexPattern,
+					multiline, mode == OutputMode.COUNT, beforeLines, afterLines, matchLimit,
+					this::formatMultilineMatch);
+
+			if (searchResult.filesSearched == 0) {
 				return new ToolExecuteResult("No files found matching the criteria");
 			}
 
-			// Execute search based on mode
+			// Format results based on mode
 			return switch (mode) {
-				case CONTENT ->
-					searchContent(filesToSearch, regexPattern, beforeLines, afterLines, maxResults, multiline);
-				case COUNT -> searchCount(filesToSearch, regexPattern, maxResults, multiline);
+				case CONTENT -> formatContent(searchResult, maxResults);
+				case COUNT -> formatCount(searchResult);
 			};
 		}
 		catch (Exception e) {
@@ -361,54 +293,6 @@ public class EnhancedGrep extends AbstractBaseTool<EnhancedGrep.GrepInput> {
 		}
 	}
 
-	/**
-	 * Determine the root path for ignore file matching. If searching within
-	 * linked_external, use the actual external folder root. Otherwise, use the search
-	 * root.
-	 * @param searchRoot The search root path
-	 * @return Root path for ignore file matching
-	 */
-	private Path determineIgnoreRootPath(Path searchRoot) {
-		if (searchRoot == null) {
-			return null;
-		}
-
-		try {
-			Path normalized = searchRoot.toAbsolutePath().normalize();
-			String pathString = normalized.toString();
-
-			// Check if we're searching within linked_external directory
-			if (pathString.contains("linked_external")) {
-				// Find the linked_external directory in the path
-				Path current = normalized;
-				while (current != null && current.getNameCount() > 0) {
-					if ("linked_external".equals(current.getFileName().toString())) {
-						// This is the linked_external symlink, use its target as the
-						// ignore root
-						// For symlinks, we want to use the actual target directory
-						try {
-							Path realPath = current.toRealPath();
-							log.debug("Using external folder root for ignore patterns: {}", realPath);
-							return realPath;
-						}
-						catch (IOException e) {
-							log.debug("Could not resolve real path for linked_external, using as-is: {}", current, e);
-							return current;
-						}
-					}
-					current = current.getParent();
-				}
-			}
-
-			// Default: use search root
-			return normalized;
-		}
-		catch (Exception e) {
-			log.warn("Error determining ignore root path, using search root: {}", searchRoot, e);
-			return searchRoot;
-		}
-	}
-
 	/**
 	 * Get search root path
 	 */
@@ -468,298 +352,17 @@ public class EnhancedGrep extends AbstractBaseTool<EnhancedGrep.GrepInput> {
 		};
 	}
 
-	/**
-	 * Maximum depth for directory traversal to prevent excessive recursion
-	 */
-	private static final int MAX_DEPTH = 100;
-
-	/**
-	 * Maximum path length to prevent path explosion issues
-	 */
-	private static final int MAX_PATH_LENGTH = 1000;
-
-	/**
-	 * Find files to search based on glob pattern or file type
-	 */
-	private List<Path> findFilesToSearch(Path root, String glob, String type) throws IOException {
-		List<Path> files = new ArrayList<>();
-
-		// Determine file filter
-		Set<String> extensions = new HashSet<>();
-		if (type != null && FILE_TYPE_EXTENSIONS.containsKey(type.toLowerCase())) {
-			extensions.addAll(FILE_TYPE_EXTENSIONS.get(type.toLowerCase()));
-		}
-
-		// Convert glob to pattern
-		Pattern globPattern = null;
-		if (glob != null && !glob.isEmpty()) {
-			globPattern = compileGlobPattern(glob);
-		}
-
-		Pattern finalGlobPattern = globPattern;
-		Set<String> finalExtensions = extensions;
-		Path rootPath = root;
-
-		// Initialize GitIgnoreMatcher if respectGitIgnore is enabled
-		boolean respectGitIgnore = lynxeProperties.getRespectGitIgnore() != null
-				&& lynxeProperties.getRespectGitIgnore();
-		Path ignoreRootPath = determineIgnoreRootPath(root);
-		gitIgnoreMatcher.initialize(ignoreRootPath, respectGitIgnore);
-
-		// Walk directory tree, following links for root symlink (e.g., linked_external)
-		// but skipping other symlinks to prevent infinite loops
-		Path rootRealPath;
-		try {
-			rootRealPath = root.toRealPath();
-		}
-		catch (IOException e) {
-			rootRealPath = root.toAbsolutePath().normalize();
-		}
-		Path finalRootRealPath = rootRealPath;
-		Set<Path> visitedRealPaths = new HashSet<>();
-		FileVisitor<Path> visitor = new SimpleFileVisitor<Path>() {
-			@Override
-			public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) throws IOException {
-				// Get real path for cycle detection
-				Path realPath;
-				try {
-					realPath = dir.toRealPath();
-				}
-				catch (IOException e) {
-					log.warn("Cannot resolve real path for directory: {}, skipping", dir);
-					return FileVisitResult.SKIP_SUBTREE;
-				}
-
-				// Check for cycles using real paths
-				if (visitedRealPaths.contains(realPath)) {
-					log.warn("Cycle detected: already visited {}, skipping", realPath);
-					return FileVisitResult.SKIP_SUBTREE;
-				}
-				visitedRealPaths.add(realPath);
-
-				// Allow the root directory even if it's a symlink (e.g., linked_external)
-				// But skip other symlink directories to prevent circular references
-				if (Files.isSymbolicLink(dir)) {
-					// Check if this is the root (by comparing both original and real
-					// paths)
-					boolean isRoot = dir.equals(root) || realPath.equals(finalRootRealPath);
-					if (!isRoot) {
-						log.debug("Skipping symbolic link directory: {}", dir);
-						return FileVisitResult.SKIP_SUBTREE;
-					}
-					// Root is a symlink - allow but track to prevent cycles
-				}
-
-				// Check path depth relative to root
-				int depth = rootPath.relativize(dir).getNameCount();
-				if (depth > MAX_DEPTH) {
-					log.warn("Path depth {} exceeds maximum ({}). Skipping directory: {}", depth, MAX_DEPTH, dir);
-					return FileVisitResult.SKIP_SUBTREE;
-				}
-
-				// Check path length to prevent path explosion
-				String pathString = dir.toString();
-				if (pathString.length() > MAX_PATH_LENGTH) {
-					log.warn("Path length {} exceeds maximum ({}). Skipping directory: {}", pathString.length(),
-							MAX_PATH_LENGTH, dir);
-					return FileVisitResult.SKIP_SUBTREE;
-				}
-
-				// Check if directory should be skipped based on ignore rules
-				if (respectGitIgnore && gitIgnoreMatcher.shouldSkipDirectory(dir)) {
-					log.debug("Skipping directory due to ignore rules: {}", dir);
-					return FileVisitResult.SKIP_SUBTREE;
-				}
-
-				return FileVisitResult.CONTINUE;
-			}
-
-			@Override
-			public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) throws IOException {
-				// Skip symbolic links (do not follow them, like grep/ripgrep)
-				if (Files.isSymbolicLink(file)) {
-					log.debug("Skipping symbolic link file: {}", file);
-					return FileVisitResult.CONTINUE;
-				}
-
-				// Check path length for files as well
-				String pathString = file.toString();
-				if (pathString.length() > MAX_PATH_LENGTH) {
-					log.warn("File path length {} exceeds maximum ({}). Skipping file: {}", pathString.length(),
-							MAX_PATH_LENGTH, file);
-					return FileVisitResult.CONTINUE;
-				}
-
-				// Skip if not a regular file
-				if (!Files.isRegularFile(file)) {
-					return FileVisitResult.CONTINUE;
-				}
-
-				// Skip hidden files
-				if (isHidden(file)) {
-					return FileVisitResult.CONTINUE;
-				}
-
-				// Check if file should be ignored based on ignore rules
-				if (respectGitIgnore && gitIgnoreMatcher.isIgnored(file)) {
-					log.debug("Skipping file due to ignore rules: {}", file);
-					return FileVisitResult.CONTINUE;
-				}
-
-				// Apply type filter
-				if (!finalExtensions.isEmpty()) {
-					String fileName = file.getFileName().toString();
-					if (finalExtensions.stream().noneMatch(fileName::endsWith)) {
-						return FileVisitResult.CONTINUE;
-					}
-				}
-
-				// Apply glob filter
-				if (finalGlobPattern != null) {
-					String fileName = file.getFileName().toString();
-					if (!finalGlobPattern.matcher(fileName).matches()) {
-						return FileVisitResult.CONTINUE;
-					}
-				}
-
-				// Default: include text files only
-				if (finalExtensions.isEmpty() && finalGlobPattern == null && !isTextFile(file)) {
-					return FileVisitResult.CONTINUE;
-				}
-
-				// File matches all filters, add it
-				files.add(file);
-				return FileVisitResult.CONTINUE;
-			}
-
-			@Override
-			public FileVisitResult visitFileFailed(Path file, IOException exc) throws IOException {
-				// Handle circular symlinks by skipping the problematic directory
-				// (This should rarely happen now since we don't follow symlinks, but kept
-				// for safety)
-				if (exc instanceof FileSystemLoopException) {
-					log.warn("Circular symlink detected: {}. Skipping this directory and continuing.", file);
-					return FileVisitResult.SKIP_SUBTREE;
-				}
-
-				// Check if path is too long (might cause issues)
-				String pathString = file.toString();
-				if (pathString.length() > MAX_PATH_LENGTH) {
-					log.warn("Path too long ({} chars): {}. Skipping and continuing.", pathString.length(), file);
-					return FileVisitResult.SKIP_SUBTREE;
-				}
-
-				// For other IO errors, log and continue
-				log.warn("Error accessing file/directory: {}. Skipping and continuing.", file, exc);
-				return FileVisitResult.SKIP_SUBTREE;
-			}
-		};
-
-		// Walk the directory tree with depth limit
-		// Follow links to allow root symlink (e.g., linked_external) but cycle detection
-		// prevents infinite loops from circular symlinks
-		// All exceptions are handled by visitFileFailed
-		Files.walkFileTree(root, java.util.EnumSet.of(FileVisitOption.FOLLOW_LINKS), MAX_DEPTH, visitor);
-
-		return files;
-	}
-
-	/**
-	 * Check if path is hidden
-	 */
-	private boolean isHidden(Path path) {
-		try {
-			return Files.isHidden(path) || path.getFileName().toString().startsWith(".");
-		}
-		catch (IOException e) {
-			return false;
-		}
-	}
-
-	/**
-	 * Check if file is text file (basic heuristic)
-	 */
-	private boolean isTextFile(Path path) {
-		String fileName = path.getFileName().toString().toLowerCase();
-		return TEXT_FILE_EXTENSIONS.stream().anyMatch(fileName::endsWith);
-	}
-
-	/**
-	 * Compile glob pattern to regex
-	 */
-	private Pattern compileGlobPattern(String glob) {
-		// Convert glob to regex
-		StringBuilder regex = new StringBuilder("^");
-		for (char c : glob.toCharArray()) {
-			switch (c) {
-				case '*':
-					regex.append(".*");
-					break;
-				case '?':
-					regex.append(".");
-					break;
-				case '.':
-					regex.append("\\.");
-					break;
-				default:
-					if (Character.isLetterOrDigit(c) || c == '_' || c == '-') {
-						regex.append(c);
-					}
-					else {
-						regex.append("\\").append(c);
-					}
-			}
-		}
-		regex.append("$");
-		return Pattern.compile(regex.toString());
-	}
-
 	/**
 	 * Maximum number of files to return in searchContent (sorted by match count)
 	 */
 	private static final int MAX_FILES_TO_RETURN = 15;
 
 	/**
-	 * Helper class to store file match information for sorting Can be used by both
-	 * searchContent and searchCount methods
+	 * Format matching lines. Files are sorted by match count (descending) and only the
+	 * top 15 files are returned
 	 */
-	private static class FileMatchInfo {
-
-		Path file;
-
-		List<MatchResult> matches; // Used by searchContent, can be null for searchCount
-
-		int matchCount;
-
-		/**
-		 * Constructor for searchContent: uses matches list to calculate match count
-		 */
-		FileMatchInfo(Path file, List<MatchResult> matches) {
-			this.file = file;
-			this.matches = matches;
-			// Count only match lines (not context lines)
-			this.matchCount = (int) matches.stream().filter(m -> m.isMatchLine).count();
-		}
-
-		/**
-		 * Constructor for searchCount: directly uses match count
-		 */
-		FileMatchInfo(Path file, int matchCount) {
-			this.file = file;
-			this.matches = null;
-			this.matchCount = matchCount;
-		}
-
-	}
-
-	/**
-	 * Search and return content with matches Files are sorted by match count (descending)
-	 * and only top 15 files are returned
-	 */
-	private ToolExecuteResult searchContent(List<Path> files, Pattern pattern, int beforeLines, int afterLines,
-			int maxResults, boolean multiline) {
+	private ToolExecuteResult formatContent(GrepSearchEngine.SearchResult searchResult, int maxResults) {
 		StringBuilder result = new StringBuilder();
-		int totalMatches = 0;
 
 		// Get root plan directory for path conversion
 		Path rootPlanDirectory = null;
@@ -767,29 +370,13 @@ public class EnhancedGrep extends AbstractBaseTool<EnhancedGrep.GrepInput> {
 			rootPlanDirectory = textFileService.getRootPlanDirectory(this.rootPlanId);
 		}
 
-		// First pass: collect all file matches with their match counts
-		List<FileMatchInfo> fileMatches = new ArrayList<>();
-		for (Path file : files) {
-			try {
-				List<MatchResult> matches = searchFile(file, pattern, beforeLines, afterLines, multiline);
-				if (!matches.isEmpty()) {
-					FileMatchInfo fileInfo = new FileMatchInfo(file, matches);
-					fileMatches.add(fileInfo);
-					// Count only match lines (not context lines) for total
-					totalMatches += fileInfo.matchCount;
-				}
-			}
-			catch (IOException e) {
-				log.warn("Error reading file: {}", file, e);
-			}
-		}
-
+		List<GrepSearchEngine.FileMatchInfo> fileMatches = searchResult.fileMatches;
 		if (fileMatches.isEmpty()) {
 			return new ToolExecuteResult("No matches found");
 		}
 
-		// Sort files by match count (descending) - files with more matches first
-		fileMatches.sort((a, b) -> Integer.compare(b.matchCount, a.matchCount));
+		// Count only match lines (not context lines) for total
+		int totalMatches = searchResult.getTotalMatches();
 
 		// Get total number of files with matches
 		int totalFilesWithMatches = fileMatches.size();
@@ -801,7 +388,7 @@ public class EnhancedGrep extends AbstractBaseTool<EnhancedGrep.GrepInput> {
 		// Second pass: output results for top files
 		int outputMatchCount = 0; // Track how many matches we've output (for limiting)
 		for (int i = 0; i < filesToProcess; i++) {
-			FileMatchInfo fileInfo = fileMatches.get(i);
+			GrepSearchEngine.FileMatchInfo fileInfo = fileMatches.get(i);
 			if (outputMatchCount >= maxResults) {
 				result.append(String.format("\n... (output limited to %d results)\n", maxResults));
 				break;
@@ -811,7 +398,7 @@ public class EnhancedGrep extends AbstractBaseTool<EnhancedGrep.GrepInput> {
 			String relativePath = getRelativePath(fileInfo.file, rootPlanDirectory);
 			result.append(relativePath).append("\n");
 
-			for (MatchResult match : fileInfo.matches) {
+			for (GrepSearchEngine.MatchResult match : fileInfo.matches) {
 				if (outputMatchCount >= maxResults)
 					break;
 
@@ -832,6 +419,10 @@ public class EnhancedGrep extends AbstractBaseTool<EnhancedGrep.GrepInput> {
 			result.append("\n");
 		}
 
+		if (searchResult.stoppedEarly) {
+			result.append("Search stopped early after reaching head_limit; more matches may exist\n");
+		}
+
 		// Add summary with file limit information
 		if (hasMoreFiles) {
 			int remainingFiles = totalFilesWithMatches - MAX_FILES_TO_RETURN;
@@ -847,93 +438,11 @@ public class EnhancedGrep extends AbstractBaseTool<EnhancedGrep.GrepInput> {
 	}
 
 	/**
-	 * Search single file and return matches with context
+	 * Format match counts. Files are sorted by match count (descending) and only the top
+	 * 15 files are returned
 	 */
-	private List<MatchResult> searchFile(Path file, Pattern pattern, int beforeLines, int afterLines, boolean multiline)
-			throws IOException {
-		List<MatchResult> results = new ArrayList<>();
-
-		if (multiline) {
-			// Read entire file for multiline matching
-			String content = Files.readString(file);
-			Matcher matcher = pattern.matcher(content);
-
-			// Find all matches and extract their content
-			while (matcher.find()) {
-				String matchedContent = matcher.group();
-				int startPos = matcher.start();
-
-				// Calculate line number from position
-				int lineNumber = 1;
-				for (int i = 0; i < startPos && i < content.length(); i++) {
-					if (content.charAt(i) == '\n') {
-						lineNumber++;
-					}
-				}
-
-				// Replace newlines with \n for display
-				String displayContent = matchedContent.replace("\n", "\\n").replace("\r", "");
-
-				// Use SmartContentSavingService for truncation if rootPlanId is available
-				if (this.rootPlanId != null && !this.rootPlanId.isEmpty()) {
-					SmartContentSavingService.SmartProcessResult processed = textFileService.getInnerStorageService()
-						.processContent(this.rootPlanId, displayContent, "grep_multiline_match");
-					displayContent = processed.getComprehensiveResult();
-				}
-				else {
-					// Fallback truncation if no rootPlanId
-					if (displayContent.length() > 500) {
-						displayContent = displayContent.substring(0, 250) + "...[truncated]..."
-								+ displayContent.substring(displayContent.length() - 200);
-					}
-				}
-
-				results.add(new MatchResult(file.toString(), lineNumber, displayContent, true));
-			}
-		}
-		else {
-			// Line-by-line matching
-			List<String> lines = Files.readAllLines(file);
-			Set<Integer> printedLines = new HashSet<>();
-
-			for (int i = 0; i < lines.size(); i++) {
-				String line = lines.get(i);
-				if (pattern.matcher(line).find()) {
-					// Add context before
-					for (int j = Math.max(0, i - beforeLines); j < i; j++) {
-						if (!printedLines.contains(j)) {
-							results.add(new MatchResult(file.toString(), j + 1, lines.get(j), false));
-							printedLines.add(j);
-						}
-					}
-
-					// Add match line
-					if (!printedLines.contains(i)) {
-						results.add(new MatchResult(file.toString(), i + 1, line, true));
-						printedLines.add(i);
-					}
-
-					// Add context after
-					for (int j = i + 1; j <= Math.min(lines.size() - 1, i + afterLines); j++) {
-						if (!printedLines.contains(j)) {
-							results.add(new MatchResult(file.toString(), j + 1, lines.get(j), false));
-							printedLines.add(j);
-						}
-					}
-				}
-			}
-		}
-
-		return results;
-	}
-
-	/**
-	 * Search and return match counts Files are sorted by match count (descending) and
-	 * only top 15 files are returned
-	 */
-	private ToolExecuteResult searchCount(List<Path> files, Pattern pattern, int maxResults, boolean multiline) {
+	private ToolExecuteResult formatCount(GrepSearchEngine.SearchResult searchResult) {
 		StringBuilder result = new StringBuilder();
-		int totalMatches = 0;
 
 		// Get root plan directory for path conversion
 		Path rootPlanDirectory = null;
@@ -941,27 +450,12 @@ public class EnhancedGrep extends AbstractBaseTool<EnhancedGrep.GrepInput> {
 			rootPlanDirectory = textFileService.getRootPlanDirectory(this.rootPlanId);
 		}
 
-		// First pass: collect all file matches with their match counts
-		List<FileMatchInfo> fileMatches = new ArrayList<>();
-		for (Path file : files) {
-			try {
-				int count = countMatches(file, pattern, multiline);
-				if (count > 0) {
-					fileMatches.add(new FileMatchInfo(file, count));
-					totalMatches += count;
-				}
-			}
-			catch (IOException e) {
-				log.warn("Error reading file: {}", file, e);
-			}
-		}
-
+		List<GrepSearchEngine.FileMatchInfo> fileMatches = searchResult.fileMatches;
 		if (fileMatches.isEmpty()) {
 			return new ToolExecuteResult("No matches found");
 		}
 
-		// Sort files by match count (descending) - files with more matches first
-		fileMatches.sort((a, b) -> Integer.compare(b.matchCount, a.matchCount));
+		int totalMatches = searchResult.getTotalMatches();
 
 		// Get total number of files with matches
 		int totalFilesWithMatches = fileMatches.size();
@@ -972,7 +466,7 @@ public class EnhancedGrep extends AbstractBaseTool<EnhancedGrep.GrepInput> {
 
 		// Second pass: output results for top files
 		for (int i = 0; i < filesToProcess; i++) {
-			FileMatchInfo fileInfo = fileMatches.get(i);
+			GrepSearchEngine.FileMatchInfo fileInfo = fileMatches.get(i);
 			// Convert absolute path to relative path
 			String relativePath = getRelativePath(fileInfo.file, rootPlanDirectory);
 			result.append(String.format("%s: %d\n", relativePath, fileInfo.matchCount));
@@ -1015,31 +509,21 @@ public class EnhancedGrep extends AbstractBaseTool<EnhancedGrep.GrepInput> {
 	}
 
 	/**
-	 * Count matches in a file
+	 * Convert a multiline match to its display form
 	 */
-	private int countMatches(Path file, Pattern pattern, boolean multiline) throws IOException {
-		if (multiline) {
-			String content = Files.readString(file);
-			Matcher matcher = pattern.matcher(content);
-			int count = 0;
-			while (matcher.find()) {
-				count++;
-			}
-			return count;
+	private String formatMultilineMatch(String displayContent) {
+		// Use SmartContentSavingService for truncation if rootPlanId is available
+		if (this.rootPlanId != null && !this.rootPlanId.isEmpty()) {
+			SmartContentSavingService.SmartProcessResult processed = textFileService.getInnerStorageService()
+				.processContent(this.rootPlanId, displayContent, "grep_multiline_match");
+			return processed.getComprehensiveResult();
 		}
-		else {
-			int count = 0;
-			try (BufferedReader reader = Files.newBufferedReader(file)) {
-				String line;
-				while ((line = reader.readLine()) != null) {
-					Matcher matcher = pattern.matcher(line);
-					while (matcher.find()) {
-						count++;
-					}
-				}
-			}
-			return count;
+		// Fallback truncation if no rootPlanId
+		if (displayContent.length() > 500) {
+			return displayContent.substring(0, 250) + "...[truncated]..."
+					+ displayContent.substring(displayContent.length() - 200);
 		}
+		return displayContent;
 	}
 
 	@Override
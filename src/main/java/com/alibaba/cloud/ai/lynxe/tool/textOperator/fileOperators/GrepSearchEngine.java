@@ -0,0 +1,799 @@
+/*
+ * Copyright 2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.lynxe.tool.textOperator.fileOperators;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Phaser;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.UnaryOperator;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.alibaba.cloud.ai.lynxe.config.LynxeProperties;
+import com.alibaba.cloud.ai.lynxe.tool.filesystem.WorkspaceFileIndex;
+import com.alibaba.cloud.ai.lynxe.tool.filesystem.WorkspaceFileIndexService;
+
+/**
+ * Content search engine shared by {@link EnhancedGrep} and
+ * {@link EnhanceExternalLinkGrep}.
+ *
+ * Candidate files come from the {@link WorkspaceFileIndexService}, so repeated searches
+ * only list directories that changed. The calling thread hands every accepted file to a
+ * bounded worker pool. When the pool queue is full the calling thread searches the file
+ * itself, which keeps memory bounded on very large trees. Files are streamed line by
+ * line; if the pattern contains a literal that every match must include, lines without it
+ * are rejected with {@link String#indexOf(String)} before the regex runs.
+ */
+final class GrepSearchEngine {
+
+	private static final Logger log = LoggerFactory.getLogger(GrepSearchEngine.class);
+
+	/**
+	 * Predefined file type mappings (similar to ripgrep)
+	 */
+	static final Map<String, List<String>> FILE_TYPE_EXTENSIONS = new HashMap<>();
+	static {
+		FILE_TYPE_EXTENSIONS.put("java", List.of(".java"));
+		FILE_TYPE_EXTENSIONS.put("py", List.of(".py"));
+		FILE_TYPE_EXTENSIONS.put("js", List.of(".js", ".jsx"));
+		FILE_TYPE_EXTENSIONS.put("ts", List.of(".ts", ".tsx"));
+		FILE_TYPE_EXTENSIONS.put("rust", List.of(".rs"));
+		FILE_TYPE_EXTENSIONS.put("go", List.of(".go"));
+		FILE_TYPE_EXTENSIONS.put("cpp", List.of(".cpp", ".cc", ".cxx", ".c", ".h", ".hpp"));
+		FILE_TYPE_EXTENSIONS.put("md", List.of(".md", ".markdown"));
+		FILE_TYPE_EXTENSIONS.put("json", List.of(".json"));
+		FILE_TYPE_EXTENSIONS.put("xml", List.of(".xml"));
+		FILE_TYPE_EXTENSIONS.put("yaml", List.of(".yaml", ".yml"));
+		FILE_TYPE_EXTENSIONS.put("sql", List.of(".sql"));
+		FILE_TYPE_EXTENSIONS.put("sh", List.of(".sh", ".bash"));
+		FILE_TYPE_EXTENSIONS.put("css", List.of(".css", ".scss", ".sass", ".less"));
+		FILE_TYPE_EXTENSIONS.put("html", List.of(".html", ".htm"));
+		FILE_TYPE_EXTENSIONS.put("vue", List.of(".vue"));
+		FILE_TYPE_EXTENSIONS.put("txt", List.of(".txt"));
+		FILE_TYPE_EXTENSIONS.put("properties", List.of(".properties"));
+		FILE_TYPE_EXTENSIONS.put("log", List.of(".log"));
+		FILE_TYPE_EXTENSIONS.put("conf", List.of(".conf"));
+	}
+
+	/**
+	 * Unified set of all text file extensions (derived from FILE_TYPE_EXTENSIONS)
+	 */
+	private static final Set<String> TEXT_FILE_EXTENSIONS = new HashSet<>();
+	static {
+		FILE_TYPE_EXTENSIONS.values().forEach(TEXT_FILE_EXTENSIONS::addAll);
+	}
+
+	private static final int SEARCH_THREADS = Math.max(2, Math.min(8, Runtime.getRuntime().availableProcessors()));
+
+	/**
+	 * Worker pool shared by all grep tools. Files beyond the queue capacity are searched
+	 * by the calling thread (caller runs), which throttles submission.
+	 */
+	private static final ThreadPoolExecutor SEARCH_EXECUTOR = createSearchExecutor();
+
+	private final WorkspaceFileIndexService workspaceFileIndexService;
+
+	private final LynxeProperties lynxeProperties;
+
+	GrepSearchEngine(WorkspaceFileIndexService workspaceFileIndexService, LynxeProperties lynxeProperties) {
+		this.workspaceFileIndexService = workspaceFileIndexService;
+		this.lynxeProperties = lynxeProperties;
+	}
+
+	private static ThreadPoolExecutor createSearchExecutor() {
+		ThreadFactory threadFactory = new ThreadFactory() {
+			private final AtomicInteger threadCounter = new AtomicInteger(1);
+
+			@Override
+			public Thread newThread(Runnable r) {
+				Thread thread = new Thread(r, "grep-search-thread-" + threadCounter.getAndIncrement());
+				thread.setDaemon(true);
+				return thread;
+			}
+		};
+		ThreadPoolExecutor executor = new ThreadPoolExecutor(SEARCH_THREADS, SEARCH_THREADS, 60L, TimeUnit.SECONDS,
+				new LinkedBlockingQueue<>(SEARCH_THREADS * 64), threadFactory,
+				new ThreadPoolExecutor.CallerRunsPolicy());
+		executor.allowCoreThreadTimeOut(true);
+		return executor;
+	}
+
+	/**
+	 * Match result for a single line
+	 */
+	static class MatchResult {
+
+		final int lineNumber;
+
+		final String lineContent;
+
+		final boolean isMatchLine; // true for match, false for context
+
+		MatchResult(int lineNumber, String lineContent, boolean isMatchLine) {
+			this.lineNumber = lineNumber;
+			this.lineContent = lineContent;
+			this.isMatchLine = isMatchLine;
+		}
+
+	}
+
+	/**
+	 * Matches found in one file
+	 */
+	static class FileMatchInfo {
+
+		final Path file;
+
+		final List<MatchResult> matches; // null in count mode
+
+		final int matchCount;
+
+		FileMatchInfo(Path file, List<MatchResult> matches, int matchCount) {
+			this.file = file;
+			this.matches = matches;
+			this.matchCount = matchCount;
+		}
+
+	}
+
+	/**
+	 * Outcome of a search
+	 */
+	static class SearchResult {
+
+		/**
+		 * Files with at least one match, sorted by match count (descending)
+		 */
+		final List<FileMatchInfo> fileMatches;
+
+		final int filesSearched;
+
+		/**
+		 * True if the search ended before all files were scanned because the match limit
+		 * was reached
+		 */
+		final boolean stoppedEarly;
+
+		SearchResult(List<FileMatchInfo> fileMatches, int filesSearched, boolean stoppedEarly) {
+			this.fileMatches = fileMatches;
+			this.filesSearched = filesSearched;
+			this.stoppedEarly = stoppedEarly;
+		}
+
+		int getTotalMatches() {
+			return fileMatches.stream().mapToInt(f -> f.matchCount).sum();
+		}
+
+	}
+
+	/**
+	 * Search parameters and shared progress of one search
+	 */
+	private static class SearchState {
+
+		final Pattern pattern;
+
+		final List<String> requiredLiterals;
+
+		final boolean multiline;
+
+		final boolean countOnly;
+
+		final int beforeLines;
+
+		final int afterLines;
+
+		final int matchLimit;
+
+		final UnaryOperator<String> multilineFormatter;
+
+		final ConcurrentLinkedQueue<FileMatchInfo> results = new ConcurrentLinkedQueue<>();
+
+		final AtomicInteger matchLines = new AtomicInteger(0);
+
+		volatile boolean stopped;
+
+		SearchState(Pattern pattern, boolean multiline, boolean countOnly, int beforeLines, int afterLines,
+				int matchLimit, UnaryOperator<String> multilineFormatter) {
+			this.pattern = pattern;
+			this.requiredLiterals = (pattern.flags() & Pattern.CASE_INSENSITIVE) == 0
+					? requiredLiterals(pattern.pattern()) : null;
+			this.multiline = multiline;
+			this.countOnly = countOnly;
+			this.beforeLines = beforeLines;
+			this.afterLines = afterLines;
+			this.matchLimit = matchLimit;
+			this.multilineFormatter = multilineFormatter;
+		}
+
+		boolean mayMatch(String text) {
+			if (requiredLiterals == null) {
+				return true;
+			}
+			for (String literal : requiredLiterals) {
+				if (text.contains(literal)) {
+					return true;
+				}
+			}
+			return false;
+		}
+
+		/**
+		 * Record a match line
+		 * @return true if the match limit has been reached
+		 */
+		boolean recordMatch() {
+			if (matchLines.incrementAndGet() >= matchLimit) {
+				stopped = true;
+			}
+			return stopped;
+		}
+
+	}
+
+	/**
+	 * Search all files under a root
+	 * @param root Directory (or file) to search
+	 * @param glob Optional file name glob
+	 * @param type Optional file type (see {@link #FILE_TYPE_EXTENSIONS})
+	 * @param pattern Compiled search pattern
+	 * @param multiline Match against the whole file content instead of line by line
+	 * @param countOnly Only count matches, do not collect lines
+	 * @param beforeLines Context lines before each match
+	 * @param afterLines Context lines after each match
+	 * @param matchLimit Stop scanning once this many match lines have been found
+	 * @param multilineFormatter Converts a multiline match to its display form
+	 * @return Matches sorted by match count (descending)
+	 * @throws IOException If the root cannot be listed or the search is interrupted
+	 */
+	SearchResult search(Path root, String glob, String type, Pattern pattern, boolean multiline, boolean countOnly,
+			int beforeLines, int afterLines, int matchLimit, UnaryOperator<String> multilineFormatter)
+			throws IOException {
+		SearchState state = new SearchState(pattern, multiline, countOnly, beforeLines, afterLines, matchLimit,
+				multilineFormatter);
+		Phaser pending = new Phaser(1);
+		AtomicInteger filesSearched = new AtomicInteger(0);
+		try {
+			collectFiles(root, glob, type, state, file -> {
+				filesSearched.incrementAndGet();
+				pending.register();
+				Runnable task = () -> {
+					try {
+						if (!state.stopped) {
+							searchFile(file, state);
+						}
+					}
+					finally {
+						pending.arriveAndDeregister();
+					}
+				};
+				try {
+					SEARCH_EXECUTOR.execute(task);
+				}
+				catch (RejectedExecutionException e) {
+					task.run();
+				}
+			});
+		}
+		finally {
+			try {
+				pending.awaitAdvanceInterruptibly(pending.arrive());
+			}
+			catch (InterruptedException e) {
+				state.stopped = true;
+				Thread.currentThread().interrupt();
+				throw new IOException("Search interrupted", e);
+			}
+		}
+
+		List<FileMatchInfo> fileMatches = new ArrayList<>(state.results);
+		// Files with more matches first; path keeps the order stable across runs
+		fileMatches.sort(Comparator.comparingInt((FileMatchInfo f) -> f.matchCount)
+			.reversed()
+			.thenComparing(f -> f.file.toString()));
+		return new SearchResult(fileMatches, filesSearched.get(), state.stopped);
+	}
+
+	private void searchFile(Path file, SearchState state) {
+		try {
+			if (state.multiline) {
+				searchFileMultiline(file, state);
+			}
+			else {
+				searchFileByLine(file, state);
+			}
+		}
+		catch (IOException e) {
+			log.warn("Error reading file: {}", file, e);
+		}
+	}
+
+	/**
+	 * Stream a file line by line, keeping only the lines needed for context
+	 */
+	private void searchFileByLine(Path file, SearchState state) throws IOException {
+		List<MatchResult> results = state.countOnly ? null : new ArrayList<>();
+		ArrayDeque<MatchResult> beforeBuffer = new ArrayDeque<>();
+		Matcher matcher = state.pattern.matcher("");
+		int matchCount = 0;
+		int afterRemaining = 0;
+		boolean limitReached = false;
+
+		try (BufferedReader reader = Files.newBufferedReader(file)) {
+			String line;
+			int lineNumber = 0;
+			while ((line = reader.readLine()) != null) {
+				lineNumber++;
+				boolean isMatch = false;
+				if (state.mayMatch(line)) {
+					matcher.reset(line);
+					if (state.countOnly) {
+						while (matcher.find()) {
+							matchCount++;
+						}
+						continue;
+					}
+					isMatch = matcher.find();
+				}
+				else if (state.countOnly) {
+					continue;
+				}
+
+				if (isMatch) {
+					// Context before: buffered lines are never printed yet
+					results.addAll(beforeBuffer);
+					beforeBuffer.clear();
+					results.add(new MatchResult(lineNumber, line, true));
+					matchCount++;
+					afterRemaining = state.afterLines;
+					limitReached = state.recordMatch();
+				}
+				else if (afterRemaining > 0) {
+					results.add(new MatchResult(lineNumber, line, false));
+					afterRemaining--;
+				}
+				else if (state.beforeLines > 0) {
+					beforeBuffer.addLast(new MatchResult(lineNumber, line, false));
+					if (beforeBuffer.size() > state.beforeLines) {
+						beforeBuffer.removeFirst();
+					}
+				}
+
+				if (afterRemaining == 0 && (limitReached || state.stopped)) {
+					break;
+				}
+			}
+		}
+
+		if (matchCount > 0) {
+			state.results.add(new FileMatchInfo(file, results, matchCount));
+		}
+	}
+
+	/**
+	 * Match against the whole file content (. matches newlines)
+	 */
+	private void searchFileMultiline(Path file, SearchState state) throws IOException {
+		String content = Files.readString(file);
+		if (!state.mayMatch(content)) {
+			return;
+		}
+		Matcher matcher = state.pattern.matcher(content);
+		List<MatchResult> results = state.countOnly ? null : new ArrayList<>();
+		int matchCount = 0;
+		int lineNumber = 1;
+		int scannedTo = 0;
+		while (matcher.find()) {
+			matchCount++;
+			if (state.countOnly) {
+				continue;
+			}
+			// Line number of the match start, counted incrementally from the last match
+			int startPos = matcher.start();
+			for (; scannedTo < startPos; scannedTo++) {
+				if (content.charAt(scannedTo) == '\n') {
+					lineNumber++;
+				}
+			}
+			// Replace newlines with \n for display
+			String displayContent = matcher.group().replace("\n", "\\n").replace("\r", "");
+			results.add(new MatchResult(lineNumber, state.multilineFormatter.apply(displayContent), true));
+			if (state.recordMatch()) {
+				break;
+			}
+		}
+		if (matchCount > 0) {
+			state.results.add(new FileMatchInfo(file, results, matchCount));
+		}
+	}
+
+	/**
+	 * List the files under root and pass every file that passes the filters to the
+	 * consumer
+	 */
+	private void collectFiles(Path root, String glob, String type, SearchState state, Consumer<Path> consumer)
+			throws IOException {
+		// Determine file filter
+		Set<String> extensions = new HashSet<>();
+		if (type != null && FILE_TYPE_EXTENSIONS.containsKey(type.toLowerCase())) {
+			extensions.addAll(FILE_TYPE_EXTENSIONS.get(type.toLowerCase()));
+		}
+
+		// Convert glob to pattern
+		Pattern globPattern = null;
+		if (glob != null && !glob.isEmpty()) {
+			globPattern = compileGlobPattern(glob);
+		}
+		Pattern finalGlobPattern = globPattern;
+
+		// Ignore rules are applied by the file index when respectGitIgnore is enabled
+		boolean respectGitIgnore = lynxeProperties.getRespectGitIgnore() != null
+				&& lynxeProperties.getRespectGitIgnore();
+		Path ignoreRootPath = determineIgnoreRootPath(root);
+
+		// A single file is searched directly
+		if (Files.isRegularFile(root)) {
+			if (acceptFile(root.getFileName().toString(), extensions, finalGlobPattern) && !isHidden(root)) {
+				consumer.accept(root);
+			}
+			return;
+		}
+
+		// Files come from the workspace index, which follows the root symlink (e.g.,
+		// linked_external) but no symlinks below it, and applies ignore rules
+		Path rootRealPath;
+		try {
+			rootRealPath = root.toRealPath();
+		}
+		catch (IOException e) {
+			rootRealPath = root.toAbsolutePath().normalize();
+		}
+		List<WorkspaceFileIndex.IndexedFile> files = workspaceFileIndexService.listFiles(rootRealPath, ignoreRootPath,
+				respectGitIgnore);
+		for (WorkspaceFileIndex.IndexedFile file : files) {
+			if (state.stopped) {
+				return;
+			}
+			String fileName = file.getFileName();
+			// Skip hidden files
+			if (fileName.startsWith(".")) {
+				continue;
+			}
+			if (acceptFile(fileName, extensions, finalGlobPattern)) {
+				// Resolve against the requested root so callers can relativize results
+				consumer.accept(file.resolveAgainst(root));
+			}
+		}
+	}
+
+	/**
+	 * Apply the type, glob and default text file filters to a file name
+	 */
+	private boolean acceptFile(String fileName, Set<String> extensions, Pattern globPattern) {
+		// Apply type filter
+		if (!extensions.isEmpty() && extensions.stream().noneMatch(fileName::endsWith)) {
+			return false;
+		}
+
+		// Apply glob filter
+		if (globPattern != null && !globPattern.matcher(fileName).matches()) {
+			return false;
+		}
+
+		// Default: include text files only
+		return !extensions.isEmpty() || globPattern != null || isTextFile(fileName);
+	}
+
+	/**
+	 * Determine the root path for ignore file matching. If searching within
+	 * linked_external, use the actual external folder root. Otherwise, use the search
+	 * root.
+	 * @param searchRoot The search root path
+	 * @return Root path for ignore file matching
+	 */
+	private Path determineIgnoreRootPath(Path searchRoot) {
+		if (searchRoot == null) {
+			return null;
+		}
+
+		try {
+			Path normalized = searchRoot.toAbsolutePath().normalize();
+			String pathString = normalized.toString();
+
+			// Check if we're searching within linked_external directory
+			if (pathString.contains("linked_external")) {
+				Path current = normalized;
+				while (current != null && current.getNameCount() > 0) {
+					if ("linked_external".equals(current.getFileName().toString())) {
+						// This is the linked_external symlink, use its target as the
+						// ignore root
+						try {
+							Path realPath = current.toRealPath();
+							log.debug("Using external folder root for ignore patterns: {}", realPath);
+							return realPath;
+						}
+						catch (IOException e) {
+							log.debug("Could not resolve real path for linked_external, using as-is: {}", current, e);
+							return current;
+						}
+					}
+					current = current.getParent();
+				}
+			}
+
+			// Default: use search root
+			return normalized;
+		}
+		catch (Exception e) {
+			log.warn("Error determining ignore root path, using search root: {}", searchRoot, e);
+			return searchRoot;
+		}
+	}
+
+	/**
+	 * Check if path is hidden
+	 */
+	private boolean isHidden(Path path) {
+		try {
+			return Files.isHidden(path) || path.getFileName().toString().startsWith(".");
+		}
+		catch (IOException e) {
+			return false;
+		}
+	}
+
+	/**
+	 * Check if file is text file (basic heuristic)
+	 */
+	private boolean isTextFile(String fileName) {
+		String lowerCaseName = fileName.toLowerCase();
+		return TEXT_FILE_EXTENSIONS.stream().anyMatch(lowerCaseName::endsWith);
+	}
+
+	/**
+	 * Compile glob pattern to regex
+	 */
+	private Pattern compileGlobPattern(String glob) {
+		StringBuilder regex = new StringBuilder("^");
+		for (char c : glob.toCharArray()) {
+			switch (c) {
+				case '*':
+					regex.append(".*");
+					break;
+				case '?':
+					regex.append(".");
+					break;
+				case '.':
+					regex.append("\\.");
+					break;
+				default:
+					if (Character.isLetterOrDigit(c) || c == '_' || c == '-') {
+						regex.append(c);
+					}
+					else {
+						regex.append("\\").append(c);
+					}
+			}
+		}
+		regex.append("$");
+		return Pattern.compile(regex.toString());
+	}
+
+	/**
+	 * Extract literals of which every match contains at least one. Handles plain
+	 * literals, alternations of plain literals, and the longest mandatory literal run of
+	 * a simple concatenation. Returns null when no safe literal can be derived (inline
+	 * flags, quoting, escapes with arguments, ...), in which case every line goes to the
+	 * regex.
+	 * @param regex Pattern source
+	 * @return Required literals (any of), or null
+	 */
+	static List<String> requiredLiterals(String regex) {
+		if (regex.isEmpty() || regex.contains("(?") || regex.contains("\\Q")) {
+			return null;
+		}
+
+		// Top-level alternation of plain literals, e.g. "Repository|Service|Controller"
+		if (regex.indexOf('|') >= 0) {
+			List<String> alternatives = new ArrayList<>();
+			for (String alternative : regex.split("\\|", -1)) {
+				if (alternative.isEmpty() || !isPlainLiteral(alternative)) {
+					return null;
+				}
+				alternatives.add(alternative);
+			}
+			return alternatives;
+		}
+
+		String best = "";
+		StringBuilder run = new StringBuilder();
+		boolean lastAtomLiteral = false;
+		for (int i = 0; i < regex.length(); i++) {
+			char c = regex.charAt(i);
+			switch (c) {
+				case '\\' -> {
+					if (i + 1 >= regex.length()) {
+						return null;
+					}
+					char escaped = regex.charAt(++i);
+					if (Character.isLetterOrDigit(escaped)) {
+						if ("dDwWsSbBnrtfaeAzZGRhHvVX".indexOf(escaped) < 0) {
+							// Escapes with arguments (\x41, \p{Lu}, \1, ...)
+							return null;
+						}
+						best = longer(best, run);
+						run.setLength(0);
+						lastAtomLiteral = false;
+					}
+					else {
+						run.append(escaped);
+						lastAtomLiteral = true;
+					}
+				}
+				case '*', '?', '{' -> {
+					// The preceding atom is optional or repeated
+					if (lastAtomLiteral && run.length() > 0) {
+						run.setLength(run.length() - 1);
+					}
+					best = longer(best, run);
+					run.setLength(0);
+					lastAtomLiteral = false;
+					if (c == '{') {
+						int close = regex.indexOf('}', i);
+						if (close < 0) {
+							return null;
+						}
+						i = close;
+					}
+					i = skipQuantifierModifier(regex, i);
+				}
+				case '+' -> {
+					// Preceding atom appears at least once but may repeat
+					best = longer(best, run);
+					run.setLength(0);
+					lastAtomLiteral = false;
+					i = skipQuantifierModifier(regex, i);
+				}
+				case '[' -> {
+					best = longer(best, run);
+					run.setLength(0);
+					lastAtomLiteral = false;
+					i = skipCharacterClass(regex, i);
+					if (i < 0) {
+						return null;
+					}
+				}
+				case '(' -> {
+					best = longer(best, run);
+					run.setLength(0);
+					lastAtomLiteral = false;
+					i = skipGroup(regex, i);
+					if (i < 0) {
+						return null;
+					}
+				}
+				case '.', '^', '$', ')' -> {
+					best = longer(best, run);
+					run.setLength(0);
+					lastAtomLiteral = false;
+				}
+				default -> {
+					run.append(c);
+					lastAtomLiteral = true;
+				}
+			}
+		}
+		best = longer(best, run);
+		return best.isEmpty() ? null : List.of(best);
+	}
+
+	private static boolean isPlainLiteral(String text) {
+		for (int i = 0; i < text.length(); i++) {
+			if ("\\.[]{}()*+?^$|".indexOf(text.charAt(i)) >= 0) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static String longer(String best, StringBuilder run) {
+		return run.length() > best.length() ? run.toString() : best;
+	}
+
+	/**
+	 * Skip a lazy (?) or possessive (+) modifier following a quantifier
+	 */
+	private static int skipQuantifierModifier(String regex, int i) {
+		if (i + 1 < regex.length() && (regex.charAt(i + 1) == '?' || regex.charAt(i + 1) == '+')) {
+			return i + 1;
+		}
+		return i;
+	}
+
+	/**
+	 * @return Index of the closing bracket, or -1 if the class is nested or unterminated
+	 */
+	private static int skipCharacterClass(String regex, int open) {
+		int i = open + 1;
+		if (i < regex.length() && regex.charAt(i) == '^') {
+			i++;
+		}
+		if (i < regex.length() && regex.charAt(i) == ']') {
+			i++;
+		}
+		for (; i < regex.length(); i++) {
+			char c = regex.charAt(i);
+			if (c == '\\') {
+				i++;
+			}
+			else if (c == '[') {
+				return -1;
+			}
+			else if (c == ']') {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * @return Index of the matching closing parenthesis, or -1
+	 */
+	private static int skipGroup(String regex, int open) {
+		int depth = 0;
+		for (int i = open; i < regex.length(); i++) {
+			char c = regex.charAt(i);
+			if (c == '\\') {
+				i++;
+			}
+			else if (c == '[') {
+				i = skipCharacterClass(regex, i);
+				if (i < 0) {
+					return -1;
+				}
+			}
+			else if (c == '(') {
+				depth++;
+			}
+			else if (c == ')' && --depth == 0) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+}
@@ -27,6 +27,7 @@ import org.slf4j.LoggerFactory;
 import com.alibaba.cloud.ai.lynxe.tool.AbstractBaseTool;
 import com.alibaba.cloud.ai.lynxe.tool.ToolStateInfo;
 import com.alibaba.cloud.ai.lynxe.tool.code.ToolExecuteResult;
+import com.alibaba.cloud.ai.lynxe.tool.filesystem.FileLineIndex;
 import com.alibaba.cloud.ai.lynxe.tool.filesystem.SmartContentSavingService;
 import com.alibaba.cloud.ai.lynxe.tool.filesystem.TextFileService;
 import com.alibaba.cloud.ai.lynxe.tool.filesystem.UnifiedDirectoryManager;
@@ -320,10 +321,13 @@ public class ReadFileOperator extends AbstractBaseTool<ReadFileOperator.ReadFile
 				return new ToolExecuteResult("Error: Cannot read directory as file. Path is a directory: " + filePath);
 			}
 
-			java.util.List<String> lines = Files.readAllLines(absolutePath);
+			// Line offsets come from a cached index so only the requested window is
+			// decoded
+			FileLineIndex lineIndex = textFileService.getLineIndex(absolutePath);
+			int lineCount = lineIndex.getLineCount();
 
 			// Handle empty file
-			if (lines.isEmpty()) {
+			if (lineCount == 0) {
 				return new ToolExecuteResult("File is empty.");
 			}
 
@@ -333,31 +337,30 @@ public class ReadFileOperator extends AbstractBaseTool<ReadFileOperator.ReadFile
 			boolean isFullRead = (offset == null && limit == null);
 			boolean shouldBypassLimit = (bypassLimit != null && bypassLimit);
 			int maxLinesForFullRead = textFileService.getLynxeProperties().getMaxLinesForFullRead();
-			if (isFullRead && !shouldBypassLimit && lines.size() > maxLinesForFullRead) {
-				// Calculate character count from lines
-				long charCount = lines.stream().mapToLong(String::length).sum() + lines.size();
+			if (isFullRead && !shouldBypassLimit && lineCount > maxLinesForFullRead) {
+				// Character count of the lines plus one newline per line
+				long charCount = lineIndex.getCharCountWithoutNewlines() + lineCount;
 				return new ToolExecuteResult(String
 					.format("File is too large (%d lines, %d characters, exceeds limit of %d lines). "
 							+ "Please use one of the following approaches:\n"
 							+ "1. Use offset and limit parameters to read specific line ranges (e.g., offset=1, limit=100)\n"
 							+ "2. Use search functionality to find relevant sections\n"
 							+ "3. Set bypass_limit=true to read the entire file (use with caution for very large files)\n\n"
-							+ "Example: Read first 100 lines with offset=1, limit=100", lines.size(), charCount,
+							+ "Example: Read first 100 lines with offset=1, limit=100", lineCount, charCount,
 							maxLinesForFullRead));
 			}
 
 			// Determine read range
 			int startIndex = 0;
-			int endIndex = lines.size();
+			int endIndex = lineCount;
 
 			if (offset != null) {
 				// Validate offset (1-based, must be >= 1)
 				if (offset < 1) {
 					return new ToolExecuteResult("Error: offset must be >= 1 (line numbers start from 1)");
 				}
-				if (offset > lines.size()) {
-					return new ToolExecuteResult(
-							"Error: offset exceeds file range (file has " + lines.size() + " lines)");
+				if (offset > lineCount) {
+					return new ToolExecuteResult("Error: offset exceeds file range (file has " + lineCount + " lines)");
 				}
 				startIndex = offset - 1; // Convert to 0-based index
 			}
@@ -367,14 +370,15 @@ public class ReadFileOperator extends AbstractBaseTool<ReadFileOperator.ReadFile
 				if (limit < 1) {
 					return new ToolExecuteResult("Error: limit must be >= 1");
 				}
-				endIndex = Math.min(startIndex + limit, lines.size());
+				endIndex = Math.min(startIndex + limit, lineCount);
 			}
 
 			// Build result with format: LINE_NUMBER|LINE_CONTENT
 			// Line numbers are right-aligned and padded to 6 characters
+			java.util.List<String> lines = lineIndex.readLines(absolutePath, startIndex, endIndex - startIndex);
 			StringBuilder result = new StringBuilder();
-			for (int i = startIndex; i < endIndex; i++) {
-				int lineNumber = i + 1; // 1-based line number
+			for (int i = 0; i < lines.size(); i++) {
+				int lineNumber = startIndex + i + 1; // 1-based line number
 				String line = lines.get(i);
 				// Format: right-aligned 6-character line number, then |, then content
 				result.append(String.format("%6d|%s\n", lineNumber, line));
@@ -18,7 +18,6 @@ package com.alibaba.cloud.ai.lynxe.tool.textOperator.fileOperators;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.util.ArrayList;
 import java.util.List;
 
 import org.slf4j.Logger;
@@ -60,6 +59,11 @@ public class SplitFileTool extends AbstractBaseTool<SplitFileTool.SplitFileInput
 		@com.fasterxml.jackson.annotation.JsonProperty("split_count")
 		private Integer splitCount;
 
+		@com.fasterxml.jackson.annotation.JsonProperty("split_by")
+		private String splitBy;
+
+		private Boolean manifest;
+
 		// Getters and setters
 		public String getFilePath() {
 			return filePath;
@@ -85,6 +89,22 @@ public class SplitFileTool extends AbstractBaseTool<SplitFileTool.SplitFileInput
 			this.splitCount = splitCount;
 		}
 
+		public String getSplitBy() {
+			return splitBy;
+		}
+
+		public void setSplitBy(String splitBy) {
+			this.splitBy = splitBy;
+		}
+
+		public Boolean getManifest() {
+			return manifest;
+		}
+
+		public void setManifest(Boolean manifest) {
+			this.manifest = manifest;
+		}
+
 	}
 
 	private final TextFileService textFileService;
@@ -117,7 +137,15 @@ public class SplitFileTool extends AbstractBaseTool<SplitFileTool.SplitFileInput
 			// Use provided splitCount or default value
 			int actualSplitCount = (splitCount != null) ? splitCount : DEFAULT_SPLIT_COUNT;
 
-			return splitFile(filePath, header, actualSplitCount);
+			// Split by lines unless bytes are requested
+			String splitBy = input.getSplitBy();
+			boolean splitByBytes = splitBy != null && "bytes".equalsIgnoreCase(splitBy.trim());
+			if (splitBy != null && !splitByBytes && !"lines".equalsIgnoreCase(splitBy.trim())) {
+				return new ToolExecuteResult("Error: split_by must be 'lines' or 'bytes'");
+			}
+
+			return splitFile(filePath, header, actualSplitCount, splitByBytes,
+					Boolean.TRUE.equals(input.getManifest()));
 		}
 		catch (Exception e) {
 			log.error("SplitFileTool execution failed", e);
@@ -221,85 +249,60 @@ public class SplitFileTool extends AbstractBaseTool<SplitFileTool.SplitFileInput
 	/**
 	 * Split file into multiple pieces
 	 */
-	private ToolExecuteResult splitFile(String filePath, String header, int splitCount) {
+	private ToolExecuteResult splitFile(String filePath, String header, int splitCount, boolean splitByBytes,
+			boolean writeManifest) {
 		try {
 			Path sourceFile = validateFilePath(filePath);
 
-			// Read all lines from the source file
-			List<String> allLines = Files.readAllLines(sourceFile);
-			if (allLines.isEmpty()) {
+			// Count lines (or take the size) first, then stream each piece to disk
+			long total = splitByBytes ? Files.size(sourceFile)
+					: textFileService.getLineIndex(sourceFile).getLineCount();
+			if (total == 0) {
 				return new ToolExecuteResult("Error: File is empty, cannot split");
 			}
 
-			int totalLines = allLines.size();
-			int linesPerPiece = totalLines / splitCount;
-			int remainder = totalLines % splitCount;
-
 			// Prepare header (add newline if not empty)
 			String headerContent = (header != null && !header.trim().isEmpty()) ? header.trim() + "\n" : "";
-
-			// Get file name and extension
 			String fileName = sourceFile.getFileName().toString();
-			int lastDotIndex = fileName.lastIndexOf('.');
-			String baseName = (lastDotIndex > 0) ? fileName.substring(0, lastDotIndex) : fileName;
-			String extension = (lastDotIndex > 0) ? fileName.substring(lastDotIndex) : "";
-
-			// Get parent directory for output files
-			Path parentDir = sourceFile.getParent();
-
-			List<String> createdFiles = new ArrayList<>();
-			int currentLineIndex = 0;
-
-			// Split into splitCount pieces
-			for (int i = 0; i < splitCount; i++) {
-				// Calculate lines for this piece (distribute remainder evenly)
-				int pieceSize = linesPerPiece + (i < remainder ? 1 : 0);
-
-				if (pieceSize == 0) {
-					// Skip empty pieces if file is too small
-					continue;
-				}
-
-				// Create output file name with index prefix
-				String outputFileName = String.format("%d-%s%s", i, baseName, extension);
-				Path outputFile = parentDir.resolve(outputFileName);
-
-				// Prepare content for this piece
-				StringBuilder content = new StringBuilder();
-				if (!headerContent.isEmpty()) {
-					content.append(headerContent);
-				}
-
-				// Add lines for this piece
-				for (int j = 0; j < pieceSize && currentLineIndex < totalLines; j++) {
-					content.append(allLines.get(currentLineIndex));
-					if (currentLineIndex < totalLines - 1 || j < pieceSize - 1) {
-						content.append("\n");
-					}
-					currentLineIndex++;
-				}
-
-				// Write the split file
-				Files.writeString(outputFile, content.toString());
-
-				createdFiles.add(outputFileName);
-				log.info("Created split file {} with {} lines", outputFileName, pieceSize);
+
+			List<StreamingFileSplitter.Piece> pieces = splitByBytes
+					? StreamingFileSplitter.splitByBytes(sourceFile, headerContent, splitCount)
+					: StreamingFileSplitter.splitByLines(sourceFile, (int) total, headerContent, splitCount);
+			for (StreamingFileSplitter.Piece piece : pieces) {
+				log.info("Created split file {} with {} {}", piece.file.getFileName(), piece.size,
+						splitByBytes ? "bytes" : "lines");
 			}
 
 			// Build result message
 			StringBuilder result = new StringBuilder();
-			result
-				.append(String.format("Successfully split file '%s' into %d pieces:\n", fileName, createdFiles.size()));
+			result.append(String.format("Successfully split file '%s' into %d pieces:\n", fileName, pieces.size()));
 			result.append("=".repeat(60)).append("\n");
-			for (String createdFile : createdFiles) {
-				result.append(String.format("  - %s\n", createdFile));
+			for (StreamingFileSplitter.Piece piece : pieces) {
+				result.append(String.format("  - %s\n", piece.file.getFileName()));
+			}
+			if (splitByBytes) {
+				result.append(String.format("\nTotal bytes in original file: %d\n", total));
+				result.append(
+						String.format("Bytes per piece: approximately %d (cut at line ends)\n", total / splitCount));
+			}
+			else {
+				result.append(String.format("\nTotal lines in original file: %d\n", total));
+				result.append(String.format("Lines per piece: approximately %d\n", total / splitCount));
 			}
-			result.append(String.format("\nTotal lines in original file: %d\n", totalLines));
-			result.append(String.format("Lines per piece: approximately %d\n", linesPerPiece));
 			if (!headerContent.isEmpty()) {
 				result.append("Header added to each split file\n");
 			}
 
+			if (writeManifest) {
+				// Piece paths are relative to the root plan directory, where
+				// file-based parallel execution reads its parameter file from
+				Path rootPlanDirectory = textFileService.getRootPlanDirectory(this.rootPlanId);
+				Path manifestFile = StreamingFileSplitter.manifestFile(sourceFile);
+				StreamingFileSplitter.writeManifest(manifestFile, pieces, rootPlanDirectory);
+				result.append(String.format("Manifest for file-based parallel execution: %s\n",
+						rootPlanDirectory.relativize(manifestFile).toString().replace('\\', '/')));
+			}
+
 			return new ToolExecuteResult(result.toString());
 		}
 		catch (IOException e) {
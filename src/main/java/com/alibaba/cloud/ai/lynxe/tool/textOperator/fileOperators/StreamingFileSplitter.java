@@ -0,0 +1,226 @@
+/*
+ * Copyright 2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.lynxe.tool.textOperator.fileOperators;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Splits a file into pieces without loading it into memory. Shared by
+ * {@link SplitFileTool} and {@link SplitExternalLinkFileTool}.
+ *
+ * Line mode takes the line count from a first pass and then streams lines into each
+ * piece. Byte mode cuts the file into pieces of roughly equal size at line ends and
+ * copies each range with {@link FileChannel#transferTo}, so the bytes are copied by the
+ * operating system and line terminators are kept as they are.
+ */
+final class StreamingFileSplitter {
+
+	private static final ObjectMapper objectMapper = new ObjectMapper();
+
+	private static final int SCAN_BUFFER_SIZE = 8 * 1024;
+
+	/**
+	 * Piece written by the splitter
+	 */
+	static class Piece {
+
+		final Path file;
+
+		/**
+		 * Number of lines (line mode) or bytes (byte mode) taken from the source
+		 */
+		final long size;
+
+		Piece(Path file, long size) {
+			this.file = file;
+			this.size = size;
+		}
+
+	}
+
+	private StreamingFileSplitter() {
+	}
+
+	/**
+	 * Split by lines, distributing the remainder over the first pieces. Each piece except
+	 * the last ends with "\n"; the last keeps the source's missing final newline.
+	 * @param source File to split
+	 * @param totalLines Number of lines in the file (from a first counting pass)
+	 * @param headerContent Text written at the start of every piece, may be empty
+	 * @param splitCount Number of pieces
+	 * @return Pieces written, in order
+	 * @throws IOException If the file cannot be read or a piece cannot be written
+	 */
+	static List<Piece> splitByLines(Path source, int totalLines, String headerContent, int splitCount)
+			throws IOException {
+		int linesPerPiece = totalLines / splitCount;
+		int remainder = totalLines % splitCount;
+		List<Piece> pieces = new ArrayList<>();
+		int currentLineIndex = 0;
+
+		try (BufferedReader reader = Files.newBufferedReader(source, StandardCharsets.UTF_8)) {
+			for (int i = 0; i < splitCount; i++) {
+				// Calculate lines for this piece (distribute remainder evenly)
+				int pieceSize = linesPerPiece + (i < remainder ? 1 : 0);
+				if (pieceSize == 0) {
+					// Skip empty pieces if file is too small
+					continue;
+				}
+
+				Path outputFile = pieceFile(source, i);
+				try (BufferedWriter writer = Files.newBufferedWriter(outputFile, StandardCharsets.UTF_8)) {
+					writer.write(headerContent);
+					for (int j = 0; j < pieceSize && currentLineIndex < totalLines; j++) {
+						String line = reader.readLine();
+						if (line == null) {
+							throw new IOException("File changed while splitting: " + source);
+						}
+						writer.write(line);
+						if (currentLineIndex < totalLines - 1 || j < pieceSize - 1) {
+							writer.write('\n');
+						}
+						currentLineIndex++;
+					}
+				}
+				pieces.add(new Piece(outputFile, pieceSize));
+			}
+		}
+		return pieces;
+	}
+
+	/**
+	 * Split into pieces of roughly equal byte size. Cut points are moved forward to the
+	 * next line end so no line is broken; pieces that become empty are skipped.
+	 * @param source File to split
+	 * @param headerContent Text written at the start of every piece, may be empty
+	 * @param splitCount Number of pieces
+	 * @return Pieces written, in order
+	 * @throws IOException If the file cannot be read or a piece cannot be written
+	 */
+	static List<Piece> splitByBytes(Path source, String headerContent, int splitCount) throws IOException {
+		byte[] header = headerContent.getBytes(StandardCharsets.UTF_8);
+		List<Piece> pieces = new ArrayList<>();
+
+		try (FileChannel in = FileChannel.open(source, StandardOpenOption.READ)) {
+			long size = in.size();
+			long start = 0;
+			for (int i = 0; i < splitCount && start < size; i++) {
+				long end = i == splitCount - 1 ? size : alignToLineEnd(in, size * (i + 1) / splitCount, size);
+				if (end <= start) {
+					continue;
+				}
+
+				Path outputFile = pieceFile(source, i);
+				try (FileChannel out = FileChannel.open(outputFile, StandardOpenOption.CREATE,
+						StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+					ByteBuffer headerBuffer = ByteBuffer.wrap(header);
+					while (headerBuffer.hasRemaining()) {
+						out.write(headerBuffer);
+					}
+					long position = start;
+					while (position < end) {
+						long transferred = in.transferTo(position, end - position, out);
+						if (transferred <= 0) {
+							throw new IOException("File changed while splitting: " + source);
+						}
+						position += transferred;
+					}
+				}
+				pieces.add(new Piece(outputFile, end - start));
+				start = end;
+			}
+		}
+		return pieces;
+	}
+
+	/**
+	 * Write a manifest for file-based parallel execution: a JSON array with one parameter
+	 * object per piece
+	 * @param manifestFile Target file
+	 * @param pieces Pieces to list
+	 * @param pathBase Directory the piece paths in the manifest are relative to
+	 * @throws IOException If the manifest cannot be written
+	 */
+	static void writeManifest(Path manifestFile, List<Piece> pieces, Path pathBase) throws IOException {
+		List<Map<String, Object>> entries = new ArrayList<>();
+		for (int i = 0; i < pieces.size(); i++) {
+			Piece piece = pieces.get(i);
+			Map<String, Object> entry = new LinkedHashMap<>();
+			entry.put("file_path", pathBase.relativize(piece.file).toString().replace('\\', '/'));
+			entry.put("piece_index", i);
+			entries.add(entry);
+		}
+		Files.writeString(manifestFile, objectMapper.writerWithDefaultPrettyPrinter().writeValueAsString(entries));
+	}
+
+	/**
+	 * @return Output file for piece i, named with index prefix: 0-filename.ext
+	 */
+	static Path pieceFile(Path source, int index) {
+		return source.resolveSibling(index + "-" + source.getFileName());
+	}
+
+	/**
+	 * @return Manifest file next to the source: name.split-manifest.json for name.ext
+	 */
+	static Path manifestFile(Path source) {
+		String fileName = source.getFileName().toString();
+		int lastDotIndex = fileName.lastIndexOf('.');
+		String baseName = (lastDotIndex > 0) ? fileName.substring(0, lastDotIndex) : fileName;
+		return source.resolveSibling(baseName + ".split-manifest.json");
+	}
+
+	/**
+	 * Position just after the first '\n' at or after target - 1, or size if there is
+	 * none. A target that already starts a line is returned unchanged.
+	 */
+	private static long alignToLineEnd(FileChannel in, long target, long size) throws IOException {
+		if (target <= 0) {
+			return 0;
+		}
+		ByteBuffer buffer = ByteBuffer.allocate(SCAN_BUFFER_SIZE);
+		long position = target - 1;
+		while (position < size) {
+			buffer.clear();
+			int read = in.read(buffer, position);
+			if (read <= 0) {
+				break;
+			}
+			for (int i = 0; i < read; i++) {
+				if (buffer.get(i) == '\n') {
+					return position + i + 1;
+				}
+			}
+			position += read;
+		}
+		return size;
+	}
+
+}
@@ -25,7 +25,7 @@ public class H2ChatMemoryRepository extends JdbcChatMemoryRepository {
 	// H2 specific query statements
 	private static final String H2_QUERY_ADD = "INSERT INTO ai_chat_memory (conversation_id, content, type, timestamp) VALUES (?, ?, ?, ?)";
 
-	private static final String H2_QUERY_GET = "SELECT content, type FROM ai_chat_memory WHERE conversation_id = ? ORDER BY timestamp";
+	private static final String H2_QUERY_GET = "SELECT content, type, id, timestamp FROM ai_chat_memory WHERE conversation_id = ? ORDER BY timestamp, id";
 
 	private H2ChatMemoryRepository(JdbcTemplate jdbcTemplate) {
 		super(jdbcTemplate);
@@ -23,7 +23,10 @@ import java.time.Instant;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Lock;
 
 import org.springframework.ai.chat.memory.ChatMemoryRepository;
 import org.springframework.ai.chat.messages.AssistantMessage;
@@ -35,9 +38,20 @@ import org.springframework.ai.chat.messages.UserMessage;
 import org.springframework.jdbc.core.BatchPreparedStatementSetter;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
 import org.springframework.lang.Nullable;
 import org.springframework.util.Assert;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.util.concurrent.Striped;
+
+/**
+ * Chat memory stored in the ai_chat_memory table. Conversations are cached in memory and
+ * written through: saving a conversation inserts only its new messages and deletes only
+ * the evicted ones instead of rewriting all rows.
+ */
 public abstract class JdbcChatMemoryRepository implements ChatMemoryRepository {
 
 	public static final String TABLE_NAME = "ai_chat_memory";
@@ -51,13 +65,34 @@ public abstract class JdbcChatMemoryRepository implements ChatMemoryRepository {
 			""";
 
 	private static final String QUERY_GET = """
-			SELECT content, type FROM ai_chat_memory WHERE conversation_id = ? ORDER BY "timestamp"
+			SELECT content, type, id, "timestamp" FROM ai_chat_memory WHERE conversation_id = ? ORDER BY "timestamp", id
 			""";
 
 	private static final String QUERY_CLEAR = "DELETE FROM ai_chat_memory WHERE conversation_id = ?";
 
+	private static final String QUERY_DELETE_ROW = "DELETE FROM ai_chat_memory WHERE id = ?";
+
+	private static final int MAX_CACHED_CONVERSATIONS = 1000;
+
 	private final JdbcTemplate jdbcTemplate;
 
+	// Rows of recently used conversations as stored in the table. Only this instance is
+	// expected to write a conversation; entries expire so rows written elsewhere are
+	// picked up eventually.
+	private final Cache<String, List<StoredMessage>> conversations = CacheBuilder.newBuilder()
+		.maximumSize(MAX_CACHED_CONVERSATIONS)
+		.expireAfterAccess(30, TimeUnit.MINUTES)
+		.build();
+
+	private final Striped<Lock> conversationLocks = Striped.lock(64);
+
+	/**
+	 * One stored row; the message is rebuilt from the row so cached and loaded
+	 * conversations look the same
+	 */
+	private record StoredMessage(long id, Message message, long timestamp) {
+	}
+
 	public JdbcChatMemoryRepository(JdbcTemplate jdbcTemplate) {
 		Assert.notNull(jdbcTemplate, "jdbcTemplate cannot be null");
 		this.jdbcTemplate = jdbcTemplate;
@@ -85,22 +120,138 @@ public abstract class JdbcChatMemoryRepository implements ChatMemoryRepository {
 	@Override
 	public List<Message> findByConversationId(String conversationId) {
 		Assert.hasText(conversationId, "conversationId cannot be null or empty");
-		return this.jdbcTemplate.query(getGetSql(), new MessageRowMapper(), conversationId);
+		Lock lock = conversationLocks.get(conversationId);
+		lock.lock();
+		try {
+			List<Message> messages = new ArrayList<>();
+			for (StoredMessage row : rows(conversationId)) {
+				messages.add(row.message());
+			}
+			return messages;
+		}
+		finally {
+			lock.unlock();
+		}
 	}
 
+	/**
+	 * Store the messages of a conversation. Only the difference to the stored rows is
+	 * written: messages at the end that are not stored yet are inserted, stored messages
+	 * no longer in the list (evicted by the memory window) are deleted.
+	 */
 	@Override
 	public void saveAll(String conversationId, List<Message> messages) {
 		Assert.hasText(conversationId, "conversationId cannot be null or empty");
 		Assert.notNull(messages, "messages cannot be null");
 		Assert.noNullElements(messages, "messages cannot contain null elements");
-		this.deleteByConversationId(conversationId);
-		this.jdbcTemplate.batchUpdate(getAddSql(), new AddBatchPreparedStatement(conversationId, messages));
+		Lock lock = conversationLocks.get(conversationId);
+		lock.lock();
+		try {
+			List<StoredMessage> stored = rows(conversationId);
+			// Stored rows matching the messages in order are kept, the others evicted
+			List<StoredMessage> kept = new ArrayList<>();
+			List<Long> evicted = new ArrayList<>();
+			int next = 0;
+			for (StoredMessage row : stored) {
+				if (next < messages.size() && isSame(row.message(), messages.get(next))) {
+					kept.add(row);
+					next++;
+				}
+				else {
+					evicted.add(row.id());
+				}
+			}
+			List<Message> appended = messages.subList(next, messages.size());
+			try {
+				if (!appended.isEmpty()) {
+					long lastTimestamp = stored.isEmpty() ? 0 : stored.get(stored.size() - 1).timestamp();
+					List<StoredMessage> inserted = insert(conversationId, appended, lastTimestamp);
+					if (inserted == null) {
+						// Generated ids not returned, reload on next use
+						conversations.invalidate(conversationId);
+						deleteRows(evicted);
+						return;
+					}
+					kept.addAll(inserted);
+				}
+				deleteRows(evicted);
+			}
+			catch (RuntimeException e) {
+				conversations.invalidate(conversationId);
+				throw e;
+			}
+			conversations.put(conversationId, List.copyOf(kept));
+		}
+		finally {
+			lock.unlock();
+		}
 	}
 
 	@Override
 	public void deleteByConversationId(String conversationId) {
 		Assert.hasText(conversationId, "conversationId cannot be null or empty");
-		this.jdbcTemplate.update(QUERY_CLEAR, conversationId);
+		Lock lock = conversationLocks.get(conversationId);
+		lock.lock();
+		try {
+			this.jdbcTemplate.update(QUERY_CLEAR, conversationId);
+			conversations.put(conversationId, List.of());
+		}
+		finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Drop all cached conversations, e.g. after rows were deleted without this repository
+	 */
+	public void clearCache() {
+		conversations.invalidateAll();
+	}
+
+	private List<StoredMessage> rows(String conversationId) {
+		List<StoredMessage> rows = conversations.getIfPresent(conversationId);
+		if (rows == null) {
+			rows = List.copyOf(this.jdbcTemplate.query(getGetSql(), new StoredMessageRowMapper(), conversationId));
+			conversations.put(conversationId, rows);
+		}
+		return rows;
+	}
+
+	/**
+	 * Insert messages with timestamps after the last stored one
+	 * @return Inserted rows, or null if the driver did not return the generated ids
+	 */
+	private List<StoredMessage> insert(String conversationId, List<Message> messages, long lastTimestamp) {
+		long firstTimestamp = Math.max(Instant.now().toEpochMilli(), lastTimestamp + 1);
+		KeyHolder keyHolder = new GeneratedKeyHolder();
+		this.jdbcTemplate.batchUpdate(con -> con.prepareStatement(getAddSql(), new String[] { "id" }),
+				new AddBatchPreparedStatement(conversationId, messages, new AtomicLong(firstTimestamp)), keyHolder);
+		List<Map<String, Object>> keys = keyHolder.getKeyList();
+		if (keys.size() != messages.size()) {
+			return null;
+		}
+		List<StoredMessage> rows = new ArrayList<>(messages.size());
+		for (int i = 0; i < messages.size(); i++) {
+			Message message = messages.get(i);
+			long id = ((Number) keys.get(i).values().iterator().next()).longValue();
+			rows.add(new StoredMessage(id, toMessage(message.getText(), message.getMessageType()), firstTimestamp + i));
+		}
+		return rows;
+	}
+
+	private void deleteRows(List<Long> ids) {
+		if (!ids.isEmpty()) {
+			this.jdbcTemplate.batchUpdate(QUERY_DELETE_ROW, ids, ids.size(), (ps, id) -> ps.setLong(1, id));
+		}
+	}
+
+	/**
+	 * Whether a message is the one a stored row was read as, or has the same stored
+	 * content
+	 */
+	private static boolean isSame(Message stored, Message message) {
+		return stored == message || (stored.getMessageType() == message.getMessageType()
+				&& Objects.equals(stored.getText(), message.getText()));
 	}
 
 	/**
@@ -122,10 +273,6 @@ public abstract class JdbcChatMemoryRepository implements ChatMemoryRepository {
 	private record AddBatchPreparedStatement(String conversationId, List<Message> messages,
 			AtomicLong instantSeq) implements BatchPreparedStatementSetter {
 
-		private AddBatchPreparedStatement(String conversationId, List<Message> messages) {
-			this(conversationId, messages, new AtomicLong(Instant.now().toEpochMilli()));
-		}
-
 		@Override
 		public void setValues(PreparedStatement ps, int i) throws SQLException {
 			var message = this.messages.get(i);
@@ -142,27 +289,30 @@ public abstract class JdbcChatMemoryRepository implements ChatMemoryRepository {
 		}
 	}
 
-	private static class MessageRowMapper implements RowMapper<Message> {
+	private static class StoredMessageRowMapper implements RowMapper<StoredMessage> {
 
 		@Override
 		@Nullable
-		public Message mapRow(ResultSet rs, int i) throws SQLException {
+		public StoredMessage mapRow(ResultSet rs, int i) throws SQLException {
 			var content = rs.getString(1);
 			var type = MessageType.valueOf(rs.getString(2));
-
-			return switch (type) {
-				case USER -> new UserMessage(content);
-				case ASSISTANT -> new AssistantMessage(content);
-				case SYSTEM -> new SystemMessage(content);
-				// The content is always stored empty for ToolResponseMessages.
-				// If we want to capture the actual content, we need to extend
-				// AddBatchPreparedStatement to support it.
-				case TOOL -> ToolResponseMessage.builder().responses(List.of()).metadata(Map.of()).build();
-			};
+			return new StoredMessage(rs.getLong(3), toMessage(content, type), rs.getTimestamp(4).getTime());
 		}
 
 	}
 
+	private static Message toMessage(String content, MessageType type) {
+		return switch (type) {
+			case USER -> new UserMessage(content);
+			case ASSISTANT -> new AssistantMessage(content);
+			case SYSTEM -> new SystemMessage(content);
+			// The content is always stored empty for ToolResponseMessages.
+			// If we want to capture the actual content, we need to extend
+			// AddBatchPreparedStatement to support it.
+			case TOOL -> ToolResponseMessage.builder().responses(List.of()).metadata(Map.of()).build();
+		};
+	}
+
 	protected abstract String hasTableSql(String tableName);
 
 	protected abstract String createTableSql(String tableName);
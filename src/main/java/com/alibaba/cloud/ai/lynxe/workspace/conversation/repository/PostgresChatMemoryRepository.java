@@ -21,7 +21,7 @@ public class PostgresChatMemoryRepository extends JdbcChatMemoryRepository {
 
 	private static final String POSTGRES_QUERY_ADD = "INSERT INTO ai_chat_memory (conversation_id, content, type, timestamp) VALUES (?, ?, ?, ?)";
 
-	private static final String POSTGRES_QUERY_GET = "SELECT content, type FROM ai_chat_memory WHERE conversation_id = ? ORDER BY timestamp";
+	private static final String POSTGRES_QUERY_GET = "SELECT content, type, id, timestamp FROM ai_chat_memory WHERE conversation_id = ? ORDER BY timestamp, id";
 
 	private PostgresChatMemoryRepository(JdbcTemplate jdbcTemplate) {
 		super(jdbcTemplate);
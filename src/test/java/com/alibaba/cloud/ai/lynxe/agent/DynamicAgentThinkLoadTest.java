@@ -0,0 +1,239 @@
+/*
+ * Copyright 2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.lynxe.agent;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.chat.client.ChatClient;
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.model.ChatModel;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.ai.chat.model.Generation;
+import org.springframework.ai.chat.prompt.Prompt;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.alibaba.cloud.ai.lynxe.config.LynxeProperties;
+import com.alibaba.cloud.ai.lynxe.event.LynxeEventPublisher;
+import com.alibaba.cloud.ai.lynxe.llm.ConversationMemoryLimitService;
+import com.alibaba.cloud.ai.lynxe.llm.LlmService;
+import com.alibaba.cloud.ai.lynxe.llm.StreamingResponseHandler;
+import com.alibaba.cloud.ai.lynxe.llm.TokenLimitService;
+import com.alibaba.cloud.ai.lynxe.recorder.service.PlanExecutionRecorder;
+import com.alibaba.cloud.ai.lynxe.runtime.entity.vo.ExecutionStep;
+import com.alibaba.cloud.ai.lynxe.runtime.executor.LevelBasedExecutorPool;
+import com.alibaba.cloud.ai.lynxe.runtime.service.PlanIdDispatcher;
+import com.alibaba.cloud.ai.lynxe.tool.mapreduce.ParallelExecutionService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import reactor.core.publisher.Flux;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Thread usage of concurrent {@link DynamicAgent} think phases.
+ *
+ * Every agent streams its response from a stub {@link ChatModel} that emits
+ * {@value #CHUNKS} chunks, one every {@value #CHUNK_DELAY_MS} ms, on the Reactor timer.
+ * While N think phases are in flight the live JVM thread count must stay within a budget
+ * that does not depend on N: the level executor, the timer threads, the bounded elastic
+ * threads the chat client delivers chunks on, and some slack. The highest concurrency
+ * level is at least twice that budget, so a think loop parking a thread per call would
+ * exceed it.
+ */
+class DynamicAgentThinkLoadTest {
+
+	private static final int CHUNKS = 20;
+
+	private static final long CHUNK_DELAY_MS = 50;
+
+	private static final int LEVEL_POOL_THREADS = 4;
+
+	private static final int THREAD_SLACK = 8;
+
+	private static final String LEVEL_POOL_THREAD_PREFIX = "level-0-executor-";
+
+	private final ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+
+	private final Set<String> continuationThreads = ConcurrentHashMap.newKeySet();
+
+	private LevelBasedExecutorPool executorPool;
+
+	private LynxeProperties lynxeProperties;
+
+	private LlmService llmService;
+
+	private PlanExecutionRecorder planExecutionRecorder;
+
+	private StreamingResponseHandler streamingResponseHandler;
+
+	private ParallelExecutionService parallelExecutionService;
+
+	private ConversationMemoryLimitService conversationMemoryLimitService;
+
+	@BeforeEach
+	void setUp() {
+		executorPool = new LevelBasedExecutorPool();
+		// Queue large enough that no continuation overflows to the bounded elastic
+		// scheduler
+		executorPool.getExecutorForLevel(0, LEVEL_POOL_THREADS, LEVEL_POOL_THREADS, 1000);
+		parallelExecutionService = mock(ParallelExecutionService.class);
+		when(parallelExecutionService.getExecutorPoolProvider()).thenReturn(executorPool);
+
+		lynxeProperties = mock(LynxeProperties.class);
+		when(lynxeProperties.getMaxSteps()).thenReturn(20);
+		when(lynxeProperties.getDebugDetail()).thenReturn(false);
+		when(lynxeProperties.getParallelToolCalls()).thenReturn(false);
+
+		TokenLimitService tokenLimitService = mock(TokenLimitService.class);
+		when(tokenLimitService.getContextLimit(anyString())).thenReturn(128_000);
+		llmService = mock(LlmService.class);
+		when(llmService.getTokenLimitService()).thenReturn(tokenLimitService);
+		when(llmService.getDefaultModelName()).thenReturn("stub-model");
+		when(llmService.getDefaultDynamicAgentChatClient()).thenReturn(ChatClient.builder(new StubChatModel()).build());
+
+		conversationMemoryLimitService = mock(ConversationMemoryLimitService.class);
+		when(conversationMemoryLimitService.calculateTotalTokens(anyList())).thenReturn(100);
+
+		planExecutionRecorder = mock(PlanExecutionRecorder.class);
+		doAnswer(invocation -> {
+			continuationThreads.add(Thread.currentThread().getName());
+			return null;
+		}).when(planExecutionRecorder).recordThinkingAndAction(any(), any());
+
+		streamingResponseHandler = new StreamingResponseHandler();
+		ReflectionTestUtils.setField(streamingResponseHandler, "objectMapper", new ObjectMapper());
+		ReflectionTestUtils.setField(streamingResponseHandler, "lynxeEventPublisher", mock(LynxeEventPublisher.class));
+	}
+
+	@AfterEach
+	void tearDown() {
+		executorPool.shutdownAll();
+	}
+
+	@Test
+	void liveThreadsStayFlatAsConcurrentThinkStepsGrow() {
+		int threadBudget = LEVEL_POOL_THREADS + Runtime.getRuntime().availableProcessors()
+				+ Schedulers.DEFAULT_BOUNDED_ELASTIC_SIZE + THREAD_SLACK;
+		int[] concurrencyLevels = { 10, 100, Math.max(300, 2 * threadBudget) };
+		for (int concurrency : concurrencyLevels) {
+			continuationThreads.clear();
+
+			int threadRise = runConcurrentThinkSteps(concurrency);
+
+			assertTrue(threadRise <= threadBudget, "live threads rose by " + threadRise + " at concurrency "
+					+ concurrency + ", budget " + threadBudget + ": " + liveThreadNames());
+			// Recording and tool preparation ran on the level executor, never on the
+			// timer thread that delivered the last chunk
+			assertTrue(continuationThreads.stream().allMatch(name -> name.startsWith(LEVEL_POOL_THREAD_PREFIX)),
+					"think continuation threads: " + continuationThreads);
+		}
+	}
+
+	/**
+	 * Run the think phase of the given number of agents at once.
+	 * @return peak rise of the live thread count while the think phases were in flight
+	 */
+	private int runConcurrentThinkSteps(int concurrency) {
+		int baseline = threads.getThreadCount();
+		int peak = baseline;
+		List<CompletableFuture<Boolean>> thinkSteps = new ArrayList<>();
+		for (int i = 0; i < concurrency; i++) {
+			thinkSteps.add(newAgent(i).thinkAsync());
+		}
+		CompletableFuture<Void> all = CompletableFuture.allOf(thinkSteps.toArray(CompletableFuture[]::new));
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(60);
+		while (!all.isDone() && System.nanoTime() < deadline) {
+			peak = Math.max(peak, threads.getThreadCount());
+			sleep(5);
+		}
+		for (CompletableFuture<Boolean> thinkStep : thinkSteps) {
+			assertTrue(thinkStep.join(), "think step should prepare a tool call");
+		}
+		assertEquals(concurrency, thinkSteps.size());
+		return peak - baseline;
+	}
+
+	private DynamicAgent newAgent(int index) {
+		String planId = "plan-load-" + index;
+		ExecutionStep step = new ExecutionStep("step-load-" + index);
+		Map<String, Object> initialSettings = new HashMap<>();
+		initialSettings.put("stepText", "Answer with a short greeting");
+		DynamicAgent agent = new DynamicAgent(llmService, planExecutionRecorder, lynxeProperties, "LOAD_AGENT",
+				"Load test agent", "", new ArrayList<>(), null, initialSettings, null, null, streamingResponseHandler,
+				step, new PlanIdDispatcher(), null, null, new ObjectMapper(), parallelExecutionService,
+				conversationMemoryLimitService, null, null);
+		agent.setToolCallbackProvider(HashMap::new);
+		agent.setCurrentPlanId(planId);
+		agent.setRootPlanId(planId);
+		return agent;
+	}
+
+	private String liveThreadNames() {
+		return Thread.getAllStackTraces().keySet().stream().map(Thread::getName).sorted().toList().toString();
+	}
+
+	private static void sleep(long millis) {
+		try {
+			Thread.sleep(millis);
+		}
+		catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException(e);
+		}
+	}
+
+	/**
+	 * Chat model that streams a fixed text answer without tool calls, one chunk per timer
+	 * tick
+	 */
+	private static final class StubChatModel implements ChatModel {
+
+		@Override
+		public ChatResponse call(Prompt prompt) {
+			throw new UnsupportedOperationException("Only streaming is used by the think loop");
+		}
+
+		@Override
+		public Flux<ChatResponse> stream(Prompt prompt) {
+			return Flux.interval(Duration.ofMillis(CHUNK_DELAY_MS))
+				.take(CHUNKS)
+				.map(i -> new ChatResponse(List.of(new Generation(new AssistantMessage("tok ")))));
+		}
+
+	}
+
+}
@@ -0,0 +1,150 @@
+/*
+ * Copyright 2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.lynxe.llm;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.messages.Message;
+import org.springframework.ai.chat.messages.SystemMessage;
+import org.springframework.ai.chat.messages.ToolResponseMessage;
+import org.springframework.ai.chat.messages.UserMessage;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Accuracy and cache behaviour of {@link MessageTokenCounter} compared with the full
+ * re-serialization in {@link TokenCountService#countTokens(List)} over a realistic
+ * 100-message agent history (tool calls with large tool outputs).
+ */
+class MessageTokenCounterTest {
+
+	private static final int HISTORY_SIZE = 100;
+
+	private static final double TOLERANCE = 0.01;
+
+	private TokenCountService tokenCountService;
+
+	@BeforeEach
+	void setUp() {
+		tokenCountService = new TokenCountService();
+		ReflectionTestUtils.setField(tokenCountService, "objectMapper", new ObjectMapper());
+	}
+
+	@Test
+	void incrementalCountMatchesFullCountWithinTolerance() {
+		List<Message> history = buildHistory(HISTORY_SIZE, new Random(42));
+		MessageTokenCounter counter = new MessageTokenCounter(tokenCountService);
+
+		for (int size = 1; size <= history.size(); size++) {
+			List<Message> prompt = history.subList(0, size);
+			int full = tokenCountService.countTokens(prompt);
+			int incremental = counter.countTokens(prompt);
+			assertTrue(Math.abs(full - incremental) <= Math.max(2, full * TOLERANCE),
+					"size=" + size + " full=" + full + " incremental=" + incremental);
+		}
+		// Every message was tokenized exactly once
+		assertEquals(HISTORY_SIZE, counter.getMisses());
+	}
+
+	@Test
+	void droppedMessagesAreEvicted() {
+		List<Message> history = buildHistory(10, new Random(7));
+		MessageTokenCounter counter = new MessageTokenCounter(tokenCountService);
+		counter.countTokens(history);
+
+		// Simulate memory compression replacing the history with a summary
+		List<Message> compressed = new ArrayList<>();
+		compressed.add(new UserMessage("summary of previous steps"));
+		compressed.add(history.get(history.size() - 1));
+		int tokens = counter.countTokens(compressed);
+
+		assertEquals(11, counter.getMisses());
+		assertEquals(tokenCountService.countTokens(compressed.get(0)) + tokenCountService.countTokens(compressed.get(1))
+				+ 2 * MessageTokenCounter.SEPARATOR_TOKENS_PER_MESSAGE, tokens);
+	}
+
+	/**
+	 * Simulates the think loop: every step the full prompt (system + history + env) is
+	 * counted. Each message is tokenized once; only the new environment message of a step
+	 * is a miss.
+	 */
+	@Test
+	void thinkLoopTokenizesEachMessageOnce() {
+		List<Message> history = buildHistory(HISTORY_SIZE, new Random(1));
+		SystemMessage systemMessage = new SystemMessage("You are a helpful agent. ".repeat(200));
+
+		MessageTokenCounter counter = new MessageTokenCounter(tokenCountService);
+		long fullTotal = 0;
+		long incrementalTotal = 0;
+		int steps = 0;
+		long countedMessages = 0;
+		for (int step = 2; step <= history.size(); step += 2) {
+			List<Message> prompt = new ArrayList<>();
+			prompt.add(systemMessage);
+			prompt.addAll(history.subList(0, step));
+			prompt.add(new UserMessage("Current step environment: " + step));
+
+			fullTotal += tokenCountService.countTokens(prompt);
+			incrementalTotal += counter.countTokens(prompt);
+			steps++;
+			countedMessages += prompt.size();
+		}
+
+		assertTrue(Math.abs(fullTotal - incrementalTotal) <= fullTotal * TOLERANCE);
+		assertEquals(1 + HISTORY_SIZE + steps, counter.getMisses());
+		assertEquals(countedMessages - counter.getMisses(), counter.getHits());
+	}
+
+	private List<Message> buildHistory(int size, Random random) {
+		List<Message> messages = new ArrayList<>();
+		messages.add(new UserMessage("Analyze the repository and summarize the build failures."));
+		int call = 0;
+		while (messages.size() < size) {
+			String toolCallId = "call_" + call++;
+			AssistantMessage.ToolCall toolCall = new AssistantMessage.ToolCall(toolCallId, "function", "read_file",
+					"{\"path\":\"src/main/java/File" + call + ".java\",\"offset\":0,\"limit\":200}");
+			messages
+				.add(AssistantMessage.builder().content("Reading the next file").toolCalls(List.of(toolCall)).build());
+			if (messages.size() < size) {
+				ToolResponseMessage.ToolResponse response = new ToolResponseMessage.ToolResponse(toolCallId,
+						"read_file", randomToolOutput(random, 2000 + random.nextInt(6000)));
+				messages.add(ToolResponseMessage.builder().responses(List.of(response)).build());
+			}
+		}
+		return messages;
+	}
+
+	private String randomToolOutput(Random random, int length) {
+		String[] words = { "public", "class", "void", "return", "import", "static", "final", "String", "List", "new",
+				"if", "else", "for", "while", "{", "}", "(", ")", ";", "=", "//", "TODO", "error:", "at", "line", "42",
+				"com.example", "Exception", "\n", "\t" };
+		StringBuilder sb = new StringBuilder(length + 16);
+		while (sb.length() < length) {
+			sb.append(words[random.nextInt(words.length)]).append(' ');
+		}
+		return sb.toString();
+	}
+
+}
@@ -0,0 +1,192 @@
+/*
+ * Copyright 2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.lynxe.mcp.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.mcp.AsyncMcpToolCallbackProvider;
+import org.springframework.ai.tool.ToolCallback;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.alibaba.cloud.ai.lynxe.mcp.config.McpProperties;
+import com.alibaba.cloud.ai.lynxe.mcp.model.po.McpConfigEntity;
+import com.alibaba.cloud.ai.lynxe.mcp.model.po.McpConfigStatus;
+import com.alibaba.cloud.ai.lynxe.mcp.model.vo.McpServiceEntity;
+import com.alibaba.cloud.ai.lynxe.mcp.model.vo.McpToolListing;
+import com.alibaba.cloud.ai.lynxe.mcp.repository.McpConfigRepository;
+
+import io.modelcontextprotocol.client.McpAsyncClient;
+
+/**
+ * Connection leases of {@link McpCacheManager}: releasing one plan keeps the connection
+ * for others, and idle connections are closed only once no plan holds a lease. Tool
+ * listings are shared until the server reports a change.
+ */
+class McpCacheManagerTest {
+
+	private McpConnectionFactory connectionFactory;
+
+	private McpProperties mcpProperties;
+
+	private AsyncMcpToolCallbackProvider callbackProvider;
+
+	private McpServiceEntity serviceEntity;
+
+	private McpCacheManager cacheManager;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		McpConfigEntity config = new McpConfigEntity().setMcpServerName("search").setStatus(McpConfigStatus.ENABLE);
+		McpConfigRepository repository = mock(McpConfigRepository.class);
+		when(repository.findByStatus(McpConfigStatus.ENABLE)).thenReturn(List.of(config));
+		connectionFactory = mock(McpConnectionFactory.class);
+		callbackProvider = mock(AsyncMcpToolCallbackProvider.class);
+		serviceEntity = new McpServiceEntity(mock(McpAsyncClient.class), callbackProvider, "search");
+		when(connectionFactory.createConnection(any())).thenReturn(serviceEntity);
+		mcpProperties = new McpProperties();
+		cacheManager = new McpCacheManager(connectionFactory, repository, mcpProperties);
+		cacheManager.initializeCache();
+		awaitConnected();
+	}
+
+	@AfterEach
+	void tearDown() {
+		cacheManager.shutdown();
+	}
+
+	@Test
+	void releasingOnePlanKeepsConnectionForOthers() throws Exception {
+		assertEquals(1, cacheManager.getServiceEntities("plan-a").size());
+		assertEquals(1, cacheManager.getServiceEntities("plan-b").size());
+		// Leasing again from the same plan does not add a reference
+		cacheManager.getServiceEntities("plan-a");
+		assertEquals(2, stats().getActiveLeases());
+
+		cacheManager.invalidateCache("plan-a");
+		assertEquals(1, stats().getActiveLeases());
+		assertEquals("CONNECTED", stats().getState());
+		assertEquals(1, cacheManager.getServiceEntities("plan-c").size());
+		verify(connectionFactory, times(1)).createConnection(any());
+
+		assertEquals("ok", cacheManager.trackRequest("search", () -> "ok"));
+		assertEquals(1, stats().getCompletedRequests());
+		assertEquals(0, stats().getPendingRequests());
+	}
+
+	@Test
+	void closesIdleConnectionsWithoutLeases() throws Exception {
+		mcpProperties.setConnectionIdleTimeout(Duration.ofMillis(1));
+		cacheManager.getServiceEntities("plan-a");
+		Thread.sleep(5);
+		cacheManager.evictIdleConnections();
+		assertEquals("CONNECTED", stats().getState());
+
+		cacheManager.releaseLeases("plan-a");
+		Thread.sleep(5);
+		cacheManager.evictIdleConnections();
+		assertFalse(cacheManager.getConnectionStats().containsKey("search"));
+
+		// Reopened on next use
+		cacheManager.getServiceEntities("plan-b");
+		awaitConnected();
+		verify(connectionFactory, times(2)).createConnection(any());
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	void leaseTakenDuringIdleSweepKeepsConnectionOpen() throws Exception {
+		mcpProperties.setConnectionIdleTimeout(Duration.ofMillis(1));
+		Map<String, McpCacheManager.ConnectionWrapper> connections = (Map<String, McpCacheManager.ConnectionWrapper>) ReflectionTestUtils
+			.getField(cacheManager, "connections");
+		McpCacheManager.ConnectionWrapper wrapper = spy(connections.get("search"));
+		AtomicBoolean swept = new AtomicBoolean();
+		doAnswer(invocation -> {
+			if (swept.compareAndSet(false, true)) {
+				// The sweep runs while the connection is being handed to plan-a
+				cacheManager.evictIdleConnections();
+			}
+			return invocation.callRealMethod();
+		}).when(wrapper).getServiceEntity();
+		connections.put("search", wrapper);
+		Thread.sleep(5);
+
+		assertEquals(1, cacheManager.getServiceEntities("plan-a").size());
+
+		assertTrue(swept.get());
+		assertEquals("CONNECTED", stats().getState());
+		assertEquals(1, stats().getActiveLeases());
+		verify(connectionFactory, times(1)).createConnection(any());
+	}
+
+	@Test
+	void toolListingIsSharedUntilToolsChange() throws Exception {
+		when(callbackProvider.getToolCallbacks()).thenReturn(new ToolCallback[] { mock(ToolCallback.class) });
+		McpToolListing first = cacheManager.getToolListings("plan-a").get(0);
+		assertSame(first, cacheManager.getToolListings("plan-b").get(0));
+		assertEquals(1, first.getToolCallbacks().size());
+		verify(callbackProvider, times(1)).getToolCallbacks();
+
+		serviceEntity.markToolsChanged();
+		// The current listing is served while the refresh runs in the background
+		assertSame(first, cacheManager.getToolListings("plan-c").get(0));
+		long deadline = System.currentTimeMillis() + 5000;
+		while (cacheManager.getToolListings(null).get(0) == first) {
+			if (System.currentTimeMillis() > deadline) {
+				fail("Tool listing was not refreshed");
+			}
+			Thread.sleep(10);
+		}
+		McpToolListing refreshed = cacheManager.getToolListings(null).get(0);
+		assertEquals(first.getVersion() + 1, refreshed.getVersion());
+		verify(callbackProvider, times(1)).invalidateCache();
+		verify(callbackProvider, times(2)).getToolCallbacks();
+	}
+
+	private McpCacheManager.ConnectionStats stats() {
+		return cacheManager.getConnectionStats().get("search");
+	}
+
+	private void awaitConnected() throws InterruptedException {
+		long deadline = System.currentTimeMillis() + 5000;
+		while (System.currentTimeMillis() < deadline) {
+			if (!cacheManager.getServiceEntities(null).isEmpty()) {
+				return;
+			}
+			Thread.sleep(10);
+		}
+		fail("Connection was not created");
+	}
+
+}
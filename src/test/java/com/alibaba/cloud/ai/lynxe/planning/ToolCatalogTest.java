@@ -0,0 +1,134 @@
+/*
+ * Copyright 2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.lynxe.planning;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.tool.ToolCallback;
+
+import com.alibaba.cloud.ai.lynxe.tool.DebugTool;
+import com.alibaba.cloud.ai.lynxe.tool.ThinkTool;
+import com.alibaba.cloud.ai.lynxe.tool.ToolCallBiFunctionDef;
+import com.alibaba.cloud.ai.lynxe.tool.dirOperator.dirOperators.ListFilesTool;
+import com.alibaba.cloud.ai.lynxe.tool.i18n.ToolI18nService;
+import com.alibaba.cloud.ai.lynxe.tool.textOperator.fileOperators.CountFileTool;
+import com.alibaba.cloud.ai.lynxe.tool.textOperator.fileOperators.ReadFileOperator;
+import com.alibaba.cloud.ai.lynxe.tool.textOperator.fileOperators.SplitFileTool;
+import com.alibaba.cloud.ai.lynxe.tool.textOperator.fileOperators.WriteFileOperator;
+import com.alibaba.cloud.ai.lynxe.user.service.UserService;
+
+/**
+ * Definitions bound through {@link ToolCatalog} match directly built callbacks, plus the
+ * language lookups of binding a tool set per agent with and without the catalog.
+ */
+class ToolCatalogTest {
+
+	private final AtomicInteger languageLookups = new AtomicInteger();
+
+	private ToolI18nService toolI18nService;
+
+	@BeforeEach
+	void setUp() {
+		UserService userService = mock(UserService.class);
+		when(userService.getLanguage()).thenAnswer(invocation -> {
+			languageLookups.incrementAndGet();
+			return "en";
+		});
+		toolI18nService = new ToolI18nService(userService);
+	}
+
+	@Test
+	void boundCallbackMatchesDirectBuild() {
+		ToolCatalog catalog = new ToolCatalog();
+		for (ToolCallBiFunctionDef<?> tool : createTools()) {
+			String key = qualifiedKey(tool);
+			ToolCallback direct = ToolCatalog.build(key, tool);
+			ToolCallback first = catalog.bind(key, tool, "en");
+			ToolCallback second = catalog.bind(key, tool, "en");
+			assertEquals(direct.getToolDefinition(), first.getToolDefinition());
+			assertEquals(direct.getToolMetadata().returnDirect(), first.getToolMetadata().returnDirect());
+			// Definitions are shared, callbacks are per binding
+			assertSame(first.getToolDefinition(), second.getToolDefinition());
+			assertNotSame(first, second);
+		}
+		assertEquals(7L, catalog.getMetrics().get("entries"));
+		assertEquals(7L, catalog.getMetrics().get("hits"));
+	}
+
+	/**
+	 * Binds the same tool set repeatedly, as done for every agent. Direct builds resolve
+	 * the language for every description and parameter schema; the catalog resolves it
+	 * once per agent.
+	 */
+	@Test
+	void agentToolBindingResolvesLanguageOncePerAgent() {
+		int rounds = 500;
+		ToolCatalog catalog = new ToolCatalog();
+		// The first binding builds every definition, which resolves the language like a
+		// direct build
+		for (ToolCallBiFunctionDef<?> tool : createTools()) {
+			catalog.bind(qualifiedKey(tool), tool, "en");
+		}
+		languageLookups.set(0);
+		for (int i = 0; i < rounds; i++) {
+			for (ToolCallBiFunctionDef<?> tool : createTools()) {
+				ToolCatalog.build(qualifiedKey(tool), tool);
+			}
+		}
+		int directLookups = languageLookups.getAndSet(0);
+		for (int i = 0; i < rounds; i++) {
+			String language = toolI18nService.getCurrentLanguage();
+			for (ToolCallBiFunctionDef<?> tool : createTools()) {
+				catalog.bind(qualifiedKey(tool), tool, language);
+			}
+		}
+		int catalogLookups = languageLookups.get();
+
+		// Six of the seven tools have localized descriptions and parameters
+		assertTrue(directLookups >= 6 * rounds, "direct language lookups: " + directLookups);
+		assertEquals(rounds, catalogLookups);
+		assertEquals(7L, catalog.getMetrics().get("entries"));
+	}
+
+	private List<ToolCallBiFunctionDef<?>> createTools() {
+		List<ToolCallBiFunctionDef<?>> tools = new ArrayList<>();
+		tools.add(new DebugTool(toolI18nService));
+		tools.add(new ThinkTool());
+		tools.add(new ListFilesTool(null, toolI18nService));
+		tools.add(new CountFileTool(null, toolI18nService));
+		tools.add(new SplitFileTool(null, toolI18nService));
+		tools.add(new ReadFileOperator(null, null, null, toolI18nService));
+		tools.add(new WriteFileOperator(null, null, null, toolI18nService));
+		return tools;
+	}
+
+	private String qualifiedKey(ToolCallBiFunctionDef<?> tool) {
+		String serviceGroup = tool.getServiceGroup();
+		return serviceGroup != null && !serviceGroup.isEmpty() ? serviceGroup + "-" + tool.getName() : tool.getName();
+	}
+
+}
@@ -0,0 +1,110 @@
+/*
+ * Copyright 2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.lynxe.recorder.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.alibaba.cloud.ai.lynxe.recorder.entity.po.AgentExecutionRecordEntity;
+import com.alibaba.cloud.ai.lynxe.recorder.entity.po.ExecutionStatusEntity;
+import com.alibaba.cloud.ai.lynxe.recorder.entity.po.ThinkActRecordEntity;
+
+/**
+ * The agent_execution_record_id join column of think-act records is written only through
+ * ThinkActRecordEntity.agentExecutionRecordId; saving the agent execution record keeps
+ * the link of its steps.
+ */
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class AgentExecutionRecordRepositoryTest {
+
+	@Configuration
+	@EnableJpaRepositories(basePackageClasses = AgentExecutionRecordRepository.class)
+	@EntityScan(basePackageClasses = AgentExecutionRecordEntity.class)
+	static class TestConfig {
+
+	}
+
+	@Autowired
+	private AgentExecutionRecordRepository agentExecutionRecordRepository;
+
+	@Autowired
+	private ThinkActRecordRepository thinkActRecordRepository;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	@Test
+	void savingParentWithStepsKeepsTheirForeignKey() {
+		Long agentRecordId = agentExecutionRecordRepository
+			.save(new AgentExecutionRecordEntity("step-cascade", "agent", "description"))
+			.getId();
+		new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+			AgentExecutionRecordEntity agentRecord = agentExecutionRecordRepository.findById(agentRecordId)
+				.orElseThrow();
+			agentRecord.addThinkActStep(thinkActRecord("cascade-0"));
+			agentRecord.addThinkActStep(thinkActRecord("cascade-1"));
+			agentRecord = agentExecutionRecordRepository.saveAndFlush(agentRecord);
+			// A later write to a step rewrites all of its columns
+			agentRecord.getThinkActSteps().get(0).setThinkOutput("output");
+		});
+
+		assertEquals(List.of(agentRecordId, agentRecordId), linkedAgentRecordIds("cascade-"));
+	}
+
+	@Test
+	void savingParentWithoutLoadedStepsKeepsTheirForeignKey() {
+		AgentExecutionRecordEntity agentRecord = agentExecutionRecordRepository
+			.save(new AgentExecutionRecordEntity("step-detached", "agent", "description"));
+		// Written the way the recorder does, without touching the collection
+		ThinkActRecordEntity step = thinkActRecord("detached-0");
+		step.setAgentExecutionRecordId(agentRecord.getId());
+		thinkActRecordRepository.save(step);
+
+		// The detached record still holds the empty list it was created with
+		agentRecord.setStatus(ExecutionStatusEntity.FINISHED);
+		agentExecutionRecordRepository.save(agentRecord);
+
+		assertEquals(List.of(agentRecord.getId()), linkedAgentRecordIds("detached-"));
+	}
+
+	private List<Long> linkedAgentRecordIds(String thinkActIdPrefix) {
+		return thinkActRecordRepository.findAll()
+			.stream()
+			.filter(record -> record.getThinkActId().startsWith(thinkActIdPrefix))
+			.map(ThinkActRecordEntity::getAgentExecutionRecordId)
+			.toList();
+	}
+
+	private static ThinkActRecordEntity thinkActRecord(String thinkActId) {
+		ThinkActRecordEntity record = new ThinkActRecordEntity();
+		record.setThinkActId(thinkActId);
+		return record;
+	}
+
+}
@@ -0,0 +1,227 @@
+/*
+ * Copyright 2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.lynxe.recorder.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.mockingDetails;
+import static org.mockito.Mockito.verify;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.alibaba.cloud.ai.lynxe.event.LynxeEvent;
+import com.alibaba.cloud.ai.lynxe.event.LynxeEventPublisher;
+import com.alibaba.cloud.ai.lynxe.event.PlanExecutionUpdateEvent;
+import com.alibaba.cloud.ai.lynxe.recorder.entity.po.AgentExecutionRecordEntity;
+import com.alibaba.cloud.ai.lynxe.recorder.entity.po.PlanExecutionRecordEntity;
+import com.alibaba.cloud.ai.lynxe.recorder.entity.po.ThinkActRecordEntity;
+import com.alibaba.cloud.ai.lynxe.recorder.entity.vo.PlanExecutionDelta;
+import com.alibaba.cloud.ai.lynxe.recorder.entity.vo.PlanExecutionDelta.DeltaType;
+import com.alibaba.cloud.ai.lynxe.recorder.repository.AgentExecutionRecordRepository;
+import com.alibaba.cloud.ai.lynxe.recorder.repository.PlanExecutionRecordRepository;
+import com.alibaba.cloud.ai.lynxe.recorder.repository.ThinkActRecordRepository;
+import com.alibaba.cloud.ai.lynxe.recorder.service.PlanExecutionRecorder.ActToolParam;
+import com.alibaba.cloud.ai.lynxe.recorder.service.PlanExecutionRecorder.ThinkActRecordParams;
+import com.alibaba.cloud.ai.lynxe.runtime.entity.vo.ExecutionStep;
+
+/**
+ * Write-behind recording through {@link ExecutionRecordWriter}: records of a step are
+ * written in order and complete once the step ends, a full queue blocks submitters
+ * instead of dropping writes, and plan start deltas are published only once committed.
+ */
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ExecutionRecordWriterTest {
+
+	@Configuration
+	@EnableJpaRepositories(basePackageClasses = PlanExecutionRecordRepository.class)
+	@EntityScan(basePackageClasses = PlanExecutionRecordEntity.class)
+	@Import({ NewRepoPlanExecutionRecorder.class, ExecutionRecordWriter.class })
+	static class TestConfig {
+
+		@Bean
+		LynxeEventPublisher lynxeEventPublisher() {
+			return mock(LynxeEventPublisher.class);
+		}
+
+	}
+
+	@Autowired
+	private NewRepoPlanExecutionRecorder recorder;
+
+	@Autowired
+	private ExecutionRecordWriter writer;
+
+	@Autowired
+	private LynxeEventPublisher lynxeEventPublisher;
+
+	@Autowired
+	private AgentExecutionRecordRepository agentExecutionRecordRepository;
+
+	@Autowired
+	private ThinkActRecordRepository thinkActRecordRepository;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	@Test
+	void stepRecordsAreWrittenInOrderBeforeStepEnds() {
+		ExecutionStep step = new ExecutionStep("step-write-behind");
+		step.setStepRequirement("[WRITER] record steps");
+		recorder.recordPlanExecutionStart("plan-write-behind", "title", "request", List.of(step), null, null, null);
+		recorder.recordStepStart(step, "plan-write-behind");
+
+		List<ActToolParam> liveParams = new ArrayList<>();
+		for (int i = 0; i < 5; i++) {
+			ActToolParam tool = new ActToolParam("tool", "{\"i\":" + i + "}", "call-" + i);
+			liveParams.add(tool);
+			assertNull(recorder.recordThinkingAndAction(step, new ThinkActRecordParams("think-" + i, step.getStepId(),
+					"input " + i, "output " + i, null, 10, 20, 1000, List.of(tool))));
+			// Set after recording, as the agent does; only the action result carries it
+			tool.setResult("result " + i);
+			recorder.recordActionResult(List.of(tool));
+		}
+		recorder.recordStepEnd(step, "plan-write-behind");
+
+		AgentExecutionRecordEntity agentRecord = agentExecutionRecordRepository.findByStepId(step.getStepId())
+			.orElseThrow();
+		List<ThinkActRecordEntity> records = thinkActRecordRepository
+			.findByParentExecutionIdWithActToolInfo(agentRecord.getId());
+		assertEquals(5, records.size());
+		for (int i = 0; i < 5; i++) {
+			ThinkActRecordEntity record = records.get(i);
+			assertEquals("think-" + i, record.getThinkActId());
+			assertEquals(agentRecord.getId(), record.getAgentExecutionRecordId());
+			assertEquals("result " + i, record.getActToolInfoList().get(0).getResult());
+		}
+		// Linked through the collection mapping as well
+		int linkedSteps = new TransactionTemplate(transactionManager)
+			.execute(status -> agentExecutionRecordRepository.findById(agentRecord.getId())
+				.orElseThrow()
+				.getThinkActSteps()
+				.size());
+		assertEquals(5, linkedSteps);
+		assertEquals(0, writer.getMetrics().get("pending"));
+
+		ArgumentCaptor<LynxeEvent> events = ArgumentCaptor.forClass(LynxeEvent.class);
+		verify(lynxeEventPublisher, atLeastOnce()).publish(events.capture());
+		List<String> sequence = new ArrayList<>();
+		for (LynxeEvent event : events.getAllValues()) {
+			PlanExecutionDelta delta = ((PlanExecutionUpdateEvent) event).getDelta();
+			if (delta.getType() == DeltaType.TOOL_RESULT) {
+				sequence.add(delta.getActToolInfo().getResult());
+			}
+			else if (delta.getType() == DeltaType.THINK_ACT_RECORDED || delta.getType() == DeltaType.STEP_FINISHED) {
+				sequence.add(delta.getType().name());
+			}
+		}
+		List<String> expected = new ArrayList<>();
+		for (int i = 0; i < 5; i++) {
+			expected.add("THINK_ACT_RECORDED");
+			expected.add("result " + i);
+		}
+		expected.add("STEP_FINISHED");
+		assertEquals(expected, sequence);
+	}
+
+	@Test
+	void planStartIsPublishedOnlyAfterCommit() {
+		TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+		transaction.executeWithoutResult(status -> {
+			recorder.recordPlanExecutionStart("plan-committed", "title", "request", List.of(), null, null, null);
+			assertEquals(0, planStartedDeltas("plan-committed"));
+		});
+		assertEquals(1, planStartedDeltas("plan-committed"));
+
+		transaction.executeWithoutResult(status -> {
+			recorder.recordPlanExecutionStart("plan-rolled-back", "title", "request", List.of(), null, null, null);
+			status.setRollbackOnly();
+		});
+		assertEquals(0, planStartedDeltas("plan-rolled-back"));
+	}
+
+	private long planStartedDeltas(String planId) {
+		return mockingDetails(lynxeEventPublisher).getInvocations()
+			.stream()
+			.map(invocation -> invocation.getArgument(0))
+			.filter(PlanExecutionUpdateEvent.class::isInstance)
+			.map(event -> ((PlanExecutionUpdateEvent) event).getDelta())
+			.filter(delta -> delta.getType() == DeltaType.PLAN_STARTED && planId.equals(delta.getCurrentPlanId()))
+			.count();
+	}
+
+	@Test
+	void fullQueueBlocksSubmitterAndKeepsOrder() throws InterruptedException {
+		ExecutionRecordWriter smallWriter = new ExecutionRecordWriter(transactionManager, true, 2, 1);
+		CountDownLatch release = new CountDownLatch(1);
+		List<Integer> order = Collections.synchronizedList(new ArrayList<>());
+		try {
+			smallWriter.submit(() -> {
+				try {
+					release.await(5, TimeUnit.SECONDS);
+				}
+				catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+				order.add(0);
+			});
+			Thread submitter = new Thread(() -> {
+				for (int i = 1; i <= 4; i++) {
+					int index = i;
+					smallWriter.submit(() -> order.add(index));
+				}
+			});
+			submitter.start();
+			long deadline = System.currentTimeMillis() + 5000;
+			while ((long) smallWriter.getMetrics().get("blockedSubmits") == 0
+					&& System.currentTimeMillis() < deadline) {
+				Thread.sleep(5);
+			}
+			assertTrue((long) smallWriter.getMetrics().get("blockedSubmits") > 0);
+			release.countDown();
+			submitter.join(5000);
+			smallWriter.flush();
+			assertEquals(List.of(0, 1, 2, 3, 4), order);
+			assertEquals(5L, smallWriter.getMetrics().get("written"));
+		}
+		finally {
+			release.countDown();
+			smallWriter.shutdown();
+		}
+	}
+
+}
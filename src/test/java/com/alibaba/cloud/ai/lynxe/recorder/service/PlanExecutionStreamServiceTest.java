@@ -0,0 +1,218 @@
+/*
+ * Copyright 2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.lynxe.recorder.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.alibaba.cloud.ai.lynxe.event.PlanExecutionUpdateEvent;
+import com.alibaba.cloud.ai.lynxe.recorder.entity.po.PlanExecutionRecordEntity;
+import com.alibaba.cloud.ai.lynxe.recorder.entity.vo.ExecutionStatus;
+import com.alibaba.cloud.ai.lynxe.recorder.entity.vo.PlanExecutionDelta;
+import com.alibaba.cloud.ai.lynxe.recorder.entity.vo.PlanExecutionDelta.DeltaType;
+import com.alibaba.cloud.ai.lynxe.recorder.repository.PlanExecutionRecordRepository;
+
+import reactor.core.publisher.Flux;
+
+/**
+ * Sequencing, resumption and completion of {@link PlanExecutionStreamService} streams,
+ * and the answers given to subscribers of plans without a live stream.
+ */
+class PlanExecutionStreamServiceTest {
+
+	private static final Duration TIMEOUT = Duration.ofSeconds(5);
+
+	// Mirrors the per-plan replay buffer size of the service
+	private static final int REPLAY_BUFFER_SIZE = 1000;
+
+	private PlanExecutionRecordRepository repository;
+
+	private PlanExecutionStreamService service;
+
+	@BeforeEach
+	void setUp() {
+		repository = mock(PlanExecutionRecordRepository.class);
+		when(repository.findByCurrentPlanId(anyString())).thenReturn(Optional.empty());
+		service = new PlanExecutionStreamService(repository);
+	}
+
+	@Test
+	void assignsIncreasingSequencesPerRootPlan() {
+		publish(delta(DeltaType.PLAN_STARTED, "root-a"));
+		publish(delta(DeltaType.PLAN_STARTED, "root-b"));
+		publish(delta(DeltaType.STEP_STARTED, "root-a"));
+		publish(delta(DeltaType.STEP_FINISHED, "root-a"));
+		publish(completed("root-a"));
+
+		List<PlanExecutionDelta> deltas = collect(service.subscribe("root-a", null));
+
+		assertEquals(List.of(1L, 2L, 3L, 4L), deltas.stream().map(PlanExecutionDelta::getSequence).toList());
+		assertEquals(List.of(DeltaType.PLAN_STARTED, DeltaType.STEP_STARTED, DeltaType.STEP_FINISHED,
+				DeltaType.PLAN_COMPLETED), deltas.stream().map(PlanExecutionDelta::getType).toList());
+		assertTrue(deltas.stream().allMatch(delta -> "root-a".equals(delta.getRootPlanId())));
+	}
+
+	@Test
+	void routesSubPlanDeltasToTheirRootPlan() {
+		publish(delta(DeltaType.PLAN_STARTED, "root"));
+		PlanExecutionDelta subPlanStarted = new PlanExecutionDelta(DeltaType.PLAN_STARTED);
+		subPlanStarted.setCurrentPlanId("sub");
+		subPlanStarted.setRootPlanId("root");
+		publish(subPlanStarted);
+		// Later sub-plan deltas only carry their own plan id
+		PlanExecutionDelta subPlanCompleted = new PlanExecutionDelta(DeltaType.PLAN_COMPLETED);
+		subPlanCompleted.setCurrentPlanId("sub");
+		publish(subPlanCompleted);
+		publish(completed("root"));
+
+		List<PlanExecutionDelta> deltas = collect(service.subscribe("root", null));
+
+		assertEquals(4, deltas.size());
+		assertEquals("sub", deltas.get(2).getCurrentPlanId());
+		assertEquals(3L, deltas.get(2).getSequence());
+	}
+
+	@Test
+	void resumesAfterLastSeenSequence() {
+		publish(delta(DeltaType.PLAN_STARTED, "root"));
+		publish(delta(DeltaType.STEP_STARTED, "root"));
+		publish(delta(DeltaType.STEP_FINISHED, "root"));
+		publish(completed("root"));
+
+		List<PlanExecutionDelta> deltas = collect(service.subscribe("root", 2L));
+
+		assertEquals(List.of(3L, 4L), deltas.stream().map(PlanExecutionDelta::getSequence).toList());
+	}
+
+	@Test
+	void requiresResyncWhenResumePointWasDroppedFromReplayBuffer() {
+		publish(delta(DeltaType.PLAN_STARTED, "root"));
+		for (int i = 0; i < REPLAY_BUFFER_SIZE + 10; i++) {
+			publish(delta(DeltaType.STEP_STARTED, "root"));
+		}
+		long lastPublished = REPLAY_BUFFER_SIZE + 11;
+		List<PlanExecutionDelta> received = new ArrayList<>();
+		service.subscribe("root", 1L).subscribe(received::add);
+
+		publish(completed("root"));
+
+		assertEquals(2, received.size());
+		assertEquals(DeltaType.RESYNC_REQUIRED, received.get(0).getType());
+		assertEquals(lastPublished, received.get(0).getSequence());
+		assertEquals(DeltaType.PLAN_COMPLETED, received.get(1).getType());
+		assertEquals(lastPublished + 1, received.get(1).getSequence());
+	}
+
+	@Test
+	void requiresResyncForSequenceAheadOfStream() {
+		publish(delta(DeltaType.PLAN_STARTED, "root"));
+		publish(completed("root"));
+
+		List<PlanExecutionDelta> deltas = collect(service.subscribe("root", 50L));
+
+		assertEquals(DeltaType.RESYNC_REQUIRED, deltas.get(0).getType());
+	}
+
+	@Test
+	void completesLiveSubscriberOnRootPlanCompletion() {
+		publish(delta(DeltaType.PLAN_STARTED, "root"));
+		List<PlanExecutionDelta> received = new ArrayList<>();
+		boolean[] completed = new boolean[1];
+		service.subscribe("root", null).subscribe(received::add, error -> {
+		}, () -> completed[0] = true);
+
+		// A completed sub-plan does not end the root plan stream
+		PlanExecutionDelta subPlanCompleted = new PlanExecutionDelta(DeltaType.PLAN_COMPLETED);
+		subPlanCompleted.setCurrentPlanId("sub");
+		subPlanCompleted.setRootPlanId("root");
+		publish(subPlanCompleted);
+		assertEquals(2, received.size());
+		assertFalse(completed[0]);
+
+		publish(completed("root"));
+
+		assertEquals(3, received.size());
+		assertTrue(completed[0]);
+	}
+
+	@Test
+	void completesImmediatelyForUnknownPlan() {
+		List<PlanExecutionDelta> deltas = collect(service.subscribe("unknown", null));
+
+		assertTrue(deltas.isEmpty());
+	}
+
+	@Test
+	void answersFinishedPlanWithoutStreamFromPersistedRecord() {
+		PlanExecutionRecordEntity entity = new PlanExecutionRecordEntity("done");
+		entity.complete("summary");
+		when(repository.findByCurrentPlanId("done")).thenReturn(Optional.of(entity));
+
+		List<PlanExecutionDelta> deltas = collect(service.subscribe("done", 12L));
+
+		assertEquals(1, deltas.size());
+		assertEquals(DeltaType.RESYNC_REQUIRED, deltas.get(0).getType());
+		assertEquals("done", deltas.get(0).getRootPlanId());
+		assertEquals(ExecutionStatus.FINISHED, deltas.get(0).getStatus());
+	}
+
+	@Test
+	void continuesRunningPlanWithoutStreamAfterResync() {
+		PlanExecutionRecordEntity entity = new PlanExecutionRecordEntity("running");
+		when(repository.findByCurrentPlanId("running")).thenReturn(Optional.of(entity));
+		List<PlanExecutionDelta> received = new ArrayList<>();
+		service.subscribe("running", 12L).subscribe(received::add);
+
+		publish(delta(DeltaType.STEP_FINISHED, "running"));
+		publish(completed("running"));
+
+		assertEquals(List.of(DeltaType.RESYNC_REQUIRED, DeltaType.STEP_FINISHED, DeltaType.PLAN_COMPLETED),
+				received.stream().map(PlanExecutionDelta::getType).toList());
+		assertEquals(ExecutionStatus.RUNNING, received.get(0).getStatus());
+	}
+
+	private void publish(PlanExecutionDelta delta) {
+		service.onEvent(new PlanExecutionUpdateEvent(delta));
+	}
+
+	private static PlanExecutionDelta delta(DeltaType type, String rootPlanId) {
+		PlanExecutionDelta delta = new PlanExecutionDelta(type);
+		delta.setCurrentPlanId(rootPlanId);
+		delta.setRootPlanId(rootPlanId);
+		return delta;
+	}
+
+	private static PlanExecutionDelta completed(String rootPlanId) {
+		return delta(DeltaType.PLAN_COMPLETED, rootPlanId);
+	}
+
+	private static List<PlanExecutionDelta> collect(Flux<PlanExecutionDelta> flux) {
+		return flux.collectList().block(TIMEOUT);
+	}
+
+}
@@ -0,0 +1,364 @@
+/*
+ * Copyright 2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.lynxe.recorder.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+
+import com.alibaba.cloud.ai.lynxe.recorder.entity.po.ActToolInfoEntity;
+import com.alibaba.cloud.ai.lynxe.recorder.entity.po.AgentExecutionRecordEntity;
+import com.alibaba.cloud.ai.lynxe.recorder.entity.po.PlanExecutionRecordEntity;
+import com.alibaba.cloud.ai.lynxe.recorder.entity.po.ThinkActRecordEntity;
+import com.alibaba.cloud.ai.lynxe.recorder.entity.vo.AgentExecutionRecord;
+import com.alibaba.cloud.ai.lynxe.recorder.entity.vo.PlanExecutionRecord;
+import com.alibaba.cloud.ai.lynxe.recorder.entity.vo.ThinkActRecord;
+import com.alibaba.cloud.ai.lynxe.recorder.repository.ActToolInfoRepository;
+import com.alibaba.cloud.ai.lynxe.recorder.repository.PlanExecutionRecordRepository;
+import com.alibaba.cloud.ai.lynxe.recorder.repository.ThinkActRecordRepository;
+
+import jakarta.persistence.EntityManager;
+
+/**
+ * Query count benchmark for {@link PlanHierarchyReaderService#readPlanTreeByRootId}.
+ *
+ * Builds a root plan whose single agent issued N tool calls, each one spawning a
+ * sub-plan, then compares the batched loader against the previous per-agent, per-sub-plan
+ * lookup pattern (reproduced in {@link #readWithLegacyQueryPattern}). The legacy pattern
+ * issues O(agents x sub-plans) queries, so it is only measured up to 100 sub-plans. A
+ * multi-level tree is also compared against the legacy lookups to check that the batched
+ * loader attaches every sub-plan, think-act step and parent tool call to the same place.
+ */
+@DataJpaTest(properties = { "spring.jpa.properties.hibernate.generate_statistics=true",
+		"logging.level.org.hibernate.stat=WARN" })
+class PlanHierarchyReaderServiceBenchmarkTest {
+
+	private static final int LEGACY_MAX_SUB_PLANS = 100;
+
+	@Configuration
+	@EnableJpaRepositories(basePackageClasses = PlanExecutionRecordRepository.class)
+	@EntityScan(basePackageClasses = PlanExecutionRecordEntity.class)
+	@Import(PlanHierarchyReaderService.class)
+	static class TestConfig {
+
+	}
+
+	@Autowired
+	private PlanHierarchyReaderService planHierarchyReaderService;
+
+	@Autowired
+	private PlanExecutionRecordRepository planExecutionRecordRepository;
+
+	@Autowired
+	private ThinkActRecordRepository thinkActRecordRepository;
+
+	@Autowired
+	private ActToolInfoRepository actToolInfoRepository;
+
+	@Autowired
+	private EntityManager entityManager;
+
+	@ParameterizedTest
+	@ValueSource(ints = { 10, 100, 1000 })
+	void benchmarkTreeRead(int subPlanCount) {
+		String rootPlanId = createPlanTree(subPlanCount);
+		Statistics statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+
+		// Batched loader
+		statistics.clear();
+		PlanExecutionRecord rootPlan = planHierarchyReaderService.readPlanTreeByRootId(rootPlanId);
+		long batchedQueries = statistics.getPrepareStatementCount();
+
+		assertNotNull(rootPlan);
+		AgentExecutionRecord rootAgent = rootPlan.getAgentExecutionSequence().get(0);
+		assertEquals(subPlanCount, rootAgent.getSubPlanExecutionRecords().size());
+		assertEquals(subPlanCount, rootAgent.getThinkActSteps().size());
+		assertNotNull(rootAgent.getSubPlanExecutionRecords().get(0).getParentActToolCall());
+		// Independent of tree size: plans + one think-act batch per 500 agents
+		assertTrue(batchedQueries <= 2 + (subPlanCount + 1 + PlanHierarchyReaderService.MAX_IN_LIST_SIZE - 1)
+				/ PlanHierarchyReaderService.MAX_IN_LIST_SIZE, "batched queries: " + batchedQueries);
+
+		if (subPlanCount <= LEGACY_MAX_SUB_PLANS) {
+			entityManager.clear();
+			statistics.clear();
+			int matched = readWithLegacyQueryPattern(rootPlanId);
+			assertEquals(subPlanCount, matched);
+			// The legacy pattern grows with the sub-plan count
+			long legacyQueries = statistics.getPrepareStatementCount();
+			assertTrue(legacyQueries > subPlanCount, "legacy queries: " + legacyQueries);
+			assertTrue(batchedQueries < legacyQueries);
+		}
+	}
+
+	@Test
+	void batchedTreeMatchesLegacyLookupsOnMultiLevelTree() {
+		String rootPlanId = createMultiLevelPlanTree();
+
+		PlanExecutionRecord rootPlan = planHierarchyReaderService.readPlanTreeByRootId(rootPlanId);
+		assertNotNull(rootPlan);
+		String batched = describe(rootPlan);
+
+		entityManager.clear();
+		List<PlanExecutionRecordEntity> plans = planExecutionRecordRepository.findByRootPlanId(rootPlanId);
+		PlanExecutionRecordEntity rootEntity = planExecutionRecordRepository.findByCurrentPlanId(rootPlanId)
+			.orElseThrow();
+		String legacy = describeWithLegacyLookups(rootEntity, plans);
+
+		assertEquals(legacy, batched);
+		// Root plan, three sub-plans and two sub-sub-plans
+		assertEquals(6, batched.lines().filter(line -> line.trim().startsWith("plan ")).count(), batched);
+	}
+
+	/**
+	 * Reproduces the lookup pattern used before the batched loader: agent records and
+	 * think-act records are loaded per agent, parent tool calls per sub-plan and the
+	 * hierarchy with two lookups per (agent, sub-plan) pair.
+	 * @return Number of sub-plans matched to an agent
+	 */
+	private int readWithLegacyQueryPattern(String rootPlanId) {
+		planExecutionRecordRepository.findByCurrentPlanId(rootPlanId);
+		List<PlanExecutionRecordEntity> plans = planExecutionRecordRepository.findByRootPlanId(rootPlanId);
+		List<AgentExecutionRecordEntity> agents = new ArrayList<>();
+		List<PlanExecutionRecordEntity> subPlans = new ArrayList<>();
+		for (PlanExecutionRecordEntity plan : plans) {
+			agents.addAll(plan.getAgentExecutionSequence());
+			for (AgentExecutionRecordEntity agent : plan.getAgentExecutionSequence()) {
+				thinkActRecordRepository.findByParentExecutionIdWithActToolInfo(agent.getId());
+			}
+			if (plan.getToolCallId() != null) {
+				actToolInfoRepository.findByToolCallId(plan.getToolCallId());
+				subPlans.add(plan);
+			}
+		}
+		int matched = 0;
+		for (AgentExecutionRecordEntity agent : agents) {
+			for (PlanExecutionRecordEntity subPlan : subPlans) {
+				actToolInfoRepository.findByToolCallId(subPlan.getToolCallId());
+				ThinkActRecordEntity thinkAct = thinkActRecordRepository
+					.findByActToolInfoToolCallId(subPlan.getToolCallId())
+					.orElse(null);
+				if (thinkAct != null && agent.getId().equals(thinkAct.getParentExecutionId())) {
+					matched++;
+				}
+			}
+		}
+		return matched;
+	}
+
+	private String createPlanTree(int subPlanCount) {
+		String rootPlanId = "plan-root-" + subPlanCount;
+		PlanExecutionRecordEntity rootPlan = newPlan(rootPlanId, rootPlanId, null, null);
+		rootPlan = planExecutionRecordRepository.save(rootPlan);
+		AgentExecutionRecordEntity rootAgent = rootPlan.getAgentExecutionSequence().get(0);
+
+		for (int i = 0; i < subPlanCount; i++) {
+			String toolCallId = rootPlanId + "-call-" + i;
+			ThinkActRecordEntity thinkAct = new ThinkActRecordEntity(rootAgent.getId());
+			thinkAct.setThinkInput("input " + i);
+			thinkAct.setThinkOutput("output " + i);
+			List<ActToolInfoEntity> toolInfos = new ArrayList<>();
+			toolInfos.add(new ActToolInfoEntity("subplan-tool", "{\"index\":" + i + "}", toolCallId));
+			thinkAct.setActToolInfoList(toolInfos);
+			thinkActRecordRepository.save(thinkAct);
+
+			PlanExecutionRecordEntity subPlan = newPlan(rootPlanId + "-sub-" + i, rootPlanId, rootPlanId, toolCallId);
+			subPlan = planExecutionRecordRepository.save(subPlan);
+			ThinkActRecordEntity subThinkAct = new ThinkActRecordEntity(
+					subPlan.getAgentExecutionSequence().get(0).getId());
+			subThinkAct.setThinkOutput("sub output " + i);
+			thinkActRecordRepository.save(subThinkAct);
+		}
+		entityManager.flush();
+		entityManager.clear();
+		return rootPlanId;
+	}
+
+	/**
+	 * Root plan with two agents: the first spawns two sub-plans, the second one. The
+	 * first sub-plan's agent spawns two sub-sub-plans, one of them started earlier than
+	 * the other to check ordering by start time.
+	 */
+	private String createMultiLevelPlanTree() {
+		String rootPlanId = "plan-multi-level";
+		LocalDateTime start = LocalDateTime.now().minusHours(1);
+		PlanExecutionRecordEntity rootPlan = newPlan(rootPlanId, rootPlanId, null, null);
+		rootPlan.addAgentExecutionRecord(new AgentExecutionRecordEntity(rootPlanId + "-step-1", "Agent", "second"));
+		rootPlan = planExecutionRecordRepository.save(rootPlan);
+		List<AgentExecutionRecordEntity> rootAgents = rootPlan.getAgentExecutionSequence();
+
+		PlanExecutionRecordEntity firstSubPlan = spawnSubPlan(rootPlanId, rootPlanId, rootAgents.get(0), "a",
+				start.plusSeconds(1));
+		spawnSubPlan(rootPlanId, rootPlanId, rootAgents.get(0), "b", start.plusSeconds(2));
+		spawnSubPlan(rootPlanId, rootPlanId, rootAgents.get(1), "c", start.plusSeconds(3));
+		AgentExecutionRecordEntity subAgent = firstSubPlan.getAgentExecutionSequence().get(0);
+		spawnSubPlan(rootPlanId, firstSubPlan.getCurrentPlanId(), subAgent, "a2", start.plusSeconds(20));
+		spawnSubPlan(rootPlanId, firstSubPlan.getCurrentPlanId(), subAgent, "a1", start.plusSeconds(10));
+
+		entityManager.flush();
+		entityManager.clear();
+		return rootPlanId;
+	}
+
+	private PlanExecutionRecordEntity spawnSubPlan(String rootPlanId, String parentPlanId,
+			AgentExecutionRecordEntity agent, String name, LocalDateTime startTime) {
+		String toolCallId = parentPlanId + "-call-" + name;
+		ThinkActRecordEntity thinkAct = new ThinkActRecordEntity(agent.getId());
+		thinkAct.setThinkOutput("spawn " + name);
+		List<ActToolInfoEntity> toolInfos = new ArrayList<>();
+		toolInfos.add(new ActToolInfoEntity("subplan-tool", "{\"name\":\"" + name + "\"}", toolCallId));
+		thinkAct.setActToolInfoList(toolInfos);
+		thinkActRecordRepository.save(thinkAct);
+
+		PlanExecutionRecordEntity subPlan = newPlan(rootPlanId + "-sub-" + name, rootPlanId, parentPlanId, toolCallId);
+		subPlan.setStartTime(startTime);
+		return planExecutionRecordRepository.save(subPlan);
+	}
+
+	private static String describe(PlanExecutionRecord plan) {
+		StringBuilder out = new StringBuilder();
+		describe(plan, "", out);
+		return out.toString();
+	}
+
+	private static void describe(PlanExecutionRecord plan, String indent, StringBuilder out) {
+		out.append(indent)
+			.append("plan ")
+			.append(plan.getCurrentPlanId())
+			.append(" parentCall=")
+			.append(plan.getParentActToolCall() != null ? plan.getParentActToolCall().getId() : null)
+			.append('\n');
+		if (plan.getAgentExecutionSequence() == null) {
+			return;
+		}
+		for (AgentExecutionRecord agent : plan.getAgentExecutionSequence()) {
+			out.append(indent)
+				.append("  agent ")
+				.append(agent.getStepId())
+				.append(" rounds=")
+				.append(agent.getLatestRoundNumber())
+				.append(" latest=")
+				.append(agent.getLatestMethodName())
+				.append('\n');
+			if (agent.getThinkActSteps() != null) {
+				for (ThinkActRecord thinkAct : agent.getThinkActSteps()) {
+					out.append(indent).append("    think ").append(thinkAct.getThinkOutput()).append(" calls=");
+					if (thinkAct.getActToolInfoList() != null) {
+						thinkAct.getActToolInfoList().forEach(toolInfo -> out.append(toolInfo.getId()).append(' '));
+					}
+					out.append('\n');
+				}
+			}
+			if (agent.getSubPlanExecutionRecords() != null) {
+				for (PlanExecutionRecord subPlan : agent.getSubPlanExecutionRecords()) {
+					describe(subPlan, indent + "    ", out);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Describes the tree in the same format as {@link #describe(PlanExecutionRecord)},
+	 * resolving parent tool calls, think-act steps and sub-plan owners one record at a
+	 * time as the reader did before batching.
+	 */
+	private String describeWithLegacyLookups(PlanExecutionRecordEntity plan, List<PlanExecutionRecordEntity> plans) {
+		StringBuilder out = new StringBuilder();
+		describeWithLegacyLookups(plan, plans, "", out);
+		return out.toString();
+	}
+
+	private void describeWithLegacyLookups(PlanExecutionRecordEntity plan, List<PlanExecutionRecordEntity> plans,
+			String indent, StringBuilder out) {
+		String parentCall = plan.getToolCallId() == null ? null
+				: actToolInfoRepository.findByToolCallId(plan.getToolCallId())
+					.map(ActToolInfoEntity::getToolCallId)
+					.orElse(null);
+		out.append(indent).append("plan ").append(plan.getCurrentPlanId()).append(" parentCall=").append(parentCall);
+		out.append('\n');
+		for (AgentExecutionRecordEntity agent : plan.getAgentExecutionSequence()) {
+			List<ThinkActRecordEntity> thinkActs = thinkActRecordRepository
+				.findByParentExecutionIdWithActToolInfo(agent.getId());
+			String latest = null;
+			if (!thinkActs.isEmpty()) {
+				List<ActToolInfoEntity> latestTools = thinkActs.get(thinkActs.size() - 1).getActToolInfoList();
+				if (latestTools != null && !latestTools.isEmpty()) {
+					latest = latestTools.get(latestTools.size() - 1).getName();
+				}
+			}
+			out.append(indent)
+				.append("  agent ")
+				.append(agent.getStepId())
+				.append(" rounds=")
+				.append(thinkActs.size())
+				.append(" latest=")
+				.append(latest)
+				.append('\n');
+			for (ThinkActRecordEntity thinkAct : thinkActs) {
+				out.append(indent).append("    think ").append(thinkAct.getThinkOutput()).append(" calls=");
+				if (thinkAct.getActToolInfoList() != null) {
+					thinkAct.getActToolInfoList().forEach(toolInfo -> out.append(toolInfo.getToolCallId()).append(' '));
+				}
+				out.append('\n');
+			}
+			List<PlanExecutionRecordEntity> subPlans = new ArrayList<>();
+			for (PlanExecutionRecordEntity candidate : plans) {
+				if (candidate.getToolCallId() == null) {
+					continue;
+				}
+				ThinkActRecordEntity owner = thinkActRecordRepository
+					.findByActToolInfoToolCallId(candidate.getToolCallId())
+					.orElse(null);
+				if (owner != null && agent.getId().equals(owner.getParentExecutionId())) {
+					subPlans.add(candidate);
+				}
+			}
+			subPlans.sort(Comparator.comparing(PlanExecutionRecordEntity::getStartTime,
+					Comparator.nullsLast(Comparator.naturalOrder())));
+			for (PlanExecutionRecordEntity subPlan : subPlans) {
+				describeWithLegacyLookups(subPlan, plans, indent + "    ", out);
+			}
+		}
+	}
+
+	private PlanExecutionRecordEntity newPlan(String planId, String rootPlanId, String parentPlanId,
+			String toolCallId) {
+		PlanExecutionRecordEntity plan = new PlanExecutionRecordEntity(planId);
+		plan.setRootPlanId(rootPlanId);
+		plan.setParentPlanId(parentPlanId);
+		plan.setToolCallId(toolCallId);
+		plan.setStartTime(LocalDateTime.now());
+		plan.addAgentExecutionRecord(new AgentExecutionRecordEntity(planId + "-step-0", "Agent", "description"));
+		return plan;
+	}
+
+}
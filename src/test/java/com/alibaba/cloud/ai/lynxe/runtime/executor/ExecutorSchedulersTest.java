@@ -0,0 +1,88 @@
+/*
+ * Copyright 2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.lynxe.runtime.executor;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import reactor.core.scheduler.Scheduler;
+
+/**
+ * Where tasks of the {@link ExecutorSchedulers} schedulers run when the level pool is
+ * free and when it is saturated.
+ */
+class ExecutorSchedulersTest {
+
+	private ThreadPoolExecutor pool;
+
+	private Scheduler scheduler;
+
+	@BeforeEach
+	void setUp() {
+		// One worker and no queue: a second task is run by the caller, like a level pool
+		// with a full queue
+		pool = new ThreadPoolExecutor(1, 1, 60, TimeUnit.SECONDS, new SynchronousQueue<>(),
+				runnable -> new Thread(runnable, "level-worker"), new ThreadPoolExecutor.CallerRunsPolicy());
+		scheduler = ExecutorSchedulers.fromExecutor(() -> pool);
+	}
+
+	@AfterEach
+	void tearDown() {
+		pool.shutdownNow();
+	}
+
+	@Test
+	void runsTasksOnPoolThreads() throws Exception {
+		assertEquals("level-worker", runOnScheduler());
+	}
+
+	@Test
+	void movesTasksOffCallerThreadWhenPoolIsSaturated() throws Exception {
+		CountDownLatch release = new CountDownLatch(1);
+		pool.execute(() -> {
+			try {
+				release.await();
+			}
+			catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		});
+		try {
+			String thread = runOnScheduler();
+			assertTrue(thread.startsWith("boundedElastic"), thread);
+		}
+		finally {
+			release.countDown();
+		}
+	}
+
+	private String runOnScheduler() throws Exception {
+		CompletableFuture<String> thread = new CompletableFuture<>();
+		scheduler.schedule(() -> thread.complete(Thread.currentThread().getName()));
+		return thread.get(5, TimeUnit.SECONDS);
+	}
+
+}
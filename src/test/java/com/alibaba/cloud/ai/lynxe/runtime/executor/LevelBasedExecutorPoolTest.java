@@ -0,0 +1,160 @@
+/*
+ * Copyright 2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.lynxe.runtime.executor;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeFalse;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.alibaba.cloud.ai.lynxe.config.LynxeProperties;
+
+/**
+ * Which executor {@link LevelBasedExecutorPool} creates for the virtual thread toggle and
+ * runtime, switching modes at runtime, and shutting the pools down.
+ */
+class LevelBasedExecutorPoolTest {
+
+	private LynxeProperties lynxeProperties;
+
+	private LevelBasedExecutorPool pool;
+
+	@BeforeEach
+	void setUp() {
+		lynxeProperties = mock(LynxeProperties.class);
+		when(lynxeProperties.getExecutorPoolSize()).thenReturn(3);
+		pool = new LevelBasedExecutorPool();
+		ReflectionTestUtils.setField(pool, "lynxeProperties", lynxeProperties);
+	}
+
+	@AfterEach
+	void tearDown() {
+		pool.shutdownAll();
+	}
+
+	@Test
+	void usesPlatformPoolsWhenToggleIsOff() throws Exception {
+		when(lynxeProperties.getExecutorVirtualThreads()).thenReturn(false);
+		pool.init();
+
+		ExecutorService executor = pool.getExecutorForLevel(1);
+
+		ThreadPoolExecutor platformPool = assertInstanceOf(ThreadPoolExecutor.class, executor);
+		assertEquals(3, platformPool.getMaximumPoolSize());
+		Thread thread = executor.submit(Thread::currentThread).get(5, TimeUnit.SECONDS);
+		assertTrue(thread.getName().startsWith("level-1-executor-"), thread.getName());
+		assertEquals("platform", levelStatistics(1).get("mode"));
+	}
+
+	@Test
+	void fallsBackToPlatformPoolsWithoutVirtualThreadSupport() {
+		assumeFalse(VirtualThreadLevelExecutor.isSupported(), "runtime supports virtual threads");
+		when(lynxeProperties.getExecutorVirtualThreads()).thenReturn(true);
+		pool.init();
+
+		assertInstanceOf(ThreadPoolExecutor.class, pool.getExecutorForLevel(0));
+		assertEquals("platform", levelStatistics(0).get("mode"));
+	}
+
+	@Test
+	void keepsPlatformPoolsWhenToggleIsTurnedOnWithoutVirtualThreadSupport() {
+		assumeFalse(VirtualThreadLevelExecutor.isSupported(), "runtime supports virtual threads");
+		when(lynxeProperties.getExecutorVirtualThreads()).thenReturn(false);
+		pool.init();
+		ExecutorService platformPool = pool.getExecutorForLevel(0);
+
+		when(lynxeProperties.getExecutorVirtualThreads()).thenReturn(true);
+		ReflectionTestUtils.invokeMethod(pool, "checkAndAdjustPoolSizes");
+
+		assertSame(platformPool, pool.getExecutorForLevel(0));
+		assertFalse(platformPool.isShutdown());
+	}
+
+	@Test
+	void usesVirtualThreadsWhenToggleIsOnAndSupported() throws Exception {
+		assumeTrue(VirtualThreadLevelExecutor.isSupported(), "virtual threads require JDK 21+");
+		when(lynxeProperties.getExecutorVirtualThreads()).thenReturn(true);
+		pool.init();
+
+		ExecutorService executor = pool.getExecutorForLevel(0);
+
+		VirtualThreadLevelExecutor virtualExecutor = assertInstanceOf(VirtualThreadLevelExecutor.class, executor);
+		assertEquals(3, virtualExecutor.getMaxConcurrency());
+		Thread thread = executor.submit(Thread::currentThread).get(5, TimeUnit.SECONDS);
+		assertTrue(VirtualThreadLevelExecutorTest.isVirtual(thread));
+		assertEquals("virtual", levelStatistics(0).get("mode"));
+	}
+
+	@Test
+	void recreatesPoolsWhenToggleChanges() {
+		assumeTrue(VirtualThreadLevelExecutor.isSupported(), "virtual threads require JDK 21+");
+		when(lynxeProperties.getExecutorVirtualThreads()).thenReturn(false);
+		pool.init();
+		ExecutorService platformPool = pool.getExecutorForLevel(0);
+
+		when(lynxeProperties.getExecutorVirtualThreads()).thenReturn(true);
+		ReflectionTestUtils.invokeMethod(pool, "checkAndAdjustPoolSizes");
+		ExecutorService virtualExecutor = pool.getExecutorForLevel(0);
+
+		assertInstanceOf(VirtualThreadLevelExecutor.class, virtualExecutor);
+		assertTrue(platformPool.isShutdown());
+
+		when(lynxeProperties.getExecutorVirtualThreads()).thenReturn(false);
+		ReflectionTestUtils.invokeMethod(pool, "checkAndAdjustPoolSizes");
+
+		assertInstanceOf(ThreadPoolExecutor.class, pool.getExecutorForLevel(0));
+		assertNotSame(platformPool, pool.getExecutorForLevel(0));
+		assertTrue(virtualExecutor.isShutdown());
+	}
+
+	@Test
+	void shutdownAllStopsEveryLevelPool() {
+		when(lynxeProperties.getExecutorVirtualThreads()).thenReturn(VirtualThreadLevelExecutor.isSupported());
+		pool.init();
+		ExecutorService root = pool.getExecutorForLevel(0);
+		ExecutorService child = pool.getExecutorForLevel(1);
+		assertEquals(2, pool.getActivePoolCount());
+
+		pool.shutdownAll();
+
+		assertTrue(root.isTerminated());
+		assertTrue(child.isTerminated());
+		assertEquals(0, pool.getActivePoolCount());
+		assertFalse(pool.getPoolStatistics().containsKey("level_0"));
+	}
+
+	@SuppressWarnings("unchecked")
+	private Map<String, Object> levelStatistics(int level) {
+		return (Map<String, Object>) pool.getPoolStatistics().get("level_" + level);
+	}
+
+}
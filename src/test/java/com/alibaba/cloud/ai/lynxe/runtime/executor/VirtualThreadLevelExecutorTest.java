@@ -0,0 +1,135 @@
+/*
+ * Copyright 2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.lynxe.runtime.executor;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeFalse;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntSupplier;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Threads, concurrency cap and shutdown of {@link VirtualThreadLevelExecutor}. Most
+ * checks need a JDK 21+ runtime and are skipped on older ones.
+ */
+class VirtualThreadLevelExecutorTest {
+
+	@Test
+	void runsTasksOnVirtualThreads() throws Exception {
+		assumeTrue(VirtualThreadLevelExecutor.isSupported(), "virtual threads require JDK 21+");
+		VirtualThreadLevelExecutor executor = new VirtualThreadLevelExecutor(2);
+		try {
+			CompletableFuture<Thread> thread = CompletableFuture.supplyAsync(Thread::currentThread, executor);
+
+			assertTrue(isVirtual(thread.get(5, TimeUnit.SECONDS)));
+			assertEquals(1, executor.getTaskCount());
+		}
+		finally {
+			executor.shutdownNow();
+		}
+	}
+
+	@Test
+	void runsNoMoreTasksThanMaxConcurrencyAtOnce() throws Exception {
+		assumeTrue(VirtualThreadLevelExecutor.isSupported(), "virtual threads require JDK 21+");
+		VirtualThreadLevelExecutor executor = new VirtualThreadLevelExecutor(2);
+		CountDownLatch release = new CountDownLatch(1);
+		AtomicInteger running = new AtomicInteger();
+		AtomicInteger peak = new AtomicInteger();
+		try {
+			for (int i = 0; i < 10; i++) {
+				executor.execute(() -> {
+					peak.accumulateAndGet(running.incrementAndGet(), Math::max);
+					try {
+						release.await();
+					}
+					catch (InterruptedException e) {
+						Thread.currentThread().interrupt();
+					}
+					running.decrementAndGet();
+				});
+			}
+			awaitCount(executor::getWaitingCount, 8);
+
+			assertEquals(2, executor.getActiveCount());
+			release.countDown();
+			executor.shutdown();
+			assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS));
+			assertEquals(2, peak.get());
+			assertEquals(10, executor.getCompletedTaskCount());
+		}
+		finally {
+			release.countDown();
+			executor.shutdownNow();
+		}
+	}
+
+	@Test
+	void rejectsTasksAfterShutdown() throws Exception {
+		assumeTrue(VirtualThreadLevelExecutor.isSupported(), "virtual threads require JDK 21+");
+		VirtualThreadLevelExecutor executor = new VirtualThreadLevelExecutor(1);
+		CountDownLatch release = new CountDownLatch(1);
+		executor.execute(() -> {
+			try {
+				release.await();
+			}
+			catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		});
+
+		executor.shutdown();
+
+		assertTrue(executor.isShutdown());
+		assertThrows(RejectedExecutionException.class, () -> executor.execute(() -> {
+		}));
+		assertEquals(1, executor.getTaskCount());
+		// Already submitted tasks still run to completion
+		release.countDown();
+		assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS));
+		assertTrue(executor.isTerminated());
+	}
+
+	@Test
+	void refusesToStartWithoutVirtualThreads() {
+		assumeFalse(VirtualThreadLevelExecutor.isSupported(), "runtime supports virtual threads");
+
+		assertThrows(UnsupportedOperationException.class, () -> new VirtualThreadLevelExecutor(1));
+	}
+
+	static boolean isVirtual(Thread thread) throws ReflectiveOperationException {
+		// Thread.isVirtual() is JDK 21+ API, the build targets JDK 17
+		return (Boolean) Thread.class.getMethod("isVirtual").invoke(thread);
+	}
+
+	private static void awaitCount(IntSupplier count, int expected) throws InterruptedException {
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+		while (count.getAsInt() != expected && System.nanoTime() < deadline) {
+			Thread.sleep(5);
+		}
+		assertEquals(expected, count.getAsInt());
+	}
+
+}
@@ -0,0 +1,88 @@
+/*
+ * Copyright 2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.lynxe.runtime.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Optional;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.alibaba.cloud.ai.lynxe.event.LynxeEventPublisher;
+import com.alibaba.cloud.ai.lynxe.event.TaskStateChangeEvent;
+import com.alibaba.cloud.ai.lynxe.runtime.entity.po.RootTaskManagerEntity;
+import com.alibaba.cloud.ai.lynxe.runtime.entity.po.RootTaskManagerEntity.DesiredTaskState;
+import com.alibaba.cloud.ai.lynxe.runtime.repository.RootTaskManagerRepository;
+
+/**
+ * {@link TaskInterruptionManager} publishes state changes only once they are committed.
+ */
+class TaskInterruptionManagerTest {
+
+	private LynxeEventPublisher publisher;
+
+	private TaskInterruptionManager manager;
+
+	@BeforeEach
+	void setUp() {
+		RootTaskManagerRepository repository = mock(RootTaskManagerRepository.class);
+		when(repository.findByRootPlanId("plan")).thenReturn(Optional.of(new RootTaskManagerEntity("plan")));
+		publisher = mock(LynxeEventPublisher.class);
+		manager = new TaskInterruptionManager();
+		ReflectionTestUtils.setField(manager, "rootTaskManagerRepository", repository);
+		ReflectionTestUtils.setField(manager, "lynxeEventPublisher", publisher);
+	}
+
+	@AfterEach
+	void tearDown() {
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			TransactionSynchronizationManager.clearSynchronization();
+		}
+	}
+
+	@Test
+	void publishesStopAfterCommit() {
+		TransactionSynchronizationManager.initSynchronization();
+
+		assertTrue(manager.stopTask("plan"));
+
+		verify(publisher, never()).publish(any());
+		TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+		ArgumentCaptor<TaskStateChangeEvent> event = ArgumentCaptor.forClass(TaskStateChangeEvent.class);
+		verify(publisher).publish(event.capture());
+		assertEquals(DesiredTaskState.STOP, event.getValue().getDesiredState());
+	}
+
+	@Test
+	void publishesRightAwayOutsideTransaction() {
+		assertTrue(manager.resumeTask("plan"));
+
+		verify(publisher).publish(any(TaskStateChangeEvent.class));
+	}
+
+}
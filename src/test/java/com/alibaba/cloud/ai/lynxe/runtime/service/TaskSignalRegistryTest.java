@@ -0,0 +1,168 @@
+/*
+ * Copyright 2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.lynxe.runtime.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.alibaba.cloud.ai.lynxe.event.TaskStateChangeEvent;
+import com.alibaba.cloud.ai.lynxe.runtime.entity.po.RootTaskManagerEntity;
+import com.alibaba.cloud.ai.lynxe.runtime.entity.po.RootTaskManagerEntity.DesiredTaskState;
+import com.alibaba.cloud.ai.lynxe.runtime.repository.RootTaskManagerRepository;
+
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+
+/**
+ * {@link TaskSignalRegistry} answers checks from memory, follows state change events,
+ * cancels guarded streams on interruption and picks up changes from other nodes.
+ */
+class TaskSignalRegistryTest {
+
+	private RootTaskManagerRepository repository;
+
+	private TaskSignalRegistry registry;
+
+	@BeforeEach
+	void setUp() {
+		repository = mock(RootTaskManagerRepository.class);
+		registry = new TaskSignalRegistry();
+		ReflectionTestUtils.setField(registry, "rootTaskManagerRepository", repository);
+	}
+
+	@Test
+	void checksLoadOnceAndFollowEvents() {
+		when(repository.findByRootPlanId("plan-1")).thenReturn(Optional.of(task("plan-1", DesiredTaskState.START)));
+		for (int i = 0; i < 100; i++) {
+			assertFalse(registry.isInterrupted("plan-1"));
+		}
+		verify(repository, times(1)).findByRootPlanId("plan-1");
+
+		registry.onEvent(new TaskStateChangeEvent("plan-1", DesiredTaskState.PAUSE));
+		assertTrue(registry.isInterrupted("plan-1"));
+		registry.onEvent(new TaskStateChangeEvent("plan-1", DesiredTaskState.RESUME));
+		assertFalse(registry.isInterrupted("plan-1"));
+		verify(repository, times(1)).findByRootPlanId("plan-1");
+	}
+
+	@Test
+	void interruptionCancelsGuardedStream() {
+		registry.onEvent(new TaskStateChangeEvent("plan-2", DesiredTaskState.START));
+		AtomicBoolean cancelled = new AtomicBoolean();
+		Flux<Long> endless = Flux.interval(Duration.ofMillis(10)).doOnCancel(() -> cancelled.set(true));
+
+		Flux<Long> guarded = registry.cancelOnInterrupt(endless, "plan-2");
+		Thread stopper = new Thread(() -> {
+			try {
+				Thread.sleep(50);
+			}
+			catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			registry.onEvent(new TaskStateChangeEvent("plan-2", DesiredTaskState.STOP));
+		});
+		stopper.start();
+
+		assertThrows(TaskInterruptionCheckerService.TaskInterruptedException.class,
+				() -> guarded.blockLast(Duration.ofSeconds(5)));
+		assertTrue(cancelled.get());
+		// Streams started after the interruption end right away
+		assertThrows(TaskInterruptionCheckerService.TaskInterruptedException.class,
+				() -> registry.cancelOnInterrupt(Flux.never(), "plan-2").blockLast(Duration.ofSeconds(5)));
+	}
+
+	@Test
+	void reconcilePicksUpChangesFromOtherNodes() {
+		registry.onEvent(new TaskStateChangeEvent("plan-3", DesiredTaskState.START));
+		when(repository.findByRootPlanIdIn(any())).thenReturn(List.of(task("plan-3", DesiredTaskState.CANCEL)));
+
+		registry.reconcile();
+
+		assertEquals(DesiredTaskState.CANCEL, registry.getDesiredState("plan-3"));
+		verify(repository, times(0)).findByRootPlanId("plan-3");
+	}
+
+	@Test
+	void reconcileKeepsStateChangedWhileDatabaseWasRead() {
+		registry.onEvent(new TaskStateChangeEvent("plan-4", DesiredTaskState.START));
+		when(repository.findByRootPlanIdIn(any())).thenAnswer(invocation -> {
+			// A local stop lands after the read returned the old row
+			registry.onEvent(new TaskStateChangeEvent("plan-4", DesiredTaskState.STOP));
+			return List.of(task("plan-4", DesiredTaskState.START));
+		});
+
+		registry.reconcile();
+
+		assertEquals(DesiredTaskState.STOP, registry.getDesiredState("plan-4"));
+	}
+
+	@Test
+	void idlePlanWithGuardedStreamIsKeptUntilStreamEnds() {
+		registry.onEvent(new TaskStateChangeEvent("plan-5", DesiredTaskState.START));
+		registry.onEvent(new TaskStateChangeEvent("plan-6", DesiredTaskState.START));
+		when(repository.findByRootPlanIdIn(any()))
+			.thenReturn(List.of(task("plan-5", DesiredTaskState.START), task("plan-6", DesiredTaskState.START)));
+		List<Throwable> errors = new ArrayList<>();
+		Disposable stream = registry.cancelOnInterrupt(Flux.never(), "plan-5").subscribe(value -> {
+		}, errors::add);
+		makeIdle("plan-5");
+		makeIdle("plan-6");
+
+		registry.reconcile();
+
+		assertEquals(1, registry.size());
+		registry.onEvent(new TaskStateChangeEvent("plan-5", DesiredTaskState.STOP));
+		assertEquals(1, errors.size());
+		assertTrue(errors.get(0) instanceof TaskInterruptionCheckerService.TaskInterruptedException);
+		assertTrue(stream.isDisposed());
+
+		// The ended stream no longer keeps the plan
+		makeIdle("plan-5");
+		registry.reconcile();
+		assertEquals(0, registry.size());
+	}
+
+	@SuppressWarnings("unchecked")
+	private void makeIdle(String rootPlanId) {
+		Map<String, ?> signals = (Map<String, ?>) ReflectionTestUtils.getField(registry, "signals");
+		ReflectionTestUtils.setField(signals.get(rootPlanId), "lastAccessedAt", 0L);
+	}
+
+	private RootTaskManagerEntity task(String rootPlanId, DesiredTaskState state) {
+		RootTaskManagerEntity task = new RootTaskManagerEntity(rootPlanId);
+		task.setDesiredTaskState(state);
+		return task;
+	}
+
+}
@@ -0,0 +1,122 @@
+/*
+ * Copyright 2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.lynxe.subplan.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.tool.ToolCallback;
+import org.springframework.ai.tool.function.FunctionToolCallback;
+import org.springframework.ai.tool.metadata.ToolMetadata;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.alibaba.cloud.ai.lynxe.event.PlanTemplateChangeEvent;
+import com.alibaba.cloud.ai.lynxe.planning.model.po.FuncAgentToolEntity;
+import com.alibaba.cloud.ai.lynxe.planning.repository.FuncAgentToolRepository;
+import com.alibaba.cloud.ai.lynxe.planning.service.PlanTemplateConfigService;
+import com.alibaba.cloud.ai.lynxe.subplan.model.vo.SubplanToolWrapper;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * {@link SubplanToolRegistry} loads coordinator tools once, serves definitions equal to
+ * the previously per-plan built callbacks, and reloads after a plan template change.
+ */
+class SubplanToolRegistryTest {
+
+	private final ObjectMapper objectMapper = new ObjectMapper();
+
+	private FuncAgentToolRepository repository;
+
+	private SubplanToolRegistry registry;
+
+	@BeforeEach
+	void setUp() {
+		repository = mock(FuncAgentToolRepository.class);
+		PlanTemplateConfigService configService = new PlanTemplateConfigService();
+		ReflectionTestUtils.setField(configService, "objectMapper", objectMapper);
+		registry = new SubplanToolRegistry(repository, configService, objectMapper);
+	}
+
+	@Test
+	void sharesDefinitionsMatchingDirectBuild() {
+		when(repository.findAll()).thenReturn(List.of(tool(1L, "plan-1", "report", true),
+				tool(2L, "plan-2", "hidden", false)));
+
+		List<SubplanToolRegistry.RegisteredTool> tools = registry.getTools();
+		assertEquals(1, tools.size());
+		SubplanToolRegistry.RegisteredTool registered = tools.get(0);
+		assertEquals("reports-report", registered.getQualifiedKey());
+		assertSame(tools, registry.getTools());
+		verify(repository, times(1)).findAll();
+
+		SubplanToolWrapper wrapper = new SubplanToolWrapper(registered.getCoordinatorToolConfig(),
+				registered.getPlanTemplateConfig(), "plan-a", "root-a", null, null, null, objectMapper, null);
+		ToolCallback direct = FunctionToolCallback.builder("reports-report", wrapper)
+			.description("Builds a report")
+			.inputSchema(wrapper.getParameters())
+			.inputType(Map.class)
+			.toolMetadata(ToolMetadata.builder().returnDirect(false).build())
+			.build();
+		ToolCallback first = registered.bind(wrapper);
+		ToolCallback second = registered.bind(wrapper);
+		assertEquals(direct.getToolDefinition(), first.getToolDefinition());
+		assertSame(first.getToolDefinition(), second.getToolDefinition());
+		assertNotSame(first, second);
+		assertEquals(1L, registry.getMetrics().get("hits"));
+	}
+
+	@Test
+	void reloadsAfterTemplateChange() {
+		when(repository.findAll()).thenReturn(List.of(tool(1L, "plan-1", "report", true)));
+		assertEquals(1, registry.getTools().size());
+
+		when(repository.findAll())
+			.thenReturn(List.of(tool(1L, "plan-1", "report", true), tool(3L, "plan-3", "summary", true)));
+		// Served from memory until a change is published
+		assertEquals(1, registry.getTools().size());
+		registry.onEvent(new PlanTemplateChangeEvent("plan-3"));
+		assertEquals(2, registry.getTools().size());
+		assertEquals(2, registry.getTools().size());
+
+		verify(repository, times(2)).findAll();
+		assertEquals(1L, registry.getMetrics().get("version"));
+		assertEquals(2L, registry.getMetrics().get("reloads"));
+	}
+
+	private FuncAgentToolEntity tool(Long id, String planTemplateId, String name, boolean internal) {
+		FuncAgentToolEntity entity = new FuncAgentToolEntity();
+		entity.setId(id);
+		entity.setPlanTemplateId(planTemplateId);
+		entity.setToolName(name);
+		entity.setServiceGroup("reports");
+		entity.setToolDescription("Builds a report");
+		entity.setInputSchema(
+				"[{\"name\":\"month\",\"type\":\"string\",\"description\":\"Report month\",\"required\":true}]");
+		entity.setEnableInternalToolcall(internal);
+		return entity;
+	}
+
+}
@@ -0,0 +1,109 @@
+/*
+ * Copyright 2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.lynxe.tool.browser.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.Mockito.mock;
+
+import org.junit.jupiter.api.Test;
+
+import com.microsoft.playwright.Page;
+
+/**
+ * Snapshot reuse and element change descriptions of {@link AriaSnapshotTracker}.
+ */
+class AriaSnapshotTrackerTest {
+
+	private static final String BEFORE = """
+			- navigation [idx=2]:
+			  - link [idx=3]:
+			    - /url: http://s@Url.a/1
+			- textbox [idx=5]
+			- button [idx=6]
+			""";
+
+	private static final String AFTER = """
+			- navigation [idx=2]:
+			  - link [idx=3]:
+			    - /url: http://s@Url.a/1
+			- textbox [idx=5]: hello
+			- dialog [idx=9]:
+			  - button [idx=10]
+			""";
+
+	@Test
+	void skipsSnapshotOnlyWhileDocumentIsUnchanged() {
+		AriaSnapshotTracker tracker = new AriaSnapshotTracker();
+		Page page = mock(Page.class);
+		AriaSnapshot.PageChange first = new AriaSnapshot.PageChange("doc-1", 3);
+
+		assertNull(tracker.getChangesIfUnchanged(page, first));
+		// The first snapshot of a page is listed in full
+		assertNull(tracker.update(page, first, BEFORE));
+		assertEquals(BEFORE, tracker.getListing(page));
+		assertEquals(AriaSnapshotTracker.NO_CHANGES,
+				tracker.getChangesIfUnchanged(page, new AriaSnapshot.PageChange("doc-1", 3)));
+		assertNull(tracker.getChangesIfUnchanged(page, new AriaSnapshot.PageChange("doc-1", 4)));
+		assertNull(tracker.getChangesIfUnchanged(page, new AriaSnapshot.PageChange("doc-2", 3)));
+		assertNull(tracker.getChangesIfUnchanged(mock(Page.class), first));
+
+		// A navigation is listed in full again
+		assertNull(tracker.update(page, new AriaSnapshot.PageChange("doc-2", 1), AFTER));
+		assertEquals(AFTER, tracker.getListing(page));
+
+		tracker.clear();
+		assertNull(tracker.getListing(page));
+	}
+
+	@Test
+	void describesChangedElementsByIndexSinceFullListing() {
+		AriaSnapshotTracker tracker = new AriaSnapshotTracker();
+		Page page = mock(Page.class);
+		tracker.update(page, new AriaSnapshot.PageChange("doc-1", 1), BEFORE);
+
+		String changes = tracker.update(page, new AriaSnapshot.PageChange("doc-1", 2), AFTER);
+
+		String expected = """
+				2 added, 1 removed, 1 changed (same page, indexes unchanged)
+				~ textbox [idx=5]: hello
+				+ dialog [idx=9]:
+				+ button [idx=10]
+				- button [idx=6]""";
+		assertEquals(expected, changes);
+		assertEquals(expected, tracker.getChangesIfUnchanged(page, new AriaSnapshot.PageChange("doc-1", 2)));
+		// Changes are described against the full listing, not the latest snapshot
+		assertEquals(BEFORE, tracker.getListing(page));
+		assertEquals(AriaSnapshotTracker.NO_CHANGES,
+				tracker.update(page, new AriaSnapshot.PageChange("doc-1", 3), BEFORE));
+		assertEquals(AriaSnapshotTracker.NO_CHANGES, AriaSnapshotTracker.describeChanges(AFTER, AFTER));
+	}
+
+	@Test
+	void listsPageInFullWhenChangesAreTooManyToList() {
+		AriaSnapshotTracker tracker = new AriaSnapshotTracker();
+		Page page = mock(Page.class);
+		tracker.update(page, new AriaSnapshot.PageChange("doc-1", 1), BEFORE);
+		StringBuilder grown = new StringBuilder(BEFORE);
+		for (int i = 0; i <= AriaSnapshotTracker.MAX_CHANGE_LINES; i++) {
+			grown.append("- listitem [idx=").append(100 + i).append("]\n");
+		}
+
+		assertNull(tracker.update(page, new AriaSnapshot.PageChange("doc-1", 2), grown.toString()));
+		assertEquals(grown.toString(), tracker.getListing(page));
+	}
+
+}
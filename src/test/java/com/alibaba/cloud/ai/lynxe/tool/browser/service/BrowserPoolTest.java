@@ -0,0 +1,171 @@
+/*
+ * Copyright 2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.lynxe.tool.browser.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.mockingDetails;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import com.microsoft.playwright.Browser;
+import com.microsoft.playwright.Playwright;
+
+/**
+ * Leasing, recycling and waiting of {@link BrowserPool}.
+ */
+class BrowserPoolTest {
+
+	private final List<BrowserPool.PooledBrowser> launched = new ArrayList<>();
+
+	private volatile String settings = "chromium|headless=true";
+
+	private BrowserPool pool;
+
+	@AfterEach
+	void tearDown() {
+		pool.close();
+	}
+
+	@Test
+	void reusesReturnedBrowserUntilUseLimit() throws Exception {
+		pool = new BrowserPool(this::launch, () -> settings, 4, 0, 2);
+		BrowserPool.PooledBrowser first = pool.acquire(1000);
+		pool.release(first, true);
+		assertSame(first, pool.acquire(1000));
+
+		// Second use reaches the limit, so the browser is closed
+		pool.release(first, true);
+		verify(first.getBrowser()).close();
+		assertNotSame(first, pool.acquire(1000));
+		assertEquals(2, launched.size());
+		assertEquals(1L, pool.getMetrics().get("recycled"));
+	}
+
+	@Test
+	void recyclesBrowsersLaunchedWithOtherSettings() throws Exception {
+		pool = new BrowserPool(this::launch, () -> settings, 4, 0, 10);
+		BrowserPool.PooledBrowser headless = pool.acquire(1000);
+		pool.release(headless, true);
+
+		settings = "chromium|headless=false";
+		BrowserPool.PooledBrowser headed = pool.acquire(1000);
+		assertNotSame(headless, headed);
+		assertEquals(settings, headed.getSettings());
+		verify(headless.getPlaywright()).close();
+	}
+
+	@Test
+	void waitsForReturnedBrowserWhenAllAreLeased() throws Exception {
+		pool = new BrowserPool(this::launch, () -> settings, 1, 0, 10);
+		BrowserPool.PooledBrowser only = pool.acquire(1000);
+
+		CompletableFuture<BrowserPool.PooledBrowser> waiting = CompletableFuture.supplyAsync(() -> {
+			try {
+				return pool.acquire(5000);
+			}
+			catch (InterruptedException e) {
+				throw new IllegalStateException(e);
+			}
+		});
+		Thread.sleep(100);
+		pool.release(only, true);
+		assertSame(only, waiting.get(5, TimeUnit.SECONDS));
+		assertEquals(1, launched.size());
+		assertEquals(2L, pool.getMetrics().get("leases"));
+		assertEquals(0L, pool.getMetrics().get("overflowLaunches"));
+	}
+
+	@Test
+	void launchesAboveLimitWhenMorePlansRunThanBrowsers() throws Exception {
+		pool = new BrowserPool(this::launch, () -> settings, 2, 0, 10);
+		int plans = 5;
+		ExecutorService planThreads = Executors.newFixedThreadPool(plans);
+		try {
+			CountDownLatch allLeased = new CountDownLatch(plans);
+			List<Future<BrowserPool.PooledBrowser>> leases = new ArrayList<>();
+			for (int i = 0; i < plans; i++) {
+				leases.add(planThreads.submit(() -> {
+					BrowserPool.PooledBrowser browser = pool.acquire(50);
+					allLeased.countDown();
+					// Hold the browser until every plan has one, as concurrent plans do
+					assertTrue(allLeased.await(5, TimeUnit.SECONDS));
+					return browser;
+				}));
+			}
+			List<BrowserPool.PooledBrowser> leased = new ArrayList<>();
+			for (Future<BrowserPool.PooledBrowser> lease : leases) {
+				leased.add(lease.get(5, TimeUnit.SECONDS));
+			}
+			assertEquals(plans, new HashSet<>(leased).size());
+			assertEquals(plans, pool.getMetrics().get("liveBrowsers"));
+			assertEquals(3L, pool.getMetrics().get("overflowLaunches"));
+
+			// Browsers above the limit are closed when returned
+			leased.forEach(browser -> pool.release(browser, true));
+			assertEquals(2, pool.getMetrics().get("liveBrowsers"));
+			assertEquals(2, pool.getMetrics().get("idleBrowsers"));
+			assertEquals(3L, launched.stream().filter(this::isClosed).count());
+		}
+		finally {
+			planThreads.shutdownNow();
+		}
+	}
+
+	@Test
+	void keepsWarmBrowsersLaunched() throws Exception {
+		pool = new BrowserPool(this::launch, () -> settings, 4, 2, 10);
+		pool.acquire(1000);
+		long deadline = System.currentTimeMillis() + 5000;
+		while ((int) pool.getMetrics().get("idleBrowsers") < 2 && System.currentTimeMillis() < deadline) {
+			Thread.sleep(10);
+		}
+		assertEquals(2, pool.getMetrics().get("idleBrowsers"));
+		assertEquals(3, pool.getMetrics().get("liveBrowsers"));
+		assertEquals(1, pool.getMetrics().get("leasedBrowsers"));
+	}
+
+	private boolean isClosed(BrowserPool.PooledBrowser browser) {
+		return mockingDetails(browser.getPlaywright()).getInvocations()
+			.stream()
+			.anyMatch(invocation -> invocation.getMethod().getName().equals("close"));
+	}
+
+	private synchronized BrowserPool.PooledBrowser launch() {
+		Browser browser = mock(Browser.class);
+		when(browser.isConnected()).thenReturn(true);
+		BrowserPool.PooledBrowser pooled = new BrowserPool.PooledBrowser(mock(Playwright.class), browser, settings);
+		launched.add(pooled);
+		return pooled;
+	}
+
+}
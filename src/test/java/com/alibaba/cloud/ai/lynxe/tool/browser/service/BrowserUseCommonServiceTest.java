@@ -0,0 +1,102 @@
+/*
+ * Copyright 2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.lynxe.tool.browser.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.alibaba.cloud.ai.lynxe.config.LynxeProperties;
+import com.alibaba.cloud.ai.lynxe.tool.ToolStateInfo;
+import com.microsoft.playwright.BrowserContext;
+import com.microsoft.playwright.Page;
+
+/**
+ * Browser tool state of {@link BrowserUseCommonService} for a page whose document was
+ * already listed in full.
+ */
+class BrowserUseCommonServiceTest {
+
+	private static final String LISTING = """
+			- navigation [idx=2]:
+			  - link [idx=3]: Home
+			- textbox [idx=5]
+			- button [idx=6]: Search
+			""";
+
+	private final AriaSnapshotTracker tracker = new AriaSnapshotTracker();
+
+	private Page page;
+
+	private BrowserUseCommonService service;
+
+	@BeforeEach
+	void setUp() {
+		page = mock(Page.class);
+		when(page.url()).thenReturn("https://example.com/");
+		when(page.title()).thenReturn("Example");
+		BrowserContext context = mock(BrowserContext.class);
+		when(context.pages()).thenReturn(List.of(page));
+		when(page.context()).thenReturn(context);
+
+		DriverWrapper driver = mock(DriverWrapper.class);
+		when(driver.getCurrentPage()).thenReturn(page);
+		when(driver.getAriaSnapshotTracker()).thenReturn(tracker);
+		LynxeProperties lynxeProperties = mock(LynxeProperties.class);
+		when(lynxeProperties.getBrowserRequestTimeout()).thenReturn(1);
+		ChromeDriverService chromeDriverService = mock(ChromeDriverService.class);
+		when(chromeDriverService.getDriverIfPresent("plan")).thenReturn(driver);
+		when(chromeDriverService.getLynxeProperties()).thenReturn(lynxeProperties);
+		service = new BrowserUseCommonService(chromeDriverService, null, null, null, null, null, null);
+	}
+
+	@Test
+	void unchangedPageLeavesOutFullListing() {
+		AriaSnapshot.PageChange loaded = new AriaSnapshot.PageChange("doc-1", 7);
+		tracker.update(page, loaded, LISTING);
+		when(page.evaluate(anyString())).thenReturn(Map.of("token", "doc-1", "version", 7));
+
+		ToolStateInfo state = service.getCurrentToolState("bw", "plan", "root");
+
+		assertEquals("bw", state.getKey());
+		assertTrue(state.getStateString().contains(AriaSnapshotTracker.NO_CHANGES), state.getStateString());
+		assertFalse(state.getStateString().contains("[idx="), state.getStateString());
+		assertTrue(state.getBaselineStateString().contains(LISTING), state.getBaselineStateString());
+		// No new snapshot was taken
+		verify(page, never()).locator(anyString());
+	}
+
+	@Test
+	void noSessionHasNoBaseline() {
+		ToolStateInfo state = service.getCurrentToolState("bw", "other-plan", "root");
+
+		assertTrue(state.getStateString().contains("No browser session"));
+		assertNull(state.getBaselineStateString());
+	}
+
+}
@@ -0,0 +1,94 @@
+/*
+ * Copyright 2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.lynxe.tool.browser.service;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.alibaba.cloud.ai.lynxe.tool.filesystem.UnifiedDirectoryManager;
+
+/**
+ * Per-plan driver locks of {@link ChromeDriverService}: closing a plan removes its lock
+ * only while holding it, and a thread that was waiting on the removed lock moves on to
+ * the current one instead of creating a driver next to another thread.
+ */
+class ChromeDriverServiceTest {
+
+	@TempDir
+	Path dir;
+
+	private ChromeDriverService service;
+
+	private Map<String, Lock> planLocks;
+
+	@BeforeEach
+	@SuppressWarnings("unchecked")
+	void setUp() {
+		UnifiedDirectoryManager directoryManager = mock(UnifiedDirectoryManager.class);
+		when(directoryManager.getWorkingDirectory()).thenReturn(dir);
+		service = new ChromeDriverService(null, null, directoryManager, 1, 0, 1, 0);
+		planLocks = (Map<String, Lock>) ReflectionTestUtils.getField(service, "planLocks");
+	}
+
+	@Test
+	void waiterOnLockRemovedByCloseTakesCurrentLock() throws Exception {
+		ReentrantLock held = (ReentrantLock) lockPlan();
+		CompletableFuture<Lock> waiter = CompletableFuture.supplyAsync(() -> {
+			Lock lock = lockPlan();
+			try {
+				// Still the plan's lock while held
+				assertSame(lock, planLocks.get("plan"));
+				return lock;
+			}
+			finally {
+				lock.unlock();
+			}
+		});
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+		while (!held.hasQueuedThreads() && System.nanoTime() < deadline) {
+			Thread.sleep(5);
+		}
+		assertTrue(held.hasQueuedThreads());
+
+		// Closing the plan while a driver is being created for it
+		service.closeDriverForPlan("plan");
+		assertFalse(planLocks.containsKey("plan"));
+		held.unlock();
+
+		assertNotSame(held, waiter.get(5, TimeUnit.SECONDS));
+	}
+
+	private Lock lockPlan() {
+		return ReflectionTestUtils.invokeMethod(service, "lockPlan", "plan");
+	}
+
+}
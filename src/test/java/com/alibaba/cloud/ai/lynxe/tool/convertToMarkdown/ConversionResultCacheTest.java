@@ -0,0 +1,88 @@
+/*
+ * Copyright 2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.lynxe.tool.convertToMarkdown;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.alibaba.cloud.ai.lynxe.tool.filesystem.UnifiedDirectoryManager;
+
+/**
+ * Keys, least recently used eviction and restart of {@link ConversionResultCache}.
+ */
+class ConversionResultCacheTest {
+
+	@TempDir
+	Path dir;
+
+	private UnifiedDirectoryManager directoryManager;
+
+	@BeforeEach
+	void setUp() {
+		directoryManager = mock(UnifiedDirectoryManager.class);
+		when(directoryManager.getWorkingDirectory()).thenReturn(dir);
+	}
+
+	@Test
+	void keyDependsOnAllParts() throws Exception {
+		Path first = Files.writeString(dir.resolve("a.pdf"), "same content");
+		Path second = Files.writeString(dir.resolve("b.pdf"), "same content");
+		String hash = ConversionResultCache.hashFile(first);
+		assertEquals(hash, ConversionResultCache.hashFile(second));
+
+		String key = ConversionResultCache.key("pdf", hash, null, null);
+		assertEquals(key, ConversionResultCache.key("pdf", hash, "", " "));
+		assertNotEquals(key, ConversionResultCache.key("pdf-llm", hash, null, null));
+		assertNotEquals(key, ConversionResultCache.key("pdf", hash, "qwen-vl", null));
+		assertNotEquals(key, ConversionResultCache.key("pdf", hash, null, "keep tables"));
+		assertNotEquals(ConversionResultCache.key("pdf", hash, "ab", "c"),
+				ConversionResultCache.key("pdf", hash, "a", "bc"));
+	}
+
+	@Test
+	void evictsLeastRecentlyUsedBeyondLimit() {
+		ConversionResultCache cache = new ConversionResultCache(directoryManager, 1);
+		String entry = "x".repeat(400 * 1024);
+		cache.put("aa01", entry);
+		cache.put("bb02", entry);
+		// Reading the first entry makes the second one the eldest
+		assertTrue(cache.get("aa01").isPresent());
+		cache.put("cc03", entry);
+
+		assertTrue(cache.get("aa01").isPresent());
+		assertFalse(cache.get("bb02").isPresent());
+		assertTrue(cache.get("cc03").isPresent());
+		assertEquals(2L * entry.length(), cache.getTotalBytes());
+		assertFalse(Files.exists(dir.resolve("conversion_cache").resolve("bb").resolve("bb02")));
+
+		// A new instance picks up the entries left on disk
+		ConversionResultCache restarted = new ConversionResultCache(directoryManager, 1);
+		assertEquals(entry, restarted.get("cc03").orElseThrow());
+		assertEquals(2L * entry.length(), restarted.getTotalBytes());
+	}
+
+}
@@ -0,0 +1,111 @@
+/*
+ * Copyright 2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.lynxe.tool.convertToMarkdown;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.alibaba.cloud.ai.lynxe.tool.code.ToolExecuteResult;
+import com.alibaba.cloud.ai.lynxe.tool.filesystem.UnifiedDirectoryManager;
+
+/**
+ * Which PDF conversions {@link MarkdownConverterTool} shares through the
+ * {@link ConversionResultCache}: the outcome of the conversion decides, not the wording
+ * of its result.
+ */
+class MarkdownConverterToolTest {
+
+	private static final String PDF_CONTENT = "%PDF-1.4 same document";
+
+	@TempDir
+	Path dir;
+
+	private PdfOcrProcessor ocrProcessor;
+
+	private ConversionResultCache cache;
+
+	private MarkdownConverterTool tool;
+
+	@BeforeEach
+	void setUp() throws IOException {
+		UnifiedDirectoryManager directoryManager = mock(UnifiedDirectoryManager.class);
+		when(directoryManager.getWorkingDirectory()).thenReturn(dir);
+		for (String plan : new String[] { "plan-a", "plan-b" }) {
+			Path planDirectory = Files.createDirectories(dir.resolve(plan));
+			Files.writeString(planDirectory.resolve("doc.pdf"), PDF_CONTENT);
+			when(directoryManager.getRootPlanDirectory(plan)).thenReturn(planDirectory);
+		}
+		ocrProcessor = mock(PdfOcrProcessor.class);
+		cache = new ConversionResultCache(directoryManager, 16);
+		tool = new MarkdownConverterTool(directoryManager, ocrProcessor, null, null, null, null, cache);
+	}
+
+	@Test
+	void reusesResultOfConversionThatReturned() throws Exception {
+		when(ocrProcessor.ocrPdfToText(any(), any(), eq("plan-a"), eq("doc.md"), any())).thenAnswer(invocation -> {
+			Files.writeString(dir.resolve("plan-a/doc.md"), "# Recognized text");
+			// Wording of the result does not matter
+			return new ToolExecuteResult("Converted PDF file to Markdown using OCR");
+		});
+		convertInPlan("plan-a");
+
+		ToolExecuteResult result = convertInPlan("plan-b");
+
+		assertTrue(result.getOutput().contains("reused cached result"), result.getOutput());
+		assertEquals("# Recognized text", Files.readString(dir.resolve("plan-b/doc.md")));
+	}
+
+	@Test
+	void doesNotCacheConversionThatFailed() throws Exception {
+		when(ocrProcessor.ocrPdfToText(any(), any(), eq("plan-a"), eq("doc.md"), any())).thenAnswer(invocation -> {
+			// A failed run can leave a file behind and mention success in its message
+			Files.writeString(dir.resolve("plan-a/doc.md"), "# Page 1 of 3");
+			throw new IOException("Page 1 successfully recognized, page 2 failed");
+		});
+
+		ToolExecuteResult failed = convertInPlan("plan-a");
+
+		assertTrue(failed.getOutput().contains("page 2 failed"), failed.getOutput());
+		assertFalse(cache.get(cacheKey()).isPresent());
+	}
+
+	private ToolExecuteResult convertInPlan(String planId) {
+		tool.setRootPlanId(planId);
+		MarkdownConverterTool.MarkdownConverterInput input = new MarkdownConverterTool.MarkdownConverterInput();
+		input.setFilename("doc.pdf");
+		input.setForceLlmForPdf(true);
+		return tool.run(input);
+	}
+
+	private String cacheKey() throws IOException {
+		return ConversionResultCache.key("pdf-llm", ConversionResultCache.hashFile(dir.resolve("plan-a/doc.pdf")), null,
+				null);
+	}
+
+}
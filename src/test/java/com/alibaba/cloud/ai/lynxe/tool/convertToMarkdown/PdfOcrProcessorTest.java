@@ -0,0 +1,238 @@
+/*
+ * Copyright 2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.lynxe.tool.convertToMarkdown;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.RETURNS_SELF;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+
+import javax.imageio.ImageIO;
+
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.common.PDRectangle;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.ai.chat.client.ChatClient;
+import org.springframework.core.io.Resource;
+import org.springframework.util.MimeType;
+
+import com.alibaba.cloud.ai.lynxe.llm.LlmService;
+import com.alibaba.cloud.ai.lynxe.runtime.executor.ImageRecognitionExecutorPool;
+import com.alibaba.cloud.ai.lynxe.tool.code.ToolExecuteResult;
+import com.alibaba.cloud.ai.lynxe.tool.filesystem.UnifiedDirectoryManager;
+
+/**
+ * Page ordering, resume and progress cleanup of the {@link PdfOcrProcessor} pipeline,
+ * with a stubbed OCR model that answers later pages first.
+ */
+class PdfOcrProcessorTest {
+
+	/**
+	 * Pages are rendered at the default 120 DPI, so a page that is n inches wide renders
+	 * as an image of n * 120 pixels and the stub can tell the page from the image.
+	 */
+	private static final int PIXELS_PER_INCH = 120;
+
+	@TempDir
+	Path dir;
+
+	private ExecutorService executor;
+
+	private PdfOcrProcessor processor;
+
+	private final List<Integer> recognizedPages = new CopyOnWriteArrayList<>();
+
+	private int pageCount;
+
+	@BeforeEach
+	void setUp() {
+		executor = Executors.newFixedThreadPool(4);
+		UnifiedDirectoryManager directoryManager = mock(UnifiedDirectoryManager.class);
+		when(directoryManager.getRootPlanDirectory(anyString())).thenReturn(dir);
+		processor = new PdfOcrProcessor(directoryManager, stubOcrService(), null, stubExecutorPool());
+		processor.disableImageSaving();
+	}
+
+	@AfterEach
+	void tearDown() {
+		executor.shutdownNow();
+	}
+
+	@Test
+	void writesPagesInOrderWhenLaterPagesFinishFirst() throws IOException {
+		Path pdf = createPdf("doc.pdf", 6);
+
+		ToolExecuteResult result = processor.convertPdfToTextWithOcr(pdf, null, "plan", null, null);
+
+		assertTrue(result.getOutput().contains("**Pages Processed**: 6 of 6"), result.getOutput());
+		assertNotEquals(List.of(1, 2, 3, 4, 5, 6), recognizedPages);
+		String output = Files.readString(dir.resolve("doc_ocr.txt"));
+		StringBuilder expected = new StringBuilder();
+		for (int page = 1; page <= 6; page++) {
+			expected.append(pageContent(page, "text of page " + page));
+		}
+		assertTrue(output.startsWith(expected.toString()), output);
+		assertTrue(output.contains("*Total pages processed: 6 of 6*"));
+		assertProgressDeleted("doc_ocr.txt");
+	}
+
+	@Test
+	void resumesAfterLastSavedPageAndDropsTornWrite() throws IOException {
+		Path pdf = createPdf("resume.pdf", 4);
+		String written = pageContent(1, "saved page 1") + pageContent(2, "saved page 2");
+		byte[] writtenBytes = written.getBytes(StandardCharsets.UTF_8);
+		// Page 3 was being appended when the earlier run stopped
+		Files.writeString(dir.resolve("resume_ocr.txt.partial"), written + "## Page 3\n\ntor", StandardCharsets.UTF_8);
+		Properties progress = new Properties();
+		progress.setProperty("source", Files.size(pdf) + ":" + Files.getLastModifiedTime(pdf).toMillis());
+		progress.setProperty("completedPages", "2");
+		progress.setProperty("processedPages", "2");
+		progress.setProperty("bytes", String.valueOf(writtenBytes.length));
+		try (Writer writer = Files.newBufferedWriter(dir.resolve("resume_ocr.txt.progress"))) {
+			progress.store(writer, null);
+		}
+
+		ToolExecuteResult result = processor.convertPdfToTextWithOcr(pdf, null, "plan", null, null);
+
+		assertTrue(result.getOutput().contains("**Pages Processed**: 4 of 4"), result.getOutput());
+		assertEquals(List.of(3, 4), recognizedPages.stream().sorted().toList());
+		String output = Files.readString(dir.resolve("resume_ocr.txt"));
+		assertTrue(output.startsWith(written + pageContent(3, "text of page 3") + pageContent(4, "text of page 4")),
+				output);
+		assertFalse(output.contains("tor\n"));
+		assertProgressDeleted("resume_ocr.txt");
+	}
+
+	@Test
+	void restartsWhenProgressBelongsToAnotherSourceVersion() throws IOException {
+		Path pdf = createPdf("changed.pdf", 2);
+		Files.writeString(dir.resolve("changed_ocr.txt.partial"), pageContent(1, "stale"), StandardCharsets.UTF_8);
+		Properties progress = new Properties();
+		progress.setProperty("source", "1:1");
+		progress.setProperty("completedPages", "1");
+		progress.setProperty("processedPages", "1");
+		progress.setProperty("bytes", "1");
+		try (Writer writer = Files.newBufferedWriter(dir.resolve("changed_ocr.txt.progress"))) {
+			progress.store(writer, null);
+		}
+
+		processor.convertPdfToTextWithOcr(pdf, null, "plan", null, null);
+
+		assertEquals(List.of(1, 2), recognizedPages.stream().sorted().toList());
+		assertFalse(Files.readString(dir.resolve("changed_ocr.txt")).contains("stale"));
+		assertProgressDeleted("changed_ocr.txt");
+	}
+
+	private void assertProgressDeleted(String outputName) {
+		assertFalse(Files.exists(dir.resolve(outputName + ".partial")));
+		assertFalse(Files.exists(dir.resolve(outputName + ".progress")));
+	}
+
+	private String pageContent(int page, String text) {
+		return "## Page " + page + "\n\n" + text + "\n\n";
+	}
+
+	/**
+	 * Create a PDF whose n-th page is n inches wide
+	 */
+	private Path createPdf(String name, int pages) throws IOException {
+		pageCount = pages;
+		Path file = dir.resolve(name);
+		try (PDDocument document = new PDDocument()) {
+			for (int page = 1; page <= pages; page++) {
+				document.addPage(new PDPage(new PDRectangle(72f * page, 72f)));
+			}
+			document.save(file.toFile());
+		}
+		return file;
+	}
+
+	/**
+	 * OCR model stub: recognizes the page from the image width and answers earlier pages
+	 * more slowly than later ones.
+	 */
+	@SuppressWarnings("unchecked")
+	private LlmService stubOcrService() {
+		ThreadLocal<BufferedImage> image = new ThreadLocal<>();
+		ChatClient.PromptUserSpec userSpec = mock(ChatClient.PromptUserSpec.class, RETURNS_SELF);
+		when(userSpec.media(any(MimeType.class), any(Resource.class))).thenAnswer(invocation -> {
+			Resource resource = invocation.getArgument(1);
+			image.set(ImageIO.read(resource.getInputStream()));
+			return userSpec;
+		});
+		ChatClient.CallResponseSpec response = mock(ChatClient.CallResponseSpec.class);
+		when(response.content()).thenAnswer(invocation -> {
+			int page = Math.round((float) image.get().getWidth() / PIXELS_PER_INCH);
+			Thread.sleep((pageCount - page) * 50L);
+			recognizedPages.add(page);
+			return "text of page " + page;
+		});
+		ChatClient.ChatClientRequestSpec request = mock(ChatClient.ChatClientRequestSpec.class, RETURNS_SELF);
+		when(request.user(any(Consumer.class))).thenAnswer(invocation -> {
+			invocation.<Consumer<ChatClient.PromptUserSpec>>getArgument(0).accept(userSpec);
+			return request;
+		});
+		when(request.call()).thenReturn(response);
+		ChatClient chatClient = mock(ChatClient.class);
+		when(chatClient.prompt()).thenReturn(request);
+		LlmService llmService = mock(LlmService.class);
+		when(llmService.getDefaultDynamicAgentChatClient()).thenReturn(chatClient);
+		return llmService;
+	}
+
+	@SuppressWarnings("unchecked")
+	private ImageRecognitionExecutorPool stubExecutorPool() {
+		ImageRecognitionExecutorPool pool = mock(ImageRecognitionExecutorPool.class);
+		when(pool.submitTask(any(Callable.class))).thenAnswer(invocation -> {
+			Callable<Object> task = invocation.getArgument(0);
+			return CompletableFuture.supplyAsync(() -> {
+				try {
+					return task.call();
+				}
+				catch (Exception e) {
+					throw new CompletionException(e);
+				}
+			}, executor);
+		});
+		return pool;
+	}
+
+}
@@ -0,0 +1,120 @@
+/*
+ * Copyright 2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.lynxe.tool.database.action;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.alibaba.cloud.ai.lynxe.tool.code.ToolExecuteResult;
+import com.alibaba.cloud.ai.lynxe.tool.database.databaseOperators.DatabaseRequest;
+import com.alibaba.cloud.ai.lynxe.tool.database.service.DataSourceService;
+import com.alibaba.cloud.ai.lynxe.tool.filesystem.UnifiedDirectoryManager;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Streaming export of {@link ExecuteSqlToJsonFileAction} against an in-memory H2
+ * database: JSON and NDJSON output, the row limit and progress reports.
+ */
+class ExecuteSqlToJsonFileActionTest {
+
+	@TempDir
+	Path dir;
+
+	private final ObjectMapper objectMapper = new ObjectMapper();
+
+	private DataSourceService dataSourceService;
+
+	private UnifiedDirectoryManager directoryManager;
+
+	@BeforeEach
+	void setUp() throws SQLException {
+		dataSourceService = new DataSourceService(2, 0, 1000, 600000, 1800000, 0, 250, 0);
+		dataSourceService.addDataSource("main", "jdbc:h2:mem:json_export;DB_CLOSE_DELAY=-1", "sa", "", "org.h2.Driver",
+				"h2");
+		try (Connection connection = dataSourceService.getConnection("main");
+				Statement statement = connection.createStatement()) {
+			statement.execute("CREATE TABLE IF NOT EXISTS items (id INT PRIMARY KEY, name VARCHAR(20))");
+			statement.execute("DELETE FROM items");
+			statement.execute("INSERT INTO items SELECT x, 'item-' || x FROM SYSTEM_RANGE(1, 25)");
+		}
+		directoryManager = mock(UnifiedDirectoryManager.class);
+		when(directoryManager.getRootPlanDirectory("plan-1")).thenReturn(dir);
+	}
+
+	@AfterEach
+	void tearDown() {
+		dataSourceService.close();
+	}
+
+	@Test
+	void writesJsonArrayInColumnOrder() throws IOException {
+		ToolExecuteResult result = new ExecuteSqlToJsonFileAction(directoryManager, objectMapper, "plan-1").execute(
+				request("SELECT id, name FROM items WHERE id <= ? ORDER BY id", "out/items", 3), dataSourceService);
+
+		assertTrue(result.getOutput().contains("saved 3 row(s)"), result.getOutput());
+		String json = Files.readString(dir.resolve("out/items.json"));
+		List<Map<String, Object>> rows = objectMapper.readValue(json, new TypeReference<List<Map<String, Object>>>() {
+		});
+		assertEquals(3, rows.size());
+		assertEquals(List.of("ID", "NAME"), new ArrayList<>(rows.get(0).keySet()));
+		assertEquals("item-3", rows.get(2).get("NAME"));
+		try (var files = Files.list(dir.resolve("out"))) {
+			assertEquals(1, files.count());
+		}
+	}
+
+	@Test
+	void writesNdjsonUpToRowLimitAndReportsProgress() throws IOException {
+		List<Long> progress = new ArrayList<>();
+		ToolExecuteResult result = new ExecuteSqlToJsonFileAction(directoryManager, objectMapper, "plan-1", 10,
+				progress::add)
+			.execute(request("SELECT id FROM items ORDER BY id", "items.ndjson"), dataSourceService);
+
+		assertTrue(result.getOutput().contains("truncated at 10 rows"), result.getOutput());
+		List<String> lines = Files.readAllLines(dir.resolve("items.ndjson"));
+		assertEquals(10, lines.size());
+		assertEquals(Map.of("ID", 10), objectMapper.readValue(lines.get(9), Map.class));
+		assertEquals(List.of(10L), progress);
+	}
+
+	private DatabaseRequest request(String query, String fileName, Object... parameters) {
+		DatabaseRequest request = new DatabaseRequest();
+		request.setQuery(query);
+		request.setFileName(fileName);
+		request.setDatasourceName("main");
+		request.setParameters(List.of(parameters));
+		return request;
+	}
+
+}
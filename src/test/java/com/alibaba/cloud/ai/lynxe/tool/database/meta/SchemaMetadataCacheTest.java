@@ -0,0 +1,150 @@
+/*
+ * Copyright 2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.lynxe.tool.database.meta;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.alibaba.cloud.ai.lynxe.tool.database.action.GetTableMetaAction;
+import com.alibaba.cloud.ai.lynxe.tool.database.databaseOperators.DatabaseRequest;
+import com.alibaba.cloud.ai.lynxe.tool.database.service.DataSourceService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Loading, change detection, fuzzy search and compact rendering of
+ * {@link SchemaMetadataCache}, and the bounded listing of {@link GetTableMetaAction} when
+ * a search misses, against an in-memory H2 database.
+ */
+class SchemaMetadataCacheTest {
+
+	private DataSourceService dataSourceService;
+
+	private SchemaMetadataCache cache;
+
+	@BeforeEach
+	void setUp() throws SQLException {
+		dataSourceService = new DataSourceService(2, 0, 1000, 600000, 1800000, 0, 250, 0);
+		cache = new SchemaMetadataCache(dataSourceService, 30, true);
+		dataSourceService.addDataSource("main", "jdbc:h2:mem:schema_cache;DB_CLOSE_DELAY=-1", "sa", "", "org.h2.Driver",
+				"h2");
+		execute("DROP ALL OBJECTS");
+		execute("CREATE TABLE customer_orders (id BIGINT PRIMARY KEY, customer_id BIGINT NOT NULL, "
+				+ "status VARCHAR(20) COMMENT 'order status')");
+		execute("CREATE INDEX idx_customer ON customer_orders(customer_id)");
+		execute("COMMENT ON TABLE customer_orders IS 'Orders placed by customers'");
+		execute("CREATE TABLE customers (id BIGINT PRIMARY KEY, name VARCHAR(50))");
+		execute("CREATE TABLE audit_log (id BIGINT, message VARCHAR(200))");
+		cache.invalidate("main");
+	}
+
+	@AfterEach
+	void tearDown() {
+		cache.shutdown();
+		dataSourceService.close();
+	}
+
+	@Test
+	void servesSnapshotUntilInvalidatedAndTracksChanges() throws SQLException {
+		SchemaMetadataCache.SchemaSnapshot first = cache.getSnapshot("main");
+		assertEquals(3, first.getTables().size());
+		assertSame(first, cache.getSnapshot(null));
+
+		// Reloading without changes keeps the version
+		cache.invalidate("main");
+		SchemaMetadataCache.SchemaSnapshot unchanged = cache.getSnapshot("main");
+		assertEquals(first.getVersion(), unchanged.getVersion());
+		assertTrue(unchanged.getChangedTables().isEmpty());
+
+		execute("ALTER TABLE customers ADD COLUMN email VARCHAR(100)");
+		execute("DROP TABLE audit_log");
+		cache.invalidate("main");
+		SchemaMetadataCache.SchemaSnapshot changed = cache.getSnapshot("main");
+		assertEquals(first.getVersion() + 1, changed.getVersion());
+		assertEquals(List.of("CUSTOMERS", "AUDIT_LOG"), changed.getChangedTables());
+		assertEquals(3, changed.getTable("customers").getColumns().size());
+
+		Map<String, Object> metrics = cache.getMetrics();
+		assertTrue((Long) metrics.get("hits") >= 1);
+
+		// A default is not part of the compact rendering but still changes the table
+		execute("ALTER TABLE customers ALTER COLUMN name SET DEFAULT 'anonymous'");
+		cache.invalidate("main");
+		SchemaMetadataCache.SchemaSnapshot defaulted = cache.getSnapshot("main");
+		assertEquals(changed.getVersion() + 1, defaulted.getVersion());
+		assertEquals(List.of("CUSTOMERS"), defaulted.getChangedTables());
+	}
+
+	@Test
+	void searchRanksNameMatchesAndToleratesTypos() throws SQLException {
+		SchemaMetadataCache.SchemaSnapshot snapshot = cache.getSnapshot("main");
+
+		List<TableMeta> byPrefix = SchemaMetadataCache.search(snapshot, "customer", 10);
+		assertEquals("CUSTOMERS", byPrefix.get(0).getTableName());
+		assertEquals("CUSTOMER_ORDERS", byPrefix.get(1).getTableName());
+		assertEquals(2, byPrefix.size());
+
+		assertEquals("CUSTOMER_ORDERS",
+				SchemaMetadataCache.search(snapshot, "customerorders", 10).get(0).getTableName());
+		assertEquals("CUSTOMER_ORDERS", SchemaMetadataCache.search(snapshot, "placed by", 10).get(0).getTableName());
+		assertEquals("AUDIT_LOG", SchemaMetadataCache.search(snapshot, "audit_logs", 10).get(0).getTableName());
+		assertEquals(1, SchemaMetadataCache.search(snapshot, "customer", 1).size());
+		assertTrue(SchemaMetadataCache.search(snapshot, "invoice", 10).isEmpty());
+	}
+
+	@Test
+	void searchWithoutMatchesListsAtMostLimitTables() {
+		DatabaseRequest request = new DatabaseRequest();
+		request.setText("invoice");
+		request.setDatasourceName("main");
+
+		String output = new GetTableMetaAction(new ObjectMapper(), cache, true, 2).execute(request, dataSourceService)
+			.getOutput();
+		assertTrue(output.startsWith("Datasource: main\nNo tables match \"invoice\", listing 2 of 3 tables\n"), output);
+		assertEquals(2, output.lines().skip(2).filter(line -> !line.startsWith(" ")).count());
+	}
+
+	@Test
+	void rendersCompactBlocks() throws SQLException {
+		TableMeta orders = cache.getSnapshot("main").getTable("customer_orders");
+		assertNotNull(orders);
+		String text = SchemaMetadataCache.renderCompact(List.of(orders));
+		assertEquals("""
+				CUSTOMER_ORDERS -- Orders placed by customers
+				  ID BIGINT NN PK, CUSTOMER_ID BIGINT NN, STATUS CHARACTER VARYING(20) "order status"
+				  indexes: IDX_CUSTOMER(CUSTOMER_ID)
+				""", text);
+	}
+
+	private void execute(String sql) throws SQLException {
+		try (Connection connection = dataSourceService.getConnection("main");
+				Statement statement = connection.createStatement()) {
+			statement.execute(sql);
+		}
+	}
+
+}
@@ -0,0 +1,131 @@
+/*
+ * Copyright 2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.lynxe.tool.database.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Map;
+
+import org.h2.jdbc.JdbcConnection;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Pooling, per-plan caps and pool replacement of {@link DataSourceService}, against
+ * in-memory H2 databases.
+ */
+class DataSourceServiceTest {
+
+	private DataSourceService service;
+
+	@BeforeEach
+	void setUp() {
+		service = new DataSourceService(4, 0, 1000, 600000, 1800000, 0, 250, 2);
+		service.addDataSource("main", "jdbc:h2:mem:pool_main;DB_CLOSE_DELAY=-1", "sa", "", "org.h2.Driver", "h2");
+	}
+
+	@AfterEach
+	void tearDown() {
+		service.close();
+	}
+
+	@Test
+	void physicalConnectionIsReused() throws SQLException {
+		JdbcConnection first;
+		try (Connection connection = service.getConnection("main")) {
+			first = connection.unwrap(JdbcConnection.class);
+		}
+		try (Connection connection = service.getConnection()) {
+			assertSame(first, connection.unwrap(JdbcConnection.class));
+		}
+		assertEquals(1, pool("main").get("total"));
+		assertEquals(0, pool("main").get("active"));
+	}
+
+	@Test
+	void planCannotHoldMoreThanItsCap() throws SQLException {
+		service.runForPlan("plan-a", () -> {
+			try (Connection first = service.getConnection("main"); Connection second = service.getConnection("main")) {
+				assertThrows(SQLException.class, () -> service.getConnection("main"));
+				// Other plans and calls outside a plan are not affected
+				try (Connection other = service.getConnection("main", "plan-b")) {
+					assertTrue(other.isValid(1));
+				}
+				try (Connection unscoped = service.getConnection("main", null)) {
+					assertTrue(unscoped.isValid(1));
+				}
+			}
+			catch (SQLException e) {
+				fail(e);
+			}
+			return null;
+		});
+		// Permits are returned on close
+		try (Connection first = service.getConnection("main", "plan-a");
+				Connection second = service.getConnection("main", "plan-a")) {
+			assertTrue(second.isValid(1));
+		}
+		assertEquals(1L, service.getPoolMetrics().get("planTimeouts"));
+	}
+
+	@Test
+	void replacedPoolServesBorrowedConnectionsUntilReturned() throws Exception {
+		Connection borrowed = service.getConnection("main");
+		service.addDataSource("main", "jdbc:h2:mem:pool_replacement;DB_CLOSE_DELAY=-1", "sa", "", "org.h2.Driver",
+				"h2");
+
+		assertEquals("POOL_MAIN", databaseName(borrowed));
+		try (Connection fresh = service.getConnection("main")) {
+			assertEquals("POOL_REPLACEMENT", databaseName(fresh));
+		}
+		assertEquals(1L, service.getPoolMetrics().get("retiringPools"));
+
+		borrowed.close();
+		long deadline = System.currentTimeMillis() + 5000;
+		while ((long) service.getPoolMetrics().get("retiringPools") > 0) {
+			if (System.currentTimeMillis() > deadline) {
+				fail("Replaced pool was not closed");
+			}
+			Thread.sleep(50);
+		}
+
+		service.removeDataSource("main");
+		assertThrows(SQLException.class, () -> service.getConnection("main"));
+	}
+
+	private String databaseName(Connection connection) throws SQLException {
+		try (Statement statement = connection.createStatement();
+				ResultSet resultSet = statement.executeQuery("SELECT DATABASE()")) {
+			resultSet.next();
+			return resultSet.getString(1);
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	private Map<String, Object> pool(String name) {
+		return (Map<String, Object>) ((Map<String, Object>) service.getPoolMetrics().get("pools")).get(name);
+	}
+
+}
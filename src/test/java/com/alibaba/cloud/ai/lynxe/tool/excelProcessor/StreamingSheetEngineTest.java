@@ -0,0 +1,432 @@
+/*
+ * Copyright 2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.lynxe.tool.excelProcessor;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.CellType;
+import org.apache.poi.ss.usermodel.Font;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.ss.usermodel.WorkbookFactory;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.alibaba.cloud.ai.lynxe.tool.filesystem.UnifiedDirectoryManager;
+
+/**
+ * Reading and rewriting sheets with {@link StreamingSheetEngine}, the search cache of
+ * {@link ExcelProcessingService}, parity with the workbook model on a large sheet, and an
+ * opt-in benchmark against the workbook model.
+ */
+class StreamingSheetEngineTest {
+
+	private static final Logger log = LoggerFactory.getLogger(StreamingSheetEngineTest.class);
+
+	@TempDir
+	Path dir;
+
+	@Test
+	void searchRendersCellsLikeWorkbookModel() throws IOException {
+		Date date = new Date(1_700_000_000_000L);
+		Path file = dir.resolve("people.xlsx");
+		try (XSSFWorkbook workbook = new XSSFWorkbook()) {
+			CellStyle dateStyle = workbook.createCellStyle();
+			dateStyle.setDataFormat(workbook.getCreationHelper().createDataFormat().getFormat("yyyy-mm-dd"));
+			Sheet sheet = workbook.createSheet("People");
+			writeRow(sheet, 0, "Name", "Age", "Active", "Joined", "Score");
+			Row alice = writeRow(sheet, 1, "Alice", 30, true, null, null);
+			alice.createCell(3).setCellValue(date);
+			alice.getCell(3).setCellStyle(dateStyle);
+			alice.createCell(4).setCellFormula("B2*2");
+			writeRow(sheet, 3, "Bob", 41.5, false);
+			workbook.getCreationHelper().createFormulaEvaluator().evaluateAll();
+			save(workbook, file);
+		}
+
+		List<Map<String, Object>> streamed = StreamingSheetEngine.search(file, "People", List.of("ALI"), null);
+		assertEquals(1, streamed.size());
+		Map<String, Object> row = streamed.get(0);
+		assertEquals("Alice", row.get("Name"));
+		assertEquals("30.0", row.get("Age"));
+		assertEquals("true", row.get("Active"));
+		assertEquals(date.toString(), row.get("Joined"));
+		assertEquals("60.0", row.get("Score"));
+		assertEquals(1, row.get("_rowIndex"));
+
+		// Cached columns give the same results; missing cells are empty
+		StreamingSheetEngine.ColumnarSheet columns = StreamingSheetEngine.readColumns(file, "People", 100);
+		assertEquals(streamed, columns.search(List.of("ALI"), null));
+		List<Map<String, Object>> bob = columns.search(List.of("41.5"), List.of("Age"));
+		assertEquals(3, bob.get(0).get("_rowIndex"));
+		assertEquals("", bob.get(0).get("Joined"));
+		assertTrue(columns.search(List.of("Bob"), List.of("Age")).isEmpty());
+		assertArrayEquals(new int[] { 1, 3 }, columns.rowIndices);
+		assertNull(StreamingSheetEngine.readColumns(file, "People", 5));
+
+		assertThrows(IOException.class, () -> StreamingSheetEngine.search(file, "Missing", List.of("a"), null));
+	}
+
+	@Test
+	void rewriteUpdatesCellsAndKeepsStyles() throws IOException {
+		Path file = dir.resolve("update.xlsx");
+		try (XSSFWorkbook workbook = new XSSFWorkbook()) {
+			CellStyle bold = workbook.createCellStyle();
+			Font font = workbook.createFont();
+			font.setBold(true);
+			bold.setFont(font);
+			Sheet sheet = workbook.createSheet("Data");
+			writeRow(sheet, 0, "Key", "Value");
+			writeRow(sheet, 1, "a", 1).getCell(1).setCellStyle(bold);
+			writeRow(sheet, 4, "d", 4);
+			workbook.createSheet("Other").createRow(0).createCell(0).setCellValue("kept");
+			save(workbook, file);
+		}
+
+		StreamingSheetEngine.rewrite(file, "Data",
+				Map.of(1, Map.of(1, "12.5", 3, "new & <escaped>"), 2, Map.of(0, "b", 1, "TRUE"), 6, Map.of(2, "")),
+				Set.of());
+
+		try (Workbook workbook = WorkbookFactory.create(file.toFile())) {
+			Sheet sheet = workbook.getSheet("Data");
+			Cell updated = sheet.getRow(1).getCell(1);
+			assertEquals(12.5, updated.getNumericCellValue());
+			assertTrue(workbook.getFontAt(updated.getCellStyle().getFontIndex()).getBold());
+			assertEquals("a", sheet.getRow(1).getCell(0).getStringCellValue());
+			assertEquals("new & <escaped>", sheet.getRow(1).getCell(3).getStringCellValue());
+			assertEquals("b", sheet.getRow(2).getCell(0).getStringCellValue());
+			assertEquals(CellType.BOOLEAN, sheet.getRow(2).getCell(1).getCellType());
+			assertEquals(4.0, sheet.getRow(4).getCell(1).getNumericCellValue());
+			assertEquals("", sheet.getRow(6).getCell(2).getStringCellValue());
+			assertEquals("kept", workbook.getSheet("Other").getRow(0).getCell(0).getStringCellValue());
+		}
+	}
+
+	@Test
+	void rewriteDeletesRowsAndMovesFollowingRowsUp() throws IOException {
+		Path file = dir.resolve("delete.xlsx");
+		try (XSSFWorkbook workbook = new XSSFWorkbook()) {
+			Sheet sheet = workbook.createSheet("Data");
+			for (int i = 0; i < 6; i++) {
+				writeRow(sheet, i, "row" + i);
+			}
+			save(workbook, file);
+		}
+
+		StreamingSheetEngine.rewrite(file, "Data", Map.of(), Set.of(1, 3, 99));
+
+		try (Workbook workbook = WorkbookFactory.create(file.toFile())) {
+			Sheet sheet = workbook.getSheet("Data");
+			assertEquals(3, sheet.getLastRowNum());
+			List<String> values = new ArrayList<>();
+			for (Row row : sheet) {
+				values.add(row.getRowNum() + ":" + row.getCell(0).getStringCellValue());
+			}
+			assertEquals(List.of("0:row0", "1:row2", "2:row4", "3:row5"), values);
+		}
+	}
+
+	@Test
+	void rejectsRowDeletionWhenFormulasMayReferToRows() throws IOException {
+		Path file = dir.resolve("formulas.xlsx");
+		try (XSSFWorkbook workbook = new XSSFWorkbook()) {
+			Sheet sheet = workbook.createSheet("Data");
+			writeRow(sheet, 0, 1);
+			writeRow(sheet, 1, 2);
+			sheet.createRow(2).createCell(0).setCellFormula("SUM(A1:A2)");
+			save(workbook, file);
+		}
+		byte[] before = Files.readAllBytes(file);
+
+		assertThrows(StreamingSheetEngine.UnsupportedContentException.class,
+				() -> StreamingSheetEngine.rewrite(file, "Data", Map.of(), Set.of(0)));
+		assertThrows(StreamingSheetEngine.UnsupportedContentException.class,
+				() -> StreamingSheetEngine.rewrite(file, "Data", Map.of(2, Map.of(0, "5")), Set.of()));
+		assertArrayEquals(before, Files.readAllBytes(file));
+		try (var files = Files.list(dir)) {
+			assertEquals(1, files.count());
+		}
+
+		// A formula above the deleted row stays in place but its references would not
+		Path above = dir.resolve("above.xlsx");
+		try (XSSFWorkbook workbook = new XSSFWorkbook()) {
+			Sheet sheet = workbook.createSheet("Data");
+			sheet.createRow(0).createCell(0).setCellFormula("SUM(A2:A3)");
+			writeRow(sheet, 1, 1);
+			writeRow(sheet, 2, 2);
+			save(workbook, above);
+		}
+		byte[] aboveBefore = Files.readAllBytes(above);
+		assertThrows(StreamingSheetEngine.UnsupportedContentException.class,
+				() -> StreamingSheetEngine.rewrite(above, "Data", Map.of(), Set.of(1)));
+		assertArrayEquals(aboveBefore, Files.readAllBytes(above));
+	}
+
+	@Test
+	void rejectsRowDeletionWhenOtherSheetsReferToRows() throws IOException {
+		for (String formula : List.of("SUM(Data!A1:A3)", "'My Data'!A2*2", "SUM(First:Last!A1)")) {
+			Path file = dir.resolve("cross-sheet.xlsx");
+			try (XSSFWorkbook workbook = new XSSFWorkbook()) {
+				Sheet data = workbook.createSheet(formula.startsWith("'") ? "My Data" : "Data");
+				for (int i = 0; i < 3; i++) {
+					writeRow(data, i, i);
+				}
+				workbook.createSheet("Summary").createRow(0).createCell(0).setCellFormula(formula);
+				save(workbook, file);
+			}
+			byte[] before = Files.readAllBytes(file);
+			String sheetName = formula.startsWith("'") ? "My Data" : "Data";
+
+			assertThrows(StreamingSheetEngine.UnsupportedContentException.class,
+					() -> StreamingSheetEngine.rewrite(file, sheetName, Map.of(), Set.of(0)), formula);
+			assertArrayEquals(before, Files.readAllBytes(file));
+			// Updates do not move rows, so they stay on the streaming path
+			StreamingSheetEngine.rewrite(file, sheetName, Map.of(1, Map.of(0, "5")), Set.of());
+		}
+	}
+
+	@Test
+	void rewriteDeletesRowsWhenOtherSheetsReferElsewhere() throws IOException {
+		Path file = dir.resolve("unrelated-formulas.xlsx");
+		try (XSSFWorkbook workbook = new XSSFWorkbook()) {
+			Sheet data = workbook.createSheet("Data");
+			for (int i = 0; i < 3; i++) {
+				writeRow(data, i, "row" + i);
+			}
+			Sheet other = workbook.createSheet("Other");
+			writeRow(other, 0, 1, 2);
+			other.createRow(1).createCell(0).setCellFormula("SUM(A1:B1)");
+			save(workbook, file);
+		}
+
+		StreamingSheetEngine.rewrite(file, "Data", Map.of(), Set.of(0));
+
+		try (Workbook workbook = WorkbookFactory.create(file.toFile())) {
+			assertEquals("row1", workbook.getSheet("Data").getRow(0).getCell(0).getStringCellValue());
+			assertEquals("SUM(A1:B1)", workbook.getSheet("Other").getRow(1).getCell(0).getCellFormula());
+		}
+	}
+
+	@Test
+	void rewriteUpdatesCellsOnSheetWithFormulas() throws IOException {
+		Path file = dir.resolve("update-formulas.xlsx");
+		try (XSSFWorkbook workbook = new XSSFWorkbook()) {
+			Sheet sheet = workbook.createSheet("Data");
+			writeRow(sheet, 0, 1);
+			writeRow(sheet, 1, 2);
+			sheet.createRow(2).createCell(0).setCellFormula("SUM(A1:A2)");
+			writeRow(sheet, 3, "note").createCell(1).setCellFormula("A3*2");
+			save(workbook, file);
+		}
+
+		StreamingSheetEngine.rewrite(file, "Data", Map.of(1, Map.of(0, "5"), 3, Map.of(0, "changed")), Set.of());
+
+		try (Workbook workbook = WorkbookFactory.create(file.toFile())) {
+			Sheet sheet = workbook.getSheet("Data");
+			assertEquals(5.0, sheet.getRow(1).getCell(0).getNumericCellValue());
+			assertEquals("SUM(A1:A2)", sheet.getRow(2).getCell(0).getCellFormula());
+			assertEquals("changed", sheet.getRow(3).getCell(0).getStringCellValue());
+			assertEquals("A3*2", sheet.getRow(3).getCell(1).getCellFormula());
+		}
+	}
+
+	@Test
+	void serviceSearchCacheFollowsFileChanges() throws IOException {
+		UnifiedDirectoryManager directoryManager = mock(UnifiedDirectoryManager.class);
+		when(directoryManager.getRootPlanDirectory(anyString())).thenReturn(dir);
+		ExcelProcessingService service = new ExcelProcessingService(directoryManager);
+		service.createExcelFile("plan", "cache.xlsx", Map.of("Items", List.of("Name", "Kind")));
+		service.writeExcelData("plan", "cache.xlsx", "Items", List.of(List.of("apple", "fruit")), true);
+
+		assertEquals(1, service.searchExcelData("plan", "cache.xlsx", "Items", List.of("fruit"), null).size());
+		service.updateExcelCells("plan", "cache.xlsx", "Items", Map.of("A3", "pear", "B3", "fruit"));
+		// Written in the same millisecond, the size change still invalidates the entry
+		List<Map<String, Object>> results = service.searchExcelData("plan", "cache.xlsx", "Items", List.of("fruit"),
+				List.of("Kind"));
+		assertEquals(2, results.size());
+		assertEquals("pear", results.get(1).get("Name"));
+
+		service.cleanupPlanResources("plan");
+		assertFalse(service.searchExcelData("plan", "cache.xlsx", "Items", List.of("pear"), null).isEmpty());
+	}
+
+	/**
+	 * Searches and updates a generated sheet through the workbook model and the streaming
+	 * engine; both must find the same rows.
+	 */
+	@Test
+	void searchAndUpdateLargeSheetMatchesWorkbookModel() throws IOException {
+		int rows = 10_000;
+		Path file = createLargeSheet("large.xlsx", rows);
+		List<String> keywords = List.of("city-42");
+
+		int expected = 0;
+		try (Workbook workbook = WorkbookFactory.create(file.toFile())) {
+			for (Row row : workbook.getSheet("Data")) {
+				if (row.getRowNum() > 0 && row.getCell(2).getStringCellValue().contains("city-42")) {
+					expected++;
+				}
+			}
+		}
+		List<Map<String, Object>> streamed = StreamingSheetEngine.search(file, "Data", keywords, List.of("City"));
+		StreamingSheetEngine.ColumnarSheet columns = StreamingSheetEngine.readColumns(file, "Data", Long.MAX_VALUE);
+		assertEquals(expected, streamed.size());
+		assertEquals(streamed, columns.search(keywords, List.of("City")));
+
+		StreamingSheetEngine.rewrite(file, "Data", Map.of(rows / 2, Map.of(1, "updated")), Set.of());
+		List<Map<String, Object>> updated = StreamingSheetEngine.search(file, "Data", List.of("updated"),
+				List.of("Name"));
+		assertEquals(1, updated.size());
+		assertEquals(rows / 2, updated.get(0).get("_rowIndex"));
+		assertEquals(expected, StreamingSheetEngine.search(file, "Data", keywords, List.of("City")).size());
+	}
+
+	/**
+	 * Searches and updates a generated sheet through the workbook model and the streaming
+	 * engine and logs time and heap growth. Runs only when a row count is given, e.g.
+	 * -Dlynxe.excel.benchmark.rows=10000 or 1000000; the workbook model is skipped above
+	 * 200,000 rows, where it needs several GB of heap.
+	 */
+	@Test
+	void benchmarkSearchAndUpdate() throws IOException {
+		// An assumption rather than a condition: the build deactivates all conditions
+		Integer benchmarkRows = Integer.getInteger("lynxe.excel.benchmark.rows");
+		assumeTrue(benchmarkRows != null, "lynxe.excel.benchmark.rows not set");
+		int rows = benchmarkRows;
+		Path file = createLargeSheet("benchmark.xlsx", rows);
+		List<String> keywords = List.of("city-42");
+
+		StringBuilder report = new StringBuilder(String.format("%d rows, %d KB file", rows, Files.size(file) / 1024));
+		int expected = -1;
+		if (rows <= 200_000) {
+			long[] model = measure(() -> {
+				try (Workbook workbook = WorkbookFactory.create(file.toFile())) {
+					int found = 0;
+					for (Row row : workbook.getSheet("Data")) {
+						if (row.getRowNum() > 0 && row.getCell(2).getStringCellValue().contains("city-42")) {
+							found++;
+						}
+					}
+					return found;
+				}
+			});
+			expected = (int) model[2];
+			report.append(String.format(" | model search=%d ms, +%d MB heap", model[0], model[1]));
+		}
+		long[] streamed = measure(() -> StreamingSheetEngine.search(file, "Data", keywords, List.of("City")).size());
+		StreamingSheetEngine.ColumnarSheet columns = StreamingSheetEngine.readColumns(file, "Data", Long.MAX_VALUE);
+		long[] cached = measure(() -> columns.search(keywords, List.of("City")).size());
+		long[] rewritten = measure(() -> {
+			StreamingSheetEngine.rewrite(file, "Data", Map.of(rows / 2, Map.of(1, "updated")), Set.of());
+			return 1;
+		});
+		if (expected >= 0) {
+			assertEquals(expected, streamed[2]);
+		}
+		assertEquals(streamed[2], cached[2]);
+		report.append(String.format(" | streaming search=%d ms, +%d MB heap", streamed[0], streamed[1]));
+		report.append(String.format(" | cached search=%d ms", cached[0]));
+		report.append(String.format(" | streaming update=%d ms, +%d MB heap", rewritten[0], rewritten[1]));
+		log.info("Excel benchmark: {}", report);
+	}
+
+	private interface Measured {
+
+		long run() throws IOException;
+
+	}
+
+	/**
+	 * @return Elapsed ms, heap growth in MB and the task result
+	 */
+	private long[] measure(Measured task) throws IOException {
+		Runtime runtime = Runtime.getRuntime();
+		System.gc();
+		long heapBefore = runtime.totalMemory() - runtime.freeMemory();
+		long start = System.nanoTime();
+		long result = task.run();
+		long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+		long heapGrowth = Math.max(0, runtime.totalMemory() - runtime.freeMemory() - heapBefore) / (1024 * 1024);
+		return new long[] { elapsedMs, heapGrowth, result };
+	}
+
+	/**
+	 * Write a "Data" sheet with a header and the given number of rows, streamed so that
+	 * large sheets do not need the workbook model in memory
+	 */
+	private Path createLargeSheet(String name, int rows) throws IOException {
+		Path file = dir.resolve(name);
+		try (SXSSFWorkbook workbook = new SXSSFWorkbook(1000)) {
+			Sheet sheet = workbook.createSheet("Data");
+			writeRow(sheet, 0, "Id", "Name", "City", "Amount");
+			for (int i = 1; i <= rows; i++) {
+				writeRow(sheet, i, i, "name-" + i, "city-" + (i % 97), i * 1.5);
+			}
+			save(workbook, file);
+		}
+		return file;
+	}
+
+	private Row writeRow(Sheet sheet, int rowIndex, Object... values) {
+		Row row = sheet.createRow(rowIndex);
+		for (int i = 0; i < values.length; i++) {
+			Object value = values[i];
+			if (value instanceof Number number) {
+				row.createCell(i).setCellValue(number.doubleValue());
+			}
+			else if (value instanceof Boolean bool) {
+				row.createCell(i).setCellValue(bool);
+			}
+			else if (value != null) {
+				row.createCell(i).setCellValue(value.toString());
+			}
+		}
+		return row;
+	}
+
+	private void save(Workbook workbook, Path file) throws IOException {
+		try (OutputStream out = Files.newOutputStream(file)) {
+			workbook.write(out);
+		}
+	}
+
+}
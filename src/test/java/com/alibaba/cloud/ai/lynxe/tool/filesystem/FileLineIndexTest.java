@@ -0,0 +1,157 @@
+/*
+ * Copyright 2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.lynxe.tool.filesystem;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Line splitting parity of {@link FileLineIndex} with {@link Files#readAllLines},
+ * including paged reads on a large file.
+ */
+class FileLineIndexTest {
+
+	@TempDir
+	Path tempDir;
+
+	@Test
+	void matchesReadAllLinesForMixedTerminators() throws IOException {
+		String[] terminators = { "\n", "\r\n", "\r" };
+		Random random = new Random(3);
+		StringBuilder content = new StringBuilder();
+		for (int i = 0; i < 2000; i++) {
+			content.append(i % 7 == 0 ? "" : "línea " + i + " \t 中文 word");
+			content.append(terminators[random.nextInt(terminators.length)]);
+		}
+		content.append("unterminated last line");
+		Path file = write("mixed.txt", content.toString());
+
+		List<String> expected = Files.readAllLines(file);
+		FileLineIndex index = build(file);
+		assertEquals(expected.size(), index.getLineCount());
+		assertEquals(expected.stream().mapToLong(String::length).sum(), index.getCharCountWithoutNewlines());
+		assertEquals(expected.stream()
+			.filter(line -> !line.trim().isEmpty())
+			.mapToLong(line -> line.trim().split("\\s+").length)
+			.sum(), index.getWordCount());
+
+		// A "\r" terminator followed by an empty "\n" line merges into "\r\n"
+		for (int start : new int[] { 0, 1, 255, 256, 257, 1000, expected.size() - 1 }) {
+			assertEquals(expected.subList(start, Math.min(start + 37, expected.size())),
+					index.readLines(file, start, 37), "start=" + start);
+		}
+		assertEquals(expected, index.readLines(file, 0, Integer.MAX_VALUE));
+	}
+
+	@Test
+	void checkpointsStayAlignedWhenMultibyteCharactersStraddleReadBoundary() throws IOException {
+		StringBuilder content = new StringBuilder();
+		// The first three-byte character spans the 64 KB read buffer boundary
+		content.append("a".repeat(64 * 1024 - 1)).append("中文\n");
+		Random random = new Random(11);
+		for (int i = 0; i < 40_000; i++) {
+			content.append(i).append(' ');
+			int width = random.nextInt(12);
+			for (int j = 0; j < width; j++) {
+				content.append(random.nextBoolean() ? "中" : "x");
+			}
+			content.append('\n');
+		}
+		Path file = write("cjk.txt", content.toString());
+		assertTrue(Files.size(file) > 4 * 64 * 1024);
+
+		List<String> expected = Files.readAllLines(file);
+		FileLineIndex index = build(file);
+		assertEquals(expected.size(), index.getLineCount());
+		// Windows starting on a checkpoint line read from the recorded offset directly
+		for (int start = 0; start < expected.size(); start += FileLineIndex.CHECKPOINT_INTERVAL) {
+			assertEquals(expected.subList(start, Math.min(start + 3, expected.size())), index.readLines(file, start, 3),
+					"start=" + start);
+		}
+	}
+
+	@Test
+	void edgeCases() throws IOException {
+		assertEquals(0, build(write("empty.txt", "")).getLineCount());
+		assertEquals(1, build(write("one.txt", "a\n")).getLineCount());
+		assertEquals(2, build(write("blank.txt", "\n\n")).getLineCount());
+		assertEquals(2, build(write("cr.txt", "a\r\r")).getLineCount());
+	}
+
+	@Test
+	void textFileServiceRebuildsIndexWhenFileChanges() throws IOException {
+		TextFileService service = new TextFileService();
+		Path file = write("changing.txt", "a\nb\n");
+		FileLineIndex first = service.getLineIndex(file);
+		assertSame(first, service.getLineIndex(file));
+
+		Files.writeString(file, "a\nb\nc\n");
+		Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis() + 5000));
+		FileLineIndex second = service.getLineIndex(file);
+		assertNotSame(first, second);
+		assertEquals(3, second.getLineCount());
+	}
+
+	/**
+	 * Reads the last page of a large file via the index and compares it with
+	 * {@link Files#readAllLines}.
+	 */
+	@Test
+	void pagedReadOnLargeFile() throws IOException {
+		int lineCount = 500_000;
+		Path file = tempDir.resolve("large.log");
+		try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+			for (int i = 0; i < lineCount; i++) {
+				writer.write("2025-01-01T00:00:00.000 INFO [worker-" + (i % 16) + "] processed request id=" + i
+						+ " status=200 latency=" + (i % 997) + "ms");
+				writer.newLine();
+			}
+		}
+
+		FileLineIndex index = build(file);
+		List<String> page = index.readLines(file, lineCount - 100, 100);
+		List<String> expected = Files.readAllLines(file).subList(lineCount - 100, lineCount);
+
+		assertEquals(expected, page);
+		assertEquals(lineCount, index.getLineCount());
+		// One checkpoint per CHECKPOINT_INTERVAL lines instead of the whole file
+		assertTrue(index.getCheckpointCount() <= lineCount / FileLineIndex.CHECKPOINT_INTERVAL + 1);
+	}
+
+	private Path write(String name, String content) throws IOException {
+		return Files.writeString(tempDir.resolve(name), content, StandardCharsets.UTF_8);
+	}
+
+	private FileLineIndex build(Path file) throws IOException {
+		return FileLineIndex.build(file, Files.readAttributes(file, BasicFileAttributes.class));
+	}
+
+}
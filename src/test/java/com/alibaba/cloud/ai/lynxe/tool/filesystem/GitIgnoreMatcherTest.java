@@ -0,0 +1,135 @@
+/*
+ * Copyright 2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.lynxe.tool.filesystem;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Pattern semantics, change detection and concurrent use of {@link GitIgnoreMatcher}.
+ */
+class GitIgnoreMatcherTest {
+
+	@TempDir
+	Path root;
+
+	private final GitIgnoreMatcher matcher = new GitIgnoreMatcher();
+
+	@BeforeEach
+	void setUp() throws IOException {
+		Files.writeString(root.resolve(".gitignore"), """
+				# build output
+				*.log
+				!keep.log
+				build/
+				/top.txt
+				**/generated/**
+				""");
+		write("app.log");
+		write("keep.log");
+		write("top.txt");
+		write("src/top.txt");
+		write("build/out.class");
+		write("src/generated/Gen.java");
+		write("src/Main.java");
+		write("sub/.gitignore", "*.tmp\n");
+		write("sub/a.tmp");
+		write("other/a.tmp");
+	}
+
+	@Test
+	void appliesPatternsRelativeToTheirDirectory() {
+		GitIgnoreMatcher.IgnoreScope scope = matcher.forRoot(root, true);
+		assertTrue(scope.isIgnored(root.resolve("app.log")));
+		assertFalse(scope.isIgnored(root.resolve("keep.log")));
+		assertTrue(scope.isIgnored(root.resolve("top.txt")));
+		assertFalse(scope.isIgnored(root.resolve("src/top.txt")));
+		assertTrue(scope.shouldSkipDirectory(root.resolve("build")));
+		assertTrue(scope.isIgnored(root.resolve("build/out.class")));
+		assertTrue(scope.isIgnored(root.resolve("src/generated/Gen.java")));
+		assertFalse(scope.isIgnored(root.resolve("src/Main.java")));
+		assertTrue(scope.isIgnored(root.resolve("sub/a.tmp")));
+		assertFalse(scope.isIgnored(root.resolve("other/a.tmp")));
+		// Known types give the same answers without extra file system calls
+		assertTrue(scope.isIgnored(root.resolve("build"), Boolean.TRUE));
+		assertFalse(scope.isIgnored(root.resolve("keep.log"), Boolean.FALSE));
+
+		assertFalse(matcher.forRoot(root, false).isIgnored(root.resolve("app.log")));
+	}
+
+	@Test
+	void newScopeSeesChangedIgnoreFile() throws IOException {
+		assertFalse(matcher.forRoot(root, true).isIgnored(root.resolve("src/Main.java")));
+
+		Path ignoreFile = root.resolve(".gitignore");
+		Files.writeString(ignoreFile, "*.java\n");
+		Files.setLastModifiedTime(ignoreFile, FileTime.fromMillis(System.currentTimeMillis() + 5000));
+
+		GitIgnoreMatcher.IgnoreScope scope = matcher.forRoot(root, true);
+		assertTrue(scope.isIgnored(root.resolve("src/Main.java")));
+		assertFalse(scope.isIgnored(root.resolve("app.log")));
+	}
+
+	@Test
+	void sharedMatcherIsSafeAcrossThreads() throws Exception {
+		ExecutorService executor = Executors.newFixedThreadPool(8);
+		try {
+			List<Future<Boolean>> results = new ArrayList<>();
+			for (int i = 0; i < 200; i++) {
+				// Alternate between two roots on the same matcher instance
+				Path scopeRoot = i % 2 == 0 ? root : root.resolve("sub");
+				results.add(executor.submit(() -> {
+					GitIgnoreMatcher.IgnoreScope scope = matcher.forRoot(scopeRoot, true);
+					boolean ignored = scope.isIgnored(root.resolve("sub/a.tmp"));
+					boolean kept = !scope.isIgnored(root.resolve("sub/.gitignore"));
+					return ignored && kept;
+				}));
+			}
+			for (Future<Boolean> result : results) {
+				assertEquals(Boolean.TRUE, result.get());
+			}
+		}
+		finally {
+			executor.shutdownNow();
+		}
+	}
+
+	private void write(String relativePath) throws IOException {
+		write(relativePath, relativePath);
+	}
+
+	private void write(String relativePath, String content) throws IOException {
+		Path file = root.resolve(relativePath);
+		Files.createDirectories(file.getParent());
+		Files.writeString(file, content);
+	}
+
+}
@@ -0,0 +1,158 @@
+/*
+ * Copyright 2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.lynxe.tool.filesystem;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Change detection and snapshot reload of {@link WorkspaceFileIndexService}, plus the
+ * cost of a revalidated listing against a full tree walk.
+ */
+class WorkspaceFileIndexServiceTest {
+
+	@TempDir
+	Path root;
+
+	@TempDir
+	Path snapshots;
+
+	@Test
+	void detectsAddedAndRemovedEntries() throws IOException {
+		write("a.txt");
+		write("sub/b.txt");
+		write("sub/deep/c.txt");
+		settle();
+		WorkspaceFileIndexService service = new WorkspaceFileIndexService(new GitIgnoreMatcher(), (Path) null);
+		assertEquals(Set.of("a.txt", "sub/b.txt", "sub/deep/c.txt"), list(service));
+		assertEquals(Set.of("a.txt", "sub/b.txt", "sub/deep/c.txt"), list(service));
+		assertEquals(1L, service.getMetrics().get("hits"));
+
+		write("sub/new.txt");
+		write("added/d.txt");
+		deleteTree(root.resolve("sub/deep"));
+		assertEquals(Set.of("a.txt", "sub/b.txt", "sub/new.txt", "added/d.txt"), list(service));
+		assertEquals(1L, service.getMetrics().get("builds"));
+		assertEquals(1L, service.getMetrics().get("refreshes"));
+		// The build and the refresh are not hits
+		assertEquals(1.0 / 3, service.getMetrics().get("hitRate"));
+	}
+
+	@Test
+	void rebuildsWhenIgnoreFileChanges() throws IOException {
+		write("keep.txt");
+		write("build/out.txt");
+		settle();
+		WorkspaceFileIndexService service = new WorkspaceFileIndexService(new GitIgnoreMatcher(), (Path) null);
+		assertEquals(Set.of("keep.txt", "build/out.txt"), list(service));
+
+		Files.writeString(root.resolve(".gitignore"), "build/\n");
+		assertEquals(Set.of("keep.txt", ".gitignore"), list(service));
+		assertEquals(2L, service.getMetrics().get("builds"));
+	}
+
+	@Test
+	void reloadsFromSnapshot() throws IOException {
+		write("a.txt");
+		write("sub/b.txt");
+		settle();
+		WorkspaceFileIndexService first = new WorkspaceFileIndexService(new GitIgnoreMatcher(), snapshots);
+		list(first);
+		first.writeSnapshots();
+
+		write("sub/c.txt");
+		WorkspaceFileIndexService second = new WorkspaceFileIndexService(new GitIgnoreMatcher(), snapshots);
+		assertEquals(Set.of("a.txt", "sub/b.txt", "sub/c.txt"), list(second));
+		assertEquals(1L, second.getMetrics().get("snapshotLoads"));
+		assertEquals(0L, second.getMetrics().get("builds"));
+	}
+
+	/**
+	 * Lists a generated tree repeatedly: the tree is walked once and every later listing
+	 * is served from the index.
+	 */
+	@Test
+	void repeatedListingsAreServedFromIndex() throws IOException {
+		for (int i = 0; i < 5000; i++) {
+			write("module" + (i % 50) + "/pkg" + (i % 10) + "/File" + i + ".java");
+		}
+		settle();
+		WorkspaceFileIndexService service = new WorkspaceFileIndexService(new GitIgnoreMatcher(), (Path) null);
+		int rounds = 20;
+
+		list(service);
+		int indexed = 0;
+		for (int i = 0; i < rounds; i++) {
+			indexed = list(service).size();
+		}
+		int walked;
+		try (Stream<Path> walk = Files.walk(root)) {
+			walked = (int) walk.filter(Files::isRegularFile).count();
+		}
+
+		assertEquals(walked, indexed);
+		assertEquals(1L, service.getMetrics().get("builds"));
+		assertEquals((long) rounds, service.getMetrics().get("hits"));
+		assertEquals(0L, service.getMetrics().get("relistedDirectories"));
+	}
+
+	private Set<String> list(WorkspaceFileIndexService service) throws IOException {
+		List<WorkspaceFileIndex.IndexedFile> files = service.listFiles(root.toRealPath(), root.toRealPath(), true);
+		return files.stream()
+			.map(WorkspaceFileIndex.IndexedFile::getRelativePath)
+			.collect(Collectors.toCollection(TreeSet::new));
+	}
+
+	private void write(String relativePath) throws IOException {
+		Path file = root.resolve(relativePath);
+		Files.createDirectories(file.getParent());
+		Files.writeString(file, relativePath);
+	}
+
+	/**
+	 * Move directory times out of the racy window so unchanged directories are not listed
+	 * again
+	 */
+	private void settle() throws IOException {
+		FileTime past = FileTime.fromMillis(System.currentTimeMillis() - 60_000);
+		try (Stream<Path> walk = Files.walk(root)) {
+			for (Path dir : walk.filter(Files::isDirectory).toList()) {
+				Files.setLastModifiedTime(dir, past);
+			}
+		}
+	}
+
+	private void deleteTree(Path dir) throws IOException {
+		try (Stream<Path> walk = Files.walk(dir)) {
+			for (Path path : walk.sorted((a, b) -> b.getNameCount() - a.getNameCount()).toList()) {
+				Files.delete(path);
+			}
+		}
+	}
+
+}
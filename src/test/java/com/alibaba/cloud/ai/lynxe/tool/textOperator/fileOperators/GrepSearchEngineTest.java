@@ -0,0 +1,155 @@
+/*
+ * Copyright 2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.lynxe.tool.textOperator.fileOperators;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.UnaryOperator;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.alibaba.cloud.ai.lynxe.config.LynxeProperties;
+import com.alibaba.cloud.ai.lynxe.tool.filesystem.GitIgnoreMatcher;
+import com.alibaba.cloud.ai.lynxe.tool.filesystem.WorkspaceFileIndexService;
+
+/**
+ * Literal prefilter extraction, context handling and early stop of
+ * {@link GrepSearchEngine}, plus a comparison with the previous sequential read-all-lines
+ * search on a generated tree.
+ */
+class GrepSearchEngineTest {
+
+	@TempDir
+	Path root;
+
+	private GrepSearchEngine engine;
+
+	@BeforeEach
+	void setUp() {
+		engine = new GrepSearchEngine(new WorkspaceFileIndexService(new GitIgnoreMatcher(), (Path) null),
+				mock(LynxeProperties.class));
+	}
+
+	@Test
+	void requiredLiterals() {
+		assertEquals(List.of("TODO"), GrepSearchEngine.requiredLiterals("TODO"));
+		assertEquals(List.of("Repository", "Service"), GrepSearchEngine.requiredLiterals("Repository|Service"));
+		assertEquals(List.of("function"), GrepSearchEngine.requiredLiterals("function\\s+\\w+"));
+		assertEquals(List.of("Error"), GrepSearchEngine.requiredLiterals("log.*Error"));
+		assertEquals(List.of("interface{}"), GrepSearchEngine.requiredLiterals("interface\\{\\}"));
+		// Optional trailing character is not required
+		assertEquals(List.of("colo"), GrepSearchEngine.requiredLiterals("colou?r"));
+		assertEquals(List.of("abc"), GrepSearchEngine.requiredLiterals("abc(de)?f"));
+		assertNull(GrepSearchEngine.requiredLiterals("(?i)error"));
+		assertNull(GrepSearchEngine.requiredLiterals("a|b.*c"));
+		assertNull(GrepSearchEngine.requiredLiterals("\\x41BC"));
+		assertNull(GrepSearchEngine.requiredLiterals(".*"));
+	}
+
+	@Test
+	void contextLinesMatchLineByLineSemantics() throws IOException {
+		Path file = root.resolve("a.txt");
+		Files.writeString(file, "one\nmatch two\nthree\nfour\nfive\nmatch six\nmatch seven\neight\nnine\n");
+
+		GrepSearchEngine.SearchResult result = engine.search(root, null, null, Pattern.compile("match"), false, false,
+				1, 1, Integer.MAX_VALUE, UnaryOperator.identity());
+
+		assertEquals(1, result.fileMatches.size());
+		GrepSearchEngine.FileMatchInfo info = result.fileMatches.get(0);
+		assertEquals(3, info.matchCount);
+		assertEquals(List.of("1-", "2:", "3-", "5-", "6:", "7:", "8-"),
+				info.matches.stream().map(m -> m.lineNumber + (m.isMatchLine ? ":" : "-")).toList());
+	}
+
+	@Test
+	void stopsOnceMatchLimitIsReached() throws IOException {
+		for (int i = 0; i < 200; i++) {
+			Files.writeString(root.resolve("f" + i + ".log"), "hit\n".repeat(50));
+		}
+
+		GrepSearchEngine.SearchResult limited = engine.search(root, null, null, Pattern.compile("hit"), false, false, 0,
+				0, 10, UnaryOperator.identity());
+		assertTrue(limited.stoppedEarly);
+		// Workers finish the file they are on, but far fewer than all matches are read
+		assertTrue(limited.getTotalMatches() < 200 * 50);
+
+		GrepSearchEngine.SearchResult counted = engine.search(root, null, null, Pattern.compile("hit"), false, true, 0,
+				0, Integer.MAX_VALUE, UnaryOperator.identity());
+		assertFalse(counted.stoppedEarly);
+		assertEquals(200 * 50, counted.getTotalMatches());
+	}
+
+	/**
+	 * Count mode over a generated source tree against the previous sequential search
+	 * (collect every file, then read each with {@link Files#readAllLines}).
+	 */
+	@Test
+	void countMatchesSequentialSearch() throws IOException {
+		int fileCount = 4000;
+		for (int i = 0; i < fileCount; i++) {
+			Path dir = root.resolve("module" + (i % 40)).resolve("pkg" + (i % 7));
+			Files.createDirectories(dir);
+			StringBuilder content = new StringBuilder();
+			for (int line = 0; line < 200; line++) {
+				content.append("    private final String field").append(line).append(" = \"value\";\n");
+				if (line % 97 == i % 97) {
+					content.append("    // TODO handle RepositoryException here\n");
+				}
+			}
+			Files.writeString(dir.resolve("Source" + i + ".java"), content.toString());
+		}
+		Pattern pattern = Pattern.compile("Repository\\w+");
+
+		int sequential = sequentialCount(pattern);
+		GrepSearchEngine.SearchResult result = engine.search(root, null, null, pattern, false, true, 0, 0,
+				Integer.MAX_VALUE, UnaryOperator.identity());
+
+		assertEquals(sequential, result.getTotalMatches());
+		assertEquals(fileCount, result.filesSearched);
+	}
+
+	private int sequentialCount(Pattern pattern) throws IOException {
+		List<Path> files = new ArrayList<>();
+		try (Stream<Path> walk = Files.walk(root)) {
+			walk.filter(Files::isRegularFile).forEach(files::add);
+		}
+		int count = 0;
+		for (Path file : files) {
+			for (String line : Files.readAllLines(file)) {
+				Matcher matcher = pattern.matcher(line);
+				while (matcher.find()) {
+					count++;
+				}
+			}
+		}
+		return count;
+	}
+
+}
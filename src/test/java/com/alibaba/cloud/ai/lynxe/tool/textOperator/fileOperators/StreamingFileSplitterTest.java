@@ -0,0 +1,133 @@
+/*
+ * Copyright 2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.lynxe.tool.textOperator.fileOperators;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Output parity of {@link StreamingFileSplitter} with the previous in-memory line split,
+ * byte mode alignment and the manifest format.
+ */
+class StreamingFileSplitterTest {
+
+	@TempDir
+	Path dir;
+
+	@Test
+	void lineSplitMatchesInMemorySplit() throws IOException {
+		StringBuilder content = new StringBuilder();
+		for (int i = 0; i < 103; i++) {
+			content.append("row-").append(i).append(",value\n");
+		}
+		content.append("last-without-newline");
+		Path source = Files.writeString(dir.resolve("data.csv"), content.toString());
+		List<String> allLines = Files.readAllLines(source);
+
+		List<StreamingFileSplitter.Piece> pieces = StreamingFileSplitter.splitByLines(source, allLines.size(),
+				"id,value\n", 10);
+
+		assertEquals(10, pieces.size());
+		List<String> expected = inMemorySplit(allLines, "id,value\n", 10);
+		for (int i = 0; i < pieces.size(); i++) {
+			assertEquals(dir.resolve(i + "-data.csv"), pieces.get(i).file);
+			assertEquals(expected.get(i), Files.readString(pieces.get(i).file));
+		}
+	}
+
+	@Test
+	void byteSplitCutsAtLineEndsAndKeepsBytes() throws IOException {
+		StringBuilder content = new StringBuilder();
+		for (int i = 0; i < 1000; i++) {
+			content.append("line ").append(i).append(i % 3 == 0 ? "\r\n" : "\n");
+		}
+		Path source = Files.writeString(dir.resolve("big.log"), content.toString());
+
+		List<StreamingFileSplitter.Piece> pieces = StreamingFileSplitter.splitByBytes(source, "", 7);
+
+		assertEquals(7, pieces.size());
+		StringBuilder joined = new StringBuilder();
+		for (StreamingFileSplitter.Piece piece : pieces) {
+			String text = Files.readString(piece.file);
+			assertTrue(text.endsWith("\n"), piece.file.toString());
+			assertEquals(Files.size(piece.file), piece.size);
+			joined.append(text);
+		}
+		assertEquals(content.toString(), joined.toString());
+
+		// A single long line cannot be cut, so later pieces are skipped
+		Path oneLine = Files.writeString(dir.resolve("one.txt"), "x".repeat(5000));
+		assertEquals(1, StreamingFileSplitter.splitByBytes(oneLine, "h\n", 4).size());
+		assertEquals("h\n" + "x".repeat(5000), Files.readString(dir.resolve("0-one.txt"), StandardCharsets.UTF_8));
+	}
+
+	@Test
+	void manifestListsPiecesRelativeToBase() throws IOException {
+		Path sub = Files.createDirectories(dir.resolve("input"));
+		Path source = Files.writeString(sub.resolve("items.txt"), "a\nb\nc\n");
+		List<StreamingFileSplitter.Piece> pieces = StreamingFileSplitter.splitByLines(source, 3, "", 3);
+
+		Path manifest = StreamingFileSplitter.manifestFile(source);
+		StreamingFileSplitter.writeManifest(manifest, pieces, dir);
+
+		assertEquals(sub.resolve("items.split-manifest.json"), manifest);
+		List<Map<String, Object>> entries = new ObjectMapper().readValue(manifest.toFile(),
+				new TypeReference<List<Map<String, Object>>>() {
+				});
+		assertEquals(3, entries.size());
+		assertEquals("input/0-items.txt", entries.get(0).get("file_path"));
+		assertEquals(2, entries.get(2).get("piece_index"));
+	}
+
+	/**
+	 * The split previously done with {@link Files#readAllLines}
+	 */
+	private List<String> inMemorySplit(List<String> allLines, String headerContent, int splitCount) {
+		int totalLines = allLines.size();
+		int linesPerPiece = totalLines / splitCount;
+		int remainder = totalLines % splitCount;
+		List<String> pieces = new ArrayList<>();
+		int currentLineIndex = 0;
+		for (int i = 0; i < splitCount; i++) {
+			int pieceSize = linesPerPiece + (i < remainder ? 1 : 0);
+			StringBuilder content = new StringBuilder(headerContent);
+			for (int j = 0; j < pieceSize && currentLineIndex < totalLines; j++) {
+				content.append(allLines.get(currentLineIndex));
+				if (currentLineIndex < totalLines - 1 || j < pieceSize - 1) {
+					content.append("\n");
+				}
+				currentLineIndex++;
+			}
+			pieces.add(content.toString());
+		}
+		return pieces;
+	}
+
+}
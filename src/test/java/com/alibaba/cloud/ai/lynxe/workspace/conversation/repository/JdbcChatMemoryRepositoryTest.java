@@ -0,0 +1,125 @@
+/*
+ * Copyright 2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.lynxe.workspace.conversation.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.chat.memory.ChatMemory;
+import org.springframework.ai.chat.memory.MessageWindowChatMemory;
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.messages.Message;
+import org.springframework.ai.chat.messages.SystemMessage;
+import org.springframework.ai.chat.messages.UserMessage;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+/**
+ * Incremental writes and the conversation cache of {@link JdbcChatMemoryRepository},
+ * against an in-memory H2 database in the MySQL mode used by the H2 profile.
+ */
+class JdbcChatMemoryRepositoryTest {
+
+	private CountingJdbcTemplate jdbcTemplate;
+
+	@BeforeEach
+	void setUp() {
+		jdbcTemplate = new CountingJdbcTemplate(new DriverManagerDataSource(
+				"jdbc:h2:mem:chat_memory;MODE=MYSQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1", "sa", ""));
+		jdbcTemplate.execute("DROP TABLE IF EXISTS ai_chat_memory");
+	}
+
+	@Test
+	void appendsNewMessagesAndDeletesOnlyEvictedRows() {
+		H2ChatMemoryRepository repository = H2ChatMemoryRepository.h2Builder().jdbcTemplate(jdbcTemplate).build();
+		ChatMemory memory = MessageWindowChatMemory.builder().chatMemoryRepository(repository).maxMessages(3).build();
+
+		memory.add("c1", new SystemMessage("system"));
+		memory.add("c1", new UserMessage("q1"));
+		memory.add("c1", new AssistantMessage("a1"));
+		List<Long> idsBefore = ids("c1");
+
+		memory.add("c1", new UserMessage("q2"));
+		List<Long> idsAfter = ids("c1");
+		// The system message is kept, q1 is evicted, a1 keeps its row
+		assertEquals(List.of("system", "a1", "q2"), texts(memory.get("c1")));
+		assertEquals(idsBefore.get(0), idsAfter.get(0));
+		assertEquals(idsBefore.get(2), idsAfter.get(1));
+		assertTrue(idsAfter.get(2) > idsBefore.get(2));
+
+		// A new repository reads the same conversation from the table
+		H2ChatMemoryRepository reloaded = H2ChatMemoryRepository.h2Builder().jdbcTemplate(jdbcTemplate).build();
+		assertEquals(List.of("system", "a1", "q2"), texts(reloaded.findByConversationId("c1")));
+	}
+
+	@Test
+	void servesConversationsFromCache() {
+		H2ChatMemoryRepository repository = H2ChatMemoryRepository.h2Builder().jdbcTemplate(jdbcTemplate).build();
+		ChatMemory memory = MessageWindowChatMemory.builder().chatMemoryRepository(repository).maxMessages(10).build();
+		memory.add("c2", new UserMessage("hello"));
+		int queries = jdbcTemplate.queries.get();
+
+		for (int i = 0; i < 5; i++) {
+			memory.add("c2", new AssistantMessage("answer " + i));
+		}
+		assertEquals(6, memory.get("c2").size());
+		assertEquals(queries, jdbcTemplate.queries.get());
+
+		memory.clear("c2");
+		assertTrue(memory.get("c2").isEmpty());
+		assertEquals(0, ids("c2").size());
+
+		repository.clearCache();
+		memory.add("c2", new UserMessage("again"));
+		assertEquals(queries + 1, jdbcTemplate.queries.get());
+		assertEquals(List.of("again"), texts(memory.get("c2")));
+	}
+
+	private List<Long> ids(String conversationId) {
+		return jdbcTemplate.queryForList("SELECT id FROM ai_chat_memory WHERE conversation_id = ? ORDER BY id",
+				Long.class, conversationId);
+	}
+
+	private static List<String> texts(List<Message> messages) {
+		return messages.stream().map(Message::getText).toList();
+	}
+
+	/**
+	 * Counts conversation reads issued through row mappers
+	 */
+	private static class CountingJdbcTemplate extends JdbcTemplate {
+
+		private final AtomicInteger queries = new AtomicInteger();
+
+		CountingJdbcTemplate(DriverManagerDataSource dataSource) {
+			super(dataSource);
+		}
+
+		@Override
+		public <T> List<T> query(String sql, RowMapper<T> rowMapper, Object... args) {
+			queries.incrementAndGet();
+			return super.query(sql, rowMapper, args);
+		}
+
+	}
+
+}
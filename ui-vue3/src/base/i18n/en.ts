@@ -528,6 +528,8 @@ const words: I18nType = {
           'Maximum memory threshold for a single agent. When exceeded, the system will automatically compress memory to keep the memory character count within the current threshold.',
         executorPoolSize:
           'Core size of the executor pool, representing the number of func-Agents that can execute in parallel. It is not recommended to set this too large; 3~5 is appropriate. The bottleneck is the rate limiting of parallel calls on the LLM side.',
+        executorVirtualThreads:
+          'Run executor pools on virtual threads (requires JDK 21+). Each task gets its own virtual thread and the executor pool size becomes a per-level concurrency limit, so agents blocked on LLM, MCP or shell I/O no longer fill the task queue. Falls back to platform threads on older JDKs.',
         llmReadTimeout:
           'LLM read request timeout, which is the core timeout for socket connections. Default is 120 seconds.',
         parallelToolCalls: 'Parallel tool calls',
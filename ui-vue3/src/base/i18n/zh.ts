@@ -512,6 +512,8 @@ const words: I18nType = {
           '单agent的最大 memory记忆阈值，超过这个数值系统会自动压缩记忆，保持记忆字符数在当前阈值内。',
         executorPoolSize:
           '执行器的核心大小，func-Agent可并行执行的数量，不建议过大3~5合适，瓶颈是llm端的并行调用限流。',
+        executorVirtualThreads:
+          '执行器使用虚拟线程（需要 JDK 21+）。每个任务使用独立的虚拟线程，执行器大小变为每层的并发上限，阻塞在 LLM、MCP 或 shell I/O 上的 Agent 不再占满任务队列。低版本 JDK 下自动回退为平台线程。',
         llmReadTimeout: 'llm读请求超时，是socket最核心的超时时间，默认是120秒',
         parallelToolCalls:
           '并行工具调用，打开的话会引导模型做并行的tools调用，不过模型有时候不是很聪明，并行容易出现不少错误，默认关闭',